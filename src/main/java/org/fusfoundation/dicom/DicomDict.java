@@ -32,313 +32,132 @@ package org.fusfoundation.dicom;
  * @version 1.0
  */
 
-import java.util.*;
 import java.io.*;
 
 public class DicomDict implements Serializable {
 
-  // This class implements the Singleton pattern
-  static private DicomDict theDict = null;
+  // This class implements the Singleton pattern, the holder class defers
+  // building the tables until the dictionary is first used
+  private static class Holder {
+    static final DicomDict theDict = new DicomDict();
+  }
 
   // Factory method fot the single DicomDict instance
-  synchronized static public DicomDict getDictionary() {
-    if (theDict == null) {
-      theDict = new DicomDict();
-    }
-    return theDict;
+  static public DicomDict getDictionary() {
+    return Holder.theDict;
   }
 
   // private constructor for Singleton pattern
   private DicomDict() {
-    dictEntries = new HashMap();
-    alphaDictEntries = new HashMap();
-    dictRangeEntries = new ArrayList();
-    readDict("dicom.dic");
+    tagIds = DicomDictData.TAG_IDS;
+    tagVrTypes = DicomDictData.TAG_VR_TYPES;
+    tagNames = DicomDictData.TAG_NAMES;
+    buildNameIndex();
   }
 
-  // Arrays to hold the dictionary elements
-  private ArrayList dictRangeEntries;
-  private HashMap dictEntries; // hash dictionary entries by group/element id
-  private HashMap alphaDictEntries; // hash dictrionary entries by name
+  // The dictionary elements, compiled from dicom.dic into DicomDictData by
+  // DicomDictCompiler. Parallel arrays sorted by group/element id, shared
+  // with DicomDictData.
+  private transient int[] tagIds;
+  private transient byte[] tagVrTypes;
+  private transient String[] tagNames;
+  
+  // Open addressed name -> id index, sized to a power of two
+  private transient String[] nameKeys;
+  private transient int[] nameIds;
   
   public String getVrName(int ID)
   {
       int  group = (ID & 0xffff0000) >>> 16;
       if (group % 2 == 1) return "Private";
       
-      DictEntry entry = (DictEntry)dictEntries.get(new Integer(ID));
+      int index = indexOf(ID);
       
-      if (entry == null) {
+      if (index < 0) {
         return "Unknown";
       }
       else {
-        return entry.Name;
+        return tagNames[index];
       }
   }
   
   public int getVrType(int ID)
   {
-      DictEntry entry = (DictEntry)dictEntries.get(new Integer(ID));
+      int index = indexOf(ID);
       
-      if (entry == null) {
+      if (index < 0) {
           return VR.UN;
       }
       else {
-          return entry.VR;
+          return tagVrTypes[index];
       }
   }
   
   public int getVrId(String name)
   {
       // Look up the the name in the dictionary and return the ID
-     DictEntry entry = (DictEntry)alphaDictEntries.get(name);
-     return (entry.getGroup() & 0xFFFF) << 16 | (entry.getElement() & 0xFFFF);
-  }
-
-  // Inner classes to represent dictionary elements and element ranges
-  private class DictEntry {
-    public String Name;
-    public int ID;
-    public int VMmin, VMmax;
-    public int VR;
-
-    public DictEntry(String name, int group, int elem, int vr) {
-      Name = name;
-      ID = ((group & 0xFFFF) << 16) | (elem & 0xFFFF);
-      VR = vr;
-      VMmin = VMmax = 1;
-    }
-
-    public DictEntry(String name, int group, int elem, int vr, int vmMin, int vmMax) {
-      Name = name;
-      ID = ((group & 0xFFFF) << 16) | (elem & 0xFFFF);
-      VR = vr;
-      VMmin = vmMin;
-      VMmax = vmMax;
-    }
-    
-    public int hashCode() { return ID; }
-    
-    public int getGroup() { return (ID >>> 16) & 0xFFFF; }
-    public int getElement() { return ID & 0xFFFF; }
-
-  }
-
-  private class DictRangeEntry {
-    public String Name;
-    public int groupLow, groupHigh;
-    public int groupRangeRestrict;
-    public int elementLow, elementHigh;
-    public int elementRangeRestrict;
-    public int VMmin, VMmax;
-    public int VR;
-
-    public static final int rangeEven=0;
-    public static final int rangeOdd=1;
-    public static final int rangeAll=2;
-
-    public DictRangeEntry(String name, int grpLow, int grpHigh, int grpRestrict, int elemLow, int elemHigh, int elemRestrict, int vr, int vmMin, int vmMax) {
-      Name = name;
-      VR = vr;
-      groupLow = grpLow;
-      groupHigh = grpHigh;
-      groupRangeRestrict = grpRestrict;
-      elementLow = elemLow;
-      elementHigh = elemHigh;
-      elementRangeRestrict = elemRestrict;
-      VMmin = vmMin;
-      VMmax = vmMax;
-    }
-
-    public int getGroupLow() { return groupLow; }
-    public int getElementLow() { return groupLow; }
-    public int getGroupHigh() { return groupHigh; }
-    public int getElementHigh() { return groupHigh; }
-    public int getGroupRangeRestriction() { return groupRangeRestrict; }
-    public int getElementRangeRestriction() { return elementRangeRestrict; }
-
-  }
-
-  private int getVMmin(String entry) {
-    if (entry.indexOf("-") > 0) {
-      return Integer.parseInt(entry.substring(0, entry.indexOf("-")));
-    }
-    else {
-      return Integer.parseInt(entry);
-    }
+      int mask = nameKeys.length - 1;
+      for (int slot = hashName(name) & mask; nameKeys[slot] != null; slot = (slot + 1) & mask) {
+        if (nameKeys[slot].equals(name)) {
+          return nameIds[slot];
+        }
+      }
+      throw new NullPointerException("Unknown DICOM element name: " + name);
   }
-
-  private int getVMmax(String entry) {
-    if (entry.indexOf("-") > 0) {
-      String second = entry.substring(entry.indexOf("-")+1, entry.length());
-      if (second.compareTo("n") == 0) {
-        return -1; // means any number (n)
+  
+  private int indexOf(int ID) {
+    int low = 0;
+    int high = tagIds.length - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = Integer.compareUnsigned(tagIds[mid], ID);
+      if (cmp < 0) {
+        low = mid + 1;
       }
-      else if (second.indexOf("n") >= 0) {
-        return -Integer.parseInt(second.substring(0, 1)); // means any number (n)
+      else if (cmp > 0) {
+        high = mid - 1;
+      }
+      else {
+        return mid;
       }
-      else
-        return Integer.parseInt(second);
-    }
-    else {
-      return Integer.parseInt(entry);
     }
+    return -1;
   }
-
-  private int getRangeMin(String entry) {
-    if (entry.indexOf("-") > 0) {
-      return Integer.parseInt(entry.substring(0, entry.indexOf("-")), 16);
-    }
-    else {
-      return Integer.parseInt(entry, 16);
-    }
+  
+  private static int hashName(String name) {
+    int h = name.hashCode() * 0x9E3779B9;
+    return h ^ (h >>> 16);
   }
-
-  private int getRangeMax(String entry) {
-    if (entry.indexOf("-o-") > 0 || entry.indexOf("-u-") > 0) {
-      return Integer.parseInt(entry.substring(7, 11), 16);
-    }
-    else if (entry.indexOf("-") > 0) {
-      return Integer.parseInt(entry.substring(5, 9), 16);
+  
+  // Every tag name maps to its id, then the aliases, which replace a tag
+  // name where dicom.dic later gave it to another id
+  private void buildNameIndex() {
+    String[] aliases = DicomDictData.ALIAS_NAMES;
+    int tableSize = Integer.highestOneBit((tagNames.length + aliases.length) * 2 - 1) << 1;
+    nameKeys = new String[tableSize];
+    nameIds = new int[tableSize];
+    
+    for (int i=0; i<tagNames.length; i++) {
+      putName(tagNames[i], tagIds[i]);
     }
-    else {
-      return Integer.parseInt(entry, 16);
+    for (int i=0; i<aliases.length; i++) {
+      putName(aliases[i], DicomDictData.ALIAS_IDS[i]);
     }
   }
-
-  private int getRangeRestriction(String entry) {
-    if (entry.indexOf("-o-") > 0) {
-      return DictRangeEntry.rangeOdd;
-    }
-    else if (entry.indexOf("-u-") > 0) {
-      return DictRangeEntry.rangeAll;
-    }
-    else if (entry.indexOf("-") > 0) {
-      return DictRangeEntry.rangeEven;
-    }
-    else {
-      return DictRangeEntry.rangeAll;
-    }
+  
+  private void putName(String name, int id) {
+    int mask = nameKeys.length - 1;
+    int slot = hashName(name) & mask;
+    while (nameKeys[slot] != null && !nameKeys[slot].equals(name)) {
+      slot = (slot + 1) & mask;
+    }
+    nameKeys[slot] = name;
+    nameIds[slot] = id;
   }
-
-  private void readDict(String resourceName) {
-    try {
-
-      InputStream rstm = this.getClass().getResourceAsStream(resourceName);
-
-      BufferedReader fileStr = new BufferedReader(new InputStreamReader(rstm));
-      String thisLine;
-      while ((thisLine = fileStr.readLine()) != null) {
-        if (thisLine.startsWith("#")) {
-        }
-        else {
-          StringTokenizer tok = new StringTokenizer(thisLine);
-          String id, vr, name, vm, version;
-
-          id = tok.nextToken();
-
-          String group = id.substring(1, id.indexOf(","));
-          String element = id.substring(id.indexOf(",")+1, id.length()-1);
-
-          vr = tok.nextToken();
-          name = tok.nextToken();
-          vm = tok.nextToken();
-          version = tok.nextToken();
-
-          if (group.indexOf("-") > 1 || element.indexOf("-") > 1) {
-//            System.out.println(name + " - " + group + "-" + element);
-            DictRangeEntry entry = new DictRangeEntry(
-              name,
-              this.getRangeMin(group),
-              this.getRangeMax(group),
-              this.getRangeRestriction(group),
-              this.getRangeMin(element),
-              this.getRangeMax(element),
-              this.getRangeRestriction(element),
-              VR.idFromString(vr),
-              this.getVMmin(vm),
-              this.getVMmax(vm)
-            );
-            this.dictRangeEntries.add(entry);
-
-          }
-          else {
-            DictEntry entry = new DictEntry(
-                name,
-                Integer.parseInt(group, 16), Integer.parseInt(element, 16),
-                VR.idFromString(vr),
-                getVMmin(vm), getVMmax(vm)
-              );
-            this.dictEntries.put(new Integer(entry.ID), entry);
-            this.alphaDictEntries.put(new String(name), entry);
-
-          }
-        }
-      }
-/*
-      FileWriter fw = new FileWriter("/home/jsnell/dict.java");
-      fw.write("class DicomDictData {\r\n");
-      fw.write("  public DicomDictData() {}\r\n");
-      fw.write("  private static String elementName[] = {\r\n");
-
-      Iterator i = dictEntries.values().iterator();
-      while (i.hasNext()) {
-        DictEntry k = (DictEntry)i.next();
-        int tg = (k.ID >>> 16) & 0xffff;
-        int te = k.ID & 0xffff;
-
-        fw.write("    \""+k.Name+"\"");
-        if (i.hasNext()) {
-          fw.write(",");
-        }
-        fw.write("\r\n");
-       }
-       fw.write("  };\r\n");
-
-       fw.write("  private static int elementID[] = {\r\n");
-        i = dictEntries.values().iterator();
-        while (i.hasNext()) {
-          DictEntry k = (DictEntry)i.next();
-
-          fw.write("    "+k.ID);
-          if (i.hasNext()) {
-            fw.write(",");
-          }
-          fw.write("\r\n");
-         }
-         fw.write("  };\r\n");
-
-       fw.write("  private static int elementVR[] = {\r\n");
-        i = dictEntries.values().iterator();
-        while (i.hasNext()) {
-          DictEntry k = (DictEntry)i.next();
-          int tg = (k.ID >>> 16) & 0xffff;
-          int te = k.ID & 0xffff;
-
-          fw.write("    "+VR.stringFromId(k.VR)+ " VM: " + k.VMmin + " - " + k.VMmax);
-          if (i.hasNext()) {
-            fw.write(",");
-          }
-          fw.write("\r\n");
-         }
-         fw.write("  };\r\n");
-
-         fw.write("//Ranges\r\n");
-         i = this.dictRangeEntries.iterator();
-         while(i.hasNext()) {
-          DictRangeEntry e = (DictRangeEntry)i.next();
-          fw.write("// " + e.Name + " " + Integer.toHexString(e.groupLow) + "-" + Integer.toHexString(e.groupHigh) + ", " + Integer.toHexString(e.elementLow) + "-" + Integer.toHexString(e.elementHigh) + " VR:" + VR.stringFromId(e.VR) + " VM: " + e.VMmin + " - " + e.VMmax + "\r\n");
-         }
-
-       // Closing brace for the class
-       fw.write("}");
-       fw.close();
-*/
-
-    }
-    catch(Exception e) {
-      System.out.println(e.toString());
-    }
+  
+  // Deserialized references share the singleton
+  private Object readResolve() {
+    return getDictionary();
   }
 
   public static void main(String args[]) {
@@ -0,0 +1,206 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom;
+
+import java.io.*;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Compiles the dicom.dic text dictionary into DicomDictData.java, the
+ * precompiled id, VR type and name arrays DicomDict uses as they are, so
+ * nothing is parsed at startup. Run it again whenever dicom.dic changes
+ * (gradle generateDicomDict), DicomDictCompilerTest fails while
+ * DicomDictData.java is out of date. dicom.dic is only a build input,
+ * it is kept out of the resources.
+ * 
+ * Usage: DicomDictCompiler [dicom.dic] [DicomDictData.java]
+ *
+ * Entries for tag ranges (e.g. (60xx,3000)) are not compiled, DicomDict has
+ * never looked them up.
+ *
+ * @author jsnell
+ */
+public class DicomDictCompiler {
+    
+    static final String DICT_FILE = "src/main/dicom/dicom.dic";
+    static final String DATA_FILE = "src/main/java/org/fusfoundation/dicom/DicomDictData.java";
+    
+    static class Entry {
+        int id;
+        int vrType;
+        String name;
+        
+        Entry(int id, int vrType, String name) {
+            this.id = id;
+            this.vrType = vrType;
+            this.name = name;
+        }
+    }
+    
+    public static void main(String[] args) {
+        File dictFile = new File(args.length > 0 ? args[0] : DICT_FILE);
+        File outFile = new File(args.length > 1 ? args[1] : DATA_FILE);
+        
+        try {
+            List<Entry> entries = readDict(dictFile);
+            try (Writer out = new OutputStreamWriter(new FileOutputStream(outFile), "8859_1")) {
+                out.write(generate(entries, dictFile.getName()));
+            }
+            System.out.println("Wrote " + entries.size() + " entries to " + outFile);
+        }
+        catch(IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+    
+    // Returns the single tag entries sorted by id. Entries with the same id
+    // stay in dictionary order, DicomDict keeps the last one for the id.
+    static List<Entry> readDict(File dictFile) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(dictFile), "8859_1"))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.startsWith("#") || line.trim().isEmpty()) {
+                    continue;
+                }
+                
+                StringTokenizer tok = new StringTokenizer(line);
+                String id = tok.nextToken();
+                String vr = tok.nextToken();
+                String name = tok.nextToken();
+                
+                String group = id.substring(1, id.indexOf(","));
+                String element = id.substring(id.indexOf(",")+1, id.length()-1);
+                if (group.indexOf("-") > 1 || element.indexOf("-") > 1) {
+                    continue; // range entry
+                }
+                
+                try {
+                    int tag = Integer.parseInt(group, 16) << 16 | Integer.parseInt(element, 16);
+                    entries.add(new Entry(tag, VR.idFromString(vr), name));
+                }
+                catch(NumberFormatException e) {
+                    throw new IOException(dictFile + ":" + lineNumber + ": bad tag " + id);
+                }
+            }
+        }
+        
+        // stable, so duplicate ids keep dictionary order
+        Collections.sort(entries, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry a, Entry b) {
+                return Integer.compareUnsigned(a.id, b.id);
+            }
+        });
+        
+        return entries;
+    }
+    
+    // The source of DicomDictData.java for the entries
+    static String generate(List<Entry> entries, String sourceName) {
+        // the last line for an id gives its type and name
+        List<Entry> tags = new ArrayList<>();
+        for (Entry e : entries) {
+            if (!tags.isEmpty() && tags.get(tags.size()-1).id == e.id) {
+                tags.set(tags.size()-1, e);
+            }
+            else {
+                tags.add(e);
+            }
+        }
+        
+        // the last line for a name gives its id, names that aren't the name
+        // of that id are aliases
+        Map<Integer, String> tagNames = new HashMap<>();
+        for (Entry e : tags) {
+            tagNames.put(e.id, e.name);
+        }
+        Map<String, Integer> nameIds = new LinkedHashMap<>();
+        for (Entry e : entries) {
+            nameIds.put(e.name, e.id);
+        }
+        List<Entry> aliases = new ArrayList<>();
+        for (Map.Entry<String, Integer> e : nameIds.entrySet()) {
+            if (!e.getKey().equals(tagNames.get(e.getValue()))) {
+                aliases.add(new Entry(e.getValue(), VR.UN, e.getKey()));
+            }
+        }
+        
+        StringWriter result = new StringWriter();
+        try (PrintWriter out = new PrintWriter(result)) {
+            out.print("/*\r\n");
+            out.print(" * Generated by DicomDictCompiler from " + sourceName + ", do not edit.\r\n");
+            out.print(" */\r\n");
+            out.print("package org.fusfoundation.dicom;\r\n");
+            out.print("\r\n");
+            out.print("final class DicomDictData {\r\n");
+            out.print("    \r\n");
+            out.print("    private DicomDictData() {}\r\n");
+            out.print("    \r\n");
+            out.print("    // Tag ids sorted as unsigned ints, with the VR type and name of each\r\n");
+            out.print("    static final int[] TAG_IDS = tagIds();\r\n");
+            out.print("    static final byte[] TAG_VR_TYPES = tagVrTypes();\r\n");
+            out.print("    static final String[] TAG_NAMES = tagNames();\r\n");
+            out.print("    \r\n");
+            out.print("    // Names of ids that are listed under more than one name, and names\r\n");
+            out.print("    // later given to another id. These override TAG_NAMES in name lookups.\r\n");
+            out.print("    static final String[] ALIAS_NAMES = aliasNames();\r\n");
+            out.print("    static final int[] ALIAS_IDS = aliasIds();\r\n");
+            
+            // each table gets its own method, together they are too big
+            // for one static initializer
+            writeTable(out, "int", "tagIds", tags, 8, e -> String.format("0x%08x", e.id));
+            writeTable(out, "byte", "tagVrTypes", tags, 12, e -> "VR." + VR.stringFromId(e.vrType));
+            writeTable(out, "String", "tagNames", tags, 1, e -> "\"" + e.name + "\"");
+            writeTable(out, "String", "aliasNames", aliases, 1, e -> "\"" + e.name + "\"");
+            writeTable(out, "int", "aliasIds", aliases, 8, e -> String.format("0x%08x", e.id));
+            
+            out.print("}\r\n");
+        }
+        return result.toString();
+    }
+    
+    private static void writeTable(PrintWriter out, String type, String method, List<Entry> entries, int perLine, Function<Entry, String> value) {
+        out.print("    \r\n");
+        out.print("    private static " + type + "[] " + method + "() {\r\n");
+        out.print("        return new " + type + "[] {\r\n");
+        for (int i=0; i<entries.size(); i++) {
+            out.print(i % perLine == 0 ? "            " : " ");
+            out.print(value.apply(entries.get(i)));
+            if (i < entries.size()-1) {
+                out.print(",");
+            }
+            if (i % perLine == perLine-1 || i == entries.size()-1) {
+                out.print("\r\n");
+            }
+        }
+        out.print("        };\r\n");
+        out.print("    }\r\n");
+    }
+}
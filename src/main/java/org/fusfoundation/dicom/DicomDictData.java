@@ -0,0 +1,4085 @@
+/*
+ * Generated by DicomDictCompiler from dicom.dic, do not edit.
+ */
+package org.fusfoundation.dicom;
+
+final class DicomDictData {
+    
+    private DicomDictData() {}
+    
+    // Tag ids sorted as unsigned ints, with the VR type and name of each
+    static final int[] TAG_IDS = tagIds();
+    static final byte[] TAG_VR_TYPES = tagVrTypes();
+    static final String[] TAG_NAMES = tagNames();
+    
+    // Names of ids that are listed under more than one name, and names
+    // later given to another id. These override TAG_NAMES in name lookups.
+    static final String[] ALIAS_NAMES = aliasNames();
+    static final int[] ALIAS_IDS = aliasIds();
+    
+    private static int[] tagIds() {
+        return new int[] {
+            0x00000000, 0x00000001, 0x00000002, 0x00000003, 0x00000010, 0x00000100, 0x00000110, 0x00000120,
+            0x00000200, 0x00000300, 0x00000400, 0x00000600, 0x00000700, 0x00000800, 0x00000850, 0x00000860,
+            0x00000900, 0x00000901, 0x00000902, 0x00000903, 0x00001000, 0x00001001, 0x00001002, 0x00001005,
+            0x00001008, 0x00001020, 0x00001021, 0x00001022, 0x00001023, 0x00001030, 0x00001031, 0x00004000,
+            0x00004010, 0x00005010, 0x00005020, 0x00005110, 0x00005120, 0x00005130, 0x00005140, 0x00005150,
+            0x00005160, 0x00005170, 0x00005180, 0x00005190, 0x000051a0, 0x000051b0, 0x00020000, 0x00020001,
+            0x00020002, 0x00020003, 0x00020010, 0x00020012, 0x00020013, 0x00020016, 0x00020100, 0x00020102,
+            0x00041130, 0x00041141, 0x00041142, 0x00041200, 0x00041202, 0x00041212, 0x00041220, 0x00041400,
+            0x00041410, 0x00041420, 0x00041430, 0x00041432, 0x00041500, 0x00041504, 0x00041510, 0x00041511,
+            0x00041512, 0x0004151a, 0x00041600, 0x00080001, 0x00080005, 0x00080006, 0x00080008, 0x00080010,
+            0x00080012, 0x00080013, 0x00080014, 0x00080016, 0x00080018, 0x0008001a, 0x0008001b, 0x00080020,
+            0x00080021, 0x00080022, 0x00080023, 0x00080024, 0x00080025, 0x0008002a, 0x00080030, 0x00080031,
+            0x00080032, 0x00080033, 0x00080034, 0x00080035, 0x00080040, 0x00080041, 0x00080042, 0x00080050,
+            0x00080051, 0x00080052, 0x00080054, 0x00080056, 0x00080058, 0x00080060, 0x00080061, 0x00080062,
+            0x00080064, 0x00080068, 0x00080070, 0x00080080, 0x00080081, 0x00080082, 0x00080090, 0x00080092,
+            0x00080094, 0x00080096, 0x00080100, 0x00080102, 0x00080103, 0x00080104, 0x00080105, 0x00080106,
+            0x00080107, 0x0008010b, 0x0008010c, 0x0008010d, 0x0008010f, 0x00080110, 0x00080112, 0x00080114,
+            0x00080115, 0x00080116, 0x00080117, 0x00080201, 0x00081000, 0x00081010, 0x00081030, 0x00081032,
+            0x0008103e, 0x0008103f, 0x00081040, 0x00081048, 0x00081049, 0x00081050, 0x00081052, 0x00081060,
+            0x00081062, 0x00081070, 0x00081072, 0x00081080, 0x00081084, 0x00081090, 0x00081100, 0x00081110,
+            0x00081111, 0x00081115, 0x00081120, 0x00081125, 0x00081130, 0x00081134, 0x0008113a, 0x00081140,
+            0x00081145, 0x0008114a, 0x0008114b, 0x00081150, 0x00081155, 0x0008115a, 0x00081160, 0x00081161,
+            0x00081162, 0x00081163, 0x00081164, 0x00081167, 0x00081195, 0x00081197, 0x00081198, 0x00081199,
+            0x00081200, 0x00081250, 0x00082110, 0x00082111, 0x00082112, 0x00082120, 0x00082122, 0x00082124,
+            0x00082127, 0x00082128, 0x00082129, 0x0008212a, 0x00082130, 0x00082132, 0x00082133, 0x00082134,
+            0x00082135, 0x00082142, 0x00082143, 0x00082144, 0x00082200, 0x00082204, 0x00082208, 0x00082218,
+            0x00082220, 0x00082228, 0x00082229, 0x00082230, 0x00082240, 0x00082242, 0x00082244, 0x00082246,
+            0x00082251, 0x00082253, 0x00082255, 0x00082256, 0x00082257, 0x00082258, 0x00082259, 0x0008225a,
+            0x0008225c, 0x00083001, 0x00083010, 0x00084000, 0x00089007, 0x00089092, 0x00089121, 0x00089123,
+            0x00089124, 0x00089154, 0x00089205, 0x00089206, 0x00089207, 0x00089208, 0x00089209, 0x00089215,
+            0x00089237, 0x00089410, 0x00089458, 0x00089459, 0x00089460, 0x00100010, 0x00100020, 0x00100021,
+            0x00100022, 0x00100024, 0x00100030, 0x00100032, 0x00100040, 0x00100050, 0x00100101, 0x00100102,
+            0x00101000, 0x00101001, 0x00101002, 0x00101005, 0x00101010, 0x00101020, 0x00101021, 0x00101030,
+            0x00101040, 0x00101050, 0x00101060, 0x00101080, 0x00101081, 0x00101090, 0x00102000, 0x00102110,
+            0x00102150, 0x00102152, 0x00102154, 0x00102160, 0x00102180, 0x001021a0, 0x001021b0, 0x001021c0,
+            0x001021d0, 0x001021f0, 0x00102201, 0x00102202, 0x00102203, 0x00102210, 0x00102292, 0x00102293,
+            0x00102294, 0x00102295, 0x00102296, 0x00102297, 0x00102298, 0x00102299, 0x00104000, 0x00109431,
+            0x00120010, 0x00120020, 0x00120021, 0x00120030, 0x00120031, 0x00120040, 0x00120042, 0x00120050,
+            0x00120051, 0x00120060, 0x00120062, 0x00120063, 0x00120064, 0x00120071, 0x00120072, 0x00120081,
+            0x00120082, 0x00120083, 0x00120084, 0x00120085, 0x00180010, 0x00180012, 0x00180014, 0x00180015,
+            0x00180020, 0x00180021, 0x00180022, 0x00180023, 0x00180024, 0x00180025, 0x00180026, 0x00180027,
+            0x00180028, 0x00180029, 0x0018002a, 0x00180030, 0x00180031, 0x00180032, 0x00180033, 0x00180034,
+            0x00180035, 0x00180036, 0x00180037, 0x00180038, 0x00180039, 0x0018003a, 0x00180040, 0x00180042,
+            0x00180050, 0x00180060, 0x00180070, 0x00180071, 0x00180072, 0x00180073, 0x00180074, 0x00180075,
+            0x00180080, 0x00180081, 0x00180082, 0x00180083, 0x00180084, 0x00180085, 0x00180086, 0x00180087,
+            0x00180088, 0x00180089, 0x00180090, 0x00180091, 0x00180093, 0x00180094, 0x00180095, 0x00181000,
+            0x00181002, 0x00181003, 0x00181004, 0x00181005, 0x00181006, 0x00181007, 0x00181008, 0x00181010,
+            0x00181011, 0x00181012, 0x00181014, 0x00181016, 0x00181017, 0x00181018, 0x00181019, 0x0018101a,
+            0x0018101b, 0x00181020, 0x00181022, 0x00181023, 0x00181030, 0x00181040, 0x00181041, 0x00181042,
+            0x00181043, 0x00181044, 0x00181045, 0x00181046, 0x00181047, 0x00181048, 0x00181049, 0x00181050,
+            0x00181060, 0x00181061, 0x00181062, 0x00181063, 0x00181064, 0x00181065, 0x00181066, 0x00181067,
+            0x00181068, 0x00181069, 0x0018106a, 0x0018106c, 0x0018106e, 0x00181070, 0x00181071, 0x00181072,
+            0x00181073, 0x00181074, 0x00181075, 0x00181076, 0x00181077, 0x00181078, 0x00181079, 0x00181080,
+            0x00181081, 0x00181082, 0x00181083, 0x00181084, 0x00181085, 0x00181086, 0x00181088, 0x00181090,
+            0x00181094, 0x00181100, 0x00181110, 0x00181111, 0x00181114, 0x00181120, 0x00181121, 0x00181130,
+            0x00181131, 0x00181134, 0x00181135, 0x00181136, 0x00181137, 0x00181138, 0x0018113a, 0x00181140,
+            0x00181141, 0x00181142, 0x00181143, 0x00181144, 0x00181145, 0x00181146, 0x00181147, 0x00181149,
+            0x00181150, 0x00181151, 0x00181152, 0x00181153, 0x00181154, 0x00181155, 0x00181156, 0x0018115a,
+            0x0018115e, 0x00181160, 0x00181161, 0x00181162, 0x00181164, 0x00181166, 0x00181170, 0x00181180,
+            0x00181181, 0x00181182, 0x00181183, 0x00181184, 0x00181190, 0x00181191, 0x001811a0, 0x001811a2,
+            0x00181200, 0x00181201, 0x00181210, 0x00181240, 0x00181242, 0x00181243, 0x00181244, 0x00181250,
+            0x00181251, 0x00181260, 0x00181261, 0x00181300, 0x00181301, 0x00181302, 0x00181310, 0x00181312,
+            0x00181314, 0x00181315, 0x00181316, 0x00181318, 0x00181400, 0x00181401, 0x00181402, 0x00181403,
+            0x00181404, 0x00181405, 0x00181411, 0x00181412, 0x00181413, 0x00181450, 0x00181460, 0x00181470,
+            0x00181480, 0x00181490, 0x00181491, 0x00181495, 0x00181500, 0x00181508, 0x00181510, 0x00181511,
+            0x00181520, 0x00181521, 0x00181530, 0x00181531, 0x00181600, 0x00181602, 0x00181604, 0x00181606,
+            0x00181608, 0x00181610, 0x00181612, 0x00181620, 0x00181622, 0x00181623, 0x00181624, 0x00181700,
+            0x00181702, 0x00181704, 0x00181706, 0x00181708, 0x00181710, 0x00181712, 0x00181720, 0x00181800,
+            0x00181801, 0x00181802, 0x00181803, 0x00182001, 0x00182002, 0x00182003, 0x00182004, 0x00182005,
+            0x00182006, 0x00182010, 0x00182020, 0x00182030, 0x00183100, 0x00183101, 0x00183102, 0x00183103,
+            0x00183104, 0x00183105, 0x00184000, 0x00185000, 0x00185010, 0x00185012, 0x00185020, 0x00185021,
+            0x00185022, 0x00185024, 0x00185026, 0x00185027, 0x00185028, 0x00185029, 0x00185030, 0x00185040,
+            0x00185050, 0x00185100, 0x00185101, 0x00185104, 0x00185210, 0x00185212, 0x00186000, 0x00186011,
+            0x00186012, 0x00186014, 0x00186016, 0x00186018, 0x0018601a, 0x0018601c, 0x0018601e, 0x00186020,
+            0x00186022, 0x00186024, 0x00186026, 0x00186028, 0x0018602a, 0x0018602c, 0x0018602e, 0x00186030,
+            0x00186031, 0x00186032, 0x00186034, 0x00186036, 0x00186038, 0x00186039, 0x0018603a, 0x0018603b,
+            0x0018603c, 0x0018603d, 0x0018603e, 0x0018603f, 0x00186040, 0x00186041, 0x00186042, 0x00186043,
+            0x00186044, 0x00186046, 0x00186048, 0x0018604a, 0x0018604c, 0x0018604e, 0x00186050, 0x00186052,
+            0x00186054, 0x00186056, 0x00186058, 0x0018605a, 0x00186060, 0x00187000, 0x00187001, 0x00187004,
+            0x00187005, 0x00187006, 0x00187008, 0x0018700a, 0x0018700c, 0x0018700e, 0x00187010, 0x00187011,
+            0x00187012, 0x00187014, 0x00187016, 0x0018701a, 0x00187020, 0x00187022, 0x00187024, 0x00187026,
+            0x00187028, 0x0018702a, 0x0018702b, 0x00187030, 0x00187032, 0x00187034, 0x00187040, 0x00187041,
+            0x00187042, 0x00187044, 0x00187046, 0x00187048, 0x0018704c, 0x00187050, 0x00187052, 0x00187054,
+            0x00187056, 0x00187058, 0x00187060, 0x00187062, 0x00187064, 0x00187065, 0x00188150, 0x00188151,
+            0x00189004, 0x00189005, 0x00189006, 0x00189008, 0x00189009, 0x00189010, 0x00189011, 0x00189012,
+            0x00189014, 0x00189015, 0x00189016, 0x00189017, 0x00189018, 0x00189019, 0x00189020, 0x00189021,
+            0x00189022, 0x00189024, 0x00189025, 0x00189026, 0x00189027, 0x00189028, 0x00189029, 0x00189030,
+            0x00189032, 0x00189033, 0x00189034, 0x00189035, 0x00189036, 0x00189037, 0x00189041, 0x00189042,
+            0x00189043, 0x00189044, 0x00189045, 0x00189046, 0x00189047, 0x00189048, 0x00189049, 0x00189050,
+            0x00189051, 0x00189052, 0x00189053, 0x00189054, 0x00189058, 0x00189059, 0x00189060, 0x00189061,
+            0x00189062, 0x00189063, 0x00189064, 0x00189065, 0x00189066, 0x00189067, 0x00189069, 0x00189070,
+            0x00189073, 0x00189074, 0x00189075, 0x00189076, 0x00189077, 0x00189078, 0x00189079, 0x00189080,
+            0x00189081, 0x00189082, 0x00189083, 0x00189084, 0x00189085, 0x00189087, 0x00189089, 0x00189090,
+            0x00189091, 0x00189092, 0x00189093, 0x00189094, 0x00189095, 0x00189096, 0x00189098, 0x00189100,
+            0x00189101, 0x00189103, 0x00189104, 0x00189105, 0x00189106, 0x00189107, 0x00189112, 0x00189114,
+            0x00189115, 0x00189117, 0x00189118, 0x00189119, 0x00189125, 0x00189126, 0x00189127, 0x00189147,
+            0x00189151, 0x00189152, 0x00189155, 0x00189159, 0x00189166, 0x00189168, 0x00189169, 0x00189170,
+            0x00189171, 0x00189172, 0x00189173, 0x00189174, 0x00189175, 0x00189176, 0x00189177, 0x00189178,
+            0x00189179, 0x00189180, 0x00189181, 0x00189182, 0x00189183, 0x00189184, 0x00189185, 0x00189186,
+            0x00189195, 0x00189196, 0x00189197, 0x00189198, 0x00189199, 0x00189200, 0x00189214, 0x00189217,
+            0x00189218, 0x00189219, 0x00189220, 0x00189226, 0x00189227, 0x00189231, 0x00189232, 0x00189234,
+            0x00189236, 0x00189239, 0x00189240, 0x00189241, 0x00189295, 0x00189296, 0x00189301, 0x00189302,
+            0x00189303, 0x00189304, 0x00189305, 0x00189306, 0x00189307, 0x00189308, 0x00189309, 0x00189310,
+            0x00189311, 0x00189312, 0x00189313, 0x00189314, 0x00189315, 0x00189316, 0x00189317, 0x00189318,
+            0x00189319, 0x00189320, 0x00189321, 0x00189322, 0x00189323, 0x00189324, 0x00189325, 0x00189326,
+            0x00189327, 0x00189328, 0x00189329, 0x00189330, 0x00189332, 0x00189333, 0x00189334, 0x00189335,
+            0x00189337, 0x00189338, 0x00189340, 0x00189341, 0x00189342, 0x00189343, 0x00189344, 0x00189345,
+            0x00189346, 0x00189351, 0x00189352, 0x00189353, 0x00189360, 0x00189401, 0x00189402, 0x00189403,
+            0x00189404, 0x00189405, 0x00189406, 0x00189407, 0x00189412, 0x00189417, 0x00189420, 0x00189423,
+            0x00189424, 0x00189425, 0x00189426, 0x00189427, 0x00189428, 0x00189429, 0x00189430, 0x00189432,
+            0x00189433, 0x00189434, 0x00189435, 0x00189436, 0x00189437, 0x00189438, 0x00189439, 0x00189440,
+            0x00189441, 0x00189442, 0x00189447, 0x00189449, 0x00189451, 0x00189452, 0x00189455, 0x00189456,
+            0x00189457, 0x00189461, 0x00189462, 0x00189463, 0x00189464, 0x00189465, 0x00189466, 0x00189467,
+            0x00189468, 0x00189469, 0x00189470, 0x00189471, 0x00189472, 0x00189473, 0x00189474, 0x00189476,
+            0x00189477, 0x00189504, 0x00189506, 0x00189507, 0x00189508, 0x00189509, 0x00189510, 0x00189511,
+            0x00189514, 0x00189515, 0x00189516, 0x00189517, 0x00189524, 0x00189525, 0x00189526, 0x00189527,
+            0x00189528, 0x00189530, 0x00189531, 0x00189538, 0x00189601, 0x00189602, 0x00189603, 0x00189604,
+            0x00189605, 0x00189606, 0x00189607, 0x00189701, 0x00189715, 0x00189716, 0x00189717, 0x00189718,
+            0x00189719, 0x00189720, 0x00189721, 0x00189722, 0x00189723, 0x00189724, 0x00189725, 0x00189726,
+            0x00189727, 0x00189729, 0x00189732, 0x00189733, 0x00189734, 0x00189735, 0x00189736, 0x00189737,
+            0x00189738, 0x00189739, 0x00189740, 0x00189749, 0x00189751, 0x00189755, 0x00189756, 0x00189758,
+            0x00189759, 0x00189760, 0x00189761, 0x00189762, 0x00189763, 0x00189764, 0x00189765, 0x00189766,
+            0x00189767, 0x00189768, 0x00189769, 0x00189770, 0x00189771, 0x00189772, 0x00189801, 0x00189803,
+            0x00189804, 0x00189805, 0x00189806, 0x00189807, 0x00189808, 0x00189809, 0x0018980b, 0x0018980c,
+            0x0018980d, 0x0018980e, 0x0018980f, 0x0018a001, 0x0018a002, 0x0018a003, 0x0020000d, 0x0020000e,
+            0x00200010, 0x00200011, 0x00200012, 0x00200013, 0x00200014, 0x00200015, 0x00200016, 0x00200017,
+            0x00200018, 0x00200019, 0x00200020, 0x00200022, 0x00200024, 0x00200026, 0x00200030, 0x00200032,
+            0x00200035, 0x00200037, 0x00200050, 0x00200052, 0x00200060, 0x00200062, 0x00200070, 0x00200080,
+            0x00200100, 0x00200105, 0x00200110, 0x00200200, 0x00200242, 0x00201000, 0x00201001, 0x00201002,
+            0x00201003, 0x00201004, 0x00201005, 0x00201020, 0x00201040, 0x00201041, 0x00201070, 0x00201200,
+            0x00201202, 0x00201204, 0x00201206, 0x00201208, 0x00201209, 0x00203401, 0x00203402, 0x00203403,
+            0x00203404, 0x00203405, 0x00203406, 0x00204000, 0x00205000, 0x00205002, 0x00209056, 0x00209057,
+            0x00209071, 0x00209072, 0x00209111, 0x00209113, 0x00209116, 0x00209128, 0x00209153, 0x00209156,
+            0x00209157, 0x00209158, 0x00209161, 0x00209162, 0x00209163, 0x00209164, 0x00209165, 0x00209167,
+            0x00209213, 0x00209221, 0x00209222, 0x00209228, 0x00209238, 0x00209241, 0x00209245, 0x00209246,
+            0x00209247, 0x00209248, 0x00209249, 0x00209250, 0x00209251, 0x00209252, 0x00209253, 0x00209254,
+            0x00209255, 0x00209256, 0x00209257, 0x00209301, 0x00209302, 0x00209307, 0x00209308, 0x00209309,
+            0x0020930a, 0x0020930c, 0x0020930d, 0x0020930e, 0x0020930f, 0x00209310, 0x00209311, 0x00209312,
+            0x00209313, 0x00209421, 0x00209450, 0x00209453, 0x00209518, 0x00209529, 0x00209536, 0x00220001,
+            0x00220002, 0x00220003, 0x00220004, 0x00220005, 0x00220006, 0x00220007, 0x00220008, 0x00220009,
+            0x0022000a, 0x0022000b, 0x0022000c, 0x0022000d, 0x0022000e, 0x00220010, 0x00220011, 0x00220012,
+            0x00220013, 0x00220014, 0x00220015, 0x00220016, 0x00220017, 0x00220018, 0x00220019, 0x0022001a,
+            0x0022001b, 0x0022001c, 0x0022001d, 0x00220020, 0x00220021, 0x00220022, 0x00220030, 0x00220031,
+            0x00220032, 0x00220035, 0x00220036, 0x00220037, 0x00220038, 0x00220039, 0x00220041, 0x00220042,
+            0x00220048, 0x00220049, 0x0022004e, 0x00220055, 0x00220056, 0x00220057, 0x00220058, 0x00221007,
+            0x00221008, 0x00221009, 0x00221010, 0x00221012, 0x00221019, 0x00221024, 0x00221025, 0x00221028,
+            0x00221029, 0x00221033, 0x00221035, 0x00221037, 0x00221039, 0x00221040, 0x00221044, 0x00221050,
+            0x00221053, 0x00221054, 0x00221059, 0x00221065, 0x00221066, 0x00221090, 0x00221092, 0x00221093,
+            0x00221095, 0x00221096, 0x00221097, 0x00221100, 0x00221101, 0x00221103, 0x00221121, 0x00221122,
+            0x00221125, 0x00221127, 0x00221128, 0x00221130, 0x00221131, 0x00221132, 0x00221133, 0x00221134,
+            0x00221135, 0x00221140, 0x00221150, 0x00221155, 0x00221159, 0x00221210, 0x00221211, 0x00221212,
+            0x00221220, 0x00221225, 0x00221230, 0x00221250, 0x00221255, 0x00221257, 0x00221260, 0x00221262,
+            0x00221265, 0x00221300, 0x00221310, 0x00221330, 0x00240010, 0x00240011, 0x00240012, 0x00240016,
+            0x00240018, 0x00240020, 0x00240021, 0x00240024, 0x00240025, 0x00240028, 0x00240032, 0x00240033,
+            0x00240034, 0x00240035, 0x00240036, 0x00240037, 0x00240038, 0x00240039, 0x00240040, 0x00240042,
+            0x00240044, 0x00240045, 0x00240046, 0x00240048, 0x00240050, 0x00240051, 0x00240052, 0x00240053,
+            0x00240054, 0x00240055, 0x00240056, 0x00240057, 0x00240058, 0x00240059, 0x00240060, 0x00240061,
+            0x00240062, 0x00240063, 0x00240064, 0x00240065, 0x00240066, 0x00240067, 0x00240068, 0x00240069,
+            0x00240070, 0x00240071, 0x00240072, 0x00240073, 0x00240074, 0x00240075, 0x00240076, 0x00240077,
+            0x00240078, 0x00240079, 0x00240080, 0x00240081, 0x00240083, 0x00240085, 0x00240086, 0x00240087,
+            0x00240088, 0x00240089, 0x00240090, 0x00240091, 0x00240092, 0x00240093, 0x00240094, 0x00240095,
+            0x00240096, 0x00240097, 0x00240098, 0x00240102, 0x00240103, 0x00240104, 0x00240105, 0x00240106,
+            0x00240107, 0x00240108, 0x00240110, 0x00240112, 0x00240113, 0x00240114, 0x00240115, 0x00240117,
+            0x00240118, 0x00240120, 0x00240122, 0x00240124, 0x00240126, 0x00240202, 0x00240306, 0x00240307,
+            0x00240308, 0x00240309, 0x00240317, 0x00240320, 0x00240325, 0x00240338, 0x00240341, 0x00240344,
+            0x00280002, 0x00280003, 0x00280004, 0x00280005, 0x00280006, 0x00280008, 0x00280009, 0x0028000a,
+            0x00280010, 0x00280011, 0x00280012, 0x00280014, 0x00280030, 0x00280031, 0x00280032, 0x00280034,
+            0x00280040, 0x00280050, 0x00280051, 0x0028005f, 0x00280060, 0x00280061, 0x00280062, 0x00280063,
+            0x00280065, 0x00280066, 0x00280068, 0x00280069, 0x00280070, 0x00280071, 0x00280080, 0x00280081,
+            0x00280082, 0x00280090, 0x00280091, 0x00280092, 0x00280093, 0x00280094, 0x00280100, 0x00280101,
+            0x00280102, 0x00280103, 0x00280104, 0x00280105, 0x00280106, 0x00280107, 0x00280108, 0x00280109,
+            0x00280110, 0x00280111, 0x00280120, 0x00280121, 0x00280200, 0x00280300, 0x00280301, 0x00280400,
+            0x00280401, 0x00280402, 0x00280403, 0x00280404, 0x00280410, 0x00280411, 0x00280412, 0x00280413,
+            0x00280700, 0x00280701, 0x00280702, 0x00280710, 0x00280720, 0x00280721, 0x00280722, 0x00280730,
+            0x00280740, 0x00280800, 0x00280802, 0x00280803, 0x00280804, 0x00280808, 0x00280a02, 0x00280a04,
+            0x00281040, 0x00281041, 0x00281050, 0x00281051, 0x00281052, 0x00281053, 0x00281054, 0x00281055,
+            0x00281056, 0x00281080, 0x00281090, 0x00281100, 0x00281101, 0x00281102, 0x00281103, 0x00281104,
+            0x00281111, 0x00281112, 0x00281113, 0x00281199, 0x00281200, 0x00281201, 0x00281202, 0x00281203,
+            0x00281204, 0x00281211, 0x00281212, 0x00281213, 0x00281214, 0x00281221, 0x00281222, 0x00281223,
+            0x00281300, 0x00281350, 0x00281351, 0x00281352, 0x0028135a, 0x00281401, 0x00281402, 0x00281403,
+            0x00281404, 0x00281405, 0x00281406, 0x00281407, 0x00281408, 0x0028140b, 0x0028140c, 0x0028140d,
+            0x0028140e, 0x0028140f, 0x00281410, 0x00282000, 0x00282110, 0x00282112, 0x00282114, 0x00283000,
+            0x00283002, 0x00283003, 0x00283004, 0x00283006, 0x00283010, 0x00283110, 0x00284000, 0x00285000,
+            0x00286010, 0x00286020, 0x00286022, 0x00286023, 0x00286030, 0x00286040, 0x00286100, 0x00286101,
+            0x00286102, 0x00286110, 0x00286112, 0x00286114, 0x00286120, 0x00286190, 0x00287fe0, 0x00289001,
+            0x00289002, 0x00289003, 0x00289099, 0x00289108, 0x00289110, 0x00289132, 0x00289145, 0x00289235,
+            0x00289411, 0x00289415, 0x00289416, 0x00289422, 0x00289443, 0x00289444, 0x00289445, 0x00289446,
+            0x00289454, 0x00289474, 0x00289478, 0x00289501, 0x00289502, 0x00289503, 0x00289505, 0x00289506,
+            0x00289507, 0x00289520, 0x00289537, 0x0032000a, 0x0032000c, 0x00320012, 0x00320032, 0x00320033,
+            0x00320034, 0x00320035, 0x00321000, 0x00321001, 0x00321010, 0x00321011, 0x00321020, 0x00321021,
+            0x00321030, 0x00321031, 0x00321032, 0x00321033, 0x00321034, 0x00321040, 0x00321041, 0x00321050,
+            0x00321051, 0x00321055, 0x00321060, 0x00321064, 0x00321070, 0x00324000, 0x00380004, 0x00380008,
+            0x00380010, 0x00380011, 0x00380014, 0x00380016, 0x0038001a, 0x0038001b, 0x0038001c, 0x0038001d,
+            0x0038001e, 0x00380020, 0x00380021, 0x00380030, 0x00380032, 0x00380040, 0x00380044, 0x00380050,
+            0x00380060, 0x00380061, 0x00380062, 0x00380064, 0x00380100, 0x00380300, 0x00380400, 0x00380500,
+            0x00380502, 0x00384000, 0x003a0004, 0x003a0005, 0x003a0010, 0x003a001a, 0x003a0020, 0x003a0200,
+            0x003a0202, 0x003a0203, 0x003a0205, 0x003a0208, 0x003a0209, 0x003a020a, 0x003a020c, 0x003a0210,
+            0x003a0211, 0x003a0212, 0x003a0213, 0x003a0214, 0x003a0215, 0x003a0218, 0x003a021a, 0x003a0220,
+            0x003a0221, 0x003a0222, 0x003a0223, 0x003a0230, 0x003a0231, 0x003a0240, 0x003a0241, 0x003a0242,
+            0x003a0244, 0x003a0245, 0x003a0246, 0x003a0247, 0x003a0248, 0x003a0300, 0x003a0301, 0x003a0302,
+            0x00400001, 0x00400002, 0x00400003, 0x00400004, 0x00400005, 0x00400006, 0x00400007, 0x00400008,
+            0x00400009, 0x0040000a, 0x0040000b, 0x00400010, 0x00400011, 0x00400012, 0x00400020, 0x00400026,
+            0x00400027, 0x00400031, 0x00400032, 0x00400033, 0x00400035, 0x00400036, 0x00400039, 0x0040003a,
+            0x00400100, 0x00400220, 0x00400241, 0x00400242, 0x00400243, 0x00400244, 0x00400245, 0x00400250,
+            0x00400251, 0x00400252, 0x00400253, 0x00400254, 0x00400255, 0x00400260, 0x00400261, 0x00400270,
+            0x00400275, 0x00400280, 0x00400281, 0x00400293, 0x00400294, 0x00400295, 0x00400296, 0x00400300,
+            0x00400301, 0x00400302, 0x00400303, 0x00400306, 0x00400307, 0x0040030e, 0x00400310, 0x00400312,
+            0x00400314, 0x00400316, 0x00400318, 0x00400320, 0x00400321, 0x00400324, 0x00400330, 0x00400340,
+            0x00400400, 0x00400440, 0x00400441, 0x00400500, 0x0040050a, 0x00400512, 0x00400513, 0x00400515,
+            0x00400518, 0x0040051a, 0x00400520, 0x00400550, 0x00400551, 0x00400552, 0x00400553, 0x00400554,
+            0x00400555, 0x00400556, 0x00400560, 0x00400562, 0x0040059a, 0x00400600, 0x00400602, 0x00400610,
+            0x00400612, 0x00400620, 0x004006fa, 0x0040071a, 0x0040072a, 0x0040073a, 0x0040074a, 0x004008d8,
+            0x004008da, 0x004008ea, 0x004009f8, 0x00401001, 0x00401002, 0x00401003, 0x00401004, 0x00401005,
+            0x00401006, 0x00401007, 0x00401008, 0x00401009, 0x0040100a, 0x00401010, 0x00401011, 0x00401012,
+            0x00401101, 0x00401102, 0x00401103, 0x00401400, 0x00402001, 0x00402004, 0x00402005, 0x00402006,
+            0x00402007, 0x00402008, 0x00402009, 0x00402010, 0x00402016, 0x00402017, 0x00402400, 0x00403001,
+            0x00404001, 0x00404002, 0x00404003, 0x00404004, 0x00404005, 0x00404006, 0x00404007, 0x00404009,
+            0x00404010, 0x00404011, 0x00404015, 0x00404016, 0x00404018, 0x00404019, 0x00404020, 0x00404021,
+            0x00404022, 0x00404023, 0x00404025, 0x00404026, 0x00404027, 0x00404028, 0x00404029, 0x00404030,
+            0x00404031, 0x00404032, 0x00404033, 0x00404034, 0x00404035, 0x00404036, 0x00404037, 0x00404040,
+            0x00408302, 0x00409094, 0x00409096, 0x00409098, 0x00409210, 0x00409211, 0x00409212, 0x00409216,
+            0x00409224, 0x00409225, 0x0040a010, 0x0040a027, 0x0040a030, 0x0040a032, 0x0040a040, 0x0040a043,
+            0x0040a050, 0x0040a073, 0x0040a075, 0x0040a078, 0x0040a07a, 0x0040a07c, 0x0040a080, 0x0040a082,
+            0x0040a084, 0x0040a088, 0x0040a090, 0x0040a0b0, 0x0040a120, 0x0040a121, 0x0040a122, 0x0040a123,
+            0x0040a124, 0x0040a130, 0x0040a132, 0x0040a136, 0x0040a138, 0x0040a13a, 0x0040a160, 0x0040a168,
+            0x0040a170, 0x0040a180, 0x0040a195, 0x0040a300, 0x0040a301, 0x0040a30a, 0x0040a353, 0x0040a354,
+            0x0040a360, 0x0040a370, 0x0040a372, 0x0040a375, 0x0040a385, 0x0040a390, 0x0040a491, 0x0040a492,
+            0x0040a493, 0x0040a494, 0x0040a496, 0x0040a504, 0x0040a525, 0x0040a730, 0x0040b020, 0x0040db00,
+            0x0040db06, 0x0040db07, 0x0040db0b, 0x0040db0c, 0x0040db0d, 0x0040db73, 0x0040e001, 0x0040e004,
+            0x0040e006, 0x0040e010, 0x0040e011, 0x00420010, 0x00420011, 0x00420012, 0x00420013, 0x00420014,
+            0x00440001, 0x00440002, 0x00440003, 0x00440004, 0x00440007, 0x00440008, 0x00440009, 0x0044000a,
+            0x0044000b, 0x00440010, 0x00440011, 0x00440012, 0x00440013, 0x00440019, 0x00460012, 0x00460014,
+            0x00460015, 0x00460016, 0x00460018, 0x00460028, 0x00460030, 0x00460032, 0x00460034, 0x00460036,
+            0x00460038, 0x00460040, 0x00460042, 0x00460044, 0x00460046, 0x00460050, 0x00460052, 0x00460060,
+            0x00460062, 0x00460063, 0x00460064, 0x00460070, 0x00460071, 0x00460074, 0x00460075, 0x00460076,
+            0x00460077, 0x00460080, 0x00460092, 0x00460094, 0x00460095, 0x00460097, 0x00460098, 0x00460100,
+            0x00460101, 0x00460102, 0x00460104, 0x00460106, 0x00460121, 0x00460122, 0x00460123, 0x00460124,
+            0x00460125, 0x00460135, 0x00460137, 0x00460139, 0x00460145, 0x00460146, 0x00460147, 0x00480001,
+            0x00480002, 0x00480003, 0x00480006, 0x00480007, 0x00480008, 0x00480010, 0x00480011, 0x00480012,
+            0x00480013, 0x00480014, 0x00480015, 0x00480100, 0x00480102, 0x00480105, 0x00480106, 0x00480107,
+            0x00480108, 0x00480110, 0x00480111, 0x00480112, 0x00480113, 0x00480120, 0x00480200, 0x00480201,
+            0x00480202, 0x00480207, 0x0048021a, 0x0048021e, 0x0048021f, 0x00480301, 0x00500004, 0x00500010,
+            0x00500012, 0x00500013, 0x00500014, 0x00500015, 0x00500016, 0x00500017, 0x00500018, 0x00500019,
+            0x0050001a, 0x0050001b, 0x0050001c, 0x0050001d, 0x0050001e, 0x00500020, 0x00540010, 0x00540011,
+            0x00540012, 0x00540013, 0x00540014, 0x00540015, 0x00540016, 0x00540017, 0x00540018, 0x00540020,
+            0x00540021, 0x00540022, 0x00540030, 0x00540031, 0x00540032, 0x00540033, 0x00540036, 0x00540038,
+            0x00540039, 0x00540050, 0x00540051, 0x00540052, 0x00540053, 0x00540060, 0x00540061, 0x00540062,
+            0x00540063, 0x00540070, 0x00540071, 0x00540072, 0x00540073, 0x00540080, 0x00540081, 0x00540090,
+            0x00540100, 0x00540101, 0x00540200, 0x00540202, 0x00540210, 0x00540211, 0x00540220, 0x00540222,
+            0x00540300, 0x00540302, 0x00540304, 0x00540306, 0x00540308, 0x00540400, 0x00540410, 0x00540412,
+            0x00540414, 0x00540500, 0x00541000, 0x00541001, 0x00541002, 0x00541004, 0x00541100, 0x00541101,
+            0x00541102, 0x00541103, 0x00541104, 0x00541105, 0x00541200, 0x00541201, 0x00541202, 0x00541203,
+            0x00541210, 0x00541220, 0x00541300, 0x00541310, 0x00541311, 0x00541320, 0x00541321, 0x00541322,
+            0x00541323, 0x00541324, 0x00541330, 0x00541400, 0x00541401, 0x00603000, 0x00603002, 0x00603004,
+            0x00603006, 0x00603008, 0x00603010, 0x00603020, 0x00620001, 0x00620002, 0x00620003, 0x00620004,
+            0x00620005, 0x00620006, 0x00620008, 0x00620009, 0x0062000a, 0x0062000b, 0x0062000c, 0x0062000d,
+            0x0062000e, 0x0062000f, 0x00620010, 0x00640002, 0x00640003, 0x00640005, 0x00640007, 0x00640008,
+            0x00640009, 0x0064000f, 0x00640010, 0x00660001, 0x00660002, 0x00660003, 0x00660004, 0x00660009,
+            0x0066000a, 0x0066000b, 0x0066000c, 0x0066000d, 0x0066000e, 0x00660010, 0x00660011, 0x00660012,
+            0x00660013, 0x00660015, 0x00660016, 0x00660017, 0x00660018, 0x00660019, 0x0066001a, 0x0066001b,
+            0x0066001c, 0x0066001e, 0x0066001f, 0x00660020, 0x00660021, 0x00660023, 0x00660024, 0x00660025,
+            0x00660026, 0x00660027, 0x00660028, 0x00660029, 0x0066002a, 0x0066002b, 0x0066002c, 0x0066002d,
+            0x0066002e, 0x0066002f, 0x00660030, 0x00660031, 0x00660032, 0x00660034, 0x00660035, 0x00660036,
+            0x00686210, 0x00686221, 0x00686222, 0x00686223, 0x00686224, 0x00686225, 0x00686226, 0x00686230,
+            0x00686260, 0x00686265, 0x00686270, 0x00686280, 0x006862a0, 0x006862a5, 0x006862c0, 0x006862d0,
+            0x006862d5, 0x006862e0, 0x006862f0, 0x006862f2, 0x00686300, 0x00686310, 0x00686320, 0x00686330,
+            0x00686340, 0x00686345, 0x00686346, 0x00686347, 0x00686350, 0x00686360, 0x00686380, 0x00686390,
+            0x006863a0, 0x006863a4, 0x006863a8, 0x006863ac, 0x006863b0, 0x006863c0, 0x006863d0, 0x006863e0,
+            0x006863f0, 0x00686400, 0x00686410, 0x00686420, 0x00686430, 0x00686440, 0x00686450, 0x00686460,
+            0x00686470, 0x00686490, 0x006864a0, 0x006864c0, 0x006864d0, 0x006864f0, 0x00686500, 0x00686510,
+            0x00686520, 0x00686530, 0x00686540, 0x00686545, 0x00686550, 0x00686560, 0x00686590, 0x006865a0,
+            0x006865b0, 0x006865d0, 0x006865e0, 0x006865f0, 0x00686610, 0x00686620, 0x00700001, 0x00700002,
+            0x00700003, 0x00700004, 0x00700005, 0x00700006, 0x00700008, 0x00700009, 0x00700010, 0x00700011,
+            0x00700012, 0x00700014, 0x00700015, 0x00700020, 0x00700021, 0x00700022, 0x00700023, 0x00700024,
+            0x00700040, 0x00700041, 0x00700042, 0x00700050, 0x00700051, 0x00700052, 0x00700053, 0x0070005a,
+            0x00700060, 0x00700062, 0x00700066, 0x00700067, 0x00700068, 0x00700080, 0x00700081, 0x00700082,
+            0x00700083, 0x00700084, 0x00700086, 0x00700087, 0x00700100, 0x00700101, 0x00700102, 0x00700103,
+            0x00700207, 0x00700208, 0x00700209, 0x00700226, 0x00700227, 0x00700228, 0x00700229, 0x00700230,
+            0x00700231, 0x00700232, 0x00700233, 0x00700234, 0x00700241, 0x00700242, 0x00700243, 0x00700244,
+            0x00700245, 0x00700246, 0x00700247, 0x00700248, 0x00700249, 0x00700250, 0x00700251, 0x00700252,
+            0x00700253, 0x00700254, 0x00700255, 0x00700256, 0x00700257, 0x00700258, 0x00700261, 0x00700262,
+            0x00700273, 0x00700274, 0x00700278, 0x00700279, 0x00700282, 0x00700284, 0x00700285, 0x00700287,
+            0x00700288, 0x00700289, 0x00700294, 0x00700295, 0x00700306, 0x00700308, 0x00700309, 0x0070030a,
+            0x0070030c, 0x0070030d, 0x0070030f, 0x00700310, 0x00700311, 0x00700312, 0x00700314, 0x00700318,
+            0x0070031a, 0x0070031c, 0x0070031e, 0x00700401, 0x00700402, 0x00700403, 0x00700404, 0x00700405,
+            0x00720002, 0x00720004, 0x00720006, 0x00720008, 0x0072000a, 0x0072000c, 0x0072000e, 0x00720010,
+            0x00720012, 0x00720014, 0x00720020, 0x00720022, 0x00720024, 0x00720026, 0x00720028, 0x00720030,
+            0x00720032, 0x00720034, 0x00720038, 0x0072003a, 0x0072003c, 0x0072003e, 0x00720040, 0x00720050,
+            0x00720052, 0x00720054, 0x00720056, 0x00720060, 0x00720062, 0x00720064, 0x00720066, 0x00720068,
+            0x0072006a, 0x0072006c, 0x0072006e, 0x00720070, 0x00720072, 0x00720074, 0x00720076, 0x00720078,
+            0x0072007a, 0x0072007c, 0x0072007e, 0x00720080, 0x00720100, 0x00720102, 0x00720104, 0x00720106,
+            0x00720108, 0x0072010a, 0x0072010c, 0x0072010e, 0x00720200, 0x00720202, 0x00720203, 0x00720204,
+            0x00720206, 0x00720208, 0x00720210, 0x00720212, 0x00720214, 0x00720216, 0x00720218, 0x00720300,
+            0x00720302, 0x00720304, 0x00720306, 0x00720308, 0x00720310, 0x00720312, 0x00720314, 0x00720316,
+            0x00720318, 0x00720320, 0x00720330, 0x00720400, 0x00720402, 0x00720404, 0x00720406, 0x00720420,
+            0x00720421, 0x00720422, 0x00720424, 0x00720427, 0x00720430, 0x00720432, 0x00720434, 0x00720500,
+            0x00720510, 0x00720512, 0x00720514, 0x00720516, 0x00720520, 0x00720600, 0x00720602, 0x00720604,
+            0x00720700, 0x00720702, 0x00720704, 0x00720706, 0x00720710, 0x00720712, 0x00720714, 0x00720716,
+            0x00720717, 0x00720718, 0x00741000, 0x00741002, 0x00741004, 0x00741006, 0x00741008, 0x0074100a,
+            0x0074100c, 0x0074100e, 0x00741020, 0x00741022, 0x00741024, 0x00741030, 0x00741032, 0x00741034,
+            0x00741036, 0x00741038, 0x0074103a, 0x00741040, 0x00741042, 0x00741044, 0x00741046, 0x00741048,
+            0x0074104a, 0x0074104c, 0x0074104e, 0x00741050, 0x00741052, 0x00741054, 0x00741056, 0x00741200,
+            0x00741202, 0x00741204, 0x00741210, 0x00741212, 0x00741216, 0x00741220, 0x00741222, 0x00741230,
+            0x00741234, 0x00741236, 0x00741238, 0x00741242, 0x00741244, 0x00741246, 0x00760001, 0x00760003,
+            0x00760006, 0x00760008, 0x0076000a, 0x0076000c, 0x0076000e, 0x00760010, 0x00760020, 0x00760030,
+            0x00760032, 0x00760034, 0x00760036, 0x00760038, 0x00760040, 0x00760055, 0x00760060, 0x00760070,
+            0x00760080, 0x00760090, 0x007600a0, 0x007600b0, 0x007600c0, 0x00780000, 0x00780010, 0x00780020,
+            0x00780024, 0x00780026, 0x00780028, 0x0078002a, 0x0078002e, 0x00780050, 0x00780060, 0x00780070,
+            0x00780090, 0x007800a0, 0x007800b0, 0x007800b2, 0x007800b4, 0x007800b6, 0x007800b8, 0x00880130,
+            0x00880140, 0x00880200, 0x00880904, 0x00880906, 0x00880910, 0x00880912, 0x01000410, 0x01000420,
+            0x01000424, 0x01000426, 0x04000005, 0x04000010, 0x04000015, 0x04000020, 0x04000100, 0x04000105,
+            0x04000110, 0x04000115, 0x04000120, 0x04000305, 0x04000310, 0x04000401, 0x04000402, 0x04000403,
+            0x04000404, 0x04000500, 0x04000510, 0x04000520, 0x04000550, 0x04000561, 0x04000562, 0x04000563,
+            0x04000564, 0x04000565, 0x10000000, 0x10000010, 0x10000011, 0x10000012, 0x10000013, 0x10000014,
+            0x10000015, 0x10100000, 0x10100004, 0x20000010, 0x2000001e, 0x20000020, 0x20000030, 0x20000040,
+            0x20000050, 0x20000060, 0x20000061, 0x20000062, 0x20000063, 0x20000065, 0x20000067, 0x20000069,
+            0x2000006a, 0x200000a0, 0x200000a1, 0x200000a2, 0x200000a4, 0x200000a8, 0x20000500, 0x20000510,
+            0x20100010, 0x20100030, 0x20100040, 0x20100050, 0x20100052, 0x20100054, 0x20100060, 0x20100080,
+            0x201000a6, 0x201000a7, 0x201000a8, 0x201000a9, 0x20100100, 0x20100110, 0x20100120, 0x20100130,
+            0x20100140, 0x20100150, 0x20100152, 0x20100154, 0x2010015e, 0x20100160, 0x20100376, 0x20100500,
+            0x20100510, 0x20100520, 0x20200010, 0x20200020, 0x20200030, 0x20200040, 0x20200050, 0x202000a0,
+            0x202000a2, 0x20200110, 0x20200111, 0x20200130, 0x20200140, 0x20300010, 0x20300020, 0x20400010,
+            0x20400011, 0x20400020, 0x20400060, 0x20400070, 0x20400072, 0x20400074, 0x20400080, 0x20400082,
+            0x20400090, 0x20400100, 0x20400500, 0x20500010, 0x20500020, 0x20500500, 0x21000010, 0x21000020,
+            0x21000030, 0x21000040, 0x21000050, 0x21000070, 0x21000140, 0x21000160, 0x21000170, 0x21000500,
+            0x21100010, 0x21100020, 0x21100030, 0x21100099, 0x21200010, 0x21200050, 0x21200070, 0x21300010,
+            0x21300015, 0x21300030, 0x21300040, 0x21300050, 0x21300060, 0x21300080, 0x213000a0, 0x213000c0,
+            0x22000001, 0x22000002, 0x22000003, 0x22000004, 0x22000005, 0x22000006, 0x22000007, 0x22000008,
+            0x22000009, 0x2200000a, 0x2200000b, 0x2200000c, 0x2200000d, 0x2200000e, 0x2200000f, 0x22000020,
+            0x30020002, 0x30020003, 0x30020004, 0x3002000a, 0x3002000c, 0x3002000d, 0x3002000e, 0x30020010,
+            0x30020011, 0x30020012, 0x30020020, 0x30020022, 0x30020024, 0x30020026, 0x30020028, 0x30020029,
+            0x30020030, 0x30020032, 0x30020034, 0x30020040, 0x30020041, 0x30020042, 0x30020050, 0x30020051,
+            0x30020052, 0x30040001, 0x30040002, 0x30040004, 0x30040006, 0x30040008, 0x3004000a, 0x3004000c,
+            0x3004000e, 0x30040010, 0x30040012, 0x30040014, 0x30040040, 0x30040042, 0x30040050, 0x30040052,
+            0x30040054, 0x30040056, 0x30040058, 0x30040060, 0x30040062, 0x30040070, 0x30040072, 0x30040074,
+            0x30060002, 0x30060004, 0x30060006, 0x30060008, 0x30060009, 0x30060010, 0x30060012, 0x30060014,
+            0x30060016, 0x30060020, 0x30060022, 0x30060024, 0x30060026, 0x30060028, 0x3006002a, 0x3006002c,
+            0x30060030, 0x30060033, 0x30060036, 0x30060038, 0x30060039, 0x30060040, 0x30060042, 0x30060044,
+            0x30060045, 0x30060046, 0x30060048, 0x30060049, 0x30060050, 0x30060080, 0x30060082, 0x30060084,
+            0x30060085, 0x30060086, 0x30060088, 0x300600a0, 0x300600a4, 0x300600a6, 0x300600b0, 0x300600b2,
+            0x300600b4, 0x300600b6, 0x300600b7, 0x300600b8, 0x300600c0, 0x300600c2, 0x300600c4, 0x300600c6,
+            0x300600c8, 0x30080010, 0x30080012, 0x30080014, 0x30080016, 0x30080020, 0x30080021, 0x30080022,
+            0x30080024, 0x30080025, 0x3008002a, 0x3008002b, 0x3008002c, 0x30080030, 0x30080032, 0x30080033,
+            0x30080036, 0x30080037, 0x3008003a, 0x3008003b, 0x30080040, 0x30080041, 0x30080042, 0x30080044,
+            0x30080045, 0x30080046, 0x30080047, 0x30080048, 0x30080050, 0x30080052, 0x30080054, 0x30080056,
+            0x3008005a, 0x30080060, 0x30080061, 0x30080062, 0x30080063, 0x30080064, 0x30080065, 0x30080066,
+            0x30080068, 0x3008006a, 0x30080070, 0x30080072, 0x30080074, 0x30080076, 0x30080078, 0x3008007a,
+            0x30080080, 0x30080082, 0x30080090, 0x30080092, 0x300800a0, 0x300800b0, 0x300800c0, 0x300800d0,
+            0x300800e0, 0x300800f0, 0x300800f2, 0x300800f4, 0x300800f6, 0x30080100, 0x30080105, 0x30080110,
+            0x30080116, 0x30080120, 0x30080122, 0x30080130, 0x30080132, 0x30080134, 0x30080136, 0x30080138,
+            0x3008013a, 0x3008013c, 0x30080140, 0x30080142, 0x30080150, 0x30080152, 0x30080160, 0x30080162,
+            0x30080164, 0x30080166, 0x30080168, 0x30080200, 0x30080202, 0x30080220, 0x30080223, 0x30080224,
+            0x30080230, 0x30080240, 0x30080250, 0x30080251, 0x300a0002, 0x300a0003, 0x300a0004, 0x300a0006,
+            0x300a0007, 0x300a0009, 0x300a000a, 0x300a000b, 0x300a000c, 0x300a000e, 0x300a0010, 0x300a0012,
+            0x300a0013, 0x300a0014, 0x300a0015, 0x300a0016, 0x300a0018, 0x300a001a, 0x300a0020, 0x300a0021,
+            0x300a0022, 0x300a0023, 0x300a0025, 0x300a0026, 0x300a0027, 0x300a0028, 0x300a002a, 0x300a002b,
+            0x300a002c, 0x300a002d, 0x300a0040, 0x300a0042, 0x300a0043, 0x300a0044, 0x300a0046, 0x300a0048,
+            0x300a004a, 0x300a004b, 0x300a004c, 0x300a004e, 0x300a004f, 0x300a0050, 0x300a0051, 0x300a0052,
+            0x300a0053, 0x300a0055, 0x300a0070, 0x300a0071, 0x300a0072, 0x300a0078, 0x300a0079, 0x300a007a,
+            0x300a007b, 0x300a0080, 0x300a0082, 0x300a0084, 0x300a0086, 0x300a0088, 0x300a0089, 0x300a008a,
+            0x300a00a0, 0x300a00a2, 0x300a00a4, 0x300a00b0, 0x300a00b2, 0x300a00b3, 0x300a00b4, 0x300a00b6,
+            0x300a00b8, 0x300a00ba, 0x300a00bb, 0x300a00bc, 0x300a00be, 0x300a00c0, 0x300a00c2, 0x300a00c3,
+            0x300a00c4, 0x300a00c6, 0x300a00c7, 0x300a00c8, 0x300a00ca, 0x300a00cc, 0x300a00ce, 0x300a00d0,
+            0x300a00d1, 0x300a00d2, 0x300a00d3, 0x300a00d4, 0x300a00d5, 0x300a00d6, 0x300a00d7, 0x300a00d8,
+            0x300a00d9, 0x300a00da, 0x300a00db, 0x300a00dc, 0x300a00dd, 0x300a00e0, 0x300a00e1, 0x300a00e2,
+            0x300a00e3, 0x300a00e4, 0x300a00e5, 0x300a00e6, 0x300a00e7, 0x300a00e8, 0x300a00e9, 0x300a00ea,
+            0x300a00eb, 0x300a00ec, 0x300a00ed, 0x300a00ee, 0x300a00f0, 0x300a00f2, 0x300a00f3, 0x300a00f4,
+            0x300a00f5, 0x300a00f6, 0x300a00f7, 0x300a00f8, 0x300a00f9, 0x300a00fa, 0x300a00fb, 0x300a00fc,
+            0x300a00fe, 0x300a0100, 0x300a0102, 0x300a0104, 0x300a0106, 0x300a0107, 0x300a0108, 0x300a0109,
+            0x300a010a, 0x300a010c, 0x300a010e, 0x300a0110, 0x300a0111, 0x300a0112, 0x300a0114, 0x300a0115,
+            0x300a0116, 0x300a0118, 0x300a011a, 0x300a011c, 0x300a011e, 0x300a011f, 0x300a0120, 0x300a0121,
+            0x300a0122, 0x300a0123, 0x300a0124, 0x300a0125, 0x300a0126, 0x300a0128, 0x300a0129, 0x300a012a,
+            0x300a012c, 0x300a012e, 0x300a0130, 0x300a0134, 0x300a0140, 0x300a0142, 0x300a0144, 0x300a0146,
+            0x300a0148, 0x300a014a, 0x300a014c, 0x300a014e, 0x300a0180, 0x300a0182, 0x300a0183, 0x300a0184,
+            0x300a0190, 0x300a0192, 0x300a0194, 0x300a0196, 0x300a0198, 0x300a0199, 0x300a019a, 0x300a01a0,
+            0x300a01a2, 0x300a01a4, 0x300a01a6, 0x300a01a8, 0x300a01b0, 0x300a01b2, 0x300a01b4, 0x300a01b6,
+            0x300a01b8, 0x300a01ba, 0x300a01bc, 0x300a01d0, 0x300a01d2, 0x300a01d4, 0x300a01d6, 0x300a0200,
+            0x300a0202, 0x300a0206, 0x300a0210, 0x300a0212, 0x300a0214, 0x300a0216, 0x300a0218, 0x300a021a,
+            0x300a0222, 0x300a0224, 0x300a0226, 0x300a0228, 0x300a0229, 0x300a022a, 0x300a022b, 0x300a022c,
+            0x300a022e, 0x300a0230, 0x300a0232, 0x300a0234, 0x300a0236, 0x300a0238, 0x300a0240, 0x300a0242,
+            0x300a0244, 0x300a0250, 0x300a0260, 0x300a0262, 0x300a0263, 0x300a0264, 0x300a0266, 0x300a026a,
+            0x300a026c, 0x300a0280, 0x300a0282, 0x300a0284, 0x300a0286, 0x300a0288, 0x300a028a, 0x300a028c,
+            0x300a0290, 0x300a0291, 0x300a0292, 0x300a0294, 0x300a0296, 0x300a0298, 0x300a029c, 0x300a029e,
+            0x300a02a0, 0x300a02a2, 0x300a02a4, 0x300a02b0, 0x300a02b2, 0x300a02b3, 0x300a02b4, 0x300a02b8,
+            0x300a02ba, 0x300a02c8, 0x300a02d0, 0x300a02d2, 0x300a02d4, 0x300a02d6, 0x300a02e0, 0x300a02e1,
+            0x300a02e2, 0x300a02e3, 0x300a02e4, 0x300a02e5, 0x300a02e6, 0x300a02e7, 0x300a02e8, 0x300a02ea,
+            0x300a02eb, 0x300a0302, 0x300a0304, 0x300a0306, 0x300a0308, 0x300a030a, 0x300a030c, 0x300a030d,
+            0x300a030f, 0x300a0312, 0x300a0314, 0x300a0316, 0x300a0318, 0x300a0320, 0x300a0322, 0x300a0330,
+            0x300a0332, 0x300a0334, 0x300a0336, 0x300a0338, 0x300a033a, 0x300a033c, 0x300a0340, 0x300a0342,
+            0x300a0344, 0x300a0346, 0x300a0348, 0x300a034a, 0x300a034c, 0x300a0350, 0x300a0352, 0x300a0354,
+            0x300a0356, 0x300a0358, 0x300a035a, 0x300a0360, 0x300a0362, 0x300a0364, 0x300a0366, 0x300a0370,
+            0x300a0372, 0x300a0374, 0x300a0380, 0x300a0382, 0x300a0384, 0x300a0386, 0x300a0388, 0x300a038a,
+            0x300a0390, 0x300a0392, 0x300a0394, 0x300a0396, 0x300a0398, 0x300a039a, 0x300a03a0, 0x300a03a2,
+            0x300a03a4, 0x300a03a6, 0x300a03a8, 0x300a03aa, 0x300a03ac, 0x300a0401, 0x300a0402, 0x300a0410,
+            0x300a0412, 0x300a0420, 0x300a0421, 0x300a0422, 0x300a0423, 0x300a0424, 0x300a0431, 0x300a0432,
+            0x300a0433, 0x300a0434, 0x300a0435, 0x300a0436, 0x300c0002, 0x300c0004, 0x300c0006, 0x300c0007,
+            0x300c0008, 0x300c0009, 0x300c000a, 0x300c000c, 0x300c000e, 0x300c0020, 0x300c0022, 0x300c0040,
+            0x300c0042, 0x300c0050, 0x300c0051, 0x300c0055, 0x300c0060, 0x300c006a, 0x300c0080, 0x300c00a0,
+            0x300c00b0, 0x300c00c0, 0x300c00d0, 0x300c00e0, 0x300c00f0, 0x300c00f2, 0x300c00f4, 0x300c00f6,
+            0x300c0100, 0x300c0102, 0x300c0104, 0x300e0002, 0x300e0004, 0x300e0005, 0x300e0008, 0x40000000,
+            0x40000010, 0x40004000, 0x40080040, 0x40080042, 0x40080050, 0x40080100, 0x40080101, 0x40080102,
+            0x40080103, 0x40080108, 0x40080109, 0x4008010a, 0x4008010b, 0x4008010c, 0x40080111, 0x40080112,
+            0x40080113, 0x40080114, 0x40080115, 0x40080117, 0x40080118, 0x40080119, 0x4008011a, 0x40080200,
+            0x40080202, 0x40080210, 0x40080212, 0x40080300, 0x40084000, 0x4ffe0001, 0x52009229, 0x52009230,
+            0x54000100, 0x54000110, 0x54000112, 0x54001004, 0x54001006, 0x5400100a, 0x54001010, 0x56000010,
+            0x56000020, 0x7fe00010, 0x7fe00020, 0x7fe00030, 0x7fe00040, 0xfffafffa, 0xfffcfffc, 0xfffee000,
+            0xfffee00d, 0xfffee0dd
+        };
+    }
+    
+    private static byte[] tagVrTypes() {
+        return new byte[] {
+            VR.UL, VR.UL, VR.UI, VR.UI, VR.CS, VR.US, VR.US, VR.US, VR.LO, VR.LO, VR.LO, VR.AE,
+            VR.US, VR.US, VR.US, VR.US, VR.US, VR.AT, VR.LO, VR.US, VR.UI, VR.UI, VR.US, VR.AT,
+            VR.US, VR.US, VR.US, VR.US, VR.US, VR.AE, VR.US, VR.LO, VR.LO, VR.LO, VR.LO, VR.LO,
+            VR.LO, VR.LO, VR.CS, VR.CS, VR.CS, VR.IS, VR.LO, VR.LO, VR.CS, VR.US, VR.UL, VR.OB,
+            VR.UI, VR.UI, VR.UI, VR.UI, VR.SH, VR.AE, VR.UI, VR.OB, VR.CS, VR.CS, VR.CS, VR.UL,
+            VR.UL, VR.US, VR.SQ, VR.UL, VR.US, VR.UL, VR.CS, VR.UI, VR.CS, VR.UL, VR.UI, VR.UI,
+            VR.UI, VR.UI, VR.UL, VR.UL, VR.CS, VR.SQ, VR.CS, VR.LO, VR.DA, VR.TM, VR.UI, VR.UI,
+            VR.UI, VR.UI, VR.UI, VR.DA, VR.DA, VR.DA, VR.DA, VR.DA, VR.DA, VR.DT, VR.TM, VR.TM,
+            VR.TM, VR.TM, VR.TM, VR.TM, VR.US, VR.LO, VR.CS, VR.SH, VR.SQ, VR.CS, VR.AE, VR.CS,
+            VR.UI, VR.CS, VR.CS, VR.UI, VR.CS, VR.CS, VR.LO, VR.LO, VR.ST, VR.SQ, VR.PN, VR.ST,
+            VR.SH, VR.SQ, VR.SH, VR.SH, VR.SH, VR.LO, VR.CS, VR.DT, VR.DT, VR.CS, VR.UI, VR.UI,
+            VR.CS, VR.SQ, VR.LO, VR.ST, VR.ST, VR.ST, VR.UI, VR.SH, VR.LO, VR.SH, VR.LO, VR.SQ,
+            VR.LO, VR.SQ, VR.LO, VR.PN, VR.SQ, VR.PN, VR.SQ, VR.PN, VR.SQ, VR.PN, VR.SQ, VR.LO,
+            VR.SQ, VR.LO, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ,
+            VR.SQ, VR.SQ, VR.SQ, VR.UI, VR.UI, VR.UI, VR.IS, VR.UL, VR.UL, VR.FD, VR.SQ, VR.UI,
+            VR.UI, VR.US, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.CS, VR.ST, VR.SQ, VR.SH, VR.IS, VR.IS,
+            VR.SH, VR.IS, VR.IS, VR.IS, VR.DS, VR.LO, VR.SQ, VR.FD, VR.SQ, VR.IS, VR.IS, VR.IS,
+            VR.CS, VR.CS, VR.CS, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ,
+            VR.SQ, VR.SQ, VR.SQ, VR.ST, VR.SQ, VR.ST, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.UI, VR.LT,
+            VR.CS, VR.SQ, VR.SQ, VR.UI, VR.SQ, VR.SQ, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.SQ,
+            VR.SQ, VR.SQ, VR.SQ, VR.FL, VR.CS, VR.PN, VR.LO, VR.LO, VR.CS, VR.SQ, VR.DA, VR.TM,
+            VR.CS, VR.SQ, VR.SQ, VR.SQ, VR.LO, VR.PN, VR.SQ, VR.PN, VR.AS, VR.DS, VR.SQ, VR.DS,
+            VR.LO, VR.LT, VR.PN, VR.LO, VR.LO, VR.LO, VR.LO, VR.LO, VR.LO, VR.LO, VR.SH, VR.SH,
+            VR.SH, VR.CS, VR.LT, VR.US, VR.DA, VR.LO, VR.LO, VR.SQ, VR.CS, VR.CS, VR.LO, VR.SQ,
+            VR.SQ, VR.LO, VR.SQ, VR.PN, VR.CS, VR.LO, VR.LT, VR.FL, VR.LO, VR.LO, VR.LO, VR.LO,
+            VR.LO, VR.LO, VR.LO, VR.LO, VR.ST, VR.LO, VR.CS, VR.LO, VR.SQ, VR.LO, VR.LO, VR.LO,
+            VR.LO, VR.SQ, VR.CS, VR.CS, VR.LO, VR.SQ, VR.SQ, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS,
+            VR.SH, VR.CS, VR.SQ, VR.TM, VR.DS, VR.SQ, VR.SQ, VR.LO, VR.LO, VR.DS, VR.DS, VR.LO,
+            VR.TM, VR.SQ, VR.CS, VR.CS, VR.CS, VR.ST, VR.IS, VR.CS, VR.DS, VR.DS, VR.IS, VR.CS,
+            VR.DS, VR.CS, VR.IS, VR.IS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.SH, VR.IS, VR.DS,
+            VR.DS, VR.IS, VR.DS, VR.IS, VR.DS, VR.DS, VR.DS, VR.LO, VR.UI, VR.LO, VR.LO, VR.LO,
+            VR.LO, VR.LO, VR.LO, VR.LO, VR.LO, VR.DA, VR.TM, VR.LO, VR.LO, VR.LO, VR.LO, VR.LO,
+            VR.LO, VR.LO, VR.SH, VR.LO, VR.LO, VR.LO, VR.DS, VR.TM, VR.TM, VR.DS, VR.IS, VR.DS,
+            VR.DS, VR.CS, VR.DS, VR.DS, VR.DS, VR.LO, VR.IS, VR.DS, VR.LO, VR.DS, VR.DS, VR.DS,
+            VR.DS, VR.DS, VR.CS, VR.US, VR.UL, VR.LO, VR.DS, VR.TM, VR.TM, VR.DS, VR.DS, VR.DS,
+            VR.DS, VR.DT, VR.DT, VR.CS, VR.IS, VR.IS, VR.IS, VR.IS, VR.LO, VR.IS, VR.IS, VR.IS,
+            VR.IS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.CS, VR.DS, VR.DS,
+            VR.DS, VR.DS, VR.CS, VR.CS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.CS, VR.IS,
+            VR.IS, VR.IS, VR.IS, VR.IS, VR.DS, VR.CS, VR.CS, VR.CS, VR.DS, VR.SH, VR.LO, VR.DS,
+            VR.DS, VR.CS, VR.IS, VR.SH, VR.CS, VR.IS, VR.DS, VR.DS, VR.DS, VR.CS, VR.DS, VR.DS,
+            VR.DA, VR.TM, VR.SH, VR.IS, VR.IS, VR.IS, VR.US, VR.SH, VR.SH, VR.SH, VR.LO, VR.DS,
+            VR.CS, VR.IS, VR.US, VR.CS, VR.DS, VR.CS, VR.DS, VR.DS, VR.LO, VR.LO, VR.CS, VR.CS,
+            VR.US, VR.IS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.CS, VR.CS, VR.IS,
+            VR.CS, VR.CS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.CS, VR.IS, VR.IS, VR.IS,
+            VR.IS, VR.IS, VR.IS, VR.IS, VR.US, VR.US, VR.US, VR.CS, VR.IS, VR.IS, VR.IS, VR.IS,
+            VR.IS, VR.IS, VR.IS, VR.CS, VR.SH, VR.CS, VR.LO, VR.IS, VR.SH, VR.DS, VR.DS, VR.DS,
+            VR.SH, VR.DS, VR.CS, VR.DS, VR.CS, VR.DS, VR.DS, VR.IS, VR.IS, VR.IS, VR.LT, VR.SH,
+            VR.LO, VR.DS, VR.LO, VR.LO, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS,
+            VR.IS, VR.CS, VR.CS, VR.SQ, VR.DS, VR.DS, VR.DS, VR.SQ, VR.US, VR.US, VR.UL, VR.UL,
+            VR.UL, VR.UL, VR.UL, VR.SL, VR.SL, VR.US, VR.US, VR.FD, VR.FD, VR.FD, VR.FD, VR.UL,
+            VR.CS, VR.UL, VR.FD, VR.FD, VR.UL, VR.SL, VR.UL, VR.SL, VR.UL, VR.SL, VR.UL, VR.SL,
+            VR.UL, VR.SL, VR.UL, VR.SL, VR.US, VR.UL, VR.UL, VR.UL, VR.US, VR.US, VR.UL, VR.UL,
+            VR.FD, VR.UL, VR.UL, VR.FL, VR.FL, VR.CS, VR.DS, VR.CS, VR.CS, VR.LT, VR.LT, VR.SH,
+            VR.DA, VR.TM, VR.IS, VR.IS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.CS, VR.DS,
+            VR.DS, VR.LO, VR.LO, VR.DS, VR.DS, VR.CS, VR.LT, VR.LT, VR.DS, VR.DS, VR.IS, VR.DS,
+            VR.DS, VR.CS, VR.DS, VR.DS, VR.FL, VR.FL, VR.CS, VR.LT, VR.CS, VR.DS, VR.DS, VR.DS,
+            VR.CS, VR.SH, VR.SQ, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS,
+            VR.CS, VR.FD, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.FD,
+            VR.CS, VR.CS, VR.CS, VR.FD, VR.CS, VR.CS, VR.LO, VR.SQ, VR.CS, VR.CS, VR.SQ, VR.LO,
+            VR.SH, VR.CS, VR.SQ, VR.LO, VR.CS, VR.FD, VR.FD, VR.CS, VR.US, VR.CS, VR.CS, VR.FD,
+            VR.CS, VR.FD, VR.CS, VR.CS, VR.US, VR.CS, VR.FD, VR.FD, VR.FD, VR.DT, VR.CS, VR.SQ,
+            VR.CS, VR.CS, VR.FD, VR.ST, VR.CS, VR.FD, VR.SQ, VR.SQ, VR.CS, VR.FD, VR.FD, VR.FD,
+            VR.FD, VR.SQ, VR.US, VR.CS, VR.UL, VR.FD, VR.FD, VR.CS, VR.CS, VR.SQ, VR.FD, VR.FD,
+            VR.FD, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.UL, VR.CS,
+            VR.DT, VR.SQ, VR.FD, VR.UL, VR.CS, VR.FD, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS,
+            VR.LO, VR.SQ, VR.CS, VR.CS, VR.CS, VR.CS, VR.FD, VR.FD, VR.CS, VR.FD, VR.ST, VR.SH,
+            VR.FD, VR.FD, VR.SQ, VR.CS, VR.CS, VR.CS, VR.CS, VR.FD, VR.FD, VR.SS, VR.FD, VR.SQ,
+            VR.SQ, VR.US, VR.US, VR.UL, VR.CS, VR.SQ, VR.US, VR.US, VR.FD, VR.FD, VR.SQ, VR.CS,
+            VR.FD, VR.SQ, VR.FD, VR.FD, VR.FD, VR.SQ, VR.FD, VR.FD, VR.FD, VR.SQ, VR.FD, VR.SQ,
+            VR.CS, VR.CS, VR.FD, VR.FD, VR.FD, VR.SH, VR.SQ, VR.FD, VR.CS, VR.FD, VR.SQ, VR.SQ,
+            VR.FD, VR.FD, VR.SQ, VR.FD, VR.FD, VR.CS, VR.CS, VR.FD, VR.US, VR.SQ, VR.SQ, VR.SQ,
+            VR.CS, VR.CS, VR.CS, VR.FD, VR.SQ, VR.FL, VR.FL, VR.FL, VR.SQ, VR.SQ, VR.FL, VR.FL,
+            VR.FL, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.CS, VR.LO, VR.LT, VR.CS, VR.FL, VR.CS,
+            VR.FL, VR.FL, VR.US, VR.SQ, VR.LO, VR.SQ, VR.CS, VR.SS, VR.SS, VR.SS, VR.SS, VR.SS,
+            VR.US, VR.SS, VR.FL, VR.FL, VR.SQ, VR.FL, VR.SQ, VR.SQ, VR.CS, VR.FL, VR.SQ, VR.FL,
+            VR.FL, VR.FL, VR.FL, VR.FL, VR.FL, VR.FL, VR.FL, VR.FL, VR.SQ, VR.FL, VR.CS, VR.SQ,
+            VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.FL, VR.FL, VR.FL, VR.FL, VR.FL, VR.FL, VR.DT, VR.DT,
+            VR.LO, VR.LO, VR.LO, VR.CS, VR.LO, VR.SQ, VR.LO, VR.SQ, VR.SQ, VR.FD, VR.FD, VR.FD,
+            VR.FD, VR.FD, VR.FD, VR.DT, VR.FD, VR.FD, VR.FD, VR.FD, VR.FD, VR.FD, VR.FD, VR.FD,
+            VR.FD, VR.FD, VR.CS, VR.FD, VR.FD, VR.US, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ,
+            VR.CS, VR.US, VR.US, VR.SQ, VR.SQ, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS,
+            VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.SQ, VR.SQ, VR.FD, VR.SQ,
+            VR.DT, VR.FD, VR.SQ, VR.SQ, VR.CS, VR.SQ, VR.CS, VR.CS, VR.SQ, VR.SQ, VR.SQ, VR.SQ,
+            VR.DT, VR.ST, VR.UI, VR.UI, VR.SH, VR.IS, VR.IS, VR.IS, VR.IS, VR.IS, VR.IS, VR.IS,
+            VR.IS, VR.IS, VR.CS, VR.IS, VR.IS, VR.IS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.UI,
+            VR.CS, VR.CS, VR.LO, VR.LO, VR.IS, VR.IS, VR.DS, VR.UI, VR.UI, VR.IS, VR.IS, VR.IS,
+            VR.IS, VR.IS, VR.IS, VR.LO, VR.LO, VR.DS, VR.IS, VR.IS, VR.IS, VR.IS, VR.IS, VR.IS,
+            VR.IS, VR.LO, VR.LO, VR.DA, VR.LO, VR.TM, VR.LO, VR.LT, VR.AT, VR.LO, VR.SH, VR.UL,
+            VR.SQ, VR.CS, VR.SQ, VR.SQ, VR.SQ, VR.UL, VR.FD, VR.US, VR.UL, VR.LT, VR.UI, VR.US,
+            VR.US, VR.UI, VR.AT, VR.AT, VR.LO, VR.SQ, VR.SQ, VR.UL, VR.LO, VR.FL, VR.FL, VR.FL,
+            VR.CS, VR.FL, VR.CS, VR.CS, VR.FD, VR.FD, VR.SQ, VR.FD, VR.FD, VR.FD, VR.FD, VR.FD,
+            VR.FD, VR.CS, VR.FD, VR.FD, VR.FD, VR.CS, VR.FD, VR.SQ, VR.SQ, VR.SQ, VR.CS, VR.UI,
+            VR.UI, VR.LO, VR.SQ, VR.LO, VR.US, VR.SQ, VR.US, VR.US, VR.US, VR.US, VR.US, VR.CS,
+            VR.SQ, VR.FL, VR.FL, VR.FL, VR.FL, VR.FL, VR.FL, VR.CS, VR.FL, VR.FL, VR.FL, VR.FL,
+            VR.FL, VR.FL, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ,
+            VR.SQ, VR.SQ, VR.FL, VR.SQ, VR.FL, VR.FL, VR.FL, VR.FL, VR.FL, VR.CS, VR.FL, VR.SQ,
+            VR.FL, VR.FL, VR.DS, VR.FL, VR.FL, VR.FL, VR.SQ, VR.SQ, VR.SQ, VR.CS, VR.CS, VR.SQ,
+            VR.FL, VR.SQ, VR.SQ, VR.SQ, VR.LO, VR.FL, VR.SQ, VR.FL, VR.CS, VR.SQ, VR.SQ, VR.SQ,
+            VR.FL, VR.FL, VR.FL, VR.LO, VR.LO, VR.SQ, VR.SQ, VR.LO, VR.LO, VR.SQ, VR.LO, VR.SQ,
+            VR.SQ, VR.SQ, VR.FL, VR.FL, VR.SQ, VR.SQ, VR.SQ, VR.FL, VR.FL, VR.SQ, VR.SQ, VR.SQ,
+            VR.SQ, VR.CS, VR.SQ, VR.FL, VR.LO, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ,
+            VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.FL, VR.FL, VR.CS, VR.SQ,
+            VR.FL, VR.FL, VR.SQ, VR.SQ, VR.FL, VR.FL, VR.SQ, VR.SQ, VR.SQ, VR.US, VR.US, VR.CS,
+            VR.US, VR.CS, VR.CS, VR.US, VR.LT, VR.CS, VR.FL, VR.US, VR.US, VR.CS, VR.CS, VR.CS,
+            VR.FL, VR.CS, VR.US, VR.CS, VR.SQ, VR.CS, VR.US, VR.CS, VR.CS, VR.CS, VR.SQ, VR.SQ,
+            VR.FL, VR.SQ, VR.FL, VR.LO, VR.FL, VR.FL, VR.CS, VR.FL, VR.CS, VR.FL, VR.CS, VR.FL,
+            VR.CS, VR.FL, VR.CS, VR.FL, VR.SQ, VR.SQ, VR.CS, VR.FL, VR.FL, VR.SQ, VR.FL, VR.FL,
+            VR.FL, VR.CS, VR.FL, VR.CS, VR.FL, VR.SQ, VR.FL, VR.CS, VR.FL, VR.FL, VR.FL, VR.CS,
+            VR.FL, VR.FL, VR.SQ, VR.SQ, VR.CS, VR.SQ, VR.SQ, VR.CS, VR.FL, VR.CS, VR.SQ, VR.CS,
+            VR.FL, VR.LO, VR.LO, VR.LO, VR.LO, VR.LO, VR.SQ, VR.SQ, VR.SQ, VR.CS, VR.FL, VR.SQ,
+            VR.US, VR.US, VR.CS, VR.US, VR.US, VR.IS, VR.AT, VR.AT, VR.US, VR.US, VR.US, VR.US,
+            VR.DS, VR.DS, VR.DS, VR.IS, VR.CS, VR.LO, VR.CS, VR.CS, VR.CS, VR.SH, VR.SH, VR.SH,
+            VR.CS, VR.AT, VR.US, VR.US, VR.US, VR.US, VR.US, VR.US, VR.US, VR.CS, VR.US, VR.US,
+            VR.US, VR.US, VR.US, VR.US, VR.US, VR.US, VR.US, VR.US, VR.US, VR.US, VR.US, VR.US,
+            VR.US, VR.US, VR.US, VR.US, VR.US, VR.CS, VR.CS, VR.CS, VR.CS, VR.US, VR.CS, VR.AT,
+            VR.US, VR.US, VR.CS, VR.AT, VR.CS, VR.CS, VR.AT, VR.US, VR.US, VR.AT, VR.US, VR.US,
+            VR.US, VR.CS, VR.US, VR.AT, VR.US, VR.AT, VR.CS, VR.LO, VR.CS, VR.SS, VR.DS, VR.DS,
+            VR.DS, VR.DS, VR.LO, VR.LO, VR.CS, VR.CS, VR.CS, VR.US, VR.US, VR.US, VR.US, VR.US,
+            VR.US, VR.US, VR.US, VR.UI, VR.US, VR.OW, VR.OW, VR.OW, VR.OW, VR.OW, VR.OW, VR.OW,
+            VR.UI, VR.OW, VR.OW, VR.OW, VR.CS, VR.CS, VR.ST, VR.SQ, VR.CS, VR.SQ, VR.CS, VR.US,
+            VR.SQ, VR.CS, VR.FD, VR.US, VR.OW, VR.SQ, VR.SQ, VR.CS, VR.CS, VR.CS, VR.CS, VR.OB,
+            VR.CS, VR.DS, VR.CS, VR.SQ, VR.US, VR.LO, VR.LO, VR.UN, VR.SQ, VR.SQ, VR.LT, VR.SQ,
+            VR.US, VR.US, VR.LO, VR.CS, VR.US, VR.US, VR.SQ, VR.CS, VR.US, VR.US, VR.US, VR.FL,
+            VR.SS, VR.ST, VR.UT, VR.UL, VR.UL, VR.CS, VR.US, VR.CS, VR.SQ, VR.SQ, VR.SQ, VR.CS,
+            VR.FL, VR.SQ, VR.US, VR.SQ, VR.SQ, VR.CS, VR.FL, VR.CS, VR.CS, VR.CS, VR.FL, VR.SQ,
+            VR.SQ, VR.SS, VR.SQ, VR.US, VR.US, VR.DS, VR.CS, VR.CS, VR.CS, VR.LO, VR.DA, VR.TM,
+            VR.DA, VR.TM, VR.DA, VR.TM, VR.DA, VR.TM, VR.LO, VR.AE, VR.LO, VR.SQ, VR.PN, VR.LO,
+            VR.SQ, VR.DA, VR.TM, VR.DA, VR.TM, VR.CS, VR.LO, VR.SQ, VR.LO, VR.LT, VR.SQ, VR.CS,
+            VR.LO, VR.LO, VR.SQ, VR.LO, VR.DA, VR.TM, VR.DA, VR.TM, VR.LO, VR.DA, VR.TM, VR.DA,
+            VR.TM, VR.LO, VR.SQ, VR.LO, VR.LO, VR.LO, VR.LO, VR.SQ, VR.SQ, VR.LO, VR.LO, VR.LO,
+            VR.SQ, VR.LT, VR.CS, VR.US, VR.UL, VR.DS, VR.SH, VR.SQ, VR.IS, VR.SH, VR.CS, VR.SQ,
+            VR.SQ, VR.SQ, VR.LO, VR.DS, VR.SQ, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.US, VR.DS,
+            VR.DS, VR.DS, VR.DS, VR.FL, VR.US, VR.SQ, VR.US, VR.SQ, VR.US, VR.FL, VR.CS, VR.FL,
+            VR.FL, VR.SQ, VR.IS, VR.CS, VR.AE, VR.DA, VR.TM, VR.DA, VR.TM, VR.PN, VR.LO, VR.SQ,
+            VR.SH, VR.SQ, VR.SQ, VR.SH, VR.SH, VR.LO, VR.CS, VR.SQ, VR.SQ, VR.UT, VR.UT, VR.CS,
+            VR.CS, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.AE, VR.SH, VR.SH, VR.DA, VR.TM, VR.DA,
+            VR.TM, VR.CS, VR.SH, VR.LO, VR.LO, VR.SQ, VR.CS, VR.SQ, VR.SQ, VR.ST, VR.SQ, VR.SQ,
+            VR.DS, VR.SQ, VR.SQ, VR.US, VR.US, VR.US, VR.US, VR.DS, VR.DS, VR.SQ, VR.ST, VR.DS,
+            VR.DS, VR.DS, VR.CS, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.LT, VR.SQ, VR.SQ, VR.SQ,
+            VR.LO, VR.LO, VR.SQ, VR.SQ, VR.SQ, VR.LO, VR.SQ, VR.SQ, VR.LO, VR.SQ, VR.ST, VR.UI,
+            VR.SQ, VR.ST, VR.SQ, VR.SQ, VR.SQ, VR.LO, VR.UT, VR.SQ, VR.SQ, VR.SQ, VR.LO, VR.SQ,
+            VR.DS, VR.DS, VR.DS, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SH, VR.LO, VR.SH, VR.LO, VR.LO,
+            VR.SH, VR.SH, VR.LO, VR.SH, VR.SQ, VR.PN, VR.SQ, VR.SQ, VR.SQ, VR.ST, VR.LO, VR.LT,
+            VR.LO, VR.DA, VR.TM, VR.SH, VR.SH, VR.PN, VR.SH, VR.SH, VR.LO, VR.LO, VR.LT, VR.LO,
+            VR.CS, VR.CS, VR.CS, VR.SQ, VR.DT, VR.CS, VR.SQ, VR.SQ, VR.DT, VR.DT, VR.SQ, VR.SQ,
+            VR.SQ, VR.SQ, VR.CS, VR.SQ, VR.SQ, VR.UI, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ,
+            VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.LO, VR.PN, VR.CS, VR.DS, VR.SQ, VR.SQ, VR.SQ,
+            VR.SH, VR.US, VR.FD, VR.US, VR.FD, VR.FD, VR.CS, VR.LO, VR.DT, VR.DT, VR.CS, VR.SQ,
+            VR.CS, VR.SQ, VR.PN, VR.SQ, VR.SQ, VR.SQ, VR.CS, VR.DT, VR.CS, VR.SQ, VR.SQ, VR.US,
+            VR.DT, VR.DA, VR.TM, VR.PN, VR.UI, VR.CS, VR.UL, VR.US, VR.DS, VR.DT, VR.UT, VR.SQ,
+            VR.SQ, VR.US, VR.SQ, VR.SQ, VR.SQ, VR.DS, VR.ST, VR.LO, VR.SQ, VR.SQ, VR.SQ, VR.SQ,
+            VR.SQ, VR.SQ, VR.CS, VR.LO, VR.CS, VR.CS, VR.CS, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.CS,
+            VR.DT, VR.DT, VR.CS, VR.UI, VR.UI, VR.UL, VR.ST, VR.DT, VR.SQ, VR.UT, VR.UI, VR.ST,
+            VR.OB, VR.LO, VR.SQ, VR.LO, VR.ST, VR.CS, VR.LT, VR.DT, VR.SQ, VR.LO, VR.LT, VR.LO,
+            VR.DT, VR.DT, VR.LO, VR.LO, VR.SQ, VR.SQ, VR.LO, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ,
+            VR.FD, VR.CS, VR.FD, VR.CS, VR.CS, VR.FD, VR.FD, VR.FD, VR.FD, VR.SQ, VR.SQ, VR.FD,
+            VR.FD, VR.FD, VR.FD, VR.SQ, VR.SQ, VR.SQ, VR.FD, VR.FD, VR.FD, VR.SQ, VR.CS, VR.CS,
+            VR.CS, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.FD, VR.FD, VR.SQ, VR.SQ, VR.SQ, VR.SQ,
+            VR.CS, VR.SS, VR.FD, VR.LO, VR.SQ, VR.FD, VR.FD, VR.FL, VR.FL, VR.FL, VR.UL, VR.UL,
+            VR.SQ, VR.CS, VR.CS, VR.CS, VR.US, VR.FL, VR.US, VR.SQ, VR.DS, VR.SQ, VR.SH, VR.ST,
+            VR.SQ, VR.SQ, VR.DS, VR.DS, VR.DS, VR.SQ, VR.SQ, VR.US, VR.US, VR.SQ, VR.SQ, VR.SL,
+            VR.SL, VR.CS, VR.CS, VR.SQ, VR.SQ, VR.FD, VR.DS, VR.FD, VR.DS, VR.CS, VR.DS, VR.DS,
+            VR.CS, VR.LO, VR.FD, VR.FD, VR.LO, VR.LO, VR.US, VR.US, VR.SQ, VR.SQ, VR.DS, VR.DS,
+            VR.SQ, VR.IS, VR.SH, VR.US, VR.US, VR.SQ, VR.US, VR.US, VR.SQ, VR.US, VR.IS, VR.IS,
+            VR.CS, VR.US, VR.US, VR.SQ, VR.US, VR.US, VR.US, VR.SQ, VR.SQ, VR.US, VR.US, VR.SQ,
+            VR.DS, VR.US, VR.US, VR.US, VR.US, VR.US, VR.DS, VR.CS, VR.IS, VR.US, VR.SQ, VR.SQ,
+            VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.US, VR.SH, VR.SQ, VR.SQ, VR.SQ, VR.CS, VR.CS, VR.CS,
+            VR.CS, VR.CS, VR.CS, VR.LO, VR.CS, VR.LO, VR.LO, VR.LO, VR.DS, VR.IS, VR.IS, VR.DS,
+            VR.DS, VR.CS, VR.DS, VR.IS, VR.IS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.US, VR.CS,
+            VR.CS, VR.SQ, VR.US, VR.US, VR.US, VR.US, VR.LO, VR.UL, VR.CS, VR.SQ, VR.SQ, VR.US,
+            VR.LO, VR.ST, VR.CS, VR.LO, VR.SQ, VR.US, VR.US, VR.US, VR.US, VR.SQ, VR.CS, VR.SQ,
+            VR.UI, VR.SQ, VR.UL, VR.FD, VR.UN, VR.SQ, VR.SQ, VR.UL, VR.SQ, VR.UL, VR.LT, VR.CS,
+            VR.FL, VR.LO, VR.FL, VR.CS, VR.CS, VR.CS, VR.SQ, VR.SQ, VR.SQ, VR.UL, VR.UN, VR.FL,
+            VR.FL, VR.FL, VR.FL, VR.FL, VR.FL, VR.UL, VR.US, VR.FL, VR.UN, VR.OW, VR.OW, VR.OW,
+            VR.SQ, VR.SQ, VR.SQ, VR.OW, VR.UL, VR.SQ, VR.UL, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.LO,
+            VR.LT, VR.SQ, VR.SQ, VR.LO, VR.LO, VR.LO, VR.SQ, VR.CS, VR.SQ, VR.SQ, VR.DT, VR.SQ,
+            VR.SQ, VR.SQ, VR.DT, VR.ST, VR.SQ, VR.FD, VR.SQ, VR.US, VR.LO, VR.SQ, VR.FD, VR.FD,
+            VR.OB, VR.US, VR.SQ, VR.US, VR.LO, VR.ST, VR.FD, VR.FD, VR.US, VR.SQ, VR.LO, VR.FD,
+            VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.US, VR.LO, VR.SQ, VR.US, VR.SQ, VR.US, VR.CS,
+            VR.SQ, VR.US, VR.FD, VR.FD, VR.SQ, VR.FD, VR.FD, VR.FD, VR.FD, VR.FD, VR.SQ, VR.SQ,
+            VR.SQ, VR.US, VR.LO, VR.SQ, VR.SQ, VR.FD, VR.FD, VR.SQ, VR.FD, VR.FD, VR.SQ, VR.FD,
+            VR.FD, VR.FD, VR.SQ, VR.CS, VR.CS, VR.CS, VR.CS, VR.ST, VR.SQ, VR.SQ, VR.FL, VR.FL,
+            VR.CS, VR.FL, VR.CS, VR.US, VR.US, VR.FL, VR.CS, VR.CS, VR.IS, VR.CS, VR.US, VR.US,
+            VR.US, VR.SL, VR.SL, VR.SQ, VR.SQ, VR.IS, VR.US, VR.US, VR.LO, VR.CS, VR.LO, VR.DA,
+            VR.TM, VR.PN, VR.SQ, VR.SQ, VR.CS, VR.DS, VR.IS, VR.FL, VR.LO, VR.ST, VR.SQ, VR.UL,
+            VR.LO, VR.CS, VR.LO, VR.FD, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.US, VR.CS, VR.CS, VR.CS,
+            VR.FL, VR.FL, VR.US, VR.CS, VR.CS, VR.CS, VR.US, VR.US, VR.FL, VR.CS, VR.UL, VR.OB,
+            VR.CS, VR.FL, VR.FL, VR.FL, VR.FL, VR.CS, VR.CS, VR.CS, VR.CS, VR.FL, VR.FL, VR.SQ,
+            VR.FL, VR.SH, VR.CS, VR.UL, VR.CS, VR.SQ, VR.SQ, VR.SQ, VR.CS, VR.SQ, VR.ST, VR.SH,
+            VR.SQ, VR.FD, VR.SQ, VR.SQ, VR.UI, VR.SQ, VR.SQ, VR.US, VR.SQ, VR.FL, VR.SQ, VR.CS,
+            VR.SH, VR.LO, VR.CS, VR.LO, VR.DT, VR.SQ, VR.SQ, VR.LO, VR.SQ, VR.US, VR.SQ, VR.SQ,
+            VR.CS, VR.AT, VR.US, VR.SQ, VR.US, VR.CS, VR.US, VR.CS, VR.SS, VR.SQ, VR.LO, VR.CS,
+            VR.AT, VR.LO, VR.LO, VR.AT, VR.CS, VR.IS, VR.LO, VR.LT, VR.PN, VR.SH, VR.ST, VR.UT,
+            VR.DS, VR.FD, VR.FL, VR.UL, VR.US, VR.SL, VR.SS, VR.SQ, VR.US, VR.SQ, VR.US, VR.US,
+            VR.FD, VR.US, VR.US, VR.US, VR.SQ, VR.US, VR.LO, VR.US, VR.LO, VR.CS, VR.SQ, VR.US,
+            VR.SQ, VR.US, VR.US, VR.SQ, VR.US, VR.CS, VR.US, VR.US, VR.CS, VR.CS, VR.US, VR.CS,
+            VR.US, VR.US, VR.FD, VR.SQ, VR.CS, VR.CS, VR.CS, VR.US, VR.US, VR.SQ, VR.SQ, VR.SQ,
+            VR.SQ, VR.US, VR.CS, VR.CS, VR.CS, VR.FD, VR.FD, VR.CS, VR.CS, VR.SQ, VR.CS, VR.CS,
+            VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.SQ,
+            VR.DS, VR.ST, VR.SQ, VR.ST, VR.LO, VR.SQ, VR.SQ, VR.CS, VR.IS, VR.SQ, VR.CS, VR.CS,
+            VR.CS, VR.DS, VR.DS, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ,
+            VR.AT, VR.UL, VR.LO, VR.CS, VR.LO, VR.LO, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.LO, VR.LO,
+            VR.AE, VR.AE, VR.LT, VR.CS, VR.CS, VR.CS, VR.LO, VR.LO, VR.LO, VR.SQ, VR.CS, VR.SQ,
+            VR.SQ, VR.SQ, VR.SQ, VR.LO, VR.SQ, VR.CS, VR.CS, VR.CS, VR.SQ, VR.US, VR.SQ, VR.US,
+            VR.US, VR.US, VR.US, VR.US, VR.US, VR.LO, VR.ST, VR.LO, VR.LO, VR.SQ, VR.SQ, VR.SQ,
+            VR.US, VR.FD, VR.FD, VR.SQ, VR.FD, VR.FD, VR.SQ, VR.LO, VR.SQ, VR.US, VR.US, VR.SH,
+            VR.UI, VR.SQ, VR.LO, VR.ST, VR.LO, VR.LO, VR.CS, VR.DT, VR.LT, VR.LO, VR.US, VR.UI,
+            VR.CS, VR.AT, VR.UI, VR.DT, VR.CS, VR.OB, VR.OB, VR.CS, VR.OB, VR.SQ, VR.SQ, VR.SQ,
+            VR.OB, VR.SQ, VR.UI, VR.OB, VR.SQ, VR.SQ, VR.DT, VR.LO, VR.LO, VR.CS, VR.UL, VR.US,
+            VR.US, VR.US, VR.US, VR.US, VR.US, VR.UL, VR.US, VR.IS, VR.SQ, VR.CS, VR.CS, VR.CS,
+            VR.LO, VR.IS, VR.IS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.US, VR.US, VR.SQ,
+            VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.ST, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS,
+            VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.US, VR.US, VR.CS, VR.ST, VR.LT, VR.IS,
+            VR.US, VR.US, VR.DS, VR.SQ, VR.SQ, VR.SQ, VR.US, VR.CS, VR.DS, VR.CS, VR.CS, VR.CS,
+            VR.CS, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.US, VR.LO, VR.SQ, VR.US, VR.SQ, VR.CS, VR.CS,
+            VR.CS, VR.US, VR.CS, VR.CS, VR.CS, VR.CS, VR.SQ, VR.SQ, VR.CS, VR.SQ, VR.SH, VR.CS,
+            VR.CS, VR.DA, VR.TM, VR.AE, VR.AE, VR.SH, VR.IS, VR.SQ, VR.CS, VR.CS, VR.LO, VR.SH,
+            VR.CS, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ,
+            VR.CS, VR.UT, VR.CS, VR.LT, VR.LT, VR.CS, VR.CS, VR.CS, VR.CS, VR.CS, VR.US, VR.LO,
+            VR.SQ, VR.AT, VR.CS, VR.CS, VR.SH, VR.LO, VR.ST, VR.CS, VR.CS, VR.DS, VR.DS, VR.DS,
+            VR.DS, VR.DS, VR.SH, VR.DS, VR.DS, VR.DS, VR.DS, VR.IS, VR.SQ, VR.DS, VR.DS, VR.SQ,
+            VR.CS, VR.DS, VR.SQ, VR.CS, VR.SH, VR.CS, VR.CS, VR.CS, VR.LO, VR.DS, VR.CS, VR.DS,
+            VR.DS, VR.SQ, VR.DS, VR.CS, VR.DS, VR.DS, VR.SQ, VR.DS, VR.CS, VR.IS, VR.DS, VR.SQ,
+            VR.CS, VR.DS, VR.DS, VR.DS, VR.SH, VR.LO, VR.ST, VR.DA, VR.TM, VR.SQ, VR.SQ, VR.SQ,
+            VR.SQ, VR.SQ, VR.IS, VR.UI, VR.LO, VR.ST, VR.IS, VR.DS, VR.SQ, VR.CS, VR.CS, VR.LO,
+            VR.SQ, VR.SQ, VR.CS, VR.DS, VR.DS, VR.IS, VR.IS, VR.IS, VR.DS, VR.SQ, VR.IS, VR.IS,
+            VR.SH, VR.SQ, VR.ST, VR.SQ, VR.CS, VR.PN, VR.SQ, VR.CS, VR.DS, VR.SQ, VR.US, VR.FL,
+            VR.SQ, VR.UI, VR.CS, VR.DS, VR.LO, VR.SQ, VR.ST, VR.CS, VR.DS, VR.SQ, VR.SQ, VR.IS,
+            VR.DA, VR.TM, VR.CS, VR.SH, VR.CS, VR.SQ, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS,
+            VR.SQ, VR.SQ, VR.DS, VR.DS, VR.FL, VR.FL, VR.FL, VR.DS, VR.SQ, VR.DS, VR.DA, VR.DA,
+            VR.IS, VR.SQ, VR.AT, VR.AT, VR.IS, VR.IS, VR.AT, VR.ST, VR.SQ, VR.FL, VR.SQ, VR.IS,
+            VR.ST, VR.DS, VR.DS, VR.DS, VR.SQ, VR.IS, VR.SQ, VR.IS, VR.SQ, VR.SQ, VR.SQ, VR.SQ,
+            VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.LO, VR.SQ, VR.CS, VR.SQ, VR.IS, VR.SQ,
+            VR.DS, VR.DS, VR.IS, VR.IS, VR.DS, VR.DS, VR.SQ, VR.IS, VR.SQ, VR.IS, VR.SQ, VR.DA,
+            VR.TM, VR.DA, VR.TM, VR.CS, VR.ST, VR.SQ, VR.IS, VR.CS, VR.CS, VR.SQ, VR.DA, VR.TM,
+            VR.SH, VR.LO, VR.ST, VR.DA, VR.TM, VR.LO, VR.CS, VR.LO, VR.CS, VR.ST, VR.SQ, VR.IS,
+            VR.UI, VR.CS, VR.CS, VR.LO, VR.DS, VR.DS, VR.CS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS,
+            VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.DS, VR.SQ, VR.IS, VR.SH, VR.DS, VR.DS, VR.SQ,
+            VR.DS, VR.FL, VR.DS, VR.DS, VR.FL, VR.FL, VR.DS, VR.DS, VR.DS, VR.CS, VR.SQ, VR.IS,
+            VR.LO, VR.IS, VR.IS, VR.IS, VR.LT, VR.IS, VR.DS, VR.DS, VR.DS, VR.FL, VR.FL, VR.FL,
+            VR.IS, VR.DS, VR.DS, VR.SQ, VR.SH, VR.CS, VR.DS, VR.SQ, VR.CS, VR.DS, VR.FL, VR.IS,
+            VR.DS, VR.IS, VR.LO, VR.ST, VR.CS, VR.CS, VR.CS, VR.IS, VR.SQ, VR.LO, VR.CS, VR.IS,
+            VR.SQ, VR.IS, VR.CS, VR.SH, VR.IS, VR.DS, VR.FL, VR.DS, VR.FL, VR.DS, VR.FL, VR.SH,
+            VR.ST, VR.IS, VR.SH, VR.DS, VR.SQ, VR.IS, VR.SH, VR.DS, VR.IS, VR.IS, VR.DS, VR.DS,
+            VR.DS, VR.DS, VR.IS, VR.CS, VR.IS, VR.DS, VR.FL, VR.SQ, VR.SH, VR.DS, VR.FL, VR.CS,
+            VR.LO, VR.CS, VR.CS, VR.IS, VR.LO, VR.DS, VR.DS, VR.IS, VR.DS, VR.SQ, VR.SH, VR.CS,
+            VR.LO, VR.DS, VR.DS, VR.IS, VR.SQ, VR.IS, VR.DS, VR.DS, VR.SQ, VR.CS, VR.SQ, VR.DS,
+            VR.DS, VR.CS, VR.DS, VR.CS, VR.DS, VR.CS, VR.DS, VR.DS, VR.CS, VR.DS, VR.DS, VR.DS,
+            VR.DS, VR.DS, VR.DS, VR.DS, VR.FL, VR.CS, VR.FL, VR.CS, VR.FL, VR.FL, VR.CS, VR.FL,
+            VR.SQ, VR.IS, VR.LO, VR.LO, VR.SQ, VR.CS, VR.SH, VR.ST, VR.SH, VR.FL, VR.FL, VR.SQ,
+            VR.CS, VR.SH, VR.ST, VR.SH, VR.CS, VR.ST, VR.SQ, VR.CS, VR.SH, VR.ST, VR.DS, VR.ST,
+            VR.DS, VR.DS, VR.DS, VR.CS, VR.CS, VR.SQ, VR.SQ, VR.IS, VR.CS, VR.LO, VR.DS, VR.DS,
+            VR.DS, VR.DS, VR.LO, VR.DS, VR.CS, VR.DS, VR.DS, VR.DA, VR.TM, VR.SQ, VR.CS, VR.IS,
+            VR.LO, VR.LO, VR.IS, VR.SH, VR.LO, VR.DS, VR.SQ, VR.IS, VR.SH, VR.CS, VR.LO, VR.DS,
+            VR.DS, VR.SQ, VR.IS, VR.DS, VR.DS, VR.CS, VR.IS, VR.DS, VR.IS, VR.SH, VR.CS, VR.LO,
+            VR.DS, VR.LO, VR.DS, VR.DS, VR.DS, VR.IS, VR.DS, VR.SQ, VR.IS, VR.SH, VR.LO, VR.DS,
+            VR.DS, VR.DS, VR.SQ, VR.DS, VR.DS, VR.DS, VR.CS, VR.CS, VR.DS, VR.FL, VR.FL, VR.FL,
+            VR.FL, VR.FL, VR.FL, VR.SQ, VR.LT, VR.IS, VR.IS, VR.SS, VR.CS, VR.FL, VR.SQ, VR.FL,
+            VR.SH, VR.IS, VR.SQ, VR.IS, VR.SH, VR.CS, VR.LO, VR.IS, VR.SQ, VR.IS, VR.SH, VR.CS,
+            VR.LO, VR.FL, VR.IS, VR.SQ, VR.IS, VR.SH, VR.CS, VR.LO, VR.SH, VR.CS, VR.SH, VR.LO,
+            VR.FL, VR.FL, VR.FL, VR.SQ, VR.LO, VR.FL, VR.FL, VR.SQ, VR.LO, VR.FL, VR.SQ, VR.FL,
+            VR.FL, VR.FL, VR.FL, VR.FL, VR.SH, VR.IS, VR.FL, VR.FL, VR.FL, VR.IS, VR.SQ, VR.SQ,
+            VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.ST, VR.SQ, VR.FL, VR.SQ, VR.SH, VR.ST,
+            VR.CS, VR.IS, VR.SQ, VR.CS, VR.FL, VR.FL, VR.FL, VR.FL, VR.SQ, VR.SQ, VR.IS, VR.IS,
+            VR.DS, VR.DS, VR.SQ, VR.IS, VR.IS, VR.SQ, VR.IS, VR.SQ, VR.SQ, VR.SQ, VR.IS, VR.SQ,
+            VR.SQ, VR.IS, VR.SQ, VR.IS, VR.SQ, VR.IS, VR.IS, VR.IS, VR.IS, VR.SQ, VR.IS, VR.IS,
+            VR.IS, VR.IS, VR.IS, VR.CS, VR.DA, VR.TM, VR.PN, VR.UL, VR.LT, VR.LT, VR.SH, VR.LO,
+            VR.SQ, VR.DA, VR.TM, VR.PN, VR.LO, VR.DA, VR.TM, VR.PN, VR.ST, VR.PN, VR.SQ, VR.DA,
+            VR.TM, VR.PN, VR.LT, VR.SQ, VR.SQ, VR.PN, VR.LO, VR.SH, VR.LO, VR.CS, VR.CS, VR.ST,
+            VR.ST, VR.SQ, VR.SQ, VR.SQ, VR.SQ, VR.OW, VR.OW, VR.US, VR.CS, VR.OW, VR.OW, VR.UN,
+            VR.UN, VR.OW, VR.OW, VR.OW, VR.OW, VR.SQ, VR.OB, VR.UN, VR.UN, VR.UN
+        };
+    }
+    
+    private static String[] tagNames() {
+        return new String[] {
+            "CommandGroupLength",
+            "ACR_NEMA_CommandGroupLengthToEnd",
+            "AffectedSOPClassUID",
+            "RequestedSOPClassUID",
+            "ACR_NEMA_CommandRecognitionCode",
+            "CommandField",
+            "MessageID",
+            "MessageIDBeingRespondedTo",
+            "ACR_NEMA_Initiator",
+            "ACR_NEMA_Receiver",
+            "ACR_NEMA_FindLocation",
+            "MoveDestination",
+            "Priority",
+            "DataSetType",
+            "ACR_NEMA_NumberOfMatches",
+            "ACR_NEMA_ResponseSequenceNumber",
+            "Status",
+            "OffendingElement",
+            "ErrorComment",
+            "ErrorID",
+            "AffectedSOPInstanceUID",
+            "RequestedSOPInstanceUID",
+            "EventTypeID",
+            "AttributeIdentifierList",
+            "ActionTypeID",
+            "NumberOfRemainingSubOperations",
+            "NumberOfCompletedSubOperations",
+            "NumberOfFailedSubOperations",
+            "NumberOfWarningSubOperations",
+            "MoveOriginatorApplicationEntityTitle",
+            "MoveOriginatorMessageID",
+            "ACR_NEMA_DialogReceiver",
+            "ACR_NEMA_TerminalType",
+            "ACR_NEMA_MessageSetID",
+            "ACR_NEMA_EndMessageSet",
+            "ACR_NEMA_DisplayFormat",
+            "ACR_NEMA_PagePositionID",
+            "ACR_NEMA_TextFormatID",
+            "ACR_NEMA_NormalReverse",
+            "ACR_NEMA_AddGrayScale",
+            "ACR_NEMA_Borders",
+            "ACR_NEMA_Copies",
+            "ACR_NEMA_MagnificationType",
+            "ACR_NEMA_Erase",
+            "ACR_NEMA_Print",
+            "ACR_NEMA_Overlays",
+            "FileMetaInformationGroupLength",
+            "FileMetaInformationVersion",
+            "MediaStorageSOPClassUID",
+            "MediaStorageSOPInstanceUID",
+            "TransferSyntaxUID",
+            "ImplementationClassUID",
+            "ImplementationVersionName",
+            "SourceApplicationEntityTitle",
+            "PrivateInformationCreatorUID",
+            "PrivateInformation",
+            "FileSetID",
+            "FileSetDescriptorFileID",
+            "SpecificCharacterSetOfFileSetDescriptorFile",
+            "OffsetOfTheFirstDirectoryRecordOfTheRootDirectoryEntity",
+            "OffsetOfTheLastDirectoryRecordOfTheRootDirectoryEntity",
+            "FileSetConsistencyFlag",
+            "DirectoryRecordSequence",
+            "OffsetOfTheNextDirectoryRecord",
+            "RecordInUseFlag",
+            "OffsetOfReferencedLowerLevelDirectoryEntity",
+            "DirectoryRecordType",
+            "PrivateRecordUID",
+            "ReferencedFileID",
+            "RETIRED_MRDRDirectoryRecordOffset",
+            "ReferencedSOPClassUIDInFile",
+            "ReferencedSOPInstanceUIDInFile",
+            "ReferencedTransferSyntaxUIDInFile",
+            "ReferencedRelatedGeneralSOPClassUIDInFile",
+            "RETIRED_NumberOfReferences",
+            "ACR_NEMA_IdentifyingGroupLengthToEnd",
+            "SpecificCharacterSet",
+            "LanguageCodeSequence",
+            "ImageType",
+            "ACR_NEMA_RecognitionCode",
+            "InstanceCreationDate",
+            "InstanceCreationTime",
+            "InstanceCreatorUID",
+            "SOPClassUID",
+            "SOPInstanceUID",
+            "RelatedGeneralSOPClassUID",
+            "OriginalSpecializedSOPClassUID",
+            "StudyDate",
+            "SeriesDate",
+            "AcquisitionDate",
+            "ContentDate",
+            "RETIRED_OverlayDate",
+            "RETIRED_CurveDate",
+            "AcquisitionDateTime",
+            "StudyTime",
+            "SeriesTime",
+            "AcquisitionTime",
+            "ContentTime",
+            "RETIRED_OverlayTime",
+            "RETIRED_CurveTime",
+            "ACR_NEMA_OldDataSetType",
+            "ACR_NEMA_DataSetSubtype",
+            "RETIRED_NuclearMedicineSeriesType",
+            "AccessionNumber",
+            "IssuerOfAccessionNumberSequence",
+            "QueryRetrieveLevel",
+            "RetrieveAETitle",
+            "InstanceAvailability",
+            "FailedSOPInstanceUIDList",
+            "Modality",
+            "ModalitiesInStudy",
+            "SOPClassesInStudy",
+            "ConversionType",
+            "PresentationIntentType",
+            "Manufacturer",
+            "InstitutionName",
+            "InstitutionAddress",
+            "InstitutionCodeSequence",
+            "ReferringPhysicianName",
+            "ReferringPhysicianAddress",
+            "ReferringPhysicianTelephoneNumbers",
+            "ReferringPhysicianIdentificationSequence",
+            "CodeValue",
+            "CodingSchemeDesignator",
+            "CodingSchemeVersion",
+            "CodeMeaning",
+            "MappingResource",
+            "ContextGroupVersion",
+            "ContextGroupLocalVersion",
+            "ContextGroupExtensionFlag",
+            "CodingSchemeUID",
+            "ContextGroupExtensionCreatorUID",
+            "ContextIdentifier",
+            "CodingSchemeIdentificationSequence",
+            "CodingSchemeRegistry",
+            "CodingSchemeExternalID",
+            "CodingSchemeName",
+            "CodingSchemeResponsibleOrganization",
+            "ContextUID",
+            "TimezoneOffsetFromUTC",
+            "ACR_NEMA_NetworkID",
+            "StationName",
+            "StudyDescription",
+            "ProcedureCodeSequence",
+            "SeriesDescription",
+            "SeriesDescriptionCodeSequence",
+            "InstitutionalDepartmentName",
+            "PhysiciansOfRecord",
+            "PhysiciansOfRecordIdentificationSequence",
+            "PerformingPhysicianName",
+            "PerformingPhysicianIdentificationSequence",
+            "NameOfPhysiciansReadingStudy",
+            "PhysiciansReadingStudyIdentificationSequence",
+            "OperatorsName",
+            "OperatorIdentificationSequence",
+            "AdmittingDiagnosesDescription",
+            "AdmittingDiagnosesCodeSequence",
+            "ManufacturerModelName",
+            "RETIRED_ReferencedResultsSequence",
+            "ReferencedStudySequence",
+            "ReferencedPerformedProcedureStepSequence",
+            "ReferencedSeriesSequence",
+            "ReferencedPatientSequence",
+            "ReferencedVisitSequence",
+            "RETIRED_ReferencedOverlaySequence",
+            "ReferencedStereometricInstanceSequence",
+            "ReferencedWaveformSequence",
+            "ReferencedImageSequence",
+            "RETIRED_ReferencedCurveSequence",
+            "ReferencedInstanceSequence",
+            "ReferencedRealWorldValueMappingInstanceSequence",
+            "ReferencedSOPClassUID",
+            "ReferencedSOPInstanceUID",
+            "SOPClassesSupported",
+            "ReferencedFrameNumber",
+            "SimpleFrameList",
+            "CalculatedFrameList",
+            "TimeRange",
+            "FrameExtractionSequence",
+            "MultiFrameSourceSOPInstanceUID",
+            "TransactionUID",
+            "FailureReason",
+            "FailedSOPSequence",
+            "ReferencedSOPSequence",
+            "StudiesContainingOtherReferencedInstancesSequence",
+            "RelatedSeriesSequence",
+            "RETIRED_LossyImageCompressionRetired",
+            "DerivationDescription",
+            "SourceImageSequence",
+            "StageName",
+            "StageNumber",
+            "NumberOfStages",
+            "ViewName",
+            "ViewNumber",
+            "NumberOfEventTimers",
+            "NumberOfViewsInStage",
+            "EventElapsedTimes",
+            "EventTimerNames",
+            "EventTimerSequence",
+            "EventTimeOffset",
+            "EventCodeSequence",
+            "StartTrim",
+            "StopTrim",
+            "RecommendedDisplayFrameRate",
+            "RETIRED_TransducerPosition",
+            "RETIRED_TransducerOrientation",
+            "RETIRED_AnatomicStructure",
+            "AnatomicRegionSequence",
+            "AnatomicRegionModifierSequence",
+            "PrimaryAnatomicStructureSequence",
+            "AnatomicStructureSpaceOrRegionSequence",
+            "PrimaryAnatomicStructureModifierSequence",
+            "RETIRED_TransducerPositionSequence",
+            "RETIRED_TransducerPositionModifierSequence",
+            "RETIRED_TransducerOrientationSequence",
+            "RETIRED_TransducerOrientationModifierSequence",
+            "RETIRED_AnatomicStructureSpaceOrRegionCodeSequenceTrial",
+            "RETIRED_AnatomicPortalOfEntranceCodeSequenceTrial",
+            "RETIRED_AnatomicApproachDirectionCodeSequenceTrial",
+            "RETIRED_AnatomicPerspectiveDescriptionTrial",
+            "RETIRED_AnatomicPerspectiveCodeSequenceTrial",
+            "RETIRED_AnatomicLocationOfExaminingInstrumentDescriptionTrial",
+            "RETIRED_AnatomicLocationOfExaminingInstrumentCodeSequenceTrial",
+            "RETIRED_AnatomicStructureSpaceOrRegionModifierCodeSequenceTrial",
+            "RETIRED_OnAxisBackgroundAnatomicStructureCodeSequenceTrial",
+            "AlternateRepresentationSequence",
+            "IrradiationEventUID",
+            "ACR_NEMA_IdentifyingComments",
+            "FrameType",
+            "ReferencedImageEvidenceSequence",
+            "ReferencedRawDataSequence",
+            "CreatorVersionUID",
+            "DerivationImageSequence",
+            "SourceImageEvidenceSequence",
+            "PixelPresentation",
+            "VolumetricProperties",
+            "VolumeBasedCalculationTechnique",
+            "ComplexImageComponent",
+            "AcquisitionContrast",
+            "DerivationCodeSequence",
+            "ReferencedPresentationStateSequence",
+            "ReferencedOtherPlaneSequence",
+            "FrameDisplaySequence",
+            "RecommendedDisplayFrameRateInFloat",
+            "SkipFrameRangeFlag",
+            "PatientName",
+            "PatientID",
+            "IssuerOfPatientID",
+            "TypeOfPatientID",
+            "IssuerOfPatientIDQualifiersSequence",
+            "PatientBirthDate",
+            "PatientBirthTime",
+            "PatientSex",
+            "PatientInsurancePlanCodeSequence",
+            "PatientPrimaryLanguageCodeSequence",
+            "PatientPrimaryLanguageModifierCodeSequence",
+            "OtherPatientIDs",
+            "OtherPatientNames",
+            "OtherPatientIDsSequence",
+            "PatientBirthName",
+            "PatientAge",
+            "PatientSize",
+            "PatientSizeCodeSequence",
+            "PatientWeight",
+            "PatientAddress",
+            "ACR_NEMA_InsurancePlanIdentification",
+            "PatientMotherBirthName",
+            "MilitaryRank",
+            "BranchOfService",
+            "MedicalRecordLocator",
+            "MedicalAlerts",
+            "Allergies",
+            "CountryOfResidence",
+            "RegionOfResidence",
+            "PatientTelephoneNumbers",
+            "EthnicGroup",
+            "Occupation",
+            "SmokingStatus",
+            "AdditionalPatientHistory",
+            "PregnancyStatus",
+            "LastMenstrualDate",
+            "PatientReligiousPreference",
+            "PatientSpeciesDescription",
+            "PatientSpeciesCodeSequence",
+            "PatientSexNeutered",
+            "AnatomicalOrientationType",
+            "PatientBreedDescription",
+            "PatientBreedCodeSequence",
+            "BreedRegistrationSequence",
+            "BreedRegistrationNumber",
+            "BreedRegistryCodeSequence",
+            "ResponsiblePerson",
+            "ResponsiblePersonRole",
+            "ResponsibleOrganization",
+            "PatientComments",
+            "ExaminedBodyThickness",
+            "ClinicalTrialSponsorName",
+            "ClinicalTrialProtocolID",
+            "ClinicalTrialProtocolName",
+            "ClinicalTrialSiteID",
+            "ClinicalTrialSiteName",
+            "ClinicalTrialSubjectID",
+            "ClinicalTrialSubjectReadingID",
+            "ClinicalTrialTimePointID",
+            "ClinicalTrialTimePointDescription",
+            "ClinicalTrialCoordinatingCenterName",
+            "PatientIdentityRemoved",
+            "DeidentificationMethod",
+            "DeidentificationMethodCodeSequence",
+            "ClinicalTrialSeriesID",
+            "ClinicalTrialSeriesDescription",
+            "ClinicalTrialProtocolEthicsCommitteeName",
+            "ClinicalTrialProtocolEthicsCommitteeApprovalNumber",
+            "ConsentForClinicalTrialUseSequence",
+            "DistributionType",
+            "ConsentForDistributionFlag",
+            "ContrastBolusAgent",
+            "ContrastBolusAgentSequence",
+            "ContrastBolusAdministrationRouteSequence",
+            "BodyPartExamined",
+            "ScanningSequence",
+            "SequenceVariant",
+            "ScanOptions",
+            "MRAcquisitionType",
+            "SequenceName",
+            "AngioFlag",
+            "InterventionDrugInformationSequence",
+            "InterventionDrugStopTime",
+            "InterventionDrugDose",
+            "InterventionDrugCodeSequence",
+            "AdditionalDrugSequence",
+            "RETIRED_Radionuclide",
+            "Radiopharmaceutical",
+            "RETIRED_EnergyWindowCenterline",
+            "RETIRED_EnergyWindowTotalWidth",
+            "InterventionDrugName",
+            "InterventionDrugStartTime",
+            "InterventionSequence",
+            "RETIRED_TherapyType",
+            "InterventionStatus",
+            "RETIRED_TherapyDescription",
+            "InterventionDescription",
+            "CineRate",
+            "InitialCineRunState",
+            "SliceThickness",
+            "KVP",
+            "CountsAccumulated",
+            "AcquisitionTerminationCondition",
+            "EffectiveDuration",
+            "AcquisitionStartCondition",
+            "AcquisitionStartConditionData",
+            "AcquisitionTerminationConditionData",
+            "RepetitionTime",
+            "EchoTime",
+            "InversionTime",
+            "NumberOfAverages",
+            "ImagingFrequency",
+            "ImagedNucleus",
+            "EchoNumbers",
+            "MagneticFieldStrength",
+            "SpacingBetweenSlices",
+            "NumberOfPhaseEncodingSteps",
+            "DataCollectionDiameter",
+            "EchoTrainLength",
+            "PercentSampling",
+            "PercentPhaseFieldOfView",
+            "PixelBandwidth",
+            "DeviceSerialNumber",
+            "DeviceUID",
+            "DeviceID",
+            "PlateID",
+            "GeneratorID",
+            "GridID",
+            "CassetteID",
+            "GantryID",
+            "SecondaryCaptureDeviceID",
+            "RETIRED_HardcopyCreationDeviceID",
+            "DateOfSecondaryCapture",
+            "TimeOfSecondaryCapture",
+            "SecondaryCaptureDeviceManufacturer",
+            "RETIRED_HardcopyDeviceManufacturer",
+            "SecondaryCaptureDeviceManufacturerModelName",
+            "SecondaryCaptureDeviceSoftwareVersions",
+            "RETIRED_HardcopyDeviceSoftwareVersion",
+            "RETIRED_HardcopyDeviceManufacturerModelName",
+            "SoftwareVersions",
+            "VideoImageFormatAcquired",
+            "DigitalImageFormatAcquired",
+            "ProtocolName",
+            "ContrastBolusRoute",
+            "ContrastBolusVolume",
+            "ContrastBolusStartTime",
+            "ContrastBolusStopTime",
+            "ContrastBolusTotalDose",
+            "SyringeCounts",
+            "ContrastFlowRate",
+            "ContrastFlowDuration",
+            "ContrastBolusIngredient",
+            "ContrastBolusIngredientConcentration",
+            "SpatialResolution",
+            "TriggerTime",
+            "TriggerSourceOrType",
+            "NominalInterval",
+            "FrameTime",
+            "CardiacFramingType",
+            "FrameTimeVector",
+            "FrameDelay",
+            "ImageTriggerDelay",
+            "MultiplexGroupTimeOffset",
+            "TriggerTimeOffset",
+            "SynchronizationTrigger",
+            "SynchronizationChannel",
+            "TriggerSamplePosition",
+            "RadiopharmaceuticalRoute",
+            "RadiopharmaceuticalVolume",
+            "RadiopharmaceuticalStartTime",
+            "RadiopharmaceuticalStopTime",
+            "RadionuclideTotalDose",
+            "RadionuclideHalfLife",
+            "RadionuclidePositronFraction",
+            "RadiopharmaceuticalSpecificActivity",
+            "RadiopharmaceuticalStartDateTime",
+            "RadiopharmaceuticalStopDateTime",
+            "BeatRejectionFlag",
+            "LowRRValue",
+            "HighRRValue",
+            "IntervalsAcquired",
+            "IntervalsRejected",
+            "PVCRejection",
+            "SkipBeats",
+            "HeartRate",
+            "CardiacNumberOfImages",
+            "TriggerWindow",
+            "ReconstructionDiameter",
+            "DistanceSourceToDetector",
+            "DistanceSourceToPatient",
+            "EstimatedRadiographicMagnificationFactor",
+            "GantryDetectorTilt",
+            "GantryDetectorSlew",
+            "TableHeight",
+            "TableTraverse",
+            "TableMotion",
+            "TableVerticalIncrement",
+            "TableLateralIncrement",
+            "TableLongitudinalIncrement",
+            "TableAngle",
+            "TableType",
+            "RotationDirection",
+            "RETIRED_AngularPosition",
+            "RadialPosition",
+            "ScanArc",
+            "AngularStep",
+            "CenterOfRotationOffset",
+            "RETIRED_RotationOffset",
+            "FieldOfViewShape",
+            "FieldOfViewDimensions",
+            "ExposureTime",
+            "XRayTubeCurrent",
+            "Exposure",
+            "ExposureInuAs",
+            "AveragePulseWidth",
+            "RadiationSetting",
+            "RectificationType",
+            "RadiationMode",
+            "ImageAndFluoroscopyAreaDoseProduct",
+            "FilterType",
+            "TypeOfFilters",
+            "IntensifierSize",
+            "ImagerPixelSpacing",
+            "Grid",
+            "GeneratorPower",
+            "CollimatorGridName",
+            "CollimatorType",
+            "FocalDistance",
+            "XFocusCenter",
+            "YFocusCenter",
+            "FocalSpots",
+            "AnodeTargetMaterial",
+            "BodyPartThickness",
+            "CompressionForce",
+            "DateOfLastCalibration",
+            "TimeOfLastCalibration",
+            "ConvolutionKernel",
+            "ACR_NEMA_UpperLowerPixelValues",
+            "ActualFrameDuration",
+            "CountRate",
+            "PreferredPlaybackSequencing",
+            "ReceiveCoilName",
+            "TransmitCoilName",
+            "PlateType",
+            "PhosphorType",
+            "ScanVelocity",
+            "WholeBodyTechnique",
+            "ScanLength",
+            "AcquisitionMatrix",
+            "InPlanePhaseEncodingDirection",
+            "FlipAngle",
+            "VariableFlipAngleFlag",
+            "SAR",
+            "dBdt",
+            "AcquisitionDeviceProcessingDescription",
+            "AcquisitionDeviceProcessingCode",
+            "CassetteOrientation",
+            "CassetteSize",
+            "ExposuresOnPlate",
+            "RelativeXRayExposure",
+            "ExposureIndex",
+            "TargetExposureIndex",
+            "DeviationIndex",
+            "ColumnAngulation",
+            "TomoLayerHeight",
+            "TomoAngle",
+            "TomoTime",
+            "TomoType",
+            "TomoClass",
+            "NumberOfTomosynthesisSourceImages",
+            "PositionerMotion",
+            "PositionerType",
+            "PositionerPrimaryAngle",
+            "PositionerSecondaryAngle",
+            "PositionerPrimaryAngleIncrement",
+            "PositionerSecondaryAngleIncrement",
+            "DetectorPrimaryAngle",
+            "DetectorSecondaryAngle",
+            "ShutterShape",
+            "ShutterLeftVerticalEdge",
+            "ShutterRightVerticalEdge",
+            "ShutterUpperHorizontalEdge",
+            "ShutterLowerHorizontalEdge",
+            "CenterOfCircularShutter",
+            "RadiusOfCircularShutter",
+            "VerticesOfThePolygonalShutter",
+            "ShutterPresentationValue",
+            "ShutterOverlayGroup",
+            "ShutterPresentationColorCIELabValue",
+            "CollimatorShape",
+            "CollimatorLeftVerticalEdge",
+            "CollimatorRightVerticalEdge",
+            "CollimatorUpperHorizontalEdge",
+            "CollimatorLowerHorizontalEdge",
+            "CenterOfCircularCollimator",
+            "RadiusOfCircularCollimator",
+            "VerticesOfThePolygonalCollimator",
+            "AcquisitionTimeSynchronized",
+            "TimeSource",
+            "TimeDistributionProtocol",
+            "NTPSourceAddress",
+            "PageNumberVector",
+            "FrameLabelVector",
+            "FramePrimaryAngleVector",
+            "FrameSecondaryAngleVector",
+            "SliceLocationVector",
+            "DisplayWindowLabelVector",
+            "NominalScannedPixelSpacing",
+            "DigitizingDeviceTransportDirection",
+            "RotationOfScannedFilm",
+            "IVUSAcquisition",
+            "IVUSPullbackRate",
+            "IVUSGatedRate",
+            "IVUSPullbackStartFrameNumber",
+            "IVUSPullbackStopFrameNumber",
+            "LesionNumber",
+            "ACR_NEMA_AcquisitionComments",
+            "OutputPower",
+            "TransducerData",
+            "FocusDepth",
+            "ProcessingFunction",
+            "RETIRED_PostprocessingFunction",
+            "MechanicalIndex",
+            "BoneThermalIndex",
+            "CranialThermalIndex",
+            "SoftTissueThermalIndex",
+            "SoftTissueFocusThermalIndex",
+            "SoftTissueSurfaceThermalIndex",
+            "ACR_NEMA_DynamicRange",
+            "ACR_NEMA_TotalGain",
+            "DepthOfScanField",
+            "PatientPosition",
+            "ViewPosition",
+            "ProjectionEponymousNameCodeSequence",
+            "RETIRED_ImageTransformationMatrix",
+            "RETIRED_ImageTranslationVector",
+            "Sensitivity",
+            "SequenceOfUltrasoundRegions",
+            "RegionSpatialFormat",
+            "RegionDataType",
+            "RegionFlags",
+            "RegionLocationMinX0",
+            "RegionLocationMinY0",
+            "RegionLocationMaxX1",
+            "RegionLocationMaxY1",
+            "ReferencePixelX0",
+            "ReferencePixelY0",
+            "PhysicalUnitsXDirection",
+            "PhysicalUnitsYDirection",
+            "ReferencePixelPhysicalValueX",
+            "ReferencePixelPhysicalValueY",
+            "PhysicalDeltaX",
+            "PhysicalDeltaY",
+            "TransducerFrequency",
+            "TransducerType",
+            "PulseRepetitionFrequency",
+            "DopplerCorrectionAngle",
+            "SteeringAngle",
+            "RETIRED_DopplerSampleVolumeXPositionRetired",
+            "DopplerSampleVolumeXPosition",
+            "RETIRED_DopplerSampleVolumeYPositionRetired",
+            "DopplerSampleVolumeYPosition",
+            "RETIRED_TMLinePositionX0Retired",
+            "TMLinePositionX0",
+            "RETIRED_TMLinePositionY0Retired",
+            "TMLinePositionY0",
+            "RETIRED_TMLinePositionX1Retired",
+            "TMLinePositionX1",
+            "RETIRED_TMLinePositionY1Retired",
+            "TMLinePositionY1",
+            "PixelComponentOrganization",
+            "PixelComponentMask",
+            "PixelComponentRangeStart",
+            "PixelComponentRangeStop",
+            "PixelComponentPhysicalUnits",
+            "PixelComponentDataType",
+            "NumberOfTableBreakPoints",
+            "TableOfXBreakPoints",
+            "TableOfYBreakPoints",
+            "NumberOfTableEntries",
+            "TableOfPixelValues",
+            "TableOfParameterValues",
+            "RWaveTimeVector",
+            "DetectorConditionsNominalFlag",
+            "DetectorTemperature",
+            "DetectorType",
+            "DetectorConfiguration",
+            "DetectorDescription",
+            "DetectorMode",
+            "DetectorID",
+            "DateOfLastDetectorCalibration",
+            "TimeOfLastDetectorCalibration",
+            "ExposuresOnDetectorSinceLastCalibration",
+            "ExposuresOnDetectorSinceManufactured",
+            "DetectorTimeSinceLastExposure",
+            "DetectorActiveTime",
+            "DetectorActivationOffsetFromExposure",
+            "DetectorBinning",
+            "DetectorElementPhysicalSize",
+            "DetectorElementSpacing",
+            "DetectorActiveShape",
+            "DetectorActiveDimensions",
+            "DetectorActiveOrigin",
+            "DetectorManufacturerName",
+            "DetectorManufacturerModelName",
+            "FieldOfViewOrigin",
+            "FieldOfViewRotation",
+            "FieldOfViewHorizontalFlip",
+            "GridAbsorbingMaterial",
+            "GridSpacingMaterial",
+            "GridThickness",
+            "GridPitch",
+            "GridAspectRatio",
+            "GridPeriod",
+            "GridFocalDistance",
+            "FilterMaterial",
+            "FilterThicknessMinimum",
+            "FilterThicknessMaximum",
+            "FilterBeamPathLengthMinimum",
+            "FilterBeamPathLengthMaximum",
+            "ExposureControlMode",
+            "ExposureControlModeDescription",
+            "ExposureStatus",
+            "PhototimerSetting",
+            "ExposureTimeInuS",
+            "XRayTubeCurrentInuA",
+            "ContentQualification",
+            "PulseSequenceName",
+            "MRImagingModifierSequence",
+            "EchoPulseSequence",
+            "InversionRecovery",
+            "FlowCompensation",
+            "MultipleSpinEcho",
+            "MultiPlanarExcitation",
+            "PhaseContrast",
+            "TimeOfFlightContrast",
+            "Spoiling",
+            "SteadyStatePulseSequence",
+            "EchoPlanarPulseSequence",
+            "TagAngleFirstAxis",
+            "MagnetizationTransfer",
+            "T2Preparation",
+            "BloodSignalNulling",
+            "SaturationRecovery",
+            "SpectrallySelectedSuppression",
+            "SpectrallySelectedExcitation",
+            "SpatialPresaturation",
+            "Tagging",
+            "OversamplingPhase",
+            "TagSpacingFirstDimension",
+            "GeometryOfKSpaceTraversal",
+            "SegmentedKSpaceTraversal",
+            "RectilinearPhaseEncodeReordering",
+            "TagThickness",
+            "PartialFourierDirection",
+            "CardiacSynchronizationTechnique",
+            "ReceiveCoilManufacturerName",
+            "MRReceiveCoilSequence",
+            "ReceiveCoilType",
+            "QuadratureReceiveCoil",
+            "MultiCoilDefinitionSequence",
+            "MultiCoilConfiguration",
+            "MultiCoilElementName",
+            "MultiCoilElementUsed",
+            "MRTransmitCoilSequence",
+            "TransmitCoilManufacturerName",
+            "TransmitCoilType",
+            "SpectralWidth",
+            "ChemicalShiftReference",
+            "VolumeLocalizationTechnique",
+            "MRAcquisitionFrequencyEncodingSteps",
+            "Decoupling",
+            "DecoupledNucleus",
+            "DecouplingFrequency",
+            "DecouplingMethod",
+            "DecouplingChemicalShiftReference",
+            "KSpaceFiltering",
+            "TimeDomainFiltering",
+            "NumberOfZeroFills",
+            "BaselineCorrection",
+            "ParallelReductionFactorInPlane",
+            "CardiacRRIntervalSpecified",
+            "AcquisitionDuration",
+            "FrameAcquisitionDateTime",
+            "DiffusionDirectionality",
+            "DiffusionGradientDirectionSequence",
+            "ParallelAcquisition",
+            "ParallelAcquisitionTechnique",
+            "InversionTimes",
+            "MetaboliteMapDescription",
+            "PartialFourier",
+            "EffectiveEchoTime",
+            "MetaboliteMapCodeSequence",
+            "ChemicalShiftSequence",
+            "CardiacSignalSource",
+            "DiffusionBValue",
+            "DiffusionGradientOrientation",
+            "VelocityEncodingDirection",
+            "VelocityEncodingMinimumValue",
+            "VelocityEncodingAcquisitionSequence",
+            "NumberOfKSpaceTrajectories",
+            "CoverageOfKSpace",
+            "SpectroscopyAcquisitionPhaseRows",
+            "RETIRED_ParallelReductionFactorInPlaneRetired",
+            "TransmitterFrequency",
+            "ResonantNucleus",
+            "FrequencyCorrection",
+            "MRSpectroscopyFOVGeometrySequence",
+            "SlabThickness",
+            "SlabOrientation",
+            "MidSlabPosition",
+            "MRSpatialSaturationSequence",
+            "MRTimingAndRelatedParametersSequence",
+            "MREchoSequence",
+            "MRModifierSequence",
+            "MRDiffusionSequence",
+            "CardiacSynchronizationSequence",
+            "MRAveragesSequence",
+            "MRFOVGeometrySequence",
+            "VolumeLocalizationSequence",
+            "SpectroscopyAcquisitionDataColumns",
+            "DiffusionAnisotropyType",
+            "FrameReferenceDateTime",
+            "MRMetaboliteMapSequence",
+            "ParallelReductionFactorOutOfPlane",
+            "SpectroscopyAcquisitionOutOfPlanePhaseSteps",
+            "RETIRED_BulkMotionStatus",
+            "ParallelReductionFactorSecondInPlane",
+            "CardiacBeatRejectionTechnique",
+            "RespiratoryMotionCompensationTechnique",
+            "RespiratorySignalSource",
+            "BulkMotionCompensationTechnique",
+            "BulkMotionSignalSource",
+            "ApplicableSafetyStandardAgency",
+            "ApplicableSafetyStandardDescription",
+            "OperatingModeSequence",
+            "OperatingModeType",
+            "OperatingMode",
+            "SpecificAbsorptionRateDefinition",
+            "GradientOutputType",
+            "SpecificAbsorptionRateValue",
+            "GradientOutput",
+            "FlowCompensationDirection",
+            "TaggingDelay",
+            "RespiratoryMotionCompensationTechniqueDescription",
+            "RespiratorySignalSourceID",
+            "RETIRED_ChemicalShiftMinimumIntegrationLimitInHz",
+            "RETIRED_ChemicalShiftMaximumIntegrationLimitInHz",
+            "MRVelocityEncodingSequence",
+            "FirstOrderPhaseCorrection",
+            "WaterReferencedPhaseCorrection",
+            "MRSpectroscopyAcquisitionType",
+            "RespiratoryCyclePosition",
+            "VelocityEncodingMaximumValue",
+            "TagSpacingSecondDimension",
+            "TagAngleSecondAxis",
+            "FrameAcquisitionDuration",
+            "MRImageFrameTypeSequence",
+            "MRSpectroscopyFrameTypeSequence",
+            "MRAcquisitionPhaseEncodingStepsInPlane",
+            "MRAcquisitionPhaseEncodingStepsOutOfPlane",
+            "SpectroscopyAcquisitionPhaseColumns",
+            "CardiacCyclePosition",
+            "SpecificAbsorptionRateSequence",
+            "RFEchoTrainLength",
+            "GradientEchoTrainLength",
+            "ChemicalShiftMinimumIntegrationLimitInppm",
+            "ChemicalShiftMaximumIntegrationLimitInppm",
+            "CTAcquisitionTypeSequence",
+            "AcquisitionType",
+            "TubeAngle",
+            "CTAcquisitionDetailsSequence",
+            "RevolutionTime",
+            "SingleCollimationWidth",
+            "TotalCollimationWidth",
+            "CTTableDynamicsSequence",
+            "TableSpeed",
+            "TableFeedPerRotation",
+            "SpiralPitchFactor",
+            "CTGeometrySequence",
+            "DataCollectionCenterPatient",
+            "CTReconstructionSequence",
+            "ReconstructionAlgorithm",
+            "ConvolutionKernelGroup",
+            "ReconstructionFieldOfView",
+            "ReconstructionTargetCenterPatient",
+            "ReconstructionAngle",
+            "ImageFilter",
+            "CTExposureSequence",
+            "ReconstructionPixelSpacing",
+            "ExposureModulationType",
+            "EstimatedDoseSaving",
+            "CTXRayDetailsSequence",
+            "CTPositionSequence",
+            "TablePosition",
+            "ExposureTimeInms",
+            "CTImageFrameTypeSequence",
+            "XRayTubeCurrentInmA",
+            "ExposureInmAs",
+            "ConstantVolumeFlag",
+            "FluoroscopyFlag",
+            "DistanceSourceToDataCollectionCenter",
+            "ContrastBolusAgentNumber",
+            "ContrastBolusIngredientCodeSequence",
+            "ContrastAdministrationProfileSequence",
+            "ContrastBolusUsageSequence",
+            "ContrastBolusAgentAdministered",
+            "ContrastBolusAgentDetected",
+            "ContrastBolusAgentPhase",
+            "CTDIvol",
+            "CTDIPhantomTypeCodeSequence",
+            "CalciumScoringMassFactorPatient",
+            "CalciumScoringMassFactorDevice",
+            "EnergyWeightingFactor",
+            "CTAdditionalXRaySourceSequence",
+            "ProjectionPixelCalibrationSequence",
+            "DistanceSourceToIsocenter",
+            "DistanceObjectToTableTop",
+            "ObjectPixelSpacingInCenterOfBeam",
+            "PositionerPositionSequence",
+            "TablePositionSequence",
+            "CollimatorShapeSequence",
+            "XAXRFFrameCharacteristicsSequence",
+            "FrameAcquisitionSequence",
+            "XRayReceptorType",
+            "AcquisitionProtocolName",
+            "AcquisitionProtocolDescription",
+            "ContrastBolusIngredientOpaque",
+            "DistanceReceptorPlaneToDetectorHousing",
+            "IntensifierActiveShape",
+            "IntensifierActiveDimensions",
+            "PhysicalDetectorSize",
+            "PositionOfIsocenterProjection",
+            "FieldOfViewSequence",
+            "FieldOfViewDescription",
+            "ExposureControlSensingRegionsSequence",
+            "ExposureControlSensingRegionShape",
+            "ExposureControlSensingRegionLeftVerticalEdge",
+            "ExposureControlSensingRegionRightVerticalEdge",
+            "ExposureControlSensingRegionUpperHorizontalEdge",
+            "ExposureControlSensingRegionLowerHorizontalEdge",
+            "CenterOfCircularExposureControlSensingRegion",
+            "RadiusOfCircularExposureControlSensingRegion",
+            "VerticesOfThePolygonalExposureControlSensingRegion",
+            "ColumnAngulationPatient",
+            "BeamAngle",
+            "FrameDetectorParametersSequence",
+            "CalculatedAnatomyThickness",
+            "CalibrationSequence",
+            "ObjectThicknessSequence",
+            "PlaneIdentification",
+            "FieldOfViewDimensionsInFloat",
+            "IsocenterReferenceSystemSequence",
+            "PositionerIsocenterPrimaryAngle",
+            "PositionerIsocenterSecondaryAngle",
+            "PositionerIsocenterDetectorRotationAngle",
+            "TableXPositionToIsocenter",
+            "TableYPositionToIsocenter",
+            "TableZPositionToIsocenter",
+            "TableHorizontalRotationAngle",
+            "TableHeadTiltAngle",
+            "TableCradleTiltAngle",
+            "FrameDisplayShutterSequence",
+            "AcquiredImageAreaDoseProduct",
+            "CArmPositionerTabletopRelationship",
+            "XRayGeometrySequence",
+            "IrradiationEventIdentificationSequence",
+            "XRay3DFrameTypeSequence",
+            "ContributingSourcesSequence",
+            "XRay3DAcquisitionSequence",
+            "PrimaryPositionerScanArc",
+            "SecondaryPositionerScanArc",
+            "PrimaryPositionerScanStartAngle",
+            "SecondaryPositionerScanStartAngle",
+            "PrimaryPositionerIncrement",
+            "SecondaryPositionerIncrement",
+            "StartAcquisitionDateTime",
+            "EndAcquisitionDateTime",
+            "ApplicationName",
+            "ApplicationVersion",
+            "ApplicationManufacturer",
+            "AlgorithmType",
+            "AlgorithmDescription",
+            "XRay3DReconstructionSequence",
+            "ReconstructionDescription",
+            "PerProjectionAcquisitionSequence",
+            "DiffusionBMatrixSequence",
+            "DiffusionBValueXX",
+            "DiffusionBValueXY",
+            "DiffusionBValueXZ",
+            "DiffusionBValueYY",
+            "DiffusionBValueYZ",
+            "DiffusionBValueZZ",
+            "DecayCorrectionDateTime",
+            "StartDensityThreshold",
+            "StartRelativeDensityDifferenceThreshold",
+            "StartCardiacTriggerCountThreshold",
+            "StartRespiratoryTriggerCountThreshold",
+            "TerminationCountsThreshold",
+            "TerminationDensityThreshold",
+            "TerminationRelativeDensityThreshold",
+            "TerminationTimeThreshold",
+            "TerminationCardiacTriggerCountThreshold",
+            "TerminationRespiratoryTriggerCountThreshold",
+            "DetectorGeometry",
+            "TransverseDetectorSeparation",
+            "AxialDetectorDimension",
+            "RadiopharmaceuticalAgentNumber",
+            "PETFrameAcquisitionSequence",
+            "PETDetectorMotionDetailsSequence",
+            "PETTableDynamicsSequence",
+            "PETPositionSequence",
+            "PETFrameCorrectionFactorsSequence",
+            "RadiopharmaceuticalUsageSequence",
+            "AttenuationCorrectionSource",
+            "NumberOfIterations",
+            "NumberOfSubsets",
+            "PETReconstructionSequence",
+            "PETFrameTypeSequence",
+            "TimeOfFlightInformationUsed",
+            "ReconstructionType",
+            "DecayCorrected",
+            "AttenuationCorrected",
+            "ScatterCorrected",
+            "DeadTimeCorrected",
+            "GantryMotionCorrected",
+            "PatientMotionCorrected",
+            "CountLossNormalizationCorrected",
+            "RandomsCorrected",
+            "NonUniformRadialSamplingCorrected",
+            "SensitivityCalibrated",
+            "DetectorNormalizationCorrection",
+            "IterativeReconstructionMethod",
+            "AttenuationCorrectionTemporalRelationship",
+            "PatientPhysiologicalStateSequence",
+            "PatientPhysiologicalStateCodeSequence",
+            "DepthsOfFocus",
+            "ExcludedIntervalsSequence",
+            "ExclusionStartDatetime",
+            "ExclusionDuration",
+            "USImageDescriptionSequence",
+            "ImageDataTypeSequence",
+            "DataType",
+            "TransducerScanPatternCodeSequence",
+            "AliasedDataType",
+            "PositionMeasuringDeviceUsed",
+            "TransducerGeometryCodeSequence",
+            "TransducerBeamSteeringCodeSequence",
+            "TransducerApplicationCodeSequence",
+            "ContributingEquipmentSequence",
+            "ContributionDateTime",
+            "ContributionDescription",
+            "StudyInstanceUID",
+            "SeriesInstanceUID",
+            "StudyID",
+            "SeriesNumber",
+            "AcquisitionNumber",
+            "InstanceNumber",
+            "RETIRED_IsotopeNumber",
+            "RETIRED_PhaseNumber",
+            "RETIRED_IntervalNumber",
+            "RETIRED_TimeSlotNumber",
+            "RETIRED_AngleNumber",
+            "ItemNumber",
+            "PatientOrientation",
+            "RETIRED_OverlayNumber",
+            "RETIRED_CurveNumber",
+            "RETIRED_LUTNumber",
+            "ACR_NEMA_ImagePosition",
+            "ImagePositionPatient",
+            "ACR_NEMA_ImageOrientation",
+            "ImageOrientationPatient",
+            "ACR_NEMA_Location",
+            "FrameOfReferenceUID",
+            "Laterality",
+            "ImageLaterality",
+            "ACR_NEMA_ImageGeometryType",
+            "ACR_NEMA_MaskingImage",
+            "TemporalPositionIdentifier",
+            "NumberOfTemporalPositions",
+            "TemporalResolution",
+            "SynchronizationFrameOfReferenceUID",
+            "SOPInstanceUIDOfConcatenationSource",
+            "RETIRED_SeriesInStudy",
+            "ACR_NEMA_AcquisitionsInSeries",
+            "ImagesInAcquisition",
+            "ACR_NEMA_ImagesInSeries",
+            "RETIRED_AcquisitionsInStudy",
+            "ACR_NEMA_ImagesInStudy",
+            "ACR_NEMA_Reference",
+            "PositionReferenceIndicator",
+            "SliceLocation",
+            "RETIRED_OtherStudyNumbers",
+            "NumberOfPatientRelatedStudies",
+            "NumberOfPatientRelatedSeries",
+            "NumberOfPatientRelatedInstances",
+            "NumberOfStudyRelatedSeries",
+            "NumberOfStudyRelatedInstances",
+            "NumberOfSeriesRelatedInstances",
+            "ACR_NEMA_ModifyingDeviceID",
+            "ACR_NEMA_ModifiedImageID",
+            "ACR_NEMA_ModifiedImageDate",
+            "ACR_NEMA_ModifyingDeviceManufacturer",
+            "ACR_NEMA_ModifiedImageTime",
+            "ACR_NEMA_ModifiedImageDescription",
+            "ImageComments",
+            "ACR_NEMA_OriginalImageIdentification",
+            "ACR_NEMA_OriginalImageIdentificationNomenclature",
+            "StackID",
+            "InStackPositionNumber",
+            "FrameAnatomySequence",
+            "FrameLaterality",
+            "FrameContentSequence",
+            "PlanePositionSequence",
+            "PlaneOrientationSequence",
+            "TemporalPositionIndex",
+            "NominalCardiacTriggerDelayTime",
+            "FrameAcquisitionNumber",
+            "DimensionIndexValues",
+            "FrameComments",
+            "ConcatenationUID",
+            "InConcatenationNumber",
+            "InConcatenationTotalNumber",
+            "DimensionOrganizationUID",
+            "DimensionIndexPointer",
+            "FunctionalGroupPointer",
+            "DimensionIndexPrivateCreator",
+            "DimensionOrganizationSequence",
+            "DimensionIndexSequence",
+            "ConcatenationFrameOffsetNumber",
+            "FunctionalGroupPrivateCreator",
+            "NominalPercentageOfCardiacPhase",
+            "NominalPercentageOfRespiratoryPhase",
+            "StartingRespiratoryAmplitude",
+            "StartingRespiratoryPhase",
+            "EndingRespiratoryAmplitude",
+            "EndingRespiratoryPhase",
+            "RespiratoryTriggerType",
+            "RRIntervalTimeNominal",
+            "ActualCardiacTriggerDelayTime",
+            "RespiratorySynchronizationSequence",
+            "RespiratoryIntervalTime",
+            "NominalRespiratoryTriggerDelayTime",
+            "RespiratoryTriggerDelayThreshold",
+            "ActualRespiratoryTriggerDelayTime",
+            "ImagePositionVolume",
+            "ImageOrientationVolume",
+            "UltrasoundAcquisitionGeometry",
+            "ApexPosition",
+            "VolumeToTransducerMappingMatrix",
+            "VolumeToTableMappingMatrix",
+            "PatientFrameOfReferenceSource",
+            "TemporalPositionTimeOffset",
+            "PlanePositionVolumeSequence",
+            "PlaneOrientationVolumeSequence",
+            "TemporalPositionSequence",
+            "DimensionOrganizationType",
+            "VolumeFrameOfReferenceUID",
+            "TableFrameOfReferenceUID",
+            "DimensionDescriptionLabel",
+            "PatientOrientationInFrameSequence",
+            "FrameLabel",
+            "AcquisitionIndex",
+            "ContributingSOPInstancesReferenceSequence",
+            "ReconstructionIndex",
+            "LightPathFilterPassThroughWavelength",
+            "LightPathFilterPassBand",
+            "ImagePathFilterPassThroughWavelength",
+            "ImagePathFilterPassBand",
+            "PatientEyeMovementCommanded",
+            "PatientEyeMovementCommandCodeSequence",
+            "SphericalLensPower",
+            "CylinderLensPower",
+            "CylinderAxis",
+            "EmmetropicMagnification",
+            "IntraOcularPressure",
+            "HorizontalFieldOfView",
+            "PupilDilated",
+            "DegreeOfDilation",
+            "StereoBaselineAngle",
+            "StereoBaselineDisplacement",
+            "StereoHorizontalPixelOffset",
+            "StereoVerticalPixelOffset",
+            "StereoRotation",
+            "AcquisitionDeviceTypeCodeSequence",
+            "IlluminationTypeCodeSequence",
+            "LightPathFilterTypeStackCodeSequence",
+            "ImagePathFilterTypeStackCodeSequence",
+            "LensesCodeSequence",
+            "ChannelDescriptionCodeSequence",
+            "RefractiveStateSequence",
+            "MydriaticAgentCodeSequence",
+            "RelativeImagePositionCodeSequence",
+            "StereoPairsSequence",
+            "LeftImageSequence",
+            "RightImageSequence",
+            "AxialLengthOfTheEye",
+            "OphthalmicFrameLocationSequence",
+            "ReferenceCoordinates",
+            "DepthSpatialResolution",
+            "MaximumDepthDistortion",
+            "AlongScanSpatialResolution",
+            "MaximumAlongScanDistortion",
+            "OphthalmicImageOrientation",
+            "DepthOfTransverseImage",
+            "MydriaticAgentConcentrationUnitsSequence",
+            "AcrossScanSpatialResolution",
+            "MaximumAcrossScanDistortion",
+            "MydriaticAgentConcentration",
+            "IlluminationWaveLength",
+            "IlluminationPower",
+            "IlluminationBandwidth",
+            "MydriaticAgentSequence",
+            "OphthalmicAxialMeasurementsRightEyeSequence",
+            "OphthalmicAxialMeasurementsLeftEyeSequence",
+            "OphthalmicAxialMeasurementsDeviceType",
+            "OphthalmicAxialLengthMeasurementsType",
+            "OphthalmicAxialLengthSequence",
+            "OphthalmicAxialLength",
+            "LensStatusCodeSequence",
+            "VitreousStatusCodeSequence",
+            "IOLFormulaCodeSequence",
+            "IOLFormulaDetail",
+            "KeratometerIndex",
+            "SourceofOphthalmicAxialLengthCodeSequence",
+            "TargetRefraction",
+            "RefractiveProcedureOccurred",
+            "RefractiveSurgeryTypeCodeSequence",
+            "OphthalmicUltrasoundMethodCodeSequence",
+            "OphthalmicAxialLengthMeasurementsSequence",
+            "IOLPower",
+            "PredictedRefractiveError",
+            "OphthalmicAxialLengthVelocity",
+            "LensStatusDescription",
+            "VitreousStatusDescription",
+            "IOLPowerSequence",
+            "LensConstantSequence",
+            "IOLManufacturer",
+            "ImplantName",
+            "KeratometryMeasurementTypeCodeSequence",
+            "ImplantPartNumber",
+            "ReferencedOphthalmicAxialMeasurementsSequence",
+            "OphthalmicAxialLengthMeasurementsSegmentNameCodeSequence",
+            "RefractiveErrorBeforeRefractiveSurgeryCodeSequence",
+            "IOLPowerForExactEmmetropia",
+            "IOLPowerForExactTargetRefraction",
+            "AnteriorChamberDepthDefinitionCodeSequence",
+            "LensThicknessSequence",
+            "AnteriorChamberDepthSequence",
+            "LensThickness",
+            "AnteriorChamberDepth",
+            "SourceofLensThicknessDataCodeSequence",
+            "SourceofAnteriorChamberDepthDataCodeSequence",
+            "SourceofRefractiveMeasurementsSequence",
+            "SourceofRefractiveMeasurementsCodeSequence",
+            "OphthalmicAxialLengthMeasurementModified",
+            "OphthalmicAxialLengthDataSourceCodeSequence",
+            "SignaltoNoiseRatio",
+            "OphthalmicAxialLengthDataSourceDescription",
+            "OphthalmicAxialLengthMeasurementsTotalLengthSequence",
+            "OphthalmicAxialLengthMeasurementsSegmentalLengthSequence",
+            "OphthalmicAxialLengthMeasurementsLengthSummationSequence",
+            "UltrasoundOphthalmicAxialLengthMeasurementsSequence",
+            "OpticalOphthalmicAxialLengthMeasurementsSequence",
+            "UltrasoundSelectedOphthalmicAxialLengthSequence",
+            "OphthalmicAxialLengthSelectionMethodCodeSequence",
+            "OpticalSelectedOphthalmicAxialLengthSequence",
+            "SelectedSegmentalOphthalmicAxialLengthSequence",
+            "SelectedTotalOphthalmicAxialLengthSequence",
+            "OphthalmicAxialLengthQualityMetricSequence",
+            "OphthalmicAxialLengthQualityMetricTypeCodeSequence",
+            "IntraocularLensCalculationsRightEyeSequence",
+            "IntraocularLensCalculationsLeftEyeSequence",
+            "ReferencedOphthalmicAxialLengthMeasurementQCImageSequence",
+            "VisualFieldHorizontalExtent",
+            "VisualFieldVerticalExtent",
+            "VisualFieldShape",
+            "ScreeningTestModeCodeSequence",
+            "MaximumStimulusLuminance",
+            "BackgroundLuminance",
+            "StimulusColorCodeSequence",
+            "BackgroundIlluminationColorCodeSequence",
+            "StimulusArea",
+            "StimulusPresentationTime",
+            "FixationSequence",
+            "FixationMonitoringCodeSequence",
+            "VisualFieldCatchTrialSequence",
+            "FixationCheckedQuantity",
+            "PatientNotProperlyFixatedQuantity",
+            "PresentedVisualStimuliDataFlag",
+            "NumberOfVisualStimuli",
+            "ExcessiveFixationLossesDataFlag",
+            "ExcessiveFixationLosses",
+            "StimuliRetestingQuantity",
+            "CommentsOnPatientPerformanceOfVisualField",
+            "FalseNegativesEstimateFlag",
+            "FalseNegativesEstimate",
+            "NegativeCatchTrialsQuantity",
+            "FalseNegativesQuantity",
+            "ExcessiveFalseNegativesDataFlag",
+            "ExcessiveFalseNegatives",
+            "FalsePositivesEstimateFlag",
+            "FalsePositivesEstimate",
+            "CatchTrialsDataFlag",
+            "PositiveCatchTrialsQuantity",
+            "TestPointNormalsDataFlag",
+            "TestPointNormalsSequence",
+            "GlobalDeviationProbabilityNormalsFlag",
+            "FalsePositivesQuantity",
+            "ExcessiveFalsePositivesDataFlag",
+            "ExcessiveFalsePositives",
+            "VisualFieldTestNormalsFlag",
+            "ResultsNormalsSequence",
+            "AgeCorrectedSensitivityDeviationAlgorithmSequence",
+            "GlobalDeviationFromNormal",
+            "GeneralizedDefectSensitivityDeviationAlgorithmSequence",
+            "LocalizedDeviationfromNormal",
+            "PatientReliabilityIndicator",
+            "VisualFieldMeanSensitivity",
+            "GlobalDeviationProbability",
+            "LocalDeviationProbabilityNormalsFlag",
+            "LocalizedDeviationProbability",
+            "ShortTermFluctuationCalculated",
+            "ShortTermFluctuation",
+            "ShortTermFluctuationProbabilityCalculated",
+            "ShortTermFluctuationProbability",
+            "CorrectedLocalizedDeviationFromNormalCalculated",
+            "CorrectedLocalizedDeviationFromNormal",
+            "CorrectedLocalizedDeviationFromNormalProbabilityCalculated",
+            "CorrectedLocalizedDeviationFromNormalProbability",
+            "GlobalDeviationProbabilitySequence",
+            "LocalizedDeviationProbabilitySequence",
+            "FovealSensitivityMeasured",
+            "FovealSensitivity",
+            "VisualFieldTestDuration",
+            "VisualFieldTestPointSequence",
+            "VisualFieldTestPointXCoordinate",
+            "VisualFieldTestPointYCoordinate",
+            "AgeCorrectedSensitivityDeviationValue",
+            "StimulusResults",
+            "SensitivityValue",
+            "RetestStimulusSeen",
+            "RetestSensitivityValue",
+            "VisualFieldTestPointNormalsSequence",
+            "QuantifiedDefect",
+            "GeneralizedDefectCorrectedSensitivityDeviationFlag",
+            "GeneralizedDefectCorrectedSensitivityDeviationValue",
+            "GeneralizedDefectCorrectedSensitivityDeviationProbabilityValue",
+            "MinimumSensitivityValue",
+            "BlindSpotLocalized",
+            "BlindSpotXCoordinate",
+            "BlindSpotYCoordinate",
+            "VisualAcuityMeasurementSequence",
+            "RefractiveParametersUsedOnPatientSequence",
+            "MeasurementLaterality",
+            "OphthalmicPatientClinicalInformationLeftEyeSequence",
+            "OphthalmicPatientClinicalInformationRightEyeSequence",
+            "FovealPointNormativeDataFlag",
+            "FovealPointProbabilityValue",
+            "ScreeningBaselineMeasured",
+            "ScreeningBaselineMeasuredSequence",
+            "ScreeningBaselineType",
+            "ScreeningBaselineValue",
+            "AlgorithmSource",
+            "DataSetName",
+            "DataSetVersion",
+            "DataSetSource",
+            "DataSetDescription",
+            "VisualFieldTestReliabilityGlobalIndexSequence",
+            "VisualFieldGlobalResultsIndexSequence",
+            "DataObservationSequence",
+            "IndexNormalsFlag",
+            "IndexProbability",
+            "IndexProbabilitySequence",
+            "SamplesPerPixel",
+            "SamplesPerPixelUsed",
+            "PhotometricInterpretation",
+            "ACR_NEMA_ImageDimensions",
+            "PlanarConfiguration",
+            "NumberOfFrames",
+            "FrameIncrementPointer",
+            "FrameDimensionPointer",
+            "Rows",
+            "Columns",
+            "RETIRED_Planes",
+            "UltrasoundColorDataPresent",
+            "PixelSpacing",
+            "ZoomFactor",
+            "ZoomCenter",
+            "PixelAspectRatio",
+            "ACR_NEMA_ImageFormat",
+            "ACR_NEMA_ManipulatedImage",
+            "CorrectedImage",
+            "ACR_NEMA_2C_CompressionRecognitionCode",
+            "ACR_NEMA_CompressionCode",
+            "ACR_NEMA_2C_CompressionOriginator",
+            "ACR_NEMA_2C_CompressionLabel",
+            "ACR_NEMA_2C_CompressionDescription",
+            "ACR_NEMA_2C_CompressionSequence",
+            "ACR_NEMA_2C_CompressionStepPointers",
+            "ACR_NEMA_2C_RepeatInterval",
+            "ACR_NEMA_2C_BitsGrouped",
+            "ACR_NEMA_2C_PerimeterTable",
+            "ACR_NEMA_2C_PerimeterValue",
+            "ACR_NEMA_2C_PredictorRows",
+            "ACR_NEMA_2C_PredictorColumns",
+            "ACR_NEMA_2C_PredictorConstants",
+            "ACR_NEMA_2C_BlockedPixels",
+            "ACR_NEMA_2C_BlockRows",
+            "ACR_NEMA_2C_BlockColumns",
+            "ACR_NEMA_2C_RowOverlap",
+            "ACR_NEMA_2C_ColumnOverlap",
+            "BitsAllocated",
+            "BitsStored",
+            "HighBit",
+            "PixelRepresentation",
+            "ACR_NEMA_SmallestValidPixelValue",
+            "ACR_NEMA_LargestValidPixelValue",
+            "SmallestImagePixelValue",
+            "LargestImagePixelValue",
+            "SmallestPixelValueInSeries",
+            "LargestPixelValueInSeries",
+            "RETIRED_SmallestImagePixelValueInPlane",
+            "RETIRED_LargestImagePixelValueInPlane",
+            "PixelPaddingValue",
+            "PixelPaddingRangeLimit",
+            "ACR_NEMA_ImageLocation",
+            "QualityControlImage",
+            "BurnedInAnnotation",
+            "ACR_NEMA_2C_TransformLabel",
+            "ACR_NEMA_2C_TransformVersionNumber",
+            "ACR_NEMA_2C_NumberOfTransformSteps",
+            "ACR_NEMA_2C_SequenceOfCompressedData",
+            "ACR_NEMA_2C_DetailsOfCoefficients",
+            "ACR_NEMA_2C_RowsForNthOrderCoefficients",
+            "ACR_NEMA_2C_ColumnsForNthOrderCoefficients",
+            "ACR_NEMA_2C_CoefficientCoding",
+            "ACR_NEMA_2C_CoefficientCodingPointers",
+            "ACR_NEMA_2C_DCTLabel",
+            "ACR_NEMA_2C_DataBlockDescription",
+            "ACR_NEMA_2C_DataBlock",
+            "ACR_NEMA_2C_NormalizationFactorFormat",
+            "ACR_NEMA_2C_ZonalMapNumberFormat",
+            "ACR_NEMA_2C_ZonalMapLocation",
+            "ACR_NEMA_2C_ZonalMapFormat",
+            "ACR_NEMA_2C_AdaptiveMapFormat",
+            "ACR_NEMA_2C_CodeNumberFormat",
+            "ACR_NEMA_2C_CodeLabel",
+            "ACR_NEMA_2C_NumberOfTables",
+            "ACR_NEMA_2C_CodeTableLocation",
+            "ACR_NEMA_2C_BitsForCodeWord",
+            "ACR_NEMA_2C_ImageDataLocation",
+            "PixelSpacingCalibrationType",
+            "PixelSpacingCalibrationDescription",
+            "PixelIntensityRelationship",
+            "PixelIntensityRelationshipSign",
+            "WindowCenter",
+            "WindowWidth",
+            "RescaleIntercept",
+            "RescaleSlope",
+            "RescaleType",
+            "WindowCenterWidthExplanation",
+            "VOILUTFunction",
+            "ACR_NEMA_GrayScale",
+            "RecommendedViewingMode",
+            "ACR_NEMA_GrayLookupTableDescriptor",
+            "RedPaletteColorLookupTableDescriptor",
+            "GreenPaletteColorLookupTableDescriptor",
+            "BluePaletteColorLookupTableDescriptor",
+            "AlphaPaletteColorLookupTableDescriptor",
+            "RETIRED_LargeRedPaletteColorLookupTableDescriptor",
+            "RETIRED_LargeGreenPaletteColorLookupTableDescriptor",
+            "RETIRED_LargeBluePaletteColorLookupTableDescriptor",
+            "PaletteColorLookupTableUID",
+            "ACR_NEMA_GrayLookupTableData",
+            "RedPaletteColorLookupTableData",
+            "GreenPaletteColorLookupTableData",
+            "BluePaletteColorLookupTableData",
+            "AlphaPaletteColorLookupTableData",
+            "RETIRED_LargeRedPaletteColorLookupTableData",
+            "RETIRED_LargeGreenPaletteColorLookupTableData",
+            "RETIRED_LargeBluePaletteColorLookupTableData",
+            "RETIRED_LargePaletteColorLookupTableUID",
+            "SegmentedRedPaletteColorLookupTableData",
+            "SegmentedGreenPaletteColorLookupTableData",
+            "SegmentedBluePaletteColorLookupTableData",
+            "BreastImplantPresent",
+            "PartialView",
+            "PartialViewDescription",
+            "PartialViewCodeSequence",
+            "SpatialLocationsPreserved",
+            "DataFrameAssignmentSequence",
+            "DataPathAssignment",
+            "BitsMappedToColorLookupTable",
+            "BlendingLUT1Sequence",
+            "BlendingLUT1TransferFunction",
+            "BlendingWeightConstant",
+            "BlendingLookupTableDescriptor",
+            "BlendingLookupTableData",
+            "EnhancedPaletteColorLookupTableSequence",
+            "BlendingLUT2Sequence",
+            "BlendingLUT2TransferFunction",
+            "DataPathID",
+            "RGBLUTTransferFunction",
+            "AlphaLUTTransferFunction",
+            "ICCProfile",
+            "LossyImageCompression",
+            "LossyImageCompressionRatio",
+            "LossyImageCompressionMethod",
+            "ModalityLUTSequence",
+            "LUTDescriptor",
+            "LUTExplanation",
+            "ModalityLUTType",
+            "LUTData",
+            "VOILUTSequence",
+            "SoftcopyVOILUTSequence",
+            "ACR_NEMA_ImagePresentationComments",
+            "RETIRED_BiPlaneAcquisitionSequence",
+            "RepresentativeFrameNumber",
+            "FrameNumbersOfInterest",
+            "FrameOfInterestDescription",
+            "FrameOfInterestType",
+            "RETIRED_MaskPointers",
+            "RWavePointer",
+            "MaskSubtractionSequence",
+            "MaskOperation",
+            "ApplicableFrameRange",
+            "MaskFrameNumbers",
+            "ContrastFrameAveraging",
+            "MaskSubPixelShift",
+            "TIDOffset",
+            "MaskOperationExplanation",
+            "PixelDataProviderURL",
+            "DataPointRows",
+            "DataPointColumns",
+            "SignalDomainColumns",
+            "RETIRED_LargestMonochromePixelValue",
+            "DataRepresentation",
+            "PixelMeasuresSequence",
+            "FrameVOILUTSequence",
+            "PixelValueTransformationSequence",
+            "SignalDomainRows",
+            "DisplayFilterPercentage",
+            "FramePixelShiftSequence",
+            "SubtractionItemID",
+            "PixelIntensityRelationshipLUTSequence",
+            "FramePixelDataPropertiesSequence",
+            "GeometricalProperties",
+            "GeometricMaximumDistortion",
+            "ImageProcessingApplied",
+            "MaskSelectionMode",
+            "LUTFunction",
+            "MaskVisibilityPercentage",
+            "PixelShiftSequence",
+            "RegionPixelShiftSequence",
+            "VerticesOfTheRegion",
+            "MultiFramePresentationSequence",
+            "PixelShiftFrameRange",
+            "LUTFrameRange",
+            "ImageToEquipmentMappingMatrix",
+            "EquipmentCoordinateSystemIdentification",
+            "RETIRED_StudyStatusID",
+            "RETIRED_StudyPriorityID",
+            "RETIRED_StudyIDIssuer",
+            "RETIRED_StudyVerifiedDate",
+            "RETIRED_StudyVerifiedTime",
+            "RETIRED_StudyReadDate",
+            "RETIRED_StudyReadTime",
+            "RETIRED_ScheduledStudyStartDate",
+            "RETIRED_ScheduledStudyStartTime",
+            "RETIRED_ScheduledStudyStopDate",
+            "RETIRED_ScheduledStudyStopTime",
+            "RETIRED_ScheduledStudyLocation",
+            "RETIRED_ScheduledStudyLocationAETitle",
+            "RETIRED_ReasonForStudy",
+            "RequestingPhysicianIdentificationSequence",
+            "RequestingPhysician",
+            "RequestingService",
+            "RequestingServiceCodeSequence",
+            "RETIRED_StudyArrivalDate",
+            "RETIRED_StudyArrivalTime",
+            "RETIRED_StudyCompletionDate",
+            "RETIRED_StudyCompletionTime",
+            "RETIRED_StudyComponentStatusID",
+            "RequestedProcedureDescription",
+            "RequestedProcedureCodeSequence",
+            "RequestedContrastAgent",
+            "RETIRED_StudyComments",
+            "ReferencedPatientAliasSequence",
+            "VisitStatusID",
+            "AdmissionID",
+            "RETIRED_IssuerOfAdmissionID",
+            "IssuerOfAdmissionIDSequence",
+            "RouteOfAdmissions",
+            "RETIRED_ScheduledAdmissionDate",
+            "RETIRED_ScheduledAdmissionTime",
+            "RETIRED_ScheduledDischargeDate",
+            "RETIRED_ScheduledDischargeTime",
+            "RETIRED_ScheduledPatientInstitutionResidence",
+            "AdmittingDate",
+            "AdmittingTime",
+            "RETIRED_DischargeDate",
+            "RETIRED_DischargeTime",
+            "RETIRED_DischargeDiagnosisDescription",
+            "RETIRED_DischargeDiagnosisCodeSequence",
+            "SpecialNeeds",
+            "ServiceEpisodeID",
+            "RETIRED_IssuerOfServiceEpisodeID",
+            "ServiceEpisodeDescription",
+            "IssuerOfServiceEpisodeIDSequence",
+            "PertinentDocumentsSequence",
+            "CurrentPatientLocation",
+            "PatientInstitutionResidence",
+            "PatientState",
+            "PatientClinicalTrialParticipationSequence",
+            "VisitComments",
+            "WaveformOriginality",
+            "NumberOfWaveformChannels",
+            "NumberOfWaveformSamples",
+            "SamplingFrequency",
+            "MultiplexGroupLabel",
+            "ChannelDefinitionSequence",
+            "WaveformChannelNumber",
+            "ChannelLabel",
+            "ChannelStatus",
+            "ChannelSourceSequence",
+            "ChannelSourceModifiersSequence",
+            "SourceWaveformSequence",
+            "ChannelDerivationDescription",
+            "ChannelSensitivity",
+            "ChannelSensitivityUnitsSequence",
+            "ChannelSensitivityCorrectionFactor",
+            "ChannelBaseline",
+            "ChannelTimeSkew",
+            "ChannelSampleSkew",
+            "ChannelOffset",
+            "WaveformBitsStored",
+            "FilterLowFrequency",
+            "FilterHighFrequency",
+            "NotchFilterFrequency",
+            "NotchFilterBandwidth",
+            "WaveformDataDisplayScale",
+            "WaveformDisplayBackgroundCIELabValue",
+            "WaveformPresentationGroupSequence",
+            "PresentationGroupNumber",
+            "ChannelDisplaySequence",
+            "ChannelRecommendedDisplayCIELabValue",
+            "ChannelPosition",
+            "DisplayShadingFlag",
+            "FractionalChannelDisplayScale",
+            "AbsoluteChannelDisplayScale",
+            "MultiplexedAudioChannelsDescriptionCodeSequence",
+            "ChannelIdentificationCode",
+            "ChannelMode",
+            "ScheduledStationAETitle",
+            "ScheduledProcedureStepStartDate",
+            "ScheduledProcedureStepStartTime",
+            "ScheduledProcedureStepEndDate",
+            "ScheduledProcedureStepEndTime",
+            "ScheduledPerformingPhysicianName",
+            "ScheduledProcedureStepDescription",
+            "ScheduledProtocolCodeSequence",
+            "ScheduledProcedureStepID",
+            "StageCodeSequence",
+            "ScheduledPerformingPhysicianIdentificationSequence",
+            "ScheduledStationName",
+            "ScheduledProcedureStepLocation",
+            "PreMedication",
+            "ScheduledProcedureStepStatus",
+            "OrderPlacerIdentifierSequence",
+            "OrderFillerIdentifierSequence",
+            "LocalNamespaceEntityID",
+            "UniversalEntityID",
+            "UniversalEntityIDType",
+            "IdentifierTypeCode",
+            "AssigningFacilitySequence",
+            "AssigningJurisdictionCodeSequence",
+            "AssigningAgencyOrDepartmentCodeSequence",
+            "ScheduledProcedureStepSequence",
+            "ReferencedNonImageCompositeSOPInstanceSequence",
+            "PerformedStationAETitle",
+            "PerformedStationName",
+            "PerformedLocation",
+            "PerformedProcedureStepStartDate",
+            "PerformedProcedureStepStartTime",
+            "PerformedProcedureStepEndDate",
+            "PerformedProcedureStepEndTime",
+            "PerformedProcedureStepStatus",
+            "PerformedProcedureStepID",
+            "PerformedProcedureStepDescription",
+            "PerformedProcedureTypeDescription",
+            "PerformedProtocolCodeSequence",
+            "PerformedProtocolType",
+            "ScheduledStepAttributesSequence",
+            "RequestAttributesSequence",
+            "CommentsOnThePerformedProcedureStep",
+            "PerformedProcedureStepDiscontinuationReasonCodeSequence",
+            "QuantitySequence",
+            "Quantity",
+            "MeasuringUnitsSequence",
+            "BillingItemSequence",
+            "TotalTimeOfFluoroscopy",
+            "TotalNumberOfExposures",
+            "EntranceDose",
+            "ExposedArea",
+            "DistanceSourceToEntrance",
+            "RETIRED_DistanceSourceToSupport",
+            "ExposureDoseSequence",
+            "CommentsOnRadiationDose",
+            "XRayOutput",
+            "HalfValueLayer",
+            "OrganDose",
+            "OrganExposed",
+            "BillingProcedureStepSequence",
+            "FilmConsumptionSequence",
+            "BillingSuppliesAndDevicesSequence",
+            "RETIRED_ReferencedProcedureStepSequence",
+            "PerformedSeriesSequence",
+            "CommentsOnTheScheduledProcedureStep",
+            "ProtocolContextSequence",
+            "ContentItemModifierSequence",
+            "ScheduledSpecimenSequence",
+            "RETIRED_SpecimenAccessionNumber",
+            "ContainerIdentifier",
+            "IssuerOfTheContainerIdentifierSequence",
+            "AlternateContainerIdentifierSequence",
+            "ContainerTypeCodeSequence",
+            "ContainerDescription",
+            "ContainerComponentSequence",
+            "RETIRED_SpecimenSequence",
+            "SpecimenIdentifier",
+            "RETIRED_SpecimenDescriptionSequenceTrial",
+            "RETIRED_SpecimenDescriptionTrial",
+            "SpecimenUID",
+            "AcquisitionContextSequence",
+            "AcquisitionContextDescription",
+            "SpecimenDescriptionSequence",
+            "IssuerOfTheSpecimenIdentifierSequence",
+            "SpecimenTypeCodeSequence",
+            "SpecimenShortDescription",
+            "SpecimenDetailedDescription",
+            "SpecimenPreparationSequence",
+            "SpecimenPreparationStepContentItemSequence",
+            "SpecimenLocalizationContentItemSequence",
+            "RETIRED_SlideIdentifier",
+            "ImageCenterPointCoordinatesSequence",
+            "XOffsetInSlideCoordinateSystem",
+            "YOffsetInSlideCoordinateSystem",
+            "ZOffsetInSlideCoordinateSystem",
+            "RETIRED_PixelSpacingSequence",
+            "RETIRED_CoordinateSystemAxisCodeSequence",
+            "MeasurementUnitsCodeSequence",
+            "RETIRED_VitalStainCodeSequenceTrial",
+            "RequestedProcedureID",
+            "ReasonForTheRequestedProcedure",
+            "RequestedProcedurePriority",
+            "PatientTransportArrangements",
+            "RequestedProcedureLocation",
+            "RETIRED_PlacerOrderNumberProcedure",
+            "RETIRED_FillerOrderNumberProcedure",
+            "ConfidentialityCode",
+            "ReportingPriority",
+            "ReasonForRequestedProcedureCodeSequence",
+            "NamesOfIntendedRecipientsOfResults",
+            "IntendedRecipientsOfResultsIdentificationSequence",
+            "ReasonForPerformedProcedureCodeSequence",
+            "PersonIdentificationCodeSequence",
+            "PersonAddress",
+            "PersonTelephoneNumbers",
+            "RequestedProcedureComments",
+            "RETIRED_ReasonForTheImagingServiceRequest",
+            "IssueDateOfImagingServiceRequest",
+            "IssueTimeOfImagingServiceRequest",
+            "RETIRED_PlacerOrderNumberImagingServiceRequestRetired",
+            "RETIRED_FillerOrderNumberImagingServiceRequestRetired",
+            "OrderEnteredBy",
+            "OrderEntererLocation",
+            "OrderCallbackPhoneNumber",
+            "PlacerOrderNumberImagingServiceRequest",
+            "FillerOrderNumberImagingServiceRequest",
+            "ImagingServiceRequestComments",
+            "ConfidentialityConstraintOnPatientDataDescription",
+            "GeneralPurposeScheduledProcedureStepStatus",
+            "GeneralPurposePerformedProcedureStepStatus",
+            "GeneralPurposeScheduledProcedureStepPriority",
+            "ScheduledProcessingApplicationsCodeSequence",
+            "ScheduledProcedureStepStartDateTime",
+            "MultipleCopiesFlag",
+            "PerformedProcessingApplicationsCodeSequence",
+            "HumanPerformerCodeSequence",
+            "ScheduledProcedureStepModificationDateTime",
+            "ExpectedCompletionDateTime",
+            "ResultingGeneralPurposePerformedProcedureStepsSequence",
+            "ReferencedGeneralPurposeScheduledProcedureStepSequence",
+            "ScheduledWorkitemCodeSequence",
+            "PerformedWorkitemCodeSequence",
+            "InputAvailabilityFlag",
+            "InputInformationSequence",
+            "RelevantInformationSequence",
+            "ReferencedGeneralPurposeScheduledProcedureStepTransactionUID",
+            "ScheduledStationNameCodeSequence",
+            "ScheduledStationClassCodeSequence",
+            "ScheduledStationGeographicLocationCodeSequence",
+            "PerformedStationNameCodeSequence",
+            "PerformedStationClassCodeSequence",
+            "PerformedStationGeographicLocationCodeSequence",
+            "RequestedSubsequentWorkitemCodeSequence",
+            "NonDICOMOutputCodeSequence",
+            "OutputInformationSequence",
+            "ScheduledHumanPerformersSequence",
+            "ActualHumanPerformersSequence",
+            "HumanPerformerOrganization",
+            "HumanPerformerName",
+            "RawDataHandling",
+            "EntranceDoseInmGy",
+            "ReferencedImageRealWorldValueMappingSequence",
+            "RealWorldValueMappingSequence",
+            "PixelValueMappingCodeSequence",
+            "LUTLabel",
+            "RealWorldValueLastValueMapped",
+            "RealWorldValueLUTData",
+            "RealWorldValueFirstValueMapped",
+            "RealWorldValueIntercept",
+            "RealWorldValueSlope",
+            "RelationshipType",
+            "VerifyingOrganization",
+            "VerificationDateTime",
+            "ObservationDateTime",
+            "ValueType",
+            "ConceptNameCodeSequence",
+            "ContinuityOfContent",
+            "VerifyingObserverSequence",
+            "VerifyingObserverName",
+            "AuthorObserverSequence",
+            "ParticipantSequence",
+            "CustodialOrganizationSequence",
+            "ParticipationType",
+            "ParticipationDateTime",
+            "ObserverType",
+            "VerifyingObserverIdentificationCodeSequence",
+            "RETIRED_EquivalentCDADocumentSequence",
+            "ReferencedWaveformChannels",
+            "DateTime",
+            "Date",
+            "Time",
+            "PersonName",
+            "UID",
+            "TemporalRangeType",
+            "ReferencedSamplePositions",
+            "ReferencedFrameNumbers",
+            "ReferencedTimeOffsets",
+            "ReferencedDateTime",
+            "TextValue",
+            "ConceptCodeSequence",
+            "PurposeOfReferenceCodeSequence",
+            "AnnotationGroupNumber",
+            "ModifierCodeSequence",
+            "MeasuredValueSequence",
+            "NumericValueQualifierCodeSequence",
+            "NumericValue",
+            "RETIRED_AddressTrial",
+            "RETIRED_TelephoneNumberTrial",
+            "PredecessorDocumentsSequence",
+            "ReferencedRequestSequence",
+            "PerformedProcedureCodeSequence",
+            "CurrentRequestedProcedureEvidenceSequence",
+            "PertinentOtherEvidenceSequence",
+            "HL7StructuredDocumentReferenceSequence",
+            "CompletionFlag",
+            "CompletionFlagDescription",
+            "VerificationFlag",
+            "ArchiveRequested",
+            "PreliminaryFlag",
+            "ContentTemplateSequence",
+            "IdenticalDocumentsSequence",
+            "ContentSequence",
+            "WaveformAnnotationSequence",
+            "TemplateIdentifier",
+            "RETIRED_TemplateVersion",
+            "RETIRED_TemplateLocalVersion",
+            "RETIRED_TemplateExtensionFlag",
+            "RETIRED_TemplateExtensionOrganizationUID",
+            "RETIRED_TemplateExtensionCreatorUID",
+            "ReferencedContentItemIdentifier",
+            "HL7InstanceIdentifier",
+            "HL7DocumentEffectiveTime",
+            "HL7DocumentTypeCodeSequence",
+            "RetrieveURI",
+            "RetrieveLocationUID",
+            "DocumentTitle",
+            "EncapsulatedDocument",
+            "MIMETypeOfEncapsulatedDocument",
+            "SourceInstanceSequence",
+            "ListOfMIMETypes",
+            "ProductPackageIdentifier",
+            "SubstanceAdministrationApproval",
+            "ApprovalStatusFurtherDescription",
+            "ApprovalStatusDateTime",
+            "ProductTypeCodeSequence",
+            "ProductName",
+            "ProductDescription",
+            "ProductLotIdentifier",
+            "ProductExpirationDateTime",
+            "SubstanceAdministrationDateTime",
+            "SubstanceAdministrationNotes",
+            "SubstanceAdministrationDeviceID",
+            "ProductParameterSequence",
+            "SubstanceAdministrationParameterSequence",
+            "LensDescription",
+            "RightLensSequence",
+            "LeftLensSequence",
+            "UnspecifiedLateralityLensSequence",
+            "CylinderSequence",
+            "PrismSequence",
+            "HorizontalPrismPower",
+            "HorizontalPrismBase",
+            "VerticalPrismPower",
+            "VerticalPrismBase",
+            "LensSegmentType",
+            "OpticalTransmittance",
+            "ChannelWidth",
+            "PupilSize",
+            "CornealSize",
+            "AutorefractionRightEyeSequence",
+            "AutorefractionLeftEyeSequence",
+            "DistancePupillaryDistance",
+            "NearPupillaryDistance",
+            "IntermediatePupillaryDistance",
+            "OtherPupillaryDistance",
+            "KeratometryRightEyeSequence",
+            "KeratometryLeftEyeSequence",
+            "SteepKeratometricAxisSequence",
+            "RadiusOfCurvature",
+            "KeratometricPower",
+            "KeratometricAxis",
+            "FlatKeratometricAxisSequence",
+            "BackgroundColor",
+            "Optotype",
+            "OptotypePresentation",
+            "SubjectiveRefractionRightEyeSequence",
+            "SubjectiveRefractionLeftEyeSequence",
+            "AddNearSequence",
+            "AddIntermediateSequence",
+            "AddOtherSequence",
+            "AddPower",
+            "ViewingDistance",
+            "VisualAcuityTypeCodeSequence",
+            "VisualAcuityRightEyeSequence",
+            "VisualAcuityLeftEyeSequence",
+            "VisualAcuityBothEyesOpenSequence",
+            "ViewingDistanceType",
+            "VisualAcuityModifiers",
+            "DecimalVisualAcuity",
+            "OptotypeDetailedDefinition",
+            "ReferencedRefractiveMeasurementsSequence",
+            "SpherePower",
+            "CylinderPower",
+            "ImagedVolumeWidth",
+            "ImagedVolumeHeight",
+            "ImagedVolumeDepth",
+            "TotalPixelMatrixColumns",
+            "TotalPixelMatrixRows",
+            "TotalPixelMatrixOriginSequence",
+            "SpecimenLabelInImage",
+            "FocusMethod",
+            "ExtendedDepthOfField",
+            "NumberOfFocalPlanes",
+            "DistanceBetweenFocalPlanes",
+            "RecommendedAbsentPixelCIELabValue",
+            "IlluminatorTypeCodeSequence",
+            "ImageOrientationSlide",
+            "OpticalPathSequence",
+            "OpticalPathIdentifier",
+            "OpticalPathDescription",
+            "IlluminationColorCodeSequence",
+            "SpecimenReferenceSequence",
+            "CondenserLensPower",
+            "ObjectiveLensPower",
+            "ObjectiveLensNumericalAperture",
+            "PaletteColorLookupTableSequence",
+            "ReferencedImageNavigationSequence",
+            "TopLeftHandCornerOfLocalizerArea",
+            "BottomRightHandCornerOfLocalizerArea",
+            "OpticalPathIdentificationSequence",
+            "PlanePositionSlideSequence",
+            "ColumnPositionInTotalImagePixelMatrix",
+            "RowPositionInTotalImagePixelMatrix",
+            "PixelOriginInterpretation",
+            "CalibrationImage",
+            "DeviceSequence",
+            "ContainerComponentTypeCodeSequence",
+            "ContainerComponentThickness",
+            "DeviceLength",
+            "ContainerComponentWidth",
+            "DeviceDiameter",
+            "DeviceDiameterUnits",
+            "DeviceVolume",
+            "InterMarkerDistance",
+            "ContainerComponentMaterial",
+            "ContainerComponentID",
+            "ContainerComponentLength",
+            "ContainerComponentDiameter",
+            "ContainerComponentDescription",
+            "DeviceDescription",
+            "EnergyWindowVector",
+            "NumberOfEnergyWindows",
+            "EnergyWindowInformationSequence",
+            "EnergyWindowRangeSequence",
+            "EnergyWindowLowerLimit",
+            "EnergyWindowUpperLimit",
+            "RadiopharmaceuticalInformationSequence",
+            "ResidualSyringeCounts",
+            "EnergyWindowName",
+            "DetectorVector",
+            "NumberOfDetectors",
+            "DetectorInformationSequence",
+            "PhaseVector",
+            "NumberOfPhases",
+            "PhaseInformationSequence",
+            "NumberOfFramesInPhase",
+            "PhaseDelay",
+            "PauseBetweenFrames",
+            "PhaseDescription",
+            "RotationVector",
+            "NumberOfRotations",
+            "RotationInformationSequence",
+            "NumberOfFramesInRotation",
+            "RRIntervalVector",
+            "NumberOfRRIntervals",
+            "GatedInformationSequence",
+            "DataInformationSequence",
+            "TimeSlotVector",
+            "NumberOfTimeSlots",
+            "TimeSlotInformationSequence",
+            "TimeSlotTime",
+            "SliceVector",
+            "NumberOfSlices",
+            "AngularViewVector",
+            "TimeSliceVector",
+            "NumberOfTimeSlices",
+            "StartAngle",
+            "TypeOfDetectorMotion",
+            "TriggerVector",
+            "NumberOfTriggersInPhase",
+            "ViewCodeSequence",
+            "ViewModifierCodeSequence",
+            "RadionuclideCodeSequence",
+            "AdministrationRouteCodeSequence",
+            "RadiopharmaceuticalCodeSequence",
+            "CalibrationDataSequence",
+            "EnergyWindowNumber",
+            "ImageID",
+            "PatientOrientationCodeSequence",
+            "PatientOrientationModifierCodeSequence",
+            "PatientGantryRelationshipCodeSequence",
+            "SliceProgressionDirection",
+            "SeriesType",
+            "Units",
+            "CountsSource",
+            "ReprojectionMethod",
+            "RandomsCorrectionMethod",
+            "AttenuationCorrectionMethod",
+            "DecayCorrection",
+            "ReconstructionMethod",
+            "DetectorLinesOfResponseUsed",
+            "ScatterCorrectionMethod",
+            "AxialAcceptance",
+            "AxialMash",
+            "TransverseMash",
+            "DetectorElementSize",
+            "CoincidenceWindowWidth",
+            "SecondaryCountsType",
+            "FrameReferenceTime",
+            "PrimaryPromptsCountsAccumulated",
+            "SecondaryCountsAccumulated",
+            "SliceSensitivityFactor",
+            "DecayFactor",
+            "DoseCalibrationFactor",
+            "ScatterFractionFactor",
+            "DeadTimeFactor",
+            "ImageIndex",
+            "RETIRED_CountsIncluded",
+            "RETIRED_DeadTimeCorrectionFlag",
+            "HistogramSequence",
+            "HistogramNumberOfBins",
+            "HistogramFirstBinValue",
+            "HistogramLastBinValue",
+            "HistogramBinWidth",
+            "HistogramExplanation",
+            "HistogramData",
+            "SegmentationType",
+            "SegmentSequence",
+            "SegmentedPropertyCategoryCodeSequence",
+            "SegmentNumber",
+            "SegmentLabel",
+            "SegmentDescription",
+            "SegmentAlgorithmType",
+            "SegmentAlgorithmName",
+            "SegmentIdentificationSequence",
+            "ReferencedSegmentNumber",
+            "RecommendedDisplayGrayscaleValue",
+            "RecommendedDisplayCIELabValue",
+            "MaximumFractionalValue",
+            "SegmentedPropertyTypeCodeSequence",
+            "SegmentationFractionalType",
+            "DeformableRegistrationSequence",
+            "SourceFrameOfReferenceUID",
+            "DeformableRegistrationGridSequence",
+            "GridDimensions",
+            "GridResolution",
+            "VectorGridData",
+            "PreDeformationMatrixRegistrationSequence",
+            "PostDeformationMatrixRegistrationSequence",
+            "NumberOfSurfaces",
+            "SurfaceSequence",
+            "SurfaceNumber",
+            "SurfaceComments",
+            "SurfaceProcessing",
+            "SurfaceProcessingRatio",
+            "SurfaceProcessingDescription",
+            "RecommendedPresentationOpacity",
+            "RecommendedPresentationType",
+            "FiniteVolume",
+            "Manifold",
+            "SurfacePointsSequence",
+            "SurfacePointsNormalsSequence",
+            "SurfaceMeshPrimitivesSequence",
+            "NumberOfSurfacePoints",
+            "PointCoordinatesData",
+            "PointPositionAccuracy",
+            "MeanPointDistance",
+            "MaximumPointDistance",
+            "PointsBoundingBoxCoordinates",
+            "AxisOfRotation",
+            "CenterOfRotation",
+            "NumberOfVectors",
+            "VectorDimensionality",
+            "VectorAccuracy",
+            "VectorCoordinateData",
+            "TrianglePointIndexList",
+            "EdgePointIndexList",
+            "VertexPointIndexList",
+            "TriangleStripSequence",
+            "TriangleFanSequence",
+            "LineSequence",
+            "PrimitivePointIndexList",
+            "SurfaceCount",
+            "ReferencedSurfaceSequence",
+            "ReferencedSurfaceNumber",
+            "SegmentSurfaceGenerationAlgorithmIdentificationSequence",
+            "SegmentSurfaceSourceInstanceSequence",
+            "AlgorithmFamilyCodeSequence",
+            "AlgorithmNameCodeSequence",
+            "AlgorithmVersion",
+            "AlgorithmParameters",
+            "FacetSequence",
+            "SurfaceProcessingAlgorithmIdentificationSequence",
+            "AlgorithmName",
+            "ImplantSize",
+            "ImplantTemplateVersion",
+            "ReplacedImplantTemplateSequence",
+            "ImplantType",
+            "DerivationImplantTemplateSequence",
+            "OriginalImplantTemplateSequence",
+            "EffectiveDateTime",
+            "ImplantTargetAnatomySequence",
+            "InformationFromManufacturerSequence",
+            "NotificationFromManufacturerSequence",
+            "InformationIssueDateTime",
+            "InformationSummary",
+            "ImplantRegulatoryDisapprovalCodeSequence",
+            "OverallTemplateSpatialTolerance",
+            "HPGLDocumentSequence",
+            "HPGLDocumentID",
+            "HPGLDocumentLabel",
+            "ViewOrientationCodeSequence",
+            "ViewOrientationModifier",
+            "HPGLDocumentScaling",
+            "HPGLDocument",
+            "HPGLContourPenNumber",
+            "HPGLPenSequence",
+            "HPGLPenNumber",
+            "HPGLPenLabel",
+            "HPGLPenDescription",
+            "RecommendedRotationPoint",
+            "BoundingRectangle",
+            "ImplantTemplate3DModelSurfaceNumber",
+            "SurfaceModelDescriptionSequence",
+            "SurfaceModelLabel",
+            "SurfaceModelScalingFactor",
+            "MaterialsCodeSequence",
+            "CoatingMaterialsCodeSequence",
+            "ImplantTypeCodeSequence",
+            "FixationMethodCodeSequence",
+            "MatingFeatureSetsSequence",
+            "MatingFeatureSetID",
+            "MatingFeatureSetLabel",
+            "MatingFeatureSequence",
+            "MatingFeatureID",
+            "MatingFeatureDegreeOfFreedomSequence",
+            "DegreeOfFreedomID",
+            "DegreeOfFreedomType",
+            "TwoDMatingFeatureCoordinatesSequence",
+            "ReferencedHPGLDocumentID",
+            "TwoDMatingPoint",
+            "TwoDMatingAxes",
+            "TwoDDegreeOfFreedomSequence",
+            "ThreeDDegreeOfFreedomAxis",
+            "RangeOfFreedom",
+            "ThreeDMatingPoint",
+            "ThreeDMatingAxes",
+            "TwoDDegreeOfFreedomAxis",
+            "PlanningLandmarkPointSequence",
+            "PlanningLandmarkLineSequence",
+            "PlanningLandmarkPlaneSequence",
+            "PlanningLandmarkID",
+            "PlanningLandmarkDescription",
+            "PlanningLandmarkIdentificationCodeSequence",
+            "TwoDPointCoordinatesSequence",
+            "TwoDPointCoordinates",
+            "ThreeDPointCoordinates",
+            "TwoDLineCoordinatesSequence",
+            "TwoDLineCoordinates",
+            "ThreeDLineCoordinates",
+            "TwoDPlaneCoordinatesSequence",
+            "TwoDPlaneIntersection",
+            "ThreeDPlaneOrigin",
+            "ThreeDPlaneNormal",
+            "GraphicAnnotationSequence",
+            "GraphicLayer",
+            "BoundingBoxAnnotationUnits",
+            "AnchorPointAnnotationUnits",
+            "GraphicAnnotationUnits",
+            "UnformattedTextValue",
+            "TextObjectSequence",
+            "GraphicObjectSequence",
+            "BoundingBoxTopLeftHandCorner",
+            "BoundingBoxBottomRightHandCorner",
+            "BoundingBoxTextHorizontalJustification",
+            "AnchorPoint",
+            "AnchorPointVisibility",
+            "GraphicDimensions",
+            "NumberOfGraphicPoints",
+            "GraphicData",
+            "GraphicType",
+            "GraphicFilled",
+            "RETIRED_ImageRotationRetired",
+            "ImageHorizontalFlip",
+            "ImageRotation",
+            "RETIRED_DisplayedAreaTopLeftHandCornerTrial",
+            "RETIRED_DisplayedAreaBottomRightHandCornerTrial",
+            "DisplayedAreaTopLeftHandCorner",
+            "DisplayedAreaBottomRightHandCorner",
+            "DisplayedAreaSelectionSequence",
+            "GraphicLayerSequence",
+            "GraphicLayerOrder",
+            "GraphicLayerRecommendedDisplayGrayscaleValue",
+            "RETIRED_GraphicLayerRecommendedDisplayRGBValue",
+            "GraphicLayerDescription",
+            "ContentLabel",
+            "ContentDescription",
+            "PresentationCreationDate",
+            "PresentationCreationTime",
+            "ContentCreatorName",
+            "ContentCreatorIdentificationCodeSequence",
+            "AlternateContentDescriptionSequence",
+            "PresentationSizeMode",
+            "PresentationPixelSpacing",
+            "PresentationPixelAspectRatio",
+            "PresentationPixelMagnificationRatio",
+            "GraphicGroupLabel",
+            "GraphicGroupDescription",
+            "CompoundGraphicSequence",
+            "CompoundGraphicInstanceID",
+            "FontName",
+            "FontNameType",
+            "CSSFontName",
+            "RotationAngle",
+            "TextStyleSequence",
+            "LineStyleSequence",
+            "FillStyleSequence",
+            "GraphicGroupSequence",
+            "TextColorCIELabValue",
+            "HorizontalAlignment",
+            "VerticalAlignment",
+            "ShadowStyle",
+            "ShadowOffsetX",
+            "ShadowOffsetY",
+            "ShadowColorCIELabValue",
+            "Underlined",
+            "Bold",
+            "Italic",
+            "PatternOnColorCIELabValue",
+            "PatternOffColorCIELabValue",
+            "LineThickness",
+            "LineDashingStyle",
+            "LinePattern",
+            "FillPattern",
+            "FillMode",
+            "ShadowOpacity",
+            "GapLength",
+            "DiameterOfVisibility",
+            "RotationPoint",
+            "TickAlignment",
+            "ShowTickLabel",
+            "TickLabelAlignment",
+            "CompoundGraphicUnits",
+            "PatternOnOpacity",
+            "PatternOffOpacity",
+            "MajorTicksSequence",
+            "TickPosition",
+            "TickLabel",
+            "CompoundGraphicType",
+            "GraphicGroupID",
+            "ShapeType",
+            "RegistrationSequence",
+            "MatrixRegistrationSequence",
+            "MatrixSequence",
+            "FrameOfReferenceTransformationMatrixType",
+            "RegistrationTypeCodeSequence",
+            "FiducialDescription",
+            "FiducialIdentifier",
+            "FiducialIdentifierCodeSequence",
+            "ContourUncertaintyRadius",
+            "UsedFiducialsSequence",
+            "GraphicCoordinatesDataSequence",
+            "FiducialUID",
+            "FiducialSetSequence",
+            "FiducialSequence",
+            "GraphicLayerRecommendedDisplayCIELabValue",
+            "BlendingSequence",
+            "RelativeOpacity",
+            "ReferencedSpatialRegistrationSequence",
+            "BlendingPosition",
+            "HangingProtocolName",
+            "HangingProtocolDescription",
+            "HangingProtocolLevel",
+            "HangingProtocolCreator",
+            "HangingProtocolCreationDateTime",
+            "HangingProtocolDefinitionSequence",
+            "HangingProtocolUserIdentificationCodeSequence",
+            "HangingProtocolUserGroupName",
+            "SourceHangingProtocolSequence",
+            "NumberOfPriorsReferenced",
+            "ImageSetsSequence",
+            "ImageSetSelectorSequence",
+            "ImageSetSelectorUsageFlag",
+            "SelectorAttribute",
+            "SelectorValueNumber",
+            "TimeBasedImageSetsSequence",
+            "ImageSetNumber",
+            "ImageSetSelectorCategory",
+            "RelativeTime",
+            "RelativeTimeUnits",
+            "AbstractPriorValue",
+            "AbstractPriorCodeSequence",
+            "ImageSetLabel",
+            "SelectorAttributeVR",
+            "SelectorSequencePointer",
+            "SelectorSequencePointerPrivateCreator",
+            "SelectorAttributePrivateCreator",
+            "SelectorATValue",
+            "SelectorCSValue",
+            "SelectorISValue",
+            "SelectorLOValue",
+            "SelectorLTValue",
+            "SelectorPNValue",
+            "SelectorSHValue",
+            "SelectorSTValue",
+            "SelectorUTValue",
+            "SelectorDSValue",
+            "SelectorFDValue",
+            "SelectorFLValue",
+            "SelectorULValue",
+            "SelectorUSValue",
+            "SelectorSLValue",
+            "SelectorSSValue",
+            "SelectorCodeSequenceValue",
+            "NumberOfScreens",
+            "NominalScreenDefinitionSequence",
+            "NumberOfVerticalPixels",
+            "NumberOfHorizontalPixels",
+            "DisplayEnvironmentSpatialPosition",
+            "ScreenMinimumGrayscaleBitDepth",
+            "ScreenMinimumColorBitDepth",
+            "ApplicationMaximumRepaintTime",
+            "DisplaySetsSequence",
+            "DisplaySetNumber",
+            "DisplaySetLabel",
+            "DisplaySetPresentationGroup",
+            "DisplaySetPresentationGroupDescription",
+            "PartialDataDisplayHandling",
+            "SynchronizedScrollingSequence",
+            "DisplaySetScrollingGroup",
+            "NavigationIndicatorSequence",
+            "NavigationDisplaySet",
+            "ReferenceDisplaySets",
+            "ImageBoxesSequence",
+            "ImageBoxNumber",
+            "ImageBoxLayoutType",
+            "ImageBoxTileHorizontalDimension",
+            "ImageBoxTileVerticalDimension",
+            "ImageBoxScrollDirection",
+            "ImageBoxSmallScrollType",
+            "ImageBoxSmallScrollAmount",
+            "ImageBoxLargeScrollType",
+            "ImageBoxLargeScrollAmount",
+            "ImageBoxOverlapPriority",
+            "CineRelativeToRealTime",
+            "FilterOperationsSequence",
+            "FilterByCategory",
+            "FilterByAttributePresence",
+            "FilterByOperator",
+            "StructuredDisplayBackgroundCIELabValue",
+            "EmptyImageBoxCIELabValue",
+            "StructuredDisplayImageBoxSequence",
+            "StructuredDisplayTextBoxSequence",
+            "ReferencedFirstFrameSequence",
+            "ImageBoxSynchronizationSequence",
+            "SynchronizedImageBoxList",
+            "TypeOfSynchronization",
+            "BlendingOperationType",
+            "ReformattingOperationType",
+            "ReformattingThickness",
+            "ReformattingInterval",
+            "ReformattingOperationInitialViewDirection",
+            "ThreeDRenderingType",
+            "SortingOperationsSequence",
+            "SortByCategory",
+            "SortingDirection",
+            "DisplaySetPatientOrientation",
+            "VOIType",
+            "PseudoColorType",
+            "ShowGrayscaleInverted",
+            "ShowImageTrueSizeFlag",
+            "ShowGraphicAnnotationFlag",
+            "ShowPatientDemographicsFlag",
+            "ShowAcquisitionTechniquesFlag",
+            "DisplaySetHorizontalJustification",
+            "DisplaySetVerticalJustification",
+            "UnifiedProcedureStepState",
+            "UnifiedProcedureStepProgressInformationSequence",
+            "UnifiedProcedureStepProgress",
+            "UnifiedProcedureStepProgressDescription",
+            "UnifiedProcedureStepCommunicationsURISequence",
+            "ContactURI",
+            "ContactDisplayName",
+            "UnifiedProcedureStepDiscontinuationReasonCodeSequence",
+            "BeamTaskSequence",
+            "BeamTaskType",
+            "BeamOrderIndex",
+            "DeliveryVerificationImageSequence",
+            "VerificationImageTiming",
+            "DoubleExposureFlag",
+            "DoubleExposureOrdering",
+            "DoubleExposureMeterset",
+            "DoubleExposureFieldDelta",
+            "RelatedReferenceRTImageSequence",
+            "GeneralMachineVerificationSequence",
+            "ConventionalMachineVerificationSequence",
+            "IonMachineVerificationSequence",
+            "FailedAttributesSequence",
+            "OverriddenAttributesSequence",
+            "ConventionalControlPointVerificationSequence",
+            "IonControlPointVerificationSequence",
+            "AttributeOccurrenceSequence",
+            "AttributeOccurrencePointer",
+            "AttributeItemSelector",
+            "AttributeOccurrencePrivateCreator",
+            "ScheduledProcedureStepPriority",
+            "WorklistLabel",
+            "ProcedureStepLabel",
+            "ScheduledProcessingParametersSequence",
+            "PerformedProcessingParametersSequence",
+            "UnifiedProcedureStepPerformedProcedureSequence",
+            "RelatedProcedureStepSequence",
+            "ProcedureStepRelationshipType",
+            "DeletionLock",
+            "ReceivingAE",
+            "RequestingAE",
+            "ReasonForCancellation",
+            "SCPStatus",
+            "SubscriptionListStatus",
+            "UnifiedProcedureStepListStatus",
+            "ImplantAssemblyTemplateName",
+            "ImplantAssemblyTemplateIssuer",
+            "ImplantAssemblyTemplateVersion",
+            "ReplacedImplantAssemblyTemplateSequence",
+            "ImplantAssemblyTemplateType",
+            "OriginalImplantAssemblyTemplateSequence",
+            "DerivationImplantAssemblyTemplateSequence",
+            "ImplantAssemblyTemplateTargetAnatomySequence",
+            "ProcedureTypeCodeSequence",
+            "SurgicalTechnique",
+            "ComponentTypesSequence",
+            "ComponentTypeCodeSequence",
+            "ExclusiveComponentType",
+            "MandatoryComponentType",
+            "ComponentSequence",
+            "ComponentID",
+            "ComponentAssemblySequence",
+            "Component1ReferencedID",
+            "Component1ReferencedMatingFeatureSetID",
+            "Component1ReferencedMatingFeatureID",
+            "Component2ReferencedID",
+            "Component2ReferencedMatingFeatureSetID",
+            "Component2ReferencedMatingFeatureID",
+            "ImplantTemplateGroupName",
+            "ImplantTemplateGroupDescription",
+            "ImplantTemplateGroupIssuer",
+            "ImplantTemplateGroupVersion",
+            "ReplacedImplantTemplateGroupSequence",
+            "ImplantTemplateGroupTargetAnatomySequence",
+            "ImplantTemplateGroupMembersSequence",
+            "ImplantTemplateGroupMemberID",
+            "ThreeDImplantTemplateGroupMemberMatchingPoint",
+            "ThreeDImplantTemplateGroupMemberMatchingAxes",
+            "ImplantTemplateGroupMemberMatching2DCoordinatesSequence",
+            "TwoDImplantTemplateGroupMemberMatchingPoint",
+            "TwoDImplantTemplateGroupMemberMatchingAxes",
+            "ImplantTemplateGroupVariationDimensionSequence",
+            "ImplantTemplateGroupVariationDimensionName",
+            "ImplantTemplateGroupVariationDimensionRankSequence",
+            "ReferencedImplantTemplateGroupMemberID",
+            "ImplantTemplateGroupVariationDimensionRank",
+            "StorageMediaFileSetID",
+            "StorageMediaFileSetUID",
+            "IconImageSequence",
+            "RETIRED_TopicTitle",
+            "RETIRED_TopicSubject",
+            "RETIRED_TopicAuthor",
+            "RETIRED_TopicKeywords",
+            "SOPInstanceStatus",
+            "SOPAuthorizationDateTime",
+            "SOPAuthorizationComment",
+            "AuthorizationEquipmentCertificationNumber",
+            "MACIDNumber",
+            "MACCalculationTransferSyntaxUID",
+            "MACAlgorithm",
+            "DataElementsSigned",
+            "DigitalSignatureUID",
+            "DigitalSignatureDateTime",
+            "CertificateType",
+            "CertificateOfSigner",
+            "Signature",
+            "CertifiedTimestampType",
+            "CertifiedTimestamp",
+            "DigitalSignaturePurposeCodeSequence",
+            "ReferencedDigitalSignatureSequence",
+            "ReferencedSOPInstanceMACSequence",
+            "MAC",
+            "EncryptedAttributesSequence",
+            "EncryptedContentTransferSyntaxUID",
+            "EncryptedContent",
+            "ModifiedAttributesSequence",
+            "OriginalAttributesSequence",
+            "AttributeModificationDateTime",
+            "ModifyingSystem",
+            "SourceOfPreviousValues",
+            "ReasonForTheAttributeModification",
+            "ACR_NEMA_2C_CodeTableGroupLength",
+            "ACR_NEMA_2C_EscapeTriplet",
+            "ACR_NEMA_2C_RunLengthTriplet",
+            "ACR_NEMA_2C_HuffmanTableSize",
+            "ACR_NEMA_2C_HuffmanTableTriplet",
+            "ACR_NEMA_2C_ShiftTableSize",
+            "ACR_NEMA_2C_ShiftTableTriplet",
+            "ACR_NEMA_2C_ZonalMapGroupLength",
+            "ACR_NEMA_2C_ZonalMap",
+            "NumberOfCopies",
+            "PrinterConfigurationSequence",
+            "PrintPriority",
+            "MediumType",
+            "FilmDestination",
+            "FilmSessionLabel",
+            "MemoryAllocation",
+            "MaximumMemoryAllocation",
+            "RETIRED_ColorImagePrintingFlag",
+            "RETIRED_CollationFlag",
+            "RETIRED_AnnotationFlag",
+            "RETIRED_ImageOverlayFlag",
+            "RETIRED_PresentationLUTFlag",
+            "RETIRED_ImageBoxPresentationLUTFlag",
+            "MemoryBitDepth",
+            "PrintingBitDepth",
+            "MediaInstalledSequence",
+            "OtherMediaAvailableSequence",
+            "SupportedImageDisplayFormatsSequence",
+            "ReferencedFilmBoxSequence",
+            "RETIRED_ReferencedStoredPrintSequence",
+            "ImageDisplayFormat",
+            "AnnotationDisplayFormatID",
+            "FilmOrientation",
+            "FilmSizeID",
+            "PrinterResolutionID",
+            "DefaultPrinterResolutionID",
+            "MagnificationType",
+            "SmoothingType",
+            "DefaultMagnificationType",
+            "OtherMagnificationTypesAvailable",
+            "DefaultSmoothingType",
+            "OtherSmoothingTypesAvailable",
+            "BorderDensity",
+            "EmptyImageDensity",
+            "MinDensity",
+            "MaxDensity",
+            "Trim",
+            "ConfigurationInformation",
+            "ConfigurationInformationDescription",
+            "MaximumCollatedFilms",
+            "Illumination",
+            "ReflectedAmbientLight",
+            "PrinterPixelSpacing",
+            "ReferencedFilmSessionSequence",
+            "ReferencedImageBoxSequence",
+            "ReferencedBasicAnnotationBoxSequence",
+            "ImageBoxPosition",
+            "Polarity",
+            "RequestedImageSize",
+            "RequestedDecimateCropBehavior",
+            "RequestedResolutionID",
+            "RequestedImageSizeFlag",
+            "DecimateCropResult",
+            "BasicGrayscaleImageSequence",
+            "BasicColorImageSequence",
+            "RETIRED_ReferencedImageOverlayBoxSequence",
+            "RETIRED_ReferencedVOILUTBoxSequence",
+            "AnnotationPosition",
+            "TextString",
+            "RETIRED_ReferencedOverlayPlaneSequence",
+            "RETIRED_ReferencedOverlayPlaneGroups",
+            "RETIRED_OverlayPixelDataSequence",
+            "RETIRED_OverlayMagnificationType",
+            "RETIRED_OverlaySmoothingType",
+            "RETIRED_OverlayOrImageMagnification",
+            "RETIRED_MagnifyToNumberOfColumns",
+            "RETIRED_OverlayForegroundDensity",
+            "RETIRED_OverlayBackgroundDensity",
+            "RETIRED_OverlayMode",
+            "RETIRED_ThresholdDensity",
+            "RETIRED_ReferencedImageBoxSequenceRetired",
+            "PresentationLUTSequence",
+            "PresentationLUTShape",
+            "ReferencedPresentationLUTSequence",
+            "RETIRED_PrintJobID",
+            "ExecutionStatus",
+            "ExecutionStatusInfo",
+            "CreationDate",
+            "CreationTime",
+            "Originator",
+            "RETIRED_DestinationAE",
+            "OwnerID",
+            "NumberOfFilms",
+            "RETIRED_ReferencedPrintJobSequencePullStoredPrint",
+            "PrinterStatus",
+            "PrinterStatusInfo",
+            "PrinterName",
+            "RETIRED_PrintQueueID",
+            "RETIRED_QueueStatus",
+            "RETIRED_PrintJobDescriptionSequence",
+            "RETIRED_ReferencedPrintJobSequence",
+            "RETIRED_PrintManagementCapabilitiesSequence",
+            "RETIRED_PrinterCharacteristicsSequence",
+            "RETIRED_FilmBoxContentSequence",
+            "RETIRED_ImageBoxContentSequence",
+            "RETIRED_AnnotationContentSequence",
+            "RETIRED_ImageOverlayBoxContentSequence",
+            "RETIRED_PresentationLUTContentSequence",
+            "RETIRED_ProposedStudySequence",
+            "RETIRED_OriginalImageSequence",
+            "LabelUsingInformationExtractedFromInstances",
+            "LabelText",
+            "LabelStyleSelection",
+            "MediaDisposition",
+            "BarcodeValue",
+            "BarcodeSymbology",
+            "AllowMediaSplitting",
+            "IncludeNonDICOMObjects",
+            "IncludeDisplayApplication",
+            "PreserveCompositeInstancesAfterMediaCreation",
+            "TotalNumberOfPiecesOfMediaCreated",
+            "RequestedMediaApplicationProfile",
+            "ReferencedStorageMediaSequence",
+            "FailureAttributes",
+            "AllowLossyCompression",
+            "RequestPriority",
+            "RTImageLabel",
+            "RTImageName",
+            "RTImageDescription",
+            "ReportedValuesOrigin",
+            "RTImagePlane",
+            "XRayImageReceptorTranslation",
+            "XRayImageReceptorAngle",
+            "RTImageOrientation",
+            "ImagePlanePixelSpacing",
+            "RTImagePosition",
+            "RadiationMachineName",
+            "RadiationMachineSAD",
+            "RadiationMachineSSD",
+            "RTImageSID",
+            "SourceToReferenceObjectDistance",
+            "FractionNumber",
+            "ExposureSequence",
+            "MetersetExposure",
+            "DiaphragmPosition",
+            "FluenceMapSequence",
+            "FluenceDataSource",
+            "FluenceDataScale",
+            "PrimaryFluenceModeSequence",
+            "FluenceMode",
+            "FluenceModeID",
+            "DVHType",
+            "DoseUnits",
+            "DoseType",
+            "DoseComment",
+            "NormalizationPoint",
+            "DoseSummationType",
+            "GridFrameOffsetVector",
+            "DoseGridScaling",
+            "RTDoseROISequence",
+            "DoseValue",
+            "TissueHeterogeneityCorrection",
+            "DVHNormalizationPoint",
+            "DVHNormalizationDoseValue",
+            "DVHSequence",
+            "DVHDoseScaling",
+            "DVHVolumeUnits",
+            "DVHNumberOfBins",
+            "DVHData",
+            "DVHReferencedROISequence",
+            "DVHROIContributionType",
+            "DVHMinimumDose",
+            "DVHMaximumDose",
+            "DVHMeanDose",
+            "StructureSetLabel",
+            "StructureSetName",
+            "StructureSetDescription",
+            "StructureSetDate",
+            "StructureSetTime",
+            "ReferencedFrameOfReferenceSequence",
+            "RTReferencedStudySequence",
+            "RTReferencedSeriesSequence",
+            "ContourImageSequence",
+            "StructureSetROISequence",
+            "ROINumber",
+            "ReferencedFrameOfReferenceUID",
+            "ROIName",
+            "ROIDescription",
+            "ROIDisplayColor",
+            "ROIVolume",
+            "RTRelatedROISequence",
+            "RTROIRelationship",
+            "ROIGenerationAlgorithm",
+            "ROIGenerationDescription",
+            "ROIContourSequence",
+            "ContourSequence",
+            "ContourGeometricType",
+            "ContourSlabThickness",
+            "ContourOffsetVector",
+            "NumberOfContourPoints",
+            "ContourNumber",
+            "AttachedContours",
+            "ContourData",
+            "RTROIObservationsSequence",
+            "ObservationNumber",
+            "ReferencedROINumber",
+            "ROIObservationLabel",
+            "RTROIIdentificationCodeSequence",
+            "ROIObservationDescription",
+            "RelatedRTROIObservationsSequence",
+            "RTROIInterpretedType",
+            "ROIInterpreter",
+            "ROIPhysicalPropertiesSequence",
+            "ROIPhysicalProperty",
+            "ROIPhysicalPropertyValue",
+            "ROIElementalCompositionSequence",
+            "ROIElementalCompositionAtomicNumber",
+            "ROIElementalCompositionAtomicMassFraction",
+            "FrameOfReferenceRelationshipSequence",
+            "RelatedFrameOfReferenceUID",
+            "FrameOfReferenceTransformationType",
+            "FrameOfReferenceTransformationMatrix",
+            "FrameOfReferenceTransformationComment",
+            "MeasuredDoseReferenceSequence",
+            "MeasuredDoseDescription",
+            "MeasuredDoseType",
+            "MeasuredDoseValue",
+            "TreatmentSessionBeamSequence",
+            "TreatmentSessionIonBeamSequence",
+            "CurrentFractionNumber",
+            "TreatmentControlPointDate",
+            "TreatmentControlPointTime",
+            "TreatmentTerminationStatus",
+            "TreatmentTerminationCode",
+            "TreatmentVerificationStatus",
+            "ReferencedTreatmentRecordSequence",
+            "SpecifiedPrimaryMeterset",
+            "SpecifiedSecondaryMeterset",
+            "DeliveredPrimaryMeterset",
+            "DeliveredSecondaryMeterset",
+            "SpecifiedTreatmentTime",
+            "DeliveredTreatmentTime",
+            "ControlPointDeliverySequence",
+            "IonControlPointDeliverySequence",
+            "SpecifiedMeterset",
+            "DeliveredMeterset",
+            "MetersetRateSet",
+            "MetersetRateDelivered",
+            "ScanSpotMetersetsDelivered",
+            "DoseRateDelivered",
+            "TreatmentSummaryCalculatedDoseReferenceSequence",
+            "CumulativeDoseToDoseReference",
+            "FirstTreatmentDate",
+            "MostRecentTreatmentDate",
+            "NumberOfFractionsDelivered",
+            "OverrideSequence",
+            "ParameterSequencePointer",
+            "OverrideParameterPointer",
+            "ParameterItemIndex",
+            "MeasuredDoseReferenceNumber",
+            "ParameterPointer",
+            "OverrideReason",
+            "CorrectedParameterSequence",
+            "CorrectionValue",
+            "CalculatedDoseReferenceSequence",
+            "CalculatedDoseReferenceNumber",
+            "CalculatedDoseReferenceDescription",
+            "CalculatedDoseReferenceDoseValue",
+            "StartMeterset",
+            "EndMeterset",
+            "ReferencedMeasuredDoseReferenceSequence",
+            "ReferencedMeasuredDoseReferenceNumber",
+            "ReferencedCalculatedDoseReferenceSequence",
+            "ReferencedCalculatedDoseReferenceNumber",
+            "BeamLimitingDeviceLeafPairsSequence",
+            "RecordedWedgeSequence",
+            "RecordedCompensatorSequence",
+            "RecordedBlockSequence",
+            "TreatmentSummaryMeasuredDoseReferenceSequence",
+            "RecordedSnoutSequence",
+            "RecordedRangeShifterSequence",
+            "RecordedLateralSpreadingDeviceSequence",
+            "RecordedRangeModulatorSequence",
+            "RecordedSourceSequence",
+            "SourceSerialNumber",
+            "TreatmentSessionApplicationSetupSequence",
+            "ApplicationSetupCheck",
+            "RecordedBrachyAccessoryDeviceSequence",
+            "ReferencedBrachyAccessoryDeviceNumber",
+            "RecordedChannelSequence",
+            "SpecifiedChannelTotalTime",
+            "DeliveredChannelTotalTime",
+            "SpecifiedNumberOfPulses",
+            "DeliveredNumberOfPulses",
+            "SpecifiedPulseRepetitionInterval",
+            "DeliveredPulseRepetitionInterval",
+            "RecordedSourceApplicatorSequence",
+            "ReferencedSourceApplicatorNumber",
+            "RecordedChannelShieldSequence",
+            "ReferencedChannelShieldNumber",
+            "BrachyControlPointDeliveredSequence",
+            "SafePositionExitDate",
+            "SafePositionExitTime",
+            "SafePositionReturnDate",
+            "SafePositionReturnTime",
+            "CurrentTreatmentStatus",
+            "TreatmentStatusComment",
+            "FractionGroupSummarySequence",
+            "ReferencedFractionNumber",
+            "FractionGroupType",
+            "BeamStopperPosition",
+            "FractionStatusSummarySequence",
+            "TreatmentDate",
+            "TreatmentTime",
+            "RTPlanLabel",
+            "RTPlanName",
+            "RTPlanDescription",
+            "RTPlanDate",
+            "RTPlanTime",
+            "TreatmentProtocols",
+            "PlanIntent",
+            "TreatmentSites",
+            "RTPlanGeometry",
+            "PrescriptionDescription",
+            "DoseReferenceSequence",
+            "DoseReferenceNumber",
+            "DoseReferenceUID",
+            "DoseReferenceStructureType",
+            "NominalBeamEnergyUnit",
+            "DoseReferenceDescription",
+            "DoseReferencePointCoordinates",
+            "NominalPriorDose",
+            "DoseReferenceType",
+            "ConstraintWeight",
+            "DeliveryWarningDose",
+            "DeliveryMaximumDose",
+            "TargetMinimumDose",
+            "TargetPrescriptionDose",
+            "TargetMaximumDose",
+            "TargetUnderdoseVolumeFraction",
+            "OrganAtRiskFullVolumeDose",
+            "OrganAtRiskLimitDose",
+            "OrganAtRiskMaximumDose",
+            "OrganAtRiskOverdoseVolumeFraction",
+            "ToleranceTableSequence",
+            "ToleranceTableNumber",
+            "ToleranceTableLabel",
+            "GantryAngleTolerance",
+            "BeamLimitingDeviceAngleTolerance",
+            "BeamLimitingDeviceToleranceSequence",
+            "BeamLimitingDevicePositionTolerance",
+            "SnoutPositionTolerance",
+            "PatientSupportAngleTolerance",
+            "TableTopEccentricAngleTolerance",
+            "TableTopPitchAngleTolerance",
+            "TableTopRollAngleTolerance",
+            "TableTopVerticalPositionTolerance",
+            "TableTopLongitudinalPositionTolerance",
+            "TableTopLateralPositionTolerance",
+            "RTPlanRelationship",
+            "FractionGroupSequence",
+            "FractionGroupNumber",
+            "FractionGroupDescription",
+            "NumberOfFractionsPlanned",
+            "NumberOfFractionPatternDigitsPerDay",
+            "RepeatFractionCycleLength",
+            "FractionPattern",
+            "NumberOfBeams",
+            "BeamDoseSpecificationPoint",
+            "BeamDose",
+            "BeamMeterset",
+            "BeamDosePointDepth",
+            "BeamDosePointEquivalentDepth",
+            "BeamDosePointSSD",
+            "NumberOfBrachyApplicationSetups",
+            "BrachyApplicationSetupDoseSpecificationPoint",
+            "BrachyApplicationSetupDose",
+            "BeamSequence",
+            "TreatmentMachineName",
+            "PrimaryDosimeterUnit",
+            "SourceAxisDistance",
+            "BeamLimitingDeviceSequence",
+            "RTBeamLimitingDeviceType",
+            "SourceToBeamLimitingDeviceDistance",
+            "IsocenterToBeamLimitingDeviceDistance",
+            "NumberOfLeafJawPairs",
+            "LeafPositionBoundaries",
+            "BeamNumber",
+            "BeamName",
+            "BeamDescription",
+            "BeamType",
+            "RadiationType",
+            "HighDoseTechniqueType",
+            "ReferenceImageNumber",
+            "PlannedVerificationImageSequence",
+            "ImagingDeviceSpecificAcquisitionParameters",
+            "TreatmentDeliveryType",
+            "NumberOfWedges",
+            "WedgeSequence",
+            "WedgeNumber",
+            "WedgeType",
+            "WedgeID",
+            "WedgeAngle",
+            "WedgeFactor",
+            "TotalWedgeTrayWaterEquivalentThickness",
+            "WedgeOrientation",
+            "IsocenterToWedgeTrayDistance",
+            "SourceToWedgeTrayDistance",
+            "WedgeThinEdgePosition",
+            "BolusID",
+            "BolusDescription",
+            "NumberOfCompensators",
+            "MaterialID",
+            "TotalCompensatorTrayFactor",
+            "CompensatorSequence",
+            "CompensatorNumber",
+            "CompensatorID",
+            "SourceToCompensatorTrayDistance",
+            "CompensatorRows",
+            "CompensatorColumns",
+            "CompensatorPixelSpacing",
+            "CompensatorPosition",
+            "CompensatorTransmissionData",
+            "CompensatorThicknessData",
+            "NumberOfBoli",
+            "CompensatorType",
+            "NumberOfBlocks",
+            "TotalBlockTrayFactor",
+            "TotalBlockTrayWaterEquivalentThickness",
+            "BlockSequence",
+            "BlockTrayID",
+            "SourceToBlockTrayDistance",
+            "IsocenterToBlockTrayDistance",
+            "BlockType",
+            "AccessoryCode",
+            "BlockDivergence",
+            "BlockMountingPosition",
+            "BlockNumber",
+            "BlockName",
+            "BlockThickness",
+            "BlockTransmission",
+            "BlockNumberOfPoints",
+            "BlockData",
+            "ApplicatorSequence",
+            "ApplicatorID",
+            "ApplicatorType",
+            "ApplicatorDescription",
+            "CumulativeDoseReferenceCoefficient",
+            "FinalCumulativeMetersetWeight",
+            "NumberOfControlPoints",
+            "ControlPointSequence",
+            "ControlPointIndex",
+            "NominalBeamEnergy",
+            "DoseRateSet",
+            "WedgePositionSequence",
+            "WedgePosition",
+            "BeamLimitingDevicePositionSequence",
+            "LeafJawPositions",
+            "GantryAngle",
+            "GantryRotationDirection",
+            "BeamLimitingDeviceAngle",
+            "BeamLimitingDeviceRotationDirection",
+            "PatientSupportAngle",
+            "PatientSupportRotationDirection",
+            "TableTopEccentricAxisDistance",
+            "TableTopEccentricAngle",
+            "TableTopEccentricRotationDirection",
+            "TableTopVerticalPosition",
+            "TableTopLongitudinalPosition",
+            "TableTopLateralPosition",
+            "IsocenterPosition",
+            "SurfaceEntryPoint",
+            "SourceToSurfaceDistance",
+            "CumulativeMetersetWeight",
+            "TableTopPitchAngle",
+            "TableTopPitchRotationDirection",
+            "TableTopRollAngle",
+            "TableTopRollRotationDirection",
+            "HeadFixationAngle",
+            "GantryPitchAngle",
+            "GantryPitchRotationDirection",
+            "GantryPitchAngleTolerance",
+            "PatientSetupSequence",
+            "PatientSetupNumber",
+            "PatientSetupLabel",
+            "PatientAdditionalPosition",
+            "FixationDeviceSequence",
+            "FixationDeviceType",
+            "FixationDeviceLabel",
+            "FixationDeviceDescription",
+            "FixationDevicePosition",
+            "FixationDevicePitchAngle",
+            "FixationDeviceRollAngle",
+            "ShieldingDeviceSequence",
+            "ShieldingDeviceType",
+            "ShieldingDeviceLabel",
+            "ShieldingDeviceDescription",
+            "ShieldingDevicePosition",
+            "SetupTechnique",
+            "SetupTechniqueDescription",
+            "SetupDeviceSequence",
+            "SetupDeviceType",
+            "SetupDeviceLabel",
+            "SetupDeviceDescription",
+            "SetupDeviceParameter",
+            "SetupReferenceDescription",
+            "TableTopVerticalSetupDisplacement",
+            "TableTopLongitudinalSetupDisplacement",
+            "TableTopLateralSetupDisplacement",
+            "BrachyTreatmentTechnique",
+            "BrachyTreatmentType",
+            "TreatmentMachineSequence",
+            "SourceSequence",
+            "SourceNumber",
+            "SourceType",
+            "SourceManufacturer",
+            "ActiveSourceDiameter",
+            "ActiveSourceLength",
+            "SourceEncapsulationNominalThickness",
+            "SourceEncapsulationNominalTransmission",
+            "SourceIsotopeName",
+            "SourceIsotopeHalfLife",
+            "SourceStrengthUnits",
+            "ReferenceAirKermaRate",
+            "SourceStrength",
+            "SourceStrengthReferenceDate",
+            "SourceStrengthReferenceTime",
+            "ApplicationSetupSequence",
+            "ApplicationSetupType",
+            "ApplicationSetupNumber",
+            "ApplicationSetupName",
+            "ApplicationSetupManufacturer",
+            "TemplateNumber",
+            "TemplateType",
+            "TemplateName",
+            "TotalReferenceAirKerma",
+            "BrachyAccessoryDeviceSequence",
+            "BrachyAccessoryDeviceNumber",
+            "BrachyAccessoryDeviceID",
+            "BrachyAccessoryDeviceType",
+            "BrachyAccessoryDeviceName",
+            "BrachyAccessoryDeviceNominalThickness",
+            "BrachyAccessoryDeviceNominalTransmission",
+            "ChannelSequence",
+            "ChannelNumber",
+            "ChannelLength",
+            "ChannelTotalTime",
+            "SourceMovementType",
+            "NumberOfPulses",
+            "PulseRepetitionInterval",
+            "SourceApplicatorNumber",
+            "SourceApplicatorID",
+            "SourceApplicatorType",
+            "SourceApplicatorName",
+            "SourceApplicatorLength",
+            "SourceApplicatorManufacturer",
+            "SourceApplicatorWallNominalThickness",
+            "SourceApplicatorWallNominalTransmission",
+            "SourceApplicatorStepSize",
+            "TransferTubeNumber",
+            "TransferTubeLength",
+            "ChannelShieldSequence",
+            "ChannelShieldNumber",
+            "ChannelShieldID",
+            "ChannelShieldName",
+            "ChannelShieldNominalThickness",
+            "ChannelShieldNominalTransmission",
+            "FinalCumulativeTimeWeight",
+            "BrachyControlPointSequence",
+            "ControlPointRelativePosition",
+            "ControlPoint3DPosition",
+            "CumulativeTimeWeight",
+            "CompensatorDivergence",
+            "CompensatorMountingPosition",
+            "SourceToCompensatorDistance",
+            "TotalCompensatorTrayWaterEquivalentThickness",
+            "IsocenterToCompensatorTrayDistance",
+            "CompensatorColumnOffset",
+            "IsocenterToCompensatorDistances",
+            "CompensatorRelativeStoppingPowerRatio",
+            "CompensatorMillingToolDiameter",
+            "IonRangeCompensatorSequence",
+            "CompensatorDescription",
+            "RadiationMassNumber",
+            "RadiationAtomicNumber",
+            "RadiationChargeState",
+            "ScanMode",
+            "VirtualSourceAxisDistances",
+            "SnoutSequence",
+            "SnoutPosition",
+            "SnoutID",
+            "NumberOfRangeShifters",
+            "RangeShifterSequence",
+            "RangeShifterNumber",
+            "RangeShifterID",
+            "RangeShifterType",
+            "RangeShifterDescription",
+            "NumberOfLateralSpreadingDevices",
+            "LateralSpreadingDeviceSequence",
+            "LateralSpreadingDeviceNumber",
+            "LateralSpreadingDeviceID",
+            "LateralSpreadingDeviceType",
+            "LateralSpreadingDeviceDescription",
+            "LateralSpreadingDeviceWaterEquivalentThickness",
+            "NumberOfRangeModulators",
+            "RangeModulatorSequence",
+            "RangeModulatorNumber",
+            "RangeModulatorID",
+            "RangeModulatorType",
+            "RangeModulatorDescription",
+            "BeamCurrentModulationID",
+            "PatientSupportType",
+            "PatientSupportID",
+            "PatientSupportAccessoryCode",
+            "FixationLightAzimuthalAngle",
+            "FixationLightPolarAngle",
+            "MetersetRate",
+            "RangeShifterSettingsSequence",
+            "RangeShifterSetting",
+            "IsocenterToRangeShifterDistance",
+            "RangeShifterWaterEquivalentThickness",
+            "LateralSpreadingDeviceSettingsSequence",
+            "LateralSpreadingDeviceSetting",
+            "IsocenterToLateralSpreadingDeviceDistance",
+            "RangeModulatorSettingsSequence",
+            "RangeModulatorGatingStartValue",
+            "RangeModulatorGatingStopValue",
+            "RangeModulatorGatingStartWaterEquivalentThickness",
+            "RangeModulatorGatingStopWaterEquivalentThickness",
+            "IsocenterToRangeModulatorDistance",
+            "ScanSpotTuneID",
+            "NumberOfScanSpotPositions",
+            "ScanSpotPositionMap",
+            "ScanSpotMetersetWeights",
+            "ScanningSpotSize",
+            "NumberOfPaintings",
+            "IonToleranceTableSequence",
+            "IonBeamSequence",
+            "IonBeamLimitingDeviceSequence",
+            "IonBlockSequence",
+            "IonControlPointSequence",
+            "IonWedgeSequence",
+            "IonWedgePositionSequence",
+            "ReferencedSetupImageSequence",
+            "SetupImageComment",
+            "MotionSynchronizationSequence",
+            "ControlPointOrientation",
+            "GeneralAccessorySequence",
+            "GeneralAccessoryID",
+            "GeneralAccessoryDescription",
+            "GeneralAccessoryType",
+            "GeneralAccessoryNumber",
+            "ApplicatorGeometrySequence",
+            "ApplicatorApertureShape",
+            "ApplicatorOpening",
+            "ApplicatorOpeningX",
+            "ApplicatorOpeningY",
+            "SourceToApplicatorMountingPositionDistance",
+            "ReferencedRTPlanSequence",
+            "ReferencedBeamSequence",
+            "ReferencedBeamNumber",
+            "ReferencedReferenceImageNumber",
+            "StartCumulativeMetersetWeight",
+            "EndCumulativeMetersetWeight",
+            "ReferencedBrachyApplicationSetupSequence",
+            "ReferencedBrachyApplicationSetupNumber",
+            "ReferencedSourceNumber",
+            "ReferencedFractionGroupSequence",
+            "ReferencedFractionGroupNumber",
+            "ReferencedVerificationImageSequence",
+            "ReferencedReferenceImageSequence",
+            "ReferencedDoseReferenceSequence",
+            "ReferencedDoseReferenceNumber",
+            "BrachyReferencedDoseReferenceSequence",
+            "ReferencedStructureSetSequence",
+            "ReferencedPatientSetupNumber",
+            "ReferencedDoseSequence",
+            "ReferencedToleranceTableNumber",
+            "ReferencedBolusSequence",
+            "ReferencedWedgeNumber",
+            "ReferencedCompensatorNumber",
+            "ReferencedBlockNumber",
+            "ReferencedControlPointIndex",
+            "ReferencedControlPointSequence",
+            "ReferencedStartControlPointIndex",
+            "ReferencedStopControlPointIndex",
+            "ReferencedRangeShifterNumber",
+            "ReferencedLateralSpreadingDeviceNumber",
+            "ReferencedRangeModulatorNumber",
+            "ApprovalStatus",
+            "ReviewDate",
+            "ReviewTime",
+            "ReviewerName",
+            "ACR_NEMA_TextGroupLength",
+            "ACR_NEMA_TextArbitrary",
+            "ACR_NEMA_TextComments",
+            "RETIRED_ResultsID",
+            "RETIRED_ResultsIDIssuer",
+            "RETIRED_ReferencedInterpretationSequence",
+            "RETIRED_InterpretationRecordedDate",
+            "RETIRED_InterpretationRecordedTime",
+            "RETIRED_InterpretationRecorder",
+            "RETIRED_ReferenceToRecordedSound",
+            "RETIRED_InterpretationTranscriptionDate",
+            "RETIRED_InterpretationTranscriptionTime",
+            "RETIRED_InterpretationTranscriber",
+            "RETIRED_InterpretationText",
+            "RETIRED_InterpretationAuthor",
+            "RETIRED_InterpretationApproverSequence",
+            "RETIRED_InterpretationApprovalDate",
+            "RETIRED_InterpretationApprovalTime",
+            "RETIRED_PhysicianApprovingInterpretation",
+            "RETIRED_InterpretationDiagnosisDescription",
+            "RETIRED_InterpretationDiagnosisCodeSequence",
+            "RETIRED_ResultsDistributionListSequence",
+            "RETIRED_DistributionName",
+            "RETIRED_DistributionAddress",
+            "RETIRED_InterpretationID",
+            "RETIRED_InterpretationIDIssuer",
+            "RETIRED_InterpretationTypeID",
+            "RETIRED_InterpretationStatusID",
+            "RETIRED_Impressions",
+            "RETIRED_ResultsComments",
+            "MACParametersSequence",
+            "SharedFunctionalGroupsSequence",
+            "PerFrameFunctionalGroupsSequence",
+            "WaveformSequence",
+            "ChannelMinimumValue",
+            "ChannelMaximumValue",
+            "WaveformBitsAllocated",
+            "WaveformSampleInterpretation",
+            "WaveformPaddingValue",
+            "WaveformData",
+            "FirstOrderPhaseCorrectionAngle",
+            "SpectroscopyData",
+            "PixelData",
+            "ACR_NEMA_2C_CoefficientsSDVN",
+            "ACR_NEMA_2C_CoefficientsSDHN",
+            "ACR_NEMA_2C_CoefficientsSDDN",
+            "DigitalSignaturesSequence",
+            "DataSetTrailingPadding",
+            "Item",
+            "ItemDelimitationItem",
+            "SequenceDelimitationItem"
+        };
+    }
+    
+    private static String[] aliasNames() {
+        return new String[] {
+            "RETIRED_CommandLengthToEnd",
+            "RETIRED_CommandRecognitionCode",
+            "RETIRED_Initiator",
+            "RETIRED_Receiver",
+            "RETIRED_FindLocation",
+            "RETIRED_NumberOfMatches",
+            "RETIRED_ResponseSequenceNumber",
+            "RETIRED_DialogReceiver",
+            "RETIRED_TerminalType",
+            "RETIRED_MessageSetID",
+            "RETIRED_EndMessageID",
+            "RETIRED_DisplayFormat",
+            "RETIRED_PagePositionID",
+            "RETIRED_TextFormatID",
+            "RETIRED_NormalReverse",
+            "RETIRED_AddGrayScale",
+            "RETIRED_Borders",
+            "RETIRED_Copies",
+            "RETIRED_CommandMagnificationType",
+            "RETIRED_Erase",
+            "RETIRED_Print",
+            "RETIRED_Overlays",
+            "RETIRED_LengthToEnd",
+            "RETIRED_RecognitionCode",
+            "RETIRED_DataSetType",
+            "RETIRED_DataSetSubtype",
+            "RETIRED_NetworkID",
+            "RETIRED_IdentifyingComments",
+            "RETIRED_InsurancePlanIdentification",
+            "RETIRED_UpperLowerPixelValues",
+            "RETIRED_AcquisitionComments",
+            "RETIRED_DynamicRange",
+            "RETIRED_TotalGain",
+            "RETIRED_ImagePosition",
+            "RETIRED_ImageOrientation",
+            "RETIRED_Location",
+            "RETIRED_ImageGeometryType",
+            "RETIRED_MaskingImage",
+            "RETIRED_AcquisitionsInSeries",
+            "RETIRED_ImagesInSeries",
+            "RETIRED_ImagesInStudy",
+            "RETIRED_Reference",
+            "RETIRED_ModifyingDeviceID",
+            "RETIRED_ModifiedImageID",
+            "RETIRED_ModifiedImageDate",
+            "RETIRED_ModifyingDeviceManufacturer",
+            "RETIRED_ModifiedImageTime",
+            "RETIRED_ModifiedImageDescription",
+            "RETIRED_OriginalImageIdentification",
+            "RETIRED_OriginalImageIdentificationNomenclature",
+            "RETIRED_ImageDimensions",
+            "RETIRED_ImageFormat",
+            "RETIRED_ManipulatedImage",
+            "RETIRED_CompressionRecognitionCode",
+            "RETIRED_CompressionCode",
+            "RETIRED_CompressionOriginator",
+            "RETIRED_CompressionLabel",
+            "RETIRED_CompressionDescription",
+            "RETIRED_CompressionSequence",
+            "RETIRED_CompressionStepPointers",
+            "RETIRED_RepeatInterval",
+            "RETIRED_BitsGrouped",
+            "RETIRED_PerimeterTable",
+            "RETIRED_PerimeterValue",
+            "RETIRED_PredictorRows",
+            "RETIRED_PredictorColumns",
+            "RETIRED_PredictorConstants",
+            "RETIRED_BlockedPixels",
+            "RETIRED_BlockRows",
+            "RETIRED_BlockColumns",
+            "RETIRED_RowOverlap",
+            "RETIRED_ColumnOverlap",
+            "RETIRED_SmallestValidPixelValue",
+            "RETIRED_LargestValidPixelValue",
+            "RETIRED_ImageLocation",
+            "RETIRED_TransformLabel",
+            "RETIRED_TransformVersionNumber",
+            "RETIRED_NumberOfTransformSteps",
+            "RETIRED_SequenceOfCompressedData",
+            "RETIRED_DetailsOfCoefficients",
+            "RETIRED_DCTLabel",
+            "RETIRED_DataBlockDescription",
+            "RETIRED_DataBlock",
+            "RETIRED_NormalizationFactorFormat",
+            "RETIRED_ZonalMapNumberFormat",
+            "RETIRED_ZonalMapLocation",
+            "RETIRED_ZonalMapFormat",
+            "RETIRED_AdaptiveMapFormat",
+            "RETIRED_CodeNumberFormat",
+            "RETIRED_GrayScale",
+            "RETIRED_GrayLookupTableDescriptor",
+            "RETIRED_GrayLookupTableData",
+            "RETIRED_ImagePresentationComments",
+            "PixelSpacingSequence",
+            "CoordinateSystemAxisCodeSequence",
+            "RETIRED_Arbitrary",
+            "RETIRED_TextComments",
+            "RETIRED_CoefficientsSDVN",
+            "RETIRED_CoefficientsSDHN",
+            "RETIRED_CoefficientsSDDN"
+        };
+    }
+    
+    private static int[] aliasIds() {
+        return new int[] {
+            0x00000001, 0x00000010, 0x00000200, 0x00000300, 0x00000400, 0x00000850, 0x00000860, 0x00004000,
+            0x00004010, 0x00005010, 0x00005020, 0x00005110, 0x00005120, 0x00005130, 0x00005140, 0x00005150,
+            0x00005160, 0x00005170, 0x00005180, 0x00005190, 0x000051a0, 0x000051b0, 0x00080001, 0x00080010,
+            0x00080040, 0x00080041, 0x00081000, 0x00084000, 0x00101050, 0x00181240, 0x00184000, 0x00185030,
+            0x00185040, 0x00200030, 0x00200035, 0x00200050, 0x00200070, 0x00200080, 0x00201001, 0x00201003,
+            0x00201005, 0x00201020, 0x00203401, 0x00203402, 0x00203403, 0x00203404, 0x00203405, 0x00203406,
+            0x00205000, 0x00205002, 0x00280005, 0x00280040, 0x00280050, 0x0028005f, 0x00280060, 0x00280061,
+            0x00280062, 0x00280063, 0x00280065, 0x00280066, 0x00280068, 0x00280069, 0x00280070, 0x00280071,
+            0x00280080, 0x00280081, 0x00280082, 0x00280090, 0x00280091, 0x00280092, 0x00280093, 0x00280094,
+            0x00280104, 0x00280105, 0x00280200, 0x00280400, 0x00280401, 0x00280402, 0x00280403, 0x00280404,
+            0x00280700, 0x00280701, 0x00280702, 0x00280710, 0x00280720, 0x00280721, 0x00280722, 0x00280730,
+            0x00280740, 0x00281080, 0x00281100, 0x00281200, 0x00284000, 0x004008d8, 0x004008da, 0x40000010,
+            0x40004000, 0x7fe00020, 0x7fe00030, 0x7fe00040
+        };
+    }
+}
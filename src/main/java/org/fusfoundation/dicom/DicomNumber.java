@@ -23,7 +23,6 @@
  */
 package org.fusfoundation.dicom;
 
-import org.fusfoundation.util.StringConvert;
 import java.io.*;
 import java.util.*;
 
@@ -128,43 +127,10 @@ public class DicomNumber implements Serializable, VrValue {
     }
     
     public void setVrValue(int vrType, byte[] val) {
-        
         try {
-            ByteArrayInputStream is = new ByteArrayInputStream(val);
-            DataInputStream dis = new DataInputStream(is);
-            
-            if (vrType == VR.FD) {
-                value = dis.readDouble();
-            }
-            else if (vrType == VR.FL) {
-                value = (double)dis.readFloat();
-            }
-            else if (vrType == VR.SL) {
-                value = (double)dis.readInt();
-            }
-            else if (vrType == VR.SS) {
-                value = (double)dis.readShort();
-            }
-            else if (vrType == VR.US) {
-                value = (double)dis.readUnsignedShort();
-            }
-            else if (vrType == VR.UL) {
-                byte[] v = new byte[4];
-                dis.read(v);               
-                long i = ((v[0] & 0xff) << 24) | ((v[1] & 0xff) << 16) | ((v[2] & 0xff) << 8) | (v[3] & 0xff);
-                value = (double)i;
-             }
-            else if (vrType == VR.IS || vrType == VR.DS) {
-                String v = StringConvert.bytesToString(val).trim();
-                value = Double.parseDouble(v);
-            }
-        }
-        catch (IOException e) {
-            e.printStackTrace();
-            value = 0.0;
+            value = VrDecoders.decodeNumber(vrType, val);
         }
-        catch (NumberFormatException e) {
-            //e.printStackTrace();
+        catch (ArrayIndexOutOfBoundsException e) { // value too short for the type
             value = 0.0;
         }
         
@@ -37,7 +37,8 @@ import java.util.*;
 
 public class DicomObject implements Serializable {
 
-  private  TreeSet tagSet = new TreeSet();
+  // Elements are hash indexed by tag id, iteration is in tag order
+  private VrTable tagTable = new VrTable();
   private DicomDict dict = DicomDict.getDictionary();
 
   public DicomObject() {
@@ -50,19 +51,16 @@ public class DicomObject implements Serializable {
       }
       
       // replace existing element if it exists
-      if (tagSet.contains(vr)) {
-          tagSet.remove(vr);
-      }
-      return tagSet.add(vr);
+      tagTable.put(vr);
+      return true;
   }
   
   public String toString()
   {
-      int i;
       StringBuffer buf = new StringBuffer();
       buf.append("DicomObject:\n");
-      Iterator si = tagSet.iterator();
-      for (i=0; i<tagSet.size(); i++) {
+      Iterator si = tagTable.iterator();
+      while (si.hasNext()) {
           VR vr = (VR)si.next();
           buf.append("  ");
           buf.append(vr);
@@ -73,35 +71,26 @@ public class DicomObject implements Serializable {
   
   public Iterator iterator()
   {
-      return tagSet.iterator();
+      return tagTable.iterator();
   }
   
   public int size()
   {
-      return tagSet.size();
+      return tagTable.size();
   }
   
   public VR getVR(String name)
   {
-      VR key = new VR(name, new byte[0]);
-      if (!tagSet.contains(key)) return null;
-      Iterator i = tagSet.iterator();
-      while (i.hasNext()) {
-          VR vr = (VR)i.next();
-          if (key.compareTo(vr) == 0)
-              return vr;
-      }
-      return null;
+      return tagTable.get(dict.getVrId(name));
   }
   
   public VR getVR(int group, int element)
   {
-      Iterator i = tagSet.iterator();
-      while (i.hasNext()) {
-          VR vr = (VR)i.next();
-          if (vr.getGroup() == group && vr.getElement() == element)
-              return vr;
-      }
-      return null;
+      return tagTable.get((group & 0xFFFF) << 16 | (element & 0xFFFF));
+  }
+  
+  public VR getVR(int id)
+  {
+      return tagTable.get(id);
   }
 }
@@ -0,0 +1,301 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+/**
+ * Location of a PixelData element's value within a DICOM file. Readers
+ * create these instead of reading the pixel bytes, so header passes over a
+ * series only do I/O for the headers. The bytes are read, or mapped, when
+ * they are actually needed.
+ *
+ * @author  jsnell
+ */
+public class PixelDataHandle implements Serializable {
+    
+    private File file;
+    private long offset; // file offset of the first value byte
+    private long length; // value length, including item tags if encapsulated
+    private String transferSyntax;
+    private boolean encapsulated;
+    private boolean littleEndian;
+    private int swabRadix; // word size to byte swap when read, see VrInputStream.readValue()
+    
+    // Index of encapsulated fragments, built on the first frame read
+    private transient long[] fragmentOffsets; // file offsets of fragment values
+    private transient int[] fragmentLengths;
+    private transient int[] frameFragments; // first fragment of each frame, plus an end entry
+    
+    public PixelDataHandle(File file, long offset, long length, String transferSyntax, boolean encapsulated, boolean littleEndian, int swabRadix) {
+        this.file = file;
+        this.offset = offset;
+        this.length = length;
+        this.transferSyntax = transferSyntax;
+        this.encapsulated = encapsulated;
+        this.littleEndian = littleEndian;
+        this.swabRadix = swabRadix;
+    }
+    
+    public File getFile() { return file; }
+    public long getOffset() { return offset; }
+    public long getLength() { return length; }
+    public String getTransferSyntax() { return transferSyntax; }
+    public boolean isEncapsulated() { return encapsulated; }
+    public boolean isLittleEndian() { return littleEndian; }
+    
+    // Native pixel data, byte swapped to the in memory (big-endian) order
+    // used by VR values
+    public byte[] readValueBytes() throws IOException {
+        byte[] buf = readRaw();
+        if (swabRadix > 1) {
+            VR.swab(buf, swabRadix);
+        }
+        return buf;
+    }
+    
+    // Fragments of encapsulated pixel data, not including the basic offset table
+    public List<byte[]> readFrames() throws IOException {
+        List<byte[]> frames = new ArrayList<>();
+        if (!encapsulated) {
+            return frames;
+        }
+        
+        ByteBuffer buf = ByteBuffer.wrap(readRaw());
+        buf.order(littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int count = 0;
+        while (buf.remaining() >= 8) {
+            int tagGrp = buf.getShort() & 0xFFFF;
+            int tagElem = buf.getShort() & 0xFFFF;
+            int valLen = buf.getInt();
+            if (tagGrp == 0xFFFE && tagElem == 0xE0DD) {
+                break;
+            }
+            if (valLen < 0 || valLen > buf.remaining()) {
+                throw new EOFException("Truncated encapsulated pixel data in " + file);
+            }
+            if (count > 0) {
+                byte[] frame = new byte[valLen];
+                buf.get(frame);
+                frames.add(frame);
+            }
+            else {
+                buf.position(buf.position() + valLen);
+            }
+            count++;
+        }
+        return frames;
+    }
+    
+    public FileChannel openChannel() throws IOException {
+        return new RandomAccessFile(file, "r").getChannel();
+    }
+    
+    // One frame of a multi-frame image. Native frames are byte swapped like
+    // readValueBytes(), encapsulated frames are the concatenated fragments of
+    // the frame. Only the frame's bytes are read, and positional reads on the
+    // channel let several threads read frames at once.
+    public byte[] readFrame(FileChannel channel, int frame, int numberOfFrames) throws IOException {
+        if (frame < 0 || frame >= numberOfFrames) {
+            throw new IndexOutOfBoundsException("Frame " + frame + " of " + numberOfFrames);
+        }
+        
+        if (!encapsulated) {
+            long frameBytes = length / numberOfFrames;
+            if (frameBytes > Integer.MAX_VALUE) {
+                throw new IOException("Frame too large to read into memory: " + file);
+            }
+            byte[] result = new byte[(int)frameBytes];
+            readFully(channel, offset + frame * frameBytes, ByteBuffer.wrap(result));
+            if (swabRadix > 1) {
+                VR.swab(result, swabRadix);
+            }
+            return result;
+        }
+        
+        indexFrames(channel, numberOfFrames);
+        
+        int first = frameFragments[frame];
+        int end = frameFragments[frame+1];
+        long total = 0;
+        for (int i=first; i<end; i++) {
+            total += fragmentLengths[i];
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("Frame too large to read into memory: " + file);
+        }
+        
+        byte[] result = new byte[(int)total];
+        ByteBuffer dst = ByteBuffer.wrap(result);
+        for (int i=first; i<end; i++) {
+            dst.limit(dst.position() + fragmentLengths[i]);
+            readFully(channel, fragmentOffsets[i], dst);
+        }
+        return result;
+    }
+    
+    // Walks the item headers of encapsulated pixel data, without reading the
+    // fragments, and groups the fragments into frames. The basic offset table
+    // is used when it has an entry per frame. Without one, fragments map one
+    // to one onto frames, or a fragment starting with a JPEG SOI marker
+    // starts a new frame.
+    private synchronized void indexFrames(FileChannel channel, int numberOfFrames) throws IOException {
+        if (frameFragments != null && frameFragments.length == numberOfFrames + 1) {
+            return;
+        }
+        
+        ByteOrder order = littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+        ByteBuffer header = ByteBuffer.allocate(8).order(order);
+        
+        long[] offsets = new long[16];
+        int[] lengths = new int[16];
+        boolean[] startsWithSOI = new boolean[16];
+        int[] basicOffsets = null;
+        long firstItemPosition = -1;
+        int count = 0;
+        
+        long pos = offset;
+        long end = offset + length;
+        while (pos + 8 <= end) {
+            header.clear();
+            readFully(channel, pos, header);
+            header.flip();
+            int tagGrp = header.getShort() & 0xFFFF;
+            int tagElem = header.getShort() & 0xFFFF;
+            int valLen = header.getInt();
+            if (tagGrp == 0xFFFE && tagElem == 0xE0DD) {
+                break;
+            }
+            if (tagGrp != 0xFFFE || tagElem != 0xE000 || valLen < 0 || pos + 8 + valLen > end) {
+                throw new EOFException("Invalid encapsulated pixel data item in " + file);
+            }
+            
+            if (basicOffsets == null) {
+                // basic offset table, the first item
+                ByteBuffer bot = ByteBuffer.allocate(valLen).order(order);
+                readFully(channel, pos + 8, bot);
+                bot.flip();
+                basicOffsets = new int[valLen / 4];
+                for (int i=0; i<basicOffsets.length; i++) {
+                    basicOffsets[i] = bot.getInt();
+                }
+                firstItemPosition = pos + 8 + valLen;
+            }
+            else {
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                    lengths = Arrays.copyOf(lengths, count * 2);
+                    startsWithSOI = Arrays.copyOf(startsWithSOI, count * 2);
+                }
+                offsets[count] = pos + 8;
+                lengths[count] = valLen;
+                if (valLen >= 2) {
+                    header.clear();
+                    header.limit(2);
+                    readFully(channel, pos + 8, header);
+                    startsWithSOI[count] = (header.get(0) & 0xFF) == 0xFF && (header.get(1) & 0xFF) == 0xD8;
+                }
+                count++;
+            }
+            pos += 8 + valLen;
+        }
+        
+        int[] frames = new int[numberOfFrames + 1];
+        if (basicOffsets != null && basicOffsets.length == numberOfFrames) {
+            int frame = 0;
+            for (int i=0; i<count; i++) {
+                long itemOffset = offsets[i] - 8 - firstItemPosition;
+                while (frame < numberOfFrames && basicOffsets[frame] <= itemOffset) {
+                    frames[frame++] = i;
+                }
+            }
+            if (frame != numberOfFrames) {
+                throw new IOException("Basic offset table doesn't match the fragments in " + file);
+            }
+        }
+        else if (count == numberOfFrames || numberOfFrames == 1) {
+            for (int i=0; i<numberOfFrames; i++) {
+                frames[i] = i;
+            }
+        }
+        else {
+            int frame = 0;
+            for (int i=0; i<count; i++) {
+                if (startsWithSOI[i] || i == 0) {
+                    if (frame == numberOfFrames) {
+                        throw new IOException("More encapsulated frames than NumberOfFrames in " + file);
+                    }
+                    frames[frame++] = i;
+                }
+            }
+            if (frame != numberOfFrames) {
+                throw new IOException("Can't find the frame boundaries of the encapsulated pixel data in " + file);
+            }
+        }
+        frames[numberOfFrames] = count;
+        
+        fragmentOffsets = Arrays.copyOf(offsets, count);
+        fragmentLengths = Arrays.copyOf(lengths, count);
+        frameFragments = frames;
+    }
+    
+    // Maps the raw value bytes read-only. These are in file byte order.
+    public MappedByteBuffer map() throws IOException {
+        try (FileInputStream fis = new FileInputStream(file)) {
+            return fis.getChannel().map(FileChannel.MapMode.READ_ONLY, offset, length);
+        }
+    }
+    
+    private byte[] readRaw() throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Pixel data too large to read into memory: " + file);
+        }
+        
+        byte[] result = new byte[(int)length];
+        try (FileInputStream fis = new FileInputStream(file)) {
+            readFully(fis.getChannel(), offset, ByteBuffer.wrap(result));
+        }
+        return result;
+    }
+    
+    // Fills dst up to its limit starting at file position pos
+    private void readFully(FileChannel channel, long pos, ByteBuffer dst) throws IOException {
+        while (dst.hasRemaining()) {
+            int n = channel.read(dst, pos);
+            if (n < 0) {
+                throw new EOFException("Truncated pixel data in " + file);
+            }
+            pos += n;
+        }
+    }
+    
+    public String toString() {
+        return "PixelDataHandle[" + file + " @" + offset + " len=" + length + (encapsulated ? " encapsulated" : "") + "]";
+    }
+}
@@ -26,6 +26,7 @@ package org.fusfoundation.dicom;
 import org.fusfoundation.util.StringConvert;
 import org.fusfoundation.util.PrintfFormat;
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.logging.Logger;
 
@@ -40,8 +41,6 @@ import java.util.logging.Logger;
 
 public class VR implements Serializable, Comparable {
     
-    private static final Logger logger = Logger.getGlobal();
-    
     private int group, element;
     private int vrType;
     private long length;
@@ -50,47 +49,18 @@ public class VR implements Serializable, Comparable {
     private Collection seqItems = null;
     private List imageFrames = null;
     
-    private static HashMap valueTypeMap;
+    // Value bytes that have not been copied out of the source buffer yet.
+    // See VrBufferReader. The buffer holds the value in stream byte order,
+    // valueSwabRadix is the word size to swap when it is copied out.
+    private transient ByteBuffer valueSource = null;
+    private transient int valueSwabRadix = 0;
     
-    static {
-        try {
-            valueTypeMap = new HashMap();
-            valueTypeMap.put(new Integer(VR.DA), Class.forName("org.fusfoundation.dicom.DicomDate"));
-            valueTypeMap.put(new Integer(VR.TM), Class.forName("org.fusfoundation.dicom.DicomDate"));
-            valueTypeMap.put(new Integer(VR.DT), Class.forName("org.fusfoundation.dicom.DicomDate"));
-            valueTypeMap.put(new Integer(VR.PN), Class.forName("org.fusfoundation.dicom.PersonName"));
-            
-            valueTypeMap.put(new Integer(VR.FD), Class.forName("org.fusfoundation.dicom.DicomNumber"));
-            valueTypeMap.put(new Integer(VR.FL), Class.forName("org.fusfoundation.dicom.DicomNumber"));
-            valueTypeMap.put(new Integer(VR.SS), Class.forName("org.fusfoundation.dicom.DicomNumber"));
-            valueTypeMap.put(new Integer(VR.US), Class.forName("org.fusfoundation.dicom.DicomNumber"));
-            valueTypeMap.put(new Integer(VR.SL), Class.forName("org.fusfoundation.dicom.DicomNumber"));
-            valueTypeMap.put(new Integer(VR.UL), Class.forName("org.fusfoundation.dicom.DicomNumber"));
-            valueTypeMap.put(new Integer(VR.DS), Class.forName("org.fusfoundation.dicom.DicomNumber"));
-            valueTypeMap.put(new Integer(VR.IS), Class.forName("org.fusfoundation.dicom.DicomNumber"));
-            
-            valueTypeMap.put(new Integer(VR.UI), Class.forName("org.fusfoundation.dicom.DicomString"));
-            valueTypeMap.put(new Integer(VR.UT), Class.forName("org.fusfoundation.dicom.DicomString"));
-            valueTypeMap.put(new Integer(VR.SH), Class.forName("org.fusfoundation.dicom.DicomString"));
-            valueTypeMap.put(new Integer(VR.ST), Class.forName("org.fusfoundation.dicom.DicomString"));
-            valueTypeMap.put(new Integer(VR.LO), Class.forName("org.fusfoundation.dicom.DicomString"));
-            valueTypeMap.put(new Integer(VR.LT), Class.forName("org.fusfoundation.dicom.DicomString"));
-            valueTypeMap.put(new Integer(VR.AE), Class.forName("org.fusfoundation.dicom.DicomString"));
-            valueTypeMap.put(new Integer(VR.AS), Class.forName("org.fusfoundation.dicom.DicomString"));
-            valueTypeMap.put(new Integer(VR.CS), Class.forName("org.fusfoundation.dicom.DicomString"));
-            valueTypeMap.put(new Integer(VR.AE), Class.forName("org.fusfoundation.dicom.DicomString"));
-            
-            valueTypeMap.put(new Integer(VR.UN), Class.forName("org.fusfoundation.dicom.DicomUnknown"));
-            valueTypeMap.put(new Integer(VR.OB), Class.forName("org.fusfoundation.dicom.DicomUnknown"));
-            valueTypeMap.put(new Integer(VR.OW), Class.forName("org.fusfoundation.dicom.DicomUnknown"));
-            valueTypeMap.put(new Integer(VR.SQ), Class.forName("org.fusfoundation.dicom.DicomUnknown"));
-            
-            valueTypeMap.put(new Integer(VR.AT), Class.forName("org.fusfoundation.dicom.DicomAttrTag"));
-        } catch (ClassNotFoundException e) {
-            logger.severe("VrValue type mapping error in VR.java");
-            //e.printStackTrace();
-        }
-    }
+    // PixelData left in the file by the reader, read when first requested
+    private PixelDataHandle pixelDataHandle = null;
+    
+    // Start and end offsets of each value of a string VR, built on first
+    // indexed access so multi-valued lookups don't re-split the string
+    private transient int[] stringValueBounds = null;
     
     public VR() {}
     
@@ -103,6 +73,36 @@ public class VR implements Serializable, Comparable {
         multiplicity = analyzeValueMultiplicity(group, element, vrType, value);
     }
     
+    // Creates a VR whose value bytes stay in the source buffer until they
+    // are requested. Only used for types without value multiplicity
+    // (OB, OW, UN etc.)
+    VR(int valueGroup, int valueElement, int valueType, ByteBuffer valueBuffer, int swabRadix) {
+        group = valueGroup;
+        element = valueElement;
+        vrType = valueType;
+        length = valueBuffer.remaining();
+        valueSource = valueBuffer;
+        valueSwabRadix = swabRadix;
+        multiplicity = 1;
+    }
+    
+    // Creates a PixelData VR whose value or frames are read from the file
+    // when they are first requested
+    VR(int valueGroup, int valueElement, int valueType, PixelDataHandle handle) {
+        group = valueGroup;
+        element = valueElement;
+        vrType = valueType;
+        pixelDataHandle = handle;
+        if (handle.isEncapsulated()) {
+            value = new byte[0];
+            length = 0;
+        }
+        else {
+            length = handle.getLength();
+        }
+        multiplicity = 1;
+    }
+    
     public VR(int valueGroup, int valueElement, byte[] valueBytes) {
         group = valueGroup;
         element = valueElement;
@@ -254,31 +254,142 @@ public class VR implements Serializable, Comparable {
     
     public long getLength() { return length; }
     
-    public byte[] getValueBytes() { return value; }
-    public void setValueBytes(byte[] v) { value = v; length = v.length;}
+    public byte[] getValueBytes() {
+        if (valueSource != null || (value == null && pixelDataHandle != null)) {
+            materializeValue();
+        }
+        return value;
+    }
+    
+    public void setValueBytes(byte[] v) { value = v; length = v.length; valueSource = null; pixelDataHandle = null; stringValueBounds = null; }
+    
+    // True if the value bytes have not been read from the source buffer or file yet
+    public boolean isValueDeferred() {
+        return valueSource != null || (pixelDataHandle != null && value == null && imageFrames == null);
+    }
+    
+    public PixelDataHandle getPixelDataHandle() { return pixelDataHandle; }
+    
+    // Drops value bytes and frames that were read through a PixelDataHandle,
+    // they will be read again if requested. Lets loaders keep headers around
+    // without also keeping every slice's pixels.
+    public synchronized void releaseValue() {
+        if (pixelDataHandle != null) {
+            if (!pixelDataHandle.isEncapsulated()) {
+                value = null;
+            }
+            imageFrames = null;
+        }
+    }
+    
+    private synchronized void materializeValue() {
+        if (pixelDataHandle != null && valueSource == null) {
+            if (value == null) {
+                try {
+                    value = pixelDataHandle.readValueBytes();
+                }
+                catch(IOException e) {
+                    throw new DicomRuntimeException("Failed to read pixel data: " + e.getMessage());
+                }
+            }
+            return;
+        }
+        
+        if (valueSource == null) {
+            return;
+        }
+        
+        byte[] buf = new byte[valueSource.remaining()];
+        valueSource.duplicate().get(buf);
+        if (valueSwabRadix > 1) {
+            swab(buf, valueSwabRadix);
+        }
+        value = buf;
+        valueSource = null;
+    }
+    
+    // Reverse the byte order of each radix sized word in buf
+    static void swab(byte[] buf, int radix) {
+        if (radix == 2) {
+            for (int i=0; i<buf.length-1; i+=2) {
+                byte tmp = buf[i];
+                buf[i] = buf[i+1];
+                buf[i+1] = tmp;
+            }
+        }
+        else {
+            for (int i=0; i+radix<=buf.length; i+=radix) {
+                for (int lo=i, hi=i+radix-1; lo<hi; lo++, hi--) {
+                    byte tmp = buf[lo];
+                    buf[lo] = buf[hi];
+                    buf[hi] = tmp;
+                }
+            }
+        }
+    }
+    
+    // Deferred values are copied in before serializing
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getValueBytes();
+        out.defaultWriteObject();
+    }
     
     public int getIntValue() {
-        return ((DicomNumber)getValue()).getIntValue();
+        return (int)getNumberValue(0);
     }
     
     public int getIntValue(int i) {
-        return ((DicomNumber)getValue(i)).getIntValue();
+        return (int)getNumberValue(i);
     }
     
     public float getFloatValue() {
-        return ((DicomNumber)getValue()).getFloatValue();
+        return (float)getNumberValue(0);
     }
     
     public float getFloatValue(int i) {
-        return ((DicomNumber)getValue(i)).getFloatValue();
+        return (float)getNumberValue(i);
     }
     
     public double getDoubleValue() {
-        return ((DicomNumber)getValue()).getDoubleValue();
+        return getNumberValue(0);
     }
     
     public double getDoubleValue(int i) {
-        return ((DicomNumber)getValue(i)).getDoubleValue();
+        return getNumberValue(i);
+    }
+    
+    // Decodes the i'th value straight from the value bytes, gives the same
+    // result as getValue(i) would as a DicomNumber
+    private double getNumberValue(int i) {
+        VrDecoders.NumberDecoder decoder = VrDecoders.numberDecoder(vrType);
+        if (decoder == null) {
+            return ((DicomNumber)getValue(i)).getDoubleValue();
+        }
+        
+        byte[] v = getValueBytes();
+        int typeRep = representationTypeFromId(vrType);
+        if (typeRep > 0) {
+            return decoder.decode(v, i*typeRep, typeRep);
+        }
+        else if (v.length > 2 && i >= 0) {
+            int[] bounds = getStringValueBounds();
+            if (2*i >= bounds.length) {
+                throw new NoSuchElementException();
+            }
+            return decoder.decode(v, bounds[2*i], bounds[2*i+1] - bounds[2*i]);
+        }
+        else {
+            return decoder.decode(v, 0, i < 0 ? 0 : v.length);
+        }
+    }
+    
+    private int[] getStringValueBounds() {
+        int[] bounds = stringValueBounds;
+        if (bounds == null) {
+            bounds = VrDecoders.stringValueBounds(getValueBytes());
+            stringValueBounds = bounds;
+        }
+        return bounds;
     }
     
     public String getStringValue() {
@@ -304,16 +415,8 @@ public class VR implements Serializable, Comparable {
     public Object getValue(int i)
     
     {
-        VrValue vrval = null;
-        
-        try {
-            Class vrclass = (Class)valueTypeMap.get(new Integer(this.vrType));
-            vrval = (VrValue)vrclass.newInstance();
-        } catch (InstantiationException e) {
-            System.out.println(e);
-        } catch (IllegalAccessException e) {
-            System.out.println(e);
-        } catch (NullPointerException e) {
+        VrValue vrval = VrDecoders.newValue(this.vrType);
+        if (vrval == null) {
             throw new RuntimeException("Unimplemented type ID: " + this.vrType);
         }
         
@@ -354,7 +457,15 @@ public class VR implements Serializable, Comparable {
         imageFrames.add(frameData);
     }
     
-    public List getImageFrames() {
+    public synchronized List getImageFrames() {
+        if (imageFrames == null && pixelDataHandle != null && pixelDataHandle.isEncapsulated()) {
+            try {
+                imageFrames = new ArrayList(pixelDataHandle.readFrames());
+            }
+            catch(IOException e) {
+                throw new DicomRuntimeException("Failed to read pixel data frames: " + e.getMessage());
+            }
+        }
         return imageFrames;
     }
     
@@ -400,6 +511,18 @@ public class VR implements Serializable, Comparable {
                 "TM", "UI", "UL", "UN", "US", "UT"
     };
     
+    // Same as idFromString() for the two VR code bytes read from a stream,
+    // without building a String for the common codes
+    static int idFromBytes(int c0, int c1) {
+        for (int i=0; i<vrCodes.length; i++) {
+            String code = vrCodes[i];
+            if (code.charAt(0) == c0 && code.charAt(1) == c1) {
+                return i;
+            }
+        }
+        return idFromString(new String(new char[] { (char)(c0 & 0xff), (char)(c1 & 0xff) }));
+    }
+    
     static int idFromString(String twoLetterName) {
         for (int i=0; i<vrCodes.length; i++) {
             if (twoLetterName.compareTo(vrCodes[i]) == 0) {
@@ -417,7 +540,8 @@ public class VR implements Serializable, Comparable {
             return VR.UN;
         }
         
-        logger.info("Unknown VR code: " + twoLetterName);
+        // the logger is only looked up here, so parsing doesn't start up logging
+        Logger.getGlobal().info("Unknown VR code: " + twoLetterName);
         
         return VR.UN;
     }
@@ -558,23 +682,7 @@ public class VR implements Serializable, Comparable {
         if (repType == 0 || repType == -1) {
             return 1;
         } else if (repType < 0) { // is a string representation
-            String valStr;
-            try {
-                valStr = new String(value, "8859_1");
-            } catch (UnsupportedEncodingException e) {
-                throw new RuntimeException("Unknown encoding.");
-            }
-            
-            StringTokenizer tok = new StringTokenizer(valStr);
-            int m = 0;
-            try {
-                while (tok.nextToken("\\").length() > 0) {
-                    m++;
-                }
-            } catch(NoSuchElementException e2) {
-            }
-            
-            return m;
+            return VrDecoders.countStringValues(value);
         } else { //if (repType > 0) : is a fixed binary representation
             return value.length / repType;
         }
@@ -608,33 +716,32 @@ public class VR implements Serializable, Comparable {
     }
     
     private byte[] getIndexedBytesAsString(int i, int size) {
-        try {
+        byte[] source = getValueBytes();
+        if (source.length > 2 && size > 1) {
+            if (i < 0) {
+                return new byte[0];
+            }
             
-            String source = new String(this.value, "8859_1");
-            if (source.length() > 2 && size > 1) {
-                StringTokenizer tok = new StringTokenizer(source);
-                String result = "";
-                
-                for (int index=0; index<=i; index++) {
-                    result = tok.nextToken("\\");
-                }
-                
-                return result.getBytes("8859_1");
-            } else {
-                return this.value;
+            int[] bounds = getStringValueBounds();
+            if (2*i >= bounds.length) {
+                throw new NoSuchElementException();
             }
-        } catch(UnsupportedEncodingException e) {
-            throw new RuntimeException("Unknown Encoding.");
+            
+            byte[] result = new byte[bounds[2*i+1] - bounds[2*i]];
+            System.arraycopy(source, bounds[2*i], result, 0, result.length);
+            return result;
+        } else {
+            return source;
         }
     }
     
     private byte[] getIndexedBytesAsBinary(int i, int size) {
         if (size > 0) {
             byte[] result = new byte[size];
-            System.arraycopy(this.value, i*size, result, 0, size);
+            System.arraycopy(getValueBytes(), i*size, result, 0, size);
             return result;
         } else { // no multiple values, return the whole value
-            return this.value;
+            return getValueBytes();
         }
     }
     
@@ -659,6 +766,10 @@ public class VR implements Serializable, Comparable {
         buf.append(this.getName());
         buf.append(" = ");
         for (int j=0; j<this.getValueMultiplicity(); j++) {
+            if (isValueDeferred()) {
+                buf.append("[deferred]"); // don't read the value just to print it
+                break;
+            }
             buf.append("[");
             try {
                 buf.append(this.getValue(j));
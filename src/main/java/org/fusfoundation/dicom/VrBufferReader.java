@@ -0,0 +1,491 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+/**
+ * VrReader over a ByteBuffer, typically a window of a DICOM file read with
+ * read(). Tags, lengths and VR codes are decoded with single
+ * getShort()/getInt() calls in the stream byte order, and large binary
+ * values (OB, OW, UN) are returned as VRs that slice the buffer and only
+ * copy their bytes out when VR.getValueBytes() is called.
+ *
+ * When a source file is set the buffer only has to hold the start of the
+ * stream. Reads past its end re-read a larger window of the file, so a
+ * header scan only reads the header however large the file is. Deferred
+ * pixel data is skipped in the file rather than in the buffer, so it is
+ * never read and may be larger than a buffer can hold.
+ *
+ * Produces the same VR sequence as VrInputStream for the same bytes.
+ *
+ * @author  jsnell
+ */
+public class VrBufferReader implements VrReader {
+    
+    // Binary values at least this long are sliced rather than copied
+    private static final int DEFER_VALUE_LENGTH = 256;
+    
+    // Size of the first window read from a file, later windows grow by 4x
+    public static final int HEADER_WINDOW = 64 * 1024;
+    private static final int MAX_WINDOW = Integer.MAX_VALUE - 8;
+    
+    private ByteBuffer buf; // source buffer, position is the current stream position
+    private boolean isLE; // little-endian?
+    private boolean isImplicit; // implicit VR syntax?
+    private boolean readPixelData = true; // should we read the pixeldata?
+    private boolean deferPixelData = false; // return PixelData as a PixelDataHandle?
+    private boolean atEnd = false; // stopped at the pixel data, or closed
+    
+    // File the buffer was read from, for PixelDataHandles and larger windows
+    private File sourceFile = null;
+    private long sourceFileLength = 0;
+    private long streamOffset = 0; // file offset of stream position 0
+    private long windowOffset = 0; // file offset of buffer position 0
+    private String transferSyntax = null;
+    
+    // Closing positions of defined length SQ and SQ Items,
+    // see VrInputStream.TagMarker
+    private int[] markerPositions = new int[16];
+    private int[] markerTypes = new int[16];
+    private int markerCount = 0;
+    
+    private static final int SQ_END = 1;
+    private static final int SQ_ITEM_END = 2;
+    
+    private final DicomDict dict = DicomDict.getDictionary();
+    
+    /** Creates a new instance of VrBufferReader reading from the buffer's
+     *  current position to its limit */
+    public VrBufferReader(ByteBuffer source, boolean littleEndian, boolean implicit) {
+        buf = source.slice();
+        isImplicit = implicit;
+        setIsLittleEndian(littleEndian);
+    }
+    
+    // Reads up to size bytes of a file, starting at offset, into a heap
+    // buffer. The file isn't mapped, so it isn't held open or locked after
+    // the read, and files of any size can be windowed.
+    public static ByteBuffer read(File file, long offset, int size) throws IOException {
+        try (FileInputStream fis = new FileInputStream(file)) {
+            FileChannel channel = fis.getChannel();
+            ByteBuffer result = ByteBuffer.allocate((int)Math.max(0, Math.min(size, channel.size() - offset)));
+            while (result.hasRemaining()) {
+                if (channel.read(result, offset + result.position()) < 0) {
+                    break;
+                }
+            }
+            result.flip();
+            return result;
+        }
+    }
+    
+    public boolean getIsLittleEndian() { return isLE; }
+    public void setIsLittleEndian(boolean val) {
+        isLE = val;
+        buf.order(isLE ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+    }
+    
+    public boolean getIsImplicitVR() { return isImplicit; }
+    public void setIsImplicitVR(boolean val) { isImplicit = val; }
+    
+    public boolean getReadPixelData() { return readPixelData; }
+    public void setReadPixelData(boolean val) { readPixelData = val; }
+    
+    // When set, and a source file is known, the top level PixelData element
+    // is returned as a VR holding a PixelDataHandle and its bytes are skipped
+    public boolean getDeferPixelData() { return deferPixelData; }
+    public void setDeferPixelData(boolean val) { deferPixelData = val; }
+    
+    // The buffer holds the file's bytes from fileOffset on, or the start of them
+    public void setSourceFile(File file, long fileOffset, String transferSyntaxUID) {
+        sourceFile = file;
+        sourceFileLength = file.length();
+        streamOffset = fileOffset;
+        windowOffset = fileOffset;
+        transferSyntax = transferSyntaxUID;
+    }
+    
+    public long getPosition() { return windowOffset - streamOffset + buf.position(); }
+    public void setPosition(long pos) throws IOException {
+        markerCount = 0;
+        atEnd = false;
+        if (sourceFile != null) {
+            moveTo(streamOffset + pos);
+        }
+        else {
+            buf.position((int)pos);
+        }
+    }
+    
+    public ByteBuffer getBuffer() { return buf; }
+    
+    public int available() throws IOException {
+        if (atEnd) {
+            return 0;
+        }
+        else if (sourceFile == null) {
+            return buf.remaining();
+        }
+        return (int)Math.min(Integer.MAX_VALUE, sourceFileLength - windowOffset - buf.position());
+    }
+    
+    public void close() throws IOException {
+        buf.position(buf.limit());
+        atEnd = true;
+    }
+    
+    // Makes n bytes past the position available, if the source file has
+    // them, by reading a larger window of the file. VRs already read keep
+    // their slices of the old buffer.
+    private void ensure(long n) throws IOException {
+        if (buf.remaining() >= n || sourceFile == null || windowOffset + buf.limit() >= sourceFileLength) {
+            return;
+        }
+        
+        // Outside of sequences no marker refers to earlier buffer positions,
+        // so the new window can start at the current position
+        int start = markerCount == 0 ? buf.position() : 0;
+        long needed = buf.position() - start + n;
+        if (needed > MAX_WINDOW) {
+            return; // the caller sees the underflow
+        }
+        long size = Math.min(MAX_WINDOW, Math.max(needed, Math.max(HEADER_WINDOW, (buf.limit() - start) * 4L)));
+        
+        int pos = buf.position();
+        readWindow(windowOffset + start, (int)size);
+        buf.position(Math.min(pos - start, buf.limit()));
+    }
+    
+    // Moves the position to a file offset, reading a new window there if
+    // it is past the end of the current one
+    private void moveTo(long fileOffset) throws IOException {
+        long pos = fileOffset - windowOffset;
+        if (pos >= 0 && pos <= buf.limit()) {
+            buf.position((int)pos);
+        }
+        else {
+            readWindow(fileOffset, HEADER_WINDOW);
+        }
+    }
+    
+    private void readWindow(long fileOffset, int size) throws IOException {
+        windowOffset = fileOffset;
+        buf = read(sourceFile, fileOffset, size);
+        buf.order(isLE ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+    }
+    
+    private void setMarker(int pos, int type) {
+        if (markerCount == markerPositions.length) {
+            markerPositions = Arrays.copyOf(markerPositions, markerCount * 2);
+            markerTypes = Arrays.copyOf(markerTypes, markerCount * 2);
+        }
+        markerPositions[markerCount] = pos;
+        markerTypes[markerCount] = type;
+        markerCount++;
+    }
+    
+    private int checkMarker(int pos) {
+        if (markerCount > 0 && markerPositions[markerCount-1] == pos) {
+            markerCount--;
+            return markerTypes[markerCount];
+        }
+        return 0;
+    }
+    
+    // Byte swap word size for values of this type, as VrInputStream.readValue()
+    private int swabRadix(int vrType) {
+        if (!isLE) {
+            return 0;
+        }
+        switch (vrType) {
+            case VR.UL:
+            case VR.SL:
+            case VR.FL:
+                return 4;
+            case VR.US:
+            case VR.SS:
+            case VR.OW:
+            case VR.OB:
+            case VR.AT:
+                return 2;
+            case VR.FD:
+                return 8;
+            default:
+                return 0;
+        }
+    }
+    
+    private VR readValue(int grp, int elem, int vrType, int len) throws IOException {
+        ensure(len);
+        if (len > buf.remaining()) {
+            throw new EOFException();
+        }
+        
+        int radix = swabRadix(vrType);
+        
+        if (len >= DEFER_VALUE_LENGTH && (vrType == VR.OB || vrType == VR.OW || vrType == VR.UN)) {
+            ByteBuffer slice = buf.slice();
+            slice.limit(len);
+            buf.position(buf.position() + len);
+            return new VR(grp, elem, vrType, slice, radix);
+        }
+        
+        byte[] valBuf = new byte[len];
+        buf.get(valBuf);
+        if (radix > 1) {
+            VR.swab(valBuf, radix);
+        }
+        
+        return new VR(grp, elem, vrType, valBuf);
+    }
+    
+    private void readSequenceItems(VR parent) throws IOException, DicomException {
+        DicomObject item;
+        while((item = readSequenceItem()) != null) {
+            parent.addSequenceItem(item);
+        }
+    }
+    
+    private DicomObject readSequenceItem() throws IOException, DicomException {
+        // always read pixel data inside sequence items (icon images etc.)
+        VR vr = readVR(true);
+        if (vr == null || isDelimiter(vr, 0xE0DD)) {
+            return null;
+        }
+        else if (!isDelimiter(vr, 0xE000)) {
+            throw new DicomException("Malformed DICOM sequence.");
+        }
+        else {
+            DicomObject item = new DicomObject();
+            VR itemTag = readVR(true);
+            while (itemTag != null && !isDelimiter(itemTag, 0xE00D)) {
+                item.addVR(itemTag);
+                itemTag = readVR(true);
+            }
+            return item;
+        }
+    }
+    
+    private boolean isDelimiter(VR vr, int elem) {
+        return vr.getGroup() == 0xFFFE && vr.getElement() == elem;
+    }
+    
+    // Skip over the pixel data value and hand back where it was. The value
+    // bytes are never read, the position moves to the end of the value in
+    // the file, so the pixel data may be larger than the buffer.
+    private VR deferPixelData(int grp, int elem, int vrType, int len) throws IOException {
+        long start = windowOffset + buf.position();
+        boolean encapsulated = (len == 0xFFFFFFFF);
+        
+        long end;
+        if (encapsulated) {
+            end = skipFragments(start);
+        }
+        else {
+            end = start + (len & 0xFFFFFFFFL); // lengths are unsigned
+            if (end > sourceFileLength) {
+                throw new EOFException();
+            }
+        }
+        moveTo(end);
+        
+        PixelDataHandle handle = new PixelDataHandle(sourceFile, start, end - start,
+                transferSyntax, encapsulated, isLE, encapsulated ? 0 : swabRadix(vrType));
+        return new VR(grp, elem, vrType, handle);
+    }
+    
+    // Walks the item tags of encapsulated pixel data starting at file offset
+    // pos and returns the offset just past the sequence delimiter. Tags in
+    // the window come from the buffer, the rest are read from the file.
+    private long skipFragments(long pos) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(8).order(buf.order());
+        RandomAccessFile raf = null;
+        try {
+            int tagGrp, tagElem, valLen;
+            do {
+                long bufPos = pos - windowOffset;
+                if (bufPos + 8 <= buf.limit()) {
+                    tagGrp = buf.getShort((int)bufPos) & 0xFFFF;
+                    tagElem = buf.getShort((int)bufPos + 2) & 0xFFFF;
+                    valLen = buf.getInt((int)bufPos + 4);
+                }
+                else {
+                    if (raf == null) {
+                        raf = new RandomAccessFile(sourceFile, "r");
+                    }
+                    header.clear();
+                    while (header.hasRemaining()) {
+                        if (raf.getChannel().read(header, pos + header.position()) < 0) {
+                            throw new EOFException();
+                        }
+                    }
+                    tagGrp = header.getShort(0) & 0xFFFF;
+                    tagElem = header.getShort(2) & 0xFFFF;
+                    valLen = header.getInt(4);
+                }
+                pos += 8;
+                if (valLen < 0 || pos + valLen > sourceFileLength) {
+                    throw new EOFException();
+                }
+                pos += valLen;
+            } while (!(tagGrp == 0xFFFE && tagElem == 0xE0DD));
+            return pos;
+        }
+        finally {
+            if (raf != null) {
+                raf.close();
+            }
+        }
+    }
+    
+    private void readEncapsulatedFrames(VR result) throws IOException {
+        int tagGrp, tagElem, count = 0;
+        do {
+            ensure(8);
+            tagGrp = buf.getShort() & 0xFFFF;
+            tagElem = buf.getShort() & 0xFFFF;
+            int valLen = buf.getInt();
+            ensure(valLen);
+            if (valLen < 0 || valLen > buf.remaining()) {
+                throw new EOFException();
+            }
+            // skip the basic offset table
+            if (count>0 && tagElem!=0xE0DD) {
+                byte[] value = new byte[valLen];
+                buf.get(value);
+                result.addImageFrame(value);
+            }
+            else {
+                buf.position(buf.position() + valLen);
+            }
+            count++;
+        } while (!(tagGrp == 0xFFFE && tagElem == 0xE0DD));
+    }
+    
+    public VR readVR() throws IOException {
+        return readVR(false);
+    }
+    
+    public VR readVR(boolean isSequenceItem) throws IOException {
+        // Emit delimitation items for defined length SQs and SQ Items,
+        // see VrInputStream.readVR()
+        int delimType = checkMarker(buf.position());
+        if (delimType == SQ_END) {
+            return new VR(0xFFFE, 0xE0DD, new byte[0]);
+        }
+        else if (delimType == SQ_ITEM_END) {
+            return new VR(0xFFFE, 0xE00D, new byte[0]);
+        }
+        
+        if (atEnd) {
+            return null;
+        }
+        
+        try {
+            ensure(12); // tag, VR, reserved and length of an explicit VR element
+            if (buf.remaining() < 8) {
+                return null;
+            }
+            
+            int grp = buf.getShort() & 0xFFFF;
+            int elem = buf.getShort() & 0xFFFF;
+            
+            // Header only scan, stop at the top level pixel data
+            if (readPixelData==false && grp == 0x7fe0 && !isSequenceItem) {
+                buf.position(buf.limit());
+                atEnd = true;
+                return null;
+            }
+            
+            // Sequence Item tags are always Implicit VR
+            if (grp == 0xFFFE) {
+                int len = buf.getInt();
+                if (elem == 0xE000 && len != 0xFFFFFFFF) {
+                    setMarker(buf.position() + len, SQ_ITEM_END);
+                }
+                return new VR(grp, elem, new byte[0]);
+            }
+            
+            int vrType;
+            int len;
+            if (isImplicit) {
+                vrType = dict.getVrType(grp << 16 | elem);
+                len = buf.getInt();
+                if (len == 0xFFFFFFFF && !(grp == 0x7fe0 && elem == 0x0010)) {
+                    vrType = VR.SQ;
+                }
+            }
+            else {
+                vrType = VR.idFromBytes(buf.get(), buf.get());
+                
+                // 'length' field is conditional on vrtype:
+                if (vrType == VR.OB || vrType == VR.OW || vrType == VR.SQ || vrType == VR.UN || vrType == VR.UT) {
+                    buf.getShort(); // Reserved
+                    len = buf.getInt();
+                }
+                else {
+                    len = buf.getShort() & 0xFFFF;
+                }
+            }
+            
+            VR result;
+            if (deferPixelData && sourceFile != null && grp == 0x7fe0 && elem == 0x0010 && !isSequenceItem) {
+                result = deferPixelData(grp, elem, vrType, len);
+            }
+            else if (vrType == VR.SQ) {
+                if (len != 0xFFFFFFFF) {
+                    setMarker(buf.position() + len, SQ_END);
+                }
+                result = new VR(grp, elem, vrType, new byte[0]);
+                readSequenceItems(result);
+            }
+            else if (len == 0xFFFFFFFF && grp == 0x7fe0 && elem == 0x0010) {
+                // Encapsulated image data
+                result = new VR(grp, elem, vrType, new byte[0]);
+                readEncapsulatedFrames(result);
+            }
+            else {
+                result = readValue(grp, elem, vrType, Math.max(0, len));
+            }
+            
+            return result;
+        }
+        catch (DicomException e) {
+            return null;
+        }
+        catch (BufferUnderflowException e) {
+            return null;
+        }
+        catch (EOFException e) {
+            return null;
+        }
+    }
+    
+}
@@ -0,0 +1,248 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom;
+
+import org.fusfoundation.util.StringConvert;
+import java.util.function.Supplier;
+
+/**
+ * Per VR type decoders for VR values. Numbers are decoded straight from the
+ * (big-endian) value bytes without going through a VrValue instance, and
+ * DS/IS strings are parsed in place. The tables are indexed by the VR type
+ * constants in VR.
+ *
+ * @author jsnell
+ */
+final class VrDecoders {
+    
+    private VrDecoders() {}
+    
+    // Decodes the number in value[offset, offset+length)
+    interface NumberDecoder {
+        double decode(byte[] value, int offset, int length);
+    }
+    
+    private static final int VR_TYPE_COUNT = 26;
+    
+    private static final NumberDecoder[] numberDecoders = new NumberDecoder[VR_TYPE_COUNT];
+    private static final Supplier<VrValue>[] valueFactories = newFactoryTable();
+    
+    static {
+        numberDecoders[VR.FD] = (v, off, len) -> Double.longBitsToDouble(getLong(v, off));
+        numberDecoders[VR.FL] = (v, off, len) -> Float.intBitsToFloat(getInt(v, off));
+        numberDecoders[VR.SL] = (v, off, len) -> getInt(v, off);
+        // UL is read as a signed int, as DicomNumber always has
+        numberDecoders[VR.UL] = (v, off, len) -> getInt(v, off);
+        numberDecoders[VR.SS] = (v, off, len) -> (short)getShort(v, off);
+        numberDecoders[VR.US] = (v, off, len) -> getShort(v, off);
+        numberDecoders[VR.DS] = VrDecoders::parseDecimalString;
+        numberDecoders[VR.IS] = VrDecoders::parseDecimalString;
+        
+        valueFactories[VR.DA] = DicomDate::new;
+        valueFactories[VR.TM] = DicomDate::new;
+        valueFactories[VR.DT] = DicomDate::new;
+        valueFactories[VR.PN] = PersonName::new;
+        
+        for (int type : new int[] {VR.FD, VR.FL, VR.SS, VR.US, VR.SL, VR.UL, VR.DS, VR.IS}) {
+            valueFactories[type] = DicomNumber::new;
+        }
+        
+        for (int type : new int[] {VR.UI, VR.UT, VR.SH, VR.ST, VR.LO, VR.LT, VR.AE, VR.AS, VR.CS}) {
+            valueFactories[type] = DicomString::new;
+        }
+        
+        for (int type : new int[] {VR.UN, VR.OB, VR.OW, VR.SQ}) {
+            valueFactories[type] = DicomUnknown::new;
+        }
+        
+        valueFactories[VR.AT] = DicomAttrTag::new;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Supplier<VrValue>[] newFactoryTable() {
+        return (Supplier<VrValue>[])new Supplier[VR_TYPE_COUNT];
+    }
+    
+    // Returns the number decoder for the VR type, or null if it isn't numeric
+    static NumberDecoder numberDecoder(int vrType) {
+        return vrType >= 0 && vrType < VR_TYPE_COUNT ? numberDecoders[vrType] : null;
+    }
+    
+    // Returns a new, empty VrValue of the class used for the VR type, or null
+    static VrValue newValue(int vrType) {
+        Supplier<VrValue> factory = vrType >= 0 && vrType < VR_TYPE_COUNT ? valueFactories[vrType] : null;
+        return factory == null ? null : factory.get();
+    }
+    
+    // Decodes a whole value the way DicomNumber.setVrValue does
+    static double decodeNumber(int vrType, byte[] value) {
+        NumberDecoder decoder = numberDecoder(vrType);
+        return decoder == null ? 0.0 : decoder.decode(value, 0, value.length);
+    }
+    
+    private static int getShort(byte[] v, int off) {
+        return (v[off] & 0xff) << 8 | (v[off+1] & 0xff);
+    }
+    
+    private static int getInt(byte[] v, int off) {
+        return (v[off] & 0xff) << 24 | (v[off+1] & 0xff) << 16 | (v[off+2] & 0xff) << 8 | (v[off+3] & 0xff);
+    }
+    
+    private static long getLong(byte[] v, int off) {
+        return (long)getInt(v, off) << 32 | (getInt(v, off+4) & 0xffffffffL);
+    }
+    
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    
+    // Parses a DS or IS value, padding and all, to the same double that
+    // Double.parseDouble gives for the trimmed string (0 if it isn't a number).
+    // Plain decimals with up to 15 significant digits are converted exactly
+    // here, anything else is handed to Double.parseDouble.
+    static double parseDecimalString(byte[] v, int offset, int length) {
+        int start = offset;
+        int end = offset + length;
+        while (start < end && (v[start] & 0xff) <= ' ') {
+            start++;
+        }
+        while (end > start && (v[end-1] & 0xff) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return 0.0;
+        }
+        
+        int i = start;
+        boolean negative = false;
+        if (v[i] == '-' || v[i] == '+') {
+            negative = v[i] == '-';
+            i++;
+        }
+        
+        long mantissa = 0;
+        int digits = 0; // significant digits in mantissa
+        int exponent = 0;
+        boolean anyDigits = false;
+        
+        for (; i < end && v[i] >= '0' && v[i] <= '9'; i++) {
+            anyDigits = true;
+            if (digits > 0 || v[i] != '0') {
+                mantissa = mantissa * 10 + (v[i] - '0');
+                digits++;
+            }
+        }
+        if (i < end && v[i] == '.') {
+            for (i++; i < end && v[i] >= '0' && v[i] <= '9'; i++) {
+                anyDigits = true;
+                if (digits > 0 || v[i] != '0') {
+                    mantissa = mantissa * 10 + (v[i] - '0');
+                    digits++;
+                }
+                exponent--;
+            }
+        }
+        if (anyDigits && i < end && (v[i] == 'e' || v[i] == 'E')) {
+            int j = i + 1;
+            boolean negativeExponent = false;
+            if (j < end && (v[j] == '-' || v[j] == '+')) {
+                negativeExponent = v[j] == '-';
+                j++;
+            }
+            int e = 0;
+            int expDigits = 0;
+            for (; j < end && v[j] >= '0' && v[j] <= '9' && expDigits < 4; j++, expDigits++) {
+                e = e * 10 + (v[j] - '0');
+            }
+            if (expDigits > 0) {
+                exponent += negativeExponent ? -e : e;
+                i = j;
+            }
+        }
+        
+        if (anyDigits && i == end && digits <= 15 && exponent >= -22 && exponent <= 22) {
+            double d = mantissa;
+            if (exponent < 0) {
+                d /= POW10[-exponent];
+            }
+            else {
+                d *= POW10[exponent];
+            }
+            return negative ? -d : d;
+        }
+        
+        try {
+            return Double.parseDouble(StringConvert.bytesToString(copyOfRange(v, start, end)));
+        }
+        catch(NumberFormatException e) {
+            return 0.0;
+        }
+    }
+    
+    private static byte[] copyOfRange(byte[] v, int from, int to) {
+        byte[] result = new byte[to - from];
+        System.arraycopy(v, from, result, 0, result.length);
+        return result;
+    }
+    
+    // Start and end offsets of each backslash separated value in a string
+    // VR value, as {start0, end0, start1, end1, ...}. Empty values are
+    // skipped, the same as the StringTokenizer split used elsewhere in VR.
+    static int[] stringValueBounds(byte[] v) {
+        int count = countStringValues(v);
+        int[] bounds = new int[count * 2];
+        int n = 0;
+        int i = 0;
+        while (i < v.length) {
+            while (i < v.length && v[i] == '\\') {
+                i++;
+            }
+            if (i == v.length) {
+                break;
+            }
+            bounds[n++] = i;
+            while (i < v.length && v[i] != '\\') {
+                i++;
+            }
+            bounds[n++] = i;
+        }
+        return bounds;
+    }
+    
+    static int countStringValues(byte[] v) {
+        int count = 0;
+        boolean inValue = false;
+        for (int i=0; i<v.length; i++) {
+            if (v[i] == '\\') {
+                inValue = false;
+            }
+            else if (!inValue) {
+                inValue = true;
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -485,10 +485,11 @@ public class VrInputStream implements VrReader {
         is.close();
     }
     
+    // Reads until buf is full, a single read() may return a short count
     public int read(byte[] buf) throws IOException {
-        int bytesRead = is.read(buf);
-        position += bytesRead;
-        return bytesRead;
+        new DataInputStream(is).readFully(buf);
+        position += buf.length;
+        return buf.length;
     }
     
 }
@@ -36,6 +36,9 @@ public class VrOutputStream implements VrWriter {
     private boolean isImplicit; // implicit VR syntax?
     private OutputStream os; // source input stream
     private long position; // current position in the stream
+    
+    // largest piece of an OW value swabbed at a time, see writeValue()
+    private static final int OW_CHUNK = 1 << 20;
         
     private final DicomDict dict = DicomDict.getDictionary();
     
@@ -177,22 +180,21 @@ public class VrOutputStream implements VrWriter {
             }
             // special case here for OW, since these values
             // will potentially be large. swab and write in
-            // chunks of manageable size, and without side-
-            // effects for the original value buffer.
+            // chunks of up to OW_CHUNK bytes, without side-
+            // effects for the original value buffer. A chunk
+            // is well over PDVOutputStream's direct write size,
+            // so it goes out in one gathered write instead of
+            // being copied again into the PDU buffer.
             else if (vrType == VR.OW) {
-                // this does not make a copy of buf
-                ByteArrayInputStream bis = new ByteArrayInputStream(buf);
-                
-                // do 4K chunks for now
-                byte[] chunk = new byte[4096];
-                while (bis.available() > 0) {
-                    // read into chunk buffer. really does an
-                    // ArrayCopy, so we won't harm original data
-                    // when we swab()
-                    int bytesRead = bis.read(chunk);
-                    swab(chunk, 2);
-                    os.write(chunk, 0, bytesRead);
-                    position += bytesRead;
+                byte[] chunk = new byte[Math.min(buf.length, OW_CHUNK)];
+                for (int offset=0; offset<buf.length; offset+=chunk.length) {
+                    int n = Math.min(chunk.length, buf.length - offset);
+                    for (int i=0; i<n; i+=2) {
+                        chunk[i] = buf[offset+i+1];
+                        chunk[i+1] = buf[offset+i];
+                    }
+                    os.write(chunk, 0, n);
+                    position += n;
                 }
                 return;
             }
@@ -209,6 +211,15 @@ public class VrOutputStream implements VrWriter {
     private void swab(byte[] buf, int radix)
     {
         if (buf.length < radix) return;
+        
+        if (radix == 2) {
+            for (int i=0; i<buf.length-1; i+=2) {
+                byte b = buf[i];
+                buf[i] = buf[i+1];
+                buf[i+1] = b;
+            }
+            return;
+        }
                 
         byte[] tmp;
         if (radix <= 8) {
@@ -229,6 +240,27 @@ public class VrOutputStream implements VrWriter {
         }
     }
             
+    // Tag, VR and length of a PixelData element whose value bytes are then
+    // copied unchanged from the source file by the caller. Encapsulated
+    // values are written with undefined length, the copied bytes include
+    // their items and the sequence delimitation.
+    public void writePixelDataHeader(VR vr, PixelDataHandle handle) throws IOException
+    {
+        long len = handle.isEncapsulated() ? 0xFFFFFFFFL : handle.getLength();
+        
+        writeUInt16(vr.getGroup());
+        writeUInt16(vr.getElement());
+        
+        if (!isImplicit) {
+            os.write(vr.getTypeBytes());
+            position += 2;
+            writeUInt16(0); // Reserved
+        }
+        writeUInt32(len);
+        
+        position += handle.getLength();
+    }
+    
     public void writeVR(VR vr) throws IOException
     {        
         int grp = vr.getGroup();
@@ -0,0 +1,196 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Tag storage for DicomObject. Elements are indexed by their 32 bit
+ * group/element id in an open addressed hash table for constant time
+ * lookup, and are also kept in a parallel array sorted by id so that
+ * writers and toString() still see the elements in DICOM tag order.
+ *
+ * @author jsnell
+ */
+class VrTable implements Serializable {
+    
+    private static final long serialVersionUID = -5120934474125368217L;
+    
+    private static final int INITIAL_CAPACITY = 64; // must be a power of 2
+    
+    // hash index, a null entry in slotValues marks an empty slot
+    private int[] slotKeys;
+    private VR[] slotValues;
+    private int slotMask;
+    
+    // elements in ascending (unsigned) tag order
+    private int[] sortedKeys;
+    private VR[] sortedValues;
+    private int count;
+    
+    VrTable() {
+        slotKeys = new int[INITIAL_CAPACITY];
+        slotValues = new VR[INITIAL_CAPACITY];
+        slotMask = INITIAL_CAPACITY - 1;
+        sortedKeys = new int[INITIAL_CAPACITY / 2];
+        sortedValues = new VR[INITIAL_CAPACITY / 2];
+        count = 0;
+    }
+    
+    int size() { return count; }
+    
+    VR get(int id) {
+        int slot = hash(id) & slotMask;
+        VR vr;
+        while ((vr = slotValues[slot]) != null) {
+            if (slotKeys[slot] == id) {
+                return vr;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        return null;
+    }
+    
+    boolean contains(int id) {
+        return get(id) != null;
+    }
+    
+    // Adds the element, replacing any existing element with the same tag.
+    // Returns the replaced element or null.
+    VR put(VR vr) {
+        int id = vr.getId();
+        
+        int slot = hash(id) & slotMask;
+        VR existing;
+        while ((existing = slotValues[slot]) != null) {
+            if (slotKeys[slot] == id) {
+                slotValues[slot] = vr;
+                sortedValues[sortedIndexOf(id)] = vr;
+                return existing;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        
+        slotKeys[slot] = id;
+        slotValues[slot] = vr;
+        
+        insertSorted(id, vr);
+        
+        // keep the load factor under 1/2
+        if (count * 2 > slotValues.length) {
+            rehash(slotValues.length * 2);
+        }
+        
+        return null;
+    }
+    
+    Iterator<VR> iterator() {
+        return new Iterator<VR>() {
+            private int next = 0;
+            
+            public boolean hasNext() {
+                return next < count;
+            }
+            
+            public VR next() {
+                if (next >= count) {
+                    throw new NoSuchElementException();
+                }
+                return sortedValues[next++];
+            }
+        };
+    }
+    
+    private void insertSorted(int id, VR vr) {
+        if (count == sortedKeys.length) {
+            int[] newKeys = new int[count * 2];
+            VR[] newValues = new VR[count * 2];
+            System.arraycopy(sortedKeys, 0, newKeys, 0, count);
+            System.arraycopy(sortedValues, 0, newValues, 0, count);
+            sortedKeys = newKeys;
+            sortedValues = newValues;
+        }
+        
+        // Elements almost always arrive in tag order from a stream,
+        // so check for the append case before searching
+        int index;
+        if (count == 0 || Integer.compareUnsigned(sortedKeys[count-1], id) < 0) {
+            index = count;
+        }
+        else {
+            index = -(sortedIndexOf(id) + 1);
+            System.arraycopy(sortedKeys, index, sortedKeys, index+1, count - index);
+            System.arraycopy(sortedValues, index, sortedValues, index+1, count - index);
+        }
+        
+        sortedKeys[index] = id;
+        sortedValues[index] = vr;
+        count++;
+    }
+    
+    // Binary search of the sorted keys, same return convention as
+    // java.util.Arrays.binarySearch
+    private int sortedIndexOf(int id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Integer.compareUnsigned(sortedKeys[mid], id);
+            if (cmp < 0) {
+                low = mid + 1;
+            }
+            else if (cmp > 0) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+    
+    private void rehash(int capacity) {
+        slotKeys = new int[capacity];
+        slotValues = new VR[capacity];
+        slotMask = capacity - 1;
+        
+        for (int i=0; i<count; i++) {
+            int slot = hash(sortedKeys[i]) & slotMask;
+            while (slotValues[slot] != null) {
+                slot = (slot + 1) & slotMask;
+            }
+            slotKeys[slot] = sortedKeys[i];
+            slotValues[slot] = sortedValues[i];
+        }
+    }
+    
+    // Tags within a group differ mostly in the low bits of the element
+    // number, so spread the group bits down before masking
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -63,6 +63,7 @@ public class Association {
    
    private int messageId=1;
    private long maxPDULength = 0;
+   private long receivePDULength = 0; // the maximum we announced, 0 is no limit
    private static final Logger logger = Logger.getGlobal();
 
       
@@ -80,6 +81,10 @@ public class Association {
    public void setMaxPDULength(long len) { maxPDULength = len; }
    public long getMaxPDULength() { return maxPDULength; }
    
+   // Longest PDU the peer may send us, longer ones are rejected
+   public void setReceivePDULength(long len) { receivePDULength = len; }
+   public long getReceivePDULength() { return receivePDULength; }
+   
    public UID getTransferSyntax(int ctxID) {
       Integer key = new Integer(ctxID);
       if (presentationContextSyntax.containsKey(key)) {
@@ -251,71 +256,19 @@ public class Association {
    }
    
    public void WriteMessage(DicomObject obj, int contextID) throws IOException {
-      int maxPayload = (int)(this.maxPDULength - 6); //subract 6 bytes for length(4), context id (1) and msg header (1)
-      int pdvlen = 0;
-      byte[] itemlen = new byte[4];
-      Iterator iter = obj.iterator();
-      ByteArrayOutputStream bos = new ByteArrayOutputStream((int)this.maxPDULength);
-      bos.write(itemlen);
-      bos.write(contextID);
-      bos.write(0x0); // message control header == Not last message fragment
-      // create a VrOutputStream with the negotiated Transfer Syntax for this Association
-      VrOutputStream vros = new VrOutputStream(bos, this.isLittleEndian(contextID), this.isImplicitVR(contextID));
-      byte[] pdubuf = new byte[(int)this.maxPDULength]; // pdu buffer to reuse while writing out the object
-      
-      while (iter.hasNext() || bos.size() > maxPDULength) {
-          
-         if (iter.hasNext()) {
-            VR vr = (VR)iter.next();
-            vros.writeVR(vr);
-         }
-         
-         // if the maximum PDU size has been exceeded, then write a PDU
-         // and reset the buffer and VR streams, initializing with the overage
-         if (bos.size() > maxPDULength) { // fix this later with real max PDU size
-            logger.log(Level.INFO, "pdu buffer size = " + bos.size());
-            
-            // probably a better way to avoid copying the array here
-            byte[] buf = bos.toByteArray();
-            System.arraycopy(buf, 0, pdubuf, 0, (int)maxPDULength);
-            PDU pdu = new PDU();
-            pdu.setType(PDU.P_DATA_TF);
-            pdvlen = pdubuf.length - 4;
-            pdubuf[0] = (byte)((pdvlen & 0xff000000) >>> 24);
-            pdubuf[1] = (byte)((pdvlen & 0xff0000) >>> 16);
-            pdubuf[2] = (byte)((pdvlen & 0xff00) >>> 8);
-            pdubuf[3] = (byte)(pdvlen & 0xff);
-            pdubuf[4] = (byte)(contextID & 0xff);
-            pdu.setBuffer(pdubuf);
-            logger.log(Level.INFO, "message fragment length = " + pdvlen);
-            logger.log(Level.INFO, "writing PDU - message fragment");
-            pdu.writePDU(os);
-            
-            // reinitialize the output streams
-            bos.reset();
-            bos.write(itemlen);
-            bos.write(contextID);
-            bos.write(0x0); // message control header == Not last message fragment
-            bos.write(buf, (int)maxPDULength, buf.length - (int)maxPDULength);
-            vros = new VrOutputStream(bos, this.isLittleEndian(contextID), this.isImplicitVR(contextID));
+      // create a VrOutputStream with the negotiated Transfer Syntax for this Association,
+      // encoding straight into the P-DATA-TF fragments
+      PDVOutputStream pdv = new PDVOutputStream(getPDUWriter(), contextID, false, sendPDULength());
+      try {
+         VrOutputStream vros = new VrOutputStream(pdv, this.isLittleEndian(contextID), this.isImplicitVR(contextID));
+         Iterator iter = obj.iterator();
+         while (iter.hasNext()) {
+            vros.writeVR((VR)iter.next());
          }
+         pdv.close(); // final message fragment
       }
-      // all VR's have been processed, now write the final (or only) data PDU
-      if (bos.size() > 0) {
-         PDU pdu = new PDU();
-         pdu.setType(PDU.P_DATA_TF);
-         byte[] bosbuf = bos.toByteArray();
-         pdvlen = bosbuf.length - 4;
-         logger.log(Level.INFO, "final message fragment length = " + pdvlen);
-         bosbuf[0] = (byte)((pdvlen & 0xff000000) >>> 24);
-         bosbuf[1] = (byte)((pdvlen & 0xff0000) >>> 16);
-         bosbuf[2] = (byte)((pdvlen & 0xff00) >>> 8);
-         bosbuf[3] = (byte)(pdvlen & 0xff);
-         bosbuf[4] = (byte)(contextID & 0xff);
-         bosbuf[5] = (byte)(0x2);
-         pdu.setBuffer(bosbuf);
-         logger.log(Level.INFO, "writing PDU - final message fragment");
-         pdu.writePDU(os);
+      finally {
+         pdv.release();
       }
    }
    
@@ -334,87 +287,64 @@ public class Association {
          VR vr = (VR)iter.next();
          vros.writeVR(vr);
       }
-      byte[] cmdbuf = bos.toByteArray();
-      VR groupTag = new VR("CommandGroupLength", new DicomNumber(cmdbuf.length));
-      
-      // prepend the CommandGroupLength tag to the command elements in a new buffer
-      bos.reset();
-      vros.setDest(bos);
-      vros.writeVR(groupTag);
-      bos.write(cmdbuf);
-      cmdbuf = bos.toByteArray();
-      
-      int cmdlen = cmdbuf.length;
-      int bytesleft = cmdlen;
-      int offset = 0;
+      VR groupTag = new VR("CommandGroupLength", new DicomNumber(bos.size()));
       
-      int maxPayload = (int)maxPDULength - 6; // (maxPDULength - length(4 bytes) -  presentationContext(1 byte) - header(1 byte)
-      
-      while (bytesleft > 0) {
-         ByteArrayOutputStream fragmentBuf = new ByteArrayOutputStream(256);
-         
-         // write the message header
-         ////////////////////////////////////
-         
-         // calc the PDU length
-         int pduLength = Math.min(maxPayload, bytesleft);
-         
-         // write the length
-         int pdvlen = pduLength+2;
-         fragmentBuf.write((pdvlen & 0xff000000) >>> 24);
-         fragmentBuf.write((pdvlen & 0xff0000) >>> 16);
-         fragmentBuf.write((pdvlen & 0xff00) >>> 8);
-         fragmentBuf.write( pdvlen & 0xff);
-         
-         // write the presentation context id
-         fragmentBuf.write(contextId);
-         
-         // write the message control header (1 byte)
-         if (bytesleft > maxPayload) {
-            fragmentBuf.write(0x01); // Command, not last fragment
-         }
-         else {
-            fragmentBuf.write(0x03); // Command, last fragment
-         }
-         
-         // write the payload
-         byte[] pdubuf = new byte[pduLength];
-         System.arraycopy(cmdbuf, offset, pdubuf, 0, pduLength);
-         fragmentBuf.write(pdubuf);
-         
-         // write the PDU
-         PDU pdu = new PDU();
-         pdu.setType(PDU.P_DATA_TF);
-         pdu.setBuffer(fragmentBuf.toByteArray());
-         pdu.writePDU(this.os);
-         
-         bytesleft -= pduLength;
-         offset += pduLength;
+      // the CommandGroupLength tag goes ahead of the command elements
+      PDVOutputStream pdv = new PDVOutputStream(getPDUWriter(), contextId, true, sendPDULength());
+      try {
+         vros.setDest(pdv);
+         vros.writeVR(groupTag);
+         bos.writeTo(pdv);
+         pdv.close(); // last command fragment
+      }
+      finally {
+         pdv.release();
       }
       
       return this.messageId++;
    }
-     
-   private InputStream currentPduStream = null;
-   private PDU getNextPduItem() throws IOException {
-      if (currentPduStream == null || currentPduStream.available() <= 0) {
-         byte[] tmp = PDU.readPDU(this.is, PDU.P_DATA_TF);
-         currentPduStream = new ByteArrayInputStream(tmp);
+   
+   private PDUWriter pduWriter = null;
+   
+   private PDUWriter getPDUWriter() {
+      if (pduWriter == null) {
+         pduWriter = new PDUWriter(os);
       }
-      
-      return PDU.readItem(currentPduStream);
+      return pduWriter;
+   }
+   
+   // The negotiated maximum PDU length, or our own if none was negotiated,
+   // but no more than 1 MB. Each message takes a fragment buffer of this
+   // size from PDUBufferPool, and a peer that accepts PDUs of any length
+   // gains nothing from larger ones.
+   private static final int MAX_SEND_PDU_LENGTH = 1 << 20;
+   
+   private int sendPDULength() {
+      long length = maxPDULength > 0 ? maxPDULength : AssociationRequest.DEFAULT_MAX_PDU_LENGTH;
+      return (int)Math.min(length, MAX_SEND_PDU_LENGTH);
+   }
+     
+   private PDUReader pdus = null;
+   
+   // Created on first use, the buffer is sized for the largest PDU we said
+   // we would receive. It grows for larger PDUs when we announced no limit
+   // or one over 16 MB.
+   private PDUReader getPDUReader() {
+      if (pdus == null) {
+         pdus = new PDUReader(is, receivePDULength > 0 ? (int)Math.min(receivePDULength, 1 << 24) : 32768, receivePDULength);
+      }
+      return pdus;
    }
    
    public DicomObject ReadCommand(int contextId) throws IOException {
       ByteArrayOutputStream cmdBuffer = new ByteArrayOutputStream();
+      PDUReader reader = getPDUReader();
       
       while(true) {
-         PDU p = getNextPduItem();
+         reader.nextDataItem();
          
-         byte itemBuf[] = p.getBuffer();
-         
-         int ctxID = itemBuf[0] & 0xff; // Context ID
-         logger.log(Level.INFO, "Context ID: " + itemBuf[0]);
+         int ctxID = reader.getItemContextID();
+         logger.log(Level.FINE, "Context ID: {0}", ctxID);
          
          // if contextId is <= 0 then treat as "don't care"
          // otherwise enforce the expectation of a particular
@@ -424,19 +354,15 @@ public class Association {
             break;
          }
          
-         if ((itemBuf[1] & 0x1) == 0x1) { // Command Fragment
-            logger.log(Level.INFO, "Command");
-            cmdBuffer.write(itemBuf, 2, itemBuf.length - 2);
-            if ((itemBuf[1] & 0x2) == 0x2) {
-               logger.log(Level.INFO, "Last command fragment");
+         if (reader.isCommandItem()) { // Command Fragment
+            reader.copyItem(cmdBuffer);
+            if (reader.isLastItem()) {
+               logger.log(Level.FINE, "Last command fragment");
                ByteArrayInputStream cmdbytes = new ByteArrayInputStream(cmdBuffer.toByteArray());
                DicomObjectReader ord = new DicomObjectReader(cmdbytes);
                DicomObject cmd = ord.read();
                return cmd;
             }
-            else {
-               //                logger.info("Not Last");
-            }
          } // end if command fragment
          else {
             logger.log(Level.INFO, "Not a command, or erroneous message control header");
@@ -450,165 +376,157 @@ public class Association {
    }
    
    public DicomObject ReadMessage(int contextId) throws IOException {
-      ByteArrayOutputStream msgBuffer = new ByteArrayOutputStream();
+      PDUReader reader = getPDUReader();
+      reader.nextDataItem();
       
-      while(true) {
-         PDU p = getNextPduItem();
-         
-         byte itemBuf[] = p.getBuffer();
-         
-         int ctxID = itemBuf[0] & 0xff; // Context ID
-         logger.log(Level.INFO, "Context ID: " + itemBuf[0]);
-         
-         // if contextId is <= 0 then treat as "don't care"
-         // otherwise enforce the expectation of a particular
-         // presentation context id
-         if (contextId > 0 && ctxID != contextId) {
-            logger.log(Level.SEVERE, "Unexpected presentation context");
-            break;
-         }
-         
-         logger.log(Level.INFO, "Message Control Header = " + (itemBuf[1] & 0xff));
-         
-         if ((itemBuf[1] & 0x1) == 0x0) { // Message Fragment
-            logger.log(Level.INFO, "Command");
-            msgBuffer.write(itemBuf, 2, itemBuf.length - 2);
-            if ((itemBuf[1] & 0x2) == 0x2) {
-               logger.log(Level.INFO, "Last message fragment");
-               ByteArrayInputStream msgbytes = new ByteArrayInputStream(msgBuffer.toByteArray());
-               DicomObjectReader ord = new DicomObjectReader(msgbytes);
-               DicomObject msg = ord.read();
-               return msg;
-            }
-            else {
-               //                logger.info("Not Last");
-            }
-         } // end if command fragment
-         else {
-            logger.log(Level.SEVERE, "Not a message dataset, or erroneous message control header");
-            break;
-         }
-         
-      } // end while
+      int ctxID = reader.getItemContextID();
+      logger.log(Level.FINE, "Context ID: {0}", ctxID);
       
-      return null;
-   }
-   
-   private class PDUBufferedPipedInputStream extends PipedInputStream {
-      //subclass PipedInputStream with a buffer big enough to hold at least one PDU
-      PDUBufferedPipedInputStream(PipedOutputStream p) throws IOException { super(p); buffer = new byte[32768];}
+      // if contextId is <= 0 then treat as "don't care"
+      // otherwise enforce the expectation of a particular
+      // presentation context id
+      if (contextId > 0 && ctxID != contextId) {
+         logger.log(Level.SEVERE, "Unexpected presentation context");
+         return null;
+      }
+      
+      if (reader.isCommandItem()) {
+         logger.log(Level.SEVERE, "Not a message dataset, or erroneous message control header");
+         return null;
+      }
+      
+      // Parse the data set straight out of the PDU buffer
+      PDVInputStream pdv = new PDVInputStream(reader);
+      DicomObjectReader ord = new DicomObjectReader(new VrInputStream(pdv, this.isLittleEndian(ctxID), this.isImplicitVR(ctxID)));
+      DicomObject msg = ord.read();
+      pdv.drain();
+      return msg;
    }
    
    public void Receive() throws IOException {
      
       ByteArrayOutputStream cmdBuffer = new ByteArrayOutputStream();
-      //PipedOutputStream tpos = new PipedOutputStream();
-      
-      CircularByteBuffer circBuffer = new CircularByteBuffer(32768 * 32); // TODO: Reasonable sized buffer? Needs to be auto-resizing?
-      circBuffer.clear();
+      PDUReader reader = getPDUReader();
       
-      OutputStream pos = circBuffer.getOutputStream(); //new BufferedOutputStream(tpos);
-      InputStream pis  = circBuffer.getInputStream(); //new BufferedInputStream(new PDUBufferedPipedInputStream(tpos));
-      
-      
-      //Pipe threadPipe = Pipe.open();
-      
-     Thread providerThread = null;
+      // Dataset being streamed to a StreamingServiceClassProvider
+      StreamingServiceClassProvider streamingProvider = null;
+      DicomObject streamingCommand = null;
+      OutputStream datasetStream = null;
+      int streamingCtxID = 0;
 
+      try {
       while(true) {
          
-         logger.log(Level.INFO, "reading pdu...");
-         PDU pdu = PDU.readPDU(is);
-         logger.log(Level.INFO, "PDU size: " + pdu.size());
-         byte tmp[] = pdu.getBuffer();
+         int pduType = reader.read();
+         logger.log(Level.FINE, "PDU type {0}, size {1}", new Object[] {pduType, reader.getBody().remaining()});
          
-         if (pdu.getType() == PDU.A_ABORT) {
+         if (pduType == PDU.A_ABORT) {
             //sendReleaseRp();
             logger.log(Level.WARNING, "Got A-ABORT");
             return;
          }
-         else if (pdu.getType() == PDU.A_RELEASE_RQ) {
+         else if (pduType == PDU.A_RELEASE_RQ) {
             sendReleaseRp();
             logger.info("Got association release req");
             return;
          }
-         else if (pdu.getType() == PDU.A_RELEASE_RP) {
+         else if (pduType == PDU.A_RELEASE_RP) {
             logger.info("Got association release rep");
             return;
          }
-         else if (pdu.getType() == PDU.P_DATA_TF) {
+         else if (pduType == PDU.P_DATA_TF) {
             
-            DataInputStream pdvBuf = new DataInputStream(new ByteArrayInputStream(tmp));
-            
-            while (pdvBuf.available() > 0) {
-               PDU p = PDU.readItem(pdvBuf);
-               
-               byte itemBuf[] = p.getBuffer();
+            while (reader.nextItem()) {
                
-               int ctxID = itemBuf[0] & 0xff; // Context ID
-               logger.log(Level.INFO, "Context ID: " + itemBuf[0]);
+               int ctxID = reader.getItemContextID(); // Context ID
                
-               if ((itemBuf[1] & 0x1) == 0x1) { // Command Fragment
-                  logger.log(Level.INFO, "Command");
-                  cmdBuffer.write(itemBuf, 2, itemBuf.length - 2);
-                  if ((itemBuf[1] & 0x2) == 0x2) {
-                     logger.log(Level.INFO, "Last");
-                     logger.log(Level.INFO, "Sending stream to the service.");
+               if (reader.isCommandItem()) { // Command Fragment
+                  reader.copyItem(cmdBuffer);
+                  if (reader.isLastItem()) {
                      ByteArrayInputStream cmdbytes = new ByteArrayInputStream(cmdBuffer.toByteArray());
                      DicomObjectReader ord = new DicomObjectReader(cmdbytes);
                      DicomObject cmd = ord.read();
-                     ServiceClassProvider provider = this.getContextProvider((int)itemBuf[0]);
-                     if (provider != null)
-                        providerThread = provider.ProcessCommand(this, ctxID, cmd, new VrInputStream(pis, this.isLittleEndian(ctxID), this.isImplicitVR(ctxID)));
                      
                      // Reset the command accumulation buffer
                      cmdBuffer.reset();
-                  }
-                  else {
-                     //                logger.info("Not Last");
-                  }
-               }
-               else { // Message Fragment
-                  logger.log(Level.INFO, "Message fragment - " + itemBuf.length);
-                  try {
-                     logger.log(Level.INFO, "writing fragment to service");
-                     pos.write(itemBuf, 2, itemBuf.length - 2);
-                     logger.log(Level.INFO, "done writing");
-                  }
-                  catch (Exception e) {
-                     System.out.println(e);
-                  }
-                  
-                  if ((itemBuf[1] & 0x2) == 0x2) {
-                     logger.log(Level.INFO, "Last");
-                     logger.log(Level.INFO, "Closing message stream.");
-                     pos.close();
-               //      tpos = new PipedOutputStream();
-               //      pos = new BufferedOutputStream(tpos);
-               //      pis = new BufferedInputStream(new PDUBufferedPipedInputStream(tpos));
-                     try {
-                        if (providerThread != null) {
-                           providerThread.join();
+                     
+                     VR dataSetType = cmd.getVR("DataSetType");
+                     boolean hasDataset = dataSetType == null || dataSetType.getIntValue() != 0x0101;
+                     
+                     ServiceClassProvider provider = this.getContextProvider(ctxID);
+                     if (provider instanceof StreamingServiceClassProvider) {
+                        streamingProvider = (StreamingServiceClassProvider)provider;
+                        streamingCommand = cmd;
+                        streamingCtxID = ctxID;
+                        if (!hasDataset) {
+                           streamingProvider.endDataset(this, ctxID, cmd, null);
+                           streamingProvider = null;
+                        }
+                        else {
+                           datasetStream = streamingProvider.beginDataset(this, ctxID, cmd);
                         }
                      }
-                     catch (InterruptedException e) {
+                     else if (provider != null) {
+                        // The provider reads the data set on this thread,
+                        // pulling fragments from the PDU buffer as it goes
+                        PDVInputStream pdv = null;
+                        InputStream message;
+                        if (hasDataset) {
+                           reader.nextDataItem();
+                           pdv = new PDVInputStream(reader);
+                           message = pdv;
+                        }
+                        else {
+                           message = new ByteArrayInputStream(new byte[0]);
+                        }
+                        
+                        Thread providerThread = provider.ProcessCommand(this, ctxID, cmd, new VrInputStream(message, this.isLittleEndian(ctxID), this.isImplicitVR(ctxID)));
+                        if (providerThread != null) {
+                           try {
+                              providerThread.join();
+                           }
+                           catch (InterruptedException e) {
+                              throw new InterruptedIOException();
+                           }
+                        }
+                        
+                        if (pdv != null) {
+                           pdv.drain();
+                        }
                      }
-                     providerThread = null;
-                     circBuffer.clear();
-                    
                   }
-                  else {
-                     //                logger.info("Not Last");
+               }
+               else if (datasetStream != null) { // Message Fragment for a streaming provider
+                  reader.copyItem(datasetStream);
+                  
+                  if (reader.isLastItem()) {
+                     OutputStream dataset = datasetStream;
+                     datasetStream = null;
+                     streamingProvider.endDataset(this, streamingCtxID, streamingCommand, dataset);
+                     streamingProvider = null;
+                     streamingCommand = null;
                   }
                }
+               else { // Message Fragment with no provider to take it
+                  logger.log(Level.WARNING, "Dropping message fragment on presentation context " + ctxID);
+               }
             }
          }
          else { // Some unknown or unexpected PDU type
             sendAbort(true, 0);
-            logger.log(Level.WARNING, "Some unknown or unexpected PDU type: [" + pdu.getType() + "] Dropping Association.");
+            logger.log(Level.WARNING, "Some unknown or unexpected PDU type: [" + pduType + "] Dropping Association.");
             return;
          }
       } // end outer while
+      }
+      finally {
+         if (datasetStream != null) {
+            streamingProvider.abortDataset(this, streamingCtxID, streamingCommand, datasetStream);
+         }
+         
+         reader.close();
+         pdus = null;
+      }
    }
    
 }
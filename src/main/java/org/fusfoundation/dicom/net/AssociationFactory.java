@@ -107,11 +107,12 @@ public class AssociationFactory {
          
          assoc.calledAETitle = req.getCalledAETitle();
          assoc.callingAETitle = req.getCallingAETitle();
-         assoc.setMaxPDULength(req.getMaxPDULength());
+         assoc.setMaxPDULength(req.getSendPDULength());
+         assoc.setReceivePDULength(req.getMaxPDULength());
          
          logger.log(Level.INFO, "Called AET: " + req.getCalledAETitle());
          logger.log(Level.INFO, "Calling AET: " + req.getCallingAETitle());
-         logger.log(Level.INFO, "Max PDU length: " + req.getMaxPDULength());
+         logger.log(Level.INFO, "Max PDU length: " + req.getSendPDULength());
          
          Collection pcs = req.getPresentationContexts();
          iter = pcs.iterator();
@@ -172,7 +173,8 @@ public class AssociationFactory {
          // send the results back to the association requestor
          req.writeResponse(ostream);
          
-         assoc.setMaxPDULength(req.getMaxPDULength());
+         assoc.setMaxPDULength(req.getSendPDULength());
+         assoc.setReceivePDULength(req.getMaxPDULength());
          
          // return the new association
          return assoc;
@@ -213,7 +215,7 @@ public class AssociationFactory {
                   Iterator iter = result.iterator();
                   while (iter.hasNext()) {
                      DicomObject record = (DicomObject)iter.next();
-                     System.out.println( record.getVR("PatientsName").getValue() + " - ID:" + record.getVR("PatientID").getValue()  + " DOB: " + record.getVR("PatientsBirthDate").getValue());
+                     System.out.println( record.getVR("PatientName").getValue() + " - ID:" + record.getVR("PatientID").getValue()  + " DOB: " + record.getVR("PatientBirthDate").getValue());
                      
                      String patientID = record.getVR("PatientID").getValue().toString();
                      
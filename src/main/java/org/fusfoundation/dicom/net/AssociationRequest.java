@@ -46,13 +46,18 @@ public class AssociationRequest {
    private String callingImplementationUID = "";
    private String callingImplementationVersionName = "";
    private ArrayList presentationContexts;
-   private long maxPDULength = 32768;
+   
+   // Largest PDU body we accept, announced in our request or response
+   public static final long DEFAULT_MAX_PDU_LENGTH = 4 * 1024 * 1024;
+   
+   private long maxPDULength = DEFAULT_MAX_PDU_LENGTH;
+   private long peerMaxPDULength = 0; // 0 is no limit
    
    static final private Logger logger = Logger.getGlobal();;
 
    
    public AssociationRequest() {
-      maxPDULength = 32768;
+      maxPDULength = DEFAULT_MAX_PDU_LENGTH;
       presentationContexts = new ArrayList();
    }
    
@@ -65,6 +70,14 @@ public class AssociationRequest {
    public String getAppContextName() { return appContextName; }
    public String callingImplementationVersionName() { return callingImplementationVersionName; }
    public long getMaxPDULength() { return maxPDULength; }
+   public void setMaxPDULength(long val) { maxPDULength = val; }
+   public long getPeerMaxPDULength() { return peerMaxPDULength; }
+   
+   // Largest PDU body to send once negotiated: the smaller of the two
+   // limits, or ours if the peer announced no limit
+   public long getSendPDULength() {
+      return peerMaxPDULength > 0 ? Math.min(peerMaxPDULength, maxPDULength) : maxPDULength;
+   }
    
    private static class ScpScuRoleSelectionItem {
       protected static final int typeID = 0x0054;
@@ -295,9 +308,9 @@ public class AssociationRequest {
                maxLen = maxLen << 8 | tmp[2] & 0xff;
                maxLen = maxLen << 8 | tmp[3] & 0xff;
                
-               maxPDULength = Math.min(maxLen, maxPDULength);
+               peerMaxPDULength = maxLen;
                
-               logger.info("Maximum length = " + maxPDULength);
+               logger.info("Maximum length = " + peerMaxPDULength);
             }
             else if (userDataSubItem.getType() == 0x52) { // Calling Implementation UID
                byte tmp[] = userDataSubItem.getBuffer();
@@ -413,9 +426,9 @@ public class AssociationRequest {
                maxLen = maxLen << 8 | tmp[2] & 0xff;
                maxLen = maxLen << 8 | tmp[3] & 0xff;
                
-               maxPDULength = Math.min(maxLen, maxPDULength);
+               peerMaxPDULength = maxLen;
                
-               logger.info("Maximum length = " + maxPDULength);
+               logger.info("Maximum length = " + peerMaxPDULength);
             }
             else if (userDataSubItem.getType() == 0x52) { // Calling Implementation UID
                byte tmp[] = userDataSubItem.getBuffer();
@@ -586,6 +599,7 @@ public class AssociationRequest {
       
       // Association AC item bytes
       dos.write(buffer.toByteArray());
+      dos.flush();
       
       logger.info("Association AC len = " + buffer.size());
       
@@ -0,0 +1,71 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom.net;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Unbuffered InputStream view of a blocking SocketChannel for the thread
+ * running an association. It is also a ReadableByteChannel, so PDUReader
+ * reads whole PDUs straight into its buffer. Used on both ends, by
+ * StorageServer for the associations it accepts and by RetrievalEngine for
+ * the ones it opens.
+ *
+ * @author  jsnell
+ */
+class ChannelInputStream extends InputStream implements ReadableByteChannel {
+   private final SocketChannel channel;
+   
+   ChannelInputStream(SocketChannel channel) { this.channel = channel; }
+   
+   public int read() throws IOException {
+      byte[] b = new byte[1];
+      return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+   }
+   
+   public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+         return 0;
+      }
+      return channel.read(ByteBuffer.wrap(b, off, len));
+   }
+   
+   public int read(ByteBuffer dst) throws IOException {
+      return channel.read(dst);
+   }
+   
+   // Lets a provider that is writing responses look for a C-CANCEL
+   public int available() throws IOException {
+      return channel.socket().getInputStream().available();
+   }
+   
+   public boolean isOpen() {
+      return channel.isOpen();
+   }
+}
+
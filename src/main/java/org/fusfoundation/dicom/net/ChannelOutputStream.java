@@ -0,0 +1,94 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom.net;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * OutputStream view of a blocking SocketChannel for the thread running an
+ * association. Unlike Channels.newOutputStream() it is also a
+ * GatheringByteChannel, so PDUWriter can send a PDU header and its data in
+ * one write. Small writes, PDU.writePDU() writes headers a byte at a time,
+ * are collected until flush(). Gathering writes go to the channel after
+ * whatever is buffered.
+ *
+ * @author  jsnell
+ */
+class ChannelOutputStream extends OutputStream implements GatheringByteChannel {
+   private final SocketChannel channel;
+   private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+   
+   ChannelOutputStream(SocketChannel channel) { this.channel = channel; }
+   
+   public void write(int b) throws IOException {
+      if (!buffer.hasRemaining()) {
+         flush();
+      }
+      buffer.put((byte)b);
+   }
+   
+   public void write(byte[] b, int off, int len) throws IOException {
+      if (len <= buffer.remaining()) {
+         buffer.put(b, off, len);
+         return;
+      }
+      
+      flush();
+      writeFully(ByteBuffer.wrap(b, off, len));
+   }
+   
+   public void flush() throws IOException {
+      buffer.flip();
+      writeFully(buffer);
+      buffer.clear();
+   }
+   
+   public int write(ByteBuffer src) throws IOException {
+      flush();
+      return channel.write(src);
+   }
+   
+   public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+      flush();
+      return channel.write(srcs, offset, length);
+   }
+   
+   public long write(ByteBuffer[] srcs) throws IOException {
+      return write(srcs, 0, srcs.length);
+   }
+   
+   public boolean isOpen() {
+      return channel.isOpen();
+   }
+   
+   private void writeFully(ByteBuffer buf) throws IOException {
+      while (buf.hasRemaining()) {
+         channel.write(buf);
+      }
+   }
+}
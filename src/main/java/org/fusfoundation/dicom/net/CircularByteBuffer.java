@@ -30,10 +30,32 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.EOFException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.BufferOverflowException;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Description of CircularByteBuffer.
+ *
+ * get() and put(), single byte or bulk, never block. The bulk forms copy
+ * the wrapped contents as at most two contiguous segments with
+ * System.arraycopy. One producer thread and one consumer thread may use
+ * them at the same time without locking, the read and write counts are
+ * volatile and each is only written by its own side.
+ *
+ * The streams block, the InputStream until there is data or the
+ * OutputStream is closed, the OutputStream until there is room. By default
+ * they lock the buffer once per read() or write() call and wait with
+ * wait/notifyAll, so any number of threads can share them. A buffer made
+ * with singleProducerSingleConsumer set takes no locks at all and parks
+ * the waiting thread instead; then only one thread may read and one may
+ * write. The OutputStream is also a blocking WritableByteChannel, for
+ * writing straight from a ByteBuffer.
+ *
+ * StorageService hands each C-STORE data set from the association thread
+ * to a disk writer thread through one, in single producer/single consumer
+ * mode.
  */
 public class CircularByteBuffer {
 
@@ -44,97 +66,451 @@ public class CircularByteBuffer {
      */
 
     public CircularByteBuffer(int size) {
+        this(size, false);
+    }
+
+    /**
+     * Constructs the CircularByteBuffer.
+     *
+     * @param size
+     * @param singleProducerSingleConsumer  lock-free streams for exactly one
+     *        reading and one writing thread
+     */
+    public CircularByteBuffer(int size, boolean singleProducerSingleConsumer) {
         this.size = size;
+        this.lockFree = singleProducerSingleConsumer;
         buf = new byte[size];
+        inputStream = new CircularByteBufferInputStream();
+        outputStream = new CircularByteBufferOutputStream();
     }
 
     private final int size;
 
     private final byte[] buf;
 
-    private int length;
+    private final boolean lockFree;
+
+    // Totals of bytes ever put and taken. Positions in buf are these mod size.
+    private volatile long putCount;
+
+    private volatile long getCount;
+
+    private volatile boolean writerClosed;
+
+    private volatile boolean readerClosed;
 
-    private int nextGet;
+    // lock-free mode: a thread parked until the other side makes progress
+    private volatile Thread waitingReader;
 
-    private int nextPut;
+    private volatile Thread waitingWriter;
 
     public int size() {
         return size;
     }
 
     public int length() {
-        return length;
+        return (int)(putCount - getCount);
     }
 
+    // Only while neither stream is in use
     public synchronized void clear() {
-        length = 0;
-        nextGet = 0;
-        nextPut = 0;
+        putCount = 0;
+        getCount = 0;
+        writerClosed = false;
+        readerClosed = false;
     }
 
     public boolean isEmpty() {
-        return length <= 0;
+        return length() <= 0;
     }
 
     public boolean isFull() {
-        return length >= size;
+        return length() >= size;
+    }
+
+    public boolean isSingleProducerSingleConsumer() {
+        return lockFree;
     }
 
     public byte get() throws EOFException {
-        if (isEmpty()) {
+        long g = getCount;
+        if (putCount == g) {
             throw new EOFException();
         }
 
-        length--;
-        byte b = buf[nextGet++];
-        if (nextGet >= size) {
-            nextGet = 0;
-        }
+        byte b = buf[(int)(g % size)];
+        getCount = g + 1;
         return b;
     }
 
     public void put(byte b) throws BufferOverflowException {
-        if (isFull()) {
+        long p = putCount;
+        if (p - getCount >= size) {
             throw new BufferOverflowException();
         }
 
-        length++;
-        buf[nextPut++] = b;
-        if (nextPut >= size) {
-            nextPut = 0;
+        buf[(int)(p % size)] = b;
+        putCount = p + 1;
+    }
+
+    /**
+     * Takes up to len bytes without blocking.
+     *
+     * @return the number of bytes copied to dst, 0 if the buffer is empty
+     */
+    public int get(byte[] dst, int off, int len) {
+        long g = getCount;
+        int n = (int)Math.min(len, putCount - g);
+        if (n <= 0) {
+            return 0;
+        }
+
+        int pos = (int)(g % size);
+        int first = Math.min(n, size - pos);
+        System.arraycopy(buf, pos, dst, off, first);
+        if (n > first) {
+            System.arraycopy(buf, 0, dst, off + first, n - first);
+        }
+        getCount = g + n;
+        return n;
+    }
+
+    /**
+     * Puts up to len bytes without blocking.
+     *
+     * @return the number of bytes copied from src, 0 if the buffer is full
+     */
+    public int put(byte[] src, int off, int len) {
+        long p = putCount;
+        int n = (int)Math.min(len, size - (p - getCount));
+        if (n <= 0) {
+            return 0;
+        }
+
+        int pos = (int)(p % size);
+        int first = Math.min(n, size - pos);
+        System.arraycopy(src, off, buf, pos, first);
+        if (n > first) {
+            System.arraycopy(src, off + first, buf, 0, n - first);
+        }
+        putCount = p + n;
+        return n;
+    }
+
+    /**
+     * Takes as many bytes as are available and fit in dst's remaining space.
+     *
+     * @return the number of bytes transferred
+     */
+    public int get(ByteBuffer dst) {
+        long g = getCount;
+        int n = (int)Math.min(dst.remaining(), putCount - g);
+        if (n <= 0) {
+            return 0;
+        }
+
+        int pos = (int)(g % size);
+        int first = Math.min(n, size - pos);
+        dst.put(buf, pos, first);
+        if (n > first) {
+            dst.put(buf, 0, n - first);
+        }
+        getCount = g + n;
+        return n;
+    }
+
+    /**
+     * Puts as many of src's remaining bytes as there is room for.
+     *
+     * @return the number of bytes transferred
+     */
+    public int put(ByteBuffer src) {
+        long p = putCount;
+        int n = (int)Math.min(src.remaining(), size - (p - getCount));
+        if (n <= 0) {
+            return 0;
+        }
+
+        int pos = (int)(p % size);
+        int first = Math.min(n, size - pos);
+        src.get(buf, pos, first);
+        if (n > first) {
+            src.get(buf, 0, n - first);
+        }
+        putCount = p + n;
+        return n;
+    }
+
+    // Waiting in lock-free mode. The waiter publishes itself before checking
+    // again, the other side updates its count before looking for a waiter,
+    // so one of them always sees the other.
+    private void parkReader() throws InterruptedIOException {
+        waitingReader = Thread.currentThread();
+        if (isEmpty() && !writerClosed) {
+            LockSupport.park(this);
+        }
+        waitingReader = null;
+        if (Thread.interrupted()) {
+            throw new InterruptedIOException();
+        }
+    }
+
+    private void parkWriter() throws InterruptedIOException {
+        waitingWriter = Thread.currentThread();
+        if (isFull() && !readerClosed) {
+            LockSupport.park(this);
+        }
+        waitingWriter = null;
+        if (Thread.interrupted()) {
+            throw new InterruptedIOException();
+        }
+    }
+
+    // Clearing the field keeps a producer from unparking the reader again
+    // for every byte until it gets to run
+    private void wakeReader() {
+        Thread t = waitingReader;
+        if (t != null) {
+            waitingReader = null;
+            LockSupport.unpark(t);
+        }
+    }
+
+    private void wakeWriter() {
+        Thread t = waitingWriter;
+        if (t != null) {
+            waitingWriter = null;
+            LockSupport.unpark(t);
+        }
+    }
+
+    private void await() throws InterruptedIOException {
+        try {
+            wait();
+        }
+        catch (InterruptedException e) {
+            throw new InterruptedIOException();
         }
     }
 
-    // reasonalby thread safe access via Input/Output Streams
+    // Blocking access via Input/Output Streams. Reads return -1 once the
+    // OutputStream is closed and the buffer is drained. Writes fail once
+    // the InputStream is closed. In locked mode readers only wait on an
+    // empty buffer and writers on a full one, so only those transitions
+    // need a notifyAll().
     private class CircularByteBufferInputStream extends InputStream {
 
         @Override
         public int read() throws IOException {
+            if (lockFree) {
+                while (isEmpty()) {
+                    if (writerClosed && isEmpty()) {
+                        return -1;
+                    }
+                    parkReader();
+                }
+                int b = get() & 0xff;
+                wakeWriter();
+                return b;
+            }
+
+            synchronized (CircularByteBuffer.this) {
+                while (isEmpty()) {
+                    if (writerClosed) {
+                        return -1;
+                    }
+                    await();
+                }
+                boolean wasFull = isFull();
+                int b = get() & 0xff;
+                if (wasFull) {
+                    CircularByteBuffer.this.notifyAll();
+                }
+                return b;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+
+            int n;
+            if (lockFree) {
+                while ((n = get(b, off, len)) == 0) {
+                    if (writerClosed && isEmpty()) {
+                        return -1;
+                    }
+                    parkReader();
+                }
+                wakeWriter();
+                return n;
+            }
+
             synchronized (CircularByteBuffer.this) {
-                return get();
+                boolean wasFull;
+                while (true) {
+                    wasFull = isFull();
+                    if ((n = get(b, off, len)) > 0) {
+                        break;
+                    }
+                    if (writerClosed) {
+                        return -1;
+                    }
+                    await();
+                }
+                if (wasFull) {
+                    CircularByteBuffer.this.notifyAll();
+                }
+                return n;
             }
         }
 
         @Override
         public int available() throws IOException {
-            return length;
+            return length();
+        }
+
+        @Override
+        public void close() {
+            readerClosed = true;
+            if (lockFree) {
+                wakeWriter();
+            }
+            else {
+                synchronized (CircularByteBuffer.this) {
+                    CircularByteBuffer.this.notifyAll();
+                }
+            }
         }
 
     }
 
-    private class CircularByteBufferOutputStream extends OutputStream {
+    private class CircularByteBufferOutputStream extends OutputStream implements WritableByteChannel {
 
         @Override
         public void write(int b) throws IOException {
+            if (lockFree) {
+                while (isFull()) {
+                    checkReader();
+                    parkWriter();
+                }
+                checkReader();
+                put((byte) (b & 0xff));
+                wakeReader();
+                return;
+            }
+
             synchronized (CircularByteBuffer.this) {
+                while (isFull()) {
+                    checkReader();
+                    await();
+                }
+                checkReader();
+                boolean wasEmpty = isEmpty();
                 put((byte) (b & 0xff));
+                if (wasEmpty) {
+                    CircularByteBuffer.this.notifyAll();
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (lockFree) {
+                while (len > 0) {
+                    checkReader();
+                    int n = put(b, off, len);
+                    if (n == 0) {
+                        parkWriter();
+                        continue;
+                    }
+                    off += n;
+                    len -= n;
+                    wakeReader();
+                }
+                return;
+            }
+
+            synchronized (CircularByteBuffer.this) {
+                while (len > 0) {
+                    checkReader();
+                    boolean wasEmpty = isEmpty();
+                    int n = put(b, off, len);
+                    if (n == 0) {
+                        await();
+                        continue;
+                    }
+                    off += n;
+                    len -= n;
+                    if (wasEmpty) {
+                        CircularByteBuffer.this.notifyAll();
+                    }
+                }
+            }
+        }
+
+        // Blocks until all of src has been put
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            int total = src.remaining();
+            if (lockFree) {
+                while (src.hasRemaining()) {
+                    checkReader();
+                    if (put(src) == 0) {
+                        parkWriter();
+                        continue;
+                    }
+                    wakeReader();
+                }
+                return total;
+            }
+
+            synchronized (CircularByteBuffer.this) {
+                while (src.hasRemaining()) {
+                    checkReader();
+                    boolean wasEmpty = isEmpty();
+                    if (put(src) == 0) {
+                        await();
+                        continue;
+                    }
+                    if (wasEmpty) {
+                        CircularByteBuffer.this.notifyAll();
+                    }
+                }
+            }
+            return total;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !writerClosed;
+        }
+
+        @Override
+        public void close() {
+            writerClosed = true;
+            if (lockFree) {
+                wakeReader();
+            }
+            else {
+                synchronized (CircularByteBuffer.this) {
+                    CircularByteBuffer.this.notifyAll();
+                }
+            }
+        }
+
+        private void checkReader() throws IOException {
+            if (readerClosed) {
+                throw new IOException("CircularByteBuffer InputStream is closed");
             }
         }
 
     }
 
-    private CircularByteBufferInputStream inputStream;
-    private CircularByteBufferOutputStream outputStream;
+    private final CircularByteBufferInputStream inputStream;
+    private final CircularByteBufferOutputStream outputStream;
 
     public InputStream getInputStream() {
         return inputStream;
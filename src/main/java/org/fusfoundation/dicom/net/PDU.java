@@ -99,6 +99,7 @@ public class PDU {
     os.writeByte((int)((pduLength) & 0xFF));
 
     os.write(this.buf);
+    os.flush();
   }
 
   public static PDU readItem(InputStream istream) throws IOException {
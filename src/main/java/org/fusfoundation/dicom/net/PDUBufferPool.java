@@ -0,0 +1,105 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom.net;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared pool of PDU receive buffers. A buffer is handed out from the
+ * smallest power of two size class that holds the request, so associations
+ * that negotiated the same maximum PDU length reuse each other's buffers.
+ * Direct buffers are used for channel reads, heap buffers for stream reads.
+ * The pooled buffers of each kind are capped by their total size, released
+ * buffers over the cap are left to the garbage collector.
+ *
+ * @author  jsnell
+ */
+final class PDUBufferPool {
+   
+   private static final int MIN_SIZE_CLASS = 12; // 4 KB
+   private static final int MAX_SIZE_CLASS = 26; // 64 MB, larger buffers are not pooled
+   private static final int MAX_POOLED = 32;     // buffers kept per size class
+   private static final long MAX_POOLED_BYTES = 32L << 20; // 32 MB each of direct and heap buffers
+   
+   private static final ArrayBlockingQueue<ByteBuffer>[] directBuffers = newQueues();
+   private static final ArrayBlockingQueue<ByteBuffer>[] heapBuffers = newQueues();
+   private static final AtomicLong pooledDirectBytes = new AtomicLong();
+   private static final AtomicLong pooledHeapBytes = new AtomicLong();
+   
+   private PDUBufferPool() {
+   }
+   
+   @SuppressWarnings("unchecked")
+   private static ArrayBlockingQueue<ByteBuffer>[] newQueues() {
+      ArrayBlockingQueue<ByteBuffer>[] queues = new ArrayBlockingQueue[MAX_SIZE_CLASS + 1];
+      for (int i=MIN_SIZE_CLASS; i<=MAX_SIZE_CLASS; i++) {
+         queues[i] = new ArrayBlockingQueue<>(MAX_POOLED);
+      }
+      return queues;
+   }
+   
+   private static int sizeClass(int capacity) {
+      int sizeClass = 32 - Integer.numberOfLeadingZeros(Math.max(capacity, 1) - 1);
+      return Math.max(sizeClass, MIN_SIZE_CLASS);
+   }
+   
+   // A cleared buffer of at least capacity bytes
+   static ByteBuffer acquire(int capacity, boolean direct) {
+      int sizeClass = sizeClass(capacity);
+      if (sizeClass > MAX_SIZE_CLASS) {
+         return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+      }
+      
+      ByteBuffer buf = (direct ? directBuffers : heapBuffers)[sizeClass].poll();
+      if (buf == null) {
+         buf = direct ? ByteBuffer.allocateDirect(1 << sizeClass) : ByteBuffer.allocate(1 << sizeClass);
+      }
+      else {
+         (direct ? pooledDirectBytes : pooledHeapBytes).addAndGet(-buf.capacity());
+      }
+      buf.clear();
+      return buf;
+   }
+   
+   // Returns a buffer from acquire(). The caller must not use it afterwards.
+   static void release(ByteBuffer buf) {
+      int capacity = buf.capacity();
+      if (Integer.bitCount(capacity) != 1) {
+         return; // not a pooled size
+      }
+      
+      int sizeClass = sizeClass(capacity);
+      if (sizeClass < MIN_SIZE_CLASS || sizeClass > MAX_SIZE_CLASS) {
+         return;
+      }
+      
+      AtomicLong pooledBytes = buf.isDirect() ? pooledDirectBytes : pooledHeapBytes;
+      if (pooledBytes.addAndGet(capacity) > MAX_POOLED_BYTES
+            || !(buf.isDirect() ? directBuffers : heapBuffers)[sizeClass].offer(buf)) {
+         pooledBytes.addAndGet(-capacity);
+      }
+   }
+}
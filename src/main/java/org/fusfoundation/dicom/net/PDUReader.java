@@ -0,0 +1,207 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom.net;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Reads PDUs from an association into one reusable buffer from
+ * PDUBufferPool, and walks the PDV items of a P-DATA-TF in place. While an
+ * item is current the body buffer's position and limit bound the item's
+ * value, so callers read fragments without copying them out of the PDU.
+ *
+ * If the association's InputStream is also a ReadableByteChannel the PDUs
+ * are read straight into a direct buffer.
+ *
+ * @author  jsnell
+ */
+class PDUReader {
+   
+   private final InputStream is;
+   private final ReadableByteChannel channel;
+   private final byte[] header = new byte[6];
+   private final int bufferSize;
+   private final long maxPDULength; // the largest PDU we announced
+   
+   private ByteBuffer body;
+   private byte[] scratch; // for copying out of a direct buffer
+   private int type;
+   private int pduLength;
+   
+   // current PDV item
+   private int itemEnd;
+   private int itemContextID;
+   private int itemHeader;
+   private long itemCount; // items walked so far, identifies the current item
+   
+   // PDUs longer than maxPDULength are rejected, 0 is no limit
+   PDUReader(InputStream is, int bufferSize, long maxPDULength) {
+      this.is = is;
+      this.channel = is instanceof ReadableByteChannel ? (ReadableByteChannel)is : null;
+      this.bufferSize = bufferSize;
+      this.maxPDULength = maxPDULength > 0 ? Math.min(maxPDULength, Integer.MAX_VALUE - 8) : Integer.MAX_VALUE - 8;
+   }
+   
+   // Reads the next PDU and returns its type. The body is left in getBody().
+   // A PDU longer than the maximum length is a protocol error, the body
+   // isn't read.
+   int read() throws IOException {
+      if (channel != null) {
+         ByteBuffer hdr = ByteBuffer.wrap(header);
+         readFully(hdr);
+      }
+      else {
+         readFully(header, 0, header.length);
+      }
+      
+      type = header[0] & 0xff;
+      long length = ((header[2] & 0xffL) << 24) | ((header[3] & 0xff) << 16) | ((header[4] & 0xff) << 8) | (header[5] & 0xff);
+      if (length > maxPDULength) {
+         throw new IOException("PDU length " + length + " exceeds the maximum of " + maxPDULength);
+      }
+      pduLength = (int)length;
+      
+      if (body == null || body.capacity() < pduLength) {
+         if (body != null) {
+            PDUBufferPool.release(body);
+         }
+         body = PDUBufferPool.acquire(Math.max(pduLength, bufferSize), channel != null);
+      }
+      
+      body.clear();
+      body.limit(pduLength);
+      if (channel != null) {
+         readFully(body);
+      }
+      else {
+         readFully(body.array(), body.arrayOffset(), pduLength);
+      }
+      body.position(0);
+      
+      itemEnd = 0;
+      return type;
+   }
+   
+   int getType() { return type; }
+   
+   // The PDU body, or the current item's value while walking items
+   ByteBuffer getBody() { return body; }
+   
+   // Advances to the next PDV item of the current P-DATA-TF. Returns false
+   // when the PDU has no more items.
+   boolean nextItem() throws IOException {
+      if (body == null || type != PDU.P_DATA_TF) {
+         return false;
+      }
+      body.limit(pduLength);
+      body.position(itemEnd);
+      if (body.remaining() < 6) {
+         return false;
+      }
+      
+      int length = body.getInt();
+      if (length < 2 || length > body.remaining()) {
+         throw new IOException("PDV item length " + length + " overruns its PDU");
+      }
+      itemEnd = body.position() + length;
+      itemContextID = body.get() & 0xff;
+      itemHeader = body.get() & 0xff;
+      body.limit(itemEnd);
+      itemCount++;
+      return true;
+   }
+   
+   // Advances to the next PDV item, reading P-DATA-TF PDUs as needed
+   void nextDataItem() throws IOException {
+      while (!nextItem()) {
+         if (read() != PDU.P_DATA_TF) {
+            throw new IOException("Wrong PDUType: " + PDU.P_DATA_TF + " expected, " + type + " received.");
+         }
+      }
+   }
+   
+   int getItemContextID() { return itemContextID; }
+   long getItemCount() { return itemCount; }
+   boolean isCommandItem() { return (itemHeader & 0x1) == 0x1; }
+   boolean isLastItem() { return (itemHeader & 0x2) == 0x2; }
+   
+   // Writes the rest of the current item's value to out
+   void copyItem(OutputStream out) throws IOException {
+      if (body.hasArray()) {
+         out.write(body.array(), body.arrayOffset() + body.position(), body.remaining());
+         body.position(body.limit());
+         return;
+      }
+      
+      if (out instanceof WritableByteChannel) {
+         WritableByteChannel channel = (WritableByteChannel)out;
+         while (body.hasRemaining()) {
+            channel.write(body);
+         }
+         return;
+      }
+      
+      if (scratch == null) {
+         scratch = new byte[8192];
+      }
+      while (body.hasRemaining()) {
+         int n = Math.min(scratch.length, body.remaining());
+         body.get(scratch, 0, n);
+         out.write(scratch, 0, n);
+      }
+   }
+   
+   // Gives the buffer back to the pool
+   void close() {
+      if (body != null) {
+         PDUBufferPool.release(body);
+         body = null;
+      }
+   }
+   
+   private void readFully(byte[] b, int off, int len) throws IOException {
+      while (len > 0) {
+         int n = is.read(b, off, len);
+         if (n < 0) {
+            throw new EOFException();
+         }
+         off += n;
+         len -= n;
+      }
+   }
+   
+   private void readFully(ByteBuffer buf) throws IOException {
+      while (buf.hasRemaining()) {
+         if (channel.read(buf) < 0) {
+            throw new EOFException();
+         }
+      }
+   }
+}
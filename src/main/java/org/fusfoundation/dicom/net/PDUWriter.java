@@ -0,0 +1,81 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom.net;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+
+/**
+ * Writes PDUs made of several buffers, a pooled fragment buffer holding the
+ * PDU and PDV headers followed by slices of the caller's value arrays. If
+ * the association's OutputStream is also a GatheringByteChannel the
+ * buffers go out in one write(ByteBuffer[]) call, otherwise they are
+ * written to the stream in turn and the stream is flushed, as
+ * PDU.writePDU() does.
+ *
+ * ChannelOutputStream is such a stream. StorageServer and RetrievalEngine
+ * run their associations over it, an association created on plain socket
+ * streams takes the second path.
+ *
+ * @author  jsnell
+ */
+class PDUWriter {
+   
+   private final OutputStream os;
+   private final GatheringByteChannel channel;
+   
+   PDUWriter(OutputStream os) {
+      this.os = os;
+      this.channel = os instanceof GatheringByteChannel ? (GatheringByteChannel)os : null;
+   }
+   
+   // Fragment buffers for a channel are direct, the channel would copy a
+   // heap buffer into a direct one anyway
+   boolean isDirect() {
+      return channel != null;
+   }
+   
+   // Writes the remaining bytes of each buffer, in order
+   void write(ByteBuffer[] buffers, int count) throws IOException {
+      if (channel != null) {
+         long remaining = 0;
+         for (int i=0; i<count; i++) {
+            remaining += buffers[i].remaining();
+         }
+         while (remaining > 0) {
+            remaining -= channel.write(buffers, 0, count);
+         }
+         return;
+      }
+      
+      for (int i=0; i<count; i++) {
+         ByteBuffer buf = buffers[i];
+         os.write(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+         buf.position(buf.limit());
+      }
+      os.flush();
+   }
+}
@@ -0,0 +1,124 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom.net;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * The data set of a DIMSE message, read in place from the PDV fragments in
+ * a PDUReader's buffer. The next P-DATA-TF is read only when the current
+ * fragment is used up, so a provider reading this stream on the
+ * association's thread pulls the message off the wire as it parses it.
+ * End of stream is the end of the fragment marked last.
+ *
+ * A provider may read further messages from the association before it
+ * returns, a C-GET provider reads each C-STORE response, so the stream
+ * remembers which item it is on and ends once the reader has moved past it.
+ *
+ * @author  jsnell
+ */
+class PDVInputStream extends InputStream {
+   
+   private final PDUReader pdus;
+   private final int contextID;
+   private ByteBuffer fragment;
+   private boolean last;
+   private long item;
+   
+   // pdus must be on the message's first data fragment
+   PDVInputStream(PDUReader pdus) {
+      this.pdus = pdus;
+      this.contextID = pdus.getItemContextID();
+      this.fragment = pdus.getBody();
+      this.last = pdus.isLastItem();
+      this.item = pdus.getItemCount();
+   }
+   
+   private boolean nextFragment() throws IOException {
+      if (item != pdus.getItemCount()) {
+         if (!last) {
+            throw new IOException("Data set on presentation context " + contextID + " was not read to the end");
+         }
+         return false;
+      }
+      
+      while (!fragment.hasRemaining()) {
+         if (last) {
+            return false;
+         }
+         
+         pdus.nextDataItem();
+         if (pdus.isCommandItem() || pdus.getItemContextID() != contextID) {
+            throw new IOException("Expected a data set fragment on presentation context " + contextID);
+         }
+         fragment = pdus.getBody();
+         last = pdus.isLastItem();
+         item = pdus.getItemCount();
+      }
+      return true;
+   }
+   
+   public int read() throws IOException {
+      if (!nextFragment()) {
+         return -1;
+      }
+      return fragment.get() & 0xff;
+   }
+   
+   public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+         return 0;
+      }
+      if (!nextFragment()) {
+         return -1;
+      }
+      int n = Math.min(len, fragment.remaining());
+      fragment.get(b, off, n);
+      return n;
+   }
+   
+   public long skip(long n) throws IOException {
+      long skipped = 0;
+      while (skipped < n && nextFragment()) {
+         int step = (int)Math.min(n - skipped, fragment.remaining());
+         fragment.position(fragment.position() + step);
+         skipped += step;
+      }
+      return skipped;
+   }
+   
+   // May read the next PDU, the message parsers loop on available()
+   public int available() throws IOException {
+      return nextFragment() ? fragment.remaining() : 0;
+   }
+   
+   // Skips whatever the reader of the message left, up to the end of the last fragment
+   void drain() throws IOException {
+      while (nextFragment()) {
+         fragment.position(fragment.limit());
+      }
+   }
+}
@@ -0,0 +1,146 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom.net;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes a command or data set straight into P-DATA-TF PDUs. Bytes are
+ * written into a fragment buffer from PDUBufferPool that has the PDU and
+ * PDV headers reserved at the front, and the headers are filled in when
+ * the fragment is sent. A large write, pixel data for instance, is not
+ * copied: the pending fragment and slices of the caller's array are sent
+ * together with one gathering write per PDU. close() sends the fragment
+ * marked last.
+ *
+ * @author  jsnell
+ */
+class PDVOutputStream extends OutputStream {
+   
+   private static final int HEADER_LENGTH = 12; // PDU header (6), PDV length (4), context ID, control header
+   private static final int DIRECT_WRITE_MIN = 16384; // smaller writes are copied
+   
+   private final PDUWriter writer;
+   private final int contextID;
+   private final boolean command;
+   private final int maxFragment; // data bytes per PDU
+   private final ByteBuffer[] gather = new ByteBuffer[2];
+   private ByteBuffer buffer;
+   
+   // maxPDULength is the largest PDU body the peer accepts
+   PDVOutputStream(PDUWriter writer, int contextID, boolean command, int maxPDULength) {
+      this.writer = writer;
+      this.contextID = contextID;
+      this.command = command;
+      this.buffer = PDUBufferPool.acquire(maxPDULength, writer.isDirect());
+      // PDU body is the PDV item, less the 6 byte PDU header that shares the buffer
+      this.maxFragment = Math.min(maxPDULength, buffer.capacity() - 6) - 6;
+      if (maxFragment <= 0) {
+         throw new IllegalArgumentException("Maximum PDU length " + maxPDULength + " is too small");
+      }
+      buffer.position(HEADER_LENGTH);
+   }
+   
+   private int pending() {
+      return buffer.position() - HEADER_LENGTH;
+   }
+   
+   public void write(int b) throws IOException {
+      if (pending() == maxFragment) {
+         send(false, null);
+      }
+      buffer.put((byte)b);
+   }
+   
+   public void write(byte[] b, int off, int len) throws IOException {
+      // Send all but the tail of a large write straight from b. The tail is
+      // copied so the fragment close() marks last is never empty.
+      if (len >= DIRECT_WRITE_MIN) {
+         int direct = len - 2;
+         while (direct > 0) {
+            if (pending() == maxFragment) {
+               send(false, null);
+            }
+            int n = Math.min(maxFragment - pending(), direct);
+            send(false, ByteBuffer.wrap(b, off, n));
+            off += n;
+            len -= n;
+            direct -= n;
+         }
+      }
+      
+      while (len > 0) {
+         if (pending() == maxFragment) {
+            send(false, null);
+         }
+         int n = Math.min(maxFragment - pending(), len);
+         buffer.put(b, off, n);
+         off += n;
+         len -= n;
+      }
+   }
+   
+   // Sends what is left as the last fragment and gives the buffer back
+   public void close() throws IOException {
+      if (buffer != null) {
+         try {
+            send(true, null);
+         }
+         finally {
+            release();
+         }
+      }
+   }
+   
+   // Gives the buffer back without sending anything, after a failed write
+   void release() {
+      if (buffer != null) {
+         PDUBufferPool.release(buffer);
+         buffer = null;
+      }
+   }
+   
+   // One PDU holding one PDV item, the pending bytes followed by extra
+   private void send(boolean last, ByteBuffer extra) throws IOException {
+      int pdvLength = 2 + pending() + (extra != null ? extra.remaining() : 0);
+      
+      buffer.put(0, (byte)PDU.P_DATA_TF);
+      buffer.put(1, (byte)0);
+      buffer.putInt(2, pdvLength + 4);
+      buffer.putInt(6, pdvLength);
+      buffer.put(10, (byte)contextID);
+      buffer.put(11, (byte)((command ? 0x1 : 0x0) | (last ? 0x2 : 0x0)));
+      buffer.flip();
+      
+      gather[0] = buffer;
+      gather[1] = extra;
+      writer.write(gather, extra != null ? 2 : 1);
+      gather[1] = null;
+      
+      buffer.clear();
+      buffer.position(HEADER_LENGTH);
+   }
+}
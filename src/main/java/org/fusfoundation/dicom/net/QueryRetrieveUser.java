@@ -32,9 +32,13 @@ import org.fusfoundation.dicom.DicomDate;
 import org.fusfoundation.dicom.PersonName;
 import org.fusfoundation.dicom.DicomNumber;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -46,10 +50,17 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
    int   findContextId = -1;
    int   moveContextId = -1;
    int   getContextId = -1;
-   int   ctStoreContextId = -1;
+   // storage presentation context IDs for C-GET sub-operations, by SOP class
+   private final Map<UID, Integer> storeContextIds = new HashMap<>();
+   int   lastStatus = -1;
+   
+   // C-FIND in progress, see cancelQuery()
+   private int queryMsgId = -1;
+   private boolean cancelSent = false;
+   private volatile boolean cancelRequested = false;
    
    static private final UID uids[] = {UID.PatientRootQueryRetrieveFind, UID.PatientRootQueryRetrieveMove, UID.PatientRootQueryRetrieveGet};
-   static private final UID provideruids[] = {UID.CTImageStorage};
+   static private final UID provideruids[] = StorageService.sopuids;
    static private final UID tsyn[] = {UID.ExplicitVRBigEndian, UID.ExplicitVRLittleEndian, UID.ImplicitVRLittleEndian};
    static final private Logger logger = Logger.getGlobal();;
 
@@ -82,9 +93,9 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
          getContextId = cntxid;
          logger.info("Get Presentation Context ID = " + cntxid);
       }
-      else if (sopclass.equals(UID.CTImageStorage)) {
-         ctStoreContextId = cntxid;
-         logger.info("CTImageStorage Presentation Context ID = " + cntxid);
+      else if (Arrays.asList(provideruids).contains(sopclass)) {
+         storeContextIds.put(sopclass, cntxid);
+         logger.info(sopclass + " Presentation Context ID = " + cntxid);
       }
    }
    
@@ -92,6 +103,11 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
       return tsyn;
    }
    
+   // Final status of the last query or retrieve, 0x0000 is success
+   public int getLastStatus() {
+      return lastStatus;
+   }
+   
    public boolean isActive() {
       if (findContextId > -1 && moveContextId > -1 && getContextId > -1 && association != null) {
          return true;
@@ -123,6 +139,17 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
    
    public Collection doQuery(String queryRetrieveLevel, DicomObject queryKeys) throws IOException {
       LinkedList qresult = new LinkedList();
+      doQuery(queryRetrieveLevel, queryKeys, qresult::add, 0);
+      return qresult;
+   }
+   
+   // Hands each match to consumer as its pending response arrives. After
+   // limit matches (0 for no limit), or a call to cancelQuery(), the query
+   // is cancelled with a C-CANCEL and any further matches are dropped.
+   // Returns the number of matches handed to consumer.
+   public int doQuery(String queryRetrieveLevel, DicomObject queryKeys, Consumer<DicomObject> consumer, int limit) throws IOException {
+      int matches = 0;
+      lastStatus = -1;
       
       if (isActive()) {
          logger.info("Sending query");
@@ -134,10 +161,7 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
          
          logger.info(command.toString());
          
-         int msgId = association.WriteCommand(command, findContextId);
-         
          DicomObject message = new DicomObject();
-         byte[] empty = new byte[0];
          message.addVR(new VR("QueryRetrieveLevel", new DicomString(queryRetrieveLevel)));
          Iterator vrIterator = queryKeys.iterator();
          while (vrIterator.hasNext()) {
@@ -146,17 +170,29 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
          
          logger.info(message.toString());
          
-         association.WriteMessage(message, findContextId);
+         // cancelQuery() may write a C-CANCEL from another thread once the request is out
+         synchronized(this) {
+            cancelRequested = false;
+            cancelSent = false;
+            int msgId = association.WriteCommand(command, findContextId);
+            association.WriteMessage(message, findContextId);
+            queryMsgId = msgId;
+         }
          
          logger.info("Reading response");
          
-         while (true) {
-            DicomObject response = association.ReadCommand(findContextId);
+         try {
+            while (true) {
+               DicomObject response = association.ReadCommand(findContextId);
             
-            logger.info(response.toString());
+               if (response == null) {
+                  throw new IOException("Expected a C-FIND response on presentation context " + findContextId);
+               }
+            
+               logger.info(response.toString());
             
-            if (response != null) {
                int status = response.getVR("Status").getIntValue();
+               lastStatus = status;
                int recvMsgId = response.getVR("MessageIDBeingRespondedTo").getIntValue();
                int cmdField = response.getVR("CommandField").getIntValue();
                int dataSetType = response.getVR("DataSetType").getIntValue();
@@ -168,7 +204,17 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
                      DicomObject results = association.ReadMessage(findContextId);
                      logger.info(results.toString());
                      
-                     qresult.add(results);
+                     if (!cancelRequested) {
+                        matches++;
+                        consumer.accept(results);
+                        if (limit > 0 && matches >= limit) {
+                           cancelRequested = true;
+                        }
+                     }
+                  }
+                  
+                  if (cancelRequested) {
+                     sendCancel();
                   }
                }
                else if (status == QueryRetrieveUser.RESPONSE_SUCCESS) {
@@ -194,8 +240,11 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
                else {
                   logger.severe("Command Response: Unknown response code.");
                }
-               
-               
+            }
+         }
+         finally {
+            synchronized(this) {
+               queryMsgId = -1;
             }
          }
          
@@ -204,7 +253,28 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
          logger.severe("SCU not active on this Association");
       }
       
-      return qresult;
+      return matches;
+   }
+   
+   // Stops the C-FIND in progress. Safe to call from the consumer or from
+   // another thread, doQuery() returns once the SCP acknowledges.
+   public void cancelQuery() throws IOException {
+      cancelRequested = true;
+      sendCancel();
+   }
+   
+   private synchronized void sendCancel() throws IOException {
+      if (queryMsgId < 0 || cancelSent) {
+         return;
+      }
+      
+      logger.info("Sending C-CANCEL");
+      DicomObject command = new DicomObject();
+      command.addVR(new VR("CommandField", new DicomNumber(0x0FFF)));
+      command.addVR(new VR("MessageIDBeingRespondedTo", new DicomNumber(queryMsgId)));
+      command.addVR(new VR("DataSetType", new DicomNumber(0x0101))); // No dataset
+      association.WriteCommand(command, findContextId);
+      cancelSent = true;
    }
    
    public Collection movePatient(String patientID, String destinationAE) throws IOException {
@@ -223,7 +293,7 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
    
    public Collection moveSeries(String seriesUID, String destinationAE) throws IOException {
       DicomObject keys = new DicomObject();
-      keys.addVR(new VR("StudyInstanceUID", new DicomString(seriesUID)));
+      keys.addVR(new VR("SeriesInstanceUID", new DicomString(seriesUID)));
       
       return doMove(destinationAE, "SERIES", keys);
    }
@@ -237,6 +307,7 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
    
    public Collection doMove(String destinationAE, String queryRetrieveLevel, DicomObject queryKeys) throws IOException {
       LinkedList qresult = new LinkedList();
+      lastStatus = -1;
       
       if (isActive()) {
          logger.info("Sending move command");
@@ -272,6 +343,7 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
             
             if (response != null) {
                int status = response.getVR("Status").getIntValue();
+               lastStatus = status;
                int recvMsgId = response.getVR("MessageIDBeingRespondedTo").getIntValue();
                int cmdField = response.getVR("CommandField").getIntValue();
                int dataSetType = response.getVR("DataSetType").getIntValue();
@@ -349,7 +421,7 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
    
    public Collection getSeries(String seriesUID) throws IOException {
       DicomObject keys = new DicomObject();
-      keys.addVR(new VR("StudyInstanceUID", new DicomString(seriesUID)));
+      keys.addVR(new VR("SeriesInstanceUID", new DicomString(seriesUID)));
       
       return doGet("SERIES", keys);
    }
@@ -364,6 +436,14 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
    
    public Collection doGet(String queryRetrieveLevel, DicomObject queryKeys) throws IOException {
       LinkedList qresult = new LinkedList();
+      doGet(queryRetrieveLevel, queryKeys, qresult::add);
+      return qresult;
+   }
+   
+   // Hands each image to receiver as its C-STORE sub-operation arrives,
+   // before the C-GET completes
+   public void doGet(String queryRetrieveLevel, DicomObject queryKeys, Consumer<DicomObject> receiver) throws IOException {
+      lastStatus = -1;
       
       if (isActive()) {
          logger.info("Sending C-GET command");
@@ -404,6 +484,7 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
                if (cmdField == 0x8010) { // C-GET Resonse
                   logger.info("C-GET Response: " + response);
                   int status = response.getVR("Status").getIntValue();
+                  lastStatus = status;
                   int recvMsgId = response.getVR("MessageIDBeingRespondedTo").getIntValue();
                          
                   if (status == QueryRetrieveUser.RESPONSE_PENDING ||
@@ -411,7 +492,7 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
                      logger.info("Command Response: PENDING");
                      if (dataSetType != 0x0101) {
                         
-                        DicomObject results = association.ReadMessage(moveContextId);
+                        DicomObject results = association.ReadMessage(getContextId);
                         logger.info(results.toString());
                         
                         logger.info("Suboperations: " + results.getVR("NumberOfRemainingSuboperations").getValue());
@@ -457,7 +538,7 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
                   logger.info(response.toString());
                   
                   DicomObject image = association.ReadMessage(-1);
-                  qresult.add(image);
+                  receiver.accept(image);
                   logger.info("Received image: " + image);
                   
                   int cstoremsgId = response.getVR("MessageID").getIntValue();
@@ -472,7 +553,8 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
                   cstorersp.addVR(new VR("Status", new DicomNumber(0x0))); // Success
                   
                   logger.info("Sending C-STORE rsp: SUCCCESS");
-                  association.WriteCommand(cstorersp, this.ctStoreContextId);
+                  Integer storeContextId = storeContextIds.get(new UID(sopClass.trim()));
+                  association.WriteCommand(cstorersp, storeContextId != null ? storeContextId : -1);
 
                }
                
@@ -483,8 +565,6 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
       else {
          logger.severe("SCU not active on this Association");
       }
-      
-      return qresult;
    }
    
    public Collection findPatients(PersonName pn) throws IOException {
@@ -496,27 +576,56 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
    }
    
    public Collection findPatients(PersonName pn, String patientID, DicomDate patientBirthDate, String patientSex) throws IOException {
-      
+      return doQuery("PATIENT", patientKeys(pn, patientID, patientBirthDate, patientSex));
+   }
+   
+   public int findPatients(PersonName pn, String patientID, DicomDate patientBirthDate, String patientSex, Consumer<DicomObject> consumer, int limit) throws IOException {
+      return doQuery("PATIENT", patientKeys(pn, patientID, patientBirthDate, patientSex), consumer, limit);
+   }
+   
+   public Collection findStudies(String patientID) throws IOException {
+      return doQuery("STUDY", studyKeys(patientID));
+   }
+   
+   public int findStudies(String patientID, Consumer<DicomObject> consumer, int limit) throws IOException {
+      return doQuery("STUDY", studyKeys(patientID), consumer, limit);
+   }
+   
+   public Collection findSeries(String studyUID) throws IOException {
+      return doQuery("SERIES", seriesKeys(studyUID));
+   }
+   
+   public int findSeries(String studyUID, Consumer<DicomObject> consumer, int limit) throws IOException {
+      return doQuery("SERIES", seriesKeys(studyUID), consumer, limit);
+   }
+   
+   public Collection findInstances(String seriesUID) throws IOException {
+      return doQuery("IMAGE", instanceKeys(seriesUID));
+   }
+   
+   public int findInstances(String seriesUID, Consumer<DicomObject> consumer, int limit) throws IOException {
+      return doQuery("IMAGE", instanceKeys(seriesUID), consumer, limit);
+   }
+   
+   private static DicomObject patientKeys(PersonName pn, String patientID, DicomDate patientBirthDate, String patientSex) {
       DicomObject keys = new DicomObject();
       byte[] empty = new byte[0];
-      keys.addVR(new VR("PatientsName", pn));
+      keys.addVR(new VR("PatientName", pn));
       keys.addVR(new VR("PatientID", new DicomString(patientID)));
       if (patientBirthDate != null) {
-         keys.addVR(new VR("PatientsBirthDate", patientBirthDate ));
+         keys.addVR(new VR("PatientBirthDate", patientBirthDate ));
       }
       else {
-         keys.addVR(new VR("PatientsBirthDate", empty ));
+         keys.addVR(new VR("PatientBirthDate", empty ));
       }
-      keys.addVR(new VR("PatientsSex", new DicomString(patientSex)));
+      keys.addVR(new VR("PatientSex", new DicomString(patientSex)));
       keys.addVR(new VR("NumberOfPatientRelatedStudies", empty));//new DicomString("*")));
       keys.addVR(new VR("NumberOfPatientRelatedSeries", empty));//new DicomString("*")));
       keys.addVR(new VR("NumberOfPatientRelatedInstances", empty));//new DicomString("*")));
-      
-      return doQuery("PATIENT", keys);
+      return keys;
    }
    
-   public Collection findStudies(String patientID) throws IOException {
-      
+   private static DicomObject studyKeys(String patientID) {
       DicomObject keys = new DicomObject();
       byte[] empty = new byte[0];
       keys.addVR(new VR("PatientID", new DicomString(patientID)));
@@ -527,12 +636,10 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
       keys.addVR(new VR("AccessionNumber", empty));
       keys.addVR(new VR("NumberOfStudyRelatedSeries", empty));
       keys.addVR(new VR("NumberOfStudyRelatedInstances", empty));
-      
-      return doQuery("STUDY", keys);
+      return keys;
    }
    
-   public Collection findSeries(String studyUID) throws IOException {
-      
+   private static DicomObject seriesKeys(String studyUID) {
       DicomObject keys = new DicomObject();
       byte[] empty = new byte[0];
       keys.addVR(new VR("StudyInstanceUID", new DicomString(studyUID)));
@@ -540,18 +647,15 @@ public class QueryRetrieveUser implements ServiceClassUser, ServiceClassProvider
       keys.addVR(new VR("SeriesNumber", empty));
       keys.addVR(new VR("SeriesInstanceUID", empty));
       keys.addVR(new VR("NumberOfSeriesRelatedInstances", empty));
-      
-      return doQuery("SERIES", keys);
+      return keys;
    }
    
-   public Collection findInstances(String seriesUID) throws IOException {
-      
+   private static DicomObject instanceKeys(String seriesUID) {
       DicomObject keys = new DicomObject();
       byte[] empty = new byte[0];
       keys.addVR(new VR("SeriesInstanceUID", new DicomString(seriesUID)));
       keys.addVR(new VR("SOPInstanceUID", empty));
       keys.addVR(new VR("InstanceNumber", empty));
-      
-      return doQuery("IMAGE", keys);
+      return keys;
    }
 }
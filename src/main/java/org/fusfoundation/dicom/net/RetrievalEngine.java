@@ -0,0 +1,365 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom.net;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.fusfoundation.dicom.DicomNumber;
+import org.fusfoundation.dicom.DicomObject;
+import org.fusfoundation.dicom.DicomObjectReader;
+import org.fusfoundation.dicom.DicomRuntimeException;
+import org.fusfoundation.dicom.DicomString;
+import org.fusfoundation.dicom.UID;
+import org.fusfoundation.dicom.VR;
+import org.fusfoundation.dicom.VrReader;
+
+/**
+ * Retrieves a series or a study over several associations at once. The
+ * instances are listed with a C-FIND on one association, then a pool of
+ * worker associations takes them from a shared queue and fetches each one
+ * with its own IMAGE level C-GET. Every object is handed to the Listener
+ * as it arrives, so a consumer can build the volume while the rest of the
+ * series is still on the wire.
+ *
+ * With a move destination set the workers issue IMAGE level C-MOVEs
+ * instead, and the archive sends the objects to a StorageServer the engine
+ * runs on the destination port for the length of the retrieve.
+ *
+ * @author  jsnell
+ */
+public class RetrievalEngine {
+   
+   /** Receives the retrieved objects. objectReceived() is called from the
+    *  worker threads, concurrently when there is more than one association. */
+   public interface Listener {
+      /** The C-FIND matches, one per instance, before any object arrives */
+      void retrieveStarted(List<DicomObject> instances);
+      
+      void objectReceived(DicomObject obj);
+   }
+   
+   static final private Logger logger = Logger.getGlobal();
+   
+   private final String host;
+   private final int port;
+   private final String callingAETitle;
+   private final String calledAETitle;
+   
+   private int maxAssociations = 4;
+   private String moveDestination = null;
+   private int movePort = 0;
+   
+   public RetrievalEngine(String host, int port, String callingAETitle, String calledAETitle) {
+      this.host = host;
+      this.port = port;
+      this.callingAETitle = callingAETitle;
+      this.calledAETitle = calledAETitle;
+   }
+   
+   /** Number of associations opened to the archive for one retrieve */
+   public void setMaxAssociations(int maxAssociations) {
+      this.maxAssociations = Math.max(1, maxAssociations);
+   }
+   
+   public int getMaxAssociations() {
+      return maxAssociations;
+   }
+   
+   /** Retrieve with C-MOVE to destinationAETitle. The archive must know
+    *  that AE title as this host at port. A null AE title goes back to C-GET. */
+   public void setMoveDestination(String destinationAETitle, int port) {
+      this.moveDestination = destinationAETitle;
+      this.movePort = port;
+   }
+   
+   /** Retrieves every instance of a series. Returns the number of objects
+    *  received, instances that failed are logged. */
+   public int retrieveSeries(String studyUID, String seriesUID, Listener listener) throws IOException {
+      List<DicomObject> instances = new ArrayList<>();
+      
+      QueryRetrieveUser qr = new QueryRetrieveUser();
+      try (SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port))) {
+         Association assoc = openAssociation(qr, channel);
+         findInstances(qr, studyUID, seriesUID, instances);
+         release(assoc);
+      }
+      
+      return retrieve(instances, listener);
+   }
+   
+   /** Retrieves every instance of every series of a study */
+   public int retrieveStudy(String studyUID, Listener listener) throws IOException {
+      List<DicomObject> instances = new ArrayList<>();
+      
+      QueryRetrieveUser qr = new QueryRetrieveUser();
+      try (SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port))) {
+         Association assoc = openAssociation(qr, channel);
+         Collection series = qr.findSeries(studyUID);
+         Iterator iter = series.iterator();
+         while (iter.hasNext()) {
+            String seriesUID = stringValue((DicomObject)iter.next(), "SeriesInstanceUID");
+            if (seriesUID != null) {
+               findInstances(qr, studyUID, seriesUID, instances);
+            }
+         }
+         release(assoc);
+      }
+      
+      return retrieve(instances, listener);
+   }
+   
+   private void findInstances(QueryRetrieveUser qr, String studyUID, String seriesUID, List<DicomObject> instances) throws IOException {
+      DicomObject keys = new DicomObject();
+      byte[] empty = new byte[0];
+      keys.addVR(new VR("StudyInstanceUID", new DicomString(studyUID)));
+      keys.addVR(new VR("SeriesInstanceUID", new DicomString(seriesUID)));
+      keys.addVR(new VR("SOPInstanceUID", empty));
+      keys.addVR(new VR("InstanceNumber", empty));
+      
+      List<DicomObject> matches = new ArrayList<>();
+      Iterator iter = qr.doQuery("IMAGE", keys).iterator();
+      while (iter.hasNext()) {
+         DicomObject match = (DicomObject)iter.next();
+         if (stringValue(match, "SOPInstanceUID") == null) {
+            continue;
+         }
+         // the sub-operations need the unique keys above the instance
+         if (match.getVR("StudyInstanceUID") == null) {
+            match.addVR(new VR("StudyInstanceUID", new DicomString(studyUID)));
+         }
+         if (match.getVR("SeriesInstanceUID") == null) {
+            match.addVR(new VR("SeriesInstanceUID", new DicomString(seriesUID)));
+         }
+         matches.add(match);
+      }
+      
+      // Fetch in instance order, a consumer filling a volume gets its
+      // slices roughly front to back
+      matches.sort((a, b) -> Integer.compare(instanceNumber(a), instanceNumber(b)));
+      instances.addAll(matches);
+   }
+   
+   private int retrieve(List<DicomObject> instances, Listener listener) throws IOException {
+      listener.retrieveStarted(instances);
+      if (instances.isEmpty()) {
+         return 0;
+      }
+      
+      Queue<DicomObject> pending = new ConcurrentLinkedQueue<>(instances);
+      AtomicInteger received = new AtomicInteger();
+      
+      StorageServer receiver = null;
+      if (moveDestination != null) {
+         AssociationFactory af = new AssociationFactory();
+         af.AddProvider(new MoveReceiver(listener, received));
+         // Archives open an association per C-MOVE and may not have seen
+         // the last one's release through before opening the next
+         receiver = new StorageServer(af, movePort, 2 * maxAssociations);
+         receiver.start();
+      }
+      
+      int workerCount = Math.min(maxAssociations, instances.size());
+      ExecutorService workers = Executors.newFixedThreadPool(workerCount);
+      try {
+         List<Future<Void>> results = new ArrayList<>(workerCount);
+         for (int i=0; i<workerCount; i++) {
+            results.add(workers.submit(() -> {
+               retrieveWorker(pending, listener, received);
+               return null;
+            }));
+         }
+         
+         IOException failure = null;
+         for (Future<Void> result : results) {
+            try {
+               result.get();
+            }
+            catch (ExecutionException e) {
+               logger.log(Level.WARNING, "Retrieve association failed", e.getCause());
+               if (failure == null) {
+                  failure = e.getCause() instanceof IOException ? (IOException)e.getCause() : new IOException(e.getCause());
+               }
+            }
+         }
+         
+         // Failed associations leave their instances to the others, it is
+         // only an error if nothing came back at all
+         if (failure != null && received.get() == 0) {
+            throw failure;
+         }
+         if (received.get() < instances.size()) {
+            logger.warning("Retrieved " + received.get() + " of " + instances.size() + " instances");
+         }
+         return received.get();
+      }
+      catch (InterruptedException e) {
+         throw new InterruptedIOException();
+      }
+      finally {
+         workers.shutdownNow();
+         if (receiver != null) {
+            receiver.stop();
+         }
+      }
+   }
+   
+   // One worker association, retrieving instances until the queue is empty
+   private void retrieveWorker(Queue<DicomObject> pending, Listener listener, AtomicInteger received) throws IOException {
+      QueryRetrieveUser qr = new QueryRetrieveUser();
+      try (SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port))) {
+         Association assoc = openAssociation(qr, channel);
+         
+         DicomObject instance;
+         while ((instance = pending.poll()) != null) {
+            DicomObject keys = new DicomObject();
+            keys.addVR(new VR("StudyInstanceUID", new DicomString(stringValue(instance, "StudyInstanceUID"))));
+            keys.addVR(new VR("SeriesInstanceUID", new DicomString(stringValue(instance, "SeriesInstanceUID"))));
+            keys.addVR(new VR("SOPInstanceUID", new DicomString(stringValue(instance, "SOPInstanceUID"))));
+            
+            if (moveDestination != null) {
+               qr.doMove(moveDestination, "IMAGE", keys);
+            }
+            else {
+               qr.doGet("IMAGE", keys, obj -> {
+                  received.incrementAndGet();
+                  listener.objectReceived(obj);
+               });
+            }
+            
+            if (qr.getLastStatus() != 0x0000) {
+               logger.warning("Retrieve of " + stringValue(instance, "SOPInstanceUID") + " ended with status " + Integer.toHexString(qr.getLastStatus()));
+            }
+         }
+         
+         release(assoc);
+      }
+   }
+   
+   // Over the channel rather than buffered socket streams, so requests go
+   // out with PDUWriter's gathering writes and PDUReader reads whole PDUs
+   private Association openAssociation(QueryRetrieveUser qr, SocketChannel channel) throws IOException {
+      channel.socket().setTcpNoDelay(true);
+      
+      AssociationFactory af = new AssociationFactory();
+      af.AddUser(qr);
+      Association assoc = af.CreateUserAssociation(callingAETitle, calledAETitle,
+            new ChannelInputStream(channel), new ChannelOutputStream(channel));
+      if (assoc == null || !qr.isActive()) {
+         throw new IOException("Association with " + calledAETitle + " at " + host + ":" + port + " was not accepted");
+      }
+      return assoc;
+   }
+   
+   private static void release(Association assoc) throws IOException {
+      assoc.sendReleaseRq();
+      assoc.Receive();
+   }
+   
+   private static String stringValue(DicomObject obj, String name) {
+      VR vr = obj.getVR(name);
+      if (vr == null || vr.getLength() == 0) {
+         return null;
+      }
+      return vr.getStringValue().trim();
+   }
+   
+   private static int instanceNumber(DicomObject obj) {
+      try {
+         return obj.getVR("InstanceNumber").getIntValue();
+      }
+      catch (Exception e) {
+         return Integer.MAX_VALUE;
+      }
+   }
+   
+   // C-STORE provider for the C-MOVE sub-operations
+   private static class MoveReceiver extends ServiceClassProviderBaseImpl {
+      static private final UID uids[] = StorageService.sopuids;
+      static private final UID tsyn[] = {UID.ExplicitVRLittleEndian, UID.ImplicitVRLittleEndian, UID.ExplicitVRBigEndian};
+      
+      private final Listener listener;
+      private final AtomicInteger received;
+      
+      MoveReceiver(Listener listener, AtomicInteger received) {
+         this.listener = listener;
+         this.received = received;
+      }
+      
+      public UID[] getSOPClassProviderUIDs() {
+         return uids;
+      }
+      
+      public UID[] getSupportedTransferSyntaxes() {
+         return tsyn;
+      }
+      
+      public void handleCommand(Association assoc, int PresentationContextID, DicomObject cmd, VrReader messageStream) {
+         if (cmd.getVR("CommandField").getIntValue() != 0x0001) {
+            throw new DicomRuntimeException("Unexpected command on a storage context");
+         }
+         
+         try {
+            DicomObject obj = new DicomObjectReader(messageStream).read();
+            
+            int status = 0x0000;
+            try {
+               received.incrementAndGet();
+               listener.objectReceived(obj);
+            }
+            catch (RuntimeException e) {
+               logger.log(Level.WARNING, "Retrieve listener failed", e);
+               status = 0xC000; // Cannot understand
+            }
+            
+            DicomObject response = new DicomObject();
+            response.addVR(new VR("AffectedSOPClassUID", new DicomString(cmd.getVR("AffectedSOPClassUID").getStringValue())));
+            response.addVR(new VR("AffectedSOPInstanceUID", new DicomString(cmd.getVR("AffectedSOPInstanceUID").getStringValue())));
+            response.addVR(new VR("CommandField", new DicomNumber(0x8001))); // C-STORE RSP
+            response.addVR(new VR("MessageIDBeingRespondedTo", new DicomNumber(cmd.getVR("MessageID").getIntValue())));
+            response.addVR(new VR("DataSetType", new DicomNumber(0x0101))); // No dataset
+            response.addVR(new VR("Status", new DicomNumber(status)));
+            assoc.WriteCommand(response, PresentationContextID);
+         }
+         catch (IOException e) {
+            throw new DicomRuntimeException(e.toString());
+         }
+      }
+   }
+}
@@ -40,5 +40,9 @@ import java.io.*;
 public interface ServiceClassProvider {
   public UID[] getSOPClassProviderUIDs();
   public UID[] getSupportedTransferSyntaxes();
+  // Called on the association's thread once a command has arrived.
+  // messageStream reads the command's data set, if any, as its fragments
+  // arrive. A provider that hands the work to another thread returns it,
+  // and the association waits for it before reading the next PDU.
   public Thread ProcessCommand(Association assoc, int PresentationContextID, DicomObject command, VrReader messageStream);
 }
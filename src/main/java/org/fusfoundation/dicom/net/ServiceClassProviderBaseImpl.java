@@ -32,20 +32,12 @@ import org.fusfoundation.dicom.UID;
 import org.fusfoundation.dicom.net.Association;
 
 /**
+ * Runs handleCommand() on the association's thread, reading the message
+ * data set as it arrives. An unexpected exception aborts the association.
  *
  * @author  jsnell
  */
-public abstract class ServiceClassProviderBaseImpl implements Runnable, ServiceClassProvider {
-    
-    private boolean done = false;
-    private Thread worker = null;
-
-    // These hold the values passed to ProcessCommand() for the
-    // background thread's use
-    private Association association;
-    private DicomObject command;
-    private VrReader inputVRStream;
-    private int pcID; // Presentation Context ID
+public abstract class ServiceClassProviderBaseImpl implements ServiceClassProvider {
     
     static final private Logger logger = Logger.getGlobal();
 
@@ -54,34 +46,10 @@ public abstract class ServiceClassProviderBaseImpl implements Runnable, ServiceC
     }
     
     public Thread ProcessCommand(Association assoc, int PresentationContextID, DicomObject cmd, VrReader messageStream) {
-        logger.info("Received command");
-        inputVRStream = messageStream;
-        command = cmd;
-        association = assoc;
-        pcID = PresentationContextID;
-
-        if (worker != null && worker.isAlive()) {
-            logger.info("Waiting for worker to finish.");
-            try {
-                worker.join();
-            }
-            catch(java.lang.InterruptedException e) {
-                System.out.println(e);
-            }
-            logger.info("Worker is finished.");
-        }
-
-        worker = new Thread(this);
-        done = false;
-        worker.start();
-        
-        return worker;
-    }
-    
-    public void run() {
+        logger.fine("Received command");
         try
         {
-            handleCommand(association, pcID, command, inputVRStream);
+            handleCommand(assoc, PresentationContextID, cmd, messageStream);
         }
         catch(Exception e)
         {
@@ -92,7 +60,7 @@ public abstract class ServiceClassProviderBaseImpl implements Runnable, ServiceC
             logger.warning("Sending A-ABORT");
             try
             {
-               association.sendAbort(true, 0);
+               assoc.sendAbort(true, 0);
                //association.getOutputStream().close();
             }
             catch(IOException e2)
@@ -100,10 +68,8 @@ public abstract class ServiceClassProviderBaseImpl implements Runnable, ServiceC
                logger.severe("Failed to abort: " + e2);
             }
         }
-        finally
-        {
-            logger.info("Command completed (or aborted), shutting down thread.");
-        }
+        
+        return null;
     }
     
     abstract public void handleCommand(Association assoc, int PresentationContextID, DicomObject cmd, VrReader messageStream);
@@ -0,0 +1,479 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom.net;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.fusfoundation.dicom.DicomObject;
+import org.fusfoundation.dicom.VR;
+
+/**
+ * Indexes stored instances in the dicomstorage database off the C-STORE
+ * path. index() copies the indexed attributes into a queue and returns, a
+ * writer thread inserts them in batches (addBatch/executeBatch), one
+ * transaction per batchSize instances or maxDelay, whichever comes first.
+ *
+ * Every row is an upsert, so an instance that is sent again updates its
+ * rows instead of failing. PostgreSQL and SQLite get INSERT ... ON CONFLICT
+ * DO UPDATE, MySQL and MariaDB ON DUPLICATE KEY UPDATE, anything else a
+ * standard MERGE. The patient, study and series rows are sent once per
+ * batch with the values of the last instance that has them. If a batch
+ * fails it is retried one instance per transaction, so only bad rows are
+ * lost. The upserts name their columns, the tables are expected to be
+ *
+ *   patients (patientid, name, age, sex, birthdate, comments)
+ *   studies  (studyuid, studydate, studytime, protocol, patientid)
+ *   series   (seriesuid, seriesdate, modality, studyuid)
+ *   objects  (sopuid, instance, path, seriesuid)
+ *
+ * with the first column of each the primary key.
+ *
+ * The queue is bounded. When the database falls that far behind, index()
+ * blocks, which slows the SCU down rather than losing rows. close() shuts
+ * index() out before it queues the end marker, so every instance index()
+ * accepted is written and every later one is logged and dropped.
+ *
+ * @author  jsnell
+ */
+public class StorageIndexer {
+   
+   static final private Logger logger = Logger.getGlobal();
+   
+   public static final int DEFAULT_BATCH_SIZE = 100;
+   public static final long DEFAULT_MAX_DELAY_MS = 500;
+   public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+   
+   // The column types are only used to type the MERGE source row
+   private static final String[] PATIENT_COLUMNS = {"patientid VARCHAR(64)", "name VARCHAR(64)", "age VARCHAR(8)", "sex VARCHAR(16)", "birthdate VARCHAR(16)", "comments VARCHAR(1024)"};
+   private static final String[] STUDY_COLUMNS = {"studyuid VARCHAR(64)", "studydate VARCHAR(16)", "studytime VARCHAR(16)", "protocol VARCHAR(64)", "patientid VARCHAR(64)"};
+   private static final String[] SERIES_COLUMNS = {"seriesuid VARCHAR(64)", "seriesdate VARCHAR(16)", "modality VARCHAR(16)", "studyuid VARCHAR(64)"};
+   private static final String[] OBJECT_COLUMNS = {"sopuid VARCHAR(64)", "instance INTEGER", "path VARCHAR(1024)", "seriesuid VARCHAR(64)"};
+   
+   private final Connection c;
+   private final PreparedStatement ps1, ps2, ps3, ps4;
+   private final int batchSize;
+   private final long maxDelayNanos;
+   private final BlockingQueue<IndexRecord> queue;
+   private final Thread writer;
+   
+   // index() holds the read lock while it queues, close() the write lock
+   // while it sets closed, so nothing is queued behind the end marker
+   private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+   private boolean closed = false;
+   private volatile IndexRecord oldestInFlight = null;
+   private final AtomicLong indexedCount = new AtomicLong();
+   private final AtomicLong failedCount = new AtomicLong();
+   
+   // The indexed attributes of one instance, copied out of its header
+   private static class IndexRecord {
+      final long queued = System.nanoTime();
+      String patientID, patientName, patientAge, patientSex, patientBirthDate, patientComments;
+      String studyInstanceUID, studyDate, studyTime, protocolName;
+      String seriesInstanceUID, seriesDate, modality;
+      String sopInstanceUID, path;
+      Integer instanceNumber;
+   }
+   
+   // Queued by close() after the last instance
+   private static final IndexRecord END = new IndexRecord();
+   
+   public StorageIndexer(Connection c) throws SQLException {
+      this(c, DEFAULT_BATCH_SIZE, DEFAULT_MAX_DELAY_MS, DEFAULT_QUEUE_CAPACITY);
+   }
+   
+   /** Creates an indexer that owns the connection and closes it in close()
+    *  @param batchSize  instances per transaction at most
+    *  @param maxDelayMillis  longest an instance waits for its batch to fill
+    *  @param queueCapacity  instances queued before index() blocks
+    */
+   public StorageIndexer(Connection c, int batchSize, long maxDelayMillis, int queueCapacity) throws SQLException {
+      this.c = c;
+      this.batchSize = Math.max(1, batchSize);
+      this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+      this.queue = new ArrayBlockingQueue<>(queueCapacity);
+      
+      c.setAutoCommit(false);
+      String database = c.getMetaData().getDatabaseProductName();
+      ps1 = c.prepareStatement(upsert(database, "patients", PATIENT_COLUMNS));
+      ps2 = c.prepareStatement(upsert(database, "studies", STUDY_COLUMNS));
+      ps3 = c.prepareStatement(upsert(database, "series", SERIES_COLUMNS));
+      ps4 = c.prepareStatement(upsert(database, "objects", OBJECT_COLUMNS));
+      
+      writer = new Thread(this::writeLoop, "DICOM indexer");
+      writer.setDaemon(true);
+      writer.start();
+   }
+   
+   /** Queues an instance for indexing. Blocks only if the queue is full.
+    *  After close() the instance is logged and dropped. */
+   public void index(DicomObject imageObject, File file) throws InterruptedException {
+      IndexRecord r = record(imageObject, file);
+      
+      closeLock.readLock().lock();
+      try {
+         if (!closed) {
+            queue.put(r);
+            return;
+         }
+      }
+      finally {
+         closeLock.readLock().unlock();
+      }
+      
+      logger.warning("StorageIndexer is closed, not indexing " + file);
+      failedCount.incrementAndGet();
+   }
+   
+   /** Instances waiting to be written */
+   public int getQueueDepth() {
+      return queue.size();
+   }
+   
+   /** How long the oldest instance not yet committed has been waiting */
+   public long getLagMillis() {
+      IndexRecord oldest = oldestInFlight;
+      if (oldest == null) {
+         oldest = queue.peek();
+      }
+      return oldest == null || oldest == END ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest.queued);
+   }
+   
+   public long getIndexedCount() {
+      return indexedCount.get();
+   }
+   
+   public long getFailedCount() {
+      return failedCount.get();
+   }
+   
+   /** Writes whatever is queued, then closes the statements and connection */
+   public void close() throws InterruptedException {
+      closeLock.writeLock().lock();
+      try {
+         if (closed) {
+            return;
+         }
+         closed = true;
+      }
+      finally {
+         closeLock.writeLock().unlock();
+      }
+      
+      // the writer only stops early if it was interrupted
+      while (writer.isAlive() && !queue.offer(END, 100, TimeUnit.MILLISECONDS)) {
+      }
+      writer.join();
+      
+      try {
+         ps1.close();
+         ps2.close();
+         ps3.close();
+         ps4.close();
+         c.close();
+      }
+      catch (SQLException e) {
+         logger.warning(e.toString());
+      }
+   }
+   
+   private void writeLoop() {
+      List<IndexRecord> batch = new ArrayList<>(batchSize);
+      boolean done = false;
+      
+      while (!done) {
+         try {
+            IndexRecord first = queue.take();
+            if (first == END) {
+               return;
+            }
+            
+            oldestInFlight = first;
+            batch.add(first);
+            
+            // fill the batch until it is full or the first record has waited long enough
+            long deadline = first.queued + maxDelayNanos;
+            while (batch.size() < batchSize) {
+               queue.drainTo(batch, batchSize - batch.size());
+               if (batch.get(batch.size() - 1) == END) {
+                  batch.remove(batch.size() - 1);
+                  done = true;
+                  break;
+               }
+               long wait = deadline - System.nanoTime();
+               if (batch.size() >= batchSize || wait <= 0) {
+                  break;
+               }
+               IndexRecord next = queue.poll(wait, TimeUnit.NANOSECONDS);
+               if (next == END) {
+                  done = true;
+                  break;
+               }
+               if (next != null) {
+                  batch.add(next);
+               }
+            }
+         }
+         catch (InterruptedException e) {
+            logger.warning("StorageIndexer interrupted, " + queue.size() + " instances not indexed");
+            done = true;
+         }
+         
+         try {
+            if (!batch.isEmpty()) {
+               writeBatch(batch);
+            }
+         }
+         catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Failed to index a batch of " + batch.size(), e);
+            failedCount.addAndGet(batch.size());
+         }
+         finally {
+            batch.clear();
+            oldestInFlight = null;
+         }
+      }
+   }
+   
+   private void writeBatch(List<IndexRecord> batch) {
+      try {
+         // one row per patient, study and series, the last instance wins
+         Map<String, IndexRecord> patients = new LinkedHashMap<>();
+         Map<String, IndexRecord> studies = new LinkedHashMap<>();
+         Map<String, IndexRecord> series = new LinkedHashMap<>();
+         for (IndexRecord r : batch) {
+            if (r.patientID != null) patients.put(r.patientID, r);
+            if (r.studyInstanceUID != null) studies.put(r.studyInstanceUID, r);
+            if (r.seriesInstanceUID != null) series.put(r.seriesInstanceUID, r);
+         }
+         
+         for (IndexRecord r : patients.values()) {
+            setPatient(r);
+            ps1.addBatch();
+         }
+         for (IndexRecord r : studies.values()) {
+            setStudy(r);
+            ps2.addBatch();
+         }
+         for (IndexRecord r : series.values()) {
+            setSeries(r);
+            ps3.addBatch();
+         }
+         for (IndexRecord r : batch) {
+            setObject(r);
+            ps4.addBatch();
+         }
+         ps1.executeBatch();
+         ps2.executeBatch();
+         ps3.executeBatch();
+         ps4.executeBatch();
+         c.commit();
+         
+         indexedCount.addAndGet(batch.size());
+      }
+      catch (SQLException e) {
+         logger.log(Level.WARNING, "Index batch of " + batch.size() + " failed, retrying one at a time", e);
+         rollback();
+         
+         for (IndexRecord r : batch) {
+            try {
+               if (r.patientID != null) {
+                  setPatient(r);
+                  ps1.executeUpdate();
+               }
+               if (r.studyInstanceUID != null) {
+                  setStudy(r);
+                  ps2.executeUpdate();
+               }
+               if (r.seriesInstanceUID != null) {
+                  setSeries(r);
+                  ps3.executeUpdate();
+               }
+               setObject(r);
+               ps4.executeUpdate();
+               c.commit();
+               
+               indexedCount.incrementAndGet();
+            }
+            catch (SQLException e2) {
+               logger.severe("Failed to index " + r.sopInstanceUID + ": " + e2);
+               rollback();
+               failedCount.incrementAndGet();
+            }
+         }
+      }
+   }
+   
+   private void rollback() {
+      try {
+         ps4.clearBatch();
+         c.rollback();
+      }
+      catch (SQLException e) {
+         logger.severe(e.toString());
+      }
+   }
+   
+   private void setPatient(IndexRecord r) throws SQLException {
+      ps1.setString(1, r.patientID);
+      ps1.setString(2, r.patientName);
+      ps1.setString(3, r.patientAge);
+      ps1.setString(4, r.patientSex);
+      ps1.setString(5, r.patientBirthDate);
+      ps1.setString(6, r.patientComments);
+   }
+   
+   private void setStudy(IndexRecord r) throws SQLException {
+      ps2.setString(1, r.studyInstanceUID);
+      if (r.studyDate != null) ps2.setString(2, r.studyDate); else ps2.setNull(2, Types.DATE);
+      if (r.studyTime != null) ps2.setString(3, r.studyTime); else ps2.setNull(3, Types.TIME);
+      if (r.protocolName != null) ps2.setString(4, r.protocolName); else ps2.setNull(4, Types.VARCHAR);
+      ps2.setString(5, r.patientID);
+   }
+   
+   private void setSeries(IndexRecord r) throws SQLException {
+      ps3.setString(1, r.seriesInstanceUID);
+      ps3.setString(2, r.seriesDate);
+      ps3.setString(3, r.modality);
+      ps3.setString(4, r.studyInstanceUID);
+   }
+   
+   private void setObject(IndexRecord r) throws SQLException {
+      ps4.setString(1, r.sopInstanceUID);
+      if (r.instanceNumber != null) ps4.setInt(2, r.instanceNumber); else ps4.setNull(2, Types.INTEGER);
+      ps4.setString(3, r.path);
+      ps4.setString(4, r.seriesInstanceUID);
+   }
+   
+   // An upsert of one row keyed on the first column, columns are "name TYPE"
+   static String upsert(String database, String table, String[] columns) {
+      String[] names = new String[columns.length];
+      String[] types = new String[columns.length];
+      for (int i=0; i<columns.length; i++) {
+         String[] column = columns[i].split(" ");
+         names[i] = column[0];
+         types[i] = column[1];
+      }
+      
+      StringBuilder sql = new StringBuilder();
+      if (database.equalsIgnoreCase("PostgreSQL") || database.equalsIgnoreCase("SQLite")) {
+         sql.append("INSERT INTO ").append(table).append(" (").append(String.join(", ", names)).append(") VALUES (");
+         for (int i=0; i<names.length; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+         }
+         sql.append(") ON CONFLICT (").append(names[0]).append(") DO UPDATE SET ");
+         for (int i=1; i<names.length; i++) {
+            sql.append(i == 1 ? "" : ", ").append(names[i]).append(" = EXCLUDED.").append(names[i]);
+         }
+      }
+      else if (database.equalsIgnoreCase("MySQL") || database.equalsIgnoreCase("MariaDB")) {
+         sql.append("INSERT INTO ").append(table).append(" (").append(String.join(", ", names)).append(") VALUES (");
+         for (int i=0; i<names.length; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+         }
+         sql.append(") ON DUPLICATE KEY UPDATE ");
+         for (int i=1; i<names.length; i++) {
+            sql.append(i == 1 ? "" : ", ").append(names[i]).append(" = VALUES(").append(names[i]).append(")");
+         }
+      }
+      else {
+         // the source row is cast so the database knows the parameter types
+         sql.append("MERGE INTO ").append(table).append(" t USING (SELECT ");
+         for (int i=0; i<names.length; i++) {
+            sql.append(i == 0 ? "" : ", ").append("CAST(? AS ").append(types[i]).append(") AS ").append(names[i]);
+         }
+         sql.append(") s ON (t.").append(names[0]).append(" = s.").append(names[0]).append(") WHEN MATCHED THEN UPDATE SET ");
+         for (int i=1; i<names.length; i++) {
+            sql.append(i == 1 ? "" : ", ").append(names[i]).append(" = s.").append(names[i]);
+         }
+         sql.append(" WHEN NOT MATCHED THEN INSERT (").append(String.join(", ", names)).append(") VALUES (");
+         for (int i=0; i<names.length; i++) {
+            sql.append(i == 0 ? "" : ", ").append("s.").append(names[i]);
+         }
+         sql.append(")");
+      }
+      return sql.toString();
+   }
+   
+   private static IndexRecord record(DicomObject imageObject, File file) {
+      IndexRecord r = new IndexRecord();
+      r.patientID = stringValue(imageObject, "PatientID");
+      VR name = imageObject.getVR("PatientName");
+      r.patientName = name == null ? null : new String(name.getValueBytes()).trim();
+      r.patientAge = stringValue(imageObject, "PatientAge");
+      r.patientSex = stringValue(imageObject, "PatientSex");
+      r.patientBirthDate = value(imageObject, "PatientBirthDate");
+      r.patientComments = stringValue(imageObject, "PatientComments");
+      
+      r.studyInstanceUID = stringValue(imageObject, "StudyInstanceUID");
+      r.studyDate = value(imageObject, "StudyDate");
+      r.studyTime = value(imageObject, "StudyTime");
+      r.protocolName = stringValue(imageObject, "ProtocolName");
+      
+      r.seriesInstanceUID = stringValue(imageObject, "SeriesInstanceUID");
+      r.seriesDate = value(imageObject, "SeriesDate");
+      r.modality = stringValue(imageObject, "Modality");
+      
+      r.sopInstanceUID = stringValue(imageObject, "SOPInstanceUID");
+      try {
+         r.instanceNumber = imageObject.getVR("InstanceNumber").getIntValue();
+      }
+      catch (Exception e) {}
+      r.path = file.getPath();
+      return r;
+   }
+   
+   private static String stringValue(DicomObject obj, String name) {
+      try {
+         return obj.getVR(name).getStringValue();
+      }
+      catch (Exception e) {
+         return null;
+      }
+   }
+   
+   private static String value(DicomObject obj, String name) {
+      try {
+         return obj.getVR(name).getValue().toString();
+      }
+      catch (Exception e) {
+         return null;
+      }
+   }
+}
@@ -0,0 +1,282 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom.net;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.channels.*;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * DICOM listener for storage. A single thread accepts connections on a
+ * non-blocking ServerSocketChannel with a Selector and hands each one to a
+ * bounded pool of association workers. Each worker negotiates the
+ * association and runs Association.Receive() over the channel. When every
+ * worker is busy the association is rejected with A-ASSOCIATE-RJ (transient,
+ * local limit exceeded) rather than left waiting in the accept backlog.
+ *
+ * The association itself blocks on its worker thread: C-STORE datasets are
+ * streamed to disk by StorageService as they arrive, so one thread per
+ * association is cheap and keeps the PDU handling in Association unchanged.
+ *
+ * @author  jsnell
+ */
+public class StorageServer {
+   
+   static final private Logger logger = Logger.getGlobal();
+   
+   private final AssociationFactory factory;
+   private final int requestedPort;
+   private final int maxAssociations;
+   
+   private ServerSocketChannel server;
+   private Selector selector;
+   private Thread acceptor;
+   private ThreadPoolExecutor workers;
+   private ThreadPoolExecutor rejector;
+   private volatile boolean running;
+   
+   /** Creates a storage server that stores under storageRoot with the
+    *  default layout, without database indexing, and answers C-ECHO.
+    *  Port 0 picks a free port, see getPort(). */
+   public StorageServer(File storageRoot, int port) {
+      this(storageRoot, port, 2 * Runtime.getRuntime().availableProcessors());
+   }
+   
+   public StorageServer(File storageRoot, int port, int maxAssociations) {
+      this(defaultFactory(storageRoot), port, maxAssociations);
+   }
+   
+   /** Creates a server for the providers registered with factory, serving
+    *  at most maxAssociations associations at once. */
+   public StorageServer(AssociationFactory factory, int port, int maxAssociations) {
+      this.factory = factory;
+      this.requestedPort = port;
+      this.maxAssociations = Math.max(1, maxAssociations);
+   }
+   
+   private static AssociationFactory defaultFactory(File storageRoot) {
+      AssociationFactory af = new AssociationFactory();
+      af.AddProvider(new VerificationService());
+      af.AddProvider(new StorageService(storageRoot, StorageService.DEFAULT_LAYOUT, false));
+      return af;
+   }
+   
+   public synchronized void start() throws IOException {
+      if (running) {
+         return;
+      }
+      
+      server = ServerSocketChannel.open();
+      server.socket().setReuseAddress(true);
+      server.bind(new InetSocketAddress(requestedPort), 128);
+      server.configureBlocking(false);
+      selector = Selector.open();
+      server.register(selector, SelectionKey.OP_ACCEPT);
+      
+      // A SynchronousQueue hands off only to an idle worker, so the pool
+      // rejects as soon as all maxAssociations are busy
+      workers = new ThreadPoolExecutor(maxAssociations, maxAssociations, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<Runnable>(), new NamedThreadFactory("DICOM association"));
+      workers.allowCoreThreadTimeOut(true);
+      
+      // Rejections wait for the A-ASSOCIATE-RQ, so they get a thread of their own
+      rejector = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<Runnable>(maxAssociations), new NamedThreadFactory("DICOM reject"));
+      rejector.allowCoreThreadTimeOut(true);
+      
+      running = true;
+      acceptor = new Thread(this::acceptLoop, "DICOM acceptor " + getPort());
+      acceptor.setDaemon(true);
+      acceptor.start();
+      
+      logger.info("Storage server listening on port " + getPort());
+   }
+   
+   public synchronized void stop() {
+      if (!running) {
+         return;
+      }
+      
+      running = false;
+      selector.wakeup();
+      try {
+         acceptor.join();
+      }
+      catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+      
+      try {
+         selector.close();
+         server.close();
+      }
+      catch (IOException e) {
+         logger.warning(e.toString());
+      }
+      
+      // Interrupting a worker closes its channel and ends the association
+      workers.shutdownNow();
+      rejector.shutdownNow();
+   }
+   
+   public int getPort() {
+      return server.socket().getLocalPort();
+   }
+   
+   private void acceptLoop() {
+      while (running) {
+         try {
+            selector.select();
+            
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+               SelectionKey key = keys.next();
+               keys.remove();
+               
+               if (key.isValid() && key.isAcceptable()) {
+                  SocketChannel channel;
+                  while ((channel = server.accept()) != null) {
+                     dispatch(channel);
+                  }
+               }
+            }
+         }
+         catch (ClosedSelectorException e) {
+            return;
+         }
+         catch (IOException e) {
+            logger.log(Level.WARNING, "Accept failed", e);
+         }
+      }
+   }
+   
+   private void dispatch(SocketChannel channel) throws IOException {
+      channel.configureBlocking(true);
+      channel.socket().setTcpNoDelay(true);
+      
+      try {
+         workers.execute(() -> serve(channel));
+      }
+      catch (RejectedExecutionException e) {
+         logger.warning("All " + maxAssociations + " associations busy, rejecting " + channel.getRemoteAddress());
+         try {
+            rejector.execute(() -> reject(channel));
+         }
+         catch (RejectedExecutionException e2) {
+            close(channel);
+         }
+      }
+   }
+   
+   private void serve(SocketChannel channel) {
+      try {
+         // Not buffered, PDUReader reads whole PDUs from the channel and
+         // PDUWriter writes P-DATA-TF with gathering writes
+         InputStream in = new ChannelInputStream(channel);
+         OutputStream out = new ChannelOutputStream(channel);
+         
+         Association assoc = factory.CreateProviderAssociation(in, out);
+         if (assoc != null) {
+            assoc.Receive();
+         }
+      }
+      catch (IOException e) {
+         logger.log(Level.WARNING, "Association failed", e);
+      }
+      finally {
+         close(channel);
+      }
+   }
+   
+   // A-ASSOCIATE-RJ: rejected-transient, service-provider (presentation), local-limit-exceeded
+   private void reject(SocketChannel channel) {
+      try {
+         channel.socket().setSoTimeout(5000);
+         InputStream in = channel.socket().getInputStream();
+         PDU rq = PDU.readPDU(in);
+         
+         if (rq.getType() == PDU.A_ASSOCIATE_RQ) {
+            PDU rj = new PDU();
+            rj.setType(PDU.A_ASSOCIATE_RJ);
+            rj.setBuffer(new byte[] { 0, 2, 3, 2 });
+            rj.writePDU(channel.socket().getOutputStream());
+         }
+      }
+      catch (IOException e) {
+         logger.fine(e.toString());
+      }
+      finally {
+         close(channel);
+      }
+   }
+   
+   private static void close(SocketChannel channel) {
+      try {
+         channel.close();
+      }
+      catch (IOException e) {
+         logger.fine(e.toString());
+      }
+   }
+   
+   private static class NamedThreadFactory implements ThreadFactory {
+      private final String name;
+      private final AtomicInteger count = new AtomicInteger();
+      
+      NamedThreadFactory(String name) { this.name = name; }
+      
+      public Thread newThread(Runnable r) {
+         Thread t = new Thread(r, name + " " + count.incrementAndGet());
+         t.setDaemon(true);
+         return t;
+      }
+   }
+   
+   public static void main(String[] args) {
+      int port = args.length > 0 ? Integer.parseInt(args[0]) : 104;
+      File root = args.length > 1 ? new File(args[1]) : new File(System.getProperty("user.home"), "tmp");
+      
+      StorageServer server = new StorageServer(root, port);
+      try {
+         server.start();
+         Thread.currentThread().join();
+      }
+      catch (Exception e) {
+         logger.log(Level.SEVERE, e.toString());
+      }
+      finally {
+         server.stop();
+      }
+   }
+}
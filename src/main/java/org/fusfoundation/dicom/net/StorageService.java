@@ -26,17 +26,34 @@ package org.fusfoundation.dicom.net;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import java.sql.DriverManager;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.PreparedStatement;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.fusfoundation.dicom.UID;
+import org.fusfoundation.dicom.DicomException;
 import org.fusfoundation.dicom.DicomObject;
+import org.fusfoundation.dicom.DicomObjectReader;
 import org.fusfoundation.dicom.VR;
 import org.fusfoundation.dicom.VrReader;
 import org.fusfoundation.dicom.VrOutputStream;
@@ -44,27 +61,103 @@ import org.fusfoundation.dicom.DicomString;
 import org.fusfoundation.dicom.DicomNumber;
 import org.fusfoundation.dicom.DicomRuntimeException;
 
+import org.fusfoundation.dicom.part10.DicomFileReader;
 import org.fusfoundation.dicom.part10.DicomFileWriter;
 
 import org.fusfoundation.dicom.net.Association;
 
 /**
+ * C-STORE provider. Each dataset is streamed to a temporary file under
+ * storageRoot/.incoming as its P-DATA fragments arrive, in the transfer
+ * syntax negotiated for its presentation context. The fragments go through
+ * a CircularByteBuffer to a disk writer thread, so the association thread
+ * reads the next PDU while the last one is written out. When the last fragment is
+ * in, only the header is parsed to find where the file belongs, the file is
+ * moved into place and the response is sent. Pixel data never passes
+ * through the heap.
+ *
+ * Files are placed by a layout pattern of {AttributeName} references
+ * relative to storageRoot, see DEFAULT_LAYOUT. Database indexing, if any,
+ * is queued to a StorageIndexer so the response doesn't wait for it.
  *
  * @author  jsnell
  */
-public class StorageService extends ServiceClassProviderBaseImpl {
+public class StorageService extends ServiceClassProviderBaseImpl implements StreamingServiceClassProvider {
    
-   private static final UID sopuids[] = {UID.CTImageStorage, UID.MRImageStorage, UID.CRImageStorage,
+   // Also the storage classes QueryRetrieveUser and RetrievalEngine accept
+   // for C-GET and C-MOVE sub-operations
+   static final UID sopuids[] = {UID.CTImageStorage, UID.MRImageStorage, UID.CRImageStorage,
    UID.DigitalXrayForPresentationImageStorage, UID.SecondaryCaptureImageStorage,
    UID.UltrasoundImageStorage};
-   private static final UID tsyn[] = {UID.ExplicitVRBigEndian, UID.ExplicitVRLittleEndian, UID.ImplicitVRLittleEndian};
+   // Explicit VR Little Endian first, it is what the files are written in anyway
+   private static final UID tsyn[] = {UID.ExplicitVRLittleEndian, UID.ImplicitVRLittleEndian, UID.ExplicitVRBigEndian};
    static final private Logger logger = Logger.getGlobal();
+   
+   public static final String DEFAULT_LAYOUT = "{PatientName}/{StudyID}/{SeriesNumber}/{SOPInstanceUID}";
+   
+   // C-STORE response status codes
+   private static final int STATUS_SUCCESS = 0x0000;
+   private static final int STATUS_OUT_OF_RESOURCES = 0xA700;
+   private static final int STATUS_CANNOT_UNDERSTAND = 0xC000;
+   
+   // Per association thread, the pipe is reused from one dataset to the next
+   private static final int PIPE_SIZE = 1 << 20;
+   private static final ThreadLocal<CircularByteBuffer> pipes = ThreadLocal.withInitial(() -> new CircularByteBuffer(PIPE_SIZE, true));
+   
+   private static final ExecutorService diskWriters = Executors.newCachedThreadPool(r -> {
+      Thread t = new Thread(r, "DICOM store writer");
+      t.setDaemon(true);
+      return t;
+   });
+   
+   private static final Pattern layoutField = Pattern.compile("\\{(\\w+)\\}");
+   
+   private final File storageRoot;
+   private final File incomingDir;
+   private final String layout;
 
-   private Connection c = null;
-   private PreparedStatement ps1, ps2, ps3, ps4;
+   private final StorageIndexer indexer;
    
-   /** Creates a new instance of StorageService */
+   /** Creates a new instance of StorageService that stores under ~/tmp and
+    *  indexes in the dicomstorage database */
    public StorageService() {
+      this(new File(System.getProperty("user.home"), "tmp"), DEFAULT_LAYOUT, true);
+   }
+   
+   /** Creates a new instance of StorageService
+    *  @param storageRoot  folder the layout is relative to
+    *  @param layout  relative path of each stored file, see DEFAULT_LAYOUT
+    *  @param indexInDatabase  also record each object in the dicomstorage database
+    */
+   public StorageService(File storageRoot, String layout, boolean indexInDatabase) {
+      this(storageRoot, layout, indexInDatabase ? databaseIndexer() : null);
+   }
+   
+   /** Creates a new instance of StorageService
+    *  @param storageRoot  folder the layout is relative to
+    *  @param layout  relative path of each stored file, see DEFAULT_LAYOUT
+    *  @param indexer  indexes each stored object, or null for none
+    */
+   public StorageService(File storageRoot, String layout, StorageIndexer indexer) {
+      this.storageRoot = storageRoot;
+      this.incomingDir = new File(storageRoot, ".incoming");
+      this.layout = layout;
+      this.indexer = indexer;
+   }
+   
+   public StorageIndexer getIndexer() {
+      return indexer;
+   }
+   
+   /** Finishes any queued indexing */
+   public void close() throws InterruptedException {
+      if (indexer != null) {
+         indexer.close();
+      }
+   }
+   
+   private static StorageIndexer databaseIndexer() {
+      Connection c;
       // Setup DB connection
          try {
             Class.forName("org.postgresql.Driver");
@@ -86,19 +179,15 @@ public class StorageService extends ServiceClassProviderBaseImpl {
          }
                   
          try {
-            ps1 = c.prepareStatement("INSERT INTO patients VALUES (?, ?, ?, ?, ?, ?)");
-            ps2 = c.prepareStatement("INSERT INTO studies VALUES (?, ?, ?, ?, ?)");
-            ps3 = c.prepareStatement("INSERT INTO series VALUES (?, ?, ?, ?)");
-            ps4 = c.prepareStatement("INSERT INTO objects VALUES (?, ?, ?, ?)");
+            StorageIndexer indexer = new StorageIndexer(c);
+            logger.info("DB connection setup complete.");
+            return indexer;
          }
          catch (SQLException se) {
             logger.severe("We got an exception while preparing a statement:" +
             "Probably bad SQL.");
             throw new DicomRuntimeException(se.toString());
          }
-         
-         logger.info("DB connection setup complete.");
-         
    }
    
    public UID[] getSupportedTransferSyntaxes() {
@@ -109,6 +198,145 @@ public class StorageService extends ServiceClassProviderBaseImpl {
       return sopuids;
    }
    
+   // A dataset on its way to disk. Holds the temporary file it is written to.
+   // The association thread writes into a pipe that a disk writer thread
+   // empties into the file.
+   private static class IncomingDataset extends OutputStream implements WritableByteChannel {
+      final File file;
+      final DicomFileWriter writer;
+      private final OutputStream pipe;
+      private final Future<?> copy;
+      
+      IncomingDataset(File file, DicomFileWriter writer) {
+         this.file = file;
+         this.writer = writer;
+         
+         CircularByteBuffer buffer = pipes.get();
+         buffer.clear();
+         pipe = buffer.getOutputStream();
+         InputStream in = buffer.getInputStream();
+         OutputStream out = writer.getDatasetOutputStream();
+         copy = diskWriters.submit(() -> {
+            try {
+               byte[] chunk = new byte[65536];
+               int n;
+               while ((n = in.read(chunk, 0, chunk.length)) != -1) {
+                  out.write(chunk, 0, n);
+               }
+               return null;
+            }
+            finally {
+               in.close(); // after a failed write, writes to the pipe fail too
+            }
+         });
+      }
+      
+      public void write(int b) throws IOException {
+         pipe.write(b);
+      }
+      
+      public void write(byte[] b, int off, int len) throws IOException {
+         pipe.write(b, off, len);
+      }
+      
+      public int write(ByteBuffer src) throws IOException {
+         return ((WritableByteChannel)pipe).write(src);
+      }
+      
+      public boolean isOpen() {
+         return ((WritableByteChannel)pipe).isOpen();
+      }
+      
+      // Waits for the disk writer to finish the file
+      public void close() throws IOException {
+         pipe.close();
+         try {
+            copy.get();
+         }
+         catch (InterruptedException e) {
+            pipes.remove(); // the disk writer may still be using it
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+         }
+         catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException)e.getCause() : new IOException(e.getCause());
+         }
+         finally {
+            writer.close();
+         }
+      }
+   }
+   
+   public OutputStream beginDataset(Association assoc, int PresentationContextID, DicomObject command) throws IOException {
+      String sopClass = command.getVR("AffectedSOPClassUID").getStringValue();
+      String instanceUID = command.getVR("AffectedSOPInstanceUID").getStringValue();
+      
+      incomingDir.mkdirs();
+      File file = File.createTempFile("store", ".dcm", incomingDir);
+      try {
+         return new IncomingDataset(file, new DicomFileWriter(file, sopClass, instanceUID, assoc.getTransferSyntax(PresentationContextID).toString()));
+      }
+      catch (IOException e) {
+         file.delete();
+         throw e;
+      }
+   }
+   
+   public void endDataset(Association assoc, int PresentationContextID, DicomObject command, OutputStream dataset) throws IOException {
+      if (dataset == null) {
+         logger.warning("C-STORE without a dataset");
+         sendResponse(assoc, PresentationContextID, command, STATUS_CANNOT_UNDERSTAND);
+         return;
+      }
+      
+      IncomingDataset incoming = (IncomingDataset)dataset;
+      int status = STATUS_SUCCESS;
+      try {
+         incoming.close();
+         
+         // Just the header, to place and index the file
+         DicomObject imageObject;
+         DicomFileReader dfr = new DicomFileReader(incoming.file);
+         try {
+            dfr.setReadPixelData(false);
+            imageObject = new DicomObjectReader(dfr).read();
+         }
+         finally {
+            dfr.close();
+         }
+         
+         File file = storageFile(imageObject, command);
+         file.getParentFile().mkdirs();
+         Files.move(incoming.file.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+         
+         index(imageObject, file);
+      }
+      catch (DicomException e) {
+         logger.log(Level.WARNING, "Failed to parse C-STORE dataset", e);
+         status = STATUS_CANNOT_UNDERSTAND;
+      }
+      catch (IOException e) {
+         logger.log(Level.WARNING, "Failed to store C-STORE dataset", e);
+         status = STATUS_OUT_OF_RESOURCES;
+      }
+      finally {
+         incoming.file.delete(); // only still there if it wasn't moved
+      }
+      
+      sendResponse(assoc, PresentationContextID, command, status);
+   }
+   
+   public void abortDataset(Association assoc, int PresentationContextID, DicomObject command, OutputStream dataset) {
+      IncomingDataset incoming = (IncomingDataset)dataset;
+      try {
+         incoming.close();
+      }
+      catch (IOException e) {
+         logger.warning(e.toString());
+      }
+      incoming.file.delete();
+   }
+   
    public void handleCommand(Association assoc, int PresentationContextID, DicomObject command, VrReader messageStream) {
       UID sopClass = new UID(command.getVR("AffectedSOPClassUID").getStringValue());
       
@@ -138,154 +366,104 @@ public class StorageService extends ServiceClassProviderBaseImpl {
          DicomObject imageObject = new DicomObject();
          VR v;
          while ((v = messageStream.readVR()) != null) {
-            logger.info(v.toString());
             imageObject.addVR(v);
          }
          logger.info("Dataset received.");
          
-         DicomObject response = new DicomObject();
-         ByteArrayOutputStream bos1 = new ByteArrayOutputStream(256);
-         VrOutputStream vos1 = new VrOutputStream(bos1);
-         
-         int msgID = command.getVR("MessageID").getIntValue();
          String instanceUID = command.getVR("AffectedSOPInstanceUID").getStringValue();
          
-         String patientName = new String(imageObject.getVR("PatientsName").getValueBytes()).trim();
-         String studyuid = imageObject.getVR("StudyID").getStringValue();
-         String seriesuid = "" + imageObject.getVR("SeriesNumber").getIntValue();
-         
          // Write the dataset to a file
          logger.info("Storing object");
-         File file = new File("/home/jsnell/tmp/" + patientName + "/" + studyuid + "/" + seriesuid);
-         file.mkdirs();
-         file = new File("/home/jsnell/tmp/" + patientName + "/" + studyuid + "/" + seriesuid + "/" + instanceUID);
-         DicomFileWriter fw = new DicomFileWriter(file, UID.CTImageStorage.toString(), instanceUID);
+         File file = storageFile(imageObject, command);
+         file.getParentFile().mkdirs();
+         DicomFileWriter fw = new DicomFileWriter(file, sopClass.toString(), instanceUID);
          fw.write(imageObject);
          
          // Index in the database
-         logger.info("Indexing object");
-                   
+         index(imageObject, file);
          
-         try {
-            ps1.setString(1, imageObject.getVR("PatientID").getStringValue());
-            ps1.setString(2, patientName);
-            ps1.setString(3, null);
-            ps1.setString(4, null);
-            ps1.setString(5, null);
-            ps1.setString(6, null);
-            try {
-               ps1.setString(3, imageObject.getVR("PatientsAge").getStringValue());
-            }
-            catch (Exception e) {}
-            try {
-               ps1.setString(4, imageObject.getVR("PatientsSex").getStringValue());
-            }
-            catch (Exception e) {}
-            try {
-               ps1.setString(5, imageObject.getVR("PatientsBirthDate").getValue().toString());
-            }
-            catch (Exception e) {}
-            try {
-               ps1.setString(6, imageObject.getVR("PatientComments").getStringValue());
-            }
-            catch (Exception e) {}
-         } catch (SQLException se) {
-            logger.severe("We got an exception while preparing a statement:" +
-            "Probably bad SQL.");
-            throw new DicomRuntimeException(se.toString());
-         }
-         
-         try {
-            ps1.executeUpdate();
-         } catch (SQLException se) {
-            logger.severe(se.toString());
-            //throw new DicomRuntimeException(se.toString());
-         }
-         
-         try {
-            //ps = c.prepareStatement("INSERT INTO studies VALUES (?, ?, ?, ?, ?)");
-            ps2.setString(1, imageObject.getVR("StudyInstanceUID").getStringValue());
-            ps2.setNull(2, java.sql.Types.DATE);
-            ps2.setNull(3, java.sql.Types.TIME);
-            ps2.setNull(4, java.sql.Types.VARCHAR);
-            try {
-               ps2.setString(2, imageObject.getVR("StudyDate").getValue().toString());
-            }
-            catch (Exception e) {}
-            try {
-               ps2.setString(3, imageObject.getVR("StudyTime").getValue().toString());
-            }
-            catch (Exception e) {}
-            try {
-               ps2.setString(4, imageObject.getVR("ProtocolName").getStringValue());
-            }
-            catch (Exception e) {}
-            ps2.setString(5, imageObject.getVR("PatientID").getStringValue());
-         } catch (SQLException se) {
-            logger.severe(se.toString());
-            throw new DicomRuntimeException(se.toString());
-         }
-         
-         try {
-            ps2.executeUpdate();
-         } catch (SQLException se) {
-            logger.severe(se.toString());
-            //throw new DicomRuntimeException(se.toString());
+         sendResponse(assoc, PresentationContextID, command, STATUS_SUCCESS);
+      }
+      catch (IOException e) {
+         throw new DicomRuntimeException(e.toString());
+      }
+   }
+   
+   // Where the layout puts an object. Values are taken from the object, or
+   // the command for the SOP instance UID, and made safe for a file name.
+   private File storageFile(DicomObject imageObject, DicomObject command) {
+      StringBuffer path = new StringBuffer();
+      Matcher m = layoutField.matcher(layout);
+      while (m.find()) {
+         String name = m.group(1);
+         String value = attributeValue(imageObject, name);
+         if (value.length() == 0 && name.equals("SOPInstanceUID")) {
+            value = attributeValue(command, "AffectedSOPInstanceUID");
          }
-         
-         try {
-            //ps = c.prepareStatement("INSERT INTO series VALUES (?, ?, ?, ?)");
-            ps3.setString(1, imageObject.getVR("SeriesInstanceUID").getStringValue());
-            ps3.setString(2, null);
-            ps3.setString(3, null);
-            try {
-               ps3.setString(2, imageObject.getVR("SeriesDate").getValue().toString());
-            }
-            catch (Exception e) {}
-            try {
-               ps3.setString(3, imageObject.getVR("Modality").getStringValue());
-            }
-            catch (Exception e) {}
-            ps3.setString(4, imageObject.getVR("StudyInstanceUID").getStringValue());
-         } catch (SQLException se) {
-            logger.severe(se.toString());
-            throw new DicomRuntimeException(se.toString());
+         m.appendReplacement(path, Matcher.quoteReplacement(safeFileName(value)));
+      }
+      m.appendTail(path);
+      
+      return new File(storageRoot, path.toString());
+   }
+   
+   private static String attributeValue(DicomObject obj, String name) {
+      try {
+         VR v = obj.getVR(name);
+         if (v != null) {
+            return new String(v.getValueBytes()).trim();
          }
-         
-         try {
-            ps3.executeUpdate();
-         } catch (SQLException se) {
-            //logger.severe(se.toString());
-            //throw new DicomRuntimeException(se.toString());
+      }
+      catch (RuntimeException e) {
+         logger.warning("Unknown layout attribute: " + name);
+      }
+      return "";
+   }
+   
+   private static String safeFileName(String value) {
+      if (value.length() == 0) {
+         return "UNKNOWN";
+      }
+      StringBuilder name = new StringBuilder(value.length());
+      for (int i=0; i<value.length(); i++) {
+         char ch = value.charAt(i);
+         if (Character.isLetterOrDigit(ch) || ch == '.' || ch == '-' || ch == '^' || ch == ' ') {
+            name.append(ch);
          }
-         
-         try {
-            //ps = c.prepareStatement("INSERT INTO objects VALUES (?, ?, ?, ?)");
-            ps4.setString(1, imageObject.getVR("SOPInstanceUID").getStringValue());
-            ps4.setInt(2, imageObject.getVR("InstanceNumber").getIntValue());
-            ps4.setString(3, file.getPath());
-            ps4.setString(4, imageObject.getVR("SeriesInstanceUID").getStringValue());
-         } catch (SQLException se) {
-            logger.severe(se.toString());
-            throw new DicomRuntimeException(se.toString());
+         else {
+            name.append('_');
          }
+      }
+      return name.toString().equals("..") ? "__" : name.toString();
+   }
+   
+   private void index(DicomObject imageObject, File file) {
+      if (indexer == null) {
+         return;
+      }
+      try {
+         indexer.index(imageObject, file);
+      }
+      catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         logger.warning("Not indexed: " + file);
+      }
+   }
+   
+   private void sendResponse(Association assoc, int PresentationContextID, DicomObject command, int status) throws IOException {
+         DicomObject response = new DicomObject();
+         ByteArrayOutputStream bos1 = new ByteArrayOutputStream(256);
+         VrOutputStream vos1 = new VrOutputStream(bos1);
          
-         try {
-            ps4.executeUpdate();
-         } catch (SQLException se) {
-            logger.severe("Duplicate Object Found: " + se.toString());
-            //throw new DicomRuntimeException("Duplicate Object Found: " + se.toString());
-         }
+         int msgID = command.getVR("MessageID").getIntValue();
          
          logger.info("Sending response.");
-         response.addVR(new VR("AffectedSOPClassUID", new DicomString(sopClass.toString())));
-         response.addVR(new VR("AffectedSOPInstanceUID", new DicomString(instanceUID)));
+         response.addVR(new VR("AffectedSOPClassUID", new DicomString(command.getVR("AffectedSOPClassUID").getStringValue())));
+         response.addVR(new VR("AffectedSOPInstanceUID", new DicomString(command.getVR("AffectedSOPInstanceUID").getStringValue())));
          response.addVR(new VR("CommandField", new DicomNumber(0x8001))); // C-STORE RSP
          response.addVR(new VR("MessageIDBeingRespondedTo", new DicomNumber(msgID)));
          response.addVR(new VR("DataSetType", new DicomNumber(0x0101))); // No dataset
-         response.addVR(new VR("Status", new DicomNumber(0x0))); // Success
-         
-         logger.info("Response:\n" + response);
+         response.addVR(new VR("Status", new DicomNumber(status)));
          
          Iterator i = response.iterator();
          while (i.hasNext()) {
@@ -317,10 +495,6 @@ public class StorageService extends ServiceClassProviderBaseImpl {
          pdu.setType(PDU.P_DATA_TF);
          pdu.setBuffer(msg);
          pdu.writePDU(assoc.getOutputStream());
-      }
-      catch (IOException e) {
-         throw new DicomRuntimeException(e.toString());
-      }
    }
    
 }
@@ -0,0 +1,53 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom.net;
+
+import org.fusfoundation.dicom.DicomObject;
+import java.io.*;
+
+/**
+ * A ServiceClassProvider that takes a command's dataset as raw bytes, in the
+ * presentation context's transfer syntax, rather than as VRs read on a
+ * separate thread. Association.Receive() writes each P-DATA fragment to the
+ * stream returned by beginDataset() as it arrives, so the dataset is never
+ * held in memory. All three methods are called on the association's thread.
+ *
+ * The returned stream carries any per-dataset state, one provider instance
+ * serves many associations at once.
+ *
+ * @author  jsnell
+ */
+public interface StreamingServiceClassProvider extends ServiceClassProvider {
+   
+   // A command with a dataset arrived. Returns where its bytes should go.
+   public OutputStream beginDataset(Association assoc, int PresentationContextID, DicomObject command) throws IOException;
+   
+   // The last fragment has been written to dataset, or the command has no
+   // dataset and dataset is null. The provider closes the stream and sends
+   // the response.
+   public void endDataset(Association assoc, int PresentationContextID, DicomObject command, OutputStream dataset) throws IOException;
+   
+   // The association ended before the last fragment arrived
+   public void abortDataset(Association assoc, int PresentationContextID, DicomObject command, OutputStream dataset);
+}
@@ -30,10 +30,12 @@ import org.fusfoundation.dicom.DicomObjectReader;
 import org.fusfoundation.dicom.DicomException;
 import org.fusfoundation.dicom.VrReader;
 import org.fusfoundation.dicom.VrInputStream;
+import org.fusfoundation.dicom.VrBufferReader;
 import org.fusfoundation.dicom.DicomObjectWriter;
 import org.fusfoundation.dicom.DicomObject;
 import org.fusfoundation.dicom.DicomNumber;
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -44,11 +46,26 @@ public class DicomFileReader implements VrReader {
     File inputFile;
     InputStream fis;
     VrInputStream vis;
+    VrBufferReader vbr; // used instead of vis when the file is read into a buffer
     DicomObject metaInfo;
     
     /** Creates a new instance of DicomFileReader */
     public DicomFileReader(File file) throws DicomException, FileNotFoundException, IOException {
+        this(file, false);
+    }
+    
+    /** Creates a new instance of DicomFileReader. If mapped is true the file
+     *  is read in windows into a buffer and parsed with a VrBufferReader, so
+     *  a header scan only reads the header and large binary values like
+     *  PixelData are not copied until they are used. */
+    public DicomFileReader(File file, boolean mapped) throws DicomException, FileNotFoundException, IOException {
         inputFile = file;
+        
+        if (mapped) {
+            openMapped(file);
+            return;
+        }
+        
         fis = new BufferedInputStream(new FileInputStream(file));
         
         fis.skip(128L);
@@ -82,29 +99,80 @@ public class DicomFileReader implements VrReader {
                 metaInfo.addVR(v);
             }
             
-            String v = metaInfo.getVR("TransferSyntaxUID").getStringValue();
-            UID tsyn = new UID(v);
-            if (tsyn.equals(UID.ImplicitVRLittleEndian)) {
-                vis.setIsImplicitVR(true);
-                vis.setIsLittleEndian(true);
-            } else if (tsyn.equals(UID.ExplicitVRLittleEndian)) {
-                vis.setIsImplicitVR(false);
-                vis.setIsLittleEndian(true);
-            } else if (tsyn.equals(UID.ExplicitVRBigEndian)) {
-                vis.setIsImplicitVR(false);
-                vis.setIsLittleEndian(false);
-            } else { // Encapsulated transfer syntax, JPEG, RLE, etc.
-                vis.setIsImplicitVR(false);
-                vis.setIsLittleEndian(true);
+            vis.setIsImplicitVR(isImplicitVR(metaInfo));
+            vis.setIsLittleEndian(isLittleEndian(metaInfo));
+        }
+    }
+    
+    private void openMapped(File file) throws DicomException, IOException {
+        ByteBuffer buf = VrBufferReader.read(file, 0, VrBufferReader.HEADER_WINDOW);
+        
+        if (buf.limit() < 132 || buf.get(128) != 'D' || buf.get(129) != 'I' || buf.get(130) != 'C' || buf.get(131) != 'M') {
+            vbr = new VrBufferReader(buf, true, true);
+            metaInfo = new DicomObject();
+            metaInfo.addVR(new VR("TransferSyntaxUID", new DicomString(UID.ImplicitVRLittleEndian.toString())));
+            vbr.setSourceFile(file, 0, UID.ImplicitVRLittleEndian.toString());
+        } else {
+            buf.position(132);
+            VrBufferReader mvbr = new VrBufferReader(buf, true, false); // meta information is Little Endian, Explicit VR
+            VR metaGroupTag = mvbr.readVR();
+            if(metaGroupTag == null || metaGroupTag.getGroup() != 2 || metaGroupTag.getElement() != 0) {
+                throw new DicomException("Invalid Dicom Part-10 file format: must include (0002,0000)");
             }
+            
+            int grplen = ((DicomNumber)(metaGroupTag.getValue(0))).getIntValue();
+            long metaEnd = mvbr.getPosition() + grplen;
+            if (grplen < 0 || 132 + metaEnd > buf.limit()) {
+                throw new DicomException("Invalid Dicom Part-10 file format: meta information group length " + grplen);
+            }
+            
+            metaInfo = new DicomObject();
+            metaInfo.addVR(metaGroupTag);
+            while (mvbr.getPosition() < metaEnd) {
+                VR v = mvbr.readVR();
+                if (v == null) break;
+                metaInfo.addVR(v);
+            }
+            
+            buf.position(132 + (int)metaEnd);
+            vbr = new VrBufferReader(buf, isLittleEndian(metaInfo), isImplicitVR(metaInfo));
+            vbr.setSourceFile(file, 132 + metaEnd, metaInfo.getVR("TransferSyntaxUID").getStringValue());
         }
     }
     
-    public int available() throws IOException { return vis.available(); }
+    private static boolean isImplicitVR(DicomObject meta) {
+        UID tsyn = new UID(meta.getVR("TransferSyntaxUID").getStringValue());
+        return tsyn.equals(UID.ImplicitVRLittleEndian);
+    }
+    
+    // Encapsulated transfer syntaxes (JPEG, RLE, etc.) are little endian
+    private static boolean isLittleEndian(DicomObject meta) {
+        UID tsyn = new UID(meta.getVR("TransferSyntaxUID").getStringValue());
+        return !tsyn.equals(UID.ExplicitVRBigEndian);
+    }
+    
+    public int available() throws IOException { return vbr != null ? vbr.available() : vis.available(); }
     public VrInputStream getVrInputStream() { return vis; }
-    public VR readVR() throws IOException { return vis.readVR(); }
+    public VrBufferReader getVrBufferReader() { return vbr; }
+    public VR readVR() throws IOException { return vbr != null ? vbr.readVR() : vis.readVR(); }
     public DicomObject getMetaInfo() { return metaInfo; }
-    public void setReadPixelData(boolean value) {vis.setReadPixelData(value);}
+    public void setReadPixelData(boolean value) {
+        if (vbr != null) {
+            vbr.setReadPixelData(value);
+        }
+        else {
+            vis.setReadPixelData(value);
+        }
+    }
+    
+    // Return PixelData as a VR holding a PixelDataHandle rather than reading
+    // it. Only supported for buffered readers, stream readers read the
+    // pixel data as usual.
+    public void setDeferPixelData(boolean value) {
+        if (vbr != null) {
+            vbr.setDeferPixelData(value);
+        }
+    }
     
     public static void main(String[] args) {
         // File file = new File("/home/jsnell/tmp/testfile");
@@ -158,6 +226,9 @@ public class DicomFileReader implements VrReader {
     }
     
     public void close() throws IOException {
+        if (vbr != null) {
+            vbr.close();
+        }
         if (vis != null) {
             vis.close();
         }
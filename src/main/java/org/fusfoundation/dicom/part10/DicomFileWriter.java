@@ -28,11 +28,12 @@ import org.fusfoundation.dicom.VR;
 import org.fusfoundation.dicom.UID;
 import org.fusfoundation.dicom.VrOutputStream;
 import org.fusfoundation.dicom.VrWriter;
-import org.fusfoundation.dicom.DicomObjectWriter;
 import org.fusfoundation.dicom.DicomObject;
 import org.fusfoundation.dicom.DicomNumber;
 import org.fusfoundation.dicom.DicomUnknown;
+import org.fusfoundation.dicom.PixelDataHandle;
 import java.io.*;
+import java.nio.channels.FileChannel;
 import java.util.*;
 
 /**
@@ -42,20 +43,32 @@ import java.util.*;
 public class DicomFileWriter implements VrWriter {
     
     private FileOutputStream fos;
+    private OutputStream out; // buffered fos
     private VrOutputStream fileVRStream;
+    private String transferSyntax;
 
     /** Creates a new instance of DicomFileWriter */
     public DicomFileWriter(File file, String SopClass, String Instance) throws IOException, FileNotFoundException {
+        this(file, SopClass, Instance, UID.ExplicitVRLittleEndian.toString());
+    }
+    
+    /** Creates a new instance of DicomFileWriter that writes the data set in
+     *  the given transfer syntax. Encapsulated syntaxes are written as Explicit
+     *  VR Little Endian, with PixelData copied from a file that already has it
+     *  encoded, see writeVR(). */
+    public DicomFileWriter(File file, String SopClass, String Instance, String transferSyntax) throws IOException, FileNotFoundException {
+        this.transferSyntax = transferSyntax;
         fos = new FileOutputStream(file);
+        out = new BufferedOutputStream(fos, 64 * 1024);
         
         // write the preamble
         for (int i=0; i<128; i++) {
-            fos.write(0);
+            out.write(0);
         }
-        fos.write('D');
-        fos.write('I');
-        fos.write('C');
-        fos.write('M');
+        out.write('D');
+        out.write('I');
+        out.write('C');
+        out.write('M');
         
         // write the meta information
         DicomObject metainf = new DicomObject();
@@ -65,7 +78,7 @@ public class DicomFileWriter implements VrWriter {
         metainf.addVR(new VR("FileMetaInformationVersion", new DicomUnknown(verBuf)));
         metainf.addVR(new VR("MediaStorageSOPClassUID", new DicomString(SopClass)));
         metainf.addVR(new VR("MediaStorageSOPInstanceUID", new DicomString(Instance)));
-        metainf.addVR(new VR("TransferSyntaxUID", new DicomString(UID.ExplicitVRLittleEndian.toString())));
+        metainf.addVR(new VR("TransferSyntaxUID", new DicomString(transferSyntax)));
         metainf.addVR(new VR("ImplementationClassUID", new DicomString("1.2.4.0.1.2.3.4.5.6")));
         
         ByteArrayOutputStream bos = new ByteArrayOutputStream();
@@ -74,22 +87,69 @@ public class DicomFileWriter implements VrWriter {
         while (iter.hasNext()) {
             vros.writeVR((VR)iter.next());
         }
-        VR groupTag = new VR("MetaElementGroupLength", new DicomNumber(bos.size()));
+        VR groupTag = new VR("FileMetaInformationGroupLength", new DicomNumber(bos.size()));
         
-        fileVRStream = new VrOutputStream(fos, true, false);
+        fileVRStream = new VrOutputStream(out, true, false);
         fileVRStream.writeVR(groupTag);
-        fos.write(bos.toByteArray());       
+        out.write(bos.toByteArray());
+        
+        UID tsyn = new UID(transferSyntax);
+        fileVRStream.setIsImplicitVR(tsyn.equals(UID.ImplicitVRLittleEndian));
+        fileVRStream.setIsLittleEndian(!tsyn.equals(UID.ExplicitVRBigEndian));
     }
     
-    public void close() throws IOException { fos.close(); }
+    public void close() throws IOException { out.close(); }
+    
+    // For data set bytes that are already encoded in this file's transfer
+    // syntax, written after any VRs. close() the writer when done.
+    public OutputStream getDatasetOutputStream() { return out; }
 
+    // A PixelData VR that still holds a PixelDataHandle is copied straight
+    // from its source file with FileChannel.transferTo() when its bytes are
+    // already encoded the way this file needs them, without reading them
+    // into memory.
     public void writeVR(VR vr) throws IOException {
-        fileVRStream.writeVR(vr);
+        PixelDataHandle handle = vr.getPixelDataHandle();
+        if (handle != null && vr.isValueDeferred() && canCopyPixelData(handle)) {
+            copyPixelData(vr, handle);
+        }
+        else {
+            fileVRStream.writeVR(vr);
+        }
+    }
+    
+    private boolean canCopyPixelData(PixelDataHandle handle) {
+        if (handle.isEncapsulated()) {
+            return transferSyntax.equals(handle.getTransferSyntax());
+        }
+        return handle.isLittleEndian() == fileVRStream.getIsLittleEndian();
     }
     
+    private void copyPixelData(VR vr, PixelDataHandle handle) throws IOException {
+        fileVRStream.writePixelDataHeader(vr, handle);
+        out.flush();
+        
+        try (FileInputStream src = new FileInputStream(handle.getFile())) {
+            FileChannel in = src.getChannel();
+            FileChannel dst = fos.getChannel();
+            long pos = handle.getOffset();
+            long end = pos + handle.getLength();
+            while (pos < end) {
+                long n = in.transferTo(pos, end - pos, dst);
+                if (n <= 0) {
+                    throw new EOFException("Truncated pixel data in " + handle.getFile());
+                }
+                pos += n;
+            }
+        }
+    }
+    
+    // Goes through writeVR() so deferred PixelData is copied, not read
     public void write(DicomObject obj) throws IOException {
-        DicomObjectWriter dow = new DicomObjectWriter(fileVRStream);
-        dow.write(obj);
+        Iterator i = obj.iterator();
+        while (i.hasNext()) {
+            writeVR((VR)i.next());
+        }
         close();
     }
     
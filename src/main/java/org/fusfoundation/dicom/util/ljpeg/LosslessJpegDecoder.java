@@ -0,0 +1,380 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom.util.ljpeg;
+
+import com.pixelmed.codec.jpeg.HuffmanTable;
+import com.pixelmed.codec.jpeg.MarkerSegmentDHT;
+import com.pixelmed.codec.jpeg.MarkerSegmentSOF;
+import com.pixelmed.codec.jpeg.MarkerSegmentSOS;
+import com.pixelmed.codec.jpeg.Markers;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Table driven decoder for single component JPEG Lossless (process 14, SOF3)
+ * frames, the encoding of DICOM transfer syntaxes 1.2.840.10008.1.2.4.57 and
+ * .70. Each DHT table is expanded into a lookahead table that decodes any
+ * code of up to LOOKAHEAD_BITS bits with one probe, and samples are
+ * reconstructed straight into a short[].
+ * 
+ * Frames this decoder doesn't handle (more than one component, a point
+ * transform, restart intervals that aren't whole lines, ...) throw an
+ * IOException from the constructor, callers fall back to
+ * com.pixelmed.codec.jpeg.Parse for those.
+ * 
+ * An instance decodes one frame and is not thread safe, use one per thread.
+ *
+ * @author jsnell
+ */
+public class LosslessJpegDecoder {
+    
+    private static final int LOOKAHEAD_BITS = 10;
+    private static final int LOOKAHEAD_MASK = (1 << LOOKAHEAD_BITS) - 1;
+    
+    // Decoding tables for one DC Huffman table
+    private static class HuffmanLookup {
+        // (code length << 8) | value for every LOOKAHEAD_BITS bit prefix
+        // that starts with a code of up to LOOKAHEAD_BITS bits, 0 otherwise
+        final int[] lookahead = new int[1 << LOOKAHEAD_BITS];
+        final int[] mincode;
+        final int[] maxcode;
+        final int[] valptr;
+        final int[] huffval;
+        
+        HuffmanLookup(HuffmanTable table) {
+            mincode = table.getMINCODE();
+            maxcode = table.getMAXCODE();
+            valptr = table.getVALPTR();
+            huffval = table.getHUFFVAL();
+            
+            for (int length=1; length<=LOOKAHEAD_BITS; length++) {
+                if (maxcode[length] < 0) {
+                    continue; // no codes of this length
+                }
+                int shift = LOOKAHEAD_BITS - length;
+                for (int code=mincode[length]; code<=maxcode[length]; code++) {
+                    int entry = length << 8 | huffval[valptr[length] + code - mincode[length]];
+                    int first = code << shift;
+                    for (int i=0; i < (1 << shift); i++) {
+                        lookahead[first + i] = entry;
+                    }
+                }
+            }
+        }
+    }
+    
+    private final byte[] data;
+    private final int end;
+    
+    private int width;
+    private int height;
+    private int precision;
+    private int predictor;
+    private int restartInterval;
+    private HuffmanLookup table;
+    
+    // bit reader state, bitBuffer holds bitCount unread bits in its low bits
+    private int pos;
+    private long bitBuffer;
+    private int bitCount;
+    private boolean markerReached;
+    
+    /**
+     * Reads the frame and scan headers of the JPEG stream in
+     * data[offset, offset+length).
+     */
+    public LosslessJpegDecoder(byte[] data, int offset, int length) throws IOException {
+        this.data = data;
+        this.end = offset + length;
+        this.pos = offset;
+        readHeaders();
+    }
+    
+    public LosslessJpegDecoder(byte[] data) throws IOException {
+        this(data, 0, data.length);
+    }
+    
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getPrecision() { return precision; }
+    
+    private int readByte() throws IOException {
+        if (pos >= end) {
+            throw new IOException("Unexpected end of JPEG data");
+        }
+        return data[pos++] & 0xff;
+    }
+    
+    private int readShort() throws IOException {
+        return readByte() << 8 | readByte();
+    }
+    
+    // Returns the next marker, skipping fill bytes
+    private int readMarker() throws IOException {
+        int b = readByte();
+        if (b != 0xff) {
+            throw new IOException("Expected JPEG marker at offset " + (pos - 1));
+        }
+        while (b == 0xff) {
+            b = readByte();
+        }
+        return 0xff00 | b;
+    }
+    
+    private byte[] readSegment() throws IOException {
+        int length = readShort() - 2;
+        if (length < 0 || pos + length > end) {
+            throw new IOException("Bad JPEG marker segment length");
+        }
+        byte[] segment = new byte[length];
+        System.arraycopy(data, pos, segment, 0, length);
+        pos += length;
+        return segment;
+    }
+    
+    private void readHeaders() throws IOException {
+        if (readMarker() != Markers.SOI) {
+            throw new IOException("Not a JPEG stream, no SOI marker");
+        }
+        
+        MarkerSegmentSOF sof = null;
+        MarkerSegmentSOS sos = null;
+        Map<String,HuffmanTable> huffmanTables = new HashMap<>();
+        
+        try {
+            while (sos == null) {
+                int marker = readMarker();
+                if (marker == Markers.SOF3) {
+                    byte[] segment = readSegment();
+                    sof = new MarkerSegmentSOF(marker, segment, segment.length);
+                }
+                else if (marker == Markers.DHT) {
+                    byte[] segment = readSegment();
+                    new MarkerSegmentDHT(segment, segment.length).addToMapByClassAndIdentifier(huffmanTables);
+                }
+                else if (marker == Markers.DRI) {
+                    byte[] segment = readSegment();
+                    if (segment.length != 2) {
+                        throw new IOException("Unsupported DRI length " + segment.length);
+                    }
+                    restartInterval = (segment[0] & 0xff) << 8 | (segment[1] & 0xff);
+                }
+                else if (marker == Markers.SOS) {
+                    byte[] segment = readSegment();
+                    sos = new MarkerSegmentSOS(segment, segment.length);
+                }
+                else if (Markers.isSOF(marker)) {
+                    throw new IOException("Not a lossless Huffman JPEG frame: " + Markers.getAbbreviation(marker));
+                }
+                else if (Markers.isVariableLengthJPEGSegment(marker)) {
+                    readSegment(); // APPn, COM, DQT etc.
+                }
+                else {
+                    throw new IOException("Unexpected JPEG marker " + Integer.toHexString(marker) + " before SOS");
+                }
+            }
+        }
+        catch(IOException e) {
+            throw e;
+        }
+        catch(Exception e) { // the pixelmed marker segment classes throw Exception
+            throw new IOException(e.getMessage(), e);
+        }
+        
+        if (sof == null) {
+            throw new IOException("No SOF3 marker segment before SOS");
+        }
+        if (sof.getNComponentsInFrame() != 1 || sos.getNComponentsPerScan() != 1) {
+            throw new IOException("Only single component frames are supported");
+        }
+        if (sof.getHorizontalSamplingFactor()[0] != 1 || sof.getVerticalSamplingFactor()[0] != 1) {
+            throw new IOException("Unsupported sampling factors");
+        }
+        if (sos.getSuccessiveApproximationBitPositionLowOrPointTransform() != 0) {
+            throw new IOException("Point transform not supported");
+        }
+        
+        width = sof.getNSamplesPerLine();
+        height = sof.getNLines();
+        precision = sof.getSamplePrecision();
+        predictor = sos.getStartOfSpectralOrPredictorSelection();
+        
+        if (width <= 0 || height <= 0) {
+            throw new IOException("Unsupported frame size " + width + "x" + height);
+        }
+        if (precision < 2 || precision > 16) {
+            throw new IOException("Unsupported sample precision " + precision);
+        }
+        if (predictor < 1 || predictor > 7) {
+            throw new IOException("Unsupported predictor " + predictor);
+        }
+        if (restartInterval % width != 0) {
+            throw new IOException("Restart interval " + restartInterval + " is not a multiple of the line length");
+        }
+        
+        HuffmanTable huffmanTable = huffmanTables.get("0+" + sos.getDCEntropyCodingTableSelector()[0]);
+        if (huffmanTable == null) {
+            throw new IOException("Missing Huffman table " + sos.getDCEntropyCodingTableSelector()[0]);
+        }
+        table = new HuffmanLookup(huffmanTable);
+    }
+    
+    /**
+     * Decodes the frame into out[offset, offset + width*height), samples
+     * are stored modulo 2^16 as for 16 bit unsigned pixel data.
+     */
+    public void decode(short[] out, int offset) throws IOException {
+        if (offset < 0 || offset + width * height > out.length) {
+            throw new IOException("Output array too small for " + width + "x" + height + " frame");
+        }
+        
+        final int w = width;
+        final int firstPrediction = 1 << (precision - 1);
+        final int linesPerInterval = restartInterval == 0 ? height : restartInterval / w;
+        
+        bitBuffer = 0;
+        bitCount = 0;
+        markerReached = false;
+        
+        int index = offset;
+        for (int line=0; line<height; line++) {
+            boolean firstLineOfInterval = line % linesPerInterval == 0;
+            if (firstLineOfInterval && line > 0) {
+                restart();
+            }
+            
+            for (int x=0; x<w; x++, index++) {
+                int prediction;
+                if (firstLineOfInterval) {
+                    prediction = x == 0 ? firstPrediction : out[index-1] & 0xffff; // Ra
+                }
+                else if (x == 0) {
+                    prediction = out[index-w] & 0xffff; // Rb
+                }
+                else {
+                    int ra = out[index-1] & 0xffff;
+                    int rb = out[index-w] & 0xffff;
+                    int rc = out[index-w-1] & 0xffff;
+                    switch (predictor) {
+                        case 1:  prediction = ra; break;
+                        case 2:  prediction = rb; break;
+                        case 3:  prediction = rc; break;
+                        case 4:  prediction = ra + rb - rc; break;
+                        case 5:  prediction = ra + ((rb - rc) >> 1); break;
+                        case 6:  prediction = rb + ((ra - rc) >> 1); break;
+                        default: prediction = (ra + rb) >> 1; break;
+                    }
+                }
+                
+                out[index] = (short)(prediction + decodeDifference());
+            }
+        }
+    }
+    
+    // Decodes one SSSS Huffman code and its difference bits
+    private int decodeDifference() throws IOException {
+        if (bitCount < 32) {
+            fill();
+        }
+        
+        int ssss;
+        int entry = table.lookahead[(int)(bitBuffer >>> (bitCount - LOOKAHEAD_BITS)) & LOOKAHEAD_MASK];
+        if (entry != 0) {
+            bitCount -= entry >>> 8;
+            ssss = entry & 0xff;
+        }
+        else {
+            ssss = decodeLongCode();
+        }
+        
+        if (ssss == 0) {
+            return 0;
+        }
+        else if (ssss == 16) {
+            return 32768;
+        }
+        
+        bitCount -= ssss;
+        int bits = (int)(bitBuffer >>> bitCount) & ((1 << ssss) - 1);
+        if (bits < (1 << (ssss - 1))) {
+            bits -= (1 << ssss) - 1; // negative difference
+        }
+        return bits;
+    }
+    
+    // Codes longer than the lookahead, bitBuffer has at least 32 bits
+    private int decodeLongCode() throws IOException {
+        for (int length=LOOKAHEAD_BITS+1; length<=16; length++) {
+            int code = (int)(bitBuffer >>> (bitCount - length)) & ((1 << length) - 1);
+            if (code <= table.maxcode[length]) {
+                bitCount -= length;
+                return table.huffval[table.valptr[length] + code - table.mincode[length]];
+            }
+        }
+        throw new IOException("Bad Huffman code at offset " + pos);
+    }
+    
+    // Tops up bitBuffer to more than 56 bits, removing stuffed zero bytes. At
+    // a marker or the end of the data zeros are shifted in instead.
+    private void fill() {
+        while (bitCount <= 56) {
+            int b = 0;
+            if (!markerReached && pos < end) {
+                b = data[pos] & 0xff;
+                if (b == 0xff) {
+                    if (pos + 1 < end && data[pos+1] == 0) {
+                        pos += 2;
+                    }
+                    else {
+                        markerReached = true;
+                        b = 0;
+                    }
+                }
+                else {
+                    pos++;
+                }
+            }
+            bitBuffer = bitBuffer << 8 | b;
+            bitCount += 8;
+        }
+    }
+    
+    // Skips the RSTn marker at the end of a restart interval
+    private void restart() throws IOException {
+        bitBuffer = 0;
+        bitCount = 0;
+        markerReached = false;
+
+        // any bytes left before the marker are padding
+        while (pos + 1 < end && (data[pos] != (byte)0xff || data[pos+1] == 0)) {
+            pos += data[pos] == (byte)0xff ? 2 : 1;
+        }
+
+        int marker = readMarker();
+        if (marker < Markers.RST0 || marker > Markers.RST0 + 7) {
+            throw new IOException("Expected RST marker, found " + Integer.toHexString(marker));
+        }
+    }
+}
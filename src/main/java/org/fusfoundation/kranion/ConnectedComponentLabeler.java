@@ -0,0 +1,285 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Labels the 6-connected components of a VoxelBitMask. Set voxels are
+ * taken a horizontal run at a time: runs are found for every row in
+ * parallel, runs that overlap in the rows before them (y-1 and z-1) are
+ * joined with union-find on slabs of slices in parallel, then the few
+ * slab boundaries are joined and the labels made consecutive.
+ *
+ * @author jsnell
+ */
+public class ConnectedComponentLabeler {
+    
+    private final ForkJoinPool pool;
+    
+    public ConnectedComponentLabeler() {
+        this(ForkJoinPool.commonPool());
+    }
+    
+    public ConnectedComponentLabeler(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+    
+    /**
+     * Components of a mask, labelled 1 to getComponentCount() in the order
+     * their first voxel appears in the volume. Background is label 0.
+     */
+    public static class Labels {
+        private final VoxelBitMask mask;
+        private final int[] rowRuns; // first run of each row, rows+1 entries
+        private final int[] runX0, runX1;
+        private final int[] runLabel;
+        private final int componentCount;
+        
+        private Labels(VoxelBitMask mask, int[] rowRuns, int[] runX0, int[] runX1, int[] runLabel, int componentCount) {
+            this.mask = mask;
+            this.rowRuns = rowRuns;
+            this.runX0 = runX0;
+            this.runX1 = runX1;
+            this.runLabel = runLabel;
+            this.componentCount = componentCount;
+        }
+        
+        public int getComponentCount() {
+            return componentCount;
+        }
+        
+        public int getLabel(int x, int y, int z) {
+            if (x < 0 || x >= mask.getWidth() || y < 0 || y >= mask.getHeight() || z < 0 || z >= mask.getDepth()) {
+                return 0;
+            }
+            
+            int row = z * mask.getHeight() + y;
+            int lo = rowRuns[row];
+            int hi = rowRuns[row + 1] - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (runX1[mid] < x) {
+                    lo = mid + 1;
+                }
+                else if (runX0[mid] > x) {
+                    hi = mid - 1;
+                }
+                else {
+                    return runLabel[mid];
+                }
+            }
+            return 0;
+        }
+        
+        public long getVoxelCount(int label) {
+            long count = 0;
+            for (int i=0; i<runLabel.length; i++) {
+                if (runLabel[i] == label) {
+                    count += runX1[i] - runX0[i] + 1;
+                }
+            }
+            return count;
+        }
+        
+        /** The voxels of one component as a mask of their own. */
+        public VoxelBitMask getComponent(int label) {
+            int height = mask.getHeight();
+            VoxelBitMask result = new VoxelBitMask(mask.getWidth(), height, mask.getDepth());
+            
+            for (int row=0; row<rowRuns.length-1; row++) {
+                for (int i=rowRuns[row]; i<rowRuns[row + 1]; i++) {
+                    if (runLabel[i] == label) {
+                        result.set(runX0[i], runX1[i], row % height, row / height);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+    
+    public Labels label(VoxelBitMask mask) {
+        int width = mask.getWidth();
+        int height = mask.getHeight();
+        int rowWords = mask.getRowWords();
+        long[] words = mask.getWords();
+        int rows = height * mask.getDepth();
+        
+        // runs per row, a run starting wherever a set bit follows a clear one
+        int[] rowRuns = new int[rows + 1];
+        mask.forEachSlab(pool, (z0, z1) -> {
+            for (int row=z0*height; row<z1*height; row++) {
+                int base = row * rowWords;
+                int count = 0;
+                long carry = 0;
+                for (int i=0; i<rowWords; i++) {
+                    long w = words[base + i];
+                    count += Long.bitCount(w & ~((w << 1) | carry));
+                    carry = w >>> 63;
+                }
+                rowRuns[row + 1] = count;
+            }
+        });
+        
+        for (int row=0; row<rows; row++) {
+            rowRuns[row + 1] += rowRuns[row];
+        }
+        
+        int runCount = rowRuns[rows];
+        int[] runX0 = new int[runCount];
+        int[] runX1 = new int[runCount];
+        int[] parent = new int[runCount];
+        
+        mask.forEachSlab(pool, (z0, z1) -> {
+            for (int row=z0*height; row<z1*height; row++) {
+                int base = row * rowWords;
+                int run = rowRuns[row];
+                int x = nextSet(words, base, width, 0);
+                while (x < width) {
+                    int end = nextClear(words, base, width, x);
+                    runX0[run] = x;
+                    runX1[run] = end - 1;
+                    parent[run] = run;
+                    run++;
+                    x = nextSet(words, base, width, end);
+                }
+            }
+        });
+        
+        // join with the rows before, all inside the slab so slabs don't share runs
+        mask.forEachSlab(pool, (z0, z1) -> {
+            for (int z=z0; z<z1; z++) {
+                for (int y=0; y<height; y++) {
+                    int row = z * height + y;
+                    if (y > 0) {
+                        joinRows(rowRuns, runX0, runX1, parent, row - 1, row);
+                    }
+                    if (z > z0) {
+                        joinRows(rowRuns, runX0, runX1, parent, row - height, row);
+                    }
+                }
+            }
+        });
+        
+        // join across slab boundaries, z == z0 of a slab with the slice before
+        for (int z=1; z<mask.getDepth(); z++) {
+            if (!isSlabStart(z, mask.getDepth())) {
+                continue;
+            }
+            for (int y=0; y<height; y++) {
+                int row = z * height + y;
+                joinRows(rowRuns, runX0, runX1, parent, row - height, row);
+            }
+        }
+        
+        // roots are the lowest run of their component, so they come first
+        int[] runLabel = new int[runCount];
+        int labels = 0;
+        for (int i=0; i<runCount; i++) {
+            int root = find(parent, i);
+            runLabel[i] = root == i ? ++labels : runLabel[root];
+        }
+        
+        return new Labels(mask, rowRuns, runX0, runX1, runLabel, labels);
+    }
+    
+    // same split as VoxelBitMask.forEachSlab()
+    private boolean isSlabStart(int z, int depth) {
+        int slabs = Math.max(1, Math.min(depth, pool.getParallelism() * 4));
+        for (int n=1; n<slabs; n++) {
+            if (depth * n / slabs == z) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // union runs of rowA and rowB that share an x
+    private static void joinRows(int[] rowRuns, int[] runX0, int[] runX1, int[] parent, int rowA, int rowB) {
+        int a = rowRuns[rowA], aEnd = rowRuns[rowA + 1];
+        int b = rowRuns[rowB], bEnd = rowRuns[rowB + 1];
+        while (a < aEnd && b < bEnd) {
+            if (runX0[a] <= runX1[b] && runX0[b] <= runX1[a]) {
+                union(parent, a, b);
+            }
+            if (runX1[a] < runX1[b]) {
+                a++;
+            }
+            else {
+                b++;
+            }
+        }
+    }
+    
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+    
+    private static void union(int[] parent, int a, int b) {
+        int ra = find(parent, a);
+        int rb = find(parent, b);
+        if (ra < rb) {
+            parent[rb] = ra;
+        }
+        else if (rb < ra) {
+            parent[ra] = rb;
+        }
+    }
+    
+    private static int nextSet(long[] words, int base, int width, int x) {
+        int rowWords = (width + 63) >>> 6;
+        int i = x >>> 6;
+        if (i >= rowWords) {
+            return width;
+        }
+        long w = words[base + i] & (-1L << x);
+        while (w == 0) {
+            if (++i == rowWords) {
+                return width;
+            }
+            w = words[base + i];
+        }
+        return Math.min(width, (i << 6) + Long.numberOfTrailingZeros(w));
+    }
+    
+    private static int nextClear(long[] words, int base, int width, int x) {
+        int rowWords = (width + 63) >>> 6;
+        int i = x >>> 6;
+        if (i >= rowWords) {
+            return width;
+        }
+        long w = ~words[base + i] & (-1L << x);
+        while (w == 0) {
+            if (++i == rowWords) {
+                return width;
+            }
+            w = ~words[base + i];
+        }
+        return Math.min(width, (i << 6) + Long.numberOfTrailingZeros(w));
+    }
+}
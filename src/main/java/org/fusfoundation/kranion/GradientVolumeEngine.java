@@ -0,0 +1,306 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import org.fusfoundation.kranion.model.image.ImageVolume;
+import org.fusfoundation.kranion.model.image.ShortVoxelCursor;
+import org.fusfoundation.kranion.model.image.VoxelSpan;
+
+/**
+ * CPU version of the gradient volume computed by the ImageGradientVolume
+ * compute shader, for when that path isn't available. The volume is split
+ * into z slabs that run on a fork-join pool. Each slab writes its normals
+ * and magnitudes straight into a single direct buffer. Nothing is
+ * allocated per voxel.
+ *
+ * Gradients use the same 3x3x3 Zucker-Hummel weights on the low 12 bits
+ * of the voxels, scaled by the voxel size. The normal stored is the
+ * negated, unit length gradient. Voxels on the volume border, and voxels
+ * with zero gradient, get a zero normal and magnitude.
+ *
+ * @author jsnell
+ */
+public class GradientVolumeEngine {
+    
+    /** Layout of each voxel in the output buffer. */
+    public enum Format {
+        /** nx, ny, nz, magnitude as 32 bit floats, 16 bytes. GL_RGBA, GL_FLOAT. */
+        FLOAT(16),
+        /** nx, ny, nz, magnitude as half floats, 8 bytes. GL_RGBA, GL_HALF_FLOAT. */
+        HALF(8),
+        /** One int, 4 bytes: the octahedral encoded normal as two snorm8 in
+         * the low 16 bits, then the magnitude as a half float. See
+         * decodeOctahedral().
+         */
+        OCTAHEDRAL(4);
+        
+        private final int bytes;
+        
+        Format(int bytes) {
+            this.bytes = bytes;
+        }
+        
+        public int getBytesPerVoxel() { return bytes; }
+    }
+    
+    private static final float SQR3 = (float) Math.sqrt(3.0) / 3;
+    private static final float SQR2 = (float) Math.sqrt(2.0) / 2;
+    
+    private final ForkJoinPool pool;
+    
+    public GradientVolumeEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+    
+    public GradientVolumeEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+    
+    /** Gradient volume of channel 0 of image, which must be unsigned short
+     * voxels, in a new direct buffer in native byte order. A volume less
+     * than 3 voxels along any axis has no interior, so all of it is border
+     * and the buffer is all zero. The output is a single ByteBuffer, so
+     * width * height * depth * bytes per voxel must be under 2^31; larger
+     * volumes throw IllegalArgumentException.
+     */
+    public ByteBuffer calculate(ImageVolume image, Format format) {
+        int width = image.getDimension(0).getSize();
+        int height = image.getDimension(1).getSize();
+        int depth = image.getDimension(2).getSize();
+        
+        float xres = image.getDimension(0).getSampleWidth(0);
+        float yres = image.getDimension(1).getSampleWidth(0);
+        float zres = image.getDimension(2).getSampleWidth(0);
+        
+        long size = (long)width * height * depth * format.getBytesPerVoxel();
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Gradient volume of " + width + "x" + height + "x" + depth + " is " + size + " bytes, over the 2GB buffer limit");
+        }
+        
+        ByteBuffer out = ByteBuffer.allocateDirect((int)size).order(ByteOrder.nativeOrder());
+        if (width < 3 || height < 3 || depth < 3) {
+            return out;
+        }
+        
+        VoxelSpan volume = new VoxelSpan(width, height, depth, 1);
+        ShortVoxelCursor whole = new ShortVoxelCursor(image, 0, volume);
+        short[] data = whole.getData();
+        
+        List<Callable<Void>> slabs = new ArrayList<>();
+        for (VoxelSpan slab : volume.inset(1).split(pool.getParallelism() * 4)) {
+            slabs.add(() -> {
+                calculate(new ShortVoxelCursor(data, slab), 1f/xres, 1f/yres, 1f/zres, format, out);
+                return null;
+            });
+        }
+        
+        try {
+            for (Future<Void> f : pool.invokeAll(slabs)) {
+                f.get();
+            }
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted calculating gradient volume", e);
+        }
+        catch(ExecutionException e) {
+            throw new RuntimeException("Failed to calculate gradient volume", e.getCause());
+        }
+        
+        return out;
+    }
+    
+    private static void calculate(ShortVoxelCursor c, float xscale, float yscale, float zscale, Format format, ByteBuffer out) {
+        short[] s = c.getData();
+        int dy = c.getRowStride();
+        int dz = c.getSliceStride();
+        int bytes = format.getBytesPerVoxel();
+        
+        while (c.nextLine()) {
+            for (int i=c.getLineStart(); i<c.getLineEnd(); i++) {
+                // central differences along each axis, weighted by distance
+                // across the other two
+                float gx = diff(s, i, 1, dy, dz);
+                float gy = diff(s, i, dy, 1, dz);
+                float gz = diff(s, i, dz, 1, dy);
+                
+                gx *= xscale;
+                gy *= yscale;
+                gz *= zscale;
+                
+                float mag = (float)Math.sqrt(gx*gx + gy*gy + gz*gz);
+                float nx = 0f, ny = 0f, nz = 0f;
+                if (mag > 0f) {
+                    nx = -gx / mag;
+                    ny = -gy / mag;
+                    nz = -gz / mag;
+                }
+                
+                int pos = i * bytes;
+                switch(format) {
+                    case FLOAT:
+                        out.putFloat(pos, nx);
+                        out.putFloat(pos + 4, ny);
+                        out.putFloat(pos + 8, nz);
+                        out.putFloat(pos + 12, mag);
+                        break;
+                    case HALF:
+                        out.putShort(pos, floatToHalf(nx));
+                        out.putShort(pos + 2, floatToHalf(ny));
+                        out.putShort(pos + 4, floatToHalf(nz));
+                        out.putShort(pos + 6, floatToHalf(mag));
+                        break;
+                    case OCTAHEDRAL:
+                        out.putInt(pos, encodeOctahedral(nx, ny, nz) | ((floatToHalf(mag) & 0xffff) << 16));
+                        break;
+                }
+            }
+        }
+    }
+    
+    // Zucker-Hummel difference along the axis with stride a, summed over
+    // the 3x3 neighbours in the axes with strides b and c
+    private static float diff(short[] s, int i, int a, int b, int c) {
+        int p = i + a, m = i - a;
+        float centre = (s[p] & 0xfff) - (s[m] & 0xfff);
+        float edges = (s[p+b] & 0xfff) - (s[m+b] & 0xfff)
+                    + (s[p-b] & 0xfff) - (s[m-b] & 0xfff)
+                    + (s[p+c] & 0xfff) - (s[m+c] & 0xfff)
+                    + (s[p-c] & 0xfff) - (s[m-c] & 0xfff);
+        float corners = (s[p+b+c] & 0xfff) - (s[m+b+c] & 0xfff)
+                      + (s[p+b-c] & 0xfff) - (s[m+b-c] & 0xfff)
+                      + (s[p-b+c] & 0xfff) - (s[m-b+c] & 0xfff)
+                      + (s[p-b-c] & 0xfff) - (s[m-b-c] & 0xfff);
+        return centre + SQR2 * edges + SQR3 * corners;
+    }
+    
+    /** IEEE 754 half float bits of f, rounded to nearest even. */
+    public static short floatToHalf(float f) {
+        int bits = Float.floatToRawIntBits(f);
+        int sign = (bits >>> 16) & 0x8000;
+        int exp = (bits >>> 23) & 0xff;
+        int mant = bits & 0x7fffff;
+        
+        if (exp == 0xff) {
+            // infinity or NaN
+            return (short)(sign | 0x7c00 | (mant != 0 ? 0x200 : 0));
+        }
+        
+        int e = exp - 127 + 15;
+        if (e >= 0x1f) {
+            return (short)(sign | 0x7c00);
+        }
+        if (e <= 0) {
+            if (e < -10) {
+                return (short)sign;
+            }
+            // subnormal
+            mant |= 0x800000;
+            int shift = 14 - e;
+            int half = mant >> shift;
+            int rest = mant & ((1 << shift) - 1);
+            int mid = 1 << (shift - 1);
+            if (rest > mid || (rest == mid && (half & 1) != 0)) {
+                half++;
+            }
+            return (short)(sign | half);
+        }
+        
+        int half = (e << 10) | (mant >> 13);
+        int rest = mant & 0x1fff;
+        if (rest > 0x1000 || (rest == 0x1000 && (half & 1) != 0)) {
+            half++; // may carry into the exponent, which is still correct
+        }
+        return (short)(sign | half);
+    }
+    
+    /** The float value of half float bits h. */
+    public static float halfToFloat(short h) {
+        int sign = (h & 0x8000) << 16;
+        int exp = (h >>> 10) & 0x1f;
+        int mant = h & 0x3ff;
+        
+        if (exp == 0) {
+            float f = mant * (1f / (1 << 24));
+            return sign != 0 ? -f : f;
+        }
+        if (exp == 0x1f) {
+            return Float.intBitsToFloat(sign | 0x7f800000 | (mant << 13));
+        }
+        return Float.intBitsToFloat(sign | ((exp - 15 + 127) << 23) | (mant << 13));
+    }
+    
+    // Octahedral projection of a unit normal, two snorm8 in 16 bits
+    private static int encodeOctahedral(float nx, float ny, float nz) {
+        float l1 = Math.abs(nx) + Math.abs(ny) + Math.abs(nz);
+        if (l1 == 0f) {
+            return 0;
+        }
+        float u = nx / l1;
+        float v = ny / l1;
+        if (nz < 0f) {
+            float fu = (1f - Math.abs(v)) * (u >= 0f ? 1f : -1f);
+            float fv = (1f - Math.abs(u)) * (v >= 0f ? 1f : -1f);
+            u = fu;
+            v = fv;
+        }
+        int iu = Math.round(u * 127f) & 0xff;
+        int iv = Math.round(v * 127f) & 0xff;
+        return iu | (iv << 8);
+    }
+    
+    /** Unpacks a voxel written in Format.OCTAHEDRAL: the unit normal into
+     * normal[0..2], returning the magnitude.
+     */
+    public static float decodeOctahedral(int packed, float[] normal) {
+        float u = (byte)(packed & 0xff) / 127f;
+        float v = (byte)((packed >> 8) & 0xff) / 127f;
+        float z = 1f - Math.abs(u) - Math.abs(v);
+        if (z < 0f) {
+            float fu = (1f - Math.abs(v)) * (u >= 0f ? 1f : -1f);
+            float fv = (1f - Math.abs(u)) * (v >= 0f ? 1f : -1f);
+            u = fu;
+            v = fv;
+        }
+        float len = (float)Math.sqrt(u*u + v*v + z*z);
+        float mag = halfToFloat((short)(packed >>> 16));
+        if (len == 0f || mag == 0f) {
+            normal[0] = normal[1] = normal[2] = 0f;
+        }
+        else {
+            normal[0] = u / len;
+            normal[1] = v / len;
+            normal[2] = z / len;
+        }
+        return mag;
+    }
+}
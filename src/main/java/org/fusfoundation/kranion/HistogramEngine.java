@@ -0,0 +1,327 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import org.fusfoundation.kranion.model.image.ImageVolume;
+import org.fusfoundation.kranion.model.image.ShortVoxelCursor;
+import org.fusfoundation.kranion.model.image.VoxelSpan;
+import org.lwjgl.util.vector.Matrix4f;
+
+/**
+ * CPU histograms of unsigned short volumes, for when there is no GL
+ * context or to check the Histogram and MutualInformation compute shaders
+ * against. The volume is split into z slabs on a fork-join pool. Each
+ * slab counts into bins of its own, which are summed at the end, so no
+ * two threads ever write the same counter.
+ *
+ * Within a slab the 1D bins are striped: successive voxels count into
+ * STRIPES copies of the bins in turn, so runs of equal values, common in
+ * the air around a CT, don't wait on each other's increment.
+ *
+ * Every getSubsample()th voxel along each axis is counted, and only
+ * voxels set in the region of interest mask if there is one.
+ *
+ * @author jsnell
+ */
+public class HistogramEngine {
+    
+    public static final int STRIPES = 4;
+    
+    private final ForkJoinPool pool;
+    private int subsample = 1;
+    private VoxelBitMask mask;
+    
+    public HistogramEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+    
+    public HistogramEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+    
+    public void setSubsample(int step) {
+        if (step < 1) {
+            throw new IllegalArgumentException("Subsample step must be at least 1");
+        }
+        subsample = step;
+    }
+    public int getSubsample() { return subsample; }
+    
+    /** Only voxels set in mask are counted, null for all of them. The mask
+     * must be the size of the volume, or for joint histograms the volume
+     * being sampled from.
+     */
+    public void setMask(VoxelBitMask mask) { this.mask = mask; }
+    public VoxelBitMask getMask() { return mask; }
+    
+    /** The 4096 bin histogram the Histogram compute shader makes for
+     * ImageHistogram: one bin per value of channel 0, values above 4095
+     * counted in the last bin.
+     */
+    public int[] calculate(ImageVolume image) {
+        return calculate(image, 0, 0f, 1f, 4096);
+    }
+    
+    /** Histogram of a channel of unsigned short voxels. Bin i counts values
+     * from min + i*binWidth up to the next bin, values outside the range
+     * are counted in the first or last bin.
+     */
+    public int[] calculate(ImageVolume image, int channel, float min, float binWidth, int bins) {
+        VoxelSpan volume = new VoxelSpan(image);
+        short[] data = new ShortVoxelCursor(image, channel, volume).getData();
+        checkMask(volume);
+        
+        // bin of every possible voxel value, looked up rather than computed
+        int[] lut = new int[65536];
+        for (int v=0; v<lut.length; v++) {
+            lut[v] = bin(v, min, binWidth, bins);
+        }
+        
+        List<Callable<int[]>> slabs = new ArrayList<>();
+        for (VoxelSpan slab : volume.split(pool.getParallelism() * 4)) {
+            slabs.add(() -> count(data, slab, lut, bins));
+        }
+        
+        int[] result = new int[bins];
+        for (int[] striped : run(slabs)) {
+            for (int s=0; s<STRIPES; s++) {
+                for (int i=0; i<bins; i++) {
+                    result[i] += striped[s*bins + i];
+                }
+            }
+        }
+        return result;
+    }
+    
+    private int[] count(short[] data, VoxelSpan slab, int[] lut, int bins) {
+        int[] striped = new int[STRIPES * bins];
+        int s1 = bins, s2 = 2 * bins, s3 = 3 * bins;
+        int step = subsample;
+        int width = slab.getWidth();
+        int height = slab.getHeight();
+        
+        for (int z=first(slab.getZ0()); z<slab.getZ1(); z+=step) {
+            for (int y=first(slab.getY0()); y<slab.getY1(); y+=step) {
+                int offset = (z * height + y) * width;
+                int x = first(slab.getX0());
+                int x1 = slab.getX1();
+                
+                if (mask == null && step == 1) {
+                    for (; x+3<x1; x+=4) {
+                        int i = offset + x;
+                        striped[lut[data[i] & 0xffff]]++;
+                        striped[s1 + lut[data[i+1] & 0xffff]]++;
+                        striped[s2 + lut[data[i+2] & 0xffff]]++;
+                        striped[s3 + lut[data[i+3] & 0xffff]]++;
+                    }
+                    for (; x<x1; x++) {
+                        striped[lut[data[offset + x] & 0xffff]]++;
+                    }
+                    continue;
+                }
+                
+                long[] words = mask != null ? mask.getWords() : null;
+                int row = mask != null ? mask.rowIndex(y, z) : 0;
+                int stripe = 0;
+                for (; x<x1; x+=step) {
+                    if (words != null && (words[row + (x >>> 6)] & (1L << x)) == 0) {
+                        continue;
+                    }
+                    striped[stripe + lut[data[offset + x] & 0xffff]]++;
+                    stripe = stripe == s3 ? 0 : stripe + bins;
+                }
+            }
+        }
+        return striped;
+    }
+    
+    /**
+     * Joint histogram of two unsigned short volumes, channel 0 of each.
+     * Voxels of a are taken on the subsample grid, within the mask, and
+     * moved into b's voxel coordinates by aToB, a rigid transform from a's
+     * voxel coordinates to b's. b is sampled there with trilinear
+     * interpolation, and samples that fall outside b are skipped.
+     * 
+     * The result is bins x bins with a's bin varying fastest, the layout of
+     * the MutualInformation shaders. Their binning, round(value/81.9)
+     * into 50 bins, is min -40.95 and binWidth 81.9 here.
+     */
+    public int[] calculateJoint(ImageVolume a, ImageVolume b, Matrix4f aToB,
+                                float aMin, float aBinWidth, float bMin, float bBinWidth, int bins) {
+        VoxelSpan volume = new VoxelSpan(a);
+        short[] aData = new ShortVoxelCursor(a, 0, volume).getData();
+        VoxelSpan bVolume = new VoxelSpan(b);
+        short[] bData = new ShortVoxelCursor(b, 0, bVolume).getData();
+        checkMask(volume);
+        
+        List<Callable<int[]>> slabs = new ArrayList<>();
+        for (VoxelSpan slab : volume.split(pool.getParallelism() * 4)) {
+            slabs.add(() -> countJoint(aData, slab, bData, bVolume, aToB, aMin, aBinWidth, bMin, bBinWidth, bins));
+        }
+        
+        int[] result = new int[bins * bins];
+        for (int[] joint : run(slabs)) {
+            for (int i=0; i<joint.length; i++) {
+                result[i] += joint[i];
+            }
+        }
+        return result;
+    }
+    
+    private int[] countJoint(short[] aData, VoxelSpan slab, short[] bData, VoxelSpan bVolume, Matrix4f m,
+                             float aMin, float aBinWidth, float bMin, float bBinWidth, int bins) {
+        int[] joint = new int[bins * bins];
+        int step = subsample;
+        int width = slab.getWidth();
+        int height = slab.getHeight();
+        
+        int bw = bVolume.getWidth();
+        int bh = bVolume.getHeight();
+        int bd = bVolume.getDepth();
+        
+        for (int z=first(slab.getZ0()); z<slab.getZ1(); z+=step) {
+            for (int y=first(slab.getY0()); y<slab.getY1(); y+=step) {
+                int row = mask != null ? mask.rowIndex(y, z) : 0;
+                int offset = (z * height + y) * width;
+                
+                // b coordinates of x = 0 on this row, then step along m's x column
+                float bx = m.m10 * y + m.m20 * z + m.m30;
+                float by = m.m11 * y + m.m21 * z + m.m31;
+                float bz = m.m12 * y + m.m22 * z + m.m32;
+                
+                for (int x=first(slab.getX0()); x<slab.getX1(); x+=step) {
+                    if (mask != null && (mask.getWords()[row + (x >>> 6)] & (1L << x)) == 0) {
+                        continue;
+                    }
+                    float fx = bx + m.m00 * x;
+                    float fy = by + m.m01 * x;
+                    float fz = bz + m.m02 * x;
+                    if (!(fx >= 0f && fy >= 0f && fz >= 0f && fx <= bw-1 && fy <= bh-1 && fz <= bd-1)) {
+                        continue;
+                    }
+                    
+                    float value = trilinear(bData, bw, bh, bd, fx, fy, fz);
+                    int ia = bin(aData[offset + x] & 0xffff, aMin, aBinWidth, bins);
+                    int ib = bin(value, bMin, bBinWidth, bins);
+                    joint[ia + bins * ib]++;
+                }
+            }
+        }
+        return joint;
+    }
+    
+    /** Unsigned short volume data, width x height x depth, at a point inside
+     * it in voxel coordinates.
+     */
+    public static float trilinear(short[] data, int width, int height, int depth, float x, float y, float z) {
+        int x0 = Math.min((int)x, width - 2 < 0 ? 0 : width - 2);
+        int y0 = Math.min((int)y, height - 2 < 0 ? 0 : height - 2);
+        int z0 = Math.min((int)z, depth - 2 < 0 ? 0 : depth - 2);
+        float fx = x - x0, fy = y - y0, fz = z - z0;
+        
+        int dx = width > 1 ? 1 : 0;
+        int dy = height > 1 ? width : 0;
+        int dz = depth > 1 ? width * height : 0;
+        int i = x0 + (y0 + z0 * height) * width;
+        
+        float c00 = lerp(data[i] & 0xffff, data[i + dx] & 0xffff, fx);
+        float c10 = lerp(data[i + dy] & 0xffff, data[i + dy + dx] & 0xffff, fx);
+        float c01 = lerp(data[i + dz] & 0xffff, data[i + dz + dx] & 0xffff, fx);
+        float c11 = lerp(data[i + dz + dy] & 0xffff, data[i + dz + dy + dx] & 0xffff, fx);
+        return lerp(lerp(c00, c10, fy), lerp(c01, c11, fy), fz);
+    }
+    
+    private static float lerp(float a, float b, float t) {
+        return a + (b - a) * t;
+    }
+    
+    /** Running totals of bins divided by the total count, so entry i is the
+     * fraction of voxels in bins 0 to i. All zero if bins is empty.
+     */
+    public static double[] cumulative(int[] bins) {
+        double[] result = new double[bins.length];
+        long total = 0;
+        for (int i=0; i<bins.length; i++) {
+            total += bins[i];
+            result[i] = total;
+        }
+        if (total > 0) {
+            for (int i=0; i<result.length; i++) {
+                result[i] /= total;
+            }
+        }
+        return result;
+    }
+    
+    /** First bin at which the cumulative distribution reaches fraction, for
+     * picking window and level from, say, the 1st and 99th percentiles.
+     */
+    public static int percentile(double[] cdf, double fraction) {
+        for (int i=0; i<cdf.length; i++) {
+            if (cdf[i] >= fraction) {
+                return i;
+            }
+        }
+        return cdf.length - 1;
+    }
+    
+    private static int bin(float value, float min, float binWidth, int bins) {
+        int bin = (int)Math.floor((value - min) / binWidth);
+        return bin < 0 ? 0 : bin >= bins ? bins - 1 : bin;
+    }
+    
+    // first coordinate on the subsample grid at or after c
+    private int first(int c) {
+        return (c + subsample - 1) / subsample * subsample;
+    }
+    
+    private void checkMask(VoxelSpan volume) {
+        if (mask != null && (mask.getWidth() != volume.getWidth() || mask.getHeight() != volume.getHeight() || mask.getDepth() != volume.getDepth())) {
+            throw new IllegalArgumentException("Mask is not the size of the volume");
+        }
+    }
+    
+    private List<int[]> run(List<Callable<int[]>> slabs) {
+        List<int[]> results = new ArrayList<>(slabs.size());
+        try {
+            for (Future<int[]> f : pool.invokeAll(slabs)) {
+                results.add(f.get());
+            }
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted calculating histogram", e);
+        }
+        catch(ExecutionException e) {
+            throw new RuntimeException("Failed to calculate histogram", e.getCause());
+        }
+        return results;
+    }
+}
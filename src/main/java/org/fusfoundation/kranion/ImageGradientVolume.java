@@ -28,12 +28,10 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 import java.nio.IntBuffer;
-import java.nio.FloatBuffer;
 import java.nio.ShortBuffer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.fusfoundation.kranion.model.image.ImageVolume;
-import org.lwjgl.BufferUtils;
 import org.lwjgl.Sys;
 import org.lwjgl.opencl.CL10;
 import static org.lwjgl.opencl.CL10.clEnqueueNDRangeKernel;
@@ -57,7 +55,6 @@ import static org.lwjgl.opengl.GL32.glFenceSync;
 import static org.lwjgl.opengl.GL32.glWaitSync;
 import static org.lwjgl.opengl.GL42.*;
 import static org.lwjgl.opengl.GL43.GL_COMPUTE_SHADER;
-import org.lwjgl.util.vector.Vector3f;
 
 /**
  *
@@ -69,7 +66,6 @@ public class ImageGradientVolume {
     private int imageVolumeTexture = 0;
     private ImageVolume image = null;
 
-    private int pixelOffsets[] = new int[27];
     private CLMem[] glBuffers = new CLMem[1];
     private CLMem[] glBuffersOut = new CLMem[1];
 
@@ -77,74 +73,6 @@ public class ImageGradientVolume {
         initShader();
     }
 
-    // 3x3x3 Sobel mask offsets and weights
-    private static final Vector3f offsets[] = {
-        new Vector3f(-1, -1, -1), new Vector3f(-1, 0, -1), new Vector3f(-1, 1, -1),
-        new Vector3f(-1, -1, 0), new Vector3f(-1, 0, 0), new Vector3f(-1, 1, 0),
-        new Vector3f(-1, -1, 1), new Vector3f(-1, 0, 1), new Vector3f(-1, 1, 1),
-        new Vector3f(0, -1, -1), new Vector3f(0, 0, -1), new Vector3f(0, 1, -1),
-        new Vector3f(0, -1, 0), new Vector3f(0, 0, 0), new Vector3f(0, 1, 0),
-        new Vector3f(0, -1, 1), new Vector3f(0, 0, 1), new Vector3f(0, 1, 1),
-        new Vector3f(1, -1, -1), new Vector3f(1, 0, -1), new Vector3f(1, 1, -1),
-        new Vector3f(1, -1, 0), new Vector3f(1, 0, 0), new Vector3f(1, 1, 0),
-        new Vector3f(1, -1, 1), new Vector3f(1, 0, 1), new Vector3f(1, 1, 1)
-    };
-
-    private static final float sqr3 = (float) Math.sqrt(3.0) / 3;
-    private static final float sqr2 = (float) Math.sqrt(2.0) / 2;
-
-    private static final float xGradZH[] = {
-        -sqr3, -sqr2, -sqr3,
-        -sqr2, -1, -sqr2,
-        -sqr3, -sqr2, -sqr3,
-        0, 0, 0,
-        0, 0, 0,
-        0, 0, 0,
-        sqr3, sqr2, sqr3,
-        sqr2, 1, sqr2,
-        sqr3, sqr2, sqr3
-    };
-
-// 3x3x3 Zucker-Hummel weights
-    private static final float yGradZH[] = {
-        -sqr3, 0, sqr3,
-        -sqr2, 0, sqr2,
-        -sqr3, 0, sqr3,
-        -sqr2, 0, sqr2,
-        -1, 0, 1,
-        -sqr2, 0, sqr2,
-        -sqr3, 0, sqr3,
-        -sqr2, 0, sqr2,
-        -sqr3, 0, sqr3
-    };
-
-    private static final float zGradZH[] = {
-        -sqr3, -sqr2, -sqr3,
-        0, 0, 0,
-        sqr3, sqr2, sqr3,
-        -sqr2, -1, -sqr2,
-        0, 0, 0,
-        sqr2, 1, sqr2,
-        -sqr3, -sqr2, -sqr3,
-        0, 0, 0,
-        sqr3, sqr2, sqr3
-    };
-
-    // for calculating normals with CPU
-    Vector3f findNormal(short[] imageData, int position) {
-        Vector3f grad = new Vector3f();
-        for (int i = 0; i < 27; i++) {
-            //Vector3f coord = position + (offset[i] * gradient_delta);
-            //float s = texture(image_tex, coord).r * 4095.0;
-            int indexOffset = position + pixelOffsets[i];
-            float s = (float) (imageData[indexOffset] & 0xfff);
-            grad.x += s * xGradZH[i];
-            grad.y += s * yGradZH[i];
-            grad.z += s * zGradZH[i];
-        }
-        return grad;
-    }
-
     public void calculate() {
         if (image == null) {
             return;
@@ -241,16 +169,6 @@ public class ImageGradientVolume {
             return;
         }
 
-        int iWidth = image.getDimension(0).getSize();
-        int iHeight = image.getDimension(1).getSize();
-        int iDepth = image.getDimension(2).getSize();
-
-        float xres = image.getDimension(0).getSampleWidth(0);
-        float yres = image.getDimension(1).getSampleWidth(1);
-        float zres = image.getDimension(2).getSampleWidth(2);
-
-        Vector3f voxelSize = new Vector3f(xres, yres, zres);
-
         Integer imageTextureName = (Integer) image.getAttribute("textureName");
         Integer gradientTextureName = (Integer) image.getAttribute("gradientTexName");
 
@@ -262,48 +180,8 @@ public class ImageGradientVolume {
             return;
         }
 
-        for (int i = 0; i < 27; i++) {
-            Vector3f offset = offsets[i];
-            pixelOffsets[i] = (int) offset.x + (int) offset.y * iWidth + (int) offset.z * iWidth * iHeight;
-        }
-
-        float[] gradients = new float[iWidth * iHeight * iDepth * 4];
-
-        FloatBuffer gradArray = BufferUtils.createFloatBuffer(iWidth * iHeight * iDepth * 4);
-
-        short idata[] = (short[]) image.getData();
-
-        for (int x = 1; x < iWidth - 1; x++) {
-//            System.out.println("Gradient calc: x = " + x);
-            int index = x;
-
-            for (int y = 1; y < iHeight - 1; y++) {
-                int index2 = index + y * iWidth;
-
-                for (int z = 1; z < iDepth - 1; z++) {
-                    int index3 = index2 + z * iWidth * iHeight;
-
-                    Vector3f grad = findNormal(idata, index3);
-
-                    grad.x /= voxelSize.x;
-                    grad.y /= voxelSize.y;
-                    grad.z /= voxelSize.z;
-
-                    float mag = grad.length();
-
-                    gradients[index3 * 4] = -grad.x / mag;
-                    gradients[index3 * 4 + 1] = -grad.y / mag;
-                    gradients[index3 * 4 + 2] = -grad.z / mag;
-                    gradients[index3 * 4 + 3] = mag;
-
-                }
-            }
-        }
-
-        gradArray.put(gradients);
-//        System.out.println("gradArray size = " + gradArray.capacity());
-        gradArray.flip();
-        gradients = null;
+        // half floats, the texture is stored as GL_RGBA16F either way
+        ByteBuffer gradArray = new GradientVolumeEngine().calculate(image, GradientVolumeEngine.Format.HALF);
 
         //System.out.println("build new texture");
         ByteBuffer buf = ByteBuffer.allocateDirect(4);
@@ -334,7 +212,7 @@ public class ImageGradientVolume {
 
         //ShortBuffer pixelBuf = (tmp.asShortBuffer());
         //glTexImage3D(GL_TEXTURE_3D, 0, GL_INTENSITY16, texWidth, texHeight, texDepth, 0, GL_LUMINANCE, GL_SHORT, pixelBuf);
-        glTexImage3D(GL_TEXTURE_3D, 0, GL_RGBA16F, width, height, depth, 0, GL_RGBA, GL_FLOAT, gradArray);
+        glTexImage3D(GL_TEXTURE_3D, 0, GL_RGBA16F, width, height, depth, 0, GL_RGBA, GL_HALF_FLOAT, gradArray);
 
         glBindTexture(GL_TEXTURE_3D, 0);
     }
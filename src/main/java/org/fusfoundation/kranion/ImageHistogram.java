@@ -62,6 +62,9 @@ public class ImageHistogram {
     private ImageVolume image = null;
     private int outSSBo=0;
     
+    private boolean useGpuAcceleration = true;
+    private int[] cpuBins = null; // result when calculated without the shader
+    
     
     public ImageHistogram() {
         
@@ -90,9 +93,25 @@ public class ImageHistogram {
         glBindBuffer(GL_SHADER_STORAGE_BUFFER, 0);
     }
     
+    public void setUseGPUAcceleration(boolean value) {
+        useGpuAcceleration = value;
+    }
+    public boolean getUseGPUAcceleration() {
+        return useGpuAcceleration;
+    }
+    
     public void calculate() {
         if (image == null) return;
         
+        cpuBins = null;
+        
+        // no compute shaders, or not wanted, count on the CPU instead
+        if (!useGpuAcceleration || Main.OpenGLVersion < 4f) {
+            release();
+            cpuBins = new HistogramEngine().calculate(image);
+            return;
+        }
+        
         init();
         
         int iWidth = image.getDimension(0).getSize();
@@ -168,7 +187,10 @@ public class ImageHistogram {
     }
     
     public IntBuffer getData() {
-        if (outSSBo != 0) {
+        if (cpuBins != null) {
+            return IntBuffer.wrap(cpuBins);
+        }
+        else if (outSSBo != 0) {
             // Get the output histogram data from the shader buffer object
             glBindBuffer(GL_SHADER_STORAGE_BUFFER,outSSBo);
             ByteBuffer histogram = glMapBuffer(GL_SHADER_STORAGE_BUFFER,GL_READ_ONLY,null);
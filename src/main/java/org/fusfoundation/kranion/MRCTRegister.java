@@ -260,7 +260,9 @@ Vector4f rotnoise2 = new Vector4f(rotnoise);
                                 model.setAttribute(command, false);
                           }
 
-                          Main.getView().setIsDirty(true);
+                          if (Main.getView() != null) {
+                              Main.getView().setIsDirty(true);
+                          }
                           return;
                       }
                       
@@ -369,14 +371,19 @@ Vector4f rotnoise2 = new Vector4f(rotnoise);
 //                            this.setIsDirty(true);
 //                            Main.update();
 
-                              Main.getView().setIsDirty(true);
+                              if (Main.getView() != null) {
+                                  Main.getView().setIsDirty(true);
+                              }
                       }
                       else {
                           failedSteps++;
                       }
                       
                       // notify the view that there is an update. This shows the search progress
-                      Main.getView().actionPerformed(new ActionEvent(this, 0, "registrationUpdated"));
+                      // (there is no view when registering headless)
+                      if (Main.getView() != null) {
+                          Main.getView().actionPerformed(new ActionEvent(this, 0, "registrationUpdated"));
+                      }
                       
                       miStep++;
                       
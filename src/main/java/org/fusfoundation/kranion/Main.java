@@ -234,7 +234,7 @@ public class Main implements ProgressListener {
         }        
     }
     
-    public static View getView() { return Main.main.view; }
+    public static View getView() { return Main.main != null ? Main.main.view : null; }
     public static void setView(View view) {
         if (Main.main.view != null) {
             Main.main.view.setModel(null);
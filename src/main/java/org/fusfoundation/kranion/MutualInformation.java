@@ -78,6 +78,9 @@ public class MutualInformation {
     private int samplePointSSBo=0; // vec4 sampling points
     private int histogramsSSBo=0; // int histogram bins
     
+    private boolean useGpuAcceleration = true;
+    private MutualInformationEngine cpuEngine = null;
+    
     // need arrays for joint and marginal histograms
     // bin count
     
@@ -90,6 +93,22 @@ public class MutualInformation {
         MRimage = mr;
     }
     
+    public void setUseGPUAcceleration(boolean value) {
+        useGpuAcceleration = value;
+    }
+    public boolean getUseGPUAcceleration() {
+        return useGpuAcceleration;
+    }
+    
+    // CPU backend, used without compute shaders or when asked to. Its
+    // sampling and weighting can be changed here.
+    public MutualInformationEngine getCpuEngine() {
+        if (cpuEngine == null) {
+            cpuEngine = new MutualInformationEngine();
+        }
+        return cpuEngine;
+    }
+    
     public void release() {
         if (samplePointSSBo != 0) {
             org.lwjgl.opengl.GL15.glDeleteBuffers(samplePointSSBo);
@@ -168,7 +187,10 @@ public class MutualInformation {
         long startTime = System.currentTimeMillis();
         
         float result = 0f;
-        // do stuff
+        
+        if (!useGpuAcceleration || Main.OpenGLVersion < 4f) {
+            return calcMIcpu(percentSample, blur, startTime);
+        }
         
         initShader();
         
@@ -234,31 +256,68 @@ public class MutualInformation {
         ByteBuffer histograms = glMapBuffer(GL_ARRAY_BUFFER, GL_READ_ONLY, null);
         IntBuffer histValues = histograms.asIntBuffer();
 
+        double[] joint = new double[50 * 50];
+        for (int i=0; i<joint.length; i++) {
+            joint[i] = histValues.get(i);
+        }
+        
+        glUnmapBuffer(GL_ARRAY_BUFFER);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        
+        result = score(joint);
+        
+        Logger.getGlobal().log(Level.INFO, "MI calc time = " + (System.currentTimeMillis() - startTime) + "ms");
+        
+        return result;
+    }
+    
+    private float calcMIcpu(float percentSample, boolean blur, long startTime) {
+        if (CTimage == null || MRimage == null) return 0f;
+        
+        // same sample count as initBuffers()
+        int imagesize1 = CTimage.getDimension(0).getSize() * CTimage.getDimension(1).getSize() * CTimage.getDimension(2).getSize();
+        int imagesize2 = MRimage.getDimension(0).getSize() * MRimage.getDimension(1).getSize() * MRimage.getDimension(2).getSize();
+        sampleCount = (int)(Math.min(imagesize1, imagesize2) * (percentSample / 100f));
+        
+        if (!calcTexMatrix(CTimage, ctTexMatrix, ctMatrixBuf) || !calcTexMatrix(MRimage, mrTexMatrix, mrMatrixBuf)) {
+            return 0f;
+        }
+        
+        double[] joint = getCpuEngine().calculateJoint(CTimage, ctTexMatrix, MRimage, mrTexMatrix, sampleCount, blur);
+        float result = score(joint);
+        
+        Logger.getGlobal().log(Level.INFO, "MI calc time (CPU) = " + (System.currentTimeMillis() - startTime) + "ms");
+        
+        return result;
+    }
+    
+    // -(ha + hb)/hab on the raw bin counts, the measure registration has
+    // always climbed. Sets ha, hb and hab.
+    private float score(double[] histValues) {
         ha = 0f;
         hb = 0f;
         hab = 0f;
         
         //Compute marginal histograms
-        int am[] = new int[50];
-        int bm[] = new int[50];
+        double am[] = new double[50];
+        double bm[] = new double[50];
         for (int i=0; i<50; i++) {
             for (int j=0; j<50; j++) {
-                am[i] += histValues.get(i + j*50);
-                bm[i] += histValues.get(i*50 + j);
+                am[i] += histValues[i + j*50];
+                bm[i] += histValues[i*50 + j];
             }
         }
         
         
         for (int i=0; i<50; i++) {
-//            System.out.println("marginal hist " + i + "\t" + histValues.get(50*50+i) + "\t" + histValues.get(50*50+50+i));
-            float a = am[i];//histValues.get(50*50+i);
-            float b = bm[i];//histValues.get(50*50+50+i);
+            double a = am[i];
+            double b = bm[i];
             
             if (a>0) ha -= a*Math.log(a);
             if (b>0) hb -= b*Math.log(b);
             
             for (int j=0; j<50; j++) {
-                a = histValues.get(i+j*50);
+                a = histValues[i+j*50];
                 if (a>0) {
                     hab -= a*Math.log(a);
                 }
@@ -269,15 +328,8 @@ public class MutualInformation {
 //        System.out.println("HAB: " + -hab);
 //        System.out.println("normMI: " + (-ha +  -hb)/-hab);
 
-        glUnmapBuffer(GL_ARRAY_BUFFER);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
-        
         //result = ha + hb - hab; //(ha +  hb)/hab;
-        result = -(ha +  hb)/hab;
-        
-        Logger.getGlobal().log(Level.INFO, "MI calc time = " + (System.currentTimeMillis() - startTime) + "ms");
-        
-        return result;
+        return -(ha +  hb)/hab;
     }
     
     private void initShader() {
@@ -314,94 +366,105 @@ public class MutualInformation {
             int textureName = tn.intValue();
             glBindTexture(GL_TEXTURE_3D, textureName);
 
-            int iWidth = image.getDimension(0).getSize();
-            int iHeight = image.getDimension(1).getSize();
-            int idepth = image.getDimension(2).getSize();
-
-            int texWidth = iWidth;
-            int texHeight = iHeight;
-            int texDepth = idepth;
-
-            //System.out.println("mid z = " + (double)idepth/texDepth/2.0);
-            //fix voxel scaling
-            float xres = image.getDimension(0).getSampleWidth(0);
-            float yres = image.getDimension(1).getSampleWidth(0);
-            float zres = image.getDimension(2).getSampleWidth(0);
-
             glMatrixMode(GL_TEXTURE);
             glLoadIdentity(); // Not sure this is necessary for a compute shader
             
-            // Translation to the texture volume center (convert 0 -> 1 value range to -0.5 -> 0.5)
-            ///////////////////////////////////////////////////////////
-            // glTranslated(0.5, 0.5, (double) idepth / texDepth / 2.0);
-
-//            float zscaleFactor = ((float) texWidth * xres) / ((float) texDepth * zres);
-            //canvasSize = 200f;
-            float xzoom = canvasFOV / (xres * texWidth);
-            float yzoom = canvasFOV / (yres * texHeight);
-            float zzoom = -canvasFOV / (zres * texDepth);
-
-            // Scale for in-plane/out-of-plane ratio
-            ///////////////////////////////////////////////////////////
-            //glScaled(1.0f, 1.0f, -zscaleFactor); // this assumes in-plane pixel dimesions are the same! //HACK
-            // Canvas is 250mm wide
-            //glScaled(1f/(xres*texWidth/200f), 1f/(yres*texHeight/200f), -zscaleFactor * 1f/(xres*texWidth/200f)); 
-            //glScaled(xzoom, yzoom, zzoom); 
-            Quaternion imageOrientation = (Quaternion) image.getAttribute("ImageOrientationQ");
-            if (imageOrientation == null) {
+            if (!calcTexMatrix(image, texMat, texMatBuffer)) {
                 return;
             }
-            
-//            System.out.println("Image Orient: " + imageOrientation);
 
-            FloatBuffer orientBuffer = BufferUtils.createFloatBuffer(16);
-            Trackball.toMatrix4f(imageOrientation).store(orientBuffer);
-            orientBuffer.flip();
+            glMatrixMode(GL_MODELVIEW);
+        }
+        else {
+            Logger.getGlobal().log(Level.WARNING, "MutualInformation.setupImageTexture: textureName not found.");
+        }
 
-            // Translation of center of rotation to origin (mm to texture coord values (0 -> 1))
-            ////////////////////////////////////////////////////////////
-            Vector3f imageTranslation = (Vector3f) image.getAttribute("ImageTranslation");
-            if (imageTranslation == null) {
-                imageTranslation = new Vector3f();
-            }
-            float[] imagePosition = (float[]) image.getAttribute("ImagePosition");
-            if (imagePosition == null) {
-                imagePosition = new float[3];
-            }
+        Main.glPopAttrib();
+    }
+    
+    // Matrix from sample space, -0.5 to 0.5 across the canvas, to the
+    // image's texture coordinates, also stored in texMatBuffer. False if
+    // the image has no orientation yet.
+    private boolean calcTexMatrix(ImageVolume image, Matrix4f texMat, FloatBuffer texMatBuffer) {
+        int iWidth = image.getDimension(0).getSize();
+        int iHeight = image.getDimension(1).getSize();
+        int idepth = image.getDimension(2).getSize();
+
+        int texWidth = iWidth;
+        int texHeight = iHeight;
+        int texDepth = idepth;
+
+        //System.out.println("mid z = " + (double)idepth/texDepth/2.0);
+        //fix voxel scaling
+        float xres = image.getDimension(0).getSampleWidth(0);
+        float yres = image.getDimension(1).getSampleWidth(0);
+        float zres = image.getDimension(2).getSampleWidth(0);
+        
+        // Translation to the texture volume center (convert 0 -> 1 value range to -0.5 -> 0.5)
+        ///////////////////////////////////////////////////////////
+        // glTranslated(0.5, 0.5, (double) idepth / texDepth / 2.0);
+
+//            float zscaleFactor = ((float) texWidth * xres) / ((float) texDepth * zres);
+        //canvasSize = 200f;
+        float xzoom = canvasFOV / (xres * texWidth);
+        float yzoom = canvasFOV / (yres * texHeight);
+        float zzoom = -canvasFOV / (zres * texDepth);
+
+        // Scale for in-plane/out-of-plane ratio
+        ///////////////////////////////////////////////////////////
+        //glScaled(1.0f, 1.0f, -zscaleFactor); // this assumes in-plane pixel dimesions are the same! //HACK
+        // Canvas is 250mm wide
+        //glScaled(1f/(xres*texWidth/200f), 1f/(yres*texHeight/200f), -zscaleFactor * 1f/(xres*texWidth/200f)); 
+        //glScaled(xzoom, yzoom, zzoom); 
+        Quaternion imageOrientation = (Quaternion) image.getAttribute("ImageOrientationQ");
+        if (imageOrientation == null) {
+            return false;
+        }
+        
+//            System.out.println("Image Orient: " + imageOrientation);
 
-            texMat.setIdentity();
+        FloatBuffer orientBuffer = BufferUtils.createFloatBuffer(16);
+        Trackball.toMatrix4f(imageOrientation).store(orientBuffer);
+        orientBuffer.flip();
 
-            // Final translation to put origin in the center of texture space (0.5, 0.5, 0.5)
-            Matrix4f.translate(new Vector3f(0.5f, 0.5f, 0.5f), texMat, texMat);
+        // Translation of center of rotation to origin (mm to texture coord values (0 -> 1))
+        ////////////////////////////////////////////////////////////
+        Vector3f imageTranslation = (Vector3f) image.getAttribute("ImageTranslation");
+        if (imageTranslation == null) {
+            imageTranslation = new Vector3f();
+        }
+        float[] imagePosition = (float[]) image.getAttribute("ImagePosition");
+        if (imagePosition == null) {
+            imagePosition = new float[3];
+        }
 
-            // Scale for image resolution (normalize to texture coordinates 0-1
-            Matrix4f.scale(new Vector3f(xzoom, yzoom, zzoom), texMat, texMat);
+        texMat.setIdentity();
 
-            // Rotation
-            Matrix4f rotMat = new Matrix4f();
-            rotMat.load(orientBuffer);
-            Matrix4f.mul(texMat, rotMat, texMat);
+        // Final translation to put origin in the center of texture space (0.5, 0.5, 0.5)
+        Matrix4f.translate(new Vector3f(0.5f, 0.5f, 0.5f), texMat, texMat);
 
-            // Translation
-            Matrix4f.translate(new Vector3f(
-                    (imageTranslation.x /* + imagePosition[0] */)/canvasFOV,
-                    (imageTranslation.y /* + imagePosition[1] */)/canvasFOV,
-                    (imageTranslation.z /* + imagePosition[2] */)/canvasFOV
-            ),
-                    texMat, texMat);
+        // Scale for image resolution (normalize to texture coordinates 0-1
+        Matrix4f.scale(new Vector3f(xzoom, yzoom, zzoom), texMat, texMat);
 
-            // store matrix for use later
-            texMatBuffer.rewind();
-            texMat.store(texMatBuffer);
-            texMatBuffer.flip();
+        // Rotation
+        Matrix4f rotMat = new Matrix4f();
+        rotMat.load(orientBuffer);
+        Matrix4f.mul(texMat, rotMat, texMat);
 
-            glMatrixMode(GL_MODELVIEW);
-        }
-        else {
-            Logger.getGlobal().log(Level.WARNING, "MutualInformation.setupImageTexture: textureName not found.");
-        }
+        // Translation
+        Matrix4f.translate(new Vector3f(
+                (imageTranslation.x /* + imagePosition[0] */)/canvasFOV,
+                (imageTranslation.y /* + imagePosition[1] */)/canvasFOV,
+                (imageTranslation.z /* + imagePosition[2] */)/canvasFOV
+        ),
+                texMat, texMat);
 
-        Main.glPopAttrib();
+        // store matrix for use later
+        texMatBuffer.rewind();
+        texMat.store(texMatBuffer);
+        texMatBuffer.flip();
+        
+        return true;
     }
     
     public void updateTestImage(ImageVolume image) {
@@ -0,0 +1,346 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import org.fusfoundation.kranion.model.image.ImageVolume;
+import org.fusfoundation.kranion.model.image.ImageVolume4D;
+import org.fusfoundation.kranion.model.image.ShortVoxelCursor;
+import org.lwjgl.util.vector.Matrix4f;
+
+/**
+ * CPU version of the joint histogram the MutualInformation compute
+ * shaders build, so registration can run without a GL context.
+ *
+ * Sample points are taken in the same space as the shaders', a cube of
+ * -0.5 to 0.5 on each axis, and mapped into each volume's texture
+ * coordinates by the matrices MutualInformation builds. Volumes are read
+ * as GL would read the textures: trilinear between texel centres, with
+ * a zero border outside. Values are in the shaders' 50 bins of 81.9.
+ *
+ * The sample points are kept between calls and only made again when the
+ * count or sampling changes, so successive steps of a registration
+ * compare like with like. Sample points are split into chunks that run
+ * on a fork-join pool, each with a histogram of its own, summed at the
+ * end.
+ *
+ * @author jsnell
+ */
+public class MutualInformationEngine {
+    
+    /** How sample points are placed. */
+    public enum Sampling {
+        /** Uniform random points, the same sequence MutualInformation
+         * uploads for the shaders. */
+        RANDOM,
+        /** One random point in each cell of a cubic grid, the rest random. */
+        STRATIFIED
+    }
+    
+    /** How each sample counts into the joint histogram. */
+    public enum Weighting {
+        /** Both values interpolated, one count in the nearest bin, as the shaders do. */
+        NEAREST,
+        /** Fixed value interpolated, the moving volume's 8 neighbouring voxels
+         * each counted in their own bin with their trilinear weight. */
+        PARTIAL_VOLUME,
+        /** Both values interpolated, each counted over the 4x4 bins around
+         * it with a cubic B-spline window. */
+        PARZEN
+    }
+    
+    public static final int BINS = 50;
+    public static final float BIN_WIDTH = 81.9f; // 4095/50
+    
+    private static final long SEED = 314159;
+    
+    private final ForkJoinPool pool;
+    private Sampling sampling = Sampling.RANDOM;
+    private Weighting weighting = Weighting.NEAREST;
+    
+    private float[] samplePoints; // x, y, z per point
+    private Sampling samplePointsSampling;
+    
+    public MutualInformationEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+    
+    public MutualInformationEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+    
+    public void setSampling(Sampling sampling) { this.sampling = sampling; }
+    public Sampling getSampling() { return sampling; }
+    
+    public void setWeighting(Weighting weighting) { this.weighting = weighting; }
+    public Weighting getWeighting() { return weighting; }
+    
+    /**
+     * BINS x BINS joint histogram of the moving volume, whose bin varies
+     * fastest, against the fixed volume, at sampleCount points. Each
+     * matrix takes sample space to the volume's texture coordinates. With
+     * blur the volumes' first pyramid level is sampled instead, standing
+     * in for the Gaussian filtered sampling of the blur shader.
+     */
+    public double[] calculateJoint(ImageVolume moving, Matrix4f movingTexMatrix,
+                                   ImageVolume fixed, Matrix4f fixedTexMatrix, int sampleCount, boolean blur) {
+        Volume a = new Volume(blur ? blurred(moving) : moving, movingTexMatrix);
+        Volume b = new Volume(blur ? blurred(fixed) : fixed, fixedTexMatrix);
+        float[] points = getSamplePoints(sampleCount);
+        Weighting w = weighting;
+        
+        int chunks = Math.max(1, Math.min(sampleCount / 4096, pool.getParallelism() * 4));
+        List<Callable<double[]>> tasks = new ArrayList<>(chunks);
+        for (int n=0; n<chunks; n++) {
+            int first = (int)((long)sampleCount * n / chunks);
+            int last = (int)((long)sampleCount * (n + 1) / chunks);
+            tasks.add(() -> count(a, b, points, first, last, w));
+        }
+        
+        double[] joint = new double[BINS * BINS];
+        try {
+            for (Future<double[]> f : pool.invokeAll(tasks)) {
+                double[] part = f.get();
+                for (int i=0; i<joint.length; i++) {
+                    joint[i] += part[i];
+                }
+            }
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted calculating joint histogram", e);
+        }
+        catch(ExecutionException e) {
+            throw new RuntimeException("Failed to calculate joint histogram", e.getCause());
+        }
+        return joint;
+    }
+    
+    /** Mutual information H(A) + H(B) - H(A,B) of a joint histogram, in nats. */
+    public static double mutualInformation(double[] joint) {
+        double[] h = entropies(joint);
+        return h[0] + h[1] - h[2];
+    }
+    
+    /** Normalized mutual information (H(A) + H(B)) / H(A,B), 1 to 2. */
+    public static double normalizedMutualInformation(double[] joint) {
+        double[] h = entropies(joint);
+        return h[2] > 0.0 ? (h[0] + h[1]) / h[2] : 1.0;
+    }
+    
+    // H(A), H(B) and H(A,B) from the marginals and the joint histogram
+    private static double[] entropies(double[] joint) {
+        double[] am = new double[BINS];
+        double[] bm = new double[BINS];
+        double total = 0.0;
+        for (int j=0; j<BINS; j++) {
+            for (int i=0; i<BINS; i++) {
+                double c = joint[i + j*BINS];
+                am[i] += c;
+                bm[j] += c;
+                total += c;
+            }
+        }
+        
+        double[] h = new double[3];
+        if (total <= 0.0) {
+            return h;
+        }
+        for (int i=0; i<BINS; i++) {
+            h[0] -= plogp(am[i] / total);
+            h[1] -= plogp(bm[i] / total);
+        }
+        for (double c : joint) {
+            h[2] -= plogp(c / total);
+        }
+        return h;
+    }
+    
+    private static double plogp(double p) {
+        return p > 0.0 ? p * Math.log(p) : 0.0;
+    }
+    
+    /** Sample points, x, y, z each, for the current sampling. The same
+     * array is returned until the count or sampling changes.
+     */
+    public synchronized float[] getSamplePoints(int sampleCount) {
+        if (samplePoints != null && samplePoints.length == sampleCount * 3 && samplePointsSampling == sampling) {
+            return samplePoints;
+        }
+        
+        Random rnd = new Random(SEED);
+        float[] points = new float[sampleCount * 3];
+        int n = 0;
+        
+        if (sampling == Sampling.STRATIFIED) {
+            int k = (int)Math.cbrt(sampleCount);
+            while ((k + 1) * (k + 1) * (k + 1) <= sampleCount) {
+                k++;
+            }
+            for (int z=0; z<k; z++) {
+                for (int y=0; y<k; y++) {
+                    for (int x=0; x<k; x++) {
+                        points[n++] = (x + rnd.nextFloat()) / k - 0.5f;
+                        points[n++] = (y + rnd.nextFloat()) / k - 0.5f;
+                        points[n++] = (z + rnd.nextFloat()) / k - 0.5f;
+                    }
+                }
+            }
+        }
+        
+        while (n < points.length) {
+            points[n++] = rnd.nextFloat() - 0.5f;
+        }
+        
+        samplePoints = points;
+        samplePointsSampling = sampling;
+        return points;
+    }
+    
+    private static ImageVolume blurred(ImageVolume image) {
+        if (image instanceof ImageVolume4D) {
+            return ((ImageVolume4D)image).getPyramidLevel(0, 1);
+        }
+        return image;
+    }
+    
+    // A volume's channel 0 and the matrix into its texel coordinates
+    private static class Volume {
+        final short[] data;
+        final int width, height, depth;
+        final Matrix4f m;
+        
+        Volume(ImageVolume image, Matrix4f texMatrix) {
+            data = new ShortVoxelCursor(image, 0).getData();
+            width = image.getDimension(0).getSize();
+            height = image.getDimension(1).getSize();
+            depth = image.getDimension(2).getSize();
+            
+            // texture coordinate t is texel t*size - 0.5
+            m = new Matrix4f();
+            m.m00 = texMatrix.m00 * width;  m.m10 = texMatrix.m10 * width;  m.m20 = texMatrix.m20 * width;  m.m30 = texMatrix.m30 * width - 0.5f;
+            m.m01 = texMatrix.m01 * height; m.m11 = texMatrix.m11 * height; m.m21 = texMatrix.m21 * height; m.m31 = texMatrix.m31 * height - 0.5f;
+            m.m02 = texMatrix.m02 * depth;  m.m12 = texMatrix.m12 * depth;  m.m22 = texMatrix.m22 * depth;  m.m32 = texMatrix.m32 * depth - 0.5f;
+        }
+        
+        // voxel value, 0 outside
+        int voxel(int x, int y, int z) {
+            if (x < 0 || y < 0 || z < 0 || x >= width || y >= height || z >= depth) {
+                return 0;
+            }
+            return data[x + (y + z * height) * width] & 0xffff;
+        }
+    }
+    
+    private static double[] count(Volume a, Volume b, float[] points, int first, int last, Weighting weighting) {
+        double[] joint = new double[BINS * BINS];
+        float[] weights = new float[8];
+        int[] values = new int[8];
+        float[] wa = new float[4], wb = new float[4];
+        
+        for (int i=first; i<last; i++) {
+            float px = points[i*3], py = points[i*3 + 1], pz = points[i*3 + 2];
+            
+            float bValue = sample(b, px, py, pz, weights, values);
+            float aValue = sample(a, px, py, pz, weights, values);
+            
+            switch(weighting) {
+                case NEAREST:
+                    joint[nearestBin(aValue) + BINS * nearestBin(bValue)] += 1.0;
+                    break;
+                case PARTIAL_VOLUME: {
+                    int row = BINS * nearestBin(bValue);
+                    for (int k=0; k<8; k++) {
+                        if (weights[k] != 0f) {
+                            joint[nearestBin(values[k]) + row] += weights[k];
+                        }
+                    }
+                    break;
+                }
+                case PARZEN: {
+                    int a0 = parzen(aValue, wa);
+                    int b0 = parzen(bValue, wb);
+                    for (int j=0; j<4; j++) {
+                        int bj = clampBin(b0 + j);
+                        for (int k=0; k<4; k++) {
+                            joint[clampBin(a0 + k) + BINS * bj] += wa[k] * wb[j];
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+        return joint;
+    }
+    
+    // Trilinear value of v at sample point p, leaving the 8 corner values
+    // and weights behind for partial volume counting
+    private static float sample(Volume v, float px, float py, float pz, float[] weights, int[] values) {
+        Matrix4f m = v.m;
+        float x = m.m00 * px + m.m10 * py + m.m20 * pz + m.m30;
+        float y = m.m01 * px + m.m11 * py + m.m21 * pz + m.m31;
+        float z = m.m02 * px + m.m12 * py + m.m22 * pz + m.m32;
+        
+        int x0 = (int)Math.floor(x), y0 = (int)Math.floor(y), z0 = (int)Math.floor(z);
+        float fx = x - x0, fy = y - y0, fz = z - z0;
+        
+        float value = 0f;
+        for (int k=0; k<8; k++) {
+            int dx = k & 1, dy = (k >> 1) & 1, dz = k >> 2;
+            float w = (dx == 0 ? 1f - fx : fx) * (dy == 0 ? 1f - fy : fy) * (dz == 0 ? 1f - fz : fz);
+            int s = v.voxel(x0 + dx, y0 + dy, z0 + dz);
+            weights[k] = w;
+            values[k] = s;
+            value += w * s;
+        }
+        return value;
+    }
+    
+    private static int nearestBin(float value) {
+        return Math.min(BINS - 1, Math.round(value / BIN_WIDTH));
+    }
+    
+    private static int clampBin(int bin) {
+        return bin < 0 ? 0 : bin >= BINS ? BINS - 1 : bin;
+    }
+    
+    // Cubic B-spline weights of the 4 bins around value, returns the first bin
+    private static int parzen(float value, float[] w) {
+        float pos = value / BIN_WIDTH;
+        int centre = (int)Math.floor(pos);
+        float t = pos - centre;
+        float t2 = t * t, t3 = t2 * t;
+        w[0] = (1f - t) * (1f - t) * (1f - t) / 6f;
+        w[1] = (3f * t3 - 6f * t2 + 4f) / 6f;
+        w[2] = (-3f * t3 + 3f * t2 + 3f * t + 1f) / 6f;
+        w[3] = t3 / 6f;
+        return centre - 1;
+    }
+}
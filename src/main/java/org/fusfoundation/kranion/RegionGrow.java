@@ -10,6 +10,8 @@ import java.nio.IntBuffer;
 import java.nio.ShortBuffer;
 import org.fusfoundation.kranion.model.image.*;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntPredicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.lwjgl.BufferUtils;
@@ -53,20 +55,10 @@ public class RegionGrow {
     private int maskVolumeTexture = 0;
     private int maskChannel = -1;
     
-    private LinkedList<Seed> growQ = new LinkedList<>();
-    
     private static ShaderProgram shader, shader2, shader3, dilateShader;  
     
     private boolean useGpuAcceleration = true;
-    
-    private class Seed {
-        public int x, y, z;
-        public Seed(int x, int y, int z) {
-            this.x = x;
-            this.y = y;
-            this.z = z;
-        }
-    }
+    private boolean useConnectedComponents = false;
     
     public RegionGrow() {
         initShader();
@@ -83,6 +75,15 @@ public class RegionGrow {
         return useGpuAcceleration;
     }
     
+    // CPU path: label every connected component of the thresholded volume
+    // and keep the seed's, instead of flood filling from the seed
+    public void setUseConnectedComponents(boolean value) {
+        useConnectedComponents = value;
+    }
+    public boolean getUseConnectedComponents() {
+        return useConnectedComponents;
+    }
+    
     public void setSourceImage(ImageVolume4D image) {
         src = image;
         
@@ -102,17 +103,12 @@ public class RegionGrow {
             return;
         }
         
-        growQ.addLast(new Seed(x, y, z));
-         
-        maskChannel = src.addChannel(org.fusfoundation.kranion.model.image.ImageVolume.UBYTE_VOXEL);
-        
-        short[] voxels = (short[])src.getData(0);
-        byte[] mask = (byte[])src.getData(maskChannel);
+        // in place whatever the volume keeps its voxels in
+        ShortBuffer voxels = (ShortBuffer)src.getVoxelBuffer(0);
         
         int xsize = src.getDimension(0).getSize();
         int ysize = src.getDimension(1).getSize();
         int zsize = src.getDimension(2).getSize();
-        int framesize = xsize*ysize;
         
         Float intercept = (Float)src.getAttribute("RescaleIntercept");
         if (intercept == null) { intercept = 0f; }
@@ -120,106 +116,33 @@ public class RegionGrow {
         Float slope = (Float)src.getAttribute("RescaleSlope");
         if (slope == null) { slope = 1f; }
         
-//        System.out.println("RegionGrow: " + slope + ", " + intercept);
-        
-//        System.out.println("RegionGrow: growing " + xsize + "x" + ysize + "x" + zsize);
+        final float s = slope, b = intercept;
+        IntPredicate inside = offset -> s * (voxels.get(offset) + b) > -250f;
         
-        float minVal = Float.MAX_VALUE;
-        float maxVal = Float.MIN_VALUE;
+        ForkJoinPool pool = ForkJoinPool.commonPool();
         
-        int count = 0;
-        while (!growQ.isEmpty()) {
-            Seed current = (Seed) growQ.removeFirst();
-            
-//            if ((count++ % 1000) == 0) {
-//                System.out.println("queue sizse = " + growQ.size() + "(" + current.x + ", " + current.y + ", " + current.z + ")");
-//            }
-
-            if ( current.x >= 0 && current.x < xsize
-              && current.y >= 0 && current.y < ysize
-              && current.z >= 0 && current.z < zsize) {
-                
-                int offset = current.x + current.y * xsize + current.z * framesize;
-                
-                float value = slope * (voxels[offset] + intercept);// & 0x0fff;
-                int maskVal = mask[offset] & 0xff;
-                
-//            if (((count-1) % 1000) == 0) {
-//                System.out.println("seed val = " + value);
-//            }
-                
-                if (value < minVal) minVal = value;
-                if (value > maxVal) maxVal = value;
-                
-                if (maskVal == 0 && value > -250f) {
-                    mask[offset] = 1;
-                    
-                    growQ.addLast(new Seed(current.x + 1, current.y, current.z));
-                    growQ.addLast(new Seed(current.x - 1, current.y, current.z));
-                    growQ.addLast(new Seed(current.x, current.y + 1, current.z));
-                    growQ.addLast(new Seed(current.x, current.y - 1, current.z));
-                    growQ.addLast(new Seed(current.x, current.y, current.z + 1));
-                    growQ.addLast(new Seed(current.x, current.y, current.z - 1));
-                }
-            }
-        }
-//        System.out.println("RegionGrow: range " + minVal + " - " + maxVal);
-        
-//        System.out.println("RegionGrow: dilating mask");
-        
-        for (int xc = 1; xc < xsize-1; xc++) {
-            for (int yc = 1; yc < ysize-1; yc++) {
-                for (int zc = 1; zc < zsize-1; zc++) {
-                    
-                    int offset = xc + yc * xsize + zc * framesize;
-                    
-                    int value = mask[offset] & 0xff;
-                    if ((value & 0x01) != 0) {
-                        mask[offset+1] |= 0x02;
-                        mask[offset-1] |= 0x02;
-                        mask[offset+xsize] |= 0x02;
-                        mask[offset-xsize] |= 0x02;
-                        mask[offset+framesize] |= 0x02;
-                        mask[offset-framesize] |= 0x02;
-                    }
-                }
-            }
+        VoxelBitMask mask;
+        if (useConnectedComponents) {
+            VoxelBitMask candidates = new VoxelBitMask(xsize, ysize, zsize);
+            candidates.threshold(inside, pool);
+            ConnectedComponentLabeler.Labels labels = new ConnectedComponentLabeler(pool).label(candidates);
+            int label = labels.getLabel(x, y, z);
+            mask = label != 0 ? labels.getComponent(label) : new VoxelBitMask(xsize, ysize, zsize);
         }
-        for (int xc = 1; xc < xsize-1; xc++) {
-            for (int yc = 1; yc < ysize-1; yc++) {
-                for (int zc = 1; zc < zsize-1; zc++) {
-                    
-                    int offset = xc + yc * xsize + zc * framesize;
-                    
-                    int value = mask[offset] & 0xff;
-                    if ((value & 0x03) != 0) {
-                        mask[offset+1] |= 0x04;
-                        mask[offset-1] |= 0x04;
-                        mask[offset+xsize] |= 0x04;
-                        mask[offset-xsize] |= 0x04;
-                        mask[offset+framesize] |= 0x04;
-                        mask[offset-framesize] |= 0x04;
-                    }
-                }
-            }
+        else {
+            mask = new VoxelBitMask(xsize, ysize, zsize);
+            mask.fill(x, y, z, inside);
         }
         
-//        System.out.println("RegionGrow: clearing background");
-        for (int i = 0; i < framesize * zsize; i++) {
-            int value = mask[i] & 0xff;
-            if (value == 0) {
-                voxels[i] = 0;
-            }
-        }
+        // dilate the region grown mask so it will volume render smoothly
+        mask = mask.dilate(pool).dilate(pool);
+        
+        mask.clearOutside(voxels, pool);
                 
         // clean up
         ImageVolumeUtil.releaseTexture(src);
         
-        growQ.clear();
-        
-        src.freeChannel(maskChannel);
-        
-//        System.out.println("RegionGrow: done");
+        src.fireDataChanged(0);
     }
         
     private void initShader() {
@@ -446,11 +369,9 @@ public class RegionGrow {
         glPixelStorei(GL_PACK_ALIGNMENT, 1); // Super important or fetched data might be larger than buffer -> crash
         glGetTexImage(GL_TEXTURE_3D, 0, GL_RED, GL_UNSIGNED_SHORT, voxelData);
         
-        short[] imgData = (short[])src.getData(0);
-        
-        for (int i=0; i<imgData.length; i++) {
-            imgData[i] = (short)(voxelData.get() & 0xffff);
-        }
+        ShortBuffer imgData = (ShortBuffer)src.getVoxelBuffer(0);
+        imgData.put(voxelData);
+        src.fireDataChanged(0);
 
         glBindTexture(GL_TEXTURE_3D, 0);
 
@@ -481,11 +402,9 @@ public class RegionGrow {
         glPixelStorei(GL_PACK_ALIGNMENT, 1);
         glGetTexImage(GL_TEXTURE_3D, 0, GL_RED, GL_UNSIGNED_BYTE, voxelData);
         
-        byte[] imgData = (byte[])src.getData(maskChannel);
-        
-        for (int i=0; i<imgData.length; i++) {
-            imgData[i] = voxelData.get();
-        }
+        ByteBuffer imgData = (ByteBuffer)src.getVoxelBuffer(maskChannel);
+        imgData.put(voxelData);
+        src.fireDataChanged(maskChannel);
 
         glBindTexture(GL_TEXTURE_3D, 0);
 
@@ -0,0 +1,296 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion;
+
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntPredicate;
+
+/**
+ * One bit per voxel of a width x height x depth volume. Rows are padded
+ * to whole longs, bit x of row (y, z) is bit x%64 of word
+ * rowIndex(y, z) + x/64, so no two rows share a word and slabs of rows
+ * can be written from different threads.
+ *
+ * Besides get and set there is a scanline flood fill, a 6-neighbour
+ * dilation and masking of a short volume, the last three being what
+ * RegionGrow's CPU path is made of. Dilation and masking run on slabs of
+ * slices in parallel.
+ *
+ * @author jsnell
+ */
+public class VoxelBitMask {
+    
+    private final int width, height, depth;
+    private final int rowWords;
+    private final long[] words;
+    
+    public VoxelBitMask(int width, int height, int depth) {
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        rowWords = (width + 63) >>> 6;
+        words = new long[rowWords * height * depth];
+    }
+    
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getDepth() { return depth; }
+    
+    public int getRowWords() { return rowWords; }
+    public long[] getWords() { return words; }
+    
+    /** Index of the first word of row (y, z). */
+    public int rowIndex(int y, int z) {
+        return (z * height + y) * rowWords;
+    }
+    
+    public boolean get(int x, int y, int z) {
+        return (words[rowIndex(y, z) + (x >>> 6)] & (1L << x)) != 0;
+    }
+    
+    public void set(int x, int y, int z) {
+        words[rowIndex(y, z) + (x >>> 6)] |= 1L << x;
+    }
+    
+    /** Sets x0 to x1 inclusive in row (y, z). */
+    public void set(int x0, int x1, int y, int z) {
+        int row = rowIndex(y, z);
+        int first = x0 >>> 6;
+        int last = x1 >>> 6;
+        long firstMask = -1L << x0;
+        long lastMask = -1L >>> (63 - (x1 & 63));
+        if (first == last) {
+            words[row + first] |= firstMask & lastMask;
+            return;
+        }
+        words[row + first] |= firstMask;
+        for (int i=first+1; i<last; i++) {
+            words[row + i] = -1L;
+        }
+        words[row + last] |= lastMask;
+    }
+    
+    public long cardinality() {
+        long count = 0;
+        for (long w : words) {
+            count += Long.bitCount(w);
+        }
+        return count;
+    }
+    
+    /** Sets every voxel 6-connected to (x, y, z) through voxels for which
+     * accept tests true, given their offset x + y*width + z*width*height.
+     * Voxels already set stop the fill as well. Filling is by horizontal
+     * runs: each run is set in one go and only one seed per run of
+     * candidates in the four rows beside it goes on the work stack.
+     * Returns the number of voxels set.
+     */
+    public long fill(int x, int y, int z, IntPredicate accept) {
+        if (x < 0 || x >= width || y < 0 || y >= height || z < 0 || z >= depth) {
+            return 0;
+        }
+        
+        int slice = width * height;
+        int[] stack = new int[256];
+        int top = 0;
+        stack[top++] = x + y * width + z * slice;
+        
+        long count = 0;
+        while (top > 0) {
+            int offset = stack[--top];
+            int sz = offset / slice;
+            int sy = (offset % slice) / width;
+            int sx = offset % width;
+            int rowStart = offset - sx;
+            
+            if (get(sx, sy, sz) || !accept.test(offset)) {
+                continue;
+            }
+            
+            int x0 = sx;
+            while (x0 > 0 && !get(x0 - 1, sy, sz) && accept.test(rowStart + x0 - 1)) {
+                x0--;
+            }
+            int x1 = sx;
+            while (x1 < width - 1 && !get(x1 + 1, sy, sz) && accept.test(rowStart + x1 + 1)) {
+                x1++;
+            }
+            set(x0, x1, sy, sz);
+            count += x1 - x0 + 1;
+            
+            // one seed for each run of candidates beside [x0, x1]
+            for (int n=0; n<4; n++) {
+                int ny = sy + (n == 0 ? -1 : n == 1 ? 1 : 0);
+                int nz = sz + (n == 2 ? -1 : n == 3 ? 1 : 0);
+                if (ny < 0 || ny >= height || nz < 0 || nz >= depth) {
+                    continue;
+                }
+                int nrow = ny * width + nz * slice;
+                int nwords = rowIndex(ny, nz);
+                boolean inRun = false;
+                for (int nx=x0; nx<=x1; nx++) {
+                    boolean candidate = (words[nwords + (nx >>> 6)] & (1L << nx)) == 0 && accept.test(nrow + nx);
+                    if (candidate && !inRun) {
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, stack.length * 2);
+                        }
+                        stack[top++] = nrow + nx;
+                    }
+                    inRun = candidate;
+                }
+            }
+        }
+        return count;
+    }
+    
+    /** Sets every voxel for which accept tests true, given its offset, on
+     * slabs of slices in parallel.
+     */
+    public void threshold(IntPredicate accept, ForkJoinPool pool) {
+        forEachSlab(pool, (z0, z1) -> {
+            for (int z=z0; z<z1; z++) {
+                for (int y=0; y<height; y++) {
+                    int row = rowIndex(y, z);
+                    int offset = (z * height + y) * width;
+                    for (int x=0; x<width; x++) {
+                        if (accept.test(offset + x)) {
+                            words[row + (x >>> 6)] |= 1L << x;
+                        }
+                    }
+                }
+            }
+        });
+    }
+    
+    /** A new mask with this one's voxels plus the 6 neighbours of each of
+     * its voxels not on the volume border.
+     */
+    public VoxelBitMask dilate(ForkJoinPool pool) {
+        VoxelBitMask result = new VoxelBitMask(width, height, depth);
+        long[] out = result.words;
+        
+        // interior x, 1 to width-2
+        long[] inner = new long[rowWords];
+        for (int x=1; x<width-1; x++) {
+            inner[x >>> 6] |= 1L << x;
+        }
+        
+        forEachSlab(pool, (z0, z1) -> {
+            for (int z=z0; z<z1; z++) {
+                for (int y=0; y<height; y++) {
+                    int row = rowIndex(y, z);
+                    boolean interior = y > 0 && y < height-1 && z > 0 && z < depth-1;
+                    for (int i=0; i<rowWords; i++) {
+                        long w = words[row + i];
+                        if (interior) {
+                            // x-1 and x+1 neighbours within the row
+                            long c = w & inner[i];
+                            long below = i > 0 ? words[row + i - 1] & inner[i - 1] : 0L;
+                            long above = i < rowWords-1 ? words[row + i + 1] & inner[i + 1] : 0L;
+                            w |= (c << 1) | (below >>> 63) | (c >>> 1) | (above << 63);
+                        }
+                        w |= interiorWord(y - 1, z, i, inner) | interiorWord(y + 1, z, i, inner)
+                           | interiorWord(y, z - 1, i, inner) | interiorWord(y, z + 1, i, inner);
+                        out[row + i] = w;
+                    }
+                }
+            }
+        });
+        
+        return result;
+    }
+    
+    // word i of row (y, z) if it is an interior row, only interior x
+    private long interiorWord(int y, int z, int i, long[] inner) {
+        if (y <= 0 || y >= height-1 || z <= 0 || z >= depth-1) {
+            return 0L;
+        }
+        return words[rowIndex(y, z) + i] & inner[i];
+    }
+    
+    /** Zeroes every voxel of voxels, a width x height x depth volume, that
+     * isn't set in this mask.
+     */
+    public void clearOutside(short[] voxels, ForkJoinPool pool) {
+        clearOutside(ShortBuffer.wrap(voxels), pool);
+    }
+    
+    /** As clearOutside(short[]), for voxels in a buffer such as
+     * ImageVolume4D.getVoxelBuffer() returns. Only absolute puts are used,
+     * the buffer's position is left alone.
+     */
+    public void clearOutside(ShortBuffer voxels, ForkJoinPool pool) {
+        forEachSlab(pool, (z0, z1) -> {
+            for (int z=z0; z<z1; z++) {
+                for (int y=0; y<height; y++) {
+                    int row = rowIndex(y, z);
+                    int offset = (z * height + y) * width;
+                    for (int x=0; x<width; x++) {
+                        if ((words[row + (x >>> 6)] & (1L << x)) == 0) {
+                            voxels.put(offset + x, (short)0);
+                        }
+                    }
+                }
+            }
+        });
+    }
+    
+    interface SlabTask {
+        void run(int z0, int z1);
+    }
+    
+    // Runs task over slices [z0, z1) that together cover the volume
+    void forEachSlab(ForkJoinPool pool, SlabTask task) {
+        int slabs = Math.max(1, Math.min(depth, pool.getParallelism() * 4));
+        List<Callable<Void>> tasks = new ArrayList<>(slabs);
+        for (int n=0; n<slabs; n++) {
+            int z0 = depth * n / slabs;
+            int z1 = depth * (n + 1) / slabs;
+            tasks.add(() -> {
+                task.run(z0, z1);
+                return null;
+            });
+        }
+        
+        try {
+            for (Future<Void> f : pool.invokeAll(tasks)) {
+                f.get();
+            }
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted", e);
+        }
+        catch(ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,418 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion.model.image;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * ImageVolume4D whose channels live in direct ByteBuffers, or in a memory
+ * mapped file, instead of Java arrays. getByteBuffer() returns a view of the
+ * storage rather than a copy, so building a texture from the volume doesn't
+ * need a second, transient copy of the voxels. getShortBuffer(),
+ * getFloatBuffer() and getIntBuffer() give typed views of the same storage.
+ *
+ * There is no array behind a channel, so getData() throws
+ * UnsupportedOperationException rather than hand out a copy whose changes
+ * would be lost. Voxels are read and written in place through
+ * getVoxelBuffer() or the typed views. copyData() and setData() copy a
+ * whole channel out to an array and back.
+ *
+ * Voxels are stored in native byte order.
+ *
+ * @author jsnell
+ */
+public class DirectImageVolume4D extends ImageVolume4D {
+    private static final long serialVersionUID = -3316930811279528104L;
+    
+    private final File mappedFile;
+    private long mappedLength;
+    
+    // offset and length in mappedFile of each channel's storage, and the
+    // regions given up by freed or reallocated channels for reuse
+    private final IdentityHashMap<Object, long[]> mappedRegions = new IdentityHashMap<>();
+    private final List<long[]> freeRegions = new ArrayList<>();
+    
+    // for subclasses that set the dimensions and add channels themselves
+    protected DirectImageVolume4D() {
+        super();
+        mappedFile = null;
+    }
+    
+    public DirectImageVolume4D(int voxelType, int x, int y, int z, int t) {
+        this(null, voxelType, x, y, z, t);
+    }
+    
+    // Maps the channels from file, one after another. The file is created
+    // or grown as needed and keeps the voxels after the volume is gone. A
+    // channel that is freed or reallocated gives its region back, so
+    // adding channels again doesn't keep growing the file.
+    public DirectImageVolume4D(File file, int voxelType, int x, int y, int z, int t) {
+        super();
+        
+        mappedFile = file;
+        
+        setDimension(0, new ImageDimension(x));
+        setDimension(1, new ImageDimension(y));
+        setDimension(2, new ImageDimension(z));
+        setDimension(3, new ImageDimension(t));
+        
+        addChannel(voxelType);
+    }
+    
+    public boolean isMapped() { return mappedFile != null; }
+    
+    @Override
+    public ImageVolume createMatchingVolume(int voxtype) {
+        ImageVolume4D image = new DirectImageVolume4D(voxtype, getDimension(0).getSize(), getDimension(1).getSize(), getDimension(2).getSize(), getDimension(3).getSize());
+        
+        copyGeometry(image);
+        
+        return image;
+    }
+    
+    @Override
+    protected Object allocStorage(int type, int count) {
+        int size;
+        switch (type) {
+            case UBYTE_VOXEL:
+                size = count;
+                break;
+            case USHORT_VOXEL:
+                size = count * 2;
+                break;
+            case INT_VOXEL:
+            case RGBA_VOXEL:
+            case FLOAT_VOXEL:
+                size = count * 4;
+                break;
+            default:
+                return null;
+        }
+        
+        ByteBuffer buf;
+        if (mappedFile != null) {
+            long[] region = takeFreeRegion(size);
+            try (RandomAccessFile raf = new RandomAccessFile(mappedFile, "rw")) {
+                buf = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, region[0], size);
+            }
+            catch(IOException e) {
+                freeRegions.add(region);
+                throw new RuntimeException("Failed to map voxel data from " + mappedFile, e);
+            }
+            buf.order(ByteOrder.nativeOrder());
+            mappedRegions.put(buf, region);
+        }
+        else {
+            buf = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+        }
+        
+        return buf;
+    }
+    
+    // The smallest free region that holds size bytes, or a new one at the end of the file
+    private long[] takeFreeRegion(int size) {
+        long[] best = null;
+        for (long[] region : freeRegions) {
+            if (region[1] >= size && (best == null || region[1] < best[1])) {
+                best = region;
+            }
+        }
+        
+        if (best != null) {
+            freeRegions.remove(best);
+            return best;
+        }
+        
+        long[] region = new long[] {mappedLength, size};
+        mappedLength += size;
+        return region;
+    }
+    
+    private void freeRegion(int channel) {
+        if (mappedFile != null && channel < getChannelCount()) {
+            long[] region = mappedRegions.remove(getStorage(channel));
+            if (region != null) {
+                freeRegions.add(region);
+            }
+        }
+    }
+    
+    @Override
+    public int addChannel(int channel, int voxtype) {
+        freeRegion(channel);
+        return super.addChannel(channel, voxtype);
+    }
+    
+    @Override
+    public void freeChannel(int channel) {
+        freeRegion(channel);
+        super.freeChannel(channel);
+    }
+    
+    // The whole of a channel's storage, position 0, in native order
+    protected ByteBuffer channelBuffer(int channel) {
+        return ((ByteBuffer)getStorage(channel)).duplicate().order(ByteOrder.nativeOrder());
+    }
+    
+    // length bytes of a channel's storage from offset, as position and limit
+    protected ByteBuffer channelBuffer(int channel, long offset, int length) {
+        ByteBuffer buf = channelBuffer(channel);
+        buf.position((int)offset);
+        buf.limit((int)offset + length);
+        return buf;
+    }
+    
+    @Override
+    public ByteBuffer getByteBuffer(int channel, boolean direct) {
+        if (channel < 0 || channel >= getChannelCount()) {
+            return null;
+        }
+        
+        // always the direct storage, whatever was asked for
+        return channelBuffer(channel);
+    }
+    
+    public ShortBuffer getShortBuffer(int channel) {
+        return channelBuffer(channel).asShortBuffer();
+    }
+    
+    public IntBuffer getIntBuffer(int channel) {
+        return channelBuffer(channel).asIntBuffer();
+    }
+    
+    public FloatBuffer getFloatBuffer(int channel) {
+        return channelBuffer(channel).asFloatBuffer();
+    }
+    
+    @Override
+    public Object getData(int channel) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " has no voxel array, use getVoxelBuffer() or copyData()");
+    }
+    
+    @Override
+    public Object copyData(int channel) {
+        Object data = newArray(getVoxelType(channel), getVoxelCount());
+        get(channelBuffer(channel), data);
+        return data;
+    }
+    
+    @Override
+    public Buffer getVoxelBuffer(int channel) {
+        switch(getVoxelType(channel)) {
+            case ImageVolume.FLOAT_VOXEL:
+                return getFloatBuffer(channel);
+            case ImageVolume.RGBA_VOXEL:
+            case ImageVolume.INT_VOXEL:
+                return getIntBuffer(channel);
+            case ImageVolume.UBYTE_VOXEL:
+                return channelBuffer(channel);
+            case ImageVolume.USHORT_VOXEL:
+                return getShortBuffer(channel);
+            default:
+                throw new RuntimeException("Undefined voxel data type");
+        }
+    }
+    
+    // Copies data into the channel's storage, the volume doesn't keep data
+    @Override
+    public void setData(int channel, Object data) {
+        put(channelBuffer(channel), data);
+        fireDataChanged(channel);
+    }
+    
+    protected static Object newArray(int voxelType, int count) {
+        switch(voxelType) {
+            case ImageVolume.FLOAT_VOXEL:
+                return new float[count];
+            case ImageVolume.RGBA_VOXEL:
+            case ImageVolume.INT_VOXEL:
+                return new int[count];
+            case ImageVolume.UBYTE_VOXEL:
+                return new byte[count];
+            case ImageVolume.USHORT_VOXEL:
+                return new short[count];
+            default:
+                throw new RuntimeException("Undefined voxel data type");
+        }
+    }
+    
+    // Array copies to and from a channel's storage, count voxels from the
+    // buffer's position to data[offset] and back
+    protected static void get(ByteBuffer buf, Object data) {
+        get(buf, data, 0, length(data));
+    }
+    
+    protected static void get(ByteBuffer buf, Object data, int offset, int count) {
+        if (data instanceof short[]) {
+            buf.asShortBuffer().get((short[])data, offset, count);
+        }
+        else if (data instanceof float[]) {
+            buf.asFloatBuffer().get((float[])data, offset, count);
+        }
+        else if (data instanceof int[]) {
+            buf.asIntBuffer().get((int[])data, offset, count);
+        }
+        else if (data instanceof byte[]) {
+            buf.get((byte[])data, offset, count);
+        }
+        else {
+            throw new IllegalArgumentException("Unsupported voxel array " + data);
+        }
+    }
+    
+    protected static void put(ByteBuffer buf, Object data) {
+        put(buf, data, 0, length(data));
+    }
+    
+    protected static void put(ByteBuffer buf, Object data, int offset, int count) {
+        if (data instanceof short[]) {
+            buf.asShortBuffer().put((short[])data, offset, count);
+        }
+        else if (data instanceof float[]) {
+            buf.asFloatBuffer().put((float[])data, offset, count);
+        }
+        else if (data instanceof int[]) {
+            buf.asIntBuffer().put((int[])data, offset, count);
+        }
+        else if (data instanceof byte[]) {
+            buf.put((byte[])data, offset, count);
+        }
+        else {
+            throw new IllegalArgumentException("Unsupported voxel array " + data);
+        }
+    }
+    
+    private static int length(Object data) {
+        if (data instanceof short[]) {
+            return ((short[])data).length;
+        }
+        else if (data instanceof float[]) {
+            return ((float[])data).length;
+        }
+        else if (data instanceof int[]) {
+            return ((int[])data).length;
+        }
+        else if (data instanceof byte[]) {
+            return ((byte[])data).length;
+        }
+        else {
+            throw new IllegalArgumentException("Unsupported voxel array " + data);
+        }
+    }
+    
+    @Override
+    public ByteBuffer getFrameAsByteBuffer(ByteBuffer buf, int channel, boolean direct, int frameSize, int nthFrame) {
+        if (channel < 0 || channel >= getChannelCount()) {
+            return null;
+        }
+        
+        int datasize = getVoxelDataSize(channel);
+        
+        if (buf == null) {
+            if (direct) {
+                buf = ByteBuffer.allocateDirect(frameSize*datasize);
+            }
+            else {
+                buf = ByteBuffer.allocate(frameSize*datasize);
+            }
+        }
+        
+        buf.rewind();
+        
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        
+        ByteBuffer src = channelBuffer(channel, (long)frameSize*nthFrame*datasize, frameSize*datasize);
+        
+        switch(getVoxelType(channel)) {
+            case ImageVolume.FLOAT_VOXEL:
+                buf.asFloatBuffer().put(src.asFloatBuffer());
+                break;
+            case ImageVolume.RGBA_VOXEL:
+            case ImageVolume.INT_VOXEL:
+                buf.asIntBuffer().put(src.asIntBuffer());
+                break;
+            case ImageVolume.UBYTE_VOXEL:
+                buf.put(src);
+                break;
+            case ImageVolume.USHORT_VOXEL:
+                buf.asShortBuffer().put(src.asShortBuffer());
+                break;
+            default:
+                throw new RuntimeException("Undefined voxel data type");            
+        }
+        
+        return buf;
+    }
+    
+    @Override
+    public ByteBuffer putFrameAsByteBuffer(ByteBuffer buf, int channel, boolean direct, int frameSize, int nthFrame) {
+        if (channel < 0 || channel >= getChannelCount() || buf == null) {
+            return buf;
+        }
+        
+        int datasize = getVoxelDataSize(channel);
+        
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        
+        ByteBuffer dst = channelBuffer(channel, (long)frameSize*nthFrame*datasize, frameSize*datasize);
+        
+        ByteBuffer src = buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        src.limit(src.position() + frameSize*datasize);
+        
+        switch(getVoxelType(channel)) {
+            case ImageVolume.FLOAT_VOXEL:
+                dst.asFloatBuffer().put(src.asFloatBuffer());
+                break;
+            case ImageVolume.RGBA_VOXEL:
+            case ImageVolume.INT_VOXEL:
+                dst.asIntBuffer().put(src.asIntBuffer());
+                break;
+            case ImageVolume.UBYTE_VOXEL:
+                dst.put(src);
+                break;
+            case ImageVolume.USHORT_VOXEL:
+                dst.asShortBuffer().put(src.asShortBuffer());
+                break;
+            default:
+                throw new RuntimeException("Undefined voxel data type");            
+        }
+        
+        buf.position(buf.position() + frameSize*datasize);
+        
+        return buf;
+    }
+    
+}
@@ -0,0 +1,85 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion.model.image;
+
+import java.nio.FloatBuffer;
+
+/**
+ * VoxelCursor over float voxels.
+ *
+ * @author jsnell
+ */
+public final class FloatVoxelCursor extends VoxelCursor {
+    
+    // data when there is an array behind the voxels, buffer otherwise
+    private final float[] data;
+    private final FloatBuffer buffer;
+    
+    /** The whole first time frame of a channel. */
+    public FloatVoxelCursor(ImageVolume image, int channel) {
+        this(image, channel, new VoxelSpan(image));
+    }
+    
+    public FloatVoxelCursor(ImageVolume image, int channel, VoxelSpan span) {
+        this((FloatBuffer)buffer(image, channel, FloatBuffer.class), span);
+    }
+    
+    public FloatVoxelCursor(float[] data, VoxelSpan span) {
+        super(span);
+        this.data = data;
+        this.buffer = null;
+    }
+    
+    /** Over buffer from position 0, or over its array if it has one. */
+    public FloatVoxelCursor(FloatBuffer buffer, VoxelSpan span) {
+        super(span);
+        this.data = buffer.hasArray() && buffer.arrayOffset() == 0 ? buffer.array() : null;
+        this.buffer = data == null ? buffer : null;
+    }
+    
+    /** The array the voxels are in, for row loops. Throws
+     * UnsupportedOperationException if there is none, see getBuffer(). */
+    public float[] getData() {
+        if (data == null) {
+            throw new UnsupportedOperationException("No voxel array, use getBuffer()");
+        }
+        return data;
+    }
+    
+    /** The voxels as a buffer, at the same offsets as getData(). */
+    public FloatBuffer getBuffer() { return data != null ? FloatBuffer.wrap(data) : buffer.duplicate(); }
+    
+    public float get() { return data != null ? data[offset] : buffer.get(offset); }
+    
+    /** Voxel delta array elements away, see getRowStride() and getSliceStride(). */
+    public float get(int delta) { return data != null ? data[offset + delta] : buffer.get(offset + delta); }
+    
+    public void set(float value) {
+        if (data != null) data[offset] = value; else buffer.put(offset, value);
+    }
+    
+    public void set(int delta, float value) {
+        if (data != null) data[offset + delta] = value; else buffer.put(offset + delta, value);
+    }
+}
@@ -0,0 +1,321 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion.model.image;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Builds one level of the Gaussian pyramid kept by ImageVolume4D: every
+ * spatial dimension longer than one voxel is halved after smoothing with
+ * the binomial kernel [1 3 3 1]/8. The kernel spans source voxels 2i-1 to
+ * 2i+2, so level voxel i is centred between source voxels 2i and 2i+1 and
+ * regular sample positions, spacing*(i+0.5), stay exact at twice the
+ * spacing. Edges are clamped. Output slices are computed in parallel on
+ * the common ForkJoinPool.
+ *
+ * @author jsnell
+ */
+class ImagePyramid {
+    
+    private static final float[] KERNEL = { 1f/8f, 3f/8f, 3f/8f, 1f/8f };
+    
+    private ImagePyramid() {}
+    
+    // Half resolution copy of one channel of src, in a new single channel
+    // volume of the same voxel type with geometry and attributes to match.
+    static ImageVolume4D reduce(ImageVolume4D src, int channel) {
+        int type = src.getVoxelType(channel);
+        if (type == ImageVolume.RGBA_VOXEL) {
+            throw new UnsupportedOperationException("No pyramid for RGBA volumes");
+        }
+        
+        int w = src.getDimension(0).getSize();
+        int h = src.getDimension(1).getSize();
+        int d = src.getDimension(2).getSize();
+        int frames = src.getDimension(3).getSize();
+        
+        int w2 = half(w), h2 = half(h), d2 = half(d);
+        
+        ImageVolume4D level = new ImageVolume4D(type, w2, h2, d2, frames);
+        level.setThread(src.myThread);
+        
+        for (int i=0; i<3; i++) {
+            reduceDimension(src.getDimension(i), level.getDimension(i));
+        }
+        level.setDimension(3, src.getDimension(3));
+        
+        // off-heap volumes are read in place rather than through a getData() copy
+        Object in = src instanceof DirectImageVolume4D ? src.getByteBuffer(channel, true) : src.getData(channel);
+        Object out = level.getData(0);
+        
+        ForkJoinPool workers = ForkJoinPool.commonPool();
+        int threads = Math.max(1, Math.min(workers.getParallelism() * 4, d2*frames));
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            int slices = d2 * frames;
+            for (int n=0; n<threads; n++) {
+                final int first = slices * n / threads;
+                final int last = slices * (n+1) / threads;
+                tasks.add(() -> {
+                    float[] line = new float[w];
+                    float[] rows = new float[h * w2];
+                    float[] acc = new float[h2 * w2];
+                    for (int s=first; s<last; s++) {
+                        reduceSlice(in, type, w, h, d, w2, h2, d2, s / d2, s % d2, line, rows, acc);
+                        store(acc, out, type, s * h2 * w2);
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> f : workers.invokeAll(tasks)) {
+                f.get();
+            }
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted building image pyramid", e);
+        }
+        catch(ExecutionException e) {
+            throw new RuntimeException("Failed to build image pyramid", e.getCause());
+        }
+        
+        copyAttributes(src, level);
+        
+        return level;
+    }
+    
+    // Largest sample spacing over the three spatial dimensions
+    static float voxelSize(ImageVolume4D image) {
+        float size = 0f;
+        for (int i=0; i<3; i++) {
+            ImageDimension dim = image.getDimension(i);
+            if (dim.getSize() < 2) {
+                continue;
+            }
+            if (dim.getRegularSampleSpacing()) {
+                size = Math.max(size, dim.getSampleSpacing());
+            }
+            else {
+                size = Math.max(size, Math.abs(dim.getSamplePosition(dim.getSize()-1) - dim.getSamplePosition(0)) / (dim.getSize()-1));
+            }
+        }
+        return size;
+    }
+    
+    private static int half(int size) {
+        return size > 1 ? (size + 1) / 2 : size;
+    }
+    
+    private static void reduceDimension(ImageDimension src, ImageDimension dst) {
+        dst.setType(src.getType());
+        
+        if (src.getSize() < 2) {
+            dst.setSampleWidth(src.getSampleWidth(0));
+            if (src.getRegularSampleSpacing()) {
+                dst.setSampleSpacing(src.getSampleSpacing());
+            }
+            else {
+                dst.setSamplePosition(0, src.getSamplePosition(0));
+            }
+            return;
+        }
+        
+        dst.setSampleWidth(src.getSampleWidth(0) * 2f);
+        if (src.getRegularSampleSpacing()) {
+            dst.setSampleSpacing(src.getSampleSpacing() * 2f);
+        }
+        else {
+            for (int i=0; i<dst.getSize(); i++) {
+                int a = Math.min(2*i, src.getSize()-1);
+                int b = Math.min(2*i+1, src.getSize()-1);
+                dst.setSamplePosition(i, (src.getSamplePosition(a) + src.getSamplePosition(b)) / 2f);
+            }
+        }
+    }
+    
+    // Smooths and decimates output slice z2 of frame t into acc, h2 x w2.
+    // line holds one source row, rows one source slice reduced along x.
+    private static void reduceSlice(Object in, int type, int w, int h, int d, int w2, int h2, int d2, int t, int z2, float[] line, float[] rows, float[] acc) {
+        Arrays.fill(acc, 0f);
+        
+        int taps = d2 == d ? 1 : KERNEL.length;
+        for (int k=0; k<taps; k++) {
+            int z = taps == 1 ? z2 : clamp(2*z2 - 1 + k, d);
+            float zw = taps == 1 ? 1f : KERNEL[k];
+            int base = (t * d + z) * h * w;
+            
+            // along x
+            for (int y=0; y<h; y++) {
+                load(in, type, base + y * w, line);
+                for (int x2=0; x2<w2; x2++) {
+                    float sum;
+                    if (w2 == w) {
+                        sum = line[x2];
+                    }
+                    else {
+                        sum = 0f;
+                        for (int j=0; j<KERNEL.length; j++) {
+                            sum += KERNEL[j] * line[clamp(2*x2 - 1 + j, w)];
+                        }
+                    }
+                    rows[y * w2 + x2] = sum;
+                }
+            }
+            
+            // along y, weighted into the slice sum
+            for (int y2=0; y2<h2; y2++) {
+                for (int x2=0; x2<w2; x2++) {
+                    float sum;
+                    if (h2 == h) {
+                        sum = rows[y2 * w2 + x2];
+                    }
+                    else {
+                        sum = 0f;
+                        for (int j=0; j<KERNEL.length; j++) {
+                            sum += KERNEL[j] * rows[clamp(2*y2 - 1 + j, h) * w2 + x2];
+                        }
+                    }
+                    acc[y2 * w2 + x2] += zw * sum;
+                }
+            }
+        }
+    }
+    
+    private static int clamp(int i, int size) {
+        return i < 0 ? 0 : i >= size ? size - 1 : i;
+    }
+    
+    // line.length voxels from offset, as floats
+    private static void load(Object data, int type, int offset, float[] line) {
+        if (data instanceof ByteBuffer) {
+            load((ByteBuffer)data, type, offset, line);
+            return;
+        }
+        
+        switch(type) {
+            case ImageVolume.USHORT_VOXEL: {
+                short[] in = (short[])data;
+                for (int i=0; i<line.length; i++) {
+                    line[i] = in[offset + i] & 0xffff;
+                }
+                break;
+            }
+            case ImageVolume.UBYTE_VOXEL: {
+                byte[] in = (byte[])data;
+                for (int i=0; i<line.length; i++) {
+                    line[i] = in[offset + i] & 0xff;
+                }
+                break;
+            }
+            case ImageVolume.INT_VOXEL: {
+                int[] in = (int[])data;
+                for (int i=0; i<line.length; i++) {
+                    line[i] = in[offset + i];
+                }
+                break;
+            }
+            case ImageVolume.FLOAT_VOXEL:
+                System.arraycopy((float[])data, offset, line, 0, line.length);
+                break;
+            default:
+                throw new RuntimeException("Undefined voxel data type");
+        }
+    }
+    
+    private static void load(ByteBuffer in, int type, int offset, float[] line) {
+        switch(type) {
+            case ImageVolume.USHORT_VOXEL:
+                for (int i=0; i<line.length; i++) {
+                    line[i] = in.getShort((offset + i) * 2) & 0xffff;
+                }
+                break;
+            case ImageVolume.UBYTE_VOXEL:
+                for (int i=0; i<line.length; i++) {
+                    line[i] = in.get(offset + i) & 0xff;
+                }
+                break;
+            case ImageVolume.INT_VOXEL:
+                for (int i=0; i<line.length; i++) {
+                    line[i] = in.getInt((offset + i) * 4);
+                }
+                break;
+            case ImageVolume.FLOAT_VOXEL:
+                for (int i=0; i<line.length; i++) {
+                    line[i] = in.getFloat((offset + i) * 4);
+                }
+                break;
+            default:
+                throw new RuntimeException("Undefined voxel data type");
+        }
+    }
+    
+    private static void store(float[] acc, Object data, int type, int offset) {
+        switch(type) {
+            case ImageVolume.USHORT_VOXEL: {
+                short[] out = (short[])data;
+                for (int i=0; i<acc.length; i++) {
+                    out[offset + i] = (short)Math.round(acc[i]);
+                }
+                break;
+            }
+            case ImageVolume.UBYTE_VOXEL: {
+                byte[] out = (byte[])data;
+                for (int i=0; i<acc.length; i++) {
+                    out[offset + i] = (byte)Math.round(acc[i]);
+                }
+                break;
+            }
+            case ImageVolume.INT_VOXEL: {
+                int[] out = (int[])data;
+                for (int i=0; i<acc.length; i++) {
+                    out[offset + i] = Math.round(acc[i]);
+                }
+                break;
+            }
+            case ImageVolume.FLOAT_VOXEL:
+                System.arraycopy(acc, 0, (float[])data, offset, acc.length);
+                break;
+            default:
+                throw new RuntimeException("Undefined voxel data type");
+        }
+    }
+    
+    private static void copyAttributes(ImageVolume4D src, ImageVolume4D dst) {
+        Iterator<String> keys = src.getAttributeKeys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            if (!src.getIsAttributeTransient(key)) {
+                dst.getAttributeList().put(key, src.getAttribute(key), false);
+            }
+        }
+    }
+}
@@ -26,6 +26,7 @@ package org.fusfoundation.kranion.model.image;
 
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.util.Iterator;
 
@@ -66,15 +67,26 @@ public interface ImageVolume {
     public int getVoxelOffset(int x, int y, int z);
     public int getVoxelType();
         
-    /** Returns the voxel data as an array of the created voxel type. */    
+    /** Returns the voxel data as an array of the created voxel type, the
+     * volume's own array, so writes to it change the volume. Volumes with
+     * off-heap storage, such as DirectImageVolume4D, have no such array and
+     * throw UnsupportedOperationException, see ImageVolume4D.getVoxelBuffer()
+     * and ImageVolume4D.copyData(). */    
     public Object getData();
     public Object getData(int channel);
-    /** Returns the voxel data as a java.nio.ByteBuffer. This may (and probably will)
-     * involve making a copy. ByteBuffer may or may not be direct. Main intent is to
-     * provide a mechanism for passing voxel data to native code. In the event of a
-     * copy, syncronization is up to the caller (for now).
+    /** Returns a view of a channel's voxels, typed by voxel type, whatever
+     * the volume keeps them in. See ImageVolume4D.getVoxelBuffer(). */
+    public Buffer getVoxelBuffer(int channel);
+    /** Returns the voxel data as a java.nio.ByteBuffer. This may involve making a
+     * copy. ByteBuffer may or may not be direct. Main intent is to provide a mechanism
+     * for passing voxel data to native code. In the event of a copy, syncronization
+     * is up to the caller (for now). Implementations with off-heap storage, such as
+     * DirectImageVolume4D, return a view of the storage instead of a copy.
      */    
     public ByteBuffer getByteBuffer();
+    /** Tells the volume and its listeners that the voxels of a channel were
+     * changed in place, which also drops anything cached from them. */
+    public void fireDataChanged(int channel);
     
     public void setAttribute(String name, Object value);
     public void setAttribute(String name, Object value, boolean isTransient);
@@ -46,7 +46,11 @@ import org.fusfoundation.kranion.model.AttributeList;
 public class ImageVolume4D implements ImageVolume, Serializable {
     private static final long  serialVersionUID = 371489430528683979L;
     
+    /** Number of downsampled pyramid levels, 2x, 4x and 8x. */
+    public static final int PYRAMID_LEVELS = 3;
+    
     private PropertyChangeSupport propertyChangeSupport;
+    private transient PropertyChangeListener pyramidInvalidator;
     
     private ImageDimension[] dims = new ImageDimension[4];
     private int voxelCount;
@@ -106,6 +110,12 @@ public class ImageVolume4D implements ImageVolume, Serializable {
     public ImageVolume createMatchingVolume(int voxtype) {
         ImageVolume4D image = new ImageVolume4D(voxtype,  dims[0].getSize(), dims[1].getSize(), dims[2].getSize(), dims[3].getSize());
         
+        copyGeometry(image);
+        
+        return image;
+    }
+    
+    protected void copyGeometry(ImageVolume4D image) {
         // copy sample geometry
         // assumes regular sample spacing/widths for x and y
         image.setPixelSize(getPixelWidth(), getPixelHeight());
@@ -120,8 +130,6 @@ public class ImageVolume4D implements ImageVolume, Serializable {
                 image.getDimension(2).setSamplePosition(i, dims[2].getSamplePosition(i));
             }
         }
-        
-        return image;
     }
     
     public int addChannel(int voxtype) {
@@ -142,6 +150,7 @@ public class ImageVolume4D implements ImageVolume, Serializable {
         }
         
         alloc(channel, voxtype);
+        fireDataChanged(channel);
 //        System.out.println("added channel " + channel);
         return channel;
     }
@@ -167,21 +176,7 @@ public class ImageVolume4D implements ImageVolume, Serializable {
             voxelCount *= dims[i].getSize();
         }
         
-        switch (type) {
-            case UBYTE_VOXEL:
-                voxelData.set(channel, new byte[voxelCount]);
-                break;
-            case USHORT_VOXEL:
-                voxelData.set(channel, new short[voxelCount]);
-                break;
-            case INT_VOXEL:
-            case RGBA_VOXEL:
-                voxelData.set(channel, new int[voxelCount]);
-                break;
-            case FLOAT_VOXEL:
-                voxelData.set(channel, new float[voxelCount]);
-                break;
-        };
+        voxelData.set(channel, allocStorage(type, voxelCount));
         
         try {
             voxelType.set(channel, type);
@@ -193,12 +188,42 @@ public class ImageVolume4D implements ImageVolume, Serializable {
 //        System.out.println("alloc: channel " + channel);
     }
     
+    // Allocates the backing store for one channel. Subclasses can keep
+    // voxels somewhere other than a primitive array, see DirectImageVolume4D.
+    protected Object allocStorage(int type, int count) {
+        switch (type) {
+            case UBYTE_VOXEL:
+                return new byte[count];
+            case USHORT_VOXEL:
+                return new short[count];
+            case INT_VOXEL:
+            case RGBA_VOXEL:
+                return new int[count];
+            case FLOAT_VOXEL:
+                return new float[count];
+            default:
+                return null;
+        }
+    }
+    
+    // The backing store of a channel as allocated by allocStorage()
+    protected Object getStorage(int channel) {
+        return voxelData.get(channel);
+    }
+    
     @Override
     public void freeChannel(int channel) {
+        int count = voxelData.size();
+        
         voxelData.set(channel, null);
         voxelData.remove(channel);
         
         voxelType.remove(channel);
+        
+        // later channels move down one
+        for (int i=channel; i<count; i++) {
+            fireDataChanged(i);
+        }
     }
     
     private int getDataSize() { return getDataSize(0); }
@@ -381,6 +406,126 @@ public class ImageVolume4D implements ImageVolume, Serializable {
     //      fast to initialize the image data from file storage
     public void setData(int channel, Object data) {
         voxelData.set(channel, data);
+        fireDataChanged(channel);
+    }
+    
+    /** Returns a copy of a channel's voxels, an array of the voxel type that
+     * belongs to the caller. Changes to it are only seen once they are
+     * handed back with setData().
+     */
+    public Object copyData(int channel) {
+        Object data = getData(channel);
+        if (data instanceof short[]) {
+            return ((short[])data).clone();
+        }
+        else if (data instanceof float[]) {
+            return ((float[])data).clone();
+        }
+        else if (data instanceof int[]) {
+            return ((int[])data).clone();
+        }
+        else if (data instanceof byte[]) {
+            return ((byte[])data).clone();
+        }
+        else {
+            throw new RuntimeException("Undefined voxel data type");
+        }
+    }
+    
+    /** Returns a view of a channel's voxels, a ByteBuffer, ShortBuffer,
+     * IntBuffer or FloatBuffer by voxel type, from position 0. Writes go
+     * straight to the volume, call fireDataChanged() when done. Unlike
+     * getData() this works for volumes that don't keep their voxels in an
+     * array, for this one it wraps the array.
+     */
+    public Buffer getVoxelBuffer(int channel) {
+        Object data = getStorage(channel);
+        if (data instanceof short[]) {
+            return ShortBuffer.wrap((short[])data);
+        }
+        else if (data instanceof float[]) {
+            return FloatBuffer.wrap((float[])data);
+        }
+        else if (data instanceof int[]) {
+            return IntBuffer.wrap((int[])data);
+        }
+        else if (data instanceof byte[]) {
+            return ByteBuffer.wrap((byte[])data);
+        }
+        else {
+            throw new RuntimeException("Undefined voxel data type");
+        }
+    }
+    
+    /** Tells listeners that the voxels of a channel have changed, as property
+     * "Data[channel]". Code that writes into the array from getData() should
+     * call this when done. Listeners are called on the calling thread. This
+     * is also what drops the channel's cached pyramid levels.
+     */
+    public void fireDataChanged(int channel) {
+        propertyChangeSupport.firePropertyChange("Data[" + channel + "]", null, channel);
+    }
+    
+    /** Returns a level of the Gaussian pyramid of a channel, built on first
+     * use and cached as a transient attribute until the channel's data
+     * changes. Level 0 is this volume. Levels 1 to PYRAMID_LEVELS are
+     * downsampled 2x, 4x and 8x in each spatial dimension, and hold the
+     * channel as their channel 0. Code that writes voxels in place must call
+     * fireDataChanged() for the levels to be rebuilt. RGBA channels have no
+     * pyramid, asking for a level above 0 throws
+     * UnsupportedOperationException.
+     */
+    public synchronized ImageVolume4D getPyramidLevel(int channel, int level) {
+        if (level <= 0) {
+            return this;
+        }
+        if (level > PYRAMID_LEVELS) {
+            throw new IllegalArgumentException("Pyramid level " + level + " of " + PYRAMID_LEVELS);
+        }
+        
+        String key = "PyramidLevel[" + channel + "][" + level + "]";
+        ImageVolume4D result = (ImageVolume4D)attributes.get(key);
+        if (result == null) {
+            ImageVolume4D finer = getPyramidLevel(channel, level - 1);
+            result = ImagePyramid.reduce(finer, level == 1 ? channel : 0);
+            
+            if (pyramidInvalidator == null) {
+                pyramidInvalidator = (PropertyChangeEvent evt) -> {
+                    if (evt.getPropertyName().startsWith("Data[")) {
+                        invalidatePyramid((Integer)evt.getNewValue());
+                    }
+                };
+                propertyChangeSupport.addPropertyChangeListener(pyramidInvalidator);
+            }
+            
+            // straight into the list, these are a cache, not model state
+            attributes.put(key, result, true);
+        }
+        return result;
+    }
+    
+    /** Returns the coarsest pyramid level of a channel whose voxels are no
+     * larger than voxelSize, in the units of the sample spacing. Returns this
+     * volume if even its voxels are larger. Throws
+     * UnsupportedOperationException as above for RGBA channels.
+     */
+    public ImageVolume4D getPyramidLevel(int channel, float voxelSize) {
+        ImageVolume4D result = this;
+        float size = ImagePyramid.voxelSize(this);
+        for (int level=1; level<=PYRAMID_LEVELS; level++) {
+            size *= 2f;
+            if (size > voxelSize) {
+                break;
+            }
+            result = getPyramidLevel(channel, level);
+        }
+        return result;
+    }
+    
+    private synchronized void invalidatePyramid(int channel) {
+        for (int level=1; level<=PYRAMID_LEVELS; level++) {
+            attributes.remove("PyramidLevel[" + channel + "][" + level + "]");
+        }
     }
     
     public ImageDimension getDimension(int dimension) {
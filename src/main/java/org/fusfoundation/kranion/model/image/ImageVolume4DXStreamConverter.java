@@ -63,6 +63,13 @@ import org.lwjgl.BufferUtils;
  */
 public class ImageVolume4DXStreamConverter implements Converter {
 
+    // Time series with more voxel data than this are loaded into a
+    // PagedImageVolume4D instead of being kept on the heap. Off unless
+    // kranion.pagedVolumeBytes is set: the thermometry display and other
+    // consumers read whole series through getData(), which for a paged
+    // volume is a full heap copy on every call.
+    private static final long PAGED_VOLUME_BYTES = Long.getLong("kranion.pagedVolumeBytes", Long.MAX_VALUE);
+
     private int imageDataChannelRefCount=0;
     private List<Map.Entry<ImageVolume4D, Integer>> dataChannelList = new ArrayList<>();
     
@@ -210,7 +217,15 @@ public class ImageVolume4DXStreamConverter implements Converter {
                             int ch = Integer.parseInt(channelNum);
                             int voxtype = Integer.parseInt(voxelType);
                             
-                            image.addChannel(ch, voxtype);
+                            if (image.getChannelCount() == 0 && isPagedVolume(image, voxtype)) {
+                                image = createPagedVolume(image, voxtype);
+                                if (ch != 0) {
+                                    image.addChannel(ch, voxtype);
+                                }
+                            }
+                            else {
+                                image.addChannel(ch, voxtype);
+                            }
                             
                             dataChannelList.add(new AbstractMap.SimpleImmutableEntry<ImageVolume4D, Integer>(image, ch));
                                                         
@@ -264,6 +279,40 @@ public class ImageVolume4DXStreamConverter implements Converter {
         return image;
     }
     
+    private static boolean isPagedVolume(ImageVolume4D image, int voxtype) {
+        if (image.getDimensionality() < 4 || image.getDimension(3) == null || image.getDimension(3).getSize() < 2) {
+            return false;
+        }
+        
+        long bytes = voxtype == UBYTE_VOXEL ? 1 : voxtype == USHORT_VOXEL ? 2 : 4;
+        for (int i=0; i<image.getDimensionality(); i++) {
+            if (image.getDimension(i) == null) {
+                return false;
+            }
+            bytes *= image.getDimension(i).getSize();
+        }
+        return bytes > PAGED_VOLUME_BYTES;
+    }
+    
+    // Paged volume with the geometry and attributes read so far
+    private static ImageVolume4D createPagedVolume(ImageVolume4D image, int voxtype) {
+        PagedImageVolume4D paged = new PagedImageVolume4D(voxtype,
+                image.getDimension(0).getSize(), image.getDimension(1).getSize(),
+                image.getDimension(2).getSize(), image.getDimension(3).getSize());
+        
+        for (int i=0; i<image.getDimensionality(); i++) {
+            paged.setDimension(i, image.getDimension(i));
+        }
+        
+        Iterator<String> keys = image.getAttributeKeys();
+        while(keys.hasNext()) {
+            String key = keys.next();
+            paged.setAttribute(key, image.getAttribute(key), image.getIsAttributeTransient(key));
+        }
+        
+        return paged;
+    }
+    
     public void unmarshalVoxelData(ZipFile modelFile, ProgressListener listener) throws IOException, ClassNotFoundException {
         // Now load all the image channel data from associated zip entries
         for (int i = 0; i < getDataChannelCount(); i++) {
@@ -287,21 +336,19 @@ public class ImageVolume4DXStreamConverter implements Converter {
         }
     }
     
-    private Object decodeVoxelStream(ImageVolume4D image, int channel, InputStream istream) throws IOException {
+    private void decodeVoxelStream(ImageVolume4D image, int channel, InputStream istream) throws IOException {
 //        System.out.println("Decoding image channel " + channel);
         
-        Object result = null;
-        
-        if (image == null) return null;       
+        if (image == null) return;       
         
         int frameSize = image.getFrameSize();
         int voxelCount = image.getVoxelCount();
         
-        if (frameSize == 0) return null;
+        if (frameSize == 0) return;
         
         int frameCount = voxelCount / frameSize;
         
-        if (frameCount == 0) return null;
+        if (frameCount == 0) return;
         
         int voxelSize = image.getVoxelDataSize(channel);
         
@@ -314,13 +361,11 @@ public class ImageVolume4DXStreamConverter implements Converter {
                 buf.rewind();
             }
         }
-        
-        return image.getData(channel);
     }
 
     @Override
     public boolean canConvert(Class type) {
-        return ImageVolume4D.class == type;
+        return ImageVolume4D.class == type || DirectImageVolume4D.class == type || PagedImageVolume4D.class == type;
     }
     
 }
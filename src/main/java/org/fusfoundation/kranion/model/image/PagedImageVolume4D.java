@@ -0,0 +1,398 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion.model.image;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ImageVolume4D for long time series, thermometry phase images, DTI and
+ * the like, that don't need to be on the heap all at once. Each channel is
+ * kept in a scratch file as one block per time frame, x*y*z voxels. Blocks
+ * are read into memory when they are asked for and kept in an LRU of
+ * resident frames. Once there are more than getMaxResidentFrames() the
+ * least recently used block is written back to the scratch file and
+ * dropped.
+ *
+ * getTimeFrame() is the frame level accessor. getFrameAsByteBuffer() and
+ * putFrameAsByteBuffer() work a slice at a time as for ImageVolume4D and go
+ * through the same LRU. copyData() and setData() copy the whole channel a
+ * frame at a time, getData() throws as for DirectImageVolume4D.
+ * getByteBuffer(), getVoxelBuffer() and the typed views are read-only
+ * copies of the whole channel, so they are limited to 2 GB.
+ *
+ * Scratch files are deleted by freeChannel() or when the VM exits.
+ *
+ * @author jsnell
+ */
+public class PagedImageVolume4D extends DirectImageVolume4D {
+    private static final long serialVersionUID = 5712218090421466392L;
+    
+    public static final int DEFAULT_MAX_RESIDENT_FRAMES = 8;
+    
+    // Scratch files still open. They are closed and deleted by a shutdown
+    // hook rather than File.deleteOnExit(), which can't delete a file that
+    // is still open on Windows.
+    private static final Set<PagedChannel> openChannels = new HashSet<>();
+    
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(PagedImageVolume4D::closeAll, "PagedImageVolume4D cleanup"));
+    }
+    
+    private final File scratchDir;
+    private int maxResidentFrames = DEFAULT_MAX_RESIDENT_FRAMES;
+    
+    // (channel, frame) to resident block, in access order
+    private final LinkedHashMap<Long, Block> resident = new LinkedHashMap<Long, Block>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Block> eldest) {
+            if (size() > maxResidentFrames) {
+                eldest.getValue().writeBack();
+                return true;
+            }
+            return false;
+        }
+    };
+    
+    // Scratch file of one channel
+    private static class PagedChannel {
+        final File file;
+        final FileChannel channel;
+        final int blockSize; // bytes per time frame
+        final int blockCount;
+        
+        PagedChannel(File file, FileChannel channel, int blockSize, int blockCount) {
+            this.file = file;
+            this.channel = channel;
+            this.blockSize = blockSize;
+            this.blockCount = blockCount;
+        }
+        
+        void read(int frame, ByteBuffer buf) {
+            try {
+                long position = (long)frame * blockSize;
+                buf.clear();
+                while (buf.hasRemaining()) {
+                    if (channel.read(buf, position + buf.position()) < 0) {
+                        break; // past the end, the rest of the frame stays zero
+                    }
+                }
+                buf.clear();
+            }
+            catch(IOException e) {
+                throw new RuntimeException("Failed to read frame " + frame + " from " + file, e);
+            }
+        }
+        
+        void write(int frame, ByteBuffer buf) {
+            try {
+                long position = (long)frame * blockSize;
+                ByteBuffer src = buf.duplicate();
+                src.clear();
+                while (src.hasRemaining()) {
+                    channel.write(src, position + src.position());
+                }
+            }
+            catch(IOException e) {
+                throw new RuntimeException("Failed to write frame " + frame + " to " + file, e);
+            }
+        }
+        
+        void close() {
+            try {
+                channel.close();
+            }
+            catch(IOException e) {
+            }
+            file.delete();
+        }
+    }
+    
+    // One time frame of a channel held in memory
+    private static class Block {
+        final PagedChannel paged;
+        final int frame;
+        final ByteBuffer buf;
+        
+        Block(PagedChannel paged, int frame) {
+            this.paged = paged;
+            this.frame = frame;
+            this.buf = ByteBuffer.allocate(paged.blockSize).order(ByteOrder.nativeOrder());
+            paged.read(frame, buf);
+        }
+        
+        void writeBack() {
+            paged.write(frame, buf);
+        }
+    }
+    
+    public PagedImageVolume4D(int voxelType, int x, int y, int z, int t) {
+        this(null, voxelType, x, y, z, t);
+    }
+    
+    // scratchDir null for the default temporary-file directory
+    public PagedImageVolume4D(File scratchDir, int voxelType, int x, int y, int z, int t) {
+        super();
+        
+        this.scratchDir = scratchDir;
+        
+        setDimension(0, new ImageDimension(x));
+        setDimension(1, new ImageDimension(y));
+        setDimension(2, new ImageDimension(z));
+        setDimension(3, new ImageDimension(t));
+        
+        addChannel(voxelType);
+    }
+    
+    public int getMaxResidentFrames() { return maxResidentFrames; }
+    
+    public void setMaxResidentFrames(int count) {
+        synchronized(resident) {
+            maxResidentFrames = Math.max(1, count);
+            Iterator<Block> blocks = resident.values().iterator();
+            while (resident.size() > maxResidentFrames && blocks.hasNext()) {
+                blocks.next().writeBack();
+                blocks.remove();
+            }
+        }
+    }
+    
+    public int getResidentFrameCount() {
+        synchronized(resident) {
+            return resident.size();
+        }
+    }
+    
+    @Override
+    public ImageVolume createMatchingVolume(int voxtype) {
+        PagedImageVolume4D image = new PagedImageVolume4D(scratchDir, voxtype, getDimension(0).getSize(), getDimension(1).getSize(), getDimension(2).getSize(), getDimension(3).getSize());
+        image.setMaxResidentFrames(maxResidentFrames);
+        
+        copyGeometry(image);
+        
+        return image;
+    }
+    
+    @Override
+    protected Object allocStorage(int type, int count) {
+        int frames = Math.max(1, getDimension(3).getSize());
+        long blockSize = count / frames;
+        switch (type) {
+            case UBYTE_VOXEL:
+                break;
+            case USHORT_VOXEL:
+                blockSize *= 2;
+                break;
+            case INT_VOXEL:
+            case RGBA_VOXEL:
+            case FLOAT_VOXEL:
+                blockSize *= 4;
+                break;
+            default:
+                return null;
+        }
+        if (blockSize > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Time frame of " + blockSize + " bytes is too large");
+        }
+        
+        try {
+            File file = File.createTempFile("kranion", ".vox", scratchDir);
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            raf.setLength(blockSize * frames);
+            PagedChannel paged = new PagedChannel(file, raf.getChannel(), (int)blockSize, frames);
+            synchronized(openChannels) {
+                openChannels.add(paged);
+            }
+            return paged;
+        }
+        catch(IOException e) {
+            throw new RuntimeException("Failed to create voxel scratch file", e);
+        }
+    }
+    
+    @Override
+    public int addChannel(int channel, int voxtype) {
+        if (channel < getChannelCount() && getStorage(channel) != null) {
+            release(channel);
+        }
+        return super.addChannel(channel, voxtype);
+    }
+    
+    @Override
+    public void freeChannel(int channel) {
+        release(channel);
+        super.freeChannel(channel);
+    }
+    
+    private void release(int channel) {
+        PagedChannel paged = (PagedChannel)getStorage(channel);
+        
+        synchronized(resident) {
+            // frames of later channels move down one, simplest to write
+            // them all back and drop them
+            for (Block block : resident.values()) {
+                if (block.paged != paged) {
+                    block.writeBack();
+                }
+            }
+            resident.clear();
+        }
+        
+        synchronized(openChannels) {
+            openChannels.remove(paged);
+        }
+        paged.close();
+    }
+    
+    private static void closeAll() {
+        List<PagedChannel> channels;
+        synchronized(openChannels) {
+            channels = new ArrayList<>(openChannels);
+            openChannels.clear();
+        }
+        for (PagedChannel paged : channels) {
+            paged.close();
+        }
+    }
+    
+    // One time frame of a channel, x*y*z voxels in native order. The buffer
+    // is the resident copy of the frame and writes to it are kept. It stays
+    // valid until the frame is evicted, after getMaxResidentFrames() other
+    // frames have been asked for, so don't hold on to more frames than that.
+    public ByteBuffer getTimeFrame(int channel, int frame) {
+        PagedChannel paged = pagedChannel(channel, frame);
+        
+        Long key = ((long)channel << 32) | frame;
+        synchronized(resident) {
+            Block block = resident.get(key);
+            if (block == null) {
+                block = new Block(paged, frame);
+                resident.put(key, block);
+            }
+            return block.buf.duplicate().order(ByteOrder.nativeOrder());
+        }
+    }
+    
+    private PagedChannel pagedChannel(int channel, int frame) {
+        PagedChannel paged = (PagedChannel)getStorage(channel);
+        if (frame < 0 || frame >= paged.blockCount) {
+            throw new IndexOutOfBoundsException("Frame " + frame + " of " + paged.blockCount);
+        }
+        return paged;
+    }
+    
+    // A frame's current contents without making it resident
+    private ByteBuffer peekTimeFrame(int channel, int frame) {
+        PagedChannel paged = pagedChannel(channel, frame);
+        
+        synchronized(resident) {
+            Block block = resident.get(((long)channel << 32) | frame);
+            if (block != null) {
+                return block.buf.duplicate().order(ByteOrder.nativeOrder());
+            }
+        }
+        
+        ByteBuffer buf = ByteBuffer.allocate(paged.blockSize).order(ByteOrder.nativeOrder());
+        paged.read(frame, buf);
+        return buf;
+    }
+    
+    // A copy of the channel that belongs to the caller, read a frame at a time
+    @Override
+    public Object copyData(int channel) {
+        PagedChannel paged = (PagedChannel)getStorage(channel);
+        int frameVoxels = getVoxelCount() / paged.blockCount;
+        Object data = newArray(getVoxelType(channel), getVoxelCount());
+        for (int frame=0; frame<paged.blockCount; frame++) {
+            get(peekTimeFrame(channel, frame), data, frame * frameVoxels, frameVoxels);
+        }
+        return data;
+    }
+    
+    @Override
+    public void setData(int channel, Object data) {
+        PagedChannel paged = (PagedChannel)getStorage(channel);
+        int frameVoxels = getVoxelCount() / paged.blockCount;
+        for (int frame=0; frame<paged.blockCount; frame++) {
+            synchronized(resident) {
+                Block block = resident.get(((long)channel << 32) | frame);
+                if (block != null) {
+                    put(block.buf.duplicate().order(ByteOrder.nativeOrder()), data, frame * frameVoxels, frameVoxels);
+                    continue;
+                }
+            }
+            ByteBuffer buf = ByteBuffer.allocate(paged.blockSize).order(ByteOrder.nativeOrder());
+            put(buf, data, frame * frameVoxels, frameVoxels);
+            paged.write(frame, buf);
+        }
+        fireDataChanged(channel);
+    }
+    
+    // A read-only copy of the whole channel, see getTimeFrame() for channels
+    // over 2 GB
+    @Override
+    protected ByteBuffer channelBuffer(int channel) {
+        PagedChannel paged = (PagedChannel)getStorage(channel);
+        long size = (long)paged.blockSize * paged.blockCount;
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new UnsupportedOperationException("Channel of " + size + " bytes is too large for one buffer, use getTimeFrame()");
+        }
+        
+        ByteBuffer buf = ByteBuffer.allocate((int)size);
+        for (int frame=0; frame<paged.blockCount; frame++) {
+            buf.put(peekTimeFrame(channel, frame));
+        }
+        buf.clear();
+        return buf.asReadOnlyBuffer().order(ByteOrder.nativeOrder());
+    }
+    
+    // Slices and other ranges within one time frame, as a view of the resident frame
+    @Override
+    protected ByteBuffer channelBuffer(int channel, long offset, int length) {
+        PagedChannel paged = (PagedChannel)getStorage(channel);
+        int frame = (int)(offset / paged.blockSize);
+        int start = (int)(offset % paged.blockSize);
+        
+        if (start + length > paged.blockSize) {
+            throw new UnsupportedOperationException("Range crosses a time frame boundary");
+        }
+        
+        ByteBuffer buf = getTimeFrame(channel, frame);
+        buf.position(start);
+        buf.limit(start + length);
+        return buf;
+    }
+    
+}
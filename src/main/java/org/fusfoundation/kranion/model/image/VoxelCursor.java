@@ -0,0 +1,149 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion.model.image;
+
+import java.nio.Buffer;
+
+/**
+ * Walks the voxels of a VoxelSpan in array order, x fastest. The typed
+ * subclasses, ByteVoxelCursor, ShortVoxelCursor, IntVoxelCursor and
+ * FloatVoxelCursor, read and write the voxel under the cursor and its
+ * neighbours in place, so a loop over a cursor doesn't allocate or cast
+ * and the offset is stepped, not recomputed. They work on the volume's
+ * array, or on its voxel buffer for a volume with no array, such as
+ * DirectImageVolume4D. A PagedImageVolume4D buffer is a read-only copy,
+ * so setting voxels through a cursor over one throws
+ * ReadOnlyBufferException.
+ *
+ * Voxel at a time:
+ * <pre>
+ *     ShortVoxelCursor c = new ShortVoxelCursor(image, 0, span);
+ *     while (c.next()) {
+ *         sum += c.getUnsigned();
+ *     }
+ * </pre>
+ * or a row at a time, for the tightest inner loops, with getBuffer() in
+ * place of getData() for volumes with no array:
+ * <pre>
+ *     short[] data = c.getData();
+ *     while (c.nextLine()) {
+ *         for (int i=c.getLineStart(); i<c.getLineEnd(); i++) {
+ *             sum += data[i] &amp; 0xffff;
+ *         }
+ *     }
+ * </pre>
+ * Neighbours are at offsets of +/-1, +/-getRowStride() and
+ * +/-getSliceStride(). Use VoxelSpan.inset() to keep them in the volume.
+ *
+ * @author jsnell
+ */
+public abstract class VoxelCursor {
+    
+    protected final VoxelSpan span;
+    protected final int rowStride;
+    protected final int sliceStride;
+    
+    private final int x0, x1, y0, y1, z0, z1;
+    
+    protected int offset;
+    private int y, z;
+    private int lineStart;
+    private int lineEnd;
+    
+    protected VoxelCursor(VoxelSpan span) {
+        this.span = span;
+        rowStride = span.getRowStride();
+        sliceStride = span.getSliceStride();
+        
+        x0 = span.getX0();
+        x1 = span.getX1();
+        y0 = span.getY0();
+        y1 = span.getY1();
+        z0 = span.getZ0();
+        z1 = span.getZ1();
+        
+        reset();
+    }
+    
+    /** Moves back to before the first voxel. */
+    public final void reset() {
+        // before the start of a zero length row ahead of the first one
+        y = y0 - 1;
+        z = span.isEmpty() ? z1 : z0;
+        offset = lineStart = lineEnd = 0;
+    }
+    
+    /** Steps to the next voxel, false when there are no more. */
+    public final boolean next() {
+        if (++offset < lineEnd) {
+            return true;
+        }
+        return nextLine();
+    }
+    
+    /** Steps to the first voxel of the next row, false when there are no
+     * more. The row runs from getLineStart() to getLineEnd().
+     */
+    public final boolean nextLine() {
+        if (z >= z1) {
+            return false;
+        }
+        if (++y >= y1) {
+            y = y0;
+            if (++z >= z1) {
+                offset = lineStart = lineEnd = 0;
+                return false;
+            }
+        }
+        offset = lineStart = span.offset(x0, y, z);
+        lineEnd = lineStart + (x1 - x0);
+        return true;
+    }
+    
+    public final int getX() { return x0 + offset - lineStart; }
+    public final int getY() { return y; }
+    public final int getZ() { return z; }
+    
+    /** Array offset of the voxel under the cursor. */
+    public final int getOffset() { return offset; }
+    
+    /** Array offset of the first voxel of the current row. */
+    public final int getLineStart() { return lineStart; }
+    
+    /** Array offset just past the last voxel of the current row. */
+    public final int getLineEnd() { return lineEnd; }
+    
+    public final int getRowStride() { return rowStride; }
+    public final int getSliceStride() { return sliceStride; }
+    
+    public final VoxelSpan getSpan() { return span; }
+    
+    protected static Buffer buffer(ImageVolume image, int channel, Class<? extends Buffer> type) {
+        Buffer buffer = image.getVoxelBuffer(channel);
+        if (!type.isInstance(buffer)) {
+            throw new IllegalArgumentException("Channel " + channel + " is not " + type.getSimpleName().replace("Buffer", "").toLowerCase() + " voxels");
+        }
+        return buffer;
+    }
+}
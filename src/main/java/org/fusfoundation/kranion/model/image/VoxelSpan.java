@@ -0,0 +1,161 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion.model.image;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A box of voxels, [x0,x1) x [y0,y1) x [z0,z1) of one time frame, in a
+ * volume of a given size. Spans are immutable: crop(), inset() and
+ * frame() return new spans, and split() cuts a span into slabs that can
+ * be handed to separate threads. The strides are those of the whole
+ * volume so a cursor over the span can reach neighbours outside it.
+ *
+ * @author jsnell
+ */
+public final class VoxelSpan {
+    
+    private final int width, height, depth, frames;
+    private final int x0, y0, z0, x1, y1, z1;
+    private final int frame;
+    
+    /** The whole of the first time frame of image. */
+    public VoxelSpan(ImageVolume image) {
+        this(image.getDimension(0).getSize(), image.getDimension(1).getSize(), image.getDimension(2).getSize(),
+                image.getDimensionality() > 3 ? image.getDimension(3).getSize() : 1);
+    }
+    
+    /** The whole of the first time frame of a width x height x depth x frames volume. */
+    public VoxelSpan(int width, int height, int depth, int frames) {
+        this(width, height, depth, frames, 0, 0, 0, width, height, depth, 0);
+    }
+    
+    private VoxelSpan(int width, int height, int depth, int frames, int x0, int y0, int z0, int x1, int y1, int z1, int frame) {
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        this.frames = frames;
+        this.x0 = x0;
+        this.y0 = y0;
+        this.z0 = z0;
+        this.x1 = Math.max(x0, x1);
+        this.y1 = Math.max(y0, y1);
+        this.z1 = Math.max(z0, z1);
+        this.frame = frame;
+    }
+    
+    /** The part of this span inside [x0,x1) x [y0,y1) x [z0,z1). */
+    public VoxelSpan crop(int x0, int y0, int z0, int x1, int y1, int z1) {
+        return new VoxelSpan(width, height, depth, frames,
+                Math.max(this.x0, x0), Math.max(this.y0, y0), Math.max(this.z0, z0),
+                Math.min(this.x1, x1), Math.min(this.y1, y1), Math.min(this.z1, z1), frame);
+    }
+    
+    /** This span less margin voxels on every side of the volume, so that
+     * neighbours within margin of any voxel in it are inside the volume.
+     * Dimensions one voxel thick are left alone.
+     */
+    public VoxelSpan inset(int margin) {
+        int mz = depth > 1 ? margin : 0;
+        int my = height > 1 ? margin : 0;
+        int mx = width > 1 ? margin : 0;
+        return crop(mx, my, mz, width - mx, height - my, depth - mz);
+    }
+    
+    /** The same box in time frame t. */
+    public VoxelSpan frame(int t) {
+        if (t < 0 || t >= frames) {
+            throw new IndexOutOfBoundsException("Frame " + t + " of " + frames);
+        }
+        return new VoxelSpan(width, height, depth, frames, x0, y0, z0, x1, y1, z1, t);
+    }
+    
+    /** Cuts this span into at most parts slabs of whole slices, or of whole
+     * rows if there are fewer slices than parts. Empty slabs are left out.
+     */
+    public List<VoxelSpan> split(int parts) {
+        List<VoxelSpan> result = new ArrayList<>(parts);
+        if (isEmpty()) {
+            return result;
+        }
+        
+        if (z1 - z0 >= parts || z1 - z0 >= y1 - y0) {
+            int n = Math.min(parts, z1 - z0);
+            for (int i=0; i<n; i++) {
+                result.add(new VoxelSpan(width, height, depth, frames, x0, y0, z0 + (z1-z0)*i/n, x1, y1, z0 + (z1-z0)*(i+1)/n, frame));
+            }
+        }
+        else {
+            // thin in z, slabs of rows in every slice
+            int n = Math.min(parts, y1 - y0);
+            for (int i=0; i<n; i++) {
+                result.add(new VoxelSpan(width, height, depth, frames, x0, y0 + (y1-y0)*i/n, z0, x1, y0 + (y1-y0)*(i+1)/n, z1, frame));
+            }
+        }
+        return result;
+    }
+    
+    public int getX0() { return x0; }
+    public int getY0() { return y0; }
+    public int getZ0() { return z0; }
+    public int getX1() { return x1; }
+    public int getY1() { return y1; }
+    public int getZ1() { return z1; }
+    public int getFrame() { return frame; }
+    
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getDepth() { return depth; }
+    public int getFrameCount() { return frames; }
+    
+    /** Array distance between neighbours in y. */
+    public int getRowStride() { return width; }
+    /** Array distance between neighbours in z. */
+    public int getSliceStride() { return width * height; }
+    /** Array distance between the same voxel in consecutive time frames. */
+    public int getFrameStride() { return width * height * depth; }
+    
+    public int getVoxelCount() {
+        return (x1 - x0) * (y1 - y0) * (z1 - z0);
+    }
+    
+    public boolean isEmpty() {
+        return x1 == x0 || y1 == y0 || z1 == z0;
+    }
+    
+    public boolean contains(int x, int y, int z) {
+        return x >= x0 && x < x1 && y >= y0 && y < y1 && z >= z0 && z < z1;
+    }
+    
+    /** Array offset of voxel (x, y, z) of this span's frame. */
+    public int offset(int x, int y, int z) {
+        return x + y * width + z * width * height + frame * width * height * depth;
+    }
+    
+    @Override
+    public String toString() {
+        return "VoxelSpan[" + x0 + "-" + x1 + ", " + y0 + "-" + y1 + ", " + z0 + "-" + z1 + ", t " + frame + "]";
+    }
+}
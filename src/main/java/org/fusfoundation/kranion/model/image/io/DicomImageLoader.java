@@ -28,6 +28,7 @@ import org.fusfoundation.dicom.part10.DicomFileReader;
 import org.fusfoundation.dicom.DicomObject;
 import org.fusfoundation.dicom.DicomException;
 import org.fusfoundation.dicom.DicomObjectReader;
+import org.fusfoundation.dicom.PixelDataHandle;
 import org.fusfoundation.dicom.VR;
 import com.pixelmed.codec.jpeg.OutputArrayOrStream;
 import com.pixelmed.codec.jpeg.Parse;
@@ -35,10 +36,26 @@ import java.io.*;
 import java.util.*;
 import org.fusfoundation.kranion.model.image.*;
 import org.fusfoundation.dicom.util.ljpeg.LJPEGDecoder;
+import org.fusfoundation.dicom.util.ljpeg.LosslessJpegDecoder;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.fusfoundation.dicom.DicomDate;
@@ -60,30 +77,54 @@ public class DicomImageLoader implements ImageLoader {
     }
     
     private DicomObject openDicomFile(File file, boolean bReadPixelData) {
-        DicomObjectReader dor = null;
-        DicomObject obj = null;
+        return openDicomFile(file, bReadPixelData, false);
+    }
+    
+    // With bDeferPixelData the PixelData VR holds a PixelDataHandle and the
+    // pixel bytes are only read from the file when the VR's value is requested.
+    // Returns null for files that aren't DICOM, I/O failures are logged.
+    private DicomObject openDicomFile(File file, boolean bReadPixelData, boolean bDeferPixelData) {
+        try {
+            return readDicomFile(file, bReadPixelData, bDeferPixelData);
+        } catch (FileNotFoundException e) {
+            Logger.getGlobal().log(Level.WARNING, "Can't open " + file + ": " + e.getMessage());
+            return null;
+        } catch (IOException e) {
+            Logger.getGlobal().log(Level.WARNING, "Error reading " + file, e);
+            return null;
+        } catch (Exception e) {
+            Logger.getGlobal().log(Level.WARNING, "Unexpected error reading " + file, e);
+            return null;
+        }
+    }
+    
+    // As openDicomFile(), but I/O failures are thrown so callers can tell
+    // them from files that aren't DICOM, for which null is returned
+    private DicomObject readDicomFile(File file, boolean bReadPixelData, boolean bDeferPixelData) throws IOException {
+        DicomFileReader dicomFileReader = null;
         try {
-            DicomFileReader dicomFileReader = new DicomFileReader(file);
+            dicomFileReader = new DicomFileReader(file, true); // windowed buffer
             dicomFileReader.setReadPixelData(bReadPixelData);
-            dor = new DicomObjectReader(dicomFileReader);
-            obj = dor.read();
+            dicomFileReader.setDeferPixelData(bDeferPixelData);
+            DicomObjectReader dor = new DicomObjectReader(dicomFileReader);
+            DicomObject obj = dor.read();
             
             // Add the transfer syntax
             VR vr = dicomFileReader.getMetaInfo().getVR("TransferSyntaxUID");
             if (vr != null) {
                 obj.addVR(vr);
             }
-        } catch (FileNotFoundException e) {
-            return null;
-        } catch (IOException e) {
-            return null;
+            return obj;
         } catch (DicomException e) {
             return null;
-        } catch (Exception e) {
-            return null;
+        } finally {
+            if (dicomFileReader != null) {
+                try {
+                    dicomFileReader.close();
+                }
+                catch (IOException e) {}
+            }
         }
-
-        return obj;
     }
     
     float[] getImageOrientationPatient(DicomObject obj) {
@@ -155,42 +196,68 @@ public class DicomImageLoader implements ImageLoader {
         return result;
     }
     
-    private void parseDicomFile(File file, Map<String, seriesDescriptor> seriesMap) {
-        if (file.isFile()) {
-            DicomObject selectedDicomObj = openDicomFile(file, false);
-            if (selectedDicomObj != null) {
-                String seriesUID;
-                seriesUID = safeGetVRStringValue(selectedDicomObj, "SeriesInstanceUID");
-
-                if (seriesUID != null && seriesUID.length() > 0) {
-                    seriesDescriptor descriptor = seriesMap.get(seriesUID);
-                    if (descriptor == null) {
-                        descriptor = new seriesDescriptor();
-                        seriesMap.put(seriesUID, descriptor);
-                    }
-
-                    Float sliceLocation = null;
-                    try {
-                        sliceLocation = new Float(selectedDicomObj.getVR("SliceLocation").getFloatValue());
-                    } catch (Exception e) {
-                        sliceLocation = new Float(Float.NaN);
-                    }
+    // Reads the series fields of one file for the directory index. Returns
+    // null if the file couldn't be read, so that a transient failure isn't
+    // cached as a file without a series.
+    private DicomSeriesIndex.Entry parseDicomFile(File file, long size, long lastModified) {
+        DicomSeriesIndex.Entry entry = new DicomSeriesIndex.Entry();
+        entry.name = file.getName();
+        entry.size = size;
+        entry.lastModified = lastModified;
+        
+        DicomObject selectedDicomObj;
+        try {
+            selectedDicomObj = readDicomFile(file, false, false);
+        }
+        catch (IOException e) {
+            Logger.getGlobal().log(Level.WARNING, "Scanning " + file + " failed: " + e);
+            return null;
+        }
+        catch (RuntimeException e) {
+            selectedDicomObj = null; // unparsable, not DICOM
+        }
+        
+        if (selectedDicomObj != null) {
+            String seriesUID = safeGetVRStringValue(selectedDicomObj, "SeriesInstanceUID");
 
-                    descriptor.sliceFiles.add(file);
-                    descriptor.sliceLocations.add(sliceLocation);
-                    descriptor.seriesUID = seriesUID;
-                    descriptor.modality = safeGetVRStringValue(selectedDicomObj, "Modality");
-                    descriptor.protocolName = safeGetVRStringValue(selectedDicomObj, "ProtocolName");
-                    descriptor.patientName = safeGetVRStringValue(selectedDicomObj, "PatientName");
-                    descriptor.acquisitionDate = safeGetVRStringValue(selectedDicomObj, "AcquisitionDate");
-                    descriptor.seriesDescription = safeGetVRStringValue(selectedDicomObj, "SeriesDescription");
-                    String filterName = safeGetVRStringValue(selectedDicomObj, "ConvolutionKernel");
-                    if (filterName != null) {
-                        descriptor.seriesDescription = descriptor.seriesDescription + " - " + filterName;
-                    }
+            if (seriesUID != null && seriesUID.length() > 0) {
+                entry.hasSeries = true;
+                entry.seriesUID = seriesUID;
+                try {
+                    entry.sliceLocation = selectedDicomObj.getVR("SliceLocation").getFloatValue();
+                } catch (Exception e) {
+                    entry.sliceLocation = Float.NaN;
+                }
+                entry.modality = safeGetVRStringValue(selectedDicomObj, "Modality");
+                entry.protocolName = safeGetVRStringValue(selectedDicomObj, "ProtocolName");
+                entry.patientName = safeGetVRStringValue(selectedDicomObj, "PatientName");
+                entry.acquisitionDate = safeGetVRStringValue(selectedDicomObj, "AcquisitionDate");
+                entry.seriesDescription = safeGetVRStringValue(selectedDicomObj, "SeriesDescription");
+                String filterName = safeGetVRStringValue(selectedDicomObj, "ConvolutionKernel");
+                if (filterName != null) {
+                    entry.seriesDescription = entry.seriesDescription + " - " + filterName;
                 }
             }
         }
+        
+        return entry;
+    }
+    
+    private void addToSeriesMap(File file, DicomSeriesIndex.Entry entry, Map<String, seriesDescriptor> seriesMap) {
+        seriesDescriptor descriptor = seriesMap.get(entry.seriesUID);
+        if (descriptor == null) {
+            descriptor = new seriesDescriptor();
+            seriesMap.put(entry.seriesUID, descriptor);
+        }
+
+        descriptor.sliceFiles.add(file);
+        descriptor.sliceLocations.add(entry.sliceLocation);
+        descriptor.seriesUID = entry.seriesUID;
+        descriptor.modality = entry.modality;
+        descriptor.protocolName = entry.protocolName;
+        descriptor.patientName = entry.patientName;
+        descriptor.acquisitionDate = entry.acquisitionDate;
+        descriptor.seriesDescription = entry.seriesDescription;
     }
     
     private void parseDicomDir(File file, Map<String, seriesDescriptor> seriesMap, ProgressListener listener) {
@@ -312,77 +379,196 @@ public class DicomImageLoader implements ImageLoader {
         }
     }
     
-    public Map<String, seriesDescriptor> scanDirectoryForSeries(File file, ProgressListener listener) {
-                File parentDir = new File(file.getParent());
-                File[] listOfFiles;
-                Map<String, seriesDescriptor> seriesMap = new HashMap<>();
+    // A file of the scanned tree that belongs to a series
+    private static class ScannedFile {
+        final File file;
+        final DicomSeriesIndex.Entry entry;
+        
+        ScannedFile(File file, DicomSeriesIndex.Entry entry) {
+            this.file = file;
+            this.entry = entry;
+        }
+    }
+    
+    // Scans one directory, using and updating its DicomSeriesIndex, and forks
+    // a task for each subdirectory. The result keeps the directory listing
+    // order, the directory's own files first and then those of each subdirectory.
+    private class DirectoryScanTask extends RecursiveTask<List<ScannedFile>> {
+        private static final long serialVersionUID = 2718409353266112064L;
+        
+        private final File directory;
+        private final AtomicInteger filesFound;
+        private final AtomicInteger filesDone;
+        
+        DirectoryScanTask(File directory, AtomicInteger filesFound, AtomicInteger filesDone) {
+            this.directory = directory;
+            this.filesFound = filesFound;
+            this.filesDone = filesDone;
+        }
+        
+        @Override
+        protected List<ScannedFile> compute() {
+            List<ScannedFile> result = new ArrayList<>();
+            
+            File[] listOfFiles = directory.listFiles();
+            if (listOfFiles == null) {
+                return result;
+            }
+            
+            List<File> files = new ArrayList<>(listOfFiles.length);
+            List<BasicFileAttributes> fileAttrs = new ArrayList<>(listOfFiles.length);
+            List<DirectoryScanTask> subdirTasks = new ArrayList<>();
+            for (File theFile : listOfFiles) {
+                BasicFileAttributes attrs;
+                try {
+                    attrs = Files.readAttributes(theFile.toPath(), BasicFileAttributes.class);
+                }
+                catch(IOException e) {
+                    continue;
+                }
                 
-                if (file.isDirectory()) {
-//                    System.out.println("Scanning directory: " + file.getPath());
-                    listOfFiles = file.listFiles();
+                if (attrs.isRegularFile()) {
+                    files.add(theFile);
+                    fileAttrs.add(attrs);
                 }
-                else if (file.getName().equalsIgnoreCase("DICOMDIR")) {
-                    parseDicomDir(file, seriesMap, listener);
-                    return seriesMap;
+                // recurse into subdirectories. not sure this is a good idea or not
+                else if (attrs.isDirectory()) {
+                    DirectoryScanTask subdirTask = new DirectoryScanTask(theFile, filesFound, filesDone);
+                    subdirTask.fork();
+                    subdirTasks.add(subdirTask);
+                }
+            }
+            
+            filesFound.addAndGet(files.size());
+            
+            // Only parse the files the index doesn't already know about
+            DicomSeriesIndex index = new DicomSeriesIndex(directory);
+            DicomSeriesIndex.Entry[] entries = new DicomSeriesIndex.Entry[files.size()];
+            int[] toParse = new int[files.size()];
+            int parseCount = 0;
+            Set<String> names = new HashSet<>();
+            for (int i=0; i<files.size(); i++) {
+                BasicFileAttributes attrs = fileAttrs.get(i);
+                String name = files.get(i).getName();
+                names.add(name);
+                entries[i] = index.lookup(name, attrs.size(), attrs.lastModifiedTime().toMillis());
+                if (entries[i] == null) {
+                    toParse[parseCount++] = i;
                 }
                 else {
-                    //listOfFiles = parentDir.listFiles();
-                    return seriesMap;
+                    filesDone.incrementAndGet();
                 }
-
-                for (int i = 0; i < listOfFiles.length; i++) {
-                    File theFile = listOfFiles[i];
-                    
-                    if (theFile.isFile()) {
-                      parseDicomFile(theFile, seriesMap);
+            }
+            
+            if (parseCount > 0) {
+                new ParseFilesAction(files, fileAttrs, entries, toParse, 0, parseCount).invoke();
+                for (int i=0; i<parseCount; i++) {
+                    if (entries[toParse[i]] != null) {
+                        index.put(entries[toParse[i]]);
                     }
-//                    if (theFile.isFile()) {
-//                        DicomObject selectedDicomObj = openDicomFile(listOfFiles[i], false);
-//                        if (selectedDicomObj != null) {
-//                            String seriesUID;
-//                            seriesUID = safeGetVRStringValue(selectedDicomObj, "SeriesInstanceUID");
-//
-//                            if (seriesUID != null) {
-//                                seriesDescriptor descriptor = seriesMap.get(seriesUID);
-//                                if (descriptor == null) {
-//                                    descriptor = new seriesDescriptor();
-//                                    seriesMap.put(seriesUID, descriptor);
-//                                }
-//
-//                                Float sliceLocation = null;
-//                                try {
-//                                    sliceLocation = new Float(selectedDicomObj.getVR("SliceLocation").getFloatValue());
-//                                } catch (Exception e) {
-//                                }
-//
-//                                descriptor.sliceFiles.add(theFile);
-//                                descriptor.sliceLocations.add(sliceLocation);
-//                                descriptor.seriesUID = seriesUID;
-//                                descriptor.modality = safeGetVRStringValue(selectedDicomObj, "Modality");
-//                                descriptor.protocolName = safeGetVRStringValue(selectedDicomObj, "ProtocolName");
-//                                descriptor.patientName = safeGetVRStringValue(selectedDicomObj, "PatientName");
-//                                descriptor.acquisitionDate = safeGetVRStringValue(selectedDicomObj, "AcquisitionDate");
-//                                descriptor.seriesDescription = safeGetVRStringValue(selectedDicomObj, "SeriesDescription");
-//                                String filterName = safeGetVRStringValue(selectedDicomObj, "ConvolutionKernel");
-//                                if (filterName != null) {
-//                                    descriptor.seriesDescription = descriptor.seriesDescription + " - " + filterName;
-//                                }
-//                            }
-//
-//                        }
-//                    }
-                    // recurse into subdirectories. not sure this is a good idea or not
-                    else if (theFile.isDirectory()) {
-//                        System.out.println("   Scanning subdir: " + theFile.getPath());
-                        Map<String, seriesDescriptor> subdirMap = this.scanDirectoryForSeries(theFile, listener);
-                        seriesMap.putAll(subdirMap);
+                }
+            }
+            index.retain(names);
+            index.save();
+            
+            for (int i=0; i<files.size(); i++) {
+                if (entries[i] != null && entries[i].hasSeries) {
+                    result.add(new ScannedFile(files.get(i), entries[i]));
+                }
+            }
+            
+            for (DirectoryScanTask subdirTask : subdirTasks) {
+                result.addAll(subdirTask.join());
+            }
+            
+            return result;
+        }
+        
+        // Parses a range of the uncached files, splitting it across the pool
+        private class ParseFilesAction extends RecursiveAction {
+            private static final long serialVersionUID = -6029911467104551309L;
+            private static final int FILES_PER_TASK = 16;
+            
+            private final List<File> files;
+            private final List<BasicFileAttributes> fileAttrs;
+            private final DicomSeriesIndex.Entry[] entries;
+            private final int[] toParse;
+            private final int from, to;
+            
+            ParseFilesAction(List<File> files, List<BasicFileAttributes> fileAttrs, DicomSeriesIndex.Entry[] entries, int[] toParse, int from, int to) {
+                this.files = files;
+                this.fileAttrs = fileAttrs;
+                this.entries = entries;
+                this.toParse = toParse;
+                this.from = from;
+                this.to = to;
+            }
+            
+            @Override
+            protected void compute() {
+                if (to - from > FILES_PER_TASK) {
+                    int mid = (from + to) >>> 1;
+                    invokeAll(new ParseFilesAction(files, fileAttrs, entries, toParse, from, mid),
+                              new ParseFilesAction(files, fileAttrs, entries, toParse, mid, to));
+                    return;
+                }
+                
+                for (int i=from; i<to; i++) {
+                    int n = toParse[i];
+                    BasicFileAttributes attrs = fileAttrs.get(n);
+                    entries[n] = parseDicomFile(files.get(n), attrs.size(), attrs.lastModifiedTime().toMillis());
+                    filesDone.incrementAndGet();
+                }
+            }
+        }
+    }
+    
+    // Finds the series in a directory tree or a DICOMDIR. Directory trees are
+    // scanned in parallel and the fields of each file are kept in a per-directory
+    // index (see DicomSeriesIndex), so rescanning only opens new or changed files.
+    public Map<String, seriesDescriptor> scanDirectoryForSeries(File file, ProgressListener listener) {
+                Map<String, seriesDescriptor> seriesMap = new HashMap<>();
+                
+                if (!file.isDirectory()) {
+                    if (file.getName().equalsIgnoreCase("DICOMDIR")) {
+                        parseDicomDir(file, seriesMap, listener);
                     }
+                    return seriesMap;
+                }
+
+                DicomSeriesIndex.pruneOnce();
+                
+                AtomicInteger filesFound = new AtomicInteger();
+                AtomicInteger filesDone = new AtomicInteger();
+                List<ScannedFile> scannedFiles = Collections.emptyList();
+                
+                ForkJoinPool pool = new ForkJoinPool(loaderThreadCount());
+                try {
+                    ForkJoinTask<List<ScannedFile>> scan = pool.submit(new DirectoryScanTask(file, filesFound, filesDone));
                     
-                    if (listener != null) {
-                        //System.out.println("scanning " + i + " of " + listOfFiles.length);
-                        listener.percentDone("Scanning for dicom series", (int)Math.round((double)(i+1)/(listOfFiles.length)*100.0));
+                    // Progress is reported from the calling thread only
+                    while (true) {
+                        try {
+                            scannedFiles = scan.get(100, TimeUnit.MILLISECONDS);
+                            break;
+                        }
+                        catch(TimeoutException e) {
+                            int found = filesFound.get();
+                            if (listener != null && found > 0) {
+                                listener.percentDone("Scanning for dicom series", (int)Math.round((double)filesDone.get()/found*100.0));
+                            }
+                        }
                     }
-                    
+                }
+                catch(InterruptedException | ExecutionException e) {
+                    Logger.getGlobal().log(Level.WARNING, "Scanning " + file + " for DICOM series failed", e);
+                }
+                finally {
+                    pool.shutdownNow();
+                }
+                
+                for (ScannedFile scanned : scannedFiles) {
+                    addToSeriesMap(scanned.file, scanned.entry, seriesMap);
                 }
                 
                 if (listener != null) {
@@ -393,554 +579,678 @@ public class DicomImageLoader implements ImageLoader {
         
     }
     
-    // load a dicom series from a list of files, sort them by slice position
-    public ImageVolume load(List<File> listOfFiles, ProgressListener listener) {
-        ImageVolume image = null;
-
-        if (listener != null) {
-            listener.percentDone("Scanning dicom headers", 0);
+    // Header of one slice file, kept from the header pass for the pixel pass
+    private static class SliceHeader {
+        File file;
+        DicomObject obj; // PixelData is deferred
+        float position; // ImagePositionPatient along the slice normal
+    }
+    
+    private static int loaderThreadCount() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors());
+    }
+    
+    // Parses the header of one file of the series. Returns null if the file
+    // isn't a DICOM slice of the selected series with a position.
+    private SliceHeader readSliceHeader(File sliceFile, String selectedSeriesUID, float[] ImageNormal) {
+        if (!sliceFile.isFile()) {
+            return null;
         }
-                
+        
+        // Is it a DICOM file? Try to parse it.
+        DicomObject obj = openDicomFile(sliceFile, true, true); // Keep the header, pixel data is read when decoding
+        if (obj == null) {
+            return null;
+        }
+        
+        // Make sure we include files from the same dicom series
+        if (obj.getVR("SeriesInstanceUID") == null || selectedSeriesUID.compareTo(obj.getVR("SeriesInstanceUID").getStringValue()) != 0) {
+            return null;
+        }
+        
+        // Query slice position in patient coordinate system
+        if (obj.getVR("ImagePositionPatient") == null) {
+            return null;
+        }
+        
+        float[] ImagePositionPatient = getImagePositionPatient(obj);
+        float sliceNormalOffset = 0.0f;
+        for (int index = 0; index < 3; index++) {
+            sliceNormalOffset += ImagePositionPatient[index] * ImageNormal[index];
+        }
+        
+        SliceHeader header = new SliceHeader();
+        header.file = sliceFile;
+        header.obj = obj;
+        header.position = sliceNormalOffset;
+        return header;
+    }
+    
+    // Decodes a JPEG Lossless frame with the table driven decoder, frames it
+    // doesn't support go through the pixelmed codec
+    private short[] decodeLosslessJPEG(byte[] sliceData) throws Exception {
+        try {
+            LosslessJpegDecoder decoder = new LosslessJpegDecoder(sliceData);
+            short[] outData = new short[decoder.getWidth() * decoder.getHeight()];
+            decoder.decode(outData, 0);
+            return outData;
+        }
+        catch(IOException e) {
+            Logger.getGlobal().log(Level.FINE, "Falling back to pixelmed JPEG decoder: " + e.getMessage());
+        }
+        
+        Parse.DecompressedOutput decomOutput = new Parse.DecompressedOutput(null ,ByteOrder.BIG_ENDIAN);
+        Parse.parse(new ByteArrayInputStream(sliceData), null, null, decomOutput);
+        
+        OutputArrayOrStream[] compStreams = decomOutput.getDecompressedOutputPerComponent();
+        
+        return compStreams[0].getShortArray();
+    }
+    
+    // Decode one slice's pixels into voxelData starting at offset
+    void decodeSlice(DicomObject obj, short[] voxelData, int offset, int frameSize, float centerXres, float centerYres) throws Exception {
+        float xres;
+        float yres;
+        
         try {
+            xres = obj.getVR("PixelSpacing").getFloatValue(0);
+            yres = obj.getVR("PixelSpacing").getFloatValue(1);
+        }
+        catch(Exception e) {
+            xres = 0f;
+            yres = 0f;
+        }
+        
+        // sometimes there is one image prepended that has resampling grid graphics and doesn't match resolution
+        boolean sliceMisMatch = (xres != centerXres) || (yres != centerYres);
+        
+        VR pixelData = obj.getVR("PixelData");
+        byte[] sliceData = pixelData.getValueBytes();
+        if (sliceData != null && sliceData.length == 0) {
+            List frames = pixelData.getImageFrames();
+            if (frames != null && frames.size() > 0) {
+                sliceData = (byte[])frames.get(0);
+            }
+        }
+        
+        boolean bLosslessJPEG = false;
+        
+        VR tsVR = obj.getVR("TransferSyntaxUID");
+        if (tsVR != null) {
+            String transferSyntax = tsVR.getStringValue();
+            if (transferSyntax.endsWith(".70")) {
+                bLosslessJPEG = true;
+            }
+        }
+        
+        short[] outData = null;
+        if (bLosslessJPEG && !sliceMisMatch) {
+            outData = decodeLosslessJPEG(sliceData);
+        }
+        
+        int signedPixelRep = 1;
+        try {
+            signedPixelRep = obj.getVR("PixelRepresentation").getIntValue();
+        }
+        catch(Exception e) {}
+        
+        int pixelPaddingValue = Integer.MIN_VALUE;
+        try {
+            pixelPaddingValue = obj.getVR("PixelPaddingValue").getIntValue();
+        }
+        catch(Exception e) {}
+        
+        try {
+            if (sliceMisMatch) {
+                Arrays.fill(voxelData, offset, offset + frameSize, (short)0);
+            }
+            else if (bLosslessJPEG) {
+                System.arraycopy(outData, 0, voxelData, offset, frameSize);
+            }
+            else {
+                copyNativePixels(sliceData, voxelData, offset, frameSize, signedPixelRep, pixelPaddingValue);
+            }
+        } catch (Exception e) {
+            Logger.getGlobal().log(Level.WARNING, "Unexpected dicom loading error", e);
+        }
+        
+        // don't hang on to the pixel bytes once they are in the volume
+        pixelData.releaseValue();
+    }
+    
+    // Native 16 bit pixels, in the big-endian VR value order, into voxelData
+    private static void copyNativePixels(byte[] sliceData, short[] voxelData, int offset, int frameSize, int signedPixelRep, int pixelPaddingValue) {
+        if (frameSize*2 > sliceData.length) {
+            Logger.getGlobal().log(Level.WARNING, "Dicom loader accessing beyond frame array size");
+        }
+        
+        for (int v = 0; v < frameSize; v++) {
+            short rawValue = (short) ((sliceData[v * 2] & 0xff) << 8 | (sliceData[v * 2 + 1] & 0xff));
             
-            DicomObject selectedDicomObj = openDicomFile(listOfFiles.get(0));
-            String selectedSeriesUID = null;
-            float[] ImageNormal; ImageNormal = new float[3];
-            float[] ImageOrientationPatient; ImageOrientationPatient = new float[6];
-            float[] ImagePositionPatient = new float[3];
+            // in the signed case, we don't handle negative pixel values. Typically zero will get rescaled to -1024:Air
+            if (signedPixelRep == 1 && rawValue < 0) {
+                rawValue = 0;
+            }
             
-            float sliceZ=0f;
+            // handle pixel padding value if given for CT
+            if (rawValue == pixelPaddingValue) {
+                rawValue = 0;
+            }
             
-            if (selectedDicomObj != null) {
-                //System.out.println(selectedDicomObj);
-                selectedSeriesUID = selectedDicomObj.getVR("SeriesInstanceUID").getStringValue();
-//                System.out.println("Selected series = " + selectedSeriesUID);
-                
-                
-                ImageOrientationPatient = getImageOrientationPatient(selectedDicomObj);
-
-                ImageNormal[0] = ImageOrientationPatient[1] * ImageOrientationPatient[5] - ImageOrientationPatient[2] * ImageOrientationPatient[4];
-                ImageNormal[1] = ImageOrientationPatient[2] * ImageOrientationPatient[3] - ImageOrientationPatient[0] * ImageOrientationPatient[5];
-                ImageNormal[2] = ImageOrientationPatient[0] * ImageOrientationPatient[4] - ImageOrientationPatient[1] * ImageOrientationPatient[3];
-                
-                ImagePositionPatient = getImagePositionPatient(selectedDicomObj);
-                try {
-                for (int index =0; index < 3; index++) {
-//                    System.out.println("ImagePositionPatient[" + index + "] = " + ImagePositionPatient[index]);
-                    
-                    sliceZ += ImagePositionPatient[index] * ImageNormal[index];
-                }
+            voxelData[offset + v] = rawValue;
+        }
+    }
+    
+    // One frame of a multi-frame object, located with the per-frame functional groups
+    private static class FrameHeader {
+        int frame; // index of the frame in the pixel data
+        float position; // ImagePositionPatient along the slice normal
+    }
+    
+    private static int getNumberOfFrames(DicomObject obj) {
+        try {
+            VR vr = obj.getVR("NumberOfFrames");
+            return vr == null ? 1 : vr.getIntValue();
+        }
+        catch(Exception e) {
+            return 1;
+        }
+    }
+    
+    // First item of a sequence, or null
+    private static DicomObject getSequenceItem(DicomObject obj, String sequenceName) {
+        if (obj == null) {
+            return null;
+        }
+        VR vr = obj.getVR(sequenceName);
+        if (vr == null) {
+            return null;
+        }
+        Iterator items = vr.getSequenceItems();
+        if (items == null || !items.hasNext()) {
+            return null;
+        }
+        return (DicomObject)items.next();
+    }
+    
+    // Attribute of a functional group macro. The per-frame group overrides
+    // the shared one, and the top level dataset is the fallback.
+    private static VR getFunctionalGroupVR(DicomObject perFrame, DicomObject shared, DicomObject obj, String sequenceName, String name) {
+        DicomObject item = getSequenceItem(perFrame, sequenceName);
+        VR vr = item == null ? null : item.getVR(name);
+        if (vr == null) {
+            item = getSequenceItem(shared, sequenceName);
+            vr = item == null ? null : item.getVR(name);
+        }
+        if (vr == null) {
+            vr = obj.getVR(name);
+        }
+        return vr;
+    }
+    
+    // Load an Enhanced CT/MR, or other multi-frame, image. The functional
+    // groups are read once from the header, the pixel data stays in the file.
+    // Frames are then read one at a time and decoded in parallel straight
+    // into their slice of the volume, so only a few frames are in memory
+    // besides the volume itself. Frames at the same position replace earlier
+    // ones, like slice files do in load(List<File>).
+    private ImageVolume loadMultiFrame(File file, DicomObject obj, ProgressListener listener) {
+        ImageVolume image = null;
+        
+        ExecutorService workers = Executors.newFixedThreadPool(loaderThreadCount());
+        
+        try {
+            final int numberOfFrames = getNumberOfFrames(obj);
+            
+            VR pixelData = obj.getVR("PixelData");
+            final PixelDataHandle handle = pixelData == null ? null : pixelData.getPixelDataHandle();
+            if (handle == null) {
+                throw new DicomException("No pixel data found in " + file);
+            }
+            
+            DicomObject shared = getSequenceItem(obj, "SharedFunctionalGroupsSequence");
+            DicomObject[] perFrame = new DicomObject[numberOfFrames];
+            VR perFrameVR = obj.getVR("PerFrameFunctionalGroupsSequence");
+            if (perFrameVR != null && perFrameVR.getSequenceItems() != null) {
+                Iterator items = perFrameVR.getSequenceItems();
+                for (int i=0; i<numberOfFrames && items.hasNext(); i++) {
+                    perFrame[i] = (DicomObject)items.next();
                 }
-                catch(NullPointerException e) {
-                    sliceZ = 0;
+            }
+            
+            float[] ImageOrientationPatient = {1f, 0f, 0f, 0f, 1f, 0f};
+            VR vr = getFunctionalGroupVR(perFrame[0], shared, obj, "PlaneOrientationSequence", "ImageOrientationPatient");
+            if (vr != null && vr.getValueMultiplicity() >= 6) {
+                for (int index = 0; index < 6; index++) {
+                    ImageOrientationPatient[index] = vr.getFloatValue(index);
                 }
-                
-//                System.out.println("slice Z = " + sliceZ);
             }
             
-            if (selectedDicomObj != null && selectedSeriesUID != null) {
+            float[] ImageNormal = new float[3];
+            ImageNormal[0] = ImageOrientationPatient[1] * ImageOrientationPatient[5] - ImageOrientationPatient[2] * ImageOrientationPatient[4];
+            ImageNormal[1] = ImageOrientationPatient[2] * ImageOrientationPatient[3] - ImageOrientationPatient[0] * ImageOrientationPatient[5];
+            ImageNormal[2] = ImageOrientationPatient[0] * ImageOrientationPatient[4] - ImageOrientationPatient[1] * ImageOrientationPatient[3];
             
- 
-                List<Float> slicePositions = new ArrayList<>();
-                List<String> sliceFiles = new ArrayList<>();
-                TreeMap<Float, File> positionsFiles = new TreeMap<>();
-                                
-                Iterator<File> fileIterator = listOfFiles.iterator();
+            float frameThickness = 1f;
+            try {
+                frameThickness = getFunctionalGroupVR(perFrame[0], shared, obj, "PixelMeasuresSequence", "SliceThickness").getFloatValue();
+            }
+            catch(Exception e) {}
+            
+            // Sort the frames by position along the slice normal
+            TreeMap<Float, FrameHeader> positionsFrames = new TreeMap<>();
+            for (int i=0; i<numberOfFrames; i++) {
+                FrameHeader header = new FrameHeader();
+                header.frame = i;
                 
-                int sliceCount=0; // counter
-                while(fileIterator.hasNext()) {
-                    
-                    File sliceFile = fileIterator.next();
-
-                    if (sliceFile.isFile()) {
-//                        System.out.println(sliceFile.getName());
-                    }
-                    else {
-                        continue;
-                    }
-                                    
-                    // Is it a DICOM file? Try to parse it.
-                    DicomObjectReader dor = null;
-                    DicomObject obj = openDicomFile(sliceFile, false); // Don't need to read pixel data in this first loop
-                    if (obj == null) {
-                        continue;
-                    }
-                    
-//                    System.out.println(obj);
-                                        
-//                    float slicePosition = sliceZ;
-//                    try {
-//                        slicePosition = obj.getVR("SliceLocation").getFloatValue();
-//                        System.out.println("Slice position = " + slicePosition);
-//                    }
-//                    catch(Exception e) {
-//                        continue;
-//                    }
-
-//                    try {
-//                        System.out.print(obj.getVR("Modality").getStringValue() + " -- ");
-//                    } catch (Exception e) {}
-//                    try {
-//                        System.out.print(obj.getVR("ProtocolName").getStringValue() + " -- ");
-//                    } catch (Exception e) {}
-//                    try {
-//                        System.out.print(obj.getVR("AcquisitionDate").getDateValue());
-//                    } catch (Exception e) {}
-//                    System.out.println();
-                    
-                    // Make sure we include files from the same dicom series
-                    if (obj.getVR("SeriesInstanceUID") == null || selectedSeriesUID.compareTo(obj.getVR("SeriesInstanceUID").getStringValue()) != 0) {
-                        continue;
-                    }
-                    
-                    
-                    // Slice
-                    // Get/Check image orientation for each slice in the series
-                    try {
-                        ImageOrientationPatient = getImageOrientationPatient(obj);
-//                        for (int index=0; index<6; index++) {
-//                            if (ImageOrientationPatient[index] != obj.getVR("ImageOrientationPatient").getFloatValue(index)) {
-//                                continue;
-//                            }
-//                        }
+                vr = getFunctionalGroupVR(perFrame[i], shared, obj, "PlanePositionSequence", "ImagePositionPatient");
+                if (vr != null && vr.getValueMultiplicity() >= 3) {
+                    for (int index = 0; index < 3; index++) {
+                        header.position += vr.getFloatValue(index) * ImageNormal[index];
                     }
-                    catch(Exception e) {
-                        continue;
-                    }
-                    
-                    // Query slice position in patient coordinate system
-                    //float[] ImagePositionPatient;
-                    ImagePositionPatient = new float[3];
-                    float sliceNormalOffset = 0.0f;
-                    try {
-                        if (obj.getVR("ImagePositionPatient") != null) {
-                            ImagePositionPatient = getImagePositionPatient(obj);
-                            for (int index = 0; index < 3; index++) {
-                                //                            ImagePositionPatient[index] = obj.getVR("ImagePositionPatient").getFloatValue(index);
-                                //                            System.out.println("ImagePositionPatinet[" + index + "] = " + ImagePositionPatient[index]);
-                                //                            
-                                sliceNormalOffset += ImagePositionPatient[index] * ImageNormal[index];
-                            }
-                        }
-//                        else if (obj.getVR("SliceThickness") != null) {
-//                            sliceNormalOffset = (float)obj.getVR("SliceThickness").getFloatValue() * sliceCount;
-//                        }
-                        else {
-                            throw new DicomException("No slice position information found.");
-                        }
-                    }
-                    catch(Exception e) {
-                        continue;
-                    }
-                                         
-                    sliceFiles.add(sliceFile.getPath());
-                                     
-//                    System.out.println("Slice position = " + sliceNormalOffset);
-                    slicePositions.add(new Float(sliceNormalOffset));
-                    
-                    positionsFiles.put(sliceNormalOffset, sliceFile);
-                    
-                    if (listener != null) {
-                        listener.percentDone("Scanning dicom headers", (int)Math.round((double)(sliceCount+1)/(listOfFiles.size())*100.0));
-                    }
-                    
-                    sliceCount++;
                 }
-                
-                
-//                Iterator<String> fileNamesIter = sliceFiles.iterator();
-//                System.out.println("Selected series file names:");
-//                while(fileNamesIter.hasNext()) {
-//                    System.out.println(fileNamesIter.next());
-//                }
-//                System.out.println("/n");
-                
-                Object[] positions = slicePositions.toArray();
-                
-                
-                Set s = positionsFiles.entrySet();
-                
-                // save the pixel dimensions of the central slice.
-                // Any slices in this series that don't match will be zeroed out
-                // Sometimes there is an initial slice with resampling graphics and
-                // we want to filter that out.
-                float centerXres = 0;
-                float centerYres = 0;
-                Object entries[] = s.toArray();
-                if (entries.length>0) {
-                    Map.Entry centerSlice = (Map.Entry)entries[entries.length/2];
-                    File centerFile = (File)centerSlice.getValue();
-                    DicomObject obj = openDicomFile(centerFile, false);
-                    if (obj != null) {
-                        try {
-                            centerXres = obj.getVR("PixelSpacing").getFloatValue(0);
-                            centerYres = obj.getVR("PixelSpacing").getFloatValue(1);
-                        }
-                        catch(Exception e) {
-                            centerXres = 0f;
-                            centerYres = 0f;
-                        }
-                    }
+                else {
+                    header.position = frameThickness * i;
                 }
                 
-                
-                Iterator iter = s.iterator();
-                         
-                float ImagePositionPatientRoot[] = new float[3]; // coord of top left corner of first image plane
-                
-                for (int i=0; iter.hasNext()==true; i++) {                  
-                    
-                    Map.Entry entry = (Map.Entry)iter.next();
-                    
-//                    System.out.println("slice position stored = " + (float)entry.getKey());
-                    
-                    File sliceFile = (File)entry.getValue();
-
-                //// Hack to save series files somewhere in order, GE randomizes them on CD
-//                    System.out.println(sliceFile);
-//                    String destPath = "H:\\CT Data\\image" + i + ".dcm";
-//                    Path src = Paths.get(sliceFile.getPath());
-//                    Path dst = Paths.get(destPath);
-//                    Files.copy(src, dst);
-                    
-                    
-                    DicomObject obj = openDicomFile(sliceFile);
-                    
-//                    if (i==0) {
-//                        System.out.println(obj);
-//                    }
-                    
-                    if (obj == null) {
-                        throw new Exception("Invalid DICOM object.");
-                    }
-                    
-               
-                    if (i==0) {
-//                        System.out.println("ImageVolume init");
-                        
-                        int cols;
-                        int rows;
-                        
-                            cols = obj.getVR("Columns").getIntValue();
-                            rows = obj.getVR("Rows").getIntValue();
-                            
-//                        System.out.println(cols + " x " + rows + " x " + positions.length );
-                            
-//                        try {
-//                            sliceThickness = obj.getVR("SliceThickness").getFloatValue();
-//                        }
-//                        catch (Exception e) {
-//                            sliceThickness = 1.0f;
-//                        }
-                        
-                        
-                        ImagePositionPatientRoot = getImagePositionPatient(obj);
-//                        for (int index=0; index<3; index++) {
-//                            ImagePositionPatientRoot[index] = obj.getVR("ImagePositionPatient").getFloatValue(index);
-//                       }
-                        
-                        
-                        // Put the image volume center at the origin for now
-                        ImagePositionPatientRoot[0] = 0;
-                        ImagePositionPatientRoot[1] = 0;
-                        ImagePositionPatientRoot[2] = 0;
-
-                        image = new ImageVolume4D(ImageVolume.USHORT_VOXEL, cols, rows, positions.length, 1);
-                        
-                        try {
-                            image.setAttribute("PatientName", obj.getVR("PatientName").getValue());
-                            image.setAttribute("PatientID", obj.getVR("PatientID").getValue());
-                            image.setAttribute("PatientBirthDate", obj.getVR("PatientBirthDate").getValue());
-                            image.setAttribute("PatientSex", obj.getVR("PatientSex").getValue());
-                            image.setAttribute("AcquisitionDate", obj.getVR("AcquisitionDate").getValue());
-                            image.setAttribute("AcquisitionTime", obj.getVR("AcquisitionTime").getValue());
-                            image.setAttribute("InstitutionName", obj.getVR("InstitutionName").getValue());
-                        }
-                        catch(Exception e) {} // TODO: fix exception handling here for missing tags
-                        
-                        try {
-                            image.setAttribute("ProtocolName", obj.getVR("ProtocolName").getValue());
-                        }
-                        catch(Exception e) {
-                        }
-
-                        try {
-                            image.setAttribute("ImageOrientation", ImageOrientationPatient);
-                            image.setAttribute("ImagePosition", ImagePositionPatientRoot);
-                            image.setAttribute("ImageTranslation", new Vector3f(ImagePositionPatientRoot[0], ImagePositionPatientRoot[1], ImagePositionPatientRoot[2]));
-                        }
-                        catch(Exception e) {} // TODO: fix exception handling here for missing tags
-                        
-                        try {
-                            VR vr = obj.getVR("WindowWidth");
-                            int multiplicity = vr.getValueMultiplicity();
-                            if (multiplicity > 0) {
-                                image.setAttribute("WindowWidth", vr.getFloatValue(multiplicity-1) * 2);                                
-                            }
-                            else {
-                                image.setAttribute("WindowWidth", vr.getFloatValue() * 2);
-                            }
-
-                            vr = obj.getVR("WindowCenter");
-                            multiplicity = vr.getValueMultiplicity();
-                            if (multiplicity > 0) {
-                                image.setAttribute("WindowCenter", vr.getFloatValue(multiplicity-1) * 2);
-                            }
-                            else {
-                                image.setAttribute("WindowCenter", vr.getFloatValue() * 2);
-                            }
-                        }
-                        catch(Exception e) {} // TODO: fix exception handling here for missing tags
-                        
-                        try {
-                            image.setAttribute("RescaleIntercept", obj.getVR("RescaleIntercept").getFloatValue());
-                            image.setAttribute("RescaleSlope", obj.getVR("RescaleSlope").getFloatValue());
-                        }
-                        catch (Exception e) {
-                            image.setAttribute("RescaleIntercept", 0f);
-                            image.setAttribute("RescaleSlope", 1f);
-                        }
-                        
-//                        System.out.println("ImageVolume init done");
-                    }
-                    
-                    if (i==s.size()/2) {
-//                        try {
-//                            image.setAttribute("WindowWidth", obj.getVR("WindowWidth").getFloatValue());
-//                            image.setAttribute("WindowCenter", obj.getVR("WindowCenter").getFloatValue());
-//                        }
-//                        catch(Exception e) {} // TODO: fix exception handling here for missing tags
-//
-                        float xres;
-                        float yres;
-                        
-                        float sliceThickness;
-                        
-                        try {
-                            xres = obj.getVR("PixelSpacing").getFloatValue(0);
-                            yres = obj.getVR("PixelSpacing").getFloatValue(1);
-                        }
-                        catch(Exception e) {
-                            xres = 1f;
-                            yres = 1f;
-                        }
-                        
-                        Object[] pos = positionsFiles.entrySet().toArray();
-                        if (pos.length > 1) {
-                            int midIndex = pos.length/2-1;
-                            float loc1 = (Float)(((Map.Entry)pos[midIndex+1]).getKey());
-                            float loc0 = (Float)(((Map.Entry)pos[midIndex]).getKey());
-                            sliceThickness = Math.abs(loc1 - loc0);
-                            
-//                            for (int t=0; t<pos.length; t++) {
-//                                System.out.println("Slice pos " + t + " (" + ((File)((Map.Entry)pos[t]).getValue()).getName() + ") = " + (Float)(((Map.Entry)pos[t]).getKey()));
-//                            }
+                positionsFrames.put(header.position, header);
+            }
+            
+            FrameHeader[] frames = positionsFrames.values().toArray(new FrameHeader[0]);
+            Float[] positions = positionsFrames.keySet().toArray(new Float[0]);
+            
+            DicomObject centerFrame = perFrame[frames[frames.length/2].frame];
+            DicomObject firstFrame = perFrame[frames[0].frame];
+            
+            int cols = obj.getVR("Columns").getIntValue();
+            int rows = obj.getVR("Rows").getIntValue();
+            
+            int bitsAllocated = 16;
+            try {
+                bitsAllocated = obj.getVR("BitsAllocated").getIntValue();
+            }
+            catch(Exception e) {}
+            
+            boolean bLosslessJPEG = false;
+            VR tsVR = obj.getVR("TransferSyntaxUID");
+            if (tsVR != null && tsVR.getStringValue().endsWith(".70")) {
+                bLosslessJPEG = true;
+            }
+            
+            if (handle.isEncapsulated() && !bLosslessJPEG) {
+                throw new DicomException("Unsupported multi-frame transfer syntax in " + file);
+            }
+            else if (!handle.isEncapsulated() && bitsAllocated != 16) {
+                throw new DicomException("Unsupported multi-frame BitsAllocated = " + bitsAllocated + " in " + file);
+            }
+            
+            // Put the image volume center at the origin for now
+            float ImagePositionPatientRoot[] = new float[3]; // coord of top left corner of first image plane
+            
+            image = new ImageVolume4D(ImageVolume.USHORT_VOXEL, cols, rows, frames.length, 1);
+            
+            try {
+                image.setAttribute("PatientName", obj.getVR("PatientName").getValue());
+                image.setAttribute("PatientID", obj.getVR("PatientID").getValue());
+                image.setAttribute("PatientBirthDate", obj.getVR("PatientBirthDate").getValue());
+                image.setAttribute("PatientSex", obj.getVR("PatientSex").getValue());
+                image.setAttribute("AcquisitionDate", obj.getVR("AcquisitionDate").getValue());
+                image.setAttribute("AcquisitionTime", obj.getVR("AcquisitionTime").getValue());
+                image.setAttribute("InstitutionName", obj.getVR("InstitutionName").getValue());
+            }
+            catch(Exception e) {} // TODO: fix exception handling here for missing tags
+            
+            try {
+                image.setAttribute("ProtocolName", obj.getVR("ProtocolName").getValue());
+            }
+            catch(Exception e) {
+            }
+            
+            try {
+                image.setAttribute("ImageOrientation", ImageOrientationPatient);
+                image.setAttribute("ImagePosition", ImagePositionPatientRoot);
+                image.setAttribute("ImageTranslation", new Vector3f(ImagePositionPatientRoot[0], ImagePositionPatientRoot[1], ImagePositionPatientRoot[2]));
+            }
+            catch(Exception e) {} // TODO: fix exception handling here for missing tags
+            
+            try {
+                vr = getFunctionalGroupVR(firstFrame, shared, obj, "FrameVOILUTSequence", "WindowWidth");
+                image.setAttribute("WindowWidth", vr.getFloatValue(Math.max(0, vr.getValueMultiplicity()-1)) * 2);
+                
+                vr = getFunctionalGroupVR(firstFrame, shared, obj, "FrameVOILUTSequence", "WindowCenter");
+                image.setAttribute("WindowCenter", vr.getFloatValue(Math.max(0, vr.getValueMultiplicity()-1)) * 2);
+            }
+            catch(Exception e) {} // TODO: fix exception handling here for missing tags
+            
+            try {
+                image.setAttribute("RescaleIntercept", getFunctionalGroupVR(firstFrame, shared, obj, "PixelValueTransformationSequence", "RescaleIntercept").getFloatValue());
+                image.setAttribute("RescaleSlope", getFunctionalGroupVR(firstFrame, shared, obj, "PixelValueTransformationSequence", "RescaleSlope").getFloatValue());
+            }
+            catch (Exception e) {
+                image.setAttribute("RescaleIntercept", 0f);
+                image.setAttribute("RescaleSlope", 1f);
+            }
+            
+            // Voxel size from the central frame
+            float xres;
+            float yres;
+            
+            try {
+                vr = getFunctionalGroupVR(centerFrame, shared, obj, "PixelMeasuresSequence", "PixelSpacing");
+                xres = vr.getFloatValue(0);
+                yres = vr.getFloatValue(1);
+            }
+            catch(Exception e) {
+                xres = 1f;
+                yres = 1f;
+            }
+            
+            float zres;
+            if (positions.length > 1) {
+                int midIndex = positions.length/2-1;
+                zres = Math.abs(positions[midIndex+1] - positions[midIndex]);
+            }
+            else {
+                zres = frameThickness;
+            }
+            
+            image.getDimension(0).setSampleSpacing(xres);
+            image.getDimension(1).setSampleSpacing(yres);
+            image.getDimension(2).setSampleSpacing(zres);
+            
+            image.getDimension(0).setSampleWidth(xres);
+            image.getDimension(1).setSampleWidth(yres);
+            image.getDimension(2).setSampleWidth(zres);
+            
+            int signedPixelRep = 1;
+            try {
+                signedPixelRep = obj.getVR("PixelRepresentation").getIntValue();
+            }
+            catch(Exception e) {}
+            
+            int pixelPaddingValue = Integer.MIN_VALUE;
+            try {
+                pixelPaddingValue = obj.getVR("PixelPaddingValue").getIntValue();
+            }
+            catch(Exception e) {}
+            
+            // Pixel pass, frames are stored in reverse position order. The
+            // number of frames read but not yet decoded is bounded so memory
+            // use doesn't grow with the number of frames.
+            final short[] voxelData = (short[])image.getData();
+            final int frameSize = cols * rows;
+            final boolean lossless = bLosslessJPEG;
+            final int signedRep = signedPixelRep;
+            final int paddingValue = pixelPaddingValue;
+            final int maxInFlight = 2 * loaderThreadCount();
+            
+            try (FileChannel channel = handle.openChannel()) {
+                CompletionService<Void> frameService = new ExecutorCompletionService<>(workers);
+                int done = 0;
+                for (int i=0; i<frames.length; i++) {
+                    final int frame = frames[i].frame;
+                    final int offset = (frames.length - 1 - i)*frameSize;
+                    frameService.submit(() -> {
+                        byte[] frameData = handle.readFrame(channel, frame, numberOfFrames);
+                        if (lossless) {
+                            System.arraycopy(decodeLosslessJPEG(frameData), 0, voxelData, offset, frameSize);
                         }
                         else {
-                            sliceThickness = obj.getVR("SliceThickness").getFloatValue();
+                            copyNativePixels(frameData, voxelData, offset, frameSize, signedRep, paddingValue);
+                        }
+                        return null;
+                    });
+                    
+                    while (i + 1 - done >= maxInFlight || (i == frames.length - 1 && done < frames.length)) {
+                        frameService.take().get(); // rethrows decode failures
+                        done++;
+                        if (listener != null) {
+                            listener.percentDone("Loading dicom image data", (int)Math.round((double)done/(frames.length)*100.0));
                         }
-                        
-                        float zres = sliceThickness;
-//                        System.out.println(xres + " x " + yres + " x " + zres);
-                        
-                        image.getDimension(0).setSampleSpacing(xres);
-                        image.getDimension(1).setSampleSpacing(yres);
-                        image.getDimension(2).setSampleSpacing(zres);
-                        
-                        image.getDimension(0).setSampleWidth(xres);
-                        image.getDimension(1).setSampleWidth(yres);
-                        image.getDimension(2).setSampleWidth(zres);
                     }
+                }
+            }
+            
+            // the voxels were written in place, drop anything cached from them
+            if (image != null) {
+                image.fireDataChanged(0);
+            }
+            
+            if (listener != null) {
+                listener.percentDone("Ready.", -1);
+            }
+            
+            return image;
+        }
+        catch (Exception e) {
+            e.printStackTrace();
+            if (listener != null) {
+                listener.percentDone("Error loading dicom image series", -1);
+            }
+            return null;
+        }
+        finally {
+            workers.shutdownNow();
+        }
+    }
+    
+    // Patient, acquisition, orientation, window and rescale attributes
+    // of a slice series, taken from one of its slices
+    void setSeriesAttributes(ImageVolume image, DicomObject obj, float[] ImageOrientationPatient, float[] ImagePositionPatientRoot) {
+        try {
+            image.setAttribute("PatientName", obj.getVR("PatientName").getValue());
+            image.setAttribute("PatientID", obj.getVR("PatientID").getValue());
+            image.setAttribute("PatientBirthDate", obj.getVR("PatientBirthDate").getValue());
+            image.setAttribute("PatientSex", obj.getVR("PatientSex").getValue());
+            image.setAttribute("AcquisitionDate", obj.getVR("AcquisitionDate").getValue());
+            image.setAttribute("AcquisitionTime", obj.getVR("AcquisitionTime").getValue());
+            image.setAttribute("InstitutionName", obj.getVR("InstitutionName").getValue());
+        }
+        catch(Exception e) {} // TODO: fix exception handling here for missing tags
                     
-//                    System.out.println("Set DICOM attributes on ImageVolume");
+        try {
+            image.setAttribute("ProtocolName", obj.getVR("ProtocolName").getValue());
+        }
+        catch(Exception e) {
+        }
                     
-//                    float thick = obj.getVR("SliceThickness").getFloatValue();
+        try {
+            image.setAttribute("ImageOrientation", ImageOrientationPatient);
+            image.setAttribute("ImagePosition", ImagePositionPatientRoot);
+            image.setAttribute("ImageTranslation", new Vector3f(ImagePositionPatientRoot[0], ImagePositionPatientRoot[1], ImagePositionPatientRoot[2]));
+        }
+        catch(Exception e) {} // TODO: fix exception handling here for missing tags
                     
-//                    System.out.println("SliceThickness = " + thick);
-                        float xres;
-                        float yres;
-                        
-                        float sliceThickness;
-                        
-                        try {
-                            xres = obj.getVR("PixelSpacing").getFloatValue(0);
-                            yres = obj.getVR("PixelSpacing").getFloatValue(1);
-                        }
-                        catch(Exception e) {
-                            xres = 0f;
-                            yres = 0f;
-                        }
+        try {
+            VR vr = obj.getVR("WindowWidth");
+            int multiplicity = vr.getValueMultiplicity();
+            if (multiplicity > 0) {
+                image.setAttribute("WindowWidth", vr.getFloatValue(multiplicity-1) * 2);
+            }
+            else {
+                image.setAttribute("WindowWidth", vr.getFloatValue() * 2);
+            }
                         
-                        boolean sliceMisMatch = (xres != centerXres) || (yres != centerYres);
+            vr = obj.getVR("WindowCenter");
+            multiplicity = vr.getValueMultiplicity();
+            if (multiplicity > 0) {
+                image.setAttribute("WindowCenter", vr.getFloatValue(multiplicity-1) * 2);
+            }
+            else {
+                image.setAttribute("WindowCenter", vr.getFloatValue() * 2);
+            }
+        }
+        catch(Exception e) {} // TODO: fix exception handling here for missing tags
+                    
+        try {
+            image.setAttribute("RescaleIntercept", obj.getVR("RescaleIntercept").getFloatValue());
+            image.setAttribute("RescaleSlope", obj.getVR("RescaleSlope").getFloatValue());
+        }
+        catch (Exception e) {
+            image.setAttribute("RescaleIntercept", 0f);
+            image.setAttribute("RescaleSlope", 1f);
+        }
+    }
+    
+    // load a dicom series from a list of files, sort them by slice position.
+    // Each file's header is parsed once on a worker pool, keeping the pixel
+    // data deferred. Slices are then sorted by position along the slice normal
+    // and decoded in parallel straight into the volume.
+    public ImageVolume load(List<File> listOfFiles, ProgressListener listener) {
+        ImageVolume image = null;
 
-                    float sliceTime = 0f;
-                    try {
-                        //sliceTime = obj.getVR("TriggerTime").getFloatValue();
-                        sliceTime = obj.getVR("InstanceNumber").getFloatValue() % 40;
+        if (listener != null) {
+            listener.percentDone("Scanning dicom headers", 0);
+        }
+        
+        ExecutorService workers = Executors.newFixedThreadPool(loaderThreadCount());
+                
+        try {
+            
+            DicomObject selectedDicomObj = openDicomFile(listOfFiles.get(0), true, true);
+            String selectedSeriesUID = null;
+            float[] ImageNormal = new float[3];
+            float[] ImageOrientationPatient = new float[6];
+            
+            if (selectedDicomObj != null && getNumberOfFrames(selectedDicomObj) > 1) {
+                return loadMultiFrame(listOfFiles.get(0), selectedDicomObj, listener);
+            }
+            
+            if (selectedDicomObj != null) {
+                selectedSeriesUID = selectedDicomObj.getVR("SeriesInstanceUID").getStringValue();
+                
+                ImageOrientationPatient = getImageOrientationPatient(selectedDicomObj);
+
+                ImageNormal[0] = ImageOrientationPatient[1] * ImageOrientationPatient[5] - ImageOrientationPatient[2] * ImageOrientationPatient[4];
+                ImageNormal[1] = ImageOrientationPatient[2] * ImageOrientationPatient[3] - ImageOrientationPatient[0] * ImageOrientationPatient[5];
+                ImageNormal[2] = ImageOrientationPatient[0] * ImageOrientationPatient[4] - ImageOrientationPatient[1] * ImageOrientationPatient[3];
+            }
+            
+            if (selectedDicomObj != null && selectedSeriesUID != null) {
+                
+                // Header pass
+                final String seriesUID = selectedSeriesUID;
+                final float[] normal = ImageNormal;
+                CompletionService<SliceHeader> headerService = new ExecutorCompletionService<>(workers);
+                List<Future<SliceHeader>> headerFutures = new ArrayList<>(listOfFiles.size());
+                for (File sliceFile : listOfFiles) {
+                    headerFutures.add(headerService.submit(() -> readSliceHeader(sliceFile, seriesUID, normal)));
+                }
+                
+                for (int i=0; i<headerFutures.size(); i++) {
+                    headerService.take();
+                    if (listener != null) {
+                        listener.percentDone("Scanning dicom headers", (int)Math.round((double)(i+1)/(headerFutures.size())*100.0));
                     }
-                    catch (Exception e) {}
-                    
-//                    System.out.println("InstanceNumber = " + sliceTime);
-                    
-                    float slicePosition = 0f;
-                    try {
-                        slicePosition = obj.getVR("SliceLocation").getFloatValue();
+                }
+                
+                // Sort by slice position, in file list order so that
+                // a later file at the same position replaces an earlier one
+                TreeMap<Float, SliceHeader> positionsSlices = new TreeMap<>();
+                for (Future<SliceHeader> f : headerFutures) {
+                    SliceHeader header = f.get();
+                    if (header != null) {
+                        positionsSlices.put(header.position, header);
                     }
-                    catch(Exception e) {}
-                    
-//                    System.out.println("SliceLocation = " + slicePosition);
-                    
-                    float sliceTE = 0f;
+                }
+                
+                SliceHeader[] slices = positionsSlices.values().toArray(new SliceHeader[0]);
+                Float[] positions = positionsSlices.keySet().toArray(new Float[0]);
+                
+                if (slices.length > 0) {
+                    
+                    // save the pixel dimensions of the central slice.
+                    // Any slices in this series that don't match will be zeroed out
+                    // Sometimes there is an initial slice with resampling graphics and
+                    // we want to filter that out.
+                    float centerXres;
+                    float centerYres;
+                    DicomObject centerObj = slices[slices.length/2].obj;
                     try {
-                        VR vr = obj.getVR("EchoTime");
-//                        System.out.println("Got EchoTime VR");
-                        if (vr != null) {
-                            sliceTE = obj.getVR("EchoTime").getFloatValue();
-                        }
+                        centerXres = centerObj.getVR("PixelSpacing").getFloatValue(0);
+                        centerYres = centerObj.getVR("PixelSpacing").getFloatValue(1);
                     }
                     catch(Exception e) {
-                        Logger.getGlobal().log(Level.WARNING, "No EchoTime attr");
+                        centerXres = 0f;
+                        centerYres = 0f;
                     }
                     
-//                    System.out.println("EchoTime = " + sliceTE);                                                                                                  
-                                        
-//                    image.getDimension(2).setSamplePosition(i, (Float)entry.getKey());
-//                    
-//                    float sliceThickness = 0.0f;
-//                    Object[] pos = positionsFiles.entrySet().toArray();
-//                    if (pos.length > 1) {
-//                        int midIndex = pos.length/2;
-//                        float loc1 = (Float)(((Map.Entry)pos[midIndex+1]).getKey());
-//                        float loc0 = (Float)(((Map.Entry)pos[midIndex]).getKey());
-//                        sliceThickness = Math.abs(loc1 - loc0);
-//                    }
-//                    else {
-//                        sliceThickness = obj.getVR("SliceThickness").getFloatValue();
-//                    }
-//                    image.getDimension(2).setSampleWidth(sliceThickness);
-                    
-                    short[] voxelData = (short[])image.getData();
-                    byte[] sliceData = obj.getVR("PixelData").getValueBytes();
-                    if (sliceData != null && sliceData.length == 0) {
-                        List frames = obj.getVR("PixelData").getImageFrames();
-                        if (frames != null && frames.size() > 0) {
-                            sliceData = (byte[])frames.get(0);
-                        }
-                    }
+                    DicomObject obj = slices[0].obj;
                     
-                    boolean bLosslessJPEG = false;
+                    int cols = obj.getVR("Columns").getIntValue();
+                    int rows = obj.getVR("Rows").getIntValue();
                     
-                    VR tsVR = obj.getVR("TransferSyntaxUID");
-                    if (tsVR != null) {
-                        String transferSyntax = tsVR.getStringValue();
-                        if (transferSyntax.endsWith(".70")) {
-                            bLosslessJPEG = true;
-                        }
-                    }
+                    // Put the image volume center at the origin for now
+                    float ImagePositionPatientRoot[] = new float[3]; // coord of top left corner of first image plane
                     
-                    short[] outData = null;
-                    if (bLosslessJPEG) {
-                        Parse.DecompressedOutput decomOutput = new Parse.DecompressedOutput(null ,ByteOrder.BIG_ENDIAN);
-                        Parse.parse(new ByteArrayInputStream(sliceData), null, null, decomOutput);
-
-                        int ncomponents = decomOutput.getDecompressedOutputPerComponent().length;
-
-                        OutputArrayOrStream[] compStreams = decomOutput.getDecompressedOutputPerComponent();
-
-                        outData = compStreams[0].getShortArray();
-                    }
+                    image = new ImageVolume4D(ImageVolume.USHORT_VOXEL, cols, rows, slices.length, 1);
                     
+                    setSeriesAttributes(image, obj, ImageOrientationPatient, ImagePositionPatientRoot);
                     
-//                    LJPEGDecoder decoder = new LJPEGDecoder();
-//                    decoder.setInputStream(new ByteArrayInputStream(sliceData));
-//                    int cols = obj.getVR("Columns").getIntValue();
-//                    int rows = obj.getVR("Rows").getIntValue();
-//                    ByteArrayOutputStream bytesOut = new ByteArrayOutputStream(rows * cols * 2);
-//                    decoder.setOutputStream(bytesOut);
-//                    decoder.decodeImageHeader();
-//                    decoder.decodeImageData();                  
-//                    sliceData = bytesOut.toByteArray();
-
-                    int signedPixelRep = 1;
-                    try {
-                        signedPixelRep = obj.getVR("PixelRepresentation").getIntValue();
-                    }
-                    catch(Exception e) {}
+                    // Voxel size from the central slice
+                    float xres;
+                    float yres;
                     
-                    if (signedPixelRep != 1) {
-//                        throw new Exception("Unsupported PixelRepresentation. Only Signed pixel values supported currently;");                                
-                    }
+                    float sliceThickness;
                     
-                    int pixelPaddingValue = Integer.MIN_VALUE;
                     try {
-                        pixelPaddingValue = obj.getVR("PixelPaddingValue").getIntValue();
+                        xres = centerObj.getVR("PixelSpacing").getFloatValue(0);
+                        yres = centerObj.getVR("PixelSpacing").getFloatValue(1);
+                    }
+                    catch(Exception e) {
+                        xres = 1f;
+                        yres = 1f;
                     }
-                    catch(Exception e) {}
-                    
-                    int frameSize = image.getDimension(0).getSize() * image.getDimension(1).getSize();
-                    int offset = (s.size() - 1 - i)*frameSize;
                     
-                    int min=9999999;
-                    int max=0;
-                    try {
-                    for (int v = 0; v < frameSize; v++) {
-                        if (!sliceMisMatch) {
-                            if (!bLosslessJPEG) {
-                                //            voxelData[offset + v] = (short)((((int)sliceData[v*2] & 0xff) << 8 | ((int)sliceData[v*2 + 1] & 0xff)) & 0xfffL);
-
-                                // handle pixel padding value if given for CT
-                                if (v*2>sliceData.length) {
-                                    Logger.getGlobal().log(Level.WARNING, "Dicom loader accessing beyond frame array size");
-                                }
-                                
-                                short rawValue;
-                                if (signedPixelRep == 1) {
-                                    rawValue = (short) ((sliceData[v * 2] & 0xff) << 8 | (sliceData[v * 2 + 1] & 0xff));
-                                    if (rawValue < 0) {
-                                        rawValue = 0; // in the signed case, we don't handle negative pixel values. Typically zero will get rescaled to -1024:Air
-                                    }
-                                } else {
-                                    rawValue = (short) ((sliceData[v * 2] & 0xff) << 8 | (sliceData[v * 2 + 1] & 0xff));
-                                }
-
-                                if (rawValue == pixelPaddingValue) {
-                                    rawValue = 0;
-                                }
-//                            if (rawValue < 0) rawValue = 0;
-                                voxelData[offset + v] = rawValue;
-                                //int val = v%4096;
-                                //voxelData[offset + v] = (short)(((int)val & 0xff) << 8 | ((int)val & 0xff));
-                                int val = voxelData[offset + v] & 0x0fff;
-                                if (val > max) {
-                                    max = val;
-                                }
-                                if (val < min) {
-                                    min = val;
-                                }
-                            } else {
-                                voxelData[offset + v] = (short) (outData[v]);
-                            }
-                        } else {
-                            voxelData[offset + v] = 0; // sometimes this is one image prepended that has resampling grid graphics and doesn't match resolution
-                        }
+                    if (positions.length > 1) {
+                        int midIndex = positions.length/2-1;
+                        sliceThickness = Math.abs(positions[midIndex+1] - positions[midIndex]);
                     }
-                    } catch (Exception e) {
-                        Logger.getGlobal().log(Level.WARNING, "Unexpected dicom loading error", e);
-//                        e.printStackTrace();
+                    else {
+                        sliceThickness = centerObj.getVR("SliceThickness").getFloatValue();
                     }
                     
-//                    System.out.println("Image min = " + min + " max = " + max);
-                    
-//                    System.out.println("Loaded " + (int)Math.round((double)(i+1)/(positions.length)*100.0));
+                    float zres = sliceThickness;
+                    
+                    image.getDimension(0).setSampleSpacing(xres);
+                    image.getDimension(1).setSampleSpacing(yres);
+                    image.getDimension(2).setSampleSpacing(zres);
+                    
+                    image.getDimension(0).setSampleWidth(xres);
+                    image.getDimension(1).setSampleWidth(yres);
+                    image.getDimension(2).setSampleWidth(zres);
+                    
+                    // Pixel pass, slices are stored in reverse position order
+                    final short[] voxelData = (short[])image.getData();
+                    final int frameSize = image.getDimension(0).getSize() * image.getDimension(1).getSize();
+                    final float cx = centerXres;
+                    final float cy = centerYres;
+                    
+                    CompletionService<Void> sliceService = new ExecutorCompletionService<>(workers);
+                    for (int i=0; i<slices.length; i++) {
+                        final DicomObject sliceObj = slices[i].obj;
+                        final int offset = (slices.length - 1 - i)*frameSize;
+                        sliceService.submit(() -> {
+                            decodeSlice(sliceObj, voxelData, offset, frameSize, cx, cy);
+                            return null;
+                        });
+                        slices[i] = null;
+                    }
                     
-                    if (listener != null) {
-                        listener.percentDone("Loading dicom image data", (int)Math.round((double)(i+1)/(positions.length)*100.0));
+                    for (int i=0; i<positions.length; i++) {
+                        sliceService.take().get(); // rethrows decode failures
+                        if (listener != null) {
+                            listener.percentDone("Loading dicom image data", (int)Math.round((double)(i+1)/(positions.length)*100.0));
+                        }
                     }
-
                 }
-                                                 
              }
             
+            // the voxels were written in place, drop anything cached from them
+            if (image != null) {
+                image.fireDataChanged(0);
+            }
+            
             if (listener != null) {
                 listener.percentDone("Ready.", -1);
             }            
@@ -955,6 +1265,9 @@ public class DicomImageLoader implements ImageLoader {
             image = null;
             return image;
         }
+        finally {
+            workers.shutdownNow();
+        }
     }
     
     public ImageVolume load(File file, ProgressListener listener) {
@@ -966,7 +1279,12 @@ public class DicomImageLoader implements ImageLoader {
         
         try {
             
-            DicomObject selectedDicomObj = openDicomFile(file);
+            DicomObject selectedDicomObj = openDicomFile(file, true, true);
+            
+            if (selectedDicomObj != null && getNumberOfFrames(selectedDicomObj) > 1) {
+                return loadMultiFrame(file, selectedDicomObj, listener);
+            }
+            
             String selectedSeriesUID = null;
             float[] ImageNormal; ImageNormal = new float[3];
             float[] ImageOrientationPatient; ImageOrientationPatient = new float[6];
@@ -1007,6 +1325,7 @@ public class DicomImageLoader implements ImageLoader {
                 List<Float> slicePositions = new ArrayList<>();
                 List<String> sliceFiles = new ArrayList<>();
                 TreeMap<Float, File> positionsFiles = new TreeMap<>();
+                Map<File, DicomObject> sliceHeaders = new HashMap<>(); // parsed headers with deferred pixel data
                                 
                 File parentDir = new File(file.getParent());
                 File[] listOfFiles = parentDir.listFiles();
@@ -1024,7 +1343,7 @@ public class DicomImageLoader implements ImageLoader {
                     
                     // Is it a DICOM file? Try to parse it.
                     DicomObjectReader dor = null;
-                    DicomObject obj = openDicomFile(sliceFile, false); // Don't need to read pixel data in this first loop
+                    DicomObject obj = openDicomFile(sliceFile, true, true); // Keep the header, pixel data is read in the second loop
                     if (obj == null) {
                         continue;
                     }
@@ -1102,6 +1421,7 @@ public class DicomImageLoader implements ImageLoader {
                     slicePositions.add(new Float(sliceNormalOffset));
                     
                     positionsFiles.put(sliceNormalOffset, sliceFile);
+                    sliceHeaders.put(sliceFile, obj);
                     
                     if (listener != null) {
                         listener.percentDone("Scanning dicom headers", (int)Math.round((double)(i+1)/(listOfFiles.length)*100.0));
@@ -1138,7 +1458,7 @@ public class DicomImageLoader implements ImageLoader {
 //                    Files.copy(src, dst);
                     
                     
-                    DicomObject obj = openDicomFile(sliceFile);
+                    DicomObject obj = sliceHeaders.remove(sliceFile); // pixel data is read from the file on first access
                     
 //                    if (i==0) {
 //                        System.out.println(obj);
@@ -1348,14 +1668,7 @@ public class DicomImageLoader implements ImageLoader {
                     
                     short[] outData = null;
                     if (bLosslessJPEG) {
-                        Parse.DecompressedOutput decomOutput = new Parse.DecompressedOutput(null ,ByteOrder.BIG_ENDIAN);
-                        Parse.parse(new ByteArrayInputStream(sliceData), null, null, decomOutput);
-
-                        int ncomponents = decomOutput.getDecompressedOutputPerComponent().length;
-
-                        OutputArrayOrStream[] compStreams = decomOutput.getDecompressedOutputPerComponent();
-
-                        outData = compStreams[0].getShortArray();
+                        outData = decodeLosslessJPEG(sliceData);
                     }
                     
                     
@@ -1436,6 +1749,11 @@ public class DicomImageLoader implements ImageLoader {
                                                  
              }
             
+            // the voxels were written in place, drop anything cached from them
+            if (image != null) {
+                image.fireDataChanged(0);
+            }
+            
             if (listener != null) {
                 listener.percentDone("Ready.", -1);
             }            
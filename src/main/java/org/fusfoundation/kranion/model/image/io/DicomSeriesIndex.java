@@ -0,0 +1,242 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion.model.image.io;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * On-disk cache of the series fields that DicomImageLoader.scanDirectoryForSeries
+ * extracts from each file. One index is kept per directory, under
+ * ~/.kranion/dicomindex, so scanning a directory again only parses the files
+ * that are new or have changed size or modification time since the last scan.
+ * Files that turned out not to be DICOM are remembered too, so they aren't
+ * opened again either. Files that couldn't be read are not, so they are
+ * tried again on the next scan.
+ * 
+ * Loading an index touches its file, and prune() deletes the indexes of
+ * directories that no longer exist or that haven't been scanned for
+ * kranion.dicomIndexDays days (90 by default), so the cache doesn't grow
+ * without bound.
+ *
+ * @author jsnell
+ */
+class DicomSeriesIndex {
+    
+    private static final int INDEX_VERSION = 1;
+    
+    private static final long MAX_UNUSED_MILLIS = TimeUnit.DAYS.toMillis(Long.getLong("kranion.dicomIndexDays", 90));
+    private static final AtomicBoolean pruned = new AtomicBoolean();
+    
+    // Series fields for one file
+    static class Entry {
+        String name; // file name within the directory
+        long size;
+        long lastModified;
+        boolean hasSeries; // false for non-DICOM files and files without a SeriesInstanceUID
+        String seriesUID = "";
+        String patientName = "";
+        String modality = "";
+        String acquisitionDate = "";
+        String protocolName = "";
+        String seriesDescription = "";
+        float sliceLocation = Float.NaN;
+    }
+    
+    private final String directoryPath;
+    private final File indexFile;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private boolean dirty = false;
+    
+    DicomSeriesIndex(File dir) {
+        this(dir, getIndexDirectory());
+    }
+    
+    DicomSeriesIndex(File dir, File indexDirectory) {
+        String path;
+        try {
+            path = dir.getCanonicalPath();
+        }
+        catch(IOException e) {
+            path = dir.getAbsolutePath();
+        }
+        directoryPath = path;
+        indexFile = new File(indexDirectory, Integer.toHexString(path.hashCode()) + "_" + dir.getName().replaceAll("[^A-Za-z0-9._-]", "_") + ".idx");
+        load();
+    }
+    
+    // Returns the cached entry for the file if it hasn't changed, otherwise null
+    synchronized Entry lookup(String name, long size, long lastModified) {
+        Entry entry = entries.get(name);
+        if (entry != null && entry.size == size && entry.lastModified == lastModified) {
+            return entry;
+        }
+        return null;
+    }
+    
+    synchronized void put(Entry entry) {
+        entries.put(entry.name, entry);
+        dirty = true;
+    }
+    
+    // Forget files that are no longer in the directory
+    synchronized void retain(Set<String> names) {
+        if (entries.keySet().retainAll(names)) {
+            dirty = true;
+        }
+    }
+    
+    // Writes the index if it changed, dropping entries for files that have
+    // been deleted since they were scanned
+    synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        
+        entries.values().removeIf(e -> !new File(directoryPath, e.name).isFile());
+        
+        File dir = indexFile.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            return;
+        }
+        
+        File tmpFile = new File(dir, indexFile.getName() + ".tmp");
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            dos.writeInt(INDEX_VERSION);
+            dos.writeUTF(directoryPath);
+            dos.writeInt(entries.size());
+            for (Entry e : entries.values()) {
+                dos.writeUTF(e.name);
+                dos.writeLong(e.size);
+                dos.writeLong(e.lastModified);
+                dos.writeBoolean(e.hasSeries);
+                if (e.hasSeries) {
+                    dos.writeUTF(e.seriesUID);
+                    dos.writeUTF(e.patientName);
+                    dos.writeUTF(e.modality);
+                    dos.writeUTF(e.acquisitionDate);
+                    dos.writeUTF(e.protocolName);
+                    dos.writeUTF(e.seriesDescription);
+                    dos.writeFloat(e.sliceLocation);
+                }
+            }
+        }
+        catch(IOException e) {
+            Logger.getGlobal().log(Level.WARNING, "Failed to write DICOM index " + indexFile, e);
+            tmpFile.delete();
+            return;
+        }
+        
+        indexFile.delete();
+        if (tmpFile.renameTo(indexFile)) {
+            dirty = false;
+        }
+    }
+    
+    private void load() {
+        if (!indexFile.isFile()) {
+            return;
+        }
+        
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (dis.readInt() != INDEX_VERSION || !dis.readUTF().equals(directoryPath)) {
+                return; // stale format or hash collision, rebuild it
+            }
+            int count = dis.readInt();
+            for (int i=0; i<count; i++) {
+                Entry e = new Entry();
+                e.name = dis.readUTF();
+                e.size = dis.readLong();
+                e.lastModified = dis.readLong();
+                e.hasSeries = dis.readBoolean();
+                if (e.hasSeries) {
+                    e.seriesUID = dis.readUTF();
+                    e.patientName = dis.readUTF();
+                    e.modality = dis.readUTF();
+                    e.acquisitionDate = dis.readUTF();
+                    e.protocolName = dis.readUTF();
+                    e.seriesDescription = dis.readUTF();
+                    e.sliceLocation = dis.readFloat();
+                }
+                entries.put(e.name, e);
+            }
+            indexFile.setLastModified(System.currentTimeMillis()); // in use, see prune()
+        }
+        catch(IOException e) {
+            Logger.getGlobal().log(Level.WARNING, "Ignoring unreadable DICOM index " + indexFile, e);
+            entries.clear();
+        }
+    }
+    
+    // Prunes the index directory the first time it's called in this run
+    static void pruneOnce() {
+        if (pruned.compareAndSet(false, true)) {
+            prune(getIndexDirectory(), MAX_UNUSED_MILLIS);
+        }
+    }
+    
+    // Deletes indexes whose directory is gone, that are older than
+    // maxUnusedMillis since they were last loaded or saved, or that can't be
+    // read, and any temporary files left by a failed save
+    static void prune(File indexDirectory, long maxUnusedMillis) {
+        File[] files = indexDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        
+        long oldest = System.currentTimeMillis() - maxUnusedMillis;
+        for (File file : files) {
+            String name = file.getName();
+            if (!file.isFile() || !(name.endsWith(".idx") || name.endsWith(".idx.tmp"))) {
+                continue;
+            }
+            if (name.endsWith(".tmp") || file.lastModified() < oldest || !new File(readDirectoryPath(file)).isDirectory()) {
+                if (!file.delete()) {
+                    Logger.getGlobal().log(Level.WARNING, "Failed to delete unused DICOM index " + file);
+                }
+            }
+        }
+    }
+    
+    // The directory an index file was built for, or "" if it can't be read
+    private static String readDirectoryPath(File file) {
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (dis.readInt() == INDEX_VERSION) {
+                return dis.readUTF();
+            }
+        }
+        catch(IOException e) {
+            Logger.getGlobal().log(Level.FINE, "Unreadable DICOM index " + file, e);
+        }
+        return "";
+    }
+    
+    static File getIndexDirectory() {
+        return new File(new File(System.getProperty("user.home"), ".kranion"), "dicomindex");
+    }
+}
@@ -0,0 +1,333 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2021 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion.model.image.io;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.fusfoundation.dicom.DicomObject;
+import org.fusfoundation.dicom.VR;
+import org.fusfoundation.dicom.net.RetrievalEngine;
+import org.fusfoundation.kranion.ProgressListener;
+import org.fusfoundation.kranion.model.image.ImageVolume;
+import org.fusfoundation.kranion.model.image.ImageVolume4D;
+
+/**
+ * Builds the volume of a series from the slices a RetrievalEngine hands
+ * over as they arrive, instead of loading a folder of files once the
+ * retrieve is done. The volume is allocated when the first slice arrives,
+ * sized from the C-FIND match count, and every slice is decoded into place
+ * on the thread that received it, so getImage() can be shown while the
+ * rest of the series is still coming in.
+ *
+ * While the retrieve runs the slices are placed by InstanceNumber. finish()
+ * then puts them in ImagePositionPatient order and sets the slice spacing,
+ * giving the same layout as DicomImageLoader.load().
+ *
+ * @author jsnell
+ */
+public class DicomVolumeAssembler implements RetrievalEngine.Listener {
+    
+    private final String seriesUID;
+    private final ProgressListener listener;
+    private final DicomImageLoader loader = new DicomImageLoader();
+    
+    // SOPInstanceUID to slot, slot k is slice expected-1-k of the volume
+    private final Map<String, Integer> slots = new HashMap<>();
+    private int expected;
+    private int received;
+    
+    // per slot, filled in as the slices arrive
+    private boolean[] claimed;
+    private float[] positions; // ImagePositionPatient along the slice normal
+    private float[] xres;
+    private float[] yres;
+    
+    private ImageVolume4D image;
+    private DicomObject firstSlice;
+    private float[] ImageOrientationPatient;
+    private float[] ImageNormal;
+    private int columns;
+    private int rows;
+    private int frameSize;
+    
+    public DicomVolumeAssembler(String seriesUID, ProgressListener listener) {
+        this.seriesUID = seriesUID;
+        this.listener = listener;
+    }
+    
+    @Override
+    public synchronized void retrieveStarted(List<DicomObject> instances) {
+        // The engine lists the instances in InstanceNumber order
+        for (DicomObject instance : instances) {
+            String sopInstanceUID = stringValue(instance, "SOPInstanceUID");
+            if (seriesUID.equals(stringValue(instance, "SeriesInstanceUID")) && sopInstanceUID != null && !slots.containsKey(sopInstanceUID)) {
+                slots.put(sopInstanceUID, slots.size());
+            }
+        }
+        
+        expected = slots.size();
+        claimed = new boolean[expected];
+        positions = new float[expected];
+        xres = new float[expected];
+        yres = new float[expected];
+    }
+    
+    @Override
+    public void objectReceived(DicomObject obj) {
+        if (!seriesUID.equals(stringValue(obj, "SeriesInstanceUID"))) {
+            return;
+        }
+        
+        int slot;
+        short[] voxelData;
+        boolean sameSize;
+        synchronized(this) {
+            Integer s = slots.get(stringValue(obj, "SOPInstanceUID"));
+            if (s == null || claimed[s]) {
+                Logger.getGlobal().log(Level.WARNING, "Unexpected slice " + stringValue(obj, "SOPInstanceUID"));
+                return;
+            }
+            slot = s;
+            claimed[slot] = true;
+            
+            if (image == null) {
+                createImage(obj);
+            }
+            voxelData = (short[])image.getData();
+            sameSize = matchesFrameSize(obj);
+        }
+        
+        float[] ImagePositionPatient = loader.getImagePositionPatient(obj);
+        float position = 0.0f;
+        for (int index = 0; index < 3; index++) {
+            position += ImagePositionPatient[index] * ImageNormal[index];
+        }
+        
+        float sliceXres, sliceYres;
+        try {
+            sliceXres = obj.getVR("PixelSpacing").getFloatValue(0);
+            sliceYres = obj.getVR("PixelSpacing").getFloatValue(1);
+        }
+        catch(Exception e) {
+            sliceXres = 0f;
+            sliceYres = 0f;
+        }
+        
+        // Slices that don't match the central slice are zeroed by finish(),
+        // which is the first time the central slice is known. A slice with
+        // different Rows/Columns than the first one is left zeroed, decoding
+        // it with the volume's frame size would misplace its pixels.
+        if (!sameSize) {
+            Logger.getGlobal().log(Level.WARNING, "Slice " + stringValue(obj, "SOPInstanceUID") + " is not " + columns + "x" + rows + ", left blank");
+        }
+        else {
+            try {
+                loader.decodeSlice(obj, voxelData, (expected - 1 - slot)*frameSize, frameSize, sliceXres, sliceYres);
+                image.fireDataChanged(0);
+            }
+            catch(Exception e) {
+                Logger.getGlobal().log(Level.WARNING, "Failed to decode slice " + stringValue(obj, "SOPInstanceUID"), e);
+            }
+        }
+        
+        synchronized(this) {
+            positions[slot] = position;
+            xres[slot] = sliceXres;
+            yres[slot] = sliceYres;
+            received++;
+            if (listener != null) {
+                listener.percentDone("Loading dicom image data", (int)Math.round((double)received/expected*100.0));
+            }
+        }
+    }
+    
+    /** The volume being filled, null until the first slice arrives */
+    public synchronized ImageVolume getImage() {
+        return image;
+    }
+    
+    public synchronized int getExpectedCount() {
+        return expected;
+    }
+    
+    public synchronized int getReceivedCount() {
+        return received;
+    }
+    
+    /** Sorts the slices by position and sets the slice spacing. Call once
+     *  the retrieve has returned. If slices are missing the result is a new,
+     *  shorter volume holding the slices that did arrive. */
+    public synchronized ImageVolume finish() {
+        if (image == null) {
+            return null;
+        }
+        
+        // Received slots in ascending position, stored in reverse order like load()
+        List<Integer> order = new ArrayList<>(received);
+        for (int k=0; k<expected; k++) {
+            if (claimed[k]) {
+                order.add(k);
+            }
+        }
+        order.sort((a, b) -> Float.compare(positions[a], positions[b]));
+        int n = order.size();
+        
+        // source[z] is the current slice index of the slice that belongs at z
+        int[] source = new int[n];
+        for (int i=0; i<n; i++) {
+            source[n - 1 - i] = expected - 1 - order.get(i);
+        }
+        
+        ImageVolume4D result = image;
+        if (n < expected) {
+            Logger.getGlobal().log(Level.WARNING, "Assembled " + n + " of " + expected + " slices");
+            
+            result = new ImageVolume4D(ImageVolume.USHORT_VOXEL, image.getDimension(0).getSize(), image.getDimension(1).getSize(), n, 1);
+            loader.setSeriesAttributes(result, firstSlice, ImageOrientationPatient, new float[3]);
+            short[] src = (short[])image.getData();
+            short[] dst = (short[])result.getData();
+            for (int z=0; z<n; z++) {
+                System.arraycopy(src, source[z]*frameSize, dst, z*frameSize, frameSize);
+            }
+        }
+        else {
+            permuteSlices((short[])image.getData(), source);
+        }
+        
+        // save the pixel dimensions of the central slice.
+        // Any slices in this series that don't match will be zeroed out
+        int center = order.get(n/2);
+        short[] voxelData = (short[])result.getData();
+        for (int i=0; i<n; i++) {
+            int k = order.get(i);
+            if (xres[k] != xres[center] || yres[k] != yres[center]) {
+                int offset = (n - 1 - i)*frameSize;
+                Arrays.fill(voxelData, offset, offset + frameSize, (short)0);
+            }
+        }
+        
+        float zres;
+        if (n > 1) {
+            int midIndex = n/2-1;
+            zres = Math.abs(positions[order.get(midIndex+1)] - positions[order.get(midIndex)]);
+        }
+        else {
+            try {
+                zres = firstSlice.getVR("SliceThickness").getFloatValue();
+            }
+            catch(Exception e) {
+                zres = 1f;
+            }
+        }
+        
+        float centerXres = xres[center] != 0f ? xres[center] : 1f;
+        float centerYres = yres[center] != 0f ? yres[center] : 1f;
+        
+        result.getDimension(0).setSampleSpacing(centerXres);
+        result.getDimension(1).setSampleSpacing(centerYres);
+        result.getDimension(2).setSampleSpacing(zres);
+        
+        result.getDimension(0).setSampleWidth(centerXres);
+        result.getDimension(1).setSampleWidth(centerYres);
+        result.getDimension(2).setSampleWidth(zres);
+        
+        // slices were moved and zeroed in place
+        result.fireDataChanged(0);
+        
+        if (listener != null) {
+            listener.percentDone("Ready.", -1);
+        }
+        
+        return result;
+    }
+    
+    // Allocates the volume from the first slice to arrive, on the thread
+    // that received it, which makes it the owner for setAttribute()
+    private void createImage(DicomObject obj) {
+        firstSlice = obj;
+        ImageOrientationPatient = loader.getImageOrientationPatient(obj);
+        
+        ImageNormal = new float[3];
+        ImageNormal[0] = ImageOrientationPatient[1] * ImageOrientationPatient[5] - ImageOrientationPatient[2] * ImageOrientationPatient[4];
+        ImageNormal[1] = ImageOrientationPatient[2] * ImageOrientationPatient[3] - ImageOrientationPatient[0] * ImageOrientationPatient[5];
+        ImageNormal[2] = ImageOrientationPatient[0] * ImageOrientationPatient[4] - ImageOrientationPatient[1] * ImageOrientationPatient[3];
+        
+        columns = obj.getVR("Columns").getIntValue();
+        rows = obj.getVR("Rows").getIntValue();
+        
+        // Put the image volume center at the origin for now
+        image = new ImageVolume4D(ImageVolume.USHORT_VOXEL, columns, rows, expected, 1);
+        loader.setSeriesAttributes(image, obj, ImageOrientationPatient, new float[3]);
+        frameSize = columns * rows;
+    }
+    
+    private boolean matchesFrameSize(DicomObject obj) {
+        try {
+            return obj.getVR("Columns").getIntValue() == columns && obj.getVR("Rows").getIntValue() == rows;
+        }
+        catch(Exception e) {
+            return false;
+        }
+    }
+    
+    // Moves the slice at source[z] to z for every z, following the
+    // permutation's cycles with one spare slice
+    private void permuteSlices(short[] voxelData, int[] source) {
+        boolean[] done = new boolean[source.length];
+        short[] spare = null;
+        
+        for (int start=0; start<source.length; start++) {
+            if (done[start] || source[start] == start) {
+                continue;
+            }
+            
+            if (spare == null) {
+                spare = new short[frameSize];
+            }
+            System.arraycopy(voxelData, start*frameSize, spare, 0, frameSize);
+            
+            int z = start;
+            while (source[z] != start) {
+                System.arraycopy(voxelData, source[z]*frameSize, voxelData, z*frameSize, frameSize);
+                done[z] = true;
+                z = source[z];
+            }
+            System.arraycopy(spare, 0, voxelData, z*frameSize, frameSize);
+            done[z] = true;
+        }
+    }
+    
+    private static String stringValue(DicomObject obj, String name) {
+        VR vr = obj.getVR(name);
+        if (vr == null || vr.getLength() == 0) {
+            return null;
+        }
+        return vr.getStringValue().trim();
+    }
+}
@@ -3998,8 +3998,6 @@ public class DefaultView extends View {
         ImageVolume thermometry = model.getSonication(sonicationIndex).getThermometryPhase();
         
         if (thermometry != null) {
-            float data[] = (float[])thermometry.getData();
-
             int cols = thermometry.getDimension(0).getSize();
             int rows = thermometry.getDimension(1).getSize();
             int timepoints = thermometry.getDimension(3).getSize();
@@ -4017,26 +4015,30 @@ public class DefaultView extends View {
             float deltaT = thermometry.getDimension(3).getSampleWidth();
 
 
-            float[] resultData = (float[])(result.getData());
-            for (int y=0; y<rows; y++) {
-                for (int x=0; x<cols; x++) {
-                    float dose = 0f;
-                    for (int i=1; i<timepoints; i++) {
-                        // trapezoidal rule integration
-                        float tempVal = data[thermometry.getVoxelOffset(x, y, i)];
-                        tempVal += data[thermometry.getVoxelOffset(x, y, i-1)];
-                        tempVal /= 2f;
-
-                        if (tempVal < 43f) {
-                            dose += Math.pow(0.25f, (43f - tempVal))*(deltaT/60f);
-                        }
-                        else {
-                            dose += Math.pow(0.5f, (43f - tempVal))*(deltaT/60f);
-                        }
-                        
-                    }                    
-                    resultData[result.getVoxelOffset(x, y, 0)] = dose;
+            // time point i of a voxel is i slices on from the first
+            FloatVoxelCursor temps = new FloatVoxelCursor(thermometry, 0, new VoxelSpan(thermometry).crop(0, 0, 0, cols, rows, 1));
+            FloatVoxelCursor doses = new FloatVoxelCursor(result, 0);
+            int stride = temps.getSliceStride();
+            while (temps.next() && doses.next()) {
+                float dose = 0f;
+                float previous = temps.get();
+                for (int i=1; i<timepoints; i++) {
+                    float current = temps.get(i*stride);
+                    
+                    // trapezoidal rule integration
+                    float tempVal = current;
+                    tempVal += previous;
+                    tempVal /= 2f;
+                    previous = current;
+
+                    if (tempVal < 43f) {
+                        dose += Math.pow(0.25f, (43f - tempVal))*(deltaT/60f);
+                    }
+                    else {
+                        dose += Math.pow(0.5f, (43f - tempVal))*(deltaT/60f);
+                    }
                 }
+                doses.set(dose);
             }
         }
         
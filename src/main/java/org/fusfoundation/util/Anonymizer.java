@@ -7,121 +7,360 @@
 package org.fusfoundation.util;
 
 import org.fusfoundation.dicom.part10.DicomFileReader;
+import org.fusfoundation.dicom.part10.DicomFileWriter;
 import org.fusfoundation.dicom.VR;
-import org.fusfoundation.dicom.VrOutputStream;
+import org.fusfoundation.dicom.DicomException;
 import org.fusfoundation.dicom.DicomObjectReader;
 import org.fusfoundation.dicom.DicomObject;
 import org.fusfoundation.dicom.DicomDate;
 import org.fusfoundation.dicom.DicomNumber;
+import org.fusfoundation.dicom.DicomString;
 import java.io.*;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.swing.*;
 
 /**
+ * De-identifies a folder of DICOM files into a second folder with the same
+ * layout. Only the header is parsed and rewritten. PixelData is copied from
+ * the source file to the new file with FileChannel.transferTo(), see
+ * DicomFileWriter.writeVR(), so the pixels never pass through the heap.
+ *
+ * Patient module elements (group 0010) are blanked, elements naming staff or
+ * institutions are blanked, private elements are dropped, and instance UIDs
+ * are replaced. Class UIDs, such as SOPClassUID, are kept as they are, even
+ * private ones, so the data set still matches its file meta information. The same source UID always maps to the same new UID for the
+ * life of the Anonymizer, so studies and series stay together and references
+ * between objects still resolve.
  *
  * @author  jws2f
  */
 public class Anonymizer {
-    
+
+    // UIDs under the DICOM root are SOP classes, transfer syntaxes etc, not instances
+    private static final String DICOM_UID_ROOT = "1.2.840.10008.";
+
+    // Elements outside the patient group that identify people or places
+    private static final Set<Integer> identifyingElements = new HashSet<>(Arrays.asList(
+        0x00080050, // AccessionNumber
+        0x00080080, // InstitutionName
+        0x00080081, // InstitutionAddress
+        0x00080090, // ReferringPhysicianName
+        0x00081010, // StationName
+        0x00081040, // InstitutionalDepartmentName
+        0x00081048, // PhysiciansOfRecord
+        0x00081050, // PerformingPhysicianName
+        0x00081060, // NameOfPhysiciansReadingStudy
+        0x00081070  // OperatorsName
+    ));
+
+    // UIDs that identify instances, and so the study, and are replaced
+    private static final Set<Integer> instanceUIDElements = new HashSet<>(Arrays.asList(
+        0x00080014, // InstanceCreatorUID
+        0x00080018, // SOPInstanceUID
+        0x00081155, // ReferencedSOPInstanceUID
+        0x00083010, // IrradiationEventUID
+        0x0020000D, // StudyInstanceUID
+        0x0020000E, // SeriesInstanceUID
+        0x00200052, // FrameOfReferenceUID
+        0x00200200, // SynchronizationFrameOfReferenceUID
+        0x00209161, // ConcatenationUID
+        0x00209164, // DimensionOrganizationUID
+        0x0040A124, // UID
+        0x00880140, // StorageMediaFileSetUID
+        0x30060024, // ReferencedFrameOfReferenceUID
+        0x300600C2  // RelatedFrameOfReferenceUID
+    ));
+
+    private final ConcurrentMap<String, String> uidMap = new ConcurrentHashMap<>();
+    private final int ioThreads;
+
     /** Creates a new instance of Anonymizer */
     public Anonymizer() {
+        this(Math.min(4, Runtime.getRuntime().availableProcessors()));
     }
-    
+
+    // ioThreads bounds the number of files being read and written at once
+    public Anonymizer(int ioThreads) {
+        this.ioThreads = Math.max(1, ioThreads);
+    }
+
     public static void main(String[] argv) {
         try {
-            JFileChooser fileChooser = new JFileChooser();
-            fileChooser.setDialogTitle("Select Source DICOM Image");
-            fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);//JFileChooser.DIRECTORIES_ONLY);
-            fileChooser.showOpenDialog(null);
-            
-            
-            parseDirectory(fileChooser.getSelectedFile());
-            
-            
-            
+            File srcDir, dstDir;
+            int threads = 0;
+
+            if (argv.length >= 2) {
+                srcDir = new File(argv[0]);
+                dstDir = new File(argv[1]);
+                if (argv.length > 2) {
+                    threads = Integer.parseInt(argv[2]);
+                }
+            }
+            else {
+                JFileChooser fileChooser = new JFileChooser();
+                fileChooser.setDialogTitle("Select Source DICOM Folder");
+                fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+                if (fileChooser.showOpenDialog(null) != JFileChooser.APPROVE_OPTION) {
+                    System.exit(1);
+                }
+                srcDir = fileChooser.getSelectedFile();
+
+                fileChooser.setDialogTitle("Select Destination Folder");
+                if (fileChooser.showOpenDialog(null) != JFileChooser.APPROVE_OPTION) {
+                    System.exit(1);
+                }
+                dstDir = fileChooser.getSelectedFile();
+            }
+
+            Anonymizer anonymizer = threads > 0 ? new Anonymizer(threads) : new Anonymizer();
+
+            long start = System.nanoTime();
+            int count = anonymizer.anonymizeDirectory(srcDir, dstDir);
+            System.out.println("Anonymized " + count + " files in " + (System.nanoTime() - start)/1000000 + " ms");
         }
         catch(Exception e) {
             e.printStackTrace();
-            return;
+            System.exit(1);
         }
-        
-        System.exit(1);
-        
+
+        System.exit(0);
     }
-    
-    private static void parseDirectory(File dir) {
-        File[] files = dir.listFiles();
-        
-        for (int i=0; i<files.length; i++) {
-            if (files[i].isDirectory()) {
-                parseDirectory(files[i]);
+
+    // Anonymizes every DICOM file under srcDir into the same relative path
+    // under dstDir. Files that fail are logged and skipped. Returns the
+    // number of files written.
+    public int anonymizeDirectory(File srcDir, File dstDir) throws IOException, InterruptedException {
+        if (srcDir.getCanonicalFile().equals(dstDir.getCanonicalFile())) {
+            throw new IllegalArgumentException("Source and destination must be different folders");
+        }
+
+        List<File> files = new ArrayList<>();
+        listFiles(srcDir, files);
+
+        Path srcRoot = srcDir.toPath();
+        ExecutorService workers = Executors.newFixedThreadPool(ioThreads);
+        try {
+            CompletionService<Boolean> service = new ExecutorCompletionService<>(workers);
+            for (File file : files) {
+                File dst = dstDir.toPath().resolve(srcRoot.relativize(file.toPath())).toFile();
+                service.submit(() -> {
+                    try {
+                        return anonymizeFile(file, dst);
+                    }
+                    catch(IOException e) {
+                        Logger.getGlobal().log(Level.WARNING, "Failed to anonymize " + file, e);
+                        dst.delete();
+                        return false;
+                    }
+                });
             }
-            else if (!files[i].getPath().endsWith(".vol") && !files[i].getPath().endsWith(".DS_Store")/*files[i].getPath().endsWith(".dcm")*/) {
-                System.out.println(files[i].getPath());
-                
+
+            int count = 0;
+            for (int i=0; i<files.size(); i++) {
                 try {
-                    DicomObject image, metainfo;
-                    DicomFileReader dfr = new DicomFileReader(files[i]);
-                    DicomObjectReader dor = new DicomObjectReader(dfr);
-                    
-                    image = dor.read();
-                    metainfo = dfr.getMetaInfo();
-                    
-                    dfr.close();
-                    
-                    File newFile = new File(files[i].getPath());
-                    System.out.println(newFile.getPath());
-                    
-                    VrOutputStream os = new VrOutputStream(new FileOutputStream(newFile), true, false);
-                    
-                    // write the preamble
-                    for (int j=0; j<128; j++) {
-                        os.write(0);
+                    if (service.take().get()) {
+                        count++;
                     }
-                    os.write('D');
-                    os.write('I');
-                    os.write('C');
-                    os.write('M');
-                    
-                    writeObject(os, metainfo);
-                    writeObject(os, image);
                 }
-                catch(Exception e) {
-                    System.out.println(e);
-                    System.exit(1);
+                catch(ExecutionException e) {
+                    Logger.getGlobal().log(Level.WARNING, "Failed to anonymize", e.getCause());
                 }
-                
             }
+            return count;
+        }
+        finally {
+            workers.shutdownNow();
         }
-        
-        
     }
-    
-    private static void writeObject(VrOutputStream os, DicomObject obj) throws IOException {
+
+    // Writes a de-identified copy of src to dst. Returns false, without
+    // writing anything, if src isn't a DICOM object.
+    public boolean anonymizeFile(File src, File dst) throws IOException {
+        DicomObject image, metainfo;
+        DicomFileReader dfr = null;
+        try {
+            dfr = new DicomFileReader(src, true); // windowed buffer
+            dfr.setDeferPixelData(true);
+            DicomObjectReader dor = new DicomObjectReader(dfr);
+
+            image = dor.read();
+            metainfo = dfr.getMetaInfo();
+        }
+        catch(DicomException e) {
+            return false;
+        }
+        catch(RuntimeException e) {
+            return false;
+        }
+        finally {
+            // the deferred PixelData is read through its own channel
+            if (dfr != null) {
+                dfr.close();
+            }
+        }
+
+        VR sopClass = metainfo.getVR("MediaStorageSOPClassUID");
+        if (sopClass == null) {
+            sopClass = image.getVR("SOPClassUID");
+        }
+        if (sopClass == null || image.getVR("SOPInstanceUID") == null) {
+            return false;
+        }
+
+        DicomObject result = anonymizeObject(image);
+
+        File dir = dst.getParentFile();
+        if (dir != null) {
+            dir.mkdirs();
+        }
+
+        DicomFileWriter writer = new DicomFileWriter(dst,
+                sopClass.getStringValue(),
+                result.getVR("SOPInstanceUID").getStringValue(),
+                metainfo.getVR("TransferSyntaxUID").getStringValue());
+        boolean written = false;
+        try {
+            writer.write(result);
+            written = true;
+        }
+        finally {
+            // write() closes the writer when it succeeds
+            if (!written) {
+                try {
+                    writer.close();
+                }
+                catch(IOException e) {
+                    Logger.getGlobal().log(Level.FINE, "Failed to close " + dst, e);
+                }
+                dst.delete();
+            }
+        }
+        return true;
+    }
+
+    // New UID for a source UID, the same one every time it is asked for
+    public String remapUID(String uid) {
+        return uidMap.computeIfAbsent(uid, k -> newUID());
+    }
+
+    // UUID derived UID, see PS3.5 B.2
+    private static String newUID() {
+        UUID uuid = UUID.randomUUID();
+        ByteBuffer bytes = ByteBuffer.allocate(16);
+        bytes.putLong(uuid.getMostSignificantBits());
+        bytes.putLong(uuid.getLeastSignificantBits());
+        return "2.25." + new BigInteger(1, bytes.array()).toString();
+    }
+
+    private static void listFiles(File dir, List<File> files) {
+        File[] list = dir.listFiles();
+        if (list == null) {
+            return;
+        }
+
+        for (int i=0; i<list.length; i++) {
+            if (list[i].isDirectory()) {
+                listFiles(list[i], files);
+            }
+            else if (!list[i].getPath().endsWith(".vol") && !list[i].getPath().endsWith(".DS_Store")) {
+                files.add(list[i]);
+            }
+        }
+    }
+
+    // Copy of obj with identifying elements blanked, private elements
+    // dropped and instance UIDs remapped. Sequence items get the same
+    // treatment. PixelData is passed through untouched.
+    private DicomObject anonymizeObject(DicomObject obj) {
+        DicomObject result = new DicomObject();
+
         Iterator vrs = obj.iterator();
         while(vrs.hasNext()) {
             VR vr = (VR)vrs.next();
-            
-            if (vr.getGroup() == 0x10) {
-                System.out.println(vr);
-                
-                if (vr.getType() == VR.DA) {
-                    vr.setValueBytes(new DicomDate(new Date()).getVrValue(VR.DA));
-                }
-                else if (vr.getType() == VR.DS) {
-                    vr.setValueBytes(new DicomNumber(0).getVrValue(VR.DS));
+
+            if ((vr.getGroup() & 1) != 0) {
+                continue; // private
+            }
+
+            boolean identifying = vr.getGroup() == 0x10 || identifyingElements.contains(vr.getId());
+
+            if (vr.getType() == VR.SQ) {
+                if (identifying) {
+                    continue;
                 }
-                else {
-                    byte[] val = vr.getValueBytes();
-                    for (int i=0; i<val.length; i++) {
-                        val[i] = 0;
-                    }
-                    vr.setValueBytes(val);
+
+                VR seq = new VR(vr.getGroup(), vr.getElement(), VR.SQ, new byte[0]);
+                Iterator items = vr.getSequenceItems();
+                while (items != null && items.hasNext()) {
+                    seq.addSequenceItem(anonymizeObject((DicomObject)items.next()));
                 }
+                result.addVR(seq);
+                continue;
+            }
+
+            if (identifying) {
+                blankValue(vr);
+            }
+            else if (vr.getType() == VR.UI && instanceUIDElements.contains(vr.getId())) {
+                remapValue(vr);
+            }
+
+            result.addVR(vr);
+        }
+
+        return result;
+    }
+
+    private static void blankValue(VR vr) {
+        if (vr.getType() == VR.DA) {
+            vr.setValueBytes(new DicomDate(new Date()).getVrValue(VR.DA));
+        }
+        else if (vr.getType() == VR.DS) {
+            vr.setValueBytes(new DicomNumber(0).getVrValue(VR.DS));
+        }
+        else {
+            byte[] val = vr.getValueBytes();
+            for (int i=0; i<val.length; i++) {
+                val[i] = 0;
+            }
+            vr.setValueBytes(val);
+        }
+    }
+
+    private void remapValue(VR vr) {
+        String value = StringConvert.bytesToString(vr.getValueBytes()).trim();
+        if (value.length() == 0) {
+            return;
+        }
+
+        String[] uids = value.split("\\\\");
+        StringBuilder remapped = new StringBuilder();
+        for (int i=0; i<uids.length; i++) {
+            String uid = uids[i].trim();
+            if (i > 0) {
+                remapped.append('\\');
             }
-            
-            os.writeVR(vr);
+            remapped.append(uid.startsWith(DICOM_UID_ROOT) ? uid : remapUID(uid));
         }
+
+        // UIDs are padded to even length with a null
+        byte[] val = new DicomString(remapped.toString()).getVrValue(VR.UI);
+        if (val.length % 2 != 0) {
+            val = Arrays.copyOf(val, val.length + 1);
+        }
+        vr.setValueBytes(val);
     }
-    
+
 }
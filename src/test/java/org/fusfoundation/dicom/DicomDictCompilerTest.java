@@ -0,0 +1,76 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * DicomDictData.java is generated from dicom.dic and checked in, this
+ * fails when the dictionary was edited without regenerating it, or when
+ * the compiled lookups don't give what dicom.dic says.
+ *
+ * @author jsnell
+ */
+public class DicomDictCompilerTest {
+    
+    @Test
+    public void dictDataIsUpToDate() throws Exception {
+        File dictFile = new File(DicomDictCompiler.DICT_FILE);
+        String expected = DicomDictCompiler.generate(DicomDictCompiler.readDict(dictFile), dictFile.getName());
+        String actual = new String(Files.readAllBytes(new File(DicomDictCompiler.DATA_FILE).toPath()), StandardCharsets.ISO_8859_1);
+        assertEquals("DicomDictData.java is out of date, run gradle generateDicomDict", expected, actual);
+    }
+    
+    @Test
+    public void lookupsMatchTheDictionary() throws Exception {
+        DicomDict dict = DicomDict.getDictionary();
+        assertEquals(VR.DA, dict.getVrType(0x00080020)); // StudyDate
+        assertEquals(VR.UI, dict.getVrType(0x0020000E)); // SeriesInstanceUID
+    }
+    
+    @Test
+    public void everyEntryIsFound() throws Exception {
+        // where dicom.dic lists a tag or name twice the later line wins
+        Map<Integer, Integer> types = new HashMap<>();
+        Map<String, Integer> ids = new HashMap<>();
+        for (DicomDictCompiler.Entry e : DicomDictCompiler.readDict(new File(DicomDictCompiler.DICT_FILE))) {
+            types.put(e.id, e.vrType);
+            ids.put(e.name, e.id);
+        }
+        
+        DicomDict dict = DicomDict.getDictionary();
+        for (Map.Entry<Integer, Integer> e : types.entrySet()) {
+            assertEquals(Integer.toHexString(e.getKey()), (int)e.getValue(), dict.getVrType(e.getKey()));
+        }
+        for (Map.Entry<String, Integer> e : ids.entrySet()) {
+            assertEquals(e.getKey(), (int)e.getValue(), dict.getVrId(e.getKey()));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom;
+
+import java.io.File;
+import java.util.Iterator;
+import org.fusfoundation.dicom.part10.DicomFileReader;
+import org.fusfoundation.dicom.part10.SyntheticSeries;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Checks DicomObject's indexed tag lookup against a scan of its elements,
+ * and the typed VR accessors against decoding through a DicomNumber, on a
+ * synthetic CT header.
+ *
+ * @author jsnell
+ */
+public class DicomObjectTest {
+    
+    // The tags DicomImageLoader looks up for each slice
+    private static final String[] loaderTags = {
+        "SeriesInstanceUID", "ImageOrientationPatient", "ImagePositionPatient",
+        "PixelSpacing", "SliceLocation", "InstanceNumber", "EchoTime",
+        "Columns", "Rows", "PatientName", "PatientID", "PatientBirthDate",
+        "PatientSex", "AcquisitionDate", "AcquisitionTime", "InstitutionName",
+        "ProtocolName", "WindowWidth", "WindowCenter", "RescaleIntercept",
+        "RescaleSlope", "PixelRepresentation", "PixelPaddingValue",
+        "TransferSyntaxUID", "Modality", "SeriesDescription", "ConvolutionKernel"
+    };
+    
+    // Numeric tags the loader decodes for each slice
+    private static final String[] numericTags = {
+        "ImageOrientationPatient", "ImagePositionPatient", "PixelSpacing",
+        "SliceLocation", "RescaleIntercept", "RescaleSlope", "Columns", "Rows",
+        "PixelRepresentation"
+    };
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void indexedLookupMatchesScan() throws Exception {
+        DicomObject obj = readHeader();
+        DicomDict dict = DicomDict.getDictionary();
+        
+        int found = 0;
+        for (String tag : loaderTags) {
+            int id = dict.getVrId(tag);
+            VR expected = scan(obj, id);
+            assertSame(tag, expected, obj.getVR(id));
+            assertSame(tag, expected, obj.getVR(tag));
+            if (expected != null) {
+                found++;
+            }
+        }
+        
+        // EchoTime, PixelPaddingValue and TransferSyntaxUID aren't in a CT header
+        assertEquals(loaderTags.length - 3, found);
+    }
+    
+    @Test
+    public void typedAccessorsMatchDicomNumber() throws Exception {
+        DicomObject obj = readHeader();
+        for (String tag : numericTags) {
+            VR vr = obj.getVR(tag);
+            assertTrue(tag, vr.getValueMultiplicity() > 0);
+            for (int i=0; i<vr.getValueMultiplicity(); i++) {
+                assertEquals(tag, ((DicomNumber)vr.getValue(i)).getFloatValue(), vr.getFloatValue(i), 0f);
+            }
+        }
+    }
+    
+    private DicomObject readHeader() throws Exception {
+        File file = SyntheticSeries.writeCTSeries(folder.getRoot(), 1, 16, 16).get(0);
+        DicomFileReader dfr = new DicomFileReader(file, true);
+        try {
+            dfr.setReadPixelData(false);
+            return new DicomObjectReader(dfr).read();
+        }
+        finally {
+            dfr.close();
+        }
+    }
+    
+    // The lookup DicomObject.getVR(group, element) used before the tag index
+    private static VR scan(DicomObject obj, int id) {
+        int group = (id >>> 16) & 0xFFFF;
+        int element = id & 0xFFFF;
+        Iterator i = obj.iterator();
+        while (i.hasNext()) {
+            VR vr = (VR)i.next();
+            if (vr.getGroup() == group && vr.getElement() == element)
+                return vr;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,153 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom.net;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Moves data from a producer thread to a consumer thread through a
+ * CircularByteBuffer's streams, in the locked and the single producer/
+ * single consumer modes, and checks every byte arrives in order.
+ *
+ * @author  jsnell
+ */
+public class CircularByteBufferTest {
+   
+   private static final int BUFFER_SIZE = 65536 + 17; // so transfers wrap at odd places
+   
+   @Test
+   public void singleBytes() throws Exception {
+      for (boolean lockFree : new boolean[] { false, true }) {
+         transfer(new CircularByteBuffer(BUFFER_SIZE, lockFree), 1, 1 << 20, false);
+      }
+   }
+   
+   @Test
+   public void bulkArrays() throws Exception {
+      for (boolean lockFree : new boolean[] { false, true }) {
+         for (int chunk : new int[] { 512, 8192, 100000 }) {
+            transfer(new CircularByteBuffer(BUFFER_SIZE, lockFree), chunk, 32 << 20, false);
+         }
+      }
+   }
+   
+   @Test
+   public void byteBuffers() throws Exception {
+      for (boolean lockFree : new boolean[] { false, true }) {
+         transfer(new CircularByteBuffer(BUFFER_SIZE, lockFree), 30000, 32 << 20, true);
+      }
+   }
+   
+   @Test
+   public void nonBlockingGetAndPut() {
+      CircularByteBuffer buffer = new CircularByteBuffer(10);
+      assertEquals(0, buffer.get(new byte[4], 0, 4));
+      assertEquals(7, buffer.put(new byte[] { 1, 2, 3, 4, 5, 6, 7 }, 0, 7));
+      byte[] out = new byte[5];
+      assertEquals(5, buffer.get(out, 0, 5));
+      assertArrayEquals(new byte[] { 1, 2, 3, 4, 5 }, out);
+      assertEquals(8, buffer.put(ByteBuffer.wrap(new byte[] { 8, 9, 10, 11, 12, 13, 14, 15, 16 })));
+      assertTrue(buffer.isFull());
+      ByteBuffer rest = ByteBuffer.allocate(20);
+      assertEquals(10, buffer.get(rest));
+      assertEquals(6, rest.get(0));
+      assertEquals(15, rest.get(9));
+      assertTrue(buffer.isEmpty());
+   }
+   
+   @Test(expected = IOException.class)
+   public void writeFailsOnceReaderCloses() throws Exception {
+      CircularByteBuffer buffer = new CircularByteBuffer(16, true);
+      buffer.getInputStream().close();
+      buffer.getOutputStream().write(new byte[32], 0, 32);
+   }
+   
+   private static void transfer(CircularByteBuffer buffer, int chunk, long total, boolean byteBuffers) throws Exception {
+      OutputStream out = buffer.getOutputStream();
+      InputStream in = buffer.getInputStream();
+      
+      ExecutorService producer = Executors.newSingleThreadExecutor();
+      try {
+         Future<?> sent = producer.submit(() -> {
+            byte[] data = new byte[chunk];
+            for (long pos=0; pos<total; pos+=chunk) {
+               int n = (int)Math.min(chunk, total - pos);
+               if (chunk == 1) {
+                  out.write(pattern(pos));
+                  continue;
+               }
+               for (int i=0; i<n; i++) {
+                  data[i] = pattern(pos + i);
+               }
+               if (byteBuffers) {
+                  ((WritableByteChannel)out).write(ByteBuffer.wrap(data, 0, n));
+               }
+               else {
+                  out.write(data, 0, n);
+               }
+            }
+            out.close();
+            return null;
+         });
+         
+         long received = 0;
+         if (chunk == 1) {
+            int b;
+            while ((b = in.read()) != -1) {
+               assertEquals(pattern(received++) & 0xff, b);
+            }
+         }
+         else {
+            byte[] data = new byte[chunk + 13];
+            int n;
+            while ((n = in.read(data, 0, data.length)) != -1) {
+               for (int i=0; i<n; i++) {
+                  if (data[i] != pattern(received + i)) {
+                     fail("Byte " + (received + i) + " differs");
+                  }
+               }
+               received += n;
+            }
+         }
+         sent.get();
+         assertEquals(total, received);
+      }
+      finally {
+         producer.shutdownNow();
+      }
+   }
+   
+   private static byte pattern(long pos) {
+      return (byte)(pos * 31 + (pos >> 11));
+   }
+}
@@ -0,0 +1,199 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom.net;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import org.fusfoundation.dicom.DicomNumber;
+import org.fusfoundation.dicom.DicomObject;
+import org.fusfoundation.dicom.DicomString;
+import org.fusfoundation.dicom.VR;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Runs StorageIndexer against an in-memory H2 database with the
+ * dicomstorage tables.
+ *
+ * @author  jsnell
+ */
+public class StorageIndexerTest {
+   
+   private static int databaseCount = 0;
+   
+   private String url;
+   private Connection check; // keeps the in-memory database alive
+   
+   @Before
+   public void createTables() throws Exception {
+      url = "jdbc:h2:mem:dicomstorage" + (databaseCount++) + ";DB_CLOSE_DELAY=-1";
+      check = DriverManager.getConnection(url);
+      try (Statement st = check.createStatement()) {
+         st.execute("CREATE TABLE patients (patientid VARCHAR(64) PRIMARY KEY, name VARCHAR(64), age VARCHAR(8), sex VARCHAR(8), birthdate VARCHAR(16), comments VARCHAR(256))");
+         st.execute("CREATE TABLE studies (studyuid VARCHAR(64) PRIMARY KEY, studydate VARCHAR(16), studytime VARCHAR(16), protocol VARCHAR(64), patientid VARCHAR(64))");
+         st.execute("CREATE TABLE series (seriesuid VARCHAR(64) PRIMARY KEY, seriesdate VARCHAR(16), modality VARCHAR(16), studyuid VARCHAR(64))");
+         st.execute("CREATE TABLE objects (sopuid VARCHAR(64) PRIMARY KEY, instance INTEGER, path VARCHAR(256), seriesuid VARCHAR(64))");
+      }
+   }
+   
+   @After
+   public void dropDatabase() throws Exception {
+      try (Statement st = check.createStatement()) {
+         st.execute("SHUTDOWN");
+      }
+      check.close();
+   }
+   
+   @Test
+   public void indexesEachRowOnce() throws Exception {
+      StorageIndexer indexer = new StorageIndexer(DriverManager.getConnection(url), 7, 50, 100);
+      
+      // two patients, a study and series each, spread over several batches
+      for (int i=0; i<40; i++) {
+         int patient = i % 2;
+         indexer.index(instance("P" + patient, "1.2.3." + patient, "1.2.3." + patient + ".1", "1.2.3.9." + i, i), new File("f" + i));
+      }
+      indexer.close();
+      
+      assertEquals(40, indexer.getIndexedCount());
+      assertEquals(0, indexer.getFailedCount());
+      assertEquals(2, count("patients"));
+      assertEquals(2, count("studies"));
+      assertEquals(2, count("series"));
+      assertEquals(40, count("objects"));
+   }
+   
+   // Rows already in the database and instances that are sent again must
+   // not cost the other instances
+   @Test
+   public void skipsRowsAlreadyIndexed() throws Exception {
+      StorageIndexer first = new StorageIndexer(DriverManager.getConnection(url), 10, 50, 100);
+      for (int i=0; i<5; i++) {
+         first.index(instance("P", "1.2.3", "1.2.3.1", "1.2.3.9." + i, i), new File("f" + i));
+      }
+      first.close();
+      
+      StorageIndexer second = new StorageIndexer(DriverManager.getConnection(url), 10, 50, 100);
+      for (int i=3; i<8; i++) {
+         second.index(instance("P", "1.2.3", "1.2.3.1", "1.2.3.9." + i, i), new File("f" + i));
+      }
+      second.close();
+      
+      assertEquals(5, second.getIndexedCount());
+      assertEquals(0, second.getFailedCount());
+      assertEquals(1, count("patients"));
+      assertEquals(1, count("series"));
+      assertEquals(8, count("objects"));
+   }
+   
+   @Test
+   public void updatesRowsIndexedAgain() throws Exception {
+      StorageIndexer indexer = new StorageIndexer(DriverManager.getConnection(url), 10, 50, 100);
+      indexer.index(instance("P", "1.2.3", "1.2.3.1", "1.2.3.9.1", 1), new File("first"));
+      indexer.close();
+      
+      indexer = new StorageIndexer(DriverManager.getConnection(url), 10, 50, 100);
+      DicomObject again = instance("P", "1.2.3", "1.2.3.1", "1.2.3.9.1", 7);
+      again.addVR(new VR("Modality", new DicomString("MR")));
+      indexer.index(again, new File("second"));
+      indexer.close();
+      
+      assertEquals(0, indexer.getFailedCount());
+      assertEquals(1, count("objects"));
+      assertEquals("second", value("SELECT path FROM objects"));
+      assertEquals("7", value("SELECT instance FROM objects"));
+      assertEquals("MR", value("SELECT modality FROM series"));
+   }
+   
+   // Every instance index() accepted while close() runs is written, the
+   // rest are counted as failed
+   @Test
+   public void closeWritesEverythingAccepted() throws Exception {
+      StorageIndexer indexer = new StorageIndexer(DriverManager.getConnection(url), 5, 10, 8);
+      Thread[] threads = new Thread[4];
+      for (int t=0; t<threads.length; t++) {
+         final int thread = t;
+         threads[t] = new Thread(() -> {
+            try {
+               for (int i=0; i<200; i++) {
+                  indexer.index(instance("P", "1.2.3", "1.2.3.1", "1.2.3.9." + thread + "." + i, i), new File("f" + i));
+               }
+            }
+            catch (InterruptedException e) {}
+         });
+         threads[t].start();
+      }
+      Thread.sleep(20);
+      indexer.close();
+      for (Thread thread : threads) {
+         thread.join();
+      }
+      
+      assertEquals(800, indexer.getIndexedCount() + indexer.getFailedCount());
+      assertEquals(indexer.getIndexedCount(), count("objects"));
+      assertEquals(0, indexer.getQueueDepth());
+   }
+   
+   @Test
+   public void dropsInstancesIndexedAfterClose() throws Exception {
+      StorageIndexer indexer = new StorageIndexer(DriverManager.getConnection(url));
+      indexer.close();
+      
+      indexer.index(instance("P", "1.2.3", "1.2.3.1", "1.2.3.9.1", 1), new File("late"));
+      
+      assertEquals(1, indexer.getFailedCount());
+      assertEquals(0, indexer.getQueueDepth());
+      assertEquals(0, count("objects"));
+   }
+   
+   private static DicomObject instance(String patientID, String studyUID, String seriesUID, String sopUID, int number) {
+      DicomObject obj = new DicomObject();
+      obj.addVR(new VR("PatientID", new DicomString(patientID)));
+      obj.addVR(new VR("StudyInstanceUID", new DicomString(studyUID)));
+      obj.addVR(new VR("SeriesInstanceUID", new DicomString(seriesUID)));
+      obj.addVR(new VR("SOPInstanceUID", new DicomString(sopUID)));
+      obj.addVR(new VR("Modality", new DicomString("CT")));
+      obj.addVR(new VR("InstanceNumber", new DicomNumber(number)));
+      return obj;
+   }
+   
+   private String value(String query) throws Exception {
+      try (Statement st = check.createStatement(); ResultSet rs = st.executeQuery(query)) {
+         rs.next();
+         return rs.getString(1);
+      }
+   }
+   
+   private int count(String table) throws Exception {
+      try (Statement st = check.createStatement(); ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM " + table)) {
+         rs.next();
+         return rs.getInt(1);
+      }
+   }
+}
@@ -0,0 +1,165 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom.net;
+
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.fusfoundation.dicom.DicomObject;
+import org.fusfoundation.dicom.DicomObjectReader;
+import org.fusfoundation.dicom.part10.DicomFileReader;
+import org.fusfoundation.dicom.part10.SyntheticSeries;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Sends a synthetic CT series to a StorageServer over several associations
+ * and checks every instance was written out with its pixel data intact.
+ *
+ * @author  jsnell
+ */
+public class StorageServiceTest {
+   
+   @Rule
+   public TemporaryFolder folder = new TemporaryFolder();
+   
+   @Test
+   public void storesEveryInstance() throws Exception {
+      // Association logs every PDU at INFO
+      Logger.getGlobal().setLevel(Level.WARNING);
+      
+      List<File> files = SyntheticSeries.writeCTSeries(folder.newFolder("scu"), 24, 64, 64);
+      Map<String, DicomObject> sent = new HashMap<>();
+      for (File f : files) {
+         DicomObject obj = read(f);
+         sent.put(obj.getVR("SOPInstanceUID").getStringValue().trim(), obj);
+      }
+      
+      File storageDir = folder.newFolder("scp");
+      StorageServer server = new StorageServer(storageDir, 0, 3);
+      server.start();
+      try {
+         assertEquals(files.size(), send(server.getPort(), new ArrayList<>(sent.values()), 3));
+      }
+      finally {
+         server.stop();
+      }
+      
+      List<File> stored = new ArrayList<>();
+      listFiles(storageDir, stored);
+      assertEquals(files.size(), stored.size());
+      for (File f : stored) {
+         DicomObject obj = read(f);
+         DicomObject original = sent.remove(obj.getVR("SOPInstanceUID").getStringValue().trim());
+         assertNotNull(f.getName(), original);
+         assertArrayEquals(f.getName(), original.getVR("PixelData").getValueBytes(), obj.getVR("PixelData").getValueBytes());
+      }
+      assertTrue(sent.isEmpty());
+   }
+   
+   // Sends objects split over clients associations, returns the number stored
+   private static int send(int port, List<DicomObject> objects, int clients) throws Exception {
+      ExecutorService pool = Executors.newFixedThreadPool(clients);
+      try {
+         List<Future<Integer>> results = new ArrayList<>();
+         for (int c=0; c<clients; c++) {
+            List<DicomObject> share = new ArrayList<>();
+            for (int i=c; i<objects.size(); i+=clients) {
+               share.add(objects.get(i));
+            }
+            results.add(pool.submit(() -> sendAssociation(port, share)));
+         }
+         
+         int stored = 0;
+         for (Future<Integer> result : results) {
+            stored += result.get();
+         }
+         return stored;
+      }
+      finally {
+         pool.shutdown();
+      }
+   }
+   
+   private static int sendAssociation(int port, List<DicomObject> objects) throws Exception {
+      StorageUser storageClient = new StorageUser();
+      AssociationFactory af = new AssociationFactory();
+      af.AddUser(storageClient);
+      
+      try (SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", port))) {
+         channel.socket().setTcpNoDelay(true);
+         Association assoc = af.CreateUserAssociation("TESTSCU", "KRANION",
+               new ChannelInputStream(channel), new ChannelOutputStream(channel));
+         if (assoc == null) {
+            return 0;
+         }
+         
+         int stored = 0;
+         for (DicomObject obj : objects) {
+            if (storageClient.storeObject(obj)) {
+               stored++;
+            }
+         }
+         
+         assoc.sendReleaseRq();
+         assoc.Receive();
+         return stored;
+      }
+   }
+   
+   private static DicomObject read(File f) throws Exception {
+      DicomFileReader dfr = new DicomFileReader(f);
+      try {
+         return new DicomObjectReader(dfr).read();
+      }
+      finally {
+         dfr.close();
+      }
+   }
+   
+   private static void listFiles(File dir, List<File> files) {
+      File[] list = dir.listFiles();
+      if (list != null) {
+         for (File f : list) {
+            if (f.isDirectory()) {
+               listFiles(f, files);
+            }
+            else {
+               files.add(f);
+            }
+         }
+      }
+   }
+}
@@ -0,0 +1,237 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom.part10;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import org.fusfoundation.dicom.DicomObject;
+import org.fusfoundation.dicom.DicomObjectReader;
+import org.fusfoundation.dicom.PixelDataHandle;
+import org.fusfoundation.dicom.VR;
+import org.fusfoundation.dicom.VrBufferReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the windowed, buffered DicomFileReader reads the same objects
+ * as the stream reader, and that deferred pixel data past the first window,
+ * or too large for a buffer, is located without being read.
+ *
+ * @author jsnell
+ */
+public class DicomFileReaderTest {
+    
+    private static final String EXPLICIT_LE = "1.2.840.10008.1.2.1";
+    private static final String JPEG_LOSSLESS = "1.2.840.10008.1.2.4.70";
+    
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+    
+    @Test
+    public void encapsulatedPixelDataPastTheWindow() throws Exception {
+        int frameCount = 5;
+        byte[][] fragments = new byte[frameCount][];
+        ByteArrayOutputStream items = new ByteArrayOutputStream();
+        item(items, 0xE000, new byte[0]); // empty basic offset table
+        for (int i=0; i<frameCount; i++) {
+            fragments[i] = new byte[VrBufferReader.HEADER_WINDOW / 2 + i];
+            for (int j=0; j<fragments[i].length; j++) {
+                fragments[i][j] = (byte)(i*31 + j);
+            }
+            item(items, 0xE000, fragments[i]);
+        }
+        item(items, 0xE0DD, new byte[0]);
+        
+        File file = writeFile(JPEG_LOSSLESS, frameCount, -1, items.toByteArray());
+        
+        DicomObject streamed = read(file, false, false);
+        DicomObject deferred = read(file, true, true);
+        
+        PixelDataHandle handle = deferred.getVR("PixelData").getPixelDataHandle();
+        assertNotNull(handle);
+        assertTrue(handle.isEncapsulated());
+        assertNotNull("element after the pixel data", deferred.getVR(0xFFFC, 0xFFFC));
+        assertEquals(streamed.getVR("Rows").getIntValue(), deferred.getVR("Rows").getIntValue());
+        
+        List<byte[]> frames = handle.readFrames();
+        assertEquals(frameCount, frames.size());
+        try (FileChannel channel = handle.openChannel()) {
+            for (int i=0; i<frameCount; i++) {
+                assertArrayEquals(fragments[i], frames.get(i));
+                assertArrayEquals(fragments[i], handle.readFrame(channel, i, frameCount));
+            }
+        }
+    }
+    
+    @Test
+    public void bufferedReadMatchesStream() throws Exception {
+        byte[] pixels = new byte[3 * VrBufferReader.HEADER_WINDOW];
+        for (int i=0; i<pixels.length; i++) {
+            pixels[i] = (byte)(i * 7);
+        }
+        File file = writeFile(EXPLICIT_LE, 1, pixels.length, pixels);
+        
+        DicomObject streamed = read(file, false, false);
+        DicomObject buffered = read(file, true, false);
+        DicomObject deferred = read(file, true, true);
+        
+        assertEquals(readHeader(file, false).toString(), readHeader(file, true).toString());
+        assertArrayEquals(streamed.getVR("PixelData").getValueBytes(), buffered.getVR("PixelData").getValueBytes());
+        assertArrayEquals(streamed.getVR("PixelData").getValueBytes(), deferred.getVR("PixelData").getValueBytes());
+        assertNotNull(deferred.getVR(0xFFFC, 0xFFFC));
+    }
+    
+    // A sparse file with more than 2 GB of native pixel data. Only the
+    // header and the frame asked for are read.
+    @Test
+    public void nativePixelDataOver2GB() throws Exception {
+        long length = 0xC0000000L; // 3 GB
+        int frameCount = 3072;
+        int frameBytes = (int)(length / frameCount);
+        
+        File file = writeFile(EXPLICIT_LE, frameCount, length, new byte[0]);
+        long pixelOffset = file.length();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(pixelOffset + 2000L * frameBytes);
+            raf.write(new byte[] {1, 2, 3, 4});
+            raf.seek(pixelOffset + length);
+            raf.write(trailingPadding());
+        }
+        
+        DicomObject deferred = read(file, true, true);
+        PixelDataHandle handle = deferred.getVR("PixelData").getPixelDataHandle();
+        assertNotNull(handle);
+        assertEquals(pixelOffset, handle.getOffset());
+        assertEquals(length, handle.getLength());
+        assertNotNull("element after the pixel data", deferred.getVR(0xFFFC, 0xFFFC));
+        
+        try (FileChannel channel = handle.openChannel()) {
+            byte[] frame = handle.readFrame(channel, 2000, frameCount);
+            assertEquals(frameBytes, frame.length);
+            // OW is byte swapped from little endian
+            assertArrayEquals(new byte[] {2, 1, 4, 3}, java.util.Arrays.copyOf(frame, 4));
+        }
+    }
+    
+    private static DicomObject read(File file, boolean buffered, boolean defer) throws Exception {
+        DicomFileReader reader = new DicomFileReader(file, buffered);
+        try {
+            reader.setDeferPixelData(defer);
+            return new DicomObjectReader(reader).read();
+        }
+        finally {
+            reader.close();
+        }
+    }
+    
+    private static DicomObject readHeader(File file, boolean buffered) throws Exception {
+        DicomFileReader reader = new DicomFileReader(file, buffered);
+        try {
+            reader.setReadPixelData(false);
+            return new DicomObjectReader(reader).read();
+        }
+        finally {
+            reader.close();
+        }
+    }
+    
+    // Part 10 file, explicit VR little endian dataset with PixelData last
+    // but for a trailing padding element. With a negative pixelLength the
+    // pixel data is encapsulated and pixels holds its items. The trailing
+    // element is only written if all of the pixel data is.
+    private File writeFile(String transferSyntax, int frameCount, long pixelLength, byte[] pixels) throws IOException {
+        ByteArrayOutputStream meta = new ByteArrayOutputStream();
+        element(meta, 0x0002, 0x0010, "UI", uid(transferSyntax));
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[128]);
+        out.write(new byte[] {'D', 'I', 'C', 'M'});
+        element(out, 0x0002, 0x0000, "UL", le(4).putInt(meta.size()).array());
+        meta.writeTo(out);
+        
+        element(out, 0x0008, 0x0060, "CS", "MR".getBytes("US-ASCII"));
+        element(out, 0x0028, 0x0002, "US", le(2).putShort((short)1).array());
+        element(out, 0x0028, 0x0008, "IS", String.format("%-4d", frameCount).getBytes("US-ASCII"));
+        element(out, 0x0028, 0x0010, "US", le(2).putShort((short)64).array());
+        element(out, 0x0028, 0x0011, "US", le(2).putShort((short)64).array());
+        element(out, 0x0028, 0x0100, "US", le(2).putShort((short)16).array());
+        
+        out.write(le(12).putShort((short)0x7FE0).putShort((short)0x0010)
+                .put((byte)'O').put((byte)(pixelLength < 0 ? 'B' : 'W'))
+                .putShort((short)0).putInt((int)(pixelLength < 0 ? 0xFFFFFFFFL : pixelLength)).array());
+        out.write(pixels);
+        if (pixelLength < 0 || pixels.length == pixelLength) {
+            out.write(trailingPadding());
+        }
+        
+        File file = tmp.newFile();
+        try (FileOutputStream fos = new FileOutputStream(file)) {
+            out.writeTo(fos);
+        }
+        return file;
+    }
+    
+    private static byte[] trailingPadding() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        element(out, 0xFFFC, 0xFFFC, "OB", new byte[4]);
+        return out.toByteArray();
+    }
+    
+    private static void element(ByteArrayOutputStream out, int group, int element, String vr, byte[] value) throws IOException {
+        boolean longForm = vr.equals("OB") || vr.equals("OW");
+        ByteBuffer header = le(longForm ? 12 : 8).putShort((short)group).putShort((short)element)
+                .put((byte)vr.charAt(0)).put((byte)vr.charAt(1));
+        if (longForm) {
+            header.putShort((short)0).putInt(value.length);
+        }
+        else {
+            header.putShort((short)value.length);
+        }
+        out.write(header.array());
+        out.write(value);
+    }
+    
+    private static void item(ByteArrayOutputStream out, int element, byte[] value) throws IOException {
+        out.write(le(8).putShort((short)0xFFFE).putShort((short)element).putInt(value.length).array());
+        out.write(value);
+    }
+    
+    private static byte[] uid(String uid) throws IOException {
+        byte[] value = uid.getBytes("US-ASCII");
+        return value.length % 2 == 0 ? value : java.util.Arrays.copyOf(value, value.length + 1);
+    }
+    
+    private static ByteBuffer le(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,140 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom.part10;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.fusfoundation.dicom.DicomNumber;
+import org.fusfoundation.dicom.DicomObject;
+import org.fusfoundation.dicom.DicomString;
+import org.fusfoundation.dicom.DicomUnknown;
+import org.fusfoundation.dicom.UID;
+import org.fusfoundation.dicom.VR;
+import org.fusfoundation.util.StringConvert;
+
+/**
+ * Writes synthetic axial CT or MR series for the tests: a typical set of
+ * header elements and a ramp pattern for pixel data.
+ *
+ * @author jsnell
+ */
+public class SyntheticSeries {
+    
+    private static int seriesCount = 0;
+    
+    public static List<File> writeCTSeries(File dir, int sliceCount, int rows, int cols) throws IOException {
+        return write(dir, UID.CTImageStorage, sliceCount, rows, cols);
+    }
+    
+    public static List<File> writeMRSeries(File dir, int sliceCount, int rows, int cols) throws IOException {
+        return write(dir, UID.MRImageStorage, sliceCount, rows, cols);
+    }
+    
+    private static synchronized String nextSeriesUID() {
+        return "1.2.826.0.1.3680043.2.1143." + System.currentTimeMillis() + "." + (++seriesCount);
+    }
+    
+    private static List<File> write(File dir, UID sopClass, int sliceCount, int rows, int cols) throws IOException {
+        boolean ct = sopClass.equals(UID.CTImageStorage);
+        String modality = ct ? "CT" : "MR";
+        List<File> files = new ArrayList<>(sliceCount);
+        String seriesUID = nextSeriesUID();
+        byte[] pixels = new byte[rows * cols * 2];
+        
+        for (int slice=0; slice<sliceCount; slice++) {
+            String instanceUID = seriesUID + "." + (slice + 1);
+            
+            // pixel data is held big-endian in memory
+            for (int p=0; p<rows*cols; p++) {
+                int value = (p + slice) & 0x0fff;
+                pixels[p*2] = (byte)((value >>> 8) & 0xff);
+                pixels[p*2+1] = (byte)(value & 0xff);
+            }
+            
+            float z = -250f + slice * 0.5f;
+            
+            DicomObject obj = new DicomObject();
+            obj.addVR(new VR("SOPClassUID", new DicomString(sopClass.toString())));
+            obj.addVR(new VR("SOPInstanceUID", new DicomString(instanceUID)));
+            obj.addVR(new VR("StudyDate", textValue("20210101")));
+            obj.addVR(new VR("AcquisitionDate", textValue("20210101")));
+            obj.addVR(new VR("AcquisitionTime", textValue("120000")));
+            obj.addVR(new VR("Modality", new DicomString(modality)));
+            obj.addVR(new VR("InstitutionName", new DicomString("Test")));
+            obj.addVR(new VR("SeriesDescription", new DicomString("Synthetic Head")));
+            obj.addVR(new VR("PatientName", textValue("Synthetic^Patient")));
+            obj.addVR(new VR("PatientID", new DicomString("000000")));
+            obj.addVR(new VR("PatientBirthDate", textValue("19700101")));
+            obj.addVR(new VR("PatientSex", new DicomString("O")));
+            obj.addVR(new VR("SliceThickness", new DicomNumber(0.5f)));
+            obj.addVR(new VR("ProtocolName", new DicomString("Synthetic")));
+            obj.addVR(new VR("StudyInstanceUID", new DicomString(seriesUID + ".0")));
+            obj.addVR(new VR("SeriesInstanceUID", new DicomString(seriesUID)));
+            obj.addVR(new VR("InstanceNumber", new DicomNumber(slice + 1)));
+            obj.addVR(new VR("ImagePositionPatient", new Object[] {
+                new DicomNumber(-128f), new DicomNumber(-128f), new DicomNumber(z) }));
+            obj.addVR(new VR("ImageOrientationPatient", new Object[] {
+                new DicomNumber(1f), new DicomNumber(0f), new DicomNumber(0f),
+                new DicomNumber(0f), new DicomNumber(1f), new DicomNumber(0f) }));
+            obj.addVR(new VR("SliceLocation", new DicomNumber(z)));
+            obj.addVR(new VR("SamplesPerPixel", new DicomNumber(1)));
+            obj.addVR(new VR("PhotometricInterpretation", new DicomString("MONOCHROME2")));
+            obj.addVR(new VR("Rows", new DicomNumber(rows)));
+            obj.addVR(new VR("Columns", new DicomNumber(cols)));
+            obj.addVR(new VR("PixelSpacing", new Object[] { new DicomNumber(0.5f), new DicomNumber(0.5f) }));
+            obj.addVR(new VR("BitsAllocated", new DicomNumber(16)));
+            obj.addVR(new VR("BitsStored", new DicomNumber(12)));
+            obj.addVR(new VR("HighBit", new DicomNumber(11)));
+            obj.addVR(new VR("PixelRepresentation", new DicomNumber(0)));
+            obj.addVR(new VR("WindowCenter", new DicomNumber(40f)));
+            obj.addVR(new VR("WindowWidth", new DicomNumber(400f)));
+            if (ct) {
+                obj.addVR(new VR("ConvolutionKernel", new DicomString("H30s")));
+                obj.addVR(new VR("RescaleIntercept", new DicomNumber(-1024f)));
+                obj.addVR(new VR("RescaleSlope", new DicomNumber(1f)));
+            }
+            else {
+                obj.addVR(new VR("EchoTime", new DicomNumber(12f)));
+            }
+            obj.addVR(new VR("PixelData", new DicomUnknown(pixels)));
+            
+            File file = new File(dir, modality + (slice + 1) + ".dcm");
+            DicomFileWriter writer = new DicomFileWriter(file, sopClass.toString(), instanceUID);
+            writer.write(obj);
+            files.add(file);
+        }
+        
+        return files;
+    }
+    
+    // even length padded value bytes for string VRs that DicomString doesn't encode
+    private static byte[] textValue(String s) {
+        if (s.length() % 2 != 0) {
+            s = s + " ";
+        }
+        return StringConvert.stringToBytes(s);
+    }
+}
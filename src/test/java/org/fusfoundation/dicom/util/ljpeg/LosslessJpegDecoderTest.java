@@ -0,0 +1,362 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.dicom.util.ljpeg;
+
+import com.pixelmed.codec.jpeg.OutputArrayOrStream;
+import com.pixelmed.codec.jpeg.Parse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Compares LosslessJpegDecoder with the pixelmed Parse decoder that
+ * DicomImageLoader used before, on synthetic 16 bit CT frames encoded here
+ * as JPEG Lossless with optimal Huffman tables, for every predictor, with
+ * and without restart intervals.
+ *
+ * @author jsnell
+ */
+public class LosslessJpegDecoderTest {
+    
+    private static final int SIZE = 128;
+    
+    @Test
+    public void agreesWithPixelmedForEveryPredictor() throws Exception {
+        short[] phantom = syntheticCTFrame(SIZE, SIZE, new Random(1234));
+        for (int predictor=1; predictor<=7; predictor++) {
+            for (int restartInterval : new int[] {0, SIZE * 16}) {
+                String name = "predictor " + predictor + ", restart interval " + restartInterval;
+                byte[] jpeg = encode(phantom, SIZE, SIZE, 16, predictor, restartInterval);
+                short[] decoded = new short[SIZE * SIZE];
+                new LosslessJpegDecoder(jpeg).decode(decoded, 0);
+                assertArrayEquals(name, phantom, decoded);
+                assertArrayEquals(name, decodePixelmed(jpeg), decoded);
+            }
+        }
+    }
+    
+    @Test
+    public void decodesAtOffset() throws Exception {
+        short[] phantom = syntheticCTFrame(SIZE, SIZE, new Random(5678));
+        byte[] jpeg = encode(phantom, SIZE, SIZE, 16, 1, 0);
+        short[] volume = new short[3 * SIZE * SIZE];
+        new LosslessJpegDecoder(jpeg).decode(volume, SIZE * SIZE);
+        
+        assertArrayEquals(phantom, Arrays.copyOfRange(volume, SIZE * SIZE, 2 * SIZE * SIZE));
+        assertArrayEquals(new short[SIZE * SIZE], Arrays.copyOfRange(volume, 0, SIZE * SIZE));
+        assertArrayEquals(new short[SIZE * SIZE], Arrays.copyOfRange(volume, 2 * SIZE * SIZE, 3 * SIZE * SIZE));
+    }
+    
+    // The way DicomImageLoader decoded frames with pixelmed
+    private static short[] decodePixelmed(byte[] jpeg) throws Exception {
+        Parse.DecompressedOutput decomOutput = new Parse.DecompressedOutput(null, ByteOrder.BIG_ENDIAN);
+        Parse.parse(new ByteArrayInputStream(jpeg), null, null, decomOutput);
+        OutputArrayOrStream[] compStreams = decomOutput.getDecompressedOutputPerComponent();
+        return compStreams[0].getShortArray();
+    }
+    
+    // An axial head slice with CT numbers offset by 1024: air, skull, brain
+    // and some noise
+    private static short[] syntheticCTFrame(int rows, int cols, Random random) {
+        short[] pixels = new short[rows * cols];
+        double cx = cols / 2.0 + random.nextGaussian() * 4;
+        double cy = rows / 2.0 + random.nextGaussian() * 4;
+        double a = cols * 0.38;
+        double b = rows * 0.45;
+        
+        for (int y=0; y<rows; y++) {
+            for (int x=0; x<cols; x++) {
+                double dx = (x - cx) / a;
+                double dy = (y - cy) / b;
+                double r = Math.sqrt(dx*dx + dy*dy);
+                double value;
+                if (r > 1.0) {
+                    value = 24 + random.nextGaussian() * 3; // air
+                }
+                else if (r > 0.92) {
+                    value = 2200 + 300 * Math.sin(x * 0.05) + random.nextGaussian() * 40; // skull
+                }
+                else {
+                    value = 1060 + 15 * Math.sin(x * 0.03) * Math.cos(y * 0.02) + random.nextGaussian() * 8; // brain
+                }
+                pixels[y * cols + x] = (short)Math.max(0, Math.min(4095, Math.round(value)));
+            }
+        }
+        return pixels;
+    }
+    
+    // Encodes a single component JPEG Lossless frame with an optimal
+    // Huffman table (ISO 10918-1 K.2)
+    private static byte[] encode(short[] pixels, int width, int height, int precision, int predictor, int restartInterval) throws IOException {
+        int count = width * height;
+        int[] differences = new int[count];
+        int linesPerInterval = restartInterval == 0 ? height : restartInterval / width;
+        
+        for (int line=0, i=0; line<height; line++) {
+            boolean firstLineOfInterval = line % linesPerInterval == 0;
+            for (int x=0; x<width; x++, i++) {
+                int prediction;
+                if (firstLineOfInterval) {
+                    prediction = x == 0 ? 1 << (precision - 1) : pixels[i-1] & 0xffff;
+                }
+                else if (x == 0) {
+                    prediction = pixels[i-width] & 0xffff;
+                }
+                else {
+                    int ra = pixels[i-1] & 0xffff;
+                    int rb = pixels[i-width] & 0xffff;
+                    int rc = pixels[i-width-1] & 0xffff;
+                    switch (predictor) {
+                        case 1:  prediction = ra; break;
+                        case 2:  prediction = rb; break;
+                        case 3:  prediction = rc; break;
+                        case 4:  prediction = ra + rb - rc; break;
+                        case 5:  prediction = ra + ((rb - rc) >> 1); break;
+                        case 6:  prediction = rb + ((ra - rc) >> 1); break;
+                        default: prediction = (ra + rb) >> 1; break;
+                    }
+                }
+                int difference = ((pixels[i] & 0xffff) - prediction) & 0xffff;
+                differences[i] = difference > 32768 ? difference - 65536 : difference;
+            }
+        }
+        
+        int[] frequency = new int[17];
+        for (int difference : differences) {
+            frequency[category(difference)]++;
+        }
+        int[] codeSize = huffmanCodeSizes(frequency);
+        int[] bits = new int[17];
+        for (int s=0; s<17; s++) {
+            if (codeSize[s] > 0) bits[codeSize[s]]++;
+        }
+        
+        // canonical codes in order of code size, then symbol
+        int[] code = new int[17];
+        int[] huffval = new int[17];
+        int nCodes = 0;
+        int nextCode = 0;
+        for (int length=1; length<=16; length++) {
+            for (int s=0; s<17; s++) {
+                if (codeSize[s] == length) {
+                    code[s] = nextCode++;
+                    huffval[nCodes++] = s;
+                }
+            }
+            nextCode <<= 1;
+        }
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream(count);
+        writeMarker(out, 0xd8); // SOI
+        
+        writeMarker(out, 0xc3); // SOF3
+        writeShort(out, 11);
+        out.write(precision);
+        writeShort(out, height);
+        writeShort(out, width);
+        out.write(1);
+        out.write(1);    // component id
+        out.write(0x11); // sampling factors
+        out.write(0);
+        
+        writeMarker(out, 0xc4); // DHT
+        writeShort(out, 2 + 1 + 16 + nCodes);
+        out.write(0x00); // DC table 0
+        for (int length=1; length<=16; length++) {
+            out.write(bits[length]);
+        }
+        for (int i=0; i<nCodes; i++) {
+            out.write(huffval[i]);
+        }
+        
+        if (restartInterval > 0) {
+            writeMarker(out, 0xdd); // DRI
+            writeShort(out, 4);
+            writeShort(out, restartInterval);
+        }
+        
+        writeMarker(out, 0xda); // SOS
+        writeShort(out, 8);
+        out.write(1);
+        out.write(1);    // component id
+        out.write(0x00); // DC table 0
+        out.write(predictor);
+        out.write(0);
+        out.write(0);    // point transform
+        
+        BitWriter writer = new BitWriter(out);
+        int restartNumber = 0;
+        for (int i=0; i<count; i++) {
+            if (restartInterval > 0 && i > 0 && i % restartInterval == 0) {
+                writer.flush();
+                writeMarker(out, 0xd0 + (restartNumber++ & 7));
+            }
+            int difference = differences[i];
+            int s = category(difference);
+            writer.write(code[s], codeSize[s]);
+            if (s > 0 && s < 16) {
+                writer.write(difference < 0 ? difference - 1 : difference, s);
+            }
+        }
+        writer.flush();
+        
+        writeMarker(out, 0xd9); // EOI
+        return out.toByteArray();
+    }
+    
+    private static int category(int difference) {
+        if (difference == 32768) {
+            return 16;
+        }
+        return 32 - Integer.numberOfLeadingZeros(Math.abs(difference));
+    }
+    
+    // Code sizes limited to 16 bits for symbols 0-16 (ISO 10918-1 K.2, K.3)
+    private static int[] huffmanCodeSizes(int[] frequency) {
+        int n = frequency.length + 1; // one reserved symbol so no code is all ones
+        long[] freq = new long[n];
+        for (int i=0; i<frequency.length; i++) {
+            freq[i] = frequency[i];
+        }
+        freq[n-1] = 1;
+        
+        int[] codeSize = new int[n];
+        int[] others = new int[n];
+        Arrays.fill(others, -1);
+        
+        while (true) {
+            int v1 = -1;
+            int v2 = -1;
+            for (int i=0; i<n; i++) {
+                if (freq[i] > 0 && (v1 < 0 || freq[i] <= freq[v1])) v1 = i;
+            }
+            for (int i=0; i<n; i++) {
+                if (i != v1 && freq[i] > 0 && (v2 < 0 || freq[i] <= freq[v2])) v2 = i;
+            }
+            if (v2 < 0) {
+                break;
+            }
+            
+            freq[v1] += freq[v2];
+            freq[v2] = 0;
+            
+            codeSize[v1]++;
+            while (others[v1] >= 0) {
+                v1 = others[v1];
+                codeSize[v1]++;
+            }
+            others[v1] = v2;
+            
+            codeSize[v2]++;
+            while (others[v2] >= 0) {
+                v2 = others[v2];
+                codeSize[v2]++;
+            }
+        }
+        
+        int[] bits = new int[33];
+        for (int i=0; i<n; i++) {
+            if (codeSize[i] > 0) bits[codeSize[i]]++;
+        }
+        for (int i=32; i>16; i--) {
+            while (bits[i] > 0) {
+                int j = i - 2;
+                while (bits[j] == 0) j--;
+                bits[i] -= 2;
+                bits[i-1]++;
+                bits[j+1] += 2;
+                bits[j]--;
+            }
+        }
+        int last = 16;
+        while (bits[last] == 0) last--;
+        bits[last]--; // drop the reserved symbol
+        
+        // hand the limited sizes back out, most frequent symbols get the shortest codes
+        Integer[] order = new Integer[n-1];
+        for (int i=0; i<n-1; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(frequency[b], frequency[a]));
+        int[] sizes = new int[n-1];
+        int length = 1;
+        for (int i=0; i<n-1 && frequency[order[i]] > 0; i++) {
+            while (bits[length] == 0) length++;
+            sizes[order[i]] = length;
+            bits[length]--;
+        }
+        return sizes;
+    }
+    
+    private static void writeMarker(ByteArrayOutputStream out, int marker) {
+        out.write(0xff);
+        out.write(marker);
+    }
+    
+    private static void writeShort(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 8);
+        out.write(value & 0xff);
+    }
+    
+    // Entropy coded segment writer, stuffs a zero after each 0xff
+    private static class BitWriter {
+        private final ByteArrayOutputStream out;
+        private long buffer;
+        private int count;
+        
+        BitWriter(ByteArrayOutputStream out) {
+            this.out = out;
+        }
+        
+        void write(int bits, int length) {
+            buffer = buffer << length | (bits & ((1L << length) - 1));
+            count += length;
+            while (count >= 8) {
+                count -= 8;
+                writeByte((int)(buffer >>> count) & 0xff);
+            }
+        }
+        
+        // pads the last byte with ones
+        void flush() {
+            if (count > 0) {
+                write((1 << (8 - count)) - 1, 8 - count);
+            }
+            buffer = 0;
+            count = 0;
+        }
+        
+        private void writeByte(int b) {
+            out.write(b);
+            if (b == 0xff) {
+                out.write(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import org.fusfoundation.kranion.model.image.ImageVolume;
+import org.fusfoundation.kranion.model.image.ImageVolume4D;
+import org.junit.Test;
+import org.lwjgl.util.vector.Vector3f;
+import static org.junit.Assert.*;
+
+/**
+ * GradientVolumeEngine in each output format against the single threaded
+ * loop ImageGradientVolume.calculateSW() used before, on a synthetic CT of
+ * nested spheres, and on volumes too thin to have an interior.
+ *
+ * @author jsnell
+ */
+public class GradientVolumeEngineTest {
+    
+    private static final int SIZE = 64;
+    private static final int SLICES = 40;
+    
+    @Test
+    public void matchesOldLoop() {
+        ImageVolume4D image = spheres(SIZE, SLICES);
+        FloatBuffer reference = calculateOld(image);
+        
+        GradientVolumeEngine engine = new GradientVolumeEngine();
+        assertEquals(0f, maxError(reference, engine.calculate(image, GradientVolumeEngine.Format.FLOAT), GradientVolumeEngine.Format.FLOAT), 1e-4f);
+        assertEquals(0f, maxError(reference, engine.calculate(image, GradientVolumeEngine.Format.HALF), GradientVolumeEngine.Format.HALF), 1e-3f);
+        assertEquals(0f, maxError(reference, engine.calculate(image, GradientVolumeEngine.Format.OCTAHEDRAL), GradientVolumeEngine.Format.OCTAHEDRAL), 2e-2f);
+    }
+    
+    @Test
+    public void thinVolumesAreZero() {
+        GradientVolumeEngine engine = new GradientVolumeEngine();
+        int[][] sizes = { {32, 32, 1}, {32, 32, 2}, {32, 2, 8}, {1, 32, 8} };
+        for (int[] size : sizes) {
+            ImageVolume4D image = new ImageVolume4D(ImageVolume.USHORT_VOXEL, size[0], size[1], size[2], 1);
+            short[] voxels = (short[])image.getData();
+            for (int i=0; i<voxels.length; i++) {
+                voxels[i] = (short)(i * 37 % 4096);
+            }
+            for (GradientVolumeEngine.Format format : GradientVolumeEngine.Format.values()) {
+                ByteBuffer result = engine.calculate(image, format);
+                assertEquals(voxels.length * format.getBytesPerVoxel(), result.capacity());
+                for (int i=0; i<result.capacity(); i++) {
+                    assertEquals(0, result.get(i));
+                }
+            }
+        }
+    }
+    
+    private static ImageVolume4D spheres(int size, int slices) {
+        ImageVolume4D image = new ImageVolume4D(ImageVolume.USHORT_VOXEL, size, size, slices, 1);
+        image.setPixelSize(0.5f, 0.5f);
+        image.getDimension(2).setSampleWidth(1f);
+        image.getDimension(2).setSampleSpacing(1f);
+        
+        short[] voxels = (short[])image.getData();
+        for (int z=0; z<slices; z++) {
+            for (int y=0; y<size; y++) {
+                for (int x=0; x<size; x++) {
+                    float dx = (x - size/2) * 0.5f, dy = (y - size/2) * 0.5f, dz = z - slices/2;
+                    float r = (float)Math.sqrt(dx*dx + dy*dy + dz*dz);
+                    voxels[image.getVoxelOffset(x, y, z)] = (short)(r < 8f ? 2000 : r < 13f ? 1100 : 1000 + (x*7 + y*3 + z) % 40);
+                }
+            }
+        }
+        return image;
+    }
+    
+    // Largest difference between unit normals, and checks magnitudes agree
+    // to the format's precision. Only gradients of at least one unit are
+    // compared, below that the direction is float rounding in the old sum.
+    private static float maxError(FloatBuffer reference, ByteBuffer result, GradientVolumeEngine.Format format) {
+        float worst = 0f;
+        float[] n = new float[4];
+        int bytes = format.getBytesPerVoxel();
+        for (int i=0; i<reference.capacity()/4; i++) {
+            float mag = reference.get(i*4 + 3);
+            if (!(mag >= 1f)) {
+                continue;
+            }
+            switch(format) {
+                case FLOAT:
+                    for (int k=0; k<4; k++) {
+                        n[k] = result.getFloat(i*bytes + k*4);
+                    }
+                    break;
+                case HALF:
+                    for (int k=0; k<4; k++) {
+                        n[k] = GradientVolumeEngine.halfToFloat(result.getShort(i*bytes + k*2));
+                    }
+                    break;
+                case OCTAHEDRAL:
+                    n[3] = GradientVolumeEngine.decodeOctahedral(result.getInt(i*bytes), n);
+                    break;
+            }
+            for (int k=0; k<3; k++) {
+                worst = Math.max(worst, Math.abs(n[k] - reference.get(i*4 + k)));
+            }
+            assertEquals("magnitude at " + i, mag, n[3], mag * 2e-3f + 1e-3f);
+        }
+        return worst;
+    }
+    
+    // ImageGradientVolume.calculateSW() as it was, less the texture upload
+    private static FloatBuffer calculateOld(ImageVolume image) {
+        int iWidth = image.getDimension(0).getSize();
+        int iHeight = image.getDimension(1).getSize();
+        int iDepth = image.getDimension(2).getSize();
+        
+        Vector3f voxelSize = new Vector3f(image.getDimension(0).getSampleWidth(0), image.getDimension(1).getSampleWidth(1), image.getDimension(2).getSampleWidth(2));
+        
+        int[] pixelOffsets = new int[27];
+        for (int i = 0; i < 27; i++) {
+            pixelOffsets[i] = (i / 9 - 1) + ((i % 3) - 1) * iWidth + ((i / 3) % 3 - 1) * iWidth * iHeight;
+        }
+        
+        float sqr3 = (float) Math.sqrt(3.0) / 3;
+        float sqr2 = (float) Math.sqrt(2.0) / 2;
+        float[][] weights = new float[3][27];
+        for (int i = 0; i < 27; i++) {
+            int dx = i / 9 - 1, dy = (i % 3) - 1, dz = (i / 3) % 3 - 1;
+            int[] d = { dx, dy, dz };
+            for (int axis = 0; axis < 3; axis++) {
+                int others = Math.abs(d[(axis+1)%3]) + Math.abs(d[(axis+2)%3]);
+                weights[axis][i] = d[axis] * (others == 0 ? 1f : others == 1 ? sqr2 : sqr3);
+            }
+        }
+        
+        float[] gradients = new float[iWidth * iHeight * iDepth * 4];
+        FloatBuffer gradArray = FloatBuffer.allocate(iWidth * iHeight * iDepth * 4);
+        short idata[] = (short[]) image.getData();
+        
+        for (int x = 1; x < iWidth - 1; x++) {
+            for (int y = 1; y < iHeight - 1; y++) {
+                for (int z = 1; z < iDepth - 1; z++) {
+                    int index3 = x + y * iWidth + z * iWidth * iHeight;
+                    
+                    Vector3f grad = new Vector3f();
+                    for (int i = 0; i < 27; i++) {
+                        float s = (float) (idata[index3 + pixelOffsets[i]] & 0xfff);
+                        grad.x += s * weights[0][i];
+                        grad.y += s * weights[1][i];
+                        grad.z += s * weights[2][i];
+                    }
+                    
+                    grad.x /= voxelSize.x;
+                    grad.y /= voxelSize.y;
+                    grad.z /= voxelSize.z;
+                    
+                    float mag = grad.length();
+                    
+                    gradients[index3 * 4] = -grad.x / mag;
+                    gradients[index3 * 4 + 1] = -grad.y / mag;
+                    gradients[index3 * 4 + 2] = -grad.z / mag;
+                    gradients[index3 * 4 + 3] = mag;
+                }
+            }
+        }
+        
+        gradArray.put(gradients);
+        gradArray.flip();
+        return gradArray;
+    }
+}
@@ -0,0 +1,103 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion;
+
+import org.fusfoundation.kranion.model.image.ImageVolume;
+import org.fusfoundation.kranion.model.image.ImageVolume4D;
+import org.junit.Test;
+import org.lwjgl.util.vector.Matrix4f;
+import static org.junit.Assert.*;
+
+/**
+ * HistogramEngine against a plain single threaded loop over the voxels,
+ * on a synthetic CT of nested spheres, and a joint histogram of the volume
+ * with itself, which under the identity transform must be diagonal.
+ *
+ * @author jsnell
+ */
+public class HistogramEngineTest {
+    
+    private static final int SIZE = 96;
+    private static final int SLICES = 48;
+    
+    @Test
+    public void matchesSingleLoop() {
+        ImageVolume4D image = spheres();
+        short[] voxels = (short[])image.getData();
+        int[] reference = new int[4096];
+        for (int i=0; i<voxels.length; i++) {
+            reference[Math.min(voxels[i] & 0xffff, 4095)]++;
+        }
+        
+        int[] bins = new HistogramEngine().calculate(image);
+        assertArrayEquals(reference, bins);
+        
+        double[] cdf = HistogramEngine.cumulative(bins);
+        assertEquals(1.0, cdf[cdf.length-1], 1e-9);
+        long running = 0;
+        int first = -1;
+        for (int i=0; i<reference.length && first < 0; i++) {
+            running += reference[i];
+            if (running >= 0.99 * voxels.length) {
+                first = i;
+            }
+        }
+        assertEquals(first, HistogramEngine.percentile(cdf, 0.99));
+    }
+    
+    @Test
+    public void jointWithItselfIsDiagonal() {
+        ImageVolume4D image = spheres();
+        HistogramEngine engine = new HistogramEngine();
+        engine.setSubsample(2);
+        int[] joint = engine.calculateJoint(image, image, new Matrix4f(), -40.95f, 81.9f, -40.95f, 81.9f, 50);
+        
+        long total = 0, offDiagonal = 0;
+        for (int a=0; a<50; a++) {
+            for (int b=0; b<50; b++) {
+                total += joint[a + b*50];
+                if (a != b) {
+                    offDiagonal += joint[a + b*50];
+                }
+            }
+        }
+        assertTrue(total > 0);
+        assertEquals(0, offDiagonal);
+    }
+    
+    private static ImageVolume4D spheres() {
+        ImageVolume4D image = new ImageVolume4D(ImageVolume.USHORT_VOXEL, SIZE, SIZE, SLICES, 1);
+        short[] voxels = (short[])image.getData();
+        for (int z=0; z<SLICES; z++) {
+            for (int y=0; y<SIZE; y++) {
+                for (int x=0; x<SIZE; x++) {
+                    float dx = x - SIZE/2, dy = y - SIZE/2, dz = (z - SLICES/2) * 2f;
+                    float r = (float)Math.sqrt(dx*dx + dy*dy + dz*dz) / SIZE;
+                    voxels[image.getVoxelOffset(x, y, z)] = (short)(r < 0.35f ? 1040 + (x*7 + y*3 + z) % 60 : r < 0.4f ? 2400 + (x + y) % 900 : 0);
+                }
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,121 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.fusfoundation.kranion.model.image.ImageVolume;
+import org.fusfoundation.kranion.model.image.ImageVolume4D;
+import org.junit.Test;
+import org.lwjgl.util.vector.Quaternion;
+import org.lwjgl.util.vector.Vector3f;
+import static org.junit.Assert.*;
+
+/**
+ * MutualInformation's CPU backend, as MRCTRegister calls it, must peak at
+ * the right place. The CT is a synthetic head and the MR the same head
+ * with different contrast, at a coarser resolution, shifted 4 mm in x.
+ * The CT's ImageTranslation is then stepped from -8 to 8 mm in x.
+ * Translation moves the sample points within the image, so the measure
+ * should be highest at -4 mm.
+ *
+ * @author jsnell
+ */
+public class MutualInformationTest {
+    
+    private static final float PERCENT = 2f;
+    
+    @Test
+    public void peaksAtShift() {
+        ImageVolume4D ct = head(128, 80, 1.8f, 2.4f, 0f, false);
+        ImageVolume4D mr = head(96, 60, 2.4f, 3.2f, 4f, true);
+        
+        Logger.getGlobal().setLevel(Level.WARNING); // calcMI logs every call
+        
+        MutualInformation mi = new MutualInformation(ct, mr);
+        mi.setUseGPUAcceleration(false);
+        
+        for (MutualInformationEngine.Weighting weighting : MutualInformationEngine.Weighting.values()) {
+            for (MutualInformationEngine.Sampling sampling : MutualInformationEngine.Sampling.values()) {
+                mi.getCpuEngine().setWeighting(weighting);
+                mi.getCpuEngine().setSampling(sampling);
+                
+                float best = Float.NEGATIVE_INFINITY;
+                float bestShift = 0f;
+                for (float shift=-8f; shift<=8f; shift+=1f) {
+                    ct.setAttribute("ImageTranslation", new Vector3f(shift, 0f, 0f));
+                    float value = mi.calcMI(PERCENT, false);
+                    if (value > best) {
+                        best = value;
+                        bestShift = shift;
+                    }
+                }
+                assertEquals(weighting + " " + sampling, -4f, bestShift, 0f);
+            }
+        }
+        
+        ct.setAttribute("ImageTranslation", new Vector3f());
+        mi.getCpuEngine().setWeighting(MutualInformationEngine.Weighting.NEAREST);
+        mi.getCpuEngine().setSampling(MutualInformationEngine.Sampling.RANDOM);
+        float blurred = mi.calcMI(PERCENT, true);
+        assertFalse(Float.isNaN(blurred) || Float.isInfinite(blurred));
+    }
+    
+    // Ellipsoid head, skull, brain and ventricles, centred xshift mm to +x.
+    // MR contrast has dark skull and bright ventricles.
+    private static ImageVolume4D head(int size, int slices, float pixel, float slice, float xshift, boolean mrContrast) {
+        ImageVolume4D image = new ImageVolume4D(ImageVolume.USHORT_VOXEL, size, size, slices, 1);
+        image.setPixelSize(pixel, pixel);
+        image.getDimension(2).setSampleWidth(slice);
+        image.getDimension(2).setSampleSpacing(slice);
+        image.setAttribute("ImageOrientationQ", new Quaternion());
+        
+        short[] voxels = (short[])image.getData();
+        for (int z=0; z<slices; z++) {
+            for (int y=0; y<size; y++) {
+                for (int x=0; x<size; x++) {
+                    float px = (x - size/2) * pixel - xshift, py = (y - size/2) * pixel, pz = (z - slices/2) * slice;
+                    float r = (float)Math.sqrt(px*px/(75f*75f) + py*py/(90f*90f) + pz*pz/(70f*70f));
+                    float v = (float)Math.sqrt((px-10f)*(px-10f) + py*py + pz*pz);
+                    int noise = (x*7 + y*13 + z*5) % 17;
+                    int value;
+                    if (r > 1f) {
+                        value = noise;
+                    }
+                    else if (r > 0.9f) {
+                        value = mrContrast ? 300 + noise : 2400 + noise * 10;
+                    }
+                    else if (v < 15f) {
+                        value = mrContrast ? 3000 + noise : 1010 + noise;
+                    }
+                    else {
+                        value = mrContrast ? 1500 + noise * 4 + (int)(py * 4f) : 1040 + noise;
+                    }
+                    voxels[x + (y + z*size)*size] = (short)value;
+                }
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,202 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion;
+
+import java.util.LinkedList;
+import org.fusfoundation.kranion.model.image.ImageVolume;
+import org.fusfoundation.kranion.model.image.ImageVolume4D;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * The CPU path of RegionGrow, flood fill and connected components,
+ * against the Seed queue it used before, on a synthetic head CT with a
+ * table under it. All three must leave the same voxels.
+ *
+ * @author jsnell
+ */
+public class RegionGrowTest {
+    
+    private static final int SIZE = 96;
+    private static final int SLICES = 48;
+    
+    @Test
+    public void floodFillMatchesSeedQueue() {
+        assertMatchesSeedQueue(false);
+    }
+    
+    @Test
+    public void connectedComponentsMatchSeedQueue() {
+        assertMatchesSeedQueue(true);
+    }
+    
+    private static void assertMatchesSeedQueue(boolean connectedComponents) {
+        short[] head = syntheticHead(SIZE, SLICES);
+        int x = SIZE/2, y = SIZE/2, z = SLICES/2;
+        
+        ImageVolume4D image = volume(head, SIZE, SLICES);
+        growOld(image, x, y, z);
+        short[] reference = (short[])image.getData(0);
+        int kept = 0;
+        int table = 0;
+        for (int i=0; i<reference.length; i++) {
+            if (reference[i] != 0) {
+                kept++;
+                if ((i / SIZE) % SIZE > SIZE * 0.95f && head[i] > 1300) {
+                    table++;
+                }
+            }
+        }
+        assertTrue(kept > 0);
+        assertEquals(0, table);
+        
+        RegionGrow grow = new RegionGrow(null);
+        grow.setUseGPUAcceleration(false);
+        grow.setUseConnectedComponents(connectedComponents);
+        image = volume(head, SIZE, SLICES);
+        grow.setSourceImage(image);
+        grow.grow(x, y, z);
+        
+        assertArrayEquals(reference, (short[])image.getData(0));
+    }
+    
+    // CT numbers with intercept -1024: a skull shell around brain with a few
+    // air pockets, on a table that doesn't touch it, in air
+    private static short[] syntheticHead(int size, int slices) {
+        short[] voxels = new short[size * size * slices];
+        int c = size / 2;
+        for (int z=0; z<slices; z++) {
+            for (int y=0; y<size; y++) {
+                for (int x=0; x<size; x++) {
+                    float dx = (x - c) / (size * 0.35f), dy = (y - c) / (size * 0.4f), dz = (z - slices/2) / (slices * 0.45f);
+                    float r = (float)Math.sqrt(dx*dx + dy*dy + dz*dz);
+                    int noise = (x*7 + y*13 + z*5) % 23;
+                    int value;
+                    if (r < 0.9f) {
+                        float px = (x - c*1.3f), py = (y - c*0.8f), pz = (z - slices/2);
+                        value = px*px + py*py + pz*pz < 25f ? 24 : 1064 + noise;
+                    }
+                    else if (r < 1f) {
+                        value = 2024 + noise * 10;
+                    }
+                    else if (y > size * 0.95f) {
+                        value = 1324 + noise;
+                    }
+                    else {
+                        value = noise;
+                    }
+                    voxels[x + y*size + z*size*size] = (short)value;
+                }
+            }
+        }
+        return voxels;
+    }
+    
+    private static ImageVolume4D volume(short[] voxels, int size, int slices) {
+        ImageVolume4D image = new ImageVolume4D(ImageVolume.USHORT_VOXEL, size, size, slices, 1);
+        image.setData(0, voxels.clone());
+        image.setAttribute("RescaleSlope", 1f);
+        image.setAttribute("RescaleIntercept", -1024f);
+        return image;
+    }
+    
+    private static class Seed {
+        public int x, y, z;
+        public Seed(int x, int y, int z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+    
+    // RegionGrow.grow() CPU path as it was, less the texture release
+    private static void growOld(ImageVolume4D src, int x, int y, int z) {
+        LinkedList<Seed> growQ = new LinkedList<>();
+        growQ.addLast(new Seed(x, y, z));
+         
+        int maskChannel = src.addChannel(ImageVolume.UBYTE_VOXEL);
+        
+        short[] voxels = (short[])src.getData(0);
+        byte[] mask = (byte[])src.getData(maskChannel);
+        
+        int xsize = src.getDimension(0).getSize();
+        int ysize = src.getDimension(1).getSize();
+        int zsize = src.getDimension(2).getSize();
+        int framesize = xsize*ysize;
+        
+        Float intercept = (Float)src.getAttribute("RescaleIntercept");
+        Float slope = (Float)src.getAttribute("RescaleSlope");
+        
+        while (!growQ.isEmpty()) {
+            Seed current = growQ.removeFirst();
+            if ( current.x >= 0 && current.x < xsize
+              && current.y >= 0 && current.y < ysize
+              && current.z >= 0 && current.z < zsize) {
+                
+                int offset = current.x + current.y * xsize + current.z * framesize;
+                float value = slope * (voxels[offset] + intercept);
+                int maskVal = mask[offset] & 0xff;
+                
+                if (maskVal == 0 && value > -250f) {
+                    mask[offset] = 1;
+                    
+                    growQ.addLast(new Seed(current.x + 1, current.y, current.z));
+                    growQ.addLast(new Seed(current.x - 1, current.y, current.z));
+                    growQ.addLast(new Seed(current.x, current.y + 1, current.z));
+                    growQ.addLast(new Seed(current.x, current.y - 1, current.z));
+                    growQ.addLast(new Seed(current.x, current.y, current.z + 1));
+                    growQ.addLast(new Seed(current.x, current.y, current.z - 1));
+                }
+            }
+        }
+        
+        for (int bit=0; bit<2; bit++) {
+            int source = bit == 0 ? 0x01 : 0x03;
+            byte dest = (byte)(bit == 0 ? 0x02 : 0x04);
+            for (int xc = 1; xc < xsize-1; xc++) {
+                for (int yc = 1; yc < ysize-1; yc++) {
+                    for (int zc = 1; zc < zsize-1; zc++) {
+                        int offset = xc + yc * xsize + zc * framesize;
+                        if ((mask[offset] & source) != 0) {
+                            mask[offset+1] |= dest;
+                            mask[offset-1] |= dest;
+                            mask[offset+xsize] |= dest;
+                            mask[offset-xsize] |= dest;
+                            mask[offset+framesize] |= dest;
+                            mask[offset-framesize] |= dest;
+                        }
+                    }
+                }
+            }
+        }
+        
+        for (int i = 0; i < framesize * zsize; i++) {
+            if (mask[i] == 0) {
+                voxels[i] = 0;
+            }
+        }
+        
+        src.freeChannel(maskChannel);
+    }
+}
@@ -0,0 +1,93 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion.model.image;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Voxel access and the mapped file layout of DirectImageVolume4D.
+ *
+ * @author jsnell
+ */
+public class DirectImageVolume4DTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void copyDataIsCallersCopy() {
+        DirectImageVolume4D image = new DirectImageVolume4D(ImageVolume.USHORT_VOXEL, 8, 8, 4, 1);
+        
+        short[] data = (short[])image.copyData(0);
+        data[5] = 42;
+        assertEquals(0, image.getShortBuffer(0).get(5));
+        assertNotSame(data, image.copyData(0));
+        
+        image.setData(0, data);
+        assertEquals(42, image.getShortBuffer(0).get(5));
+        assertEquals(42, ((short[])image.copyData(0))[5]);
+    }
+    
+    // there is no array whose writes would reach the volume
+    @Test(expected = UnsupportedOperationException.class)
+    public void getDataFails() {
+        new DirectImageVolume4D(ImageVolume.FLOAT_VOXEL, 8, 8, 4, 1).getData(0);
+    }
+    
+    @Test
+    public void voxelBufferWritesThrough() {
+        DirectImageVolume4D image = new DirectImageVolume4D(ImageVolume.FLOAT_VOXEL, 8, 8, 4, 1);
+        image.addChannel(ImageVolume.UBYTE_VOXEL);
+        
+        ((FloatBuffer)image.getVoxelBuffer(0)).put(9, 2.5f);
+        ((ByteBuffer)image.getVoxelBuffer(1)).put(9, (byte)7);
+        
+        assertEquals(2.5f, image.getFloatBuffer(0).get(9), 0f);
+        assertEquals(7, image.getByteBuffer(1, true).get(9));
+    }
+    
+    @Test
+    public void freedChannelsReuseTheMappedFile() throws Exception {
+        File file = new File(folder.getRoot(), "voxels");
+        DirectImageVolume4D image = new DirectImageVolume4D(file, ImageVolume.FLOAT_VOXEL, 16, 16, 4, 1);
+        image.addChannel(ImageVolume.FLOAT_VOXEL);
+        long length = file.length();
+        assertEquals(2L * 16 * 16 * 4 * 4, length);
+        
+        for (int i=0; i<10; i++) {
+            image.freeChannel(1);
+            image.addChannel(ImageVolume.USHORT_VOXEL);
+            image.freeChannel(1);
+            image.addChannel(ImageVolume.FLOAT_VOXEL);
+        }
+        
+        assertEquals(length, file.length());
+    }
+}
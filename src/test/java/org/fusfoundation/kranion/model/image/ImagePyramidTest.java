@@ -0,0 +1,126 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion.model.image;
+
+import java.util.Arrays;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Level geometry, values and cache invalidation of
+ * ImageVolume4D.getPyramidLevel().
+ *
+ * @author jsnell
+ */
+public class ImagePyramidTest {
+    
+    @Test
+    public void levelsHalveEachSpatialDimension() {
+        ImageVolume4D image = new ImageVolume4D(ImageVolume.USHORT_VOXEL, 9, 8, 5, 2);
+        image.setPixelSize(0.5f, 0.5f);
+        image.getDimension(2).setSampleSpacing(2f);
+        image.getDimension(2).setSampleWidth(2f);
+        
+        int[][] sizes = { {5, 4, 3}, {3, 2, 2}, {2, 1, 1} };
+        for (int level=1; level<=ImageVolume4D.PYRAMID_LEVELS; level++) {
+            ImageVolume4D l = image.getPyramidLevel(0, level);
+            float scale = 1 << level;
+            for (int i=0; i<3; i++) {
+                assertEquals(sizes[level-1][i], l.getDimension(i).getSize());
+            }
+            assertEquals(2, l.getDimension(3).getSize());
+            assertEquals(0.5f * scale, l.getDimension(0).getSampleSpacing(), 0f);
+            assertEquals(2f * scale, l.getDimension(2).getSampleSpacing(), 0f);
+            assertEquals(ImageVolume.USHORT_VOXEL, l.getVoxelType(0));
+        }
+        
+        assertSame(image, image.getPyramidLevel(0, 0));
+        // by the largest spacing, 2 in z
+        assertSame(image, image.getPyramidLevel(0, 3.9f));
+        assertSame(image.getPyramidLevel(0, 1), image.getPyramidLevel(0, 4f));
+        assertSame(image.getPyramidLevel(0, 3), image.getPyramidLevel(0, 100f));
+    }
+    
+    // [1 3 3 1]/8 keeps a constant and, away from the clamped edges, a ramp
+    // along x sampled between source voxels 2i and 2i+1
+    @Test
+    public void levelValues() {
+        ImageVolume4D image = new ImageVolume4D(ImageVolume.FLOAT_VOXEL, 16, 8, 8, 1);
+        float[] data = (float[])image.getData();
+        for (int i=0; i<data.length; i++) {
+            data[i] = i % 16;
+        }
+        
+        ImageVolume4D l = image.getPyramidLevel(0, 1);
+        float[] reduced = (float[])l.getData();
+        for (int z=0; z<4; z++) {
+            for (int y=0; y<4; y++) {
+                for (int x=1; x<7; x++) {
+                    assertEquals(2*x + 0.5f, reduced[l.getVoxelOffset(x, y, z)], 1e-5f);
+                }
+            }
+        }
+        
+        ImageVolume4D constant = new ImageVolume4D(ImageVolume.USHORT_VOXEL, 7, 7, 3, 1);
+        Arrays.fill((short[])constant.getData(), (short)1000);
+        for (int level=1; level<=ImageVolume4D.PYRAMID_LEVELS; level++) {
+            for (short v : (short[])constant.getPyramidLevel(0, level).getData()) {
+                assertEquals(1000, v);
+            }
+        }
+    }
+    
+    @Test
+    public void levelsAreCachedUntilDataChanges() {
+        ImageVolume4D image = new ImageVolume4D(ImageVolume.FLOAT_VOXEL, 8, 8, 8, 1);
+        image.addChannel(ImageVolume.FLOAT_VOXEL);
+        ImageVolume4D l1 = image.getPyramidLevel(0, 1);
+        ImageVolume4D l3 = image.getPyramidLevel(0, 3);
+        ImageVolume4D other = image.getPyramidLevel(1, 1);
+        assertSame(l1, image.getPyramidLevel(0, 1));
+        assertEquals(0f, ((float[])l3.getData())[0], 0f);
+        
+        // in place, stale until the change is announced
+        Arrays.fill((float[])image.getData(0), 4f);
+        assertSame(l1, image.getPyramidLevel(0, 1));
+        image.fireDataChanged(0);
+        
+        assertNotSame(l1, image.getPyramidLevel(0, 1));
+        assertEquals(4f, ((float[])image.getPyramidLevel(0, 3).getData())[0], 0f);
+        assertSame(other, image.getPyramidLevel(1, 1));
+        
+        // setData() announces the change itself
+        l1 = image.getPyramidLevel(0, 1);
+        float[] data = new float[image.getVoxelCount()];
+        Arrays.fill(data, 2f);
+        image.setData(0, data);
+        assertNotSame(l1, image.getPyramidLevel(0, 1));
+        assertEquals(2f, ((float[])image.getPyramidLevel(0, 1).getData())[0], 0f);
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void noPyramidForRGBA() {
+        new ImageVolume4D(ImageVolume.RGBA_VOXEL, 8, 8, 8, 1).getPyramidLevel(0, 1);
+    }
+}
@@ -0,0 +1,103 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion.model.image;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Frame paging, eviction and the whole channel copies of PagedImageVolume4D.
+ *
+ * @author jsnell
+ */
+public class PagedImageVolume4DTest {
+    
+    private static final int X = 8, Y = 8, Z = 2, T = 6;
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void evictedFramesAreWrittenBack() {
+        PagedImageVolume4D image = new PagedImageVolume4D(folder.getRoot(), ImageVolume.FLOAT_VOXEL, X, Y, Z, T);
+        image.setMaxResidentFrames(2);
+        
+        for (int t=0; t<T; t++) {
+            image.getTimeFrame(0, t).asFloatBuffer().put(3, t + 0.5f);
+            assertTrue(image.getResidentFrameCount() <= 2);
+        }
+        
+        float[] data = (float[])image.copyData(0);
+        for (int t=0; t<T; t++) {
+            assertEquals(t + 0.5f, data[t * X * Y * Z + 3], 0f);
+            assertEquals(t + 0.5f, image.getTimeFrame(0, t).asFloatBuffer().get(3), 0f);
+        }
+    }
+    
+    @Test
+    public void setDataReachesResidentAndPagedOutFrames() {
+        PagedImageVolume4D image = new PagedImageVolume4D(folder.getRoot(), ImageVolume.USHORT_VOXEL, X, Y, Z, T);
+        image.setMaxResidentFrames(2);
+        image.getTimeFrame(0, 1);
+        
+        short[] data = new short[image.getVoxelCount()];
+        for (int i=0; i<data.length; i++) {
+            data[i] = (short)i;
+        }
+        image.setData(0, data);
+        
+        assertArrayEquals(data, (short[])image.copyData(0));
+        assertEquals(X * Y * Z + 1, image.getTimeFrame(0, 1).asShortBuffer().get(1));
+        
+        ByteBuffer whole = image.getByteBuffer(0, true);
+        assertEquals(data.length * 2, whole.remaining());
+        assertEquals(data[data.length - 1], whole.asShortBuffer().get(data.length - 1));
+        try {
+            whole.put(0, (byte)1);
+            fail("whole channel buffer should be read-only");
+        }
+        catch(ReadOnlyBufferException e) {
+        }
+    }
+    
+    @Test
+    public void freeChannelDeletesScratchFile() {
+        PagedImageVolume4D image = new PagedImageVolume4D(folder.getRoot(), ImageVolume.UBYTE_VOXEL, X, Y, Z, T);
+        image.addChannel(ImageVolume.UBYTE_VOXEL);
+        image.getTimeFrame(0, 0).put(0, (byte)7);
+        assertEquals(2, folder.getRoot().listFiles().length);
+        
+        image.freeChannel(1);
+        assertEquals(1, folder.getRoot().listFiles().length);
+        assertEquals(7, image.getTimeFrame(0, 0).get(0));
+        
+        image.freeChannel(0);
+        assertEquals(0, folder.getRoot().listFiles().length);
+    }
+}
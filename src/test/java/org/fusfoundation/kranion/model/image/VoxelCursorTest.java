@@ -0,0 +1,309 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion.model.image;
+
+import java.nio.ReadOnlyBufferException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * VoxelCursor loops against the hand-indexed getVoxelOffset() loops they
+ * replaced: a sum over a CT volume, a 6-neighbour Laplacian (whole, and
+ * split across threads with VoxelSpan.split()) and the thermal dose
+ * integration from DefaultView. Cursors over off-heap volumes write
+ * through to the volume.
+ *
+ * @author jsnell
+ */
+public class VoxelCursorTest {
+    
+    private static final int SIZE = 32;
+    private static final int SLICES = 12;
+    private static final int TIMEPOINTS = 10;
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void sumMatchesHandLoop() {
+        ImageVolume4D ct = ct();
+        long expected = sumHand(ct);
+        
+        ShortVoxelCursor c = new ShortVoxelCursor(ct, 0);
+        long sum = 0;
+        while (c.next()) {
+            sum += c.getUnsigned();
+        }
+        assertEquals(expected, sum);
+        
+        c = new ShortVoxelCursor(ct, 0);
+        short[] data = c.getData();
+        sum = 0;
+        while (c.nextLine()) {
+            for (int i=c.getLineStart(); i<c.getLineEnd(); i++) {
+                sum += data[i] & 0xffff;
+            }
+        }
+        assertEquals(expected, sum);
+    }
+    
+    @Test
+    public void laplacianMatchesHandLoop() throws Exception {
+        ImageVolume4D ct = ct();
+        ImageVolume4D lap = new ImageVolume4D(ImageVolume.FLOAT_VOXEL, SIZE, SIZE, SLICES, 1);
+        
+        laplacianHand(ct, lap);
+        float[] expected = ((float[])lap.getData()).clone();
+        
+        Arrays.fill((float[])lap.getData(), 0f);
+        laplacianCursor(ct, lap, new VoxelSpan(ct).inset(1));
+        assertArrayEquals(expected, (float[])lap.getData(), 0f);
+        
+        Arrays.fill((float[])lap.getData(), 0f);
+        laplacianLines(ct, lap, new VoxelSpan(ct).inset(1));
+        assertArrayEquals(expected, (float[])lap.getData(), 0f);
+        
+        Arrays.fill((float[])lap.getData(), 0f);
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (VoxelSpan part : new VoxelSpan(ct).inset(1).split(4)) {
+                tasks.add(() -> {
+                    laplacianLines(ct, lap, part);
+                    return null;
+                });
+            }
+            for (Future<Void> f : workers.invokeAll(tasks)) {
+                f.get();
+            }
+        }
+        finally {
+            workers.shutdownNow();
+        }
+        assertArrayEquals(expected, (float[])lap.getData(), 0f);
+    }
+    
+    @Test
+    public void thermalDoseMatchesHandLoop() {
+        ImageVolume4D thermometry = new ImageVolume4D(ImageVolume.FLOAT_VOXEL, SIZE/2, SIZE/2, 1, TIMEPOINTS);
+        float[] temps = (float[])thermometry.getData();
+        for (int i=0; i<temps.length; i++) {
+            temps[i] = 37f + (i % 97) / 10f;
+        }
+        ImageVolume4D dose = new ImageVolume4D(ImageVolume.FLOAT_VOXEL, SIZE/2, SIZE/2, 1, 1);
+        
+        doseHand(thermometry, dose);
+        float[] expected = ((float[])dose.getData()).clone();
+        
+        Arrays.fill((float[])dose.getData(), 0f);
+        doseCursor(thermometry, dose);
+        assertArrayEquals(expected, (float[])dose.getData(), 0f);
+    }
+    
+    @Test
+    public void writesThroughToDirectVolume() {
+        DirectImageVolume4D image = new DirectImageVolume4D(ImageVolume.USHORT_VOXEL, SIZE, SIZE, SLICES, 1);
+        ShortVoxelCursor c = new ShortVoxelCursor(image, 0);
+        while (c.next()) {
+            c.set((short)(c.getX() + 100*c.getY() + 7*c.getZ()));
+        }
+        
+        for (int z=0; z<SLICES; z++) {
+            for (int y=0; y<SIZE; y++) {
+                for (int x=0; x<SIZE; x++) {
+                    assertEquals(x + 100*y + 7*z, image.getShortBuffer(0).get(image.getVoxelOffset(x, y, z)));
+                }
+            }
+        }
+        
+        // neighbours, and a second cursor sees the writes
+        FloatVoxelCursor f = new FloatVoxelCursor(new DirectImageVolume4D(ImageVolume.FLOAT_VOXEL, SIZE, SIZE, SLICES, 1), 0, new VoxelSpan(image).inset(1));
+        f.next();
+        f.set(f.getSliceStride(), 2.5f);
+        FloatVoxelCursor g = new FloatVoxelCursor(f.getBuffer(), f.getSpan());
+        g.next();
+        assertEquals(2.5f, g.get(g.getSliceStride()), 0f);
+        assertEquals(2.5f, f.getBuffer().get(f.getOffset() + f.getSliceStride()), 0f);
+    }
+    
+    @Test
+    public void readsDirectVolume() {
+        ImageVolume4D ct = ct();
+        DirectImageVolume4D direct = new DirectImageVolume4D(ImageVolume.USHORT_VOXEL, SIZE, SIZE, SLICES, 1);
+        direct.setData(0, ct.getData());
+        
+        ShortVoxelCursor c = new ShortVoxelCursor(direct, 0);
+        long sum = 0;
+        while (c.next()) {
+            sum += c.getUnsigned();
+        }
+        assertEquals(sumHand(ct), sum);
+    }
+    
+    // its buffers are copies, a write would be lost
+    @Test(expected = ReadOnlyBufferException.class)
+    public void pagedVolumeIsReadOnly() {
+        PagedImageVolume4D image = new PagedImageVolume4D(folder.getRoot(), ImageVolume.FLOAT_VOXEL, 8, 8, 2, 2);
+        FloatVoxelCursor c = new FloatVoxelCursor(image, 0);
+        c.next();
+        c.set(1f);
+    }
+    
+    private static ImageVolume4D ct() {
+        ImageVolume4D ct = new ImageVolume4D(ImageVolume.USHORT_VOXEL, SIZE, SIZE, SLICES, 1);
+        short[] voxels = (short[])ct.getData();
+        for (int i=0; i<voxels.length; i++) {
+            voxels[i] = (short)((i * 7919) % 4096);
+        }
+        return ct;
+    }
+    
+    private static long sumHand(ImageVolume4D image) {
+        short[] data = (short[])image.getData();
+        long sum = 0;
+        for (int z=0; z<image.getDimension(2).getSize(); z++) {
+            for (int y=0; y<image.getDimension(1).getSize(); y++) {
+                for (int x=0; x<image.getDimension(0).getSize(); x++) {
+                    sum += data[image.getVoxelOffset(x, y, z)] & 0xffff;
+                }
+            }
+        }
+        return sum;
+    }
+    
+    private static void laplacianHand(ImageVolume4D src, ImageVolume4D dst) {
+        short[] in = (short[])src.getData();
+        float[] out = (float[])dst.getData();
+        int w = src.getDimension(0).getSize();
+        int h = src.getDimension(1).getSize();
+        int d = src.getDimension(2).getSize();
+        for (int z=1; z<d-1; z++) {
+            for (int y=1; y<h-1; y++) {
+                for (int x=1; x<w-1; x++) {
+                    int v = in[src.getVoxelOffset(x, y, z)] & 0xffff;
+                    int n = (in[src.getVoxelOffset(x-1, y, z)] & 0xffff) + (in[src.getVoxelOffset(x+1, y, z)] & 0xffff)
+                          + (in[src.getVoxelOffset(x, y-1, z)] & 0xffff) + (in[src.getVoxelOffset(x, y+1, z)] & 0xffff)
+                          + (in[src.getVoxelOffset(x, y, z-1)] & 0xffff) + (in[src.getVoxelOffset(x, y, z+1)] & 0xffff);
+                    out[dst.getVoxelOffset(x, y, z)] = n - 6 * v;
+                }
+            }
+        }
+    }
+    
+    private static void laplacianCursor(ImageVolume4D src, ImageVolume4D dst, VoxelSpan span) {
+        ShortVoxelCursor c = new ShortVoxelCursor(src, 0, span);
+        FloatVoxelCursor out = new FloatVoxelCursor(dst, 0, span);
+        int dy = c.getRowStride();
+        int dz = c.getSliceStride();
+        while (c.next() && out.next()) {
+            int n = c.getUnsigned(-1) + c.getUnsigned(1)
+                  + c.getUnsigned(-dy) + c.getUnsigned(dy)
+                  + c.getUnsigned(-dz) + c.getUnsigned(dz);
+            out.set(n - 6 * c.getUnsigned());
+        }
+    }
+    
+    private static void laplacianLines(ImageVolume4D src, ImageVolume4D dst, VoxelSpan span) {
+        ShortVoxelCursor c = new ShortVoxelCursor(src, 0, span);
+        short[] in = c.getData();
+        float[] out = (float[])dst.getData();
+        int dy = c.getRowStride();
+        int dz = c.getSliceStride();
+        while (c.nextLine()) {
+            for (int i=c.getLineStart(); i<c.getLineEnd(); i++) {
+                int n = (in[i-1] & 0xffff) + (in[i+1] & 0xffff)
+                      + (in[i-dy] & 0xffff) + (in[i+dy] & 0xffff)
+                      + (in[i-dz] & 0xffff) + (in[i+dz] & 0xffff);
+                out[i] = n - 6 * (in[i] & 0xffff);
+            }
+        }
+    }
+    
+    // as DefaultView.calcThermalDoseImage() was
+    private static void doseHand(ImageVolume4D thermometry, ImageVolume4D result) {
+        float data[] = (float[])thermometry.getData();
+        int cols = thermometry.getDimension(0).getSize();
+        int rows = thermometry.getDimension(1).getSize();
+        int timepoints = thermometry.getDimension(3).getSize();
+        float deltaT = 3.5f;
+        
+        float[] resultData = (float[])(result.getData());
+        for (int y=0; y<rows; y++) {
+            for (int x=0; x<cols; x++) {
+                float dose = 0f;
+                for (int i=1; i<timepoints; i++) {
+                    float tempVal = data[thermometry.getVoxelOffset(x, y, i)];
+                    tempVal += data[thermometry.getVoxelOffset(x, y, i-1)];
+                    tempVal /= 2f;
+                    if (tempVal < 43f) {
+                        dose += Math.pow(0.25f, (43f - tempVal))*(deltaT/60f);
+                    }
+                    else {
+                        dose += Math.pow(0.5f, (43f - tempVal))*(deltaT/60f);
+                    }
+                }
+                resultData[result.getVoxelOffset(x, y, 0)] = dose;
+            }
+        }
+    }
+    
+    // as DefaultView.calcThermalDoseImage() is now
+    private static void doseCursor(ImageVolume4D thermometry, ImageVolume4D result) {
+        int cols = thermometry.getDimension(0).getSize();
+        int rows = thermometry.getDimension(1).getSize();
+        int timepoints = thermometry.getDimension(3).getSize();
+        float deltaT = 3.5f;
+        
+        FloatVoxelCursor temps = new FloatVoxelCursor(thermometry, 0, new VoxelSpan(thermometry).crop(0, 0, 0, cols, rows, 1));
+        FloatVoxelCursor doses = new FloatVoxelCursor(result, 0);
+        int stride = temps.getSliceStride();
+        while (temps.next() && doses.next()) {
+            float dose = 0f;
+            float previous = temps.get();
+            for (int i=1; i<timepoints; i++) {
+                float current = temps.get(i*stride);
+                float tempVal = current;
+                tempVal += previous;
+                tempVal /= 2f;
+                previous = current;
+                if (tempVal < 43f) {
+                    dose += Math.pow(0.25f, (43f - tempVal))*(deltaT/60f);
+                }
+                else {
+                    dose += Math.pow(0.5f, (43f - tempVal))*(deltaT/60f);
+                }
+            }
+            doses.set(dose);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion.model.image.io;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Pruning of the per-directory DICOM index files.
+ *
+ * @author jsnell
+ */
+public class DicomSeriesIndexTest {
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void pruneDropsGoneAndUnusedIndexes() throws Exception {
+        File indexDir = folder.newFolder("index");
+        File kept = folder.newFolder("kept");
+        File unused = folder.newFolder("unused");
+        File gone = folder.newFolder("gone");
+        
+        index(kept, indexDir);
+        index(unused, indexDir);
+        index(gone, indexDir);
+        assertTrue(new File(gone, "a.dcm").delete() && gone.delete());
+        File[] files = indexDir.listFiles();
+        assertEquals(3, files.length);
+        for (File file : files) {
+            if (file.getName().contains("unused")) {
+                assertTrue(file.setLastModified(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(100)));
+            }
+        }
+        
+        DicomSeriesIndex.prune(indexDir, TimeUnit.DAYS.toMillis(90));
+        
+        files = indexDir.listFiles();
+        assertEquals(1, files.length);
+        assertTrue(files[0].getName().contains("kept"));
+    }
+    
+    @Test
+    public void loadingKeepsAnIndex() throws Exception {
+        File indexDir = folder.newFolder("index");
+        File dir = folder.newFolder("series");
+        index(dir, indexDir);
+        File file = indexDir.listFiles()[0];
+        assertTrue(file.setLastModified(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(100)));
+        
+        DicomSeriesIndex index = new DicomSeriesIndex(dir, indexDir);
+        assertNotNull(index.lookup("a.dcm", 10, 1000));
+        
+        DicomSeriesIndex.prune(indexDir, TimeUnit.DAYS.toMillis(90));
+        assertTrue(file.isFile());
+    }
+    
+    private static void index(File dir, File indexDir) throws Exception {
+        assertTrue(new File(dir, "a.dcm").createNewFile());
+        new File(dir, "a.dcm").setLastModified(1000);
+        DicomSeriesIndex index = new DicomSeriesIndex(dir, indexDir);
+        DicomSeriesIndex.Entry entry = new DicomSeriesIndex.Entry();
+        entry.name = "a.dcm";
+        entry.size = 10;
+        entry.lastModified = 1000;
+        index.put(entry);
+        index.save();
+    }
+}
@@ -0,0 +1,427 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.kranion.model.image.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.fusfoundation.dicom.DicomException;
+import org.fusfoundation.dicom.DicomNumber;
+import org.fusfoundation.dicom.DicomObject;
+import org.fusfoundation.dicom.DicomObjectReader;
+import org.fusfoundation.dicom.DicomRuntimeException;
+import org.fusfoundation.dicom.DicomString;
+import org.fusfoundation.dicom.DicomUnknown;
+import org.fusfoundation.dicom.UID;
+import org.fusfoundation.dicom.VR;
+import org.fusfoundation.dicom.VrReader;
+import org.fusfoundation.dicom.net.Association;
+import org.fusfoundation.dicom.net.AssociationFactory;
+import org.fusfoundation.dicom.net.QueryRetrieveUser;
+import org.fusfoundation.dicom.net.RetrievalEngine;
+import org.fusfoundation.dicom.net.ServiceClassProviderBaseImpl;
+import org.fusfoundation.dicom.net.StorageServer;
+import org.fusfoundation.dicom.net.StorageUser;
+import org.fusfoundation.dicom.part10.DicomFileReader;
+import org.fusfoundation.dicom.part10.SyntheticSeries;
+import org.fusfoundation.kranion.model.image.ImageVolume;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Retrieves synthetic CT and MR series from an in-process query/retrieve
+ * SCP stand-in with RetrievalEngine and DicomVolumeAssembler, with C-GET
+ * and with C-MOVE, over one and over several associations, and checks the
+ * assembled volumes against DicomImageLoader.load() of the same files.
+ *
+ * @author jsnell
+ */
+public class RetrievalTest {
+    
+    private static final String ARCHIVE_AE = "STANDIN";
+    private static final String MOVE_AE = "KRANIONMOVE";
+    private static final int SLICES = 12;
+    private static final int SIZE = 32;
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private StorageServer archive;
+    private int movePort;
+    private List<File> ctFiles;
+    private List<File> mrFiles;
+    private List<DicomObject> ctObjects;
+    private List<DicomObject> mrObjects;
+    
+    @Before
+    public void startArchive() throws Exception {
+        // Association logs every PDU at INFO
+        Logger.getGlobal().setLevel(Level.WARNING);
+        
+        File dir = folder.newFolder("archive");
+        ctFiles = SyntheticSeries.writeCTSeries(dir, SLICES, SIZE, SIZE);
+        mrFiles = SyntheticSeries.writeMRSeries(dir, SLICES, SIZE, SIZE);
+        ctObjects = read(ctFiles);
+        mrObjects = read(mrFiles);
+        
+        List<DicomObject> objects = new ArrayList<>(ctObjects);
+        objects.addAll(mrObjects);
+        
+        try (ServerSocket s = new ServerSocket(0)) {
+            movePort = s.getLocalPort();
+        }
+        
+        QueryRetrieveStandIn standIn = new QueryRetrieveStandIn(objects);
+        standIn.addDestination(MOVE_AE, movePort);
+        AssociationFactory af = new AssociationFactory();
+        af.AddProvider(standIn);
+        archive = new StorageServer(af, 0, 8);
+        archive.start();
+    }
+    
+    @After
+    public void stopArchive() {
+        if (archive != null) {
+            archive.stop();
+        }
+    }
+    
+    @Test
+    public void getAssemblesCTAndMR() throws Exception {
+        for (int associations : new int[] {1, 3}) {
+            assertRetrieved(ctFiles, ctObjects, associations, false);
+            assertRetrieved(mrFiles, mrObjects, associations, false);
+        }
+    }
+    
+    @Test
+    public void moveAssemblesCTAndMR() throws Exception {
+        for (int associations : new int[] {1, 3}) {
+            assertRetrieved(ctFiles, ctObjects, associations, true);
+            assertRetrieved(mrFiles, mrObjects, associations, true);
+        }
+    }
+    
+    @Test
+    public void findStopsAtLimit() throws Exception {
+        String seriesUID = stringValue(ctObjects.get(0), "SeriesInstanceUID");
+        
+        QueryRetrieveUser qr = new QueryRetrieveUser();
+        AssociationFactory af = new AssociationFactory();
+        af.AddUser(qr);
+        
+        try (Socket socket = new Socket("localhost", archive.getPort())) {
+            Association assoc = af.CreateUserAssociation("KRANION", ARCHIVE_AE,
+                    new BufferedInputStream(socket.getInputStream(), 65536),
+                    new BufferedOutputStream(socket.getOutputStream(), 65536));
+            
+            assertEquals(SLICES, qr.findInstances(seriesUID).size());
+            
+            List<DicomObject> matches = new ArrayList<>();
+            int limited = qr.findInstances(seriesUID, matches::add, 5);
+            assertEquals(5, limited);
+            assertEquals(5, matches.size());
+            
+            assoc.sendReleaseRq();
+            assoc.Receive();
+        }
+    }
+    
+    @Test
+    public void assemblerBlanksSliceOfDifferentSize() throws Exception {
+        String seriesUID = stringValue(ctObjects.get(0), "SeriesInstanceUID");
+        
+        // the middle slice, delivered last, is half the size of the others
+        int odd = SLICES / 2;
+        DicomObject small = ctObjects.get(odd);
+        small.addVR(new VR("Rows", new DicomNumber(SIZE / 2)));
+        small.addVR(new VR("Columns", new DicomNumber(SIZE / 2)));
+        small.addVR(new VR("PixelData", new DicomUnknown(new byte[SIZE * SIZE / 2])));
+        
+        DicomVolumeAssembler assembler = new DicomVolumeAssembler(seriesUID, null);
+        assembler.retrieveStarted(ctObjects);
+        for (int i=0; i<SLICES; i++) {
+            if (i != odd) {
+                assembler.objectReceived(ctObjects.get(i));
+            }
+        }
+        assembler.objectReceived(small);
+        ImageVolume image = assembler.finish();
+        
+        ImageVolume reference = new DicomImageLoader().load(ctFiles, null);
+        short[] expected = ((short[])reference.getData()).clone();
+        int frameSize = SIZE * SIZE;
+        int z = SLICES - 1 - odd; // slices are stored in reverse position order
+        Arrays.fill(expected, z * frameSize, (z + 1) * frameSize, (short)0);
+        
+        assertEquals(SLICES, assembler.getReceivedCount());
+        assertArrayEquals(expected, (short[])image.getData());
+    }
+    
+    private void assertRetrieved(List<File> files, List<DicomObject> objects, int associations, boolean move) throws Exception {
+        String studyUID = stringValue(objects.get(0), "StudyInstanceUID");
+        String seriesUID = stringValue(objects.get(0), "SeriesInstanceUID");
+        
+        RetrievalEngine engine = new RetrievalEngine("localhost", archive.getPort(), "KRANION", ARCHIVE_AE);
+        engine.setMaxAssociations(associations);
+        if (move) {
+            engine.setMoveDestination(MOVE_AE, movePort);
+        }
+        
+        DicomVolumeAssembler assembler = new DicomVolumeAssembler(seriesUID, null);
+        int received = engine.retrieveSeries(studyUID, seriesUID, assembler);
+        ImageVolume image = assembler.finish();
+        ImageVolume reference = new DicomImageLoader().load(files, null);
+        
+        String mode = (move ? "C-MOVE " : "C-GET ") + stringValue(objects.get(0), "Modality") + " over " + associations;
+        assertEquals(mode, SLICES, received);
+        assertEquals(mode, SLICES, assembler.getExpectedCount());
+        assertNotNull(mode, image);
+        assertArrayEquals(mode, (short[])reference.getData(), (short[])image.getData());
+        assertEquals(mode, reference.getDimension(2).getSampleSpacing(), image.getDimension(2).getSampleSpacing(), 0f);
+    }
+    
+    private static List<DicomObject> read(List<File> files) throws Exception {
+        List<DicomObject> objects = new ArrayList<>(files.size());
+        for (File f : files) {
+            DicomFileReader dfr = new DicomFileReader(f);
+            try {
+                objects.add(new DicomObjectReader(dfr).read());
+            }
+            finally {
+                dfr.close();
+            }
+        }
+        return objects;
+    }
+    
+    // Patient root FIND, GET and MOVE over a list of objects held in memory.
+    // Matching is on the study, series and instance UIDs only.
+    private static class QueryRetrieveStandIn extends ServiceClassProviderBaseImpl {
+        // The storage classes are here so the C-GET's storage contexts are accepted
+        private static final UID uids[] = {UID.PatientRootQueryRetrieveFind, UID.PatientRootQueryRetrieveMove, UID.PatientRootQueryRetrieveGet, UID.CTImageStorage, UID.MRImageStorage};
+        private static final UID tsyn[] = {UID.ExplicitVRLittleEndian, UID.ImplicitVRLittleEndian, UID.ExplicitVRBigEndian};
+        private static final String matchKeys[] = {"StudyInstanceUID", "SeriesInstanceUID", "SOPInstanceUID"};
+        
+        private final List<DicomObject> objects;
+        private final Map<String, Integer> destinations = new ConcurrentHashMap<>();
+        
+        QueryRetrieveStandIn(List<DicomObject> objects) {
+            this.objects = objects;
+        }
+        
+        void addDestination(String aeTitle, int port) {
+            destinations.put(aeTitle, port);
+        }
+        
+        public UID[] getSOPClassProviderUIDs() {
+            return uids;
+        }
+        
+        public UID[] getSupportedTransferSyntaxes() {
+            return tsyn;
+        }
+        
+        public void handleCommand(Association assoc, int PresentationContextID, DicomObject cmd, VrReader messageStream) {
+            try {
+                int commandField = cmd.getVR("CommandField").getIntValue();
+                DicomObject identifier = new DicomObjectReader(messageStream).read();
+                List<DicomObject> matches = match(identifier);
+                
+                if (commandField == 0x0020) {
+                    find(assoc, PresentationContextID, cmd, identifier, matches);
+                }
+                else if (commandField == 0x0010) {
+                    get(assoc, PresentationContextID, cmd, matches);
+                }
+                else if (commandField == 0x0021) {
+                    move(assoc, PresentationContextID, cmd, matches);
+                }
+                else {
+                    throw new DicomRuntimeException("Unexpected command " + commandField);
+                }
+            }
+            catch(IOException e) {
+                throw new DicomRuntimeException(e.toString());
+            }
+        }
+        
+        private List<DicomObject> match(DicomObject identifier) {
+            List<DicomObject> matches = new ArrayList<>();
+            for (DicomObject obj : objects) {
+                boolean matched = true;
+                for (String key : matchKeys) {
+                    String value = stringValue(identifier, key);
+                    if (value != null && !value.equals(stringValue(obj, key))) {
+                        matched = false;
+                        break;
+                    }
+                }
+                if (matched) {
+                    matches.add(obj);
+                }
+            }
+            return matches;
+        }
+        
+        private void find(Association assoc, int ctxID, DicomObject cmd, DicomObject identifier, List<DicomObject> matches) throws IOException {
+            String level = stringValue(identifier, "QueryRetrieveLevel");
+            String uniqueKey = "STUDY".equals(level) ? "StudyInstanceUID" : "SERIES".equals(level) ? "SeriesInstanceUID" : "SOPInstanceUID";
+            Set<String> seen = new HashSet<>();
+            
+            for (DicomObject obj : matches) {
+                if (!seen.add(stringValue(obj, uniqueKey))) {
+                    continue;
+                }
+                
+                DicomObject result = new DicomObject();
+                Iterator keys = identifier.iterator();
+                while (keys.hasNext()) {
+                    VR key = (VR)keys.next();
+                    VR value = obj.getVR(key.getName());
+                    result.addVR(value != null ? value : key);
+                }
+                
+                assoc.WriteCommand(response(cmd, 0x8020, 0xFF00, true), ctxID); // Pending
+                assoc.WriteMessage(result, ctxID);
+                
+                // Stop at a C-CANCEL
+                if (assoc.getInputStream().available() > 0) {
+                    DicomObject cancel = assoc.ReadCommand(ctxID);
+                    if (cancel != null && cancel.getVR("CommandField").getIntValue() == 0x0FFF) {
+                        assoc.WriteCommand(response(cmd, 0x8020, 0xFE00, false), ctxID);
+                        return;
+                    }
+                }
+            }
+            
+            assoc.WriteCommand(response(cmd, 0x8020, 0x0000, false), ctxID);
+        }
+        
+        private void get(Association assoc, int ctxID, DicomObject cmd, List<DicomObject> matches) throws IOException {
+            int failed = 0;
+            for (DicomObject obj : matches) {
+                UID sopClass = new UID(stringValue(obj, "SOPClassUID"));
+                int storeCtxID = -1;
+                Iterator ids = assoc.getPresentationContextIDs().iterator();
+                while (ids.hasNext()) {
+                    int id = (Integer)ids.next();
+                    if (sopClass.equals(assoc.getAbstractSyntax(id).getUID())) {
+                        storeCtxID = id;
+                    }
+                }
+                if (storeCtxID < 0) {
+                    failed++;
+                    continue;
+                }
+                
+                DicomObject store = new DicomObject();
+                store.addVR(new VR("CommandField", new DicomNumber(0x0001))); // C-STORE RQ
+                store.addVR(new VR("AffectedSOPClassUID", new DicomString(sopClass.toString())));
+                store.addVR(new VR("Priority", new DicomNumber(0)));
+                store.addVR(new VR("DataSetType", new DicomNumber(0xFEFE))); // dataset follows
+                store.addVR(new VR("AffectedSOPInstanceUID", new DicomString(stringValue(obj, "SOPInstanceUID"))));
+                assoc.WriteCommand(store, storeCtxID);
+                assoc.WriteMessage(obj, storeCtxID);
+                
+                DicomObject rsp = assoc.ReadCommand(storeCtxID);
+                if (rsp == null || rsp.getVR("Status").getIntValue() != 0) {
+                    failed++;
+                }
+            }
+            
+            assoc.WriteCommand(response(cmd, 0x8010, failed == 0 ? 0x0000 : 0xB000, false), ctxID);
+        }
+        
+        private void move(Association assoc, int ctxID, DicomObject cmd, List<DicomObject> matches) throws IOException {
+            Integer port = destinations.get(stringValue(cmd, "MoveDestination"));
+            if (port == null) {
+                assoc.WriteCommand(response(cmd, 0x8021, 0xA801, false), ctxID); // Unknown destination
+                return;
+            }
+            
+            int failed = 0;
+            StorageUser storageClient = new StorageUser();
+            AssociationFactory af = new AssociationFactory();
+            af.AddUser(storageClient);
+            try (Socket socket = new Socket("localhost", port)) {
+                Association storeAssoc = af.CreateUserAssociation(ARCHIVE_AE, stringValue(cmd, "MoveDestination"),
+                        new BufferedInputStream(socket.getInputStream(), 65536),
+                        new BufferedOutputStream(socket.getOutputStream(), 65536));
+                if (storeAssoc == null) {
+                    throw new IOException("Move destination refused the association");
+                }
+                
+                for (DicomObject obj : matches) {
+                    if (!storageClient.storeObject(obj)) {
+                        failed++;
+                    }
+                }
+                
+                storeAssoc.sendReleaseRq();
+                storeAssoc.Receive();
+            }
+            catch(DicomException e) {
+                throw new IOException(e.toString());
+            }
+            
+            assoc.WriteCommand(response(cmd, 0x8021, failed == 0 ? 0x0000 : 0xB000, false), ctxID);
+        }
+        
+        private static DicomObject response(DicomObject cmd, int commandField, int status, boolean hasDataset) {
+            DicomObject response = new DicomObject();
+            response.addVR(new VR("AffectedSOPClassUID", new DicomString(stringValue(cmd, "AffectedSOPClassUID"))));
+            response.addVR(new VR("CommandField", new DicomNumber(commandField)));
+            response.addVR(new VR("MessageIDBeingRespondedTo", new DicomNumber(cmd.getVR("MessageID").getIntValue())));
+            response.addVR(new VR("DataSetType", new DicomNumber(hasDataset ? 0x0000 : 0x0101)));
+            response.addVR(new VR("Status", new DicomNumber(status)));
+            return response;
+        }
+    }
+    
+    private static String stringValue(DicomObject obj, String name) {
+        VR vr = obj.getVR(name);
+        if (vr == null || vr.getLength() == 0) {
+            return null;
+        }
+        return vr.getStringValue().trim();
+    }
+}
@@ -0,0 +1,187 @@
+/* 
+ * The MIT License
+ *
+ * Copyright 2026 Focused Ultrasound Foundation.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.fusfoundation.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import org.fusfoundation.dicom.DicomObject;
+import org.fusfoundation.dicom.DicomObjectReader;
+import org.fusfoundation.dicom.DicomString;
+import org.fusfoundation.dicom.PersonName;
+import org.fusfoundation.dicom.UID;
+import org.fusfoundation.dicom.VR;
+import org.fusfoundation.dicom.part10.DicomFileReader;
+import org.fusfoundation.dicom.part10.DicomFileWriter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * Anonymizes native and encapsulated files and checks that the pixel data
+ * comes through byte for byte while the patient is blanked.
+ *
+ * @author jsnell
+ */
+public class AnonymizerTest {
+    
+    private static final String INSTANCE_UID = "1.2.3.4.5.6.7.8.9";
+    
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+    
+    @Test
+    public void nativePixelData() throws Exception {
+        byte[] pixels = new byte[256 * 256 * 2];
+        for (int i=0; i<pixels.length; i++) {
+            pixels[i] = (byte)(i * 13 + (i >> 9));
+        }
+        
+        File src = tmp.newFile("native.dcm");
+        DicomFileWriter writer = new DicomFileWriter(src, UID.CTImageStorage.toString(), INSTANCE_UID);
+        DicomObject obj = header();
+        obj.addVR(new VR(0x7fe0, 0x0010, VR.OW, pixels));
+        writer.write(obj);
+        
+        File dst = new File(tmp.getRoot(), "native-anon.dcm");
+        assertTrue(new Anonymizer(1).anonymizeFile(src, dst));
+        
+        DicomObject original = read(src);
+        DicomObject anonymized = read(dst);
+        assertArrayEquals(original.getVR("PixelData").getValueBytes(), anonymized.getVR("PixelData").getValueBytes());
+        assertPatientRemoved(anonymized);
+    }
+    
+    @Test
+    public void encapsulatedPixelData() throws Exception {
+        byte[][] fragments = { fragment(1000, 1), fragment(70001, 2), fragment(4, 3) };
+        
+        File src = tmp.newFile("jpeg.dcm");
+        DicomFileWriter writer = new DicomFileWriter(src, UID.CTImageStorage.toString(), INSTANCE_UID, UID.JPEGLossless.toString());
+        java.util.Iterator vrs = header().iterator();
+        while (vrs.hasNext()) {
+            writer.writeVR((VR)vrs.next());
+        }
+        OutputStream out = writer.getDatasetOutputStream();
+        out.write(le(12).putShort((short)0x7fe0).putShort((short)0x0010).put((byte)'O').put((byte)'B')
+                .putShort((short)0).putInt(0xFFFFFFFF).array());
+        item(out, 0xE000, new byte[0]); // basic offset table
+        for (byte[] fragment : fragments) {
+            item(out, 0xE000, fragment);
+        }
+        item(out, 0xE0DD, new byte[0]);
+        writer.close();
+        
+        File dst = new File(tmp.getRoot(), "jpeg-anon.dcm");
+        assertTrue(new Anonymizer(1).anonymizeFile(src, dst));
+        
+        DicomObject anonymized = read(dst);
+        List frames = anonymized.getVR("PixelData").getImageFrames();
+        assertEquals(fragments.length, frames.size());
+        for (int i=0; i<fragments.length; i++) {
+            assertArrayEquals(fragments[i], (byte[])frames.get(i));
+        }
+        assertPatientRemoved(anonymized);
+    }
+    
+    @Test
+    public void classUIDsAreKept() throws Exception {
+        String privateClass = "1.3.12.2.1107.5.9.1";
+        String study = "1.2.3.4.5.6.7.8.10";
+        
+        File src = tmp.newFile("private.dcm");
+        DicomFileWriter writer = new DicomFileWriter(src, privateClass, INSTANCE_UID);
+        DicomObject obj = new DicomObject();
+        obj.addVR(new VR("SOPClassUID", new DicomString(privateClass)));
+        obj.addVR(new VR("SOPInstanceUID", new DicomString(INSTANCE_UID)));
+        obj.addVR(new VR("StudyInstanceUID", new DicomString(study)));
+        obj.addVR(new VR("Modality", new DicomString("CT")));
+        writer.write(obj);
+        
+        Anonymizer anonymizer = new Anonymizer(1);
+        File dst = new File(tmp.getRoot(), "private-anon.dcm");
+        assertTrue(anonymizer.anonymizeFile(src, dst));
+        
+        DicomFileReader reader = new DicomFileReader(dst);
+        try {
+            DicomObject anonymized = new DicomObjectReader(reader).read();
+            assertEquals(privateClass, anonymized.getVR("SOPClassUID").getStringValue().trim());
+            assertEquals(privateClass, reader.getMetaInfo().getVR("MediaStorageSOPClassUID").getStringValue().trim());
+            
+            String instance = anonymized.getVR("SOPInstanceUID").getStringValue().trim();
+            assertEquals(anonymizer.remapUID(INSTANCE_UID), instance);
+            assertEquals(instance, reader.getMetaInfo().getVR("MediaStorageSOPInstanceUID").getStringValue().trim());
+            assertEquals(anonymizer.remapUID(study), anonymized.getVR("StudyInstanceUID").getStringValue().trim());
+        }
+        finally {
+            reader.close();
+        }
+    }
+    
+    private static DicomObject header() {
+        DicomObject obj = new DicomObject();
+        obj.addVR(new VR("SOPClassUID", new DicomString(UID.CTImageStorage.toString())));
+        obj.addVR(new VR("SOPInstanceUID", new DicomString(INSTANCE_UID)));
+        obj.addVR(new VR("Modality", new DicomString("CT")));
+        obj.addVR(new VR("PatientName", new PersonName("Doe", "Jane", "", "", "")));
+        return obj;
+    }
+    
+    private static void assertPatientRemoved(DicomObject obj) throws Exception {
+        VR name = obj.getVR("PatientName");
+        assertTrue(name == null || !new String(name.getValueBytes(), "8859_1").contains("Doe"));
+        assertEquals("CT", obj.getVR("Modality").getStringValue().trim());
+    }
+    
+    private static DicomObject read(File file) throws Exception {
+        DicomFileReader reader = new DicomFileReader(file);
+        try {
+            return new DicomObjectReader(reader).read();
+        }
+        finally {
+            reader.close();
+        }
+    }
+    
+    private static byte[] fragment(int length, int seed) {
+        byte[] result = new byte[length];
+        for (int i=0; i<length; i++) {
+            result[i] = (byte)(i * seed + 7);
+        }
+        return result;
+    }
+    
+    private static void item(OutputStream out, int element, byte[] value) throws Exception {
+        out.write(le(8).putShort((short)0xFFFE).putShort((short)element).putInt(value.length).array());
+        out.write(value);
+    }
+    
+    private static ByteBuffer le(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}